@@ -56,6 +56,7 @@ CQL_CREATE_TIMESERIES_TABLES="\
         sample_count BIGINT, \
         sample_rate DOUBLE, \
         samples FROZEN<LIST<DOUBLE>>, \
+        encoded_samples BLOB, \
         PRIMARY KEY ((channel_id, date), start_epoch_nano) \
     ); \
     CREATE TABLE IF NOT EXISTS ${CASSANDRA_TIMESERIES_KEYSPACE}.${CASSANDRA_FKSPECTRA_TABLE} ( \
@@ -70,6 +71,13 @@ CQL_CREATE_TIMESERIES_TABLES="\
 #    CREATE INDEX IF NOT EXISTS idx_fk_power_spectrum_id \
 #        ON ${CASSANDRA_TIMESERIES_KEYSPACE}.${CASSANDRA_FKSPECTRA_TABLE} (id);"
 
+# Waveforms tables created before sample blocks were stored as encoded blobs only have the legacy
+# 'samples' column.  Adding a column that already exists fails, so this statement's errors are
+# ignored below.
+CQL_ADD_ENCODED_SAMPLES_COLUMN="\
+    ALTER TABLE ${CASSANDRA_TIMESERIES_KEYSPACE}.${CASSANDRA_WAVEFORMS_TABLE} \
+    ADD encoded_samples BLOB;"
+
 
 echo "Starting gms-configuration.sh initdb script..."
 
@@ -102,6 +110,7 @@ if cqlsh -u ${CASSANDRA_USER} -p ${CASSANDRA_USER_PASSWORD} -e "DESCRIBE KEYSPAC
     echo "Yes we can.  Now to create the timeseries tables..."
     set -ex
     cqlsh -u ${CASSANDRA_USER} -p ${CASSANDRA_USER_PASSWORD} -e "${CQL_CREATE_TIMESERIES_TABLES}"
+    cqlsh -u ${CASSANDRA_USER} -p ${CASSANDRA_USER_PASSWORD} -e "${CQL_ADD_ENCODED_SAMPLES_COLUMN}" || true
     set +ex
 else
     echo "No we can't.  Exiting with non-zero return code so that docker-entrypoint-wrapper.sh will invoke us again in a few seconds."
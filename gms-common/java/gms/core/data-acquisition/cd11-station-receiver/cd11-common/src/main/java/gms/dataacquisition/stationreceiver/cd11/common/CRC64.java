@@ -24,6 +24,10 @@ public final class CRC64 {
   // This contains the pre-computed coefficients for each of the possible 256 values.
   private static long[] tvec;
 
+  // Slicing-by-8 tables: slices[(k << 8) | i] is the remainder of dividing i*x^(64+8k) by the
+  // polynomial, so the register can be advanced a whole 8 bytes at a time.  slices[0..255] is tvec.
+  private static final long[] slices;
+
   static {
     // compute the 256 CRC elements the first time
     tvec = new long[256];
@@ -37,6 +41,16 @@ public final class CRC64 {
       }
       //Util.prt(i+"="+Util.toHex(tvec[i]));
     }
+
+    // Each slice is the previous slice multiplied by x^8.
+    slices = new long[8 * 256];
+    System.arraycopy(tvec, 0, slices, 0, 256);
+    for (int k = 1; k < 8; k++) {
+      for (int i = 0; i < 256; i++) {
+        long prev = slices[((k - 1) << 8) | i];
+        slices[(k << 8) | i] = tvec[(int) (prev >>> 56)] ^ (prev << 8);
+      }
+    }
   }
 
   /**
@@ -57,13 +71,87 @@ public final class CRC64 {
    * @return CRC value.
    */
   public static long compute(byte[] b, int len) {
-    long crc = 0L;
-    for (int i = 0; i < len; i++) {
+    return update(0L, b, 0, len);
+  }
+
+  /**
+   * Continues a CRC with len bytes of the array b, starting at offset.  A CRC over several
+   * consecutive pieces of data is computed by starting with 0 and passing the value returned for
+   * each piece to the next, without copying the pieces into one array.
+   *
+   * @param crc The CRC of the data preceding this piece (0 for the first piece).
+   * @param b The byte array holding the piece.
+   * @param offset Offset of the piece in the array.
+   * @param len The length of the piece in bytes.
+   * @return CRC value of all data up to and including this piece.
+   */
+  public static long update(long crc, byte[] b, int offset, int len) {
+    if (offset < 0 || len < 0 || offset > b.length - len) {
+      throw new IndexOutOfBoundsException(
+          "offset " + offset + ", len " + len + ", array length " + b.length);
+    }
+    int i = offset;
+    int end = offset + len;
+
+    // Shift in 8 bytes at a time: the register's bytes are reduced through the slicing tables, and
+    // the next 8 bytes of data take their place.
+    for (int blockEnd = end - 7; i < blockEnd; i += 8) {
+      crc = slices[0x700 | (int) (crc >>> 56)]
+          ^ slices[0x600 | (int) ((crc >>> 48) & 0xffL)]
+          ^ slices[0x500 | (int) ((crc >>> 40) & 0xffL)]
+          ^ slices[0x400 | (int) ((crc >>> 32) & 0xffL)]
+          ^ slices[0x300 | (int) ((crc >>> 24) & 0xffL)]
+          ^ slices[0x200 | (int) ((crc >>> 16) & 0xffL)]
+          ^ slices[0x100 | (int) ((crc >>> 8) & 0xffL)]
+          ^ slices[(int) (crc & 0xffL)]
+          ^ ((b[i] & 0xffL) << 56
+          | (b[i + 1] & 0xffL) << 48
+          | (b[i + 2] & 0xffL) << 40
+          | (b[i + 3] & 0xffL) << 32
+          | (b[i + 4] & 0xffL) << 24
+          | (b[i + 5] & 0xffL) << 16
+          | (b[i + 6] & 0xffL) << 8
+          | (b[i + 7] & 0xffL));
+    }
+    for (; i < end; i++) {
       crc = tvec[(int) ((crc >> 56) & 0xffL)] ^ (crc << 8 | (((long) (b[i])) & 0xffL));
     }
     return crc;
   }
 
+  /**
+   * Continues a CRC with the 4 big-endian bytes of an int (e.g. a frame field).
+   *
+   * @param crc The CRC of the data preceding the value.
+   * @param value The value.
+   * @return CRC value of all data up to and including the value.
+   */
+  public static long updateInt(long crc, int value) {
+    for (int shift = 24; shift >= 0; shift -= 8) {
+      crc = tvec[(int) ((crc >> 56) & 0xffL)] ^ (crc << 8 | ((value >>> shift) & 0xffL));
+    }
+    return crc;
+  }
+
+  /**
+   * Continues a CRC with the 8 big-endian bytes of a long (e.g. a frame field).
+   *
+   * @param crc The CRC of the data preceding the value.
+   * @param value The value.
+   * @return CRC value of all data up to and including the value.
+   */
+  public static long updateLong(long crc, long value) {
+    return slices[0x700 | (int) (crc >>> 56)]
+        ^ slices[0x600 | (int) ((crc >>> 48) & 0xffL)]
+        ^ slices[0x500 | (int) ((crc >>> 40) & 0xffL)]
+        ^ slices[0x400 | (int) ((crc >>> 32) & 0xffL)]
+        ^ slices[0x300 | (int) ((crc >>> 24) & 0xffL)]
+        ^ slices[0x200 | (int) ((crc >>> 16) & 0xffL)]
+        ^ slices[0x100 | (int) ((crc >>> 8) & 0xffL)]
+        ^ slices[(int) (crc & 0xffL)]
+        ^ value;
+  }
+
   /**
    * Generates a CRC for the given byte array, and checks that it matches the expected value.
    *
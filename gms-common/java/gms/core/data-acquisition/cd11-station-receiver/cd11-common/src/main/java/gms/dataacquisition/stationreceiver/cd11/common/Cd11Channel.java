@@ -0,0 +1,339 @@
+package gms.dataacquisition.stationreceiver.cd11.common;
+
+import gms.dataacquisition.stationreceiver.cd11.common.configuration.Cd11SocketConfig;
+import gms.dataacquisition.stationreceiver.cd11.common.frames.Cd11AcknackFrame;
+import gms.dataacquisition.stationreceiver.cd11.common.frames.Cd11ByteFrame;
+import gms.dataacquisition.stationreceiver.cd11.common.frames.Cd11Frame;
+import gms.dataacquisition.stationreceiver.cd11.common.frames.Cd11Frame.FrameType;
+import gms.dataacquisition.stationreceiver.cd11.common.frames.Cd11FrameDecoder;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Non-blocking alternative to {@link Cd11Socket}, reading and writing CD 1.1 frames on a {@link
+ * SocketChannel} serviced by a {@link Cd11EventLoop}.
+ *
+ * Instead of a thread blocking (or polling) for each frame, received bytes are decoded as they
+ * arrive and each complete frame is passed to the channel's {@link Handler} on the event loop's
+ * thread.  Frames written from other threads are queued and sent by the event loop.
+ */
+public final class Cd11Channel {
+
+  private static Logger logger = LoggerFactory.getLogger(Cd11Channel.class);
+
+  /**
+   * Receives the frames and closure of a {@link Cd11Channel}.  Both methods are called on the
+   * channel's event loop thread, and must not block.
+   */
+  public interface Handler {
+
+    /**
+     * Called for each frame received.
+     *
+     * @param cd11Frame The frame.
+     */
+    void onFrame(Cd11Frame cd11Frame);
+
+    /**
+     * Called once when the channel is closed, unless it was closed by {@link #close()}.
+     *
+     * @param cause The error that closed the channel, or null if the remote side closed it.
+     */
+    void onClosed(Exception cause);
+  }
+
+  private final SocketChannel socketChannel;
+  private final Cd11EventLoop eventLoop;
+  private final Handler handler;
+  private final SelectionKey selectionKey;
+  private final Cd11FrameDecoder decoder = new Cd11FrameDecoder();
+  private final Queue<ByteBuffer> pendingWrites = new ConcurrentLinkedQueue<>();
+  private final AtomicLong lastContactTimeNs;
+  private final AtomicLong lastAcknackSentTimeNs;
+
+  private volatile String framesetAcked;
+  private volatile boolean open = true;
+
+  // Only accessed from the event loop.
+  private boolean readPaused = false;
+  private boolean writeBlocked = false;
+  private boolean endOfStream = false;
+
+  private Cd11Channel(
+      Cd11SocketConfig config, SocketChannel socketChannel, Cd11EventLoop eventLoop,
+      Handler handler) throws IOException {
+    this.socketChannel = socketChannel;
+    this.eventLoop = eventLoop;
+    this.handler = handler;
+    this.framesetAcked = config.frameCreator + ":" + config.frameDestination;
+
+    // Initialize the "last contact" and "last Acknack sent" time stamps.
+    long tstamp = System.nanoTime();
+    this.lastContactTimeNs = new AtomicLong(tstamp);
+    this.lastAcknackSentTimeNs = new AtomicLong(tstamp);
+
+    this.selectionKey = eventLoop.register(socketChannel, SelectionKey.OP_READ, this::onReady);
+  }
+
+  /**
+   * Starts servicing a connected socket channel.  Must be called from the event loop's thread.
+   *
+   * @param config Configuration object.
+   * @param socketChannel Connected socket channel.
+   * @param eventLoop Event loop servicing the channel.
+   * @param handler Receives the channel's frames.
+   * @return The CD 1.1 channel.
+   * @throws IOException Thrown if the socket channel cannot be registered with the event loop.
+   */
+  public static Cd11Channel register(
+      Cd11SocketConfig config, SocketChannel socketChannel, Cd11EventLoop eventLoop,
+      Handler handler) throws IOException {
+    Validate.notNull(config);
+    Validate.notNull(socketChannel);
+    Validate.notNull(eventLoop);
+    Validate.notNull(handler);
+    Validate.isTrue(socketChannel.isConnected(), "Socket channel is not connected.");
+
+    return new Cd11Channel(config, socketChannel, eventLoop, handler);
+  }
+
+  /**
+   * Returns true if the channel has not been closed.
+   *
+   * @return True if the channel is open.
+   */
+  public boolean isConnected() {
+    return open;
+  }
+
+  public String getRemoteIpAddressAsString() {
+    return ((InetSocketAddress) socketChannel.socket().getRemoteSocketAddress()).getHostString();
+  }
+
+  /**
+   * Sends a CD 1.1 frame. (NOTE: This method is thread safe; the frame is sent by the event loop.)
+   *
+   * @throws IllegalStateException Thrown if the channel is closed.
+   * @throws IOException Thrown on byte serialization errors.
+   */
+  public void write(Cd11Frame cd11Frame) throws IOException {
+    Validate.validState(open, "Channel is not open.");
+
+    pendingWrites.add(ByteBuffer.wrap(cd11Frame.toBytes()));
+    if (eventLoop.inEventLoop()) {
+      flush();
+    } else {
+      eventLoop.execute(this::flush);
+    }
+
+    // Check if an Acknack frame was just sent out.
+    if (cd11Frame.frameType == FrameType.ACKNACK) {
+      // Update the "last Acknack sent" time stamp.
+      lastAcknackSentTimeNs.set(System.nanoTime());
+    }
+  }
+
+  /**
+   * Runs a task on the channel's event loop after a delay, unless the channel has been closed by
+   * then.
+   *
+   * @param task Task to run.
+   * @param delay Time to wait before running the task.
+   * @param unit Unit of the delay.
+   */
+  public void schedule(Runnable task, long delay, TimeUnit unit) {
+    eventLoop.schedule(() -> {
+      if (open) {
+        task.run();
+      }
+    }, delay, unit);
+  }
+
+  /**
+   * Closes the channel, after attempting to send any frames that are still queued.  Must be called
+   * from the event loop's thread.
+   */
+  public void close() {
+    Validate.validState(eventLoop.inEventLoop(), "Channel must be closed from its event loop.");
+    if (!open) {
+      return;
+    }
+    try {
+      writePending();
+    } catch (IOException e) {
+      logger.debug("Queued frames could not be sent before closing the channel.", e);
+    }
+    closeChannel();
+  }
+
+  /**
+   * Stops reading from the socket, leaving unread bytes in its receive buffer so that the sender is
+   * throttled by TCP flow control.  Frames already decoded are held until reading resumes.  Must be
+   * called from the event loop's thread.
+   */
+  public void pauseReading() {
+    Validate.validState(eventLoop.inEventLoop(), "Reading must be paused from its event loop.");
+    if (!open || readPaused) {
+      return;
+    }
+    readPaused = true;
+    updateInterestOps();
+  }
+
+  /**
+   * Resumes reading from the socket after {@link #pauseReading()}, first passing on any frames
+   * that were decoded while paused.  Must be called from the event loop's thread.
+   */
+  public void resumeReading() {
+    Validate.validState(eventLoop.inEventLoop(), "Reading must be resumed from its event loop.");
+    if (!open || !readPaused) {
+      return;
+    }
+    readPaused = false;
+    updateInterestOps();
+    deliverFrames();
+  }
+
+  /**
+   * Returns the frame set acknowledged by the last Acknack frame received.
+   *
+   * @return framesetAcked
+   */
+  public String getFramesetAcked() {
+    return framesetAcked;
+  }
+
+  /**
+   * The total number of seconds since the last frame was received. (NOTE: This method is thread
+   * safe.)
+   *
+   * @return Seconds since last contact.
+   */
+  public long secondsSinceLastContact() {
+    return TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - lastContactTimeNs.get());
+  }
+
+  /**
+   * The total number of seconds since the last Acknack frame was sent. (NOTE: This method is thread
+   * safe.)
+   *
+   * @return Seconds since last Acknack sent.
+   */
+  public long secondsSinceLastAcknackSent() {
+    return TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - lastAcknackSentTimeNs.get());
+  }
+
+  private void onReady(SelectionKey key) {
+    if (key.isWritable()) {
+      flush();
+    }
+    if (open && !readPaused && key.isReadable()) {
+      read();
+    }
+  }
+
+  /**
+   * Reads the bytes currently available, and passes on each complete frame.  Only one read is made
+   * per readiness event, so that a busy connection does not starve the others on the event loop.
+   */
+  private void read() {
+    try {
+      endOfStream = decoder.readFrom(socketChannel) < 0;
+    } catch (Exception e) {
+      if (open) {
+        closeChannel();
+        handler.onClosed(e);
+      }
+      return;
+    }
+    deliverFrames();
+  }
+
+  /**
+   * Passes on each complete frame held by the decoder until reading is paused, then closes the
+   * channel if the remote end has closed the connection and no frames remain.
+   */
+  private void deliverFrames() {
+    try {
+      Cd11ByteFrame cd11ByteFrame;
+      while (open && !readPaused && (cd11ByteFrame = decoder.nextFrame()) != null) {
+        // Update the "last contact" time stamp.
+        lastContactTimeNs.set(System.nanoTime());
+
+        Cd11Frame cd11Frame = Cd11Socket.createCd11Frame(cd11ByteFrame);
+        if (cd11Frame.frameType == FrameType.ACKNACK) {
+          this.framesetAcked = cd11Frame.asFrameType(Cd11AcknackFrame.class).framesetAcked;
+        }
+        handler.onFrame(cd11Frame);
+      }
+
+      if (endOfStream && open && !readPaused) {
+        closeChannel();
+        handler.onClosed(null);
+      }
+    } catch (Exception e) {
+      if (open) {
+        closeChannel();
+        handler.onClosed(e);
+      }
+    }
+  }
+
+  private void flush() {
+    if (!open) {
+      return;
+    }
+    try {
+      // Wait for the socket to become writable again if its send buffer is full.
+      writeBlocked = !writePending();
+      updateInterestOps();
+    } catch (IOException e) {
+      closeChannel();
+      handler.onClosed(e);
+    }
+  }
+
+  private void updateInterestOps() {
+    selectionKey.interestOps((readPaused || endOfStream ? 0 : SelectionKey.OP_READ)
+        | (writeBlocked ? SelectionKey.OP_WRITE : 0));
+  }
+
+  /**
+   * Writes queued frames until the queue is empty or the socket's send buffer is full.
+   *
+   * @return True if all queued frames were written.
+   */
+  private boolean writePending() throws IOException {
+    ByteBuffer bytes;
+    while ((bytes = pendingWrites.peek()) != null) {
+      socketChannel.write(bytes);
+      if (bytes.hasRemaining()) {
+        return false;
+      }
+      pendingWrites.poll();
+    }
+    return true;
+  }
+
+  private void closeChannel() {
+    open = false;
+    pendingWrites.clear();
+    selectionKey.cancel();
+    try {
+      socketChannel.close();
+    } catch (IOException e) {
+      logger.warn("Socket channel could not be closed.", e);
+    }
+  }
+}
@@ -0,0 +1,226 @@
+package gms.dataacquisition.stationreceiver.cd11.common;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * A single thread multiplexing any number of non-blocking channels with a {@link Selector}, and
+ * running tasks and timers submitted to it.
+ *
+ * Everything registered with an event loop (channel readiness handlers, tasks and timers) runs on
+ * the event loop's thread, so state owned by a connection can be accessed from those callbacks
+ * without locking.  Callbacks must not block, since they delay every other connection serviced by
+ * the same event loop.  Event loops are created by a {@link Cd11EventLoopGroup}.
+ */
+public final class Cd11EventLoop {
+
+  private static Logger logger = LoggerFactory.getLogger(Cd11EventLoop.class);
+
+  private final Selector selector;
+  private final Thread thread;
+  private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+  // Only accessed from the event loop's thread.
+  private final PriorityQueue<Timer> timers = new PriorityQueue<>();
+  private long nextTimerSequence = 0;
+
+  private volatile boolean running = true;
+
+  Cd11EventLoop(String threadName) {
+    try {
+      this.selector = Selector.open();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not open selector for " + threadName, e);
+    }
+    this.thread = new Thread(this::run, threadName);
+    this.thread.setDaemon(true);
+  }
+
+  void start() {
+    thread.start();
+  }
+
+  /**
+   * Returns true if the calling thread is this event loop's thread.
+   *
+   * @return True when called from a callback running on this event loop.
+   */
+  public boolean inEventLoop() {
+    return Thread.currentThread() == thread;
+  }
+
+  /**
+   * Runs a task on the event loop's thread. (NOTE: This method is thread safe.)
+   *
+   * @param task Task to run.
+   */
+  public void execute(Runnable task) {
+    Validate.notNull(task);
+    tasks.add(task);
+    if (!inEventLoop()) {
+      selector.wakeup();
+    }
+  }
+
+  /**
+   * Runs a task on the event loop's thread after a delay. (NOTE: This method is thread safe.)
+   *
+   * @param task Task to run.
+   * @param delay Time to wait before running the task.
+   * @param unit Unit of the delay.
+   */
+  public void schedule(Runnable task, long delay, TimeUnit unit) {
+    Validate.notNull(task);
+    long deadlineNs = System.nanoTime() + unit.toNanos(Math.max(delay, 0));
+    if (inEventLoop()) {
+      timers.add(new Timer(deadlineNs, nextTimerSequence++, task));
+    } else {
+      execute(() -> timers.add(new Timer(deadlineNs, nextTimerSequence++, task)));
+    }
+  }
+
+  /**
+   * Registers a channel with this event loop's selector.  Must be called from the event loop's
+   * thread (e.g. from a task passed to {@link #execute(Runnable)}).
+   *
+   * @param channel Channel to register; it is switched to non-blocking mode.
+   * @param interestOps Initial interest set.
+   * @param readyHandler Called on the event loop's thread whenever the channel is ready for one of
+   * the operations in its interest set.
+   * @return The channel's selection key.
+   * @throws IOException Thrown if the channel cannot be registered.
+   */
+  public SelectionKey register(
+      SelectableChannel channel, int interestOps, Consumer<SelectionKey> readyHandler)
+      throws IOException {
+    Validate.validState(inEventLoop(), "Channels must be registered from the event loop thread.");
+    Validate.notNull(readyHandler);
+    if (!running) {
+      throw new ClosedChannelException();
+    }
+    channel.configureBlocking(false);
+    return channel.register(selector, interestOps, readyHandler);
+  }
+
+  /**
+   * Stops the event loop after running the tasks already submitted to it; channels still registered
+   * with it are then closed.
+   */
+  void shutdown() {
+    running = false;
+    selector.wakeup();
+  }
+
+  void awaitTermination() throws InterruptedException {
+    thread.join();
+  }
+
+  @SuppressWarnings("unchecked")
+  private void run() {
+    while (running) {
+      try {
+        long timeoutMs = runDueTimers();
+        if (tasks.isEmpty()) {
+          selector.select(timeoutMs);
+        } else {
+          selector.selectNow();
+        }
+
+        Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+          SelectionKey key = keys.next();
+          keys.remove();
+          if (key.isValid()) {
+            runSafely(() -> ((Consumer<SelectionKey>) key.attachment()).accept(key));
+          }
+        }
+
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+          runSafely(task);
+        }
+      } catch (IOException e) {
+        logger.error(String.format("Selector error in event loop %s.", thread.getName()), e);
+      }
+    }
+
+    // Run the tasks submitted before shutting down, then close all channels still registered.
+    Runnable task;
+    while ((task = tasks.poll()) != null) {
+      runSafely(task);
+    }
+    for (SelectionKey key : selector.keys()) {
+      try {
+        key.channel().close();
+      } catch (IOException e) {
+        logger.warn("Channel could not be closed.", e);
+      }
+    }
+    try {
+      selector.close();
+    } catch (IOException e) {
+      logger.warn("Selector could not be closed.", e);
+    }
+  }
+
+  /**
+   * Runs the timers that are due.
+   *
+   * @return Milliseconds until the next timer is due (at least 1), or 0 if there are no timers.
+   */
+  private long runDueTimers() {
+    while (!timers.isEmpty()) {
+      long remainingNs = timers.peek().deadlineNs - System.nanoTime();
+      if (remainingNs > 0) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(remainingNs));
+      }
+      runSafely(timers.poll().task);
+    }
+    return 0;
+  }
+
+  private void runSafely(Runnable task) {
+    try {
+      task.run();
+    } catch (RuntimeException e) {
+      logger.error(String.format("Unexpected exception in event loop %s.", thread.getName()), e);
+    }
+  }
+
+  private static final class Timer implements Comparable<Timer> {
+
+    private final long deadlineNs;
+    private final long sequence;
+    private final Runnable task;
+
+    private Timer(long deadlineNs, long sequence, Runnable task) {
+      this.deadlineNs = deadlineNs;
+      this.sequence = sequence;
+      this.task = task;
+    }
+
+    @Override
+    public int compareTo(Timer other) {
+      // Deadlines are compared by difference, since System.nanoTime() may overflow.
+      long difference = deadlineNs - other.deadlineNs;
+      if (difference != 0) {
+        return difference < 0 ? -1 : 1;
+      }
+      return Long.compare(sequence, other.sequence);
+    }
+  }
+}
@@ -0,0 +1,75 @@
+package gms.dataacquisition.stationreceiver.cd11.common;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * A fixed number of {@link Cd11EventLoop}s, shared by any number of CD 1.1 connections so that the
+ * number of threads does not grow with the number of stations.
+ */
+public final class Cd11EventLoopGroup implements AutoCloseable {
+
+  private static Logger logger = LoggerFactory.getLogger(Cd11EventLoopGroup.class);
+
+  private final Cd11EventLoop[] eventLoops;
+  private final AtomicInteger nextIndex = new AtomicInteger(0);
+
+  /**
+   * Creates and starts the event loops.
+   *
+   * @param threadName Name of the event loop threads (suffixed by the index of each event loop).
+   * @param threadCount Number of event loops.
+   * @throws IllegalArgumentException Thrown on invalid input.
+   */
+  public Cd11EventLoopGroup(String threadName, int threadCount) {
+    Validate.notBlank(threadName);
+    Validate.isTrue(threadCount > 0, "Thread count must be greater than zero.");
+
+    this.eventLoops = new Cd11EventLoop[threadCount];
+    for (int i = 0; i < threadCount; i++) {
+      eventLoops[i] = new Cd11EventLoop(threadName + " " + i);
+      eventLoops[i].start();
+    }
+  }
+
+  /**
+   * Returns the next event loop, assigning event loops in turn so that connections are spread
+   * evenly across them. (NOTE: This method is thread safe.)
+   *
+   * @return An event loop.
+   */
+  public Cd11EventLoop next() {
+    return eventLoops[Math.floorMod(nextIndex.getAndIncrement(), eventLoops.length)];
+  }
+
+  /**
+   * Returns the number of event loops (and threads) in this group.
+   *
+   * @return Number of event loops.
+   */
+  public int size() {
+    return eventLoops.length;
+  }
+
+  /**
+   * Stops all event loops, closing the channels registered with them, and waits for their threads
+   * to finish.
+   */
+  @Override
+  public void close() {
+    for (Cd11EventLoop eventLoop : eventLoops) {
+      eventLoop.shutdown();
+    }
+    try {
+      for (Cd11EventLoop eventLoop : eventLoops) {
+        eventLoop.awaitTermination();
+      }
+    } catch (InterruptedException e) {
+      logger.warn("Interrupted while waiting for the event loops to stop.", e);
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -23,7 +23,6 @@ import java.io.IOException;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.Socket;
-import java.nio.ByteBuffer;
 import java.time.Instant;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BooleanSupplier;
@@ -446,11 +445,25 @@ public final class Cd11Socket {
     lastContactTimeNs.set(System.nanoTime());
 
     // Construct the appropriate CD 1.1 frame.
+    Cd11Frame cd11Frame = createCd11Frame(cd11ByteFrame);
+    if (cd11Frame.frameType == FrameType.ACKNACK) {
+      //Set the Frame Creator from the first frame we receive on the data consumer (always option request)
+      this.framesetAcked = cd11Frame.asFrameType(Cd11AcknackFrame.class).framesetAcked;
+    }
+    return cd11Frame;
+  }
+
+  /**
+   * Constructs the CD 1.1 frame of the appropriate type from a frame's bytes.
+   *
+   * @param cd11ByteFrame Bytes of the frame.
+   * @return CD 1.1 frame.
+   * @throws Exception Thrown on parsing, validation, or object construction errors, or if the frame
+   * type is not yet supported.
+   */
+  static Cd11Frame createCd11Frame(Cd11ByteFrame cd11ByteFrame) throws Exception {
     switch (cd11ByteFrame.getFrameType()) {
       case ACKNACK:
-        //Set the Frame Creator from the first frame we receive on the data consumer (always option request)
-        Cd11AcknackFrame cd11AcknackFrame = new Cd11AcknackFrame(cd11ByteFrame);
-        this.framesetAcked = cd11AcknackFrame.framesetAcked;
         return new Cd11AcknackFrame(cd11ByteFrame);
       case ALERT:
         return new Cd11AlertFrame(cd11ByteFrame);
@@ -508,15 +521,9 @@ public final class Cd11Socket {
         this.config.frameDestination,
         0);
 
-    // Generate the frame header and body byte arrays.
-    ByteBuffer frameHeaderAndBodyByteBuffer = ByteBuffer.allocate(
-        Cd11FrameHeader.FRAME_LENGTH + frameBodyBytes.length);
-    frameHeaderAndBodyByteBuffer.put(frameHeader.toBytes());
-    frameHeaderAndBodyByteBuffer.put(frameBodyBytes);
-
-    // Generate the frame trailer.
+    // Generate the frame trailer from the frame header and body byte arrays.
     Cd11FrameTrailer frameTrailer = new Cd11FrameTrailer(
-        this.config.authenticationKeyIdentifier, frameHeaderAndBodyByteBuffer.array());
+        this.config.authenticationKeyIdentifier, frameHeader.toBytes(), frameBodyBytes);
 
     // Add the frame header and trailer.
     newFrame.setFrameHeader(frameHeader);
@@ -548,15 +555,9 @@ public final class Cd11Socket {
         this.config.frameDestination,
         0);
 
-    // Generate the frame header and body byte arrays.
-    ByteBuffer frameHeaderAndBodyByteBuffer = ByteBuffer.allocate(
-        Cd11FrameHeader.FRAME_LENGTH + frameBodyBytes.length);
-    frameHeaderAndBodyByteBuffer.put(frameHeader.toBytes());
-    frameHeaderAndBodyByteBuffer.put(frameBodyBytes);
-
-    // Generate the frame trailer.
+    // Generate the frame trailer from the frame header and body byte arrays.
     Cd11FrameTrailer frameTrailer = new Cd11FrameTrailer(
-        this.config.authenticationKeyIdentifier, frameHeaderAndBodyByteBuffer.array());
+        this.config.authenticationKeyIdentifier, frameHeader.toBytes(), frameBodyBytes);
 
     // Add the frame header and trailer.
     newFrame.setFrameHeader(frameHeader);
@@ -593,15 +594,9 @@ public final class Cd11Socket {
         config.frameDestination,
         0);
 
-    // Generate the frame header and body byte arrays.
-    ByteBuffer frameHeaderAndBodyByteBuffer = ByteBuffer.allocate(
-        Cd11FrameHeader.FRAME_LENGTH + frameBodyBytes.length);
-    frameHeaderAndBodyByteBuffer.put(frameHeader.toBytes());
-    frameHeaderAndBodyByteBuffer.put(frameBodyBytes);
-
-    // Generate the frame trailer.
+    // Generate the frame trailer from the frame header and body byte arrays.
     Cd11FrameTrailer frameTrailer = new Cd11FrameTrailer(
-        config.authenticationKeyIdentifier, frameHeaderAndBodyByteBuffer.array());
+        config.authenticationKeyIdentifier, frameHeader.toBytes(), frameBodyBytes);
 
     // Add the frame header and trailer.
     newFrame.setFrameHeader(frameHeader);
@@ -637,15 +632,9 @@ public final class Cd11Socket {
         config.frameDestination,
         0);
 
-    // Generate the frame header and body byte arrays.
-    ByteBuffer frameHeaderAndBodyByteBuffer = ByteBuffer.allocate(
-        Cd11FrameHeader.FRAME_LENGTH + frameBodyBytes.length);
-    frameHeaderAndBodyByteBuffer.put(frameHeader.toBytes());
-    frameHeaderAndBodyByteBuffer.put(frameBodyBytes);
-
-    // Generate the frame trailer.
+    // Generate the frame trailer from the frame header and body byte arrays.
     Cd11FrameTrailer frameTrailer = new Cd11FrameTrailer(
-        config.authenticationKeyIdentifier, frameHeaderAndBodyByteBuffer.array());
+        config.authenticationKeyIdentifier, frameHeader.toBytes(), frameBodyBytes);
 
     // Add the frame header and trailer.
     newFrame.setFrameHeader(frameHeader);
@@ -678,15 +667,9 @@ public final class Cd11Socket {
         config.frameDestination,
         sequenceNumber);
 
-    // Generate the frame header and body byte arrays.
-    ByteBuffer frameHeaderAndBodyByteBuffer = ByteBuffer.allocate(
-        Cd11FrameHeader.FRAME_LENGTH + frameBodyBytes.length);
-    frameHeaderAndBodyByteBuffer.put(frameHeader.toBytes());
-    frameHeaderAndBodyByteBuffer.put(frameBodyBytes);
-
-    // Generate the frame trailer.
+    // Generate the frame trailer from the frame header and body byte arrays.
     Cd11FrameTrailer frameTrailer = new Cd11FrameTrailer(
-        config.authenticationKeyIdentifier, frameHeaderAndBodyByteBuffer.array());
+        config.authenticationKeyIdentifier, frameHeader.toBytes(), frameBodyBytes);
 
     // Add the frame header and trailer.
     newFrame.setFrameHeader(frameHeader);
@@ -717,15 +700,9 @@ public final class Cd11Socket {
         config.frameDestination,
         0);
 
-    // Generate the frame header and body byte arrays.
-    ByteBuffer frameHeaderAndBodyByteBuffer = ByteBuffer.allocate(
-        Cd11FrameHeader.FRAME_LENGTH + frameBodyBytes.length);
-    frameHeaderAndBodyByteBuffer.put(frameHeader.toBytes());
-    frameHeaderAndBodyByteBuffer.put(frameBodyBytes);
-
-    // Generate the frame trailer.
+    // Generate the frame trailer from the frame header and body byte arrays.
     Cd11FrameTrailer frameTrailer = new Cd11FrameTrailer(
-        config.authenticationKeyIdentifier, frameHeaderAndBodyByteBuffer.array());
+        config.authenticationKeyIdentifier, frameHeader.toBytes(), frameBodyBytes);
 
     // Add the frame header and trailer.
     newFrame.setFrameHeader(frameHeader);
@@ -757,15 +734,9 @@ public final class Cd11Socket {
         config.frameDestination,
         0);
 
-    // Generate the frame header and body byte arrays.
-    ByteBuffer frameHeaderAndBodyByteBuffer = ByteBuffer.allocate(
-        Cd11FrameHeader.FRAME_LENGTH + frameBodyBytes.length);
-    frameHeaderAndBodyByteBuffer.put(frameHeader.toBytes());
-    frameHeaderAndBodyByteBuffer.put(frameBodyBytes);
-
-    // Generate the frame trailer.
+    // Generate the frame trailer from the frame header and body byte arrays.
     Cd11FrameTrailer frameTrailer = new Cd11FrameTrailer(
-        config.authenticationKeyIdentifier, frameHeaderAndBodyByteBuffer.array());
+        config.authenticationKeyIdentifier, frameHeader.toBytes(), frameBodyBytes);
 
     // Add the frame header and trailer.
     newFrame.setFrameHeader(frameHeader);
@@ -799,15 +770,9 @@ public final class Cd11Socket {
         config.frameDestination,
         0);
 
-    // Generate the frame header and body byte arrays.
-    ByteBuffer frameHeaderAndBodyByteBuffer = ByteBuffer.allocate(
-        Cd11FrameHeader.FRAME_LENGTH + frameBodyBytes.length);
-    frameHeaderAndBodyByteBuffer.put(frameHeader.toBytes());
-    frameHeaderAndBodyByteBuffer.put(frameBodyBytes);
-
-    // Generate the frame trailer.
+    // Generate the frame trailer from the frame header and body byte arrays.
     Cd11FrameTrailer frameTrailer = new Cd11FrameTrailer(
-        config.authenticationKeyIdentifier, frameHeaderAndBodyByteBuffer.array());
+        config.authenticationKeyIdentifier, frameHeader.toBytes(), frameBodyBytes);
 
     // Add the frame header and trailer.
     newFrame.setFrameHeader(frameHeader);
@@ -842,15 +807,9 @@ public final class Cd11Socket {
         config.frameDestination,
         0);
 
-    // Generate the frame header and body byte arrays.
-    ByteBuffer frameHeaderAndBodyByteBuffer = ByteBuffer.allocate(
-        Cd11FrameHeader.FRAME_LENGTH + frameBodyBytes.length);
-    frameHeaderAndBodyByteBuffer.put(frameHeader.toBytes());
-    frameHeaderAndBodyByteBuffer.put(frameBodyBytes);
-
-    // Generate the frame trailer.
+    // Generate the frame trailer from the frame header and body byte arrays.
     Cd11FrameTrailer frameTrailer = new Cd11FrameTrailer(
-        config.authenticationKeyIdentifier, frameHeaderAndBodyByteBuffer.array());
+        config.authenticationKeyIdentifier, frameHeader.toBytes(), frameBodyBytes);
 
     // Add the frame header and trailer.
     newFrame.setFrameHeader(frameHeader);
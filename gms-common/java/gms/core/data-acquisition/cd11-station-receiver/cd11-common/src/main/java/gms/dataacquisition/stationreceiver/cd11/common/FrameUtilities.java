@@ -259,16 +259,9 @@ public class FrameUtilities {
         frame.getFrameHeader().frameDestination,
         0);
 
-    // Generate the frame header and body byte arrays.
-    ByteBuffer frameHeaderAndBodyByteBuffer = ByteBuffer.allocate(
-        Cd11FrameHeader.FRAME_LENGTH + frameBodyBytes.length);
-    frameHeaderAndBodyByteBuffer.put(frameHeader.toBytes());
-    frameHeaderAndBodyByteBuffer.put(frameBodyBytes);
-
-    // Generate the frame trailer.
+    // Generate the frame trailer from the frame header and body byte arrays.
     Cd11FrameTrailer frameTrailer = new Cd11FrameTrailer(
-        frame.getFrameTrailer().authenticationKeyIdentifier,
-        frameHeaderAndBodyByteBuffer.array());
+        frame.getFrameTrailer().authenticationKeyIdentifier, frameHeader.toBytes(), frameBodyBytes);
 
     // Add the frame header and trailer.
     newFrame.setFrameHeader(frameHeader);
@@ -316,16 +309,9 @@ public class FrameUtilities {
         frame.getFrameHeader().frameDestination,
         0);
 
-    // Generate the frame header and body byte arrays.
-    ByteBuffer frameHeaderAndBodyByteBuffer = ByteBuffer.allocate(
-        Cd11FrameHeader.FRAME_LENGTH + frameBodyBytes.length);
-    frameHeaderAndBodyByteBuffer.put(frameHeader.toBytes());
-    frameHeaderAndBodyByteBuffer.put(frameBodyBytes);
-
-    // Generate the frame trailer.
+    // Generate the frame trailer from the frame header and body byte arrays.
     Cd11FrameTrailer frameTrailer = new Cd11FrameTrailer(
-        frame.getFrameTrailer().authenticationKeyIdentifier,
-        frameHeaderAndBodyByteBuffer.array());
+        frame.getFrameTrailer().authenticationKeyIdentifier, frameHeader.toBytes(), frameBodyBytes);
 
     // Add the frame header and trailer.
     newFrame.setFrameHeader(frameHeader);
@@ -5,6 +5,7 @@ import gms.dataacquisition.stationreceiver.cd11.common.frames.Cd11Frame.FrameTyp
 import java.io.DataInputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.function.BooleanSupplier;
 import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
@@ -57,6 +58,36 @@ public class Cd11ByteFrame {
     populateTrailerSegment2();
   }
 
+  /**
+   * Splits a complete CD 1.1 frame that has already been received (e.g. by a {@link
+   * Cd11FrameDecoder}) into its segments.  The segments are copied, so the source array may be
+   * reused once the constructor returns.
+   *
+   * @param source Array containing the frame.
+   * @param offset Index in source of the first byte of the frame.
+   * @param trailerOffset Trailer offset read from the frame header.
+   * @param frameLength Total length of the frame, including the trailer.
+   */
+  Cd11ByteFrame(byte[] source, int offset, int trailerOffset, int frameLength) {
+    int trailerSegment2Offset = offset + trailerOffset + TRAILER_HEADER_1_SIZE;
+
+    headerByteBuffer = ByteBuffer.wrap(
+        Arrays.copyOfRange(source, offset, offset + Cd11FrameHeader.FRAME_LENGTH));
+    bodyByteBuffer = ByteBuffer.wrap(
+        Arrays.copyOfRange(source, offset + Cd11FrameHeader.FRAME_LENGTH, offset + trailerOffset));
+    trailerSegment1ByteBuffer = ByteBuffer.wrap(
+        Arrays.copyOfRange(source, offset + trailerOffset, trailerSegment2Offset));
+    trailerSegment2ByteBuffer = ByteBuffer.wrap(
+        Arrays.copyOfRange(source, trailerSegment2Offset, offset + frameLength));
+
+    frameTypeInt = headerByteBuffer.getInt();
+    this.trailerOffset = headerByteBuffer.getInt();
+    headerByteBuffer.rewind();
+    trailerAuthKeyIdentifier = trailerSegment1ByteBuffer.getInt();
+    trailerAuthSize = trailerSegment1ByteBuffer.getInt();
+    trailerSegment1ByteBuffer.rewind();
+  }
+
   /**
    * Reads the CD 1.1 frame header from the data input stream.
    *
@@ -268,15 +268,9 @@ public abstract class Cd11Frame {
       byte[] rawNetworkBytes = this.getRawNetworkBytes();
       byte[] bytes = (rawNetworkBytes == null) ? this.toBytes() : rawNetworkBytes;
 
-      // Replace commverification bytes with all zeros before we computing the CRC.
-      for (int i = (bytes.length - Long.BYTES); i < bytes.length; i++) {
-        bytes[i] = 0;
-      }
-
-      // Compute the CRC value.
-      return CRC64.isValidCrc(
-          bytes, bytes.length,
-          this.getFrameTrailer().commVerification);
+      // Compute the CRC value in place, with the commverification bytes taken as all zeros.
+      long crc = CRC64.update(0L, bytes, 0, bytes.length - Long.BYTES);
+      return CRC64.updateLong(crc, 0L) == this.getFrameTrailer().commVerification;
     } catch (IOException e) {
       return false;
     }
@@ -0,0 +1,149 @@
+package gms.dataacquisition.stationreceiver.cd11.common.frames;
+
+import gms.dataacquisition.stationreceiver.cd11.common.FrameUtilities;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+
+/**
+ * Incrementally splits a stream of CD 1.1 bytes into frames without blocking.
+ *
+ * Bytes are accumulated as they arrive (in chunks of any size, e.g. from a non-blocking {@link
+ * java.nio.channels.SocketChannel}), and {@link #nextFrame()} returns each frame once all of its
+ * bytes are available.  The length of a frame is determined from its header (trailer offset) and
+ * the first segment of its trailer (authentication size), the same way {@link
+ * Cd11ByteFrame#Cd11ByteFrame(java.io.DataInputStream, java.util.function.BooleanSupplier)} reads
+ * a frame from a blocking stream.
+ *
+ * A decoder is not thread safe; it is meant to be used by the single thread servicing a
+ * connection.
+ */
+public final class Cd11FrameDecoder {
+
+  /**
+   * Frames longer than this are rejected, rather than allocating a buffer for them, since such a
+   * length most likely comes from a corrupted stream.
+   */
+  public static final int MAX_FRAME_LENGTH = 64 * 1024 * 1024;
+
+  private static final int INITIAL_CAPACITY = 64 * 1024;
+  private static final int TRAILER_HEADER_1_SIZE = Integer.BYTES * 2;  // Auth key + auth size.
+  private static final int COMM_VERIFICATION_SIZE = Long.BYTES;
+
+  // Received bytes not yet returned as frames are in [readIndex, buffer.position())
+  private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_CAPACITY);
+  private int readIndex = 0;
+
+  /**
+   * Reads the bytes currently available from a channel.
+   *
+   * @param channel Non-blocking channel to read from.
+   * @return Number of bytes read, possibly zero, or -1 if the channel has reached end-of-stream.
+   * @throws IOException Thrown on read error.
+   */
+  public int readFrom(ReadableByteChannel channel) throws IOException {
+    compact();
+    if (!buffer.hasRemaining()) {
+      grow(buffer.capacity() * 2);
+    }
+    return channel.read(buffer);
+  }
+
+  /**
+   * Appends received bytes.
+   *
+   * @param bytes Bytes to append; all of its remaining bytes are consumed.
+   */
+  public void append(ByteBuffer bytes) {
+    compact();
+    if (buffer.remaining() < bytes.remaining()) {
+      grow(Math.max(buffer.capacity() * 2, buffer.position() + bytes.remaining()));
+    }
+    buffer.put(bytes);
+  }
+
+  /**
+   * Returns the next complete frame, if all of its bytes have been received.
+   *
+   * @return The next frame, or null if more bytes need to be received first.
+   * @throws IOException Thrown if the frame header or trailer contains an invalid length, after
+   * which the stream cannot be decoded any further.
+   */
+  public Cd11ByteFrame nextFrame() throws IOException {
+    int available = buffer.position() - readIndex;
+    if (available < Cd11FrameHeader.FRAME_LENGTH) {
+      return null;
+    }
+
+    // The frame header starts with the frame type and trailer offset.
+    int trailerOffset = buffer.getInt(readIndex + Integer.BYTES);
+    if (trailerOffset < Cd11FrameHeader.FRAME_LENGTH
+        || trailerOffset > MAX_FRAME_LENGTH - TRAILER_HEADER_1_SIZE - COMM_VERIFICATION_SIZE) {
+      throw new IOException(String.format("Invalid CD 1.1 frame trailer offset (%d).",
+          trailerOffset));
+    }
+    if (available < trailerOffset + TRAILER_HEADER_1_SIZE) {
+      ensureCapacity(trailerOffset + TRAILER_HEADER_1_SIZE);
+      return null;
+    }
+
+    // The trailer starts with the authentication key identifier and authentication size.
+    int authSize = buffer.getInt(readIndex + trailerOffset + Integer.BYTES);
+    long frameLength = (long) trailerOffset + TRAILER_HEADER_1_SIZE + COMM_VERIFICATION_SIZE
+        + FrameUtilities.calculatePaddedLength(Math.max(authSize, 0), Integer.BYTES);
+    if (authSize < 0 || frameLength > MAX_FRAME_LENGTH) {
+      throw new IOException(String.format("Invalid CD 1.1 frame authentication size (%d).",
+          authSize));
+    }
+    if (available < frameLength) {
+      ensureCapacity((int) frameLength);
+      return null;
+    }
+
+    Cd11ByteFrame frame = new Cd11ByteFrame(
+        buffer.array(), readIndex, trailerOffset, (int) frameLength);
+    readIndex += (int) frameLength;
+    return frame;
+  }
+
+  /**
+   * Returns the number of received bytes that have not yet been returned as frames.
+   *
+   * @return Number of buffered bytes.
+   */
+  public int bufferedBytes() {
+    return buffer.position() - readIndex;
+  }
+
+  /**
+   * Moves unread bytes to the start of the buffer, making room for more bytes.
+   */
+  private void compact() {
+    if (readIndex > 0) {
+      buffer.flip();
+      buffer.position(readIndex);
+      buffer.compact();
+      readIndex = 0;
+    }
+  }
+
+  /**
+   * Makes sure a frame of the given length fits in the buffer once it has been compacted.
+   */
+  private void ensureCapacity(int frameLength) {
+    if (buffer.capacity() < frameLength) {
+      compact();
+      grow(Math.max(buffer.capacity() * 2, frameLength));
+    }
+  }
+
+  private void grow(int capacity) {
+    ByteBuffer larger = ByteBuffer.allocate(capacity);
+    buffer.flip();
+    buffer.position(readIndex);
+    larger.put(buffer);
+    buffer = larger;
+    readIndex = 0;
+  }
+}
@@ -1,8 +1,5 @@
 package gms.dataacquisition.stationreceiver.cd11.common.frames;
 
-import com.google.common.primitives.Bytes;
-import com.google.common.primitives.Ints;
-import com.google.common.primitives.Longs;
 import gms.dataacquisition.stationreceiver.cd11.common.CRC64;
 import gms.dataacquisition.stationreceiver.cd11.common.FrameUtilities;
 import java.io.IOException;
@@ -34,6 +31,8 @@ public class Cd11FrameTrailer {
    */
   public static final int MINIMUM_FRAME_LENGTH = (Integer.BYTES * 2) + Long.BYTES;
 
+  private static final byte[] NO_BYTES = new byte[0];
+
   /**
    * Creates a trailer given an input stream.
    *
@@ -72,17 +71,31 @@ public class Cd11FrameTrailer {
    * the CRC64 value.
    */
   public Cd11FrameTrailer(int authenticationKeyIdentifier, byte[] frameHeaderAndBody) {
+    this(authenticationKeyIdentifier, frameHeaderAndBody, NO_BYTES);
+  }
+
+  /**
+   * Creates a new frame trailer with all arguments, computing the CRC64 value directly over the
+   * separate frame header and body byte arrays.
+   *
+   * @param authenticationKeyIdentifier identifier of the public key certificate required to verify
+   * the authentication value field; if non-zero, then authentication is used to verify
+   * communications.
+   * @param frameHeader Byte array representing the frame header.
+   * @param frameBody Byte array representing the frame body.
+   */
+  public Cd11FrameTrailer(int authenticationKeyIdentifier, byte[] frameHeader, byte[] frameBody) {
     this.authenticationKeyIdentifier = authenticationKeyIdentifier;
     this.authenticationSize = 0;            // TODO: Generate this value.
     this.authenticationValue = new byte[0]; // TODO: Generate this value.
-    byte[] entireFrame = Bytes.concat(
-        frameHeaderAndBody,
-        Ints.toByteArray(this.authenticationKeyIdentifier),
-        Ints.toByteArray(this.authenticationSize),
-        this.authenticationValue,
-        Longs
-            .toByteArray(0L)); // Have to add CRC as a long filled with zeroes to compute correctly.
-    this.commVerification = CRC64.compute(entireFrame);
+
+    long crc = CRC64.update(0L, frameHeader, 0, frameHeader.length);
+    crc = CRC64.update(crc, frameBody, 0, frameBody.length);
+    crc = CRC64.updateInt(crc, this.authenticationKeyIdentifier);
+    crc = CRC64.updateInt(crc, this.authenticationSize);
+    crc = CRC64.update(crc, this.authenticationValue, 0, this.authenticationValue.length);
+    // Have to add CRC as a long filled with zeroes to compute correctly.
+    this.commVerification = CRC64.updateLong(crc, 0L);
   }
 
   /**
@@ -0,0 +1,67 @@
+package gms.dataacquisition.stationreceiver.cd11.common;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * JMH throughput benchmark of {@link CRC64} against the original byte-at-a-time table lookup, over
+ * CD 1.1 frame-sized inputs.  Run with: java -cp (test runtime classpath) org.openjdk.jmh.Main
+ * CRC64Benchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CRC64Benchmark {
+
+  private static final long[] tvec = new long[256];
+
+  static {
+    for (int i = 0; i < 256; i++) {
+      for (int j = 7; j >= 0; j--) {
+        if ((i & (1 << j)) != 0) {
+          tvec[i] ^= (0x1BL << j);
+        }
+      }
+    }
+  }
+
+  @Param({"64", "1024", "16384"})
+  public int length;
+
+  private byte[] bytes;
+
+  @Setup
+  public void setup() {
+    bytes = new byte[length];
+    new Random(length).nextBytes(bytes);
+  }
+
+  @Benchmark
+  public long byteAtATime() {
+    long crc = 0L;
+    for (int i = 0; i < length; i++) {
+      crc = tvec[(int) ((crc >> 56) & 0xffL)] ^ (crc << 8 | (((long) (bytes[i])) & 0xffL));
+    }
+    return crc;
+  }
+
+  @Benchmark
+  public long slicingBy8() {
+    return CRC64.compute(bytes, length);
+  }
+}
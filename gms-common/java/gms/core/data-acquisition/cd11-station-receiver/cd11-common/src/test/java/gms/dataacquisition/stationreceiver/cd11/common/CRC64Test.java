@@ -0,0 +1,102 @@
+package gms.dataacquisition.stationreceiver.cd11.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import org.junit.Test;
+
+
+public class CRC64Test {
+
+  private static final Random random = new Random(64);
+
+  @Test
+  public void testMatchesByteAtATimeCrc() {
+    // Cover every tail length around the 8 byte blocks, plus some frame-sized inputs.
+    for (int len = 0; len < 100; len++) {
+      byte[] b = randomBytes(len);
+      assertEquals("len " + len, byteAtATimeCrc(b, 0, len), CRC64.compute(b));
+    }
+    for (int len : new int[]{1023, 1024, 1025, 65536 + 3}) {
+      byte[] b = randomBytes(len);
+      assertEquals("len " + len, byteAtATimeCrc(b, 0, len), CRC64.compute(b, len));
+    }
+  }
+
+  @Test
+  public void testKnownValues() {
+    assertEquals(0L, CRC64.compute(new byte[0]));
+    assertEquals(0x0102030405060708L, CRC64.compute(new byte[]{1, 2, 3, 4, 5, 6, 7, 8}));
+    byte[] b = "123456789".getBytes();
+    assertEquals(byteAtATimeCrc(b, 0, b.length), CRC64.compute(b));
+  }
+
+  @Test
+  public void testIncrementalUpdates() {
+    byte[] b = randomBytes(1000);
+    long expected = CRC64.compute(b);
+
+    // Any split of the data gives the same CRC.
+    for (int split = 0; split <= b.length; split += 37) {
+      long crc = CRC64.update(0L, b, 0, split);
+      assertEquals(expected, CRC64.update(crc, b, split, b.length - split));
+    }
+
+    // Offsets into a larger buffer are honored.
+    byte[] padded = new byte[b.length + 13];
+    System.arraycopy(b, 0, padded, 5, b.length);
+    assertEquals(expected, CRC64.update(0L, padded, 5, b.length));
+  }
+
+  @Test
+  public void testUpdateIntAndLong() {
+    byte[] prefix = randomBytes(21);
+    int i = random.nextInt();
+    long l = random.nextLong();
+    byte[] all = ByteBuffer.allocate(prefix.length + Integer.BYTES + Long.BYTES)
+        .put(prefix).putInt(i).putLong(l).array();
+
+    long crc = CRC64.update(0L, prefix, 0, prefix.length);
+    crc = CRC64.updateInt(crc, i);
+    crc = CRC64.updateLong(crc, l);
+    assertEquals(CRC64.compute(all), crc);
+  }
+
+  @Test
+  public void testIsValidCrc() {
+    byte[] b = randomBytes(200);
+    assertTrue(CRC64.isValidCrc(b, 100, byteAtATimeCrc(b, 0, 100)));
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testUpdateOutOfBounds() {
+    CRC64.update(0L, new byte[10], 5, 6);
+  }
+
+  private static byte[] randomBytes(int len) {
+    byte[] b = new byte[len];
+    random.nextBytes(b);
+    return b;
+  }
+
+  /**
+   * The original byte-at-a-time algorithm, which the table-sliced implementation must match bit for
+   * bit.
+   */
+  private static long byteAtATimeCrc(byte[] b, int offset, int len) {
+    long crc = 0L;
+    for (int i = offset; i < offset + len; i++) {
+      long t = 0;
+      int top = (int) ((crc >> 56) & 0xffL);
+      for (int j = 7; j >= 0; j--) {
+        if ((top & (1 << j)) != 0) {
+          t ^= (0x1BL << j);
+        }
+      }
+      crc = t ^ (crc << 8 | (((long) (b[i])) & 0xffL));
+    }
+    return crc;
+  }
+}
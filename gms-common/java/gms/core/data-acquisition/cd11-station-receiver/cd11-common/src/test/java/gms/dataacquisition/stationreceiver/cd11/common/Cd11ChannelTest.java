@@ -0,0 +1,174 @@
+package gms.dataacquisition.stationreceiver.cd11.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import gms.dataacquisition.stationreceiver.cd11.common.configuration.Cd11SocketConfig;
+import gms.dataacquisition.stationreceiver.cd11.common.frames.Cd11AcknackFrame;
+import gms.dataacquisition.stationreceiver.cd11.common.frames.Cd11AlertFrame;
+import gms.dataacquisition.stationreceiver.cd11.common.frames.Cd11Frame;
+import java.net.InetSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class Cd11ChannelTest {
+
+  private static final int FRAME_COUNT = 100;
+
+  private final Cd11SocketConfig config = Cd11SocketConfig.builder().build();
+  private final BlockingQueue<Cd11Frame> framesReceived = new LinkedBlockingQueue<>();
+  private final CompletableFuture<Exception> closed = new CompletableFuture<>();
+
+  private Cd11EventLoopGroup eventLoops;
+  private Cd11EventLoop eventLoop;
+  private ServerSocketChannel serverSocketChannel;
+  private Cd11Socket client;
+
+  @Before
+  public void setup() throws Exception {
+    eventLoops = new Cd11EventLoopGroup("Cd11ChannelTest", 1);
+    serverSocketChannel = ServerSocketChannel.open();
+    serverSocketChannel.bind(new InetSocketAddress("127.0.0.1", 0));
+    client = new Cd11Socket(config);
+  }
+
+  @After
+  public void teardown() throws Exception {
+    client.disconnect();
+    serverSocketChannel.close();
+    eventLoops.close();
+  }
+
+  @Test
+  public void testReadAndWriteFrames() throws Exception {
+    Cd11Channel channel = connect();
+
+    // Frames written back to back by the blocking socket arrive split across reads.
+    for (int i = 0; i < FRAME_COUNT; i++) {
+      client.sendCd11AlertFrame("Alert " + i);
+    }
+    for (int i = 0; i < FRAME_COUNT; i++) {
+      Cd11Frame frame = framesReceived.poll(10, TimeUnit.SECONDS);
+      assertEquals("Alert " + i, frame.asFrameType(Cd11AlertFrame.class).message);
+    }
+
+    // The framesetAcked is taken from received Acknack frames.
+    client.sendCd11AcknackFrame("STA:0", 1, 5, new long[]{});
+    framesReceived.poll(10, TimeUnit.SECONDS);
+    assertEquals("STA:0", channel.getFramesetAcked());
+
+    // Frames written from another thread are sent by the event loop.
+    channel.write(client.createCd11AcknackFrame("IDC:0", 2, 7, new long[]{}));
+    Cd11AcknackFrame acknack = client.read(10000).asFrameType(Cd11AcknackFrame.class);
+    assertEquals("IDC:0", acknack.framesetAcked);
+    assertEquals(7, acknack.highestSeqNum);
+    assertEquals(0, channel.secondsSinceLastAcknackSent());
+  }
+
+  @Test
+  public void testRemoteClose() throws Exception {
+    Cd11Channel channel = connect();
+
+    client.disconnect();
+
+    assertNull(closed.get(10, TimeUnit.SECONDS));
+    assertTrue(!channel.isConnected());
+  }
+
+  @Test
+  public void testScheduledTaskRunsOnEventLoop() throws Exception {
+    Cd11Channel channel = connect();
+    CountDownLatch ran = new CountDownLatch(1);
+    CompletableFuture<Boolean> onEventLoopThread = new CompletableFuture<>();
+
+    channel.schedule(() -> {
+      onEventLoopThread.complete(Thread.currentThread().getName().startsWith("Cd11ChannelTest"));
+      ran.countDown();
+    }, 10, TimeUnit.MILLISECONDS);
+
+    assertTrue(ran.await(10, TimeUnit.SECONDS));
+    assertTrue(onEventLoopThread.get());
+  }
+
+  @Test
+  public void testPauseAndResumeReading() throws Exception {
+    Cd11Channel channel = connect();
+    runOnEventLoop(channel::pauseReading);
+
+    for (int i = 0; i < FRAME_COUNT; i++) {
+      client.sendCd11AlertFrame("Alert " + i);
+    }
+    assertNull(framesReceived.poll(200, TimeUnit.MILLISECONDS));
+
+    runOnEventLoop(channel::resumeReading);
+    for (int i = 0; i < FRAME_COUNT; i++) {
+      Cd11Frame frame = framesReceived.poll(10, TimeUnit.SECONDS);
+      assertEquals("Alert " + i, frame.asFrameType(Cd11AlertFrame.class).message);
+    }
+  }
+
+  @Test
+  public void testRemoteCloseWhilePausedDeliversFramesFirst() throws Exception {
+    Cd11Channel channel = connect();
+    client.sendCd11AlertFrame("Alert");
+    framesReceived.poll(10, TimeUnit.SECONDS);
+
+    runOnEventLoop(channel::pauseReading);
+    client.sendCd11AlertFrame("Last alert");
+    client.disconnect();
+    assertNull(framesReceived.poll(200, TimeUnit.MILLISECONDS));
+    assertTrue(channel.isConnected());
+
+    runOnEventLoop(channel::resumeReading);
+    Cd11Frame frame = framesReceived.poll(10, TimeUnit.SECONDS);
+    assertEquals("Last alert", frame.asFrameType(Cd11AlertFrame.class).message);
+    assertNull(closed.get(10, TimeUnit.SECONDS));
+    assertTrue(!channel.isConnected());
+  }
+
+  private void runOnEventLoop(Runnable task) throws Exception {
+    CompletableFuture<Void> done = new CompletableFuture<>();
+    eventLoop.execute(() -> {
+      task.run();
+      done.complete(null);
+    });
+    done.get(10, TimeUnit.SECONDS);
+  }
+
+  private Cd11Channel connect() throws Exception {
+    InetSocketAddress address = (InetSocketAddress) serverSocketChannel.getLocalAddress();
+    client.connect("127.0.0.1", address.getPort(), 10000);
+    SocketChannel socketChannel = serverSocketChannel.accept();
+
+    eventLoop = eventLoops.next();
+    CompletableFuture<Cd11Channel> channel = new CompletableFuture<>();
+    eventLoop.execute(() -> {
+      try {
+        channel.complete(Cd11Channel.register(config, socketChannel, eventLoop,
+            new Cd11Channel.Handler() {
+              @Override
+              public void onFrame(Cd11Frame cd11Frame) {
+                framesReceived.add(cd11Frame);
+              }
+
+              @Override
+              public void onClosed(Exception cause) {
+                closed.complete(cause);
+              }
+            }));
+      } catch (Exception e) {
+        channel.completeExceptionally(e);
+      }
+    });
+    return channel.get(10, TimeUnit.SECONDS);
+  }
+}
@@ -0,0 +1,113 @@
+package gms.dataacquisition.stationreceiver.cd11.common.frames;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import gms.dataacquisition.stationreceiver.cd11.common.Cd11Socket;
+import gms.dataacquisition.stationreceiver.cd11.common.configuration.Cd11SocketConfig;
+import gms.dataacquisition.stationreceiver.cd11.common.frames.Cd11Frame.FrameType;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class Cd11FrameDecoderTest {
+
+  private static List<byte[]> frames;
+  private static byte[] stream;
+
+  @BeforeClass
+  public static void createFrames() throws Exception {
+    Cd11Socket cd11Socket = new Cd11Socket(Cd11SocketConfig.builder().build());
+
+    frames = new ArrayList<>();
+    frames.add(cd11Socket.createCd11AlertFrame("First alert.").toBytes());
+    frames.add(cd11Socket.createCd11AcknackFrame(
+        "TEST:0", 1, 10, new long[]{3, 5}).toBytes());
+    frames.add(cd11Socket.createCd11OptionRequestFrame(1, "H04N").toBytes());
+    frames.add(cd11Socket.createCd11AlertFrame("Second alert, with a longer message.").toBytes());
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (byte[] frame : frames) {
+      out.write(frame);
+    }
+    stream = out.toByteArray();
+  }
+
+  @Test
+  public void testDecodeWholeStream() throws Exception {
+    assertDecodedInChunksOf(stream.length);
+  }
+
+  @Test
+  public void testDecodeSingleBytes() throws Exception {
+    assertDecodedInChunksOf(1);
+  }
+
+  @Test
+  public void testDecodeUnalignedChunks() throws Exception {
+    assertDecodedInChunksOf(7);
+    assertDecodedInChunksOf(61);
+  }
+
+  @Test
+  public void testDecodeFrameLargerThanBuffer() throws Exception {
+    StringBuilder message = new StringBuilder();
+    while (message.length() < 200 * 1024) {
+      message.append("A long alert message. ");
+    }
+    byte[] frame = new Cd11Socket(Cd11SocketConfig.builder().build())
+        .createCd11AlertFrame(message.toString()).toBytes();
+
+    Cd11FrameDecoder decoder = new Cd11FrameDecoder();
+    decoder.append(ByteBuffer.wrap(frame, 0, frame.length - 1));
+    assertNull(decoder.nextFrame());
+    decoder.append(ByteBuffer.wrap(frame, frame.length - 1, 1));
+
+    Cd11ByteFrame decoded = decoder.nextFrame();
+    assertArrayEquals(frame, decoded.getRawReceivedBytes());
+    assertEquals(message.toString().trim(), new Cd11AlertFrame(decoded).message);
+  }
+
+  @Test(expected = IOException.class)
+  public void testInvalidTrailerOffset() throws Exception {
+    ByteBuffer header = ByteBuffer.allocate(Cd11FrameHeader.FRAME_LENGTH);
+    header.putInt(FrameType.ALERT.getValue());
+    header.putInt(Cd11FrameHeader.FRAME_LENGTH - 1);
+    header.rewind();
+
+    Cd11FrameDecoder decoder = new Cd11FrameDecoder();
+    decoder.append(header);
+    decoder.nextFrame();
+  }
+
+  private static void assertDecodedInChunksOf(int chunkSize) throws Exception {
+    Cd11FrameDecoder decoder = new Cd11FrameDecoder();
+    List<Cd11ByteFrame> decoded = new ArrayList<>();
+
+    for (int offset = 0; offset < stream.length; offset += chunkSize) {
+      decoder.append(ByteBuffer.wrap(
+          stream, offset, Math.min(chunkSize, stream.length - offset)));
+
+      Cd11ByteFrame frame;
+      while ((frame = decoder.nextFrame()) != null) {
+        decoded.add(frame);
+      }
+    }
+
+    assertEquals(0, decoder.bufferedBytes());
+    assertEquals(frames.size(), decoded.size());
+    for (int i = 0; i < frames.size(); i++) {
+      assertArrayEquals(frames.get(i), decoded.get(i).getRawReceivedBytes());
+    }
+    assertEquals(FrameType.ALERT, decoded.get(0).getFrameType());
+    assertEquals(FrameType.ACKNACK, decoded.get(1).getFrameType());
+    assertEquals(FrameType.OPTION_REQUEST, decoded.get(2).getFrameType());
+    assertEquals("First alert.", new Cd11AlertFrame(decoded.get(0)).message);
+    assertEquals("TEST:0", new Cd11AcknackFrame(decoded.get(1)).framesetAcked);
+  }
+}
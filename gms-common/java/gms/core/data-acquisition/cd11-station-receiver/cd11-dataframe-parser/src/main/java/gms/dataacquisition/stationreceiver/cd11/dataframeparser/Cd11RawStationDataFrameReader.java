@@ -10,7 +10,7 @@ import gms.shared.mechanisms.objectstoragedistribution.coi.emerging.provenance.c
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.AcquiredChannelSoh;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.AcquiredChannelSoh.AcquiredChannelSohType;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.AcquiredChannelSohAnalog;
-import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.AcquiredChannelSohBoolean;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.AcquiredChannelSohBooleanSegment;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.ChannelSegment;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.RawStationDataFrame;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.Waveform;
@@ -22,13 +22,15 @@ import java.nio.ByteBuffer;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.UUID;
 import org.apache.commons.lang3.Validate;
-import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.lang3.tuple.Triple;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,13 +42,16 @@ public class Cd11RawStationDataFrameReader {
 
   /**
    * Takes a RawStationDataFrame, converts it to a CD1.1 Data Frame for easy parsing,
-   * and parses out the channel segments and state of health data.
+   * and parses out the channel segments and state of health data.  The boolean statuses of each
+   * channel subframe are returned as one {@link AcquiredChannelSohBooleanSegment}, so they can be
+   * stored as one row.
    *
    * @param rsdf the RawStationDataFrame to be parsed for channel segment data
    * @param osdClient OSD client
-   * @return a pair of Channel segments and SOH's
+   * @return a triple of Channel segments, analog SOH's and boolean SOH segments
    */
-  public static Pair<List<ChannelSegment<Waveform>>, List<AcquiredChannelSoh>> read(
+  public static Triple<List<ChannelSegment<Waveform>>, List<AcquiredChannelSoh>,
+      List<AcquiredChannelSohBooleanSegment>> read(
       RawStationDataFrame rsdf, StationReceiverOsdClientInterface osdClient) throws Exception {
     Validate.notNull(rsdf);
     Validate.notNull(osdClient);
@@ -60,6 +65,7 @@ public class Cd11RawStationDataFrameReader {
 
     List<ChannelSegment<Waveform>> channelSegments = new ArrayList<>();
     List<AcquiredChannelSoh> statesOfHealth = new ArrayList<>();
+    List<AcquiredChannelSohBooleanSegment> booleanStatesOfHealth = new ArrayList<>();
     for (int i = 0; i < df.channelSubframes.length; i++) {
       Cd11ChannelSubframe sf = df.channelSubframes[i];
 
@@ -97,8 +103,9 @@ public class Cd11RawStationDataFrameReader {
             ChannelSegment.Type.ACQUIRED, wfs, new CreationInfo(CREATOR_NAME, SoftwareComponentInfo.DEFAULT)));
 
         // Parse the  channel status bits and then save to the OSD.
-        statesOfHealth.addAll(toChannelStatusList(chanId, sf.channelStatusData,
-            sf.timeStamp, sf.endTime, new CreationInfo(CREATOR_NAME, SoftwareComponentInfo.DEFAULT)));
+        readChannelStatus(chanId, sf.channelStatusData, sf.timeStamp, sf.endTime,
+            new CreationInfo(CREATOR_NAME, SoftwareComponentInfo.DEFAULT),
+            statesOfHealth, booleanStatesOfHealth);
       } else {
         logger.error(String.format(
             "Could not find channel ID by site: %s, channel name: %s, time: %s.",
@@ -106,22 +113,24 @@ public class Cd11RawStationDataFrameReader {
             sf.channelName, sf.timeStamp));
       }
     }
-    return Pair.of(channelSegments, statesOfHealth);
+    return Triple.of(channelSegments, statesOfHealth, booleanStatesOfHealth);
   }
 
     /**
-     * Parse the channel status fields (SOH) and create a set of AcquiredChannelSoh objects.
+     * Parse the channel status fields (SOH) into an analog SOH object and a segment holding the
+     * boolean statuses.  Nothing is added for an unexpected status format.
      *
      * @param chanId The channel UUID to associate the SOH with.
      * @param fields A byte array containing the status bytes.
      * @param startTime The start time of when this data was generated.
      * @param endTime The end time of when this data was generated.
-     * @return A set of AcquiredChannelSoh objects.  It may be an empty set.
+     * @param analogSohs List the analog SOH object is added to.
+     * @param booleanSohSegments List the boolean SOH segment is added to.
      */
-    private static List<AcquiredChannelSoh> toChannelStatusList(UUID chanId, byte[] fields,
-        Instant startTime, Instant endTime, CreationInfo ci) throws Exception {
+    private static void readChannelStatus(UUID chanId, byte[] fields,
+        Instant startTime, Instant endTime, CreationInfo ci, List<AcquiredChannelSoh> analogSohs,
+        List<AcquiredChannelSohBooleanSegment> booleanSohSegments) {
 
-      List<AcquiredChannelSoh> stateOfHealthSet = new ArrayList<>();
       int idx = 0;
 
       if (fields.length < 32) {
@@ -132,82 +141,45 @@ public class Cd11RawStationDataFrameReader {
       // If the first byte is equal to one, then the CD1.1 status format is expected.
       if (fields[idx] == 1) {
 
+        // The boolean statuses share one segment, so they can be stored as one row.
+        Map<AcquiredChannelSohType, Boolean> statuses
+            = new EnumMap<>(AcquiredChannelSohType.class);
+
         // Data status byte
         idx = 1;
-        stateOfHealthSet.add(AcquiredChannelSohBoolean.create(chanId,
-            AcquiredChannelSohType.DEAD_SENSOR_CHANNEL,
-            startTime, endTime, isSet(fields[idx], 0), ci));
-
-        stateOfHealthSet.add(AcquiredChannelSohBoolean.create(chanId,
-            AcquiredChannelSohType.ZEROED_DATA,
-            startTime, endTime, isSet(fields[idx], 1), ci));
-
-        stateOfHealthSet.add(AcquiredChannelSohBoolean.create(chanId,
-            AcquiredChannelSohType.CLIPPED,
-            startTime, endTime, isSet(fields[idx], 2), ci));
-
-        stateOfHealthSet.add(AcquiredChannelSohBoolean.create(chanId,
-            AcquiredChannelSohType.CALIBRATION_UNDERWAY,
-            startTime, endTime, isSet(fields[idx], 3), ci));
+        statuses.put(AcquiredChannelSohType.DEAD_SENSOR_CHANNEL, isSet(fields[idx], 0));
+        statuses.put(AcquiredChannelSohType.ZEROED_DATA, isSet(fields[idx], 1));
+        statuses.put(AcquiredChannelSohType.CLIPPED, isSet(fields[idx], 2));
+        statuses.put(AcquiredChannelSohType.CALIBRATION_UNDERWAY, isSet(fields[idx], 3));
 
         // Channel security byte
         idx = 2;
-        stateOfHealthSet.add(AcquiredChannelSohBoolean.create(chanId,
-            AcquiredChannelSohType.EQUIPMENT_HOUSING_OPEN,
-            startTime, endTime, isSet(fields[idx], 0), ci));
-
-        stateOfHealthSet.add(AcquiredChannelSohBoolean.create(chanId,
-            AcquiredChannelSohType.DIGITIZING_EQUIPMENT_OPEN,
-            startTime, endTime, isSet(fields[idx], 1), ci));
-
-        stateOfHealthSet.add(AcquiredChannelSohBoolean.create(chanId,
-            AcquiredChannelSohType.VAULT_DOOR_OPENED,
-            startTime, endTime, isSet(fields[idx], 2), ci));
-
-        stateOfHealthSet.add(AcquiredChannelSohBoolean.create(chanId,
-            AcquiredChannelSohType.AUTHENTICATION_SEAL_BROKEN,
-            startTime, endTime, isSet(fields[idx], 3), ci));
-
-        stateOfHealthSet.add(AcquiredChannelSohBoolean.create(chanId,
-            AcquiredChannelSohType.EQUIPMENT_MOVED,
-            startTime, endTime, isSet(fields[idx], 4), ci));
+        statuses.put(AcquiredChannelSohType.EQUIPMENT_HOUSING_OPEN, isSet(fields[idx], 0));
+        statuses.put(AcquiredChannelSohType.DIGITIZING_EQUIPMENT_OPEN, isSet(fields[idx], 1));
+        statuses.put(AcquiredChannelSohType.VAULT_DOOR_OPENED, isSet(fields[idx], 2));
+        statuses.put(AcquiredChannelSohType.AUTHENTICATION_SEAL_BROKEN, isSet(fields[idx], 3));
+        statuses.put(AcquiredChannelSohType.EQUIPMENT_MOVED, isSet(fields[idx], 4));
 
         // Miscellaneous status byte
         idx = 3;
-        stateOfHealthSet.add(AcquiredChannelSohBoolean.create(chanId,
-            AcquiredChannelSohType.CLOCK_DIFFERENTIAL_TOO_LARGE,
-            startTime, endTime, isSet(fields[idx], 0), ci));
-
-        stateOfHealthSet.add(AcquiredChannelSohBoolean.create(chanId,
-            AcquiredChannelSohType.GPS_RECEIVER_OFF,
-            startTime, endTime, isSet(fields[idx], 1), ci));
-
-        stateOfHealthSet.add(AcquiredChannelSohBoolean.create(chanId,
-            AcquiredChannelSohType.GPS_RECEIVER_UNLOCKED,
-            startTime, endTime, isSet(fields[idx], 2), ci));
-
-        stateOfHealthSet.add(AcquiredChannelSohBoolean.create(chanId,
-            AcquiredChannelSohType.DIGITIZER_ANALOG_INPUT_SHORTED,
-            startTime, endTime, isSet(fields[idx], 3), ci));
-
-        stateOfHealthSet.add(AcquiredChannelSohBoolean.create(chanId,
-            AcquiredChannelSohType.DIGITIZER_CALIBRATION_LOOP_BACK,
-            startTime, endTime, isSet(fields[idx], 4), ci));
+        statuses.put(AcquiredChannelSohType.CLOCK_DIFFERENTIAL_TOO_LARGE, isSet(fields[idx], 0));
+        statuses.put(AcquiredChannelSohType.GPS_RECEIVER_OFF, isSet(fields[idx], 1));
+        statuses.put(AcquiredChannelSohType.GPS_RECEIVER_UNLOCKED, isSet(fields[idx], 2));
+        statuses.put(AcquiredChannelSohType.DIGITIZER_ANALOG_INPUT_SHORTED, isSet(fields[idx], 3));
+        statuses.put(AcquiredChannelSohType.DIGITIZER_CALIBRATION_LOOP_BACK, isSet(fields[idx], 4));
 
         // Voltage indicator byte
         idx = 4;
-        stateOfHealthSet.add(AcquiredChannelSohBoolean.create(chanId,
-            AcquiredChannelSohType.MAIN_POWER_FAILURE,
-            startTime, endTime, isSet(fields[idx], 0), ci));
+        statuses.put(AcquiredChannelSohType.MAIN_POWER_FAILURE, isSet(fields[idx], 0));
+        statuses.put(AcquiredChannelSohType.BACKUP_POWER_UNSTABLE, isSet(fields[idx], 1));
 
-        stateOfHealthSet.add(AcquiredChannelSohBoolean.create(chanId,
-            AcquiredChannelSohType.BACKUP_POWER_UNSTABLE,
-            startTime, endTime, isSet(fields[idx], 1), ci));
+        booleanSohSegments.add(AcquiredChannelSohBooleanSegment.create(
+            chanId, startTime, endTime, statuses, ci));
 
         // Clock differential in microseconds.
         idx = 28;
         ByteBuffer bb = ByteBuffer.wrap(fields, idx, 4);
-        stateOfHealthSet.add(AcquiredChannelSohAnalog.create(chanId,
+        analogSohs.add(AcquiredChannelSohAnalog.create(chanId,
             AcquiredChannelSohType.CLOCK_DIFFERENTIAL_IN_MICROSECONDS_OVER_THRESHOLD,
             startTime, endTime, (double) bb.getInt(), ci));
 
@@ -216,8 +188,6 @@ public class Cd11RawStationDataFrameReader {
       else {
         logger.warn("Unexpected CD1.1 channel status format for channel segment ID %s", chanId);
       }
-
-      return stateOfHealthSet;
     }
 
   /**
@@ -3,31 +3,33 @@ package gms.dataacquisition.stationreceiver.cd11.dataframeparser;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import gms.dataacquisition.stationreceiver.cd11.dataframeparser.configuration.DataframeParserConfig;
+import gms.dataacquisition.stationreceiver.osdclient.FrameLogReader;
 import gms.dataacquisition.stationreceiver.osdclient.StationReceiverOsdClientAccessLibrary;
 import gms.dataacquisition.stationreceiver.osdclient.StationReceiverOsdClientInterface;
 import gms.shared.mechanisms.objectstoragedistribution.coi.common.datatransferobjects.CoiObjectMapperFactory;
-import gms.shared.mechanisms.objectstoragedistribution.coi.emerging.provenance.commonobjects.CreationInfo;
-import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.AcquiredChannelSoh;
-import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.ChannelSegment;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.RawStationDataFrame;
-import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.Waveform;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
-import org.apache.commons.lang3.Validate;
-import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -35,7 +37,11 @@ import org.slf4j.LoggerFactory;
 /**
  * Application that listens to a directory specified in DataFrameParseConfig (/var/gms/dataframes/
  * by default) for new files (which should be dataframes), parses them and stores waveforms to
- * cassandra and postgres.
+ * cassandra and postgres.  When a frame log directory is configured, it tails that frame log for
+ * new dataframes instead.
+ *
+ * Frames are handed to a {@link FrameIngestPipeline}, which decodes and stores several at once;
+ * when the pipeline is full, discovery of new frames waits for it.
  */
 public class DataframeParser {
 
@@ -43,10 +49,21 @@ public class DataframeParser {
 
   private final DataframeParserConfig config;
   private final StationReceiverOsdClientInterface osdClient;
-  private final Map<String, Instant> manifestFileToTime = new HashMap<>();
+  private final Map<String, Instant> manifestFileToTime = new ConcurrentHashMap<>();
+  // Data files submitted to the pipeline and not yet done with.
+  private final Set<String> inFlightFiles = ConcurrentHashMap.newKeySet();
   private static final ObjectMapper objMapper = CoiObjectMapperFactory.getJsonObjectMapper();
+  private static final ObjectMapper msgpackMapper = CoiObjectMapperFactory
+      .getMsgpackObjectMapper();
   private final SystemControllerNotifier sysControllerNotifier;
   private static final int READ_FREQUENCY_MS = 100;
+  // Longest time between scans of the monitored directory when no changes are seen in it.
+  private static final int RESCAN_INTERVAL_MS = 1000;
+  private static final int NO_MANIFEST_WARNING_SCANS = 10;
+  private static final long METRICS_LOG_INTERVAL_MS = 60000;
+  private static final int MAX_FRAME_LOG_BATCH = 100;
+  private static final String FRAME_LOG_CONSUMER_NAME = "cd11-dataframe-parser";
+  private long lastMetricsLogNs = System.nanoTime();
 
   public DataframeParser(DataframeParserConfig config,
       SystemControllerNotifier sysControllerNotifier) {
@@ -64,100 +81,184 @@ public class DataframeParser {
   }
 
   /**
-   * Starts the Dataframe Parser.
+   * Starts the Dataframe Parser.  Returns only if interrupted, or if the monitored directory or
+   * frame log cannot be opened.
    */
   public void blockingMonitor() {
     // setup so that parallel streams use more threads
     System.setProperty("java.util.concurrent.ForkJoinPool.common.parallelism", "20");
+    try (FrameIngestPipeline pipeline = new FrameIngestPipeline(
+        osdClient, config.parserThreads, config.storeThreads)) {
+      if (config.frameLogDirLocation != null) {
+        tailFrameLog(pipeline);
+      } else {
+        watchMonitoredDir(pipeline);
+      }
+    }
+  }
+
+  /**
+   * Watches the monitored directory, scanning it for manifests and the data files they list
+   * whenever files are created in it.  It is also scanned every {@link #RESCAN_INTERVAL_MS} in
+   * case changes are missed, e.g. when events overflow while the pipeline is full.
+   */
+  private void watchMonitoredDir(FrameIngestPipeline pipeline) {
     logger.info("Starting DataframeParser; monitored directory: " + config.monitoredDirLocation);
-    int loopsWithoutSeeingFiles = 0;
-    while (true) {
-      try {
-        //Find all manifest files, they end with .inv
-        File monitoredDir = new File(config.monitoredDirLocation);
-        File[] manifestFiles = monitoredDir.listFiles((d, name) -> name.endsWith(".inv"));
-        if (manifestFiles != null && manifestFiles.length > 0) {
-          loopsWithoutSeeingFiles = 0;
-          // read all of the manifest files, in parallel, and collect their contents
-          // into one flat list that has all of the data file names.
-          // readManifest also deletes the manifest file that it reads.
-          List<String> dataFiles = Arrays.stream(manifestFiles)
-              //.parallel()
-              .map(f -> this.readManifest(f.getPath()))
-              .flatMap(List::stream)
-              .collect(Collectors.toList());
-          Instant now = Instant.now();
-          dataFiles.forEach(f -> this.manifestFileToTime.put(f, now));
-          Set<String> filesToRemove = this.manifestFileToTime.keySet()
-              //.parallelStream()
-              .stream()
-              .filter(this::processDataFile)
-              .collect(Collectors.toSet());
-          filesToRemove.forEach(this.manifestFileToTime::remove);
-          cullAndLogMissingManifestEntries();
-        } else {
-          if (++loopsWithoutSeeingFiles % 100 == 0) {
+    Path monitoredDir = Paths.get(config.monitoredDirLocation);
+    try (WatchService watcher = monitoredDir.getFileSystem().newWatchService()) {
+      Files.createDirectories(monitoredDir);
+      monitoredDir.register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+          StandardWatchEventKinds.ENTRY_MODIFY);
+      int scansWithoutSeeingFiles = 0;
+      while (true) {
+        try {
+          if (scanMonitoredDir(pipeline)) {
+            scansWithoutSeeingFiles = 0;
+          } else if (++scansWithoutSeeingFiles % NO_MANIFEST_WARNING_SCANS == 0) {
             logger.warn(String.format(
-                "No manifest files detected in %s iterations at %s ms per iteration",
-                loopsWithoutSeeingFiles, READ_FREQUENCY_MS));
+                "No manifest files detected in %s scans of %s",
+                scansWithoutSeeingFiles, config.monitoredDirLocation));
           }
+          logMetricsIfDue(pipeline);
+          awaitChanges(watcher);
+        } catch (InterruptedException e) {
+          logger.info("Directory monitoring interrupted, stopping");
+          return;
+        } catch (ClosedWatchServiceException e) {
+          logger.error("Directory watch closed, stopping", e);
+          return;
+        } catch (Exception e) {
+          logger.error("Unexpected exception thrown in while loop", e);
         }
-        Thread.sleep(READ_FREQUENCY_MS);
-      } catch (Exception e) {
-        logger.error("Unexpected exception thrown in while loop", e);
       }
+    } catch (IOException e) {
+      logger.error("Could not watch monitored directory " + config.monitoredDirLocation, e);
+    }
+  }
+
+  /**
+   * Reads any new manifests, then submits the data files listed in manifests that have arrived
+   * and are not already being processed.
+   *
+   * @return true if any manifests were found.
+   */
+  private boolean scanMonitoredDir(FrameIngestPipeline pipeline) {
+    //Find all manifest files, they end with .inv
+    File monitoredDir = new File(config.monitoredDirLocation);
+    File[] manifestFiles = monitoredDir.listFiles((d, name) -> name.endsWith(".inv"));
+    boolean sawManifests = manifestFiles != null && manifestFiles.length > 0;
+    if (sawManifests) {
+      // read all of the manifest files and collect their contents
+      // into one flat list that has all of the data file names.
+      // readManifest also deletes the manifest file that it reads.
+      List<String> dataFiles = Arrays.stream(manifestFiles)
+          .map(f -> this.readManifest(f.getPath()))
+          .flatMap(List::stream)
+          .collect(Collectors.toList());
+      Instant now = Instant.now();
+      dataFiles.forEach(f -> this.manifestFileToTime.put(f, now));
+    }
+
+    for (String fileName : this.manifestFileToTime.keySet()) {
+      submitDataFile(fileName, pipeline);
+    }
+
+    if (sawManifests) {
+      cullAndLogMissingManifestEntries();
+    }
+    return sawManifests;
+  }
+
+  /**
+   * Waits up to {@link #RESCAN_INTERVAL_MS} for changes to the monitored directory, then consumes
+   * all pending changes; which files changed does not matter, since the whole directory is scanned.
+   */
+  private static void awaitChanges(WatchService watcher) throws InterruptedException {
+    WatchKey key = watcher.poll(RESCAN_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    while (key != null) {
+      key.pollEvents();
+      key.reset();
+      key = watcher.poll();
     }
   }
 
-  private boolean processDataFile(String fileName) {
+  private void submitDataFile(String fileName, FrameIngestPipeline pipeline) {
     // Check if file exists.  If it doesn't, it is not this methods' job
     // to complain.  That occurs in cullAndLogMissingManifestEntries,
     // after the file has been missing for an amount of time.
     Path path = Paths.get(config.monitoredDirLocation + fileName);
+    if (this.inFlightFiles.contains(fileName)) {
+      return;
+    }
     if (!Files.exists(path)) {
       logger.debug("Path " + path.toString() + " does not exist");
-      return false;
+      return;
     }
 
     logger.info("Processing data file: " + fileName);
     //take those files and convert to RawStationDataFrame and ChannelSegment (waveform)
     //then write RawStationDataFrames and ChannelSegments to OSD
-
-    RawStationDataFrame frame;
-    try {
-      String contents = new String(Files.readAllBytes(path));
-      frame = objMapper.readValue(contents, RawStationDataFrame.class);
-      Validate.notNull(frame);
-      this.osdClient.storeRawStationDataFrame(frame);
-    } catch (Exception ex) {
-      logger.error("Failed to store RawStationDataFrame: ", ex);
+    this.inFlightFiles.add(fileName);
+    pipeline.submit("file " + fileName, () -> {
+      try (InputStream in = Files.newInputStream(path)) {
+        return objMapper.readValue(in, RawStationDataFrame.class);
+      }
+    }).thenAccept(processed -> {
       deleteFile(path);
-      return false;
-    }
-
-    try {
-      //Switch parser based on acquisition protocol
-      switch (frame.getAcquisitionProtocol()) {
-        case CD11:
-          //Store channel segments and soh's
-          Pair<List<ChannelSegment<Waveform>>, List<AcquiredChannelSoh>> parsedData
-              = Cd11RawStationDataFrameReader.read(frame, osdClient);
-          this.osdClient.storeChannelSegments(parsedData.getLeft());
-          this.osdClient.storeChannelStatesOfHealth(parsedData.getRight());
-          break;
-        default:
-          logger.error(
-              "Unrecognized RawStationDataFrame acquisition protocol. Will not parse file.");
+      if (processed) {
+        this.manifestFileToTime.remove(fileName);
       }
+      this.inFlightFiles.remove(fileName);
+    });
+  }
 
+  /**
+   * Tails the frame log, processing each frame appended to it.  The frames of a batch are processed
+   * in parallel, and the offset of the next frame is committed once the whole batch is done with,
+   * so after a restart at most one batch is processed again.
+   */
+  private void tailFrameLog(FrameIngestPipeline pipeline) {
+    logger.info("Starting DataframeParser; frame log directory: " + config.frameLogDirLocation);
+    try (FrameLogReader frameLog = FrameLogReader.open(
+        Paths.get(config.frameLogDirLocation), FRAME_LOG_CONSUMER_NAME)) {
+      while (true) {
+        try {
+          List<CompletableFuture<Boolean>> batch = new ArrayList<>();
+          byte[] record;
+          while (batch.size() < MAX_FRAME_LOG_BATCH && (record = frameLog.next()) != null) {
+            String description = "frame log record " + (frameLog.offset() - 1);
+            logger.info("Processing " + description);
+            byte[] frameBytes = record;
+            batch.add(pipeline.submit(description,
+                () -> msgpackMapper.readValue(frameBytes, RawStationDataFrame.class)));
+          }
 
-    } catch (Exception e) {
-      logger.error("Error processing file " + fileName, e);
-      return false;
-    } finally {
-      deleteFile(path);
+          if (!batch.isEmpty()) {
+            CompletableFuture.allOf(batch.toArray(new CompletableFuture[0])).get();
+            frameLog.commit();
+            frameLog.deleteConsumedSegments();
+          } else {
+            Thread.sleep(READ_FREQUENCY_MS);
+          }
+          logMetricsIfDue(pipeline);
+        } catch (InterruptedException e) {
+          logger.info("Frame log tailing interrupted, stopping");
+          return;
+        } catch (Exception e) {
+          logger.error("Unexpected exception thrown in while loop", e);
+        }
+      }
+    } catch (IOException e) {
+      logger.error("Could not open frame log in " + config.frameLogDirLocation, e);
+    }
+  }
+
+  private void logMetricsIfDue(FrameIngestPipeline pipeline) {
+    long now = System.nanoTime();
+    if (now - lastMetricsLogNs >= TimeUnit.MILLISECONDS.toNanos(METRICS_LOG_INTERVAL_MS)) {
+      lastMetricsLogNs = now;
+      logger.info("Pipeline metrics: " + pipeline);
     }
-    return true;
   }
 
   private static void deleteFile(Path p) {
@@ -190,6 +291,9 @@ public class DataframeParser {
     for (Iterator<Map.Entry<String, Instant>> it = this.manifestFileToTime.entrySet().iterator();
         it.hasNext(); ) {
       Map.Entry<String, Instant> entry = it.next();
+      if (this.inFlightFiles.contains(entry.getKey())) {
+        continue;
+      }
       Instant threshold = Instant.now().minusMillis(this.config.manifestTimeThresholdMs);
       if (entry.getValue().isBefore(threshold)) {
         missingFiles.add(entry.getKey());
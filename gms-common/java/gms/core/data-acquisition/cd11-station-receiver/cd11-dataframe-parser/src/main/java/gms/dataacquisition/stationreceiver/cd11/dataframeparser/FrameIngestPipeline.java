@@ -0,0 +1,250 @@
+package gms.dataacquisition.stationreceiver.cd11.dataframeparser;
+
+import gms.dataacquisition.stationreceiver.osdclient.StationReceiverOsdClientInterface;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.AcquiredChannelSoh;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.AcquiredChannelSohBooleanSegment;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.ChannelSegment;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.RawStationDataFrame;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.Waveform;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.tuple.Triple;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Two stage pipeline that takes RawStationDataFrames from serialized form to the OSD:
+ *
+ * decode: deserializes a frame and parses its channel segments and states of health.
+ *
+ * store: stores the frame, its channel segments, its analog states of health and its boolean states
+ * of health (one segment per channel and subframe), concurrently.
+ *
+ * Each stage has a fixed number of threads and a bounded queue.  When a stage's queue is full,
+ * whoever is submitting to it waits for room, so a slow OSD holds back decoding, which in turn holds
+ * back {@link #submit(String, Callable)} and whatever is discovering frames.  (NOTE: This class is
+ * thread safe.)
+ */
+final class FrameIngestPipeline implements AutoCloseable {
+
+  private static final Logger logger = LoggerFactory.getLogger(FrameIngestPipeline.class);
+
+  static final int QUEUE_CAPACITY_PER_THREAD = 4;
+  private static final long SHUTDOWN_TIMEOUT_MS = 30000;
+
+  private final StationReceiverOsdClientInterface osdClient;
+  private final StageMetrics decodeMetrics = new StageMetrics("decode");
+  private final StageMetrics storeMetrics = new StageMetrics("store");
+  private final ExecutorService decodeExecutor;
+  private final ExecutorService storeExecutor;
+
+  /**
+   * Starts the pipeline's threads.
+   *
+   * @param osdClient Client used to look up channels and store frames, shared by all threads.
+   * @param decodeThreads Number of frames decoded and parsed in parallel.
+   * @param storeThreads Number of stores to the OSD in progress at once.
+   */
+  FrameIngestPipeline(StationReceiverOsdClientInterface osdClient, int decodeThreads,
+      int storeThreads) {
+    Validate.notNull(osdClient);
+    Validate.isTrue(decodeThreads > 0, "Number of decode threads must be positive.");
+    Validate.isTrue(storeThreads > 0, "Number of store threads must be positive.");
+
+    this.osdClient = osdClient;
+    this.decodeExecutor = newStageExecutor("decode", decodeThreads, decodeMetrics);
+    this.storeExecutor = newStageExecutor("store", storeThreads, storeMetrics);
+  }
+
+  /**
+   * Queues a frame to be decoded, parsed and stored, waiting for room in the decode queue if it is
+   * full.
+   *
+   * @param description Description of where the frame came from, for logging.
+   * @param decoder Deserializes the frame; called on a decode thread.
+   * @return Completed with true once the frame, its channel segments and its states of health have
+   * all been stored, or with false once processing has failed or stopped; never completed
+   * exceptionally.
+   */
+  CompletableFuture<Boolean> submit(String description, Callable<RawStationDataFrame> decoder) {
+    CompletableFuture<Boolean> result = new CompletableFuture<>();
+    execute(decodeExecutor, decodeMetrics, result, () -> {
+      try {
+        decode(description, decoder, result);
+      } catch (RuntimeException e) {
+        logger.error("Unexpected exception processing " + description, e);
+        result.complete(false);
+      }
+    });
+    return result;
+  }
+
+  StageMetrics decodeMetrics() {
+    return decodeMetrics;
+  }
+
+  StageMetrics storeMetrics() {
+    return storeMetrics;
+  }
+
+  /**
+   * Finishes the frames already submitted, then stops the pipeline's threads.
+   */
+  @Override
+  public void close() {
+    shutdown(decodeExecutor);
+    shutdown(storeExecutor);
+  }
+
+  @Override
+  public String toString() {
+    return decodeMetrics + "; " + storeMetrics;
+  }
+
+  private void decode(String description, Callable<RawStationDataFrame> decoder,
+      CompletableFuture<Boolean> result) {
+    long start = decodeMetrics.started();
+    RawStationDataFrame frame;
+    try {
+      frame = decoder.call();
+      Validate.notNull(frame);
+    } catch (Exception ex) {
+      logger.error("Failed to read RawStationDataFrame from " + description, ex);
+      decodeMetrics.finished(start, false);
+      result.complete(false);
+      return;
+    }
+
+    // The frame is stored even if it cannot be parsed, as before.
+    Triple<List<ChannelSegment<Waveform>>, List<AcquiredChannelSoh>,
+        List<AcquiredChannelSohBooleanSegment>> parsedData = null;
+    boolean parsed = true;
+    try {
+      //Switch parser based on acquisition protocol
+      switch (frame.getAcquisitionProtocol()) {
+        case CD11:
+          parsedData = Cd11RawStationDataFrameReader.read(frame, osdClient);
+          break;
+        default:
+          logger.error(
+              "Unrecognized RawStationDataFrame acquisition protocol. Will not parse "
+                  + description);
+      }
+    } catch (Exception e) {
+      logger.error("Error parsing " + description, e);
+      parsed = false;
+    }
+    decodeMetrics.finished(start, parsed);
+
+    List<CompletableFuture<Boolean>> stores = new ArrayList<>();
+    stores.add(store(description, "RawStationDataFrame",
+        () -> osdClient.storeRawStationDataFrame(frame)));
+    if (parsedData != null) {
+      List<ChannelSegment<Waveform>> segments = parsedData.getLeft();
+      List<AcquiredChannelSoh> sohs = parsedData.getMiddle();
+      List<AcquiredChannelSohBooleanSegment> sohSegments = parsedData.getRight();
+      stores.add(store(description, "channel segments",
+          () -> osdClient.storeChannelSegments(segments)));
+      stores.add(store(description, "states of health",
+          () -> osdClient.storeChannelStatesOfHealth(sohs)));
+      stores.add(store(description, "boolean state of health segments",
+          () -> osdClient.storeChannelSohBooleanSegments(sohSegments)));
+    }
+
+    boolean succeeded = parsed;
+    CompletableFuture.allOf(stores.toArray(new CompletableFuture[0])).thenRun(() ->
+        result.complete(succeeded && stores.stream().allMatch(CompletableFuture::join)));
+  }
+
+  private CompletableFuture<Boolean> store(String description, String what,
+      StoreOperation operation) {
+    CompletableFuture<Boolean> stored = new CompletableFuture<>();
+    execute(storeExecutor, storeMetrics, stored, () -> {
+      long start = storeMetrics.started();
+      boolean success = false;
+      try {
+        operation.store();
+        success = true;
+      } catch (Exception ex) {
+        logger.error("Failed to store " + what + " from " + description, ex);
+      } finally {
+        storeMetrics.finished(start, success);
+        stored.complete(success);
+      }
+    });
+    return stored;
+  }
+
+  private static void execute(ExecutorService executor, StageMetrics metrics,
+      CompletableFuture<Boolean> result, Runnable task) {
+    metrics.enqueued();
+    try {
+      executor.execute(task);
+    } catch (RejectedExecutionException e) {
+      logger.error("Pipeline stopped before a frame could be processed", e);
+      metrics.dropped();
+      result.complete(false);
+    }
+  }
+
+  /**
+   * Creates a stage's executor, whose bounded queue makes submitters wait for room rather than
+   * having tasks rejected or run on the submitting thread.
+   */
+  private static ExecutorService newStageExecutor(String stage, int threads,
+      StageMetrics metrics) {
+    AtomicInteger threadNumber = new AtomicInteger();
+    return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(threads * QUEUE_CAPACITY_PER_THREAD),
+        r -> {
+          Thread thread = new Thread(r,
+              "dataframe-parser-" + stage + "-" + threadNumber.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        },
+        (r, executor) -> {
+          if (executor.isShutdown()) {
+            throw new RejectedExecutionException("The " + stage + " stage has been shut down");
+          }
+          long start = System.nanoTime();
+          try {
+            executor.getQueue().put(r);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException(
+                "Interrupted waiting for room in the " + stage + " queue", e);
+          } finally {
+            metrics.blocked(System.nanoTime() - start);
+          }
+        });
+  }
+
+  private static void shutdown(ExecutorService executor) {
+    executor.shutdown();
+    try {
+      if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+        logger.warn("Pipeline stage did not finish within " + SHUTDOWN_TIMEOUT_MS + " ms");
+        executor.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      executor.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @FunctionalInterface
+  private interface StoreOperation {
+
+    void store() throws Exception;
+  }
+}
@@ -0,0 +1,88 @@
+package gms.dataacquisition.stationreceiver.cd11.dataframeparser;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Counters for one stage of a {@link FrameIngestPipeline}: tasks waiting in the stage's queue,
+ * tasks completed and failed, time spent running tasks, and time submitters spent blocked waiting
+ * for room in the queue (backpressure).  (NOTE: This class is thread safe.)
+ */
+final class StageMetrics {
+
+  private final String name;
+  private final AtomicInteger queued = new AtomicInteger();
+  private final LongAdder completed = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+  private final LongAdder busyNanos = new LongAdder();
+  private final LongAdder blockedNanos = new LongAdder();
+
+  StageMetrics(String name) {
+    this.name = name;
+  }
+
+  void enqueued() {
+    queued.incrementAndGet();
+  }
+
+  /**
+   * Records that a task has left the queue and started running.
+   *
+   * @return The start time, to pass to {@link #finished(long, boolean)}.
+   */
+  long started() {
+    queued.decrementAndGet();
+    return System.nanoTime();
+  }
+
+  void finished(long startNanos, boolean success) {
+    busyNanos.add(System.nanoTime() - startNanos);
+    (success ? completed : failed).increment();
+  }
+
+  /**
+   * Records that a queued task was dropped without running, e.g. because the stage shut down.
+   */
+  void dropped() {
+    queued.decrementAndGet();
+    failed.increment();
+  }
+
+  void blocked(long nanos) {
+    blockedNanos.add(nanos);
+  }
+
+  int queued() {
+    return queued.get();
+  }
+
+  long completed() {
+    return completed.sum();
+  }
+
+  long failed() {
+    return failed.sum();
+  }
+
+  long blockedMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(blockedNanos.sum());
+  }
+
+  /**
+   * Returns the mean time spent running a task, over all completed and failed tasks.
+   *
+   * @return Mean time in milliseconds, or 0 if no tasks have finished.
+   */
+  double meanMillis() {
+    long finished = completed.sum() + failed.sum();
+    return finished == 0 ? 0.0 : busyNanos.sum() / 1.0e6 / finished;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s: queued=%d completed=%d failed=%d mean=%.2fms blocked=%dms",
+        name, queued(), completed(), failed(), meanMillis(), blockedMillis());
+  }
+}
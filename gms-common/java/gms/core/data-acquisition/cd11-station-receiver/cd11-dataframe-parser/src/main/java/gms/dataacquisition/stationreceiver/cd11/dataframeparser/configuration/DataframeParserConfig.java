@@ -7,18 +7,25 @@ public class DataframeParserConfig {
 
   public static final String DEFAULT_MONITORED_DIR_LOCATION = "./shared-volume/dataframes/";
   public static final int DEFAULT_PARSER_THREADS = 10;
+  public static final int DEFAULT_STORE_THREADS = 10;
   public static final int DEFAULT_MANIFEST_TIME_THRESHOLD_MS = 600000; //10 minutes
+  public static final String DEFAULT_FRAME_LOG_DIR_LOCATION = null;
 
   // Define location from the connection properties file.
   public final String monitoredDirLocation;
   public final int parserThreads;
+  public final int storeThreads;
   public final int manifestTimeThresholdMs;
+  public final String frameLogDirLocation;
 
   private DataframeParserConfig(String monitoredDirLocation,
-      int parserThreads, int manifestTimeThresholdMs) {
+      int parserThreads, int storeThreads, int manifestTimeThresholdMs,
+      String frameLogDirLocation) {
     this.monitoredDirLocation = monitoredDirLocation;
     this.parserThreads = parserThreads;
+    this.storeThreads = storeThreads;
     this.manifestTimeThresholdMs = manifestTimeThresholdMs;
+    this.frameLogDirLocation = frameLogDirLocation;
   }
 
   /**
@@ -37,24 +44,34 @@ public class DataframeParserConfig {
 
     private String monitoredDirLocation;
     private int parserThreads;
+    private int storeThreads;
     private int manifestTimeThresholdMs;
+    private String frameLogDirLocation;
 
     private Builder() {
       this.monitoredDirLocation = DEFAULT_MONITORED_DIR_LOCATION;
       this.parserThreads = DEFAULT_PARSER_THREADS;
+      this.storeThreads = DEFAULT_STORE_THREADS;
       this.manifestTimeThresholdMs = DEFAULT_MANIFEST_TIME_THRESHOLD_MS;
+      this.frameLogDirLocation = DEFAULT_FRAME_LOG_DIR_LOCATION;
     }
 
     /**
      * Construct the {@link DataframeParserConfig}
      *
      * @return Configuration built from this {@link Builder}, not null
-     * @throws IllegalArgumentException if manifestTimeThresholdMs is negative
+     * @throws IllegalArgumentException if manifestTimeThresholdMs is negative, parserThreads or
+     * storeThreads is not positive, or frameLogDirLocation is blank
      */
     public DataframeParserConfig build() {
       Validate.isTrue(manifestTimeThresholdMs >= 0);
+      Validate.isTrue(parserThreads > 0);
+      Validate.isTrue(storeThreads > 0);
+      if (frameLogDirLocation != null) {
+        Validate.notBlank(frameLogDirLocation);
+      }
       return new DataframeParserConfig(monitoredDirLocation,
-          parserThreads, manifestTimeThresholdMs);
+          parserThreads, storeThreads, manifestTimeThresholdMs, frameLogDirLocation);
     }
 
     /**
@@ -79,9 +96,32 @@ public class DataframeParserConfig {
       return this;
     }
 
+    /**
+     * Set the service's storeThreads
+     *
+     * @param storeThreads the number of stores to the OSD to run in parallel
+     * @return this {@link Builder}
+     */
+    public Builder setStoreThreads(int storeThreads) {
+      this.storeThreads = storeThreads;
+      return this;
+    }
+
     public Builder setManifestTimeThresholdMs(int manifestTimeThresholdMs) {
       this.manifestTimeThresholdMs = manifestTimeThresholdMs;
       return this;
     }
+
+    /**
+     * Set the service's frameLogDirLocation
+     *
+     * @param frameLogDirLocation location of the frame log to tail instead of monitoring
+     * monitoredDirLocation for RawStationDataFrame files, or null to monitor files
+     * @return this {@link Builder}
+     */
+    public Builder setFrameLogDirLocation(String frameLogDirLocation) {
+      this.frameLogDirLocation = frameLogDirLocation;
+      return this;
+    }
   }
 }
@@ -67,8 +67,14 @@ public class DataframeParserConfigurationLoader {
     return DataframeParserConfig.builder()
         .setMonitoredDirLocation(
             getString("monitoredDirLocation", DataframeParserConfig.DEFAULT_MONITORED_DIR_LOCATION))
+        .setParserThreads(
+            getInt("parserThreads", DataframeParserConfig.DEFAULT_PARSER_THREADS))
+        .setStoreThreads(
+            getInt("storeThreads", DataframeParserConfig.DEFAULT_STORE_THREADS))
         .setManifestTimeThresholdMs(
             getInt("manifestTimeThresholdMs", DataframeParserConfig.DEFAULT_MANIFEST_TIME_THRESHOLD_MS))
+        .setFrameLogDirLocation(
+            getString("frameLogDirLocation", DataframeParserConfig.DEFAULT_FRAME_LOG_DIR_LOCATION))
         .build();
   }
 
@@ -7,7 +7,7 @@ import gms.shared.mechanisms.objectstoragedistribution.coi.emerging.provenance.c
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.*;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.AcquiredChannelSoh.AcquiredChannelSohType;
 import org.apache.commons.lang.StringUtils;
-import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.lang3.tuple.Triple;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
@@ -26,7 +26,8 @@ import static org.mockito.Mockito.when;
 
 public class Cd11RawStationDataFrameReaderTest {
 
-  private static Pair<List<ChannelSegment<Waveform>>, List<AcquiredChannelSoh>> parsedFrameData_cc;
+  private static Triple<List<ChannelSegment<Waveform>>, List<AcquiredChannelSoh>,
+      List<AcquiredChannelSohBooleanSegment>> parsedFrameData_cc;
   private static StationReceiverOsdClientInterface osdClient;
 
   @BeforeClass
@@ -73,25 +74,23 @@ public class Cd11RawStationDataFrameReaderTest {
             -37768.0, -37774.0};
     assertArrayEquals(expected, firstTenSamples, 0.00000001);
     // test SOH
-    List<AcquiredChannelSoh> acquiredChannelSohs = parsedFrameData_cc.getRight();
+    List<AcquiredChannelSoh> acquiredChannelSohs = parsedFrameData_cc.getMiddle();
+    List<AcquiredChannelSohBooleanSegment> sohSegments = parsedFrameData_cc.getRight();
+    assertEquals(segments.size(), acquiredChannelSohs.size());
+    assertEquals(segments.size(), sohSegments.size());
 
     //Only asserting the first channel values, since they are different between channels
-    for (int i=0;i <17;i++) {
-      AcquiredChannelSoh item = acquiredChannelSohs.get(i);
-      //Checking clock differential, only analog SOH
-      if (item instanceof AcquiredChannelSohAnalog) {
-        assertEquals(2.0, ((AcquiredChannelSohAnalog) item).getStatus(), 0.01);
-      } else {
-        AcquiredChannelSohBoolean boolSOH = (AcquiredChannelSohBoolean) item;
-        AcquiredChannelSohType type = boolSOH.getType();
-        // for this frame, only expected 'true' flag is GPS receiver unlocked.
-        if (type.equals(AcquiredChannelSohType.VAULT_DOOR_OPENED)) {
-          assertTrue(boolSOH.getStatus());
-        }
-        else {
-          assertFalse(boolSOH.getStatus());
-        }
-      }
+    //Checking clock differential, only analog SOH
+    AcquiredChannelSohAnalog analogSoh = (AcquiredChannelSohAnalog) acquiredChannelSohs.get(0);
+    assertEquals(2.0, analogSoh.getStatus(), 0.01);
+
+    AcquiredChannelSohBooleanSegment sohSegment = sohSegments.get(0);
+    assertEquals(analogSoh.getChannelId(), sohSegment.getChannelId());
+    assertEquals(16, sohSegment.getStatuses().size());
+    for (AcquiredChannelSohType type : sohSegment.getTypes()) {
+      // for this frame, only expected 'true' flag is vault door opened.
+      assertEquals(type.equals(AcquiredChannelSohType.VAULT_DOOR_OPENED),
+          sohSegment.getStatus(type).get());
     }
   }
 
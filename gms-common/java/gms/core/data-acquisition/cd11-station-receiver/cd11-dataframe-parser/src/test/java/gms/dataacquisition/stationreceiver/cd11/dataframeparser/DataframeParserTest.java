@@ -62,6 +62,8 @@ public class DataframeParserTest {
       = ArgumentCaptor.forClass(Collection.class);
   private static ArgumentCaptor<Collection<AcquiredChannelSoh>> sohCaptor
       = ArgumentCaptor.forClass(Collection.class);
+  private static ArgumentCaptor<Collection<AcquiredChannelSohBooleanSegment>> sohSegmentCaptor
+      = ArgumentCaptor.forClass(Collection.class);
 
   @BeforeClass
   public static void setup() throws Exception {
@@ -70,6 +72,7 @@ public class DataframeParserTest {
     doNothing().when(mockClient).storeRawStationDataFrame(frameCaptor.capture());
     doNothing().when(mockClient).storeChannelSegments(segmentCaptor.capture());
     doNothing().when(mockClient).storeChannelStatesOfHealth(sohCaptor.capture());
+    doNothing().when(mockClient).storeChannelSohBooleanSegments(sohSegmentCaptor.capture());
     when(mockClient.getChannelId(any(), any()))
         .thenReturn(Optional.of(UUID.randomUUID()));
     when(mockClient.getChannelId("H04N1", "EDH"))
@@ -165,9 +168,8 @@ public class DataframeParserTest {
         .flatMap(Collection::stream)
         .filter(soh -> soh.getChannelId().equals(H04N1_EDH_ID))
         .collect(Collectors.toList());
-    assertEquals(17, h04N1_sohs.size());
+    assertEquals(1, h04N1_sohs.size());
     List<AcquiredChannelSohAnalog> h04N1_analog_sohs = h04N1_sohs.stream()
-        .filter(soh -> (soh instanceof AcquiredChannelSohAnalog))
         .map(AcquiredChannelSohAnalog.class::cast)
         .collect(Collectors.toList());
     assertEquals(1, h04N1_analog_sohs.size());
@@ -176,19 +178,18 @@ public class DataframeParserTest {
         h04N1_analog_sohs.get(0).getType());
     assertEquals(H04_START_TIME, h04N1_analog_sohs.get(0).getStartTime());
     assertEquals(H04N_END_TIME, h04N1_analog_sohs.get(0).getEndTime());
-    List<AcquiredChannelSohBoolean> h04N1_boolean_sohs = h04N1_sohs.stream()
-        .filter(soh -> (soh instanceof AcquiredChannelSohBoolean))
-        .map(AcquiredChannelSohBoolean.class::cast)
+    List<AcquiredChannelSohBooleanSegment> h04N1_soh_segments = sohSegmentCaptor.getAllValues()
+        .stream()
+        .flatMap(Collection::stream)
+        .filter(segment -> segment.getChannelId().equals(H04N1_EDH_ID))
         .collect(Collectors.toList());
-    assertEquals(16, h04N1_boolean_sohs.size());
-    Set<AcquiredChannelSohType> booleanSohTypes = new HashSet<>();
-    for (AcquiredChannelSohBoolean boolSoh : h04N1_boolean_sohs) {
-      assertFalse(boolSoh.getStatus());
-      assertEquals(H04_START_TIME, boolSoh.getStartTime());
-      assertEquals(H04N_END_TIME, boolSoh.getEndTime());
-      booleanSohTypes.add(boolSoh.getType());
-    }
-    assertEquals(booleanSohTypes, Set.of(AcquiredChannelSohType.DEAD_SENSOR_CHANNEL,
+    assertEquals(1, h04N1_soh_segments.size());
+    AcquiredChannelSohBooleanSegment h04N1_soh_segment = h04N1_soh_segments.get(0);
+    assertEquals(H04_START_TIME, h04N1_soh_segment.getStartTime());
+    assertEquals(H04N_END_TIME, h04N1_soh_segment.getEndTime());
+    assertEquals(16, h04N1_soh_segment.getStatuses().size());
+    assertFalse(h04N1_soh_segment.getStatuses().containsValue(true));
+    assertEquals(h04N1_soh_segment.getTypes(), Set.of(AcquiredChannelSohType.DEAD_SENSOR_CHANNEL,
         AcquiredChannelSohType.ZEROED_DATA, AcquiredChannelSohType.CLIPPED,
         AcquiredChannelSohType.CALIBRATION_UNDERWAY, AcquiredChannelSohType.EQUIPMENT_HOUSING_OPEN,
         AcquiredChannelSohType.VAULT_DOOR_OPENED, AcquiredChannelSohType.AUTHENTICATION_SEAL_BROKEN,
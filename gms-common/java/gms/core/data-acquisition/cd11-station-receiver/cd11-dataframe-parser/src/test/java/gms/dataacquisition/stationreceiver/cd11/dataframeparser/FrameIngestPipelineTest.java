@@ -0,0 +1,143 @@
+package gms.dataacquisition.stationreceiver.cd11.dataframeparser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gms.dataacquisition.stationreceiver.osdclient.StationReceiverOsdClientInterface;
+import gms.shared.mechanisms.objectstoragedistribution.coi.common.datatransferobjects.CoiObjectMapperFactory;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.RawStationDataFrame;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+
+public class FrameIngestPipelineTest {
+
+  private static final ObjectMapper objMapper = CoiObjectMapperFactory.getJsonObjectMapper();
+  private static final long TIMEOUT_SECONDS = 30;
+
+  private static byte[] frameBytes;
+
+  private StationReceiverOsdClientInterface osdClient;
+
+  @BeforeClass
+  public static void setupClass() throws IOException {
+    frameBytes = Files.readAllBytes(
+        Paths.get(Constants.RESOURCES_DIR + "seismic-cc-dataframe.json"));
+  }
+
+  @Before
+  public void setup() throws Exception {
+    osdClient = mock(StationReceiverOsdClientInterface.class);
+    when(osdClient.getChannelId(any(), any())).thenReturn(Optional.of(UUID.randomUUID()));
+  }
+
+  @Test
+  public void testFramesAreDecodedAndStored() throws Exception {
+    int frames = 20;
+    List<CompletableFuture<Boolean>> results = new ArrayList<>();
+    try (FrameIngestPipeline pipeline = new FrameIngestPipeline(osdClient, 4, 4)) {
+      for (int i = 0; i < frames; i++) {
+        results.add(pipeline.submit("frame " + i, FrameIngestPipelineTest::readFrame));
+      }
+      for (CompletableFuture<Boolean> result : results) {
+        assertTrue(result.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+      }
+
+      assertEquals(frames, pipeline.decodeMetrics().completed());
+      assertEquals(0, pipeline.decodeMetrics().failed());
+      assertEquals(4 * frames, pipeline.storeMetrics().completed());
+      assertEquals(0, pipeline.storeMetrics().queued());
+    }
+    verify(osdClient, times(frames)).storeRawStationDataFrame(any());
+    verify(osdClient, times(frames)).storeChannelSegments(any());
+    verify(osdClient, times(frames)).storeChannelStatesOfHealth(any());
+    verify(osdClient, times(frames)).storeChannelSohBooleanSegments(any());
+  }
+
+  @Test
+  public void testUnreadableFrameIsNotStored() throws Exception {
+    try (FrameIngestPipeline pipeline = new FrameIngestPipeline(osdClient, 1, 1)) {
+      CompletableFuture<Boolean> result = pipeline.submit("bad frame", () -> {
+        throw new IOException("unreadable");
+      });
+      assertFalse(result.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+      assertEquals(1, pipeline.decodeMetrics().failed());
+    }
+    verify(osdClient, never()).storeRawStationDataFrame(any());
+  }
+
+  @Test
+  public void testStoreFailureFailsFrame() throws Exception {
+    doThrow(new RuntimeException("OSD unavailable"))
+        .when(osdClient).storeRawStationDataFrame(any());
+    try (FrameIngestPipeline pipeline = new FrameIngestPipeline(osdClient, 1, 2)) {
+      CompletableFuture<Boolean> result = pipeline.submit("frame",
+          FrameIngestPipelineTest::readFrame);
+      assertFalse(result.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+      assertEquals(1, pipeline.storeMetrics().failed());
+      assertEquals(3, pipeline.storeMetrics().completed());
+    }
+  }
+
+  @Test
+  public void testSlowStoresBlockSubmitters() throws Exception {
+    CountDownLatch storesReleased = new CountDownLatch(1);
+    doAnswer(invocation -> {
+      storesReleased.await();
+      return null;
+    }).when(osdClient).storeRawStationDataFrame(any());
+
+    // Far more frames than the two stages can hold between them.
+    int frames = 10 * FrameIngestPipeline.QUEUE_CAPACITY_PER_THREAD;
+    List<CompletableFuture<Boolean>> results = new ArrayList<>();
+    try (FrameIngestPipeline pipeline = new FrameIngestPipeline(osdClient, 1, 1)) {
+      Thread submitter = new Thread(() -> {
+        for (int i = 0; i < frames; i++) {
+          results.add(pipeline.submit("frame " + i, FrameIngestPipelineTest::readFrame));
+        }
+      });
+      submitter.start();
+
+      submitter.join(1000);
+      assertTrue("Submitter should be waiting for room in the pipeline", submitter.isAlive());
+
+      storesReleased.countDown();
+      submitter.join(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+      assertFalse(submitter.isAlive());
+      for (CompletableFuture<Boolean> result : results) {
+        assertTrue(result.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+      }
+      assertTrue(pipeline.decodeMetrics().blockedMillis() > 0);
+      assertEquals(frames, pipeline.decodeMetrics().completed());
+    }
+  }
+
+  private static RawStationDataFrame readFrame() throws IOException {
+    try (InputStream in = new ByteArrayInputStream(frameBytes)) {
+      return objMapper.readValue(in, RawStationDataFrame.class);
+    }
+  }
+}
@@ -1,5 +1,8 @@
 package gms.dataacquisition.stationreceiver.cd11.dataman;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import gms.dataacquisition.stationreceiver.cd11.common.Cd11Channel;
+import gms.dataacquisition.stationreceiver.cd11.common.Cd11EventLoop;
 import gms.dataacquisition.stationreceiver.cd11.common.Cd11GapList;
 import gms.dataacquisition.stationreceiver.cd11.common.Cd11Socket;
 import gms.shared.utilities.javautilities.gracefulthread.GracefulThread;
@@ -13,6 +16,7 @@ import gms.shared.mechanisms.objectstoragedistribution.coi.emerging.provenance.c
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.AcquisitionProtocol;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.RawStationDataFrame;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.RawStationDataFrame.AuthenticationStatus;
+import org.apache.commons.lang3.Validate;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
@@ -35,24 +39,55 @@ import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.SocketException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Receives data from a single CD 1.1 Data Provider.
+ *
+ * By default the Data Consumer runs on its own threads: it is started as a {@link GracefulThread},
+ * which reads frames with a blocking {@link Cd11Socket} and uses separate event threads for its
+ * timers.  When constructed with a {@link Cd11EventLoop}, it instead runs entirely on that event
+ * loop (which is shared with other Data Consumers) using a non-blocking {@link Cd11Channel}, and
+ * is started and stopped with {@link #open()} and {@link #close()} rather than as a thread.  Data
+ * frames are then stored to the OSD by a storage thread of the Data Consumer's own, so that a slow
+ * store does not hold up the other Data Consumers on the event loop.
+ */
 public class Cd11DataConsumer extends GracefulThread {
 
   private static Logger sharedLogger = LoggerFactory.getLogger(Cd11DataConsumer.class);
 
+  // Reading from the Data Provider is paused while this many data frames are waiting to be stored.
+  static final int MAX_PENDING_STORES = 64;
+
   private final Logger stationLogger;
 
   private final Cd11DataConsumerConfig config;
 
   private final StationReceiverOsdClientInterface osdClient;
+  private final Cd11SocketConfig cd11SocketConfig;
   private final Cd11Socket cd11Socket;
   private final Message SHUTDOWN_EVENT = new Message(MessageType.Shutdown);
 
+  // Event loop that the Data Consumer runs on, or null if it runs on its own threads.
+  private final Cd11EventLoop eventLoop;
+
+  // Stores data frames received on the event loop, or null if not running on an event loop.
+  private final ThreadPoolExecutor storageExecutor;
+
+  // Data frames handed to the storage executor and not yet stored (only accessed from the event
+  // loop's thread).
+  private int pendingStores = 0;
+
   // Event generators.
   private final Cd11DataConsumerConnectionExpiredThread connectionExpiredEvent;
   private final Cd11DataConsumerNewFrameReceivedThread newFrameReceivedEvent;
@@ -69,6 +104,14 @@ public class Cd11DataConsumer extends GracefulThread {
   // Listening socket, for receiving connections from a Data Provider.
   private ServerSocket serverSocket = null;
 
+  // Listening channel and connection to the Data Provider, when running on an event loop (only
+  // accessed from the event loop's thread).
+  private ServerSocketChannel serverSocketChannel = null;
+  private Cd11Channel cd11Channel = null;
+
+  // Whether the Data Consumer is listening for, or connected to, a Data Provider on its event loop.
+  private volatile boolean open = false;
+
   // Statistics and state information.
   private final AtomicLong totalDataFramesReceived = new AtomicLong(0);
 
@@ -91,6 +134,19 @@ public class Cd11DataConsumer extends GracefulThread {
    */
   public Cd11DataConsumer(
       Cd11DataConsumerConfig config, StationReceiverOsdClientInterface osdClient) {
+    this(config, osdClient, null);
+  }
+
+  /**
+   * Creates a Cd11DataConsumer that runs on an event loop shared with other Data Consumers, rather
+   * than on its own threads.  It must be started with {@link #open()}, not {@link #start()}.
+   *
+   * @param eventLoop Event loop to run on, or null to run on the Data Consumer's own threads.
+   * @throws NullPointerException if config or osdClient is null
+   */
+  public Cd11DataConsumer(
+      Cd11DataConsumerConfig config, StationReceiverOsdClientInterface osdClient,
+      Cd11EventLoop eventLoop) {
     super(config.threadName, true, true);
 
     // Initialize properties.
@@ -100,7 +156,7 @@ public class Cd11DataConsumer extends GracefulThread {
     this.osdClient = Objects.requireNonNull(osdClient);
 
     // Create a CD 1.1 client.
-    this.cd11Socket = new Cd11Socket(Cd11SocketConfig.builder()
+    this.cd11SocketConfig = Cd11SocketConfig.builder()
         .setStationOrResponderName(config.responderName)
         .setStationOrResponderType(config.responderType)
         .setServiceType(config.serviceType)
@@ -109,12 +165,26 @@ public class Cd11DataConsumer extends GracefulThread {
         .setAuthenticationKeyIdentifier(config.authenticationKeyIdentifier)
         .setProtocolMajorVersion(config.protocolMajorVersion)
         .setProtocolMinorVersion(config.protocolMinorVersion)
-        .build());
+        .build();
+    this.cd11Socket = new Cd11Socket(cd11SocketConfig);
 
     // Load the CD 1.1 gap list.
     this.cd11GapList = Cd11DataConsumerConfig.loadGapState(config.dataProviderStationName);
 
-    // Initialize the event generators.
+    this.eventLoop = eventLoop;
+    if (eventLoop != null) {
+      this.storageExecutor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS,
+          new LinkedBlockingQueue<>(MAX_PENDING_STORES),
+          new ThreadFactoryBuilder()
+              .setNameFormat(config.threadName + "-storage")
+              .setDaemon(true)
+              .build());
+      this.storageExecutor.allowCoreThreadTimeOut(true);
+    } else {
+      this.storageExecutor = null;
+    }
+
+    // Initialize the event generators (not used when running on an event loop).
     this.newFrameReceivedEvent = new Cd11DataConsumerNewFrameReceivedThread(
         "NewFrameReceivedThread", eventQueue, cd11Socket);
     this.sendAcknackEvent = new Cd11DataConsumerSendAcknackThread(
@@ -145,6 +215,9 @@ public class Cd11DataConsumer extends GracefulThread {
    */
   @Override
   protected void onStart() throws Exception {
+    Validate.validState(eventLoop == null,
+        "Data Consumer runs on an event loop, and must be started with open().");
+
     // Listen for a connection.
     log(Level.INFO,
         String.format(
@@ -280,7 +353,7 @@ public class Cd11DataConsumer extends GracefulThread {
           break;
 
         case SendAcknack:
-          this.sendAcknack(cd11Socket);
+          this.sendAcknack();
           break;
 
         case Shutdown:
@@ -329,6 +402,231 @@ public class Cd11DataConsumer extends GracefulThread {
     }
   }
 
+  //-------------------- Event Loop Methods --------------------
+
+  /**
+   * Returns true if the Data Consumer runs on a shared event loop, rather than on its own threads.
+   *
+   * @return True if constructed with an event loop.
+   */
+  public boolean runsOnEventLoop() {
+    return eventLoop != null;
+  }
+
+  /**
+   * Starts listening on the event loop for the Data Provider to connect, unless the Data Consumer is
+   * already listening or connected. (NOTE: This method is thread safe.)
+   *
+   * @throws IllegalStateException if the Data Consumer does not run on an event loop
+   */
+  public synchronized void open() {
+    Validate.validState(eventLoop != null, "Data Consumer does not run on an event loop.");
+    if (open) {
+      return;
+    }
+    open = true;
+    totalDataFramesReceived.set(0);
+    eventLoop.execute(this::listen);
+  }
+
+  /**
+   * Returns true if the Data Consumer is listening for, or connected to, the Data Provider on its
+   * event loop.
+   *
+   * @return True if open.
+   */
+  public boolean isOpen() {
+    return open;
+  }
+
+  /**
+   * Closes the connection to the Data Provider (or stops listening for it) on the event loop.
+   * (NOTE: This method is thread safe.)
+   */
+  public void close() {
+    if (eventLoop != null) {
+      eventLoop.execute(this::closeSession);
+    }
+  }
+
+  /**
+   * Listens for the Data Provider to connect.
+   */
+  private void listen() {
+    log(Level.INFO,
+        String.format(
+            "Listening on port %d for a Data Provider to connect.",
+            this.config.dataConsumerPort));
+
+    try {
+      this.serverSocketChannel = ServerSocketChannel.open();
+      this.serverSocketChannel.bind(new InetSocketAddress(this.config.dataConsumerPort));
+      eventLoop.register(serverSocketChannel, SelectionKey.OP_ACCEPT, key -> this.accept());
+    } catch (IOException e) {
+      log(Level.ERROR,
+          "Error binding to socket on port " + this.config.dataConsumerPort, e);
+      closeSession();
+    }
+  }
+
+  /**
+   * Accepts the Data Provider's connection, and starts the timers that the event threads provide
+   * when not running on an event loop.
+   */
+  private void accept() {
+    SocketChannel socketChannel = null;
+    try {
+      socketChannel = serverSocketChannel.accept();
+      if (socketChannel == null) {
+        return;
+      }
+
+      // Close the listening channel, since we have the one connection we were listening for.
+      closeServerSocketChannel();
+
+      // Determine the IP Address of the connecting Data Provider.
+      String dpIpAddress =
+          ((InetSocketAddress) socketChannel.getRemoteAddress()).getHostString();
+      log(Level.INFO,
+          String.format("Received Data Provider from remote address %s", dpIpAddress),
+          null);
+
+      // Hard close socket after 3 seconds so we don't get "Bind failed, address in use" errors.
+      socketChannel.socket().setSoLinger(true, 3);
+
+      // Check whether the remote IP Address matches the expected address.
+      if (!dpIpAddress.equals(config.expectedDataProviderIpAddress)) {
+        sharedLogger.error(String.format(
+            "Data Provider IP address (%s) does not match the expected value (%s).",
+            dpIpAddress, config.expectedDataProviderIpAddress));
+      }
+
+      this.cd11Channel = Cd11Channel.register(
+          cd11SocketConfig, socketChannel, eventLoop, new Cd11Channel.Handler() {
+            @Override
+            public void onFrame(Cd11Frame cd11Frame) {
+              processNewFrame(cd11Frame);
+            }
+
+            @Override
+            public void onClosed(Exception cause) {
+              if (cause == null) {
+                log(Level.INFO, "Data Provider closed the connection");
+              } else {
+                log(Level.ERROR, "Error reading from the Data Provider connection", cause);
+              }
+              closeSession();
+            }
+          });
+    } catch (IOException e) {
+      log(Level.ERROR, "Error accepting the Data Provider connection", e);
+      if (socketChannel != null) {
+        try {
+          socketChannel.close();
+        } catch (IOException ex) {
+          // Ignore.
+        }
+      }
+      closeSession();
+      return;
+    }
+
+    cd11Channel.schedule(this::checkSendAcknack, 56, TimeUnit.SECONDS);
+    cd11Channel.schedule(this::checkConnectionExpired,
+        Math.max(1, config.connectionExpiredTimeLimitSec), TimeUnit.SECONDS);
+    cd11Channel.schedule(this::persistGapState,
+        config.storeGapStateIntervalMinutes, TimeUnit.MINUTES);
+    cd11Channel.schedule(this::removeExpiredGaps, 1, TimeUnit.HOURS);
+  }
+
+  /**
+   * Sends an Acknack frame if none has been sent for 56 seconds.
+   */
+  private void checkSendAcknack() {
+    long seconds = cd11Channel.secondsSinceLastAcknackSent();
+    if (seconds > 55) {
+      try {
+        this.sendAcknack();
+      } catch (Exception e) {
+        log(Level.ERROR, "Error sending Acknack frame", e);
+        closeSession();
+        return;
+      }
+      seconds = 0;
+    }
+    cd11Channel.schedule(this::checkSendAcknack, 56 - seconds, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Closes the connection if nothing has been received from the Data Provider within the
+   * configured time limit.
+   */
+  private void checkConnectionExpired() {
+    long seconds = cd11Channel.secondsSinceLastContact();
+    if (seconds > config.connectionExpiredTimeLimitSec) {
+      log(Level.WARN, String.format("Closing connection due to timeout: %s > %s configured seconds",
+          seconds, config.connectionExpiredTimeLimitSec));
+      closeSession();
+      return;
+    }
+    cd11Channel.schedule(this::checkConnectionExpired,
+        Math.max(1, config.connectionExpiredTimeLimitSec - seconds), TimeUnit.SECONDS);
+  }
+
+  private void persistGapState() {
+    // TODO: In the future, the gap state should be persisted to the OSD.
+    try {
+      Cd11DataConsumerConfig.persistGapState(
+          this.config.dataProviderStationName, this.cd11GapList.getGapList());
+    } catch (IOException e) {
+      log(Level.ERROR, "Could not persist the gap state", e);
+    }
+    cd11Channel.schedule(this::persistGapState,
+        config.storeGapStateIntervalMinutes, TimeUnit.MINUTES);
+  }
+
+  private void removeExpiredGaps() {
+    if (config.gapExpirationInDays > 0) {
+      cd11GapList.removeExpiredGaps(config.gapExpirationInDays);
+    }
+    cd11Channel.schedule(this::removeExpiredGaps, 1, TimeUnit.HOURS);
+  }
+
+  /**
+   * Sends an Alert frame and closes the connection to the Data Provider, or stops listening for
+   * it.  Timers scheduled on the connection do not run once it is closed.
+   */
+  private void closeSession() {
+    closeServerSocketChannel();
+
+    if (cd11Channel != null) {
+      // Attempt to send a CD 1.1 Alert frame to the Data Provider.
+      try {
+        if (cd11Channel.isConnected()) {
+          write(cd11Socket.createCd11AlertFrame("Shutting down."));
+        }
+      } catch (Exception e) {
+        // Do nothing.
+      }
+      cd11Channel.close();
+      cd11Channel = null;
+    }
+
+    open = false;
+  }
+
+  private void closeServerSocketChannel() {
+    if (this.serverSocketChannel != null) {
+      try {
+        this.serverSocketChannel.close();
+      } catch (IOException e) {
+        // Ignore.
+      } finally {
+        this.serverSocketChannel = null;
+      }
+    }
+  }
+
   //-------------------- Private Methods --------------------
 
   /**
@@ -355,11 +653,7 @@ public class Cd11DataConsumer extends GracefulThread {
 
         case ALERT:
           log(Level.INFO, "Received ALERT frame");
-          try {
-            eventQueue.put(new Message(MessageType.Shutdown));
-          } catch (Exception e) {
-            this.stop();
-          }
+          requestShutdown();
           break;
 
         case CD_ONE_ENCAPSULATION:
@@ -396,7 +690,11 @@ public class Cd11DataConsumer extends GracefulThread {
 
         case DATA:
           log(Level.INFO, "Received DATA frame");
-          handleDataFrame(cd11Frame);
+          if (storageExecutor != null) {
+            submitDataFrame(cd11Frame);
+          } else {
+            handleDataFrame(cd11Frame);
+          }
           break;
 
         case OPTION_REQUEST:
@@ -419,11 +717,7 @@ public class Cd11DataConsumer extends GracefulThread {
           Cd11DataConsumerConfig.clearGapState(this.config.dataProviderStationName);
 
           // Shut down.
-          try {
-            eventQueue.put(new Message(MessageType.Shutdown));
-          } catch (Exception e) {
-            this.stop();
-          }
+          requestShutdown();
           break;
 
         default:
@@ -437,21 +731,34 @@ public class Cd11DataConsumer extends GracefulThread {
     }
   }
 
+  /**
+   * Shuts down the Data Consumer once the current event has been processed.
+   */
+  private void requestShutdown() {
+    if (eventLoop != null) {
+      closeSession();
+      return;
+    }
+    try {
+      eventQueue.put(new Message(MessageType.Shutdown));
+    } catch (Exception e) {
+      this.stop();
+    }
+  }
+
   /**
    * Sends an acknack frame.
-   *
-   * @param cd11Socket CD 1.1 Socket cd11Frame.
    */
-  private void sendAcknack(Cd11Socket cd11Socket) throws Exception {
+  private void sendAcknack() throws Exception {
     /*Because we periodically write the Cd11GapList to the "framestore" there is no need
     //to directly query it every time. This is much faster, and if we ever go down
     //we will at most only re-request data smaller than the framestore write interval
     Send the Acknack frame. */
-    cd11Socket.sendCd11AcknackFrame(
-        cd11Socket.getFramesetAcked(),
+    write(cd11Socket.createCd11AcknackFrame(
+        (cd11Channel != null) ? cd11Channel.getFramesetAcked() : cd11Socket.getFramesetAcked(),
         cd11GapList.getLowestSequenceNumber(),
         cd11GapList.getHighestSequenceNumber(),
-        cd11GapList.getGaps());
+        cd11GapList.getGaps()));
 
     String setAcknackMessage = String.format("%s: %s: Sent Acknack with low: %s, high: %s, gaps: %s \n", this.getThreadName(),
             Instant.now(), cd11GapList.getLowestSequenceNumber(), cd11GapList.getHighestSequenceNumber(),Arrays.toString(cd11GapList.getGaps()));
@@ -469,21 +776,69 @@ public class Cd11DataConsumer extends GracefulThread {
     Cd11DataFrame dataFrame = cd11Frame.asFrameType(Cd11DataFrame.class);
     // Increment the total number of data frames received.
     totalDataFramesReceived.incrementAndGet();
+    if (storeDataFrame(dataFrame)) {
+      // Update gaps upon successful storage.
+      cd11GapList.addSequenceNumber(dataFrame);
+    }
+  }
+
+  /**
+   * Hands a data frame received on the event loop to the storage executor.  The gap list is updated
+   * back on the event loop once the frame has been stored, and reading from the Data Provider is
+   * paused while {@link #MAX_PENDING_STORES} frames are waiting to be stored.
+   */
+  private void submitDataFrame(Cd11Frame cd11Frame) {
+    Cd11DataFrame dataFrame = cd11Frame.asFrameType(Cd11DataFrame.class);
+    // Increment the total number of data frames received.
+    totalDataFramesReceived.incrementAndGet();
+    try {
+      storageExecutor.execute(() -> {
+        boolean stored = storeDataFrame(dataFrame);
+        eventLoop.execute(() -> onDataFrameStored(dataFrame, stored));
+      });
+    } catch (RejectedExecutionException e) {
+      log(Level.ERROR, "Could not queue CD 1.1 Data Frame for storage", e);
+      closeSession();
+      return;
+    }
+
+    pendingStores++;
+    if (pendingStores >= MAX_PENDING_STORES && cd11Channel != null) {
+      cd11Channel.pauseReading();
+    }
+  }
+
+  private void onDataFrameStored(Cd11DataFrame dataFrame, boolean stored) {
+    if (stored) {
+      // Update gaps upon successful storage.
+      cd11GapList.addSequenceNumber(dataFrame);
+    }
+
+    pendingStores--;
+    if (pendingStores < MAX_PENDING_STORES && cd11Channel != null) {
+      cd11Channel.resumeReading();
+    }
+  }
+
+  /**
+   * Converts a data frame and stores it to the OSD.
+   *
+   * @return True if the frame was stored.
+   */
+  private boolean storeDataFrame(Cd11DataFrame dataFrame) {
     try {
       // Send data to the OSD.
       log(Level.INFO, "Storing raw station data frame");
       RawStationDataFrame rawStationDataFrame = toRawStationDataFrame(dataFrame);
       this.osdClient.storeRawStationDataFrame(rawStationDataFrame);
 
-      // Update gaps upon successful storage.
-      log(Level.INFO, "Adding sequence number to gap list");
-      cd11GapList.addSequenceNumber(dataFrame);
-
       // Log successful storage.
       log(Level.INFO, String.format("DataFrame %d stored successfully.",
           dataFrame.getFrameHeader().sequenceNumber));
+      return true;
     } catch (Exception e) {
       log(Level.ERROR, "Could not convert/store CD 1.1 Data Frame", e);
+      return false;
     }
   }
 
@@ -491,7 +846,7 @@ public class Cd11DataConsumer extends GracefulThread {
     //TODO: Do we need to read the content of the option request, and act on it? Currently, we just send a dull response, and ignore the content.
     try {
       // Right now the only option messageType is 1 with the station name as the option response.
-      cd11Socket.sendCd11OptionResponseFrame(1, cd11Socket.getStationOrResponderName());
+      write(cd11Socket.createCd11OptionResponseFrame(1, cd11Socket.getStationOrResponderName()));
 
       log(Level.INFO, "Option Response Frame Sent");
     } catch (Exception e) {
@@ -499,6 +854,18 @@ public class Cd11DataConsumer extends GracefulThread {
     }
   }
 
+  /**
+   * Sends a frame to the Data Provider, on the event loop's channel or the blocking socket.  (When
+   * running on an event loop, cd11Socket is only used to create frames.)
+   */
+  private void write(Cd11Frame cd11Frame) throws Exception {
+    if (cd11Channel != null) {
+      cd11Channel.write(cd11Frame);
+    } else {
+      cd11Socket.write(cd11Frame);
+    }
+  }
+
   private void configCustomLogger() {
     LoggerContext ctx = (LoggerContext) LogManager.getContext(false);
     Configuration ctxConfiguration = ctx.getConfiguration();
@@ -591,6 +958,11 @@ public class Cd11DataConsumer extends GracefulThread {
    * Shuts down all event threads, and closes the CD 1.1 Socket connection.
    */
   private void shutdownGracefully() {
+    if (eventLoop != null) {
+      closeSession();
+      return;
+    }
+
     // Signal that this thread needs to stop running.
     this.stop();
 
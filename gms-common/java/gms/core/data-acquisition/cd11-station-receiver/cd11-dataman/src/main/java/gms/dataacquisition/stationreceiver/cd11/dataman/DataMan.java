@@ -1,11 +1,16 @@
 package gms.dataacquisition.stationreceiver.cd11.dataman;
 
 import gms.shared.utilities.javautilities.gracefulthread.GracefulThread;
+import gms.dataacquisition.stationreceiver.cd11.common.Cd11EventLoopGroup;
 import gms.dataacquisition.stationreceiver.cd11.common.configuration.Cd11StationConfig;
 import gms.dataacquisition.stationreceiver.cd11.dataman.configuration.Cd11DataConsumerConfig;
 import gms.dataacquisition.stationreceiver.cd11.dataman.configuration.DataManConfig;
+import gms.dataacquisition.stationreceiver.osdclient.FrameLogWriter;
 import gms.dataacquisition.stationreceiver.osdclient.StationReceiverOsdClientAccessLibrary;
 import gms.dataacquisition.stationreceiver.osdclient.StationReceiverOsdClientInterface;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -19,7 +24,8 @@ import org.slf4j.LoggerFactory;
 
 /**
  * This class is designed to start all data communications. It reads the stations.properties file,
- * and spins off a new Cd11DataConsumer thread to talk to the station.
+ * and spins off a new Cd11DataConsumer thread to talk to the station.  When configured with event
+ * loop threads, the Data Consumers instead share that fixed number of event loops.
  */
 public class DataMan extends GracefulThread {
 
@@ -30,14 +36,19 @@ public class DataMan extends GracefulThread {
   private final boolean useSameClientForConsumers;
   private final ConcurrentHashMap<Integer, Cd11DataConsumer> dataConsumerThreads;
 
+  // Event loops shared by the Data Consumers, or null if each runs on its own threads.
+  private final Cd11EventLoopGroup eventLoops;
+
+  // Frame log shared by the Data Consumers, or null if frames are written as files.
+  private final FrameLogWriter frameLog;
+
   /**
    * Constructor.
    *
    * @param config Configuration object.
    */
   public DataMan(DataManConfig config) {
-    this(config, new StationReceiverOsdClientAccessLibrary(config.fsOutputDirectory),
-        false);
+    this(config, openFrameLog(config), false);
   }
 
   /**
@@ -46,7 +57,12 @@ public class DataMan extends GracefulThread {
    * @param config Configuration object.
    */
   public DataMan(DataManConfig config, boolean useSameClientForConsumers) {
-    this(config, new StationReceiverOsdClientAccessLibrary(config.fsOutputDirectory),
+    this(config, openFrameLog(config), useSameClientForConsumers);
+  }
+
+  private DataMan(
+      DataManConfig config, FrameLogWriter frameLog, boolean useSameClientForConsumers) {
+    this(config, newOsdClient(config.fsOutputDirectory, frameLog), frameLog,
         useSameClientForConsumers);
   }
 
@@ -68,6 +84,12 @@ public class DataMan extends GracefulThread {
   public DataMan(
       DataManConfig config, StationReceiverOsdClientInterface osdClient,
       boolean useSameClientForConsumers) {
+    this(config, osdClient, openFrameLog(config), useSameClientForConsumers);
+  }
+
+  private DataMan(
+      DataManConfig config, StationReceiverOsdClientInterface osdClient, FrameLogWriter frameLog,
+      boolean useSameClientForConsumers) {
     super("CD 1.1 Data Consumer Manager",
         true,
         true);
@@ -75,9 +97,14 @@ public class DataMan extends GracefulThread {
     this.config = Objects.requireNonNull(config);
     this.osdClient = Objects.requireNonNull(osdClient);
     this.useSameClientForConsumers = useSameClientForConsumers;
+    this.frameLog = frameLog;
 
     // Create a map to store Data Consumer threads.
     this.dataConsumerThreads = new ConcurrentHashMap<>();
+
+    this.eventLoops = (config.eventLoopThreads > 0) ?
+        new Cd11EventLoopGroup("CD 1.1 Data Consumer Event Loop", config.eventLoopThreads)
+        : null;
   }
 
   /**
@@ -101,6 +128,15 @@ public class DataMan extends GracefulThread {
       dataConsumerThreads.values().parallelStream().forEach(dcThread -> {
         //for (Cd11DataConsumer dcThread : dataConsumerThreads.values()) {
 
+        // Data Consumers on an event loop are reopened, rather than restarted as threads.
+        if (dcThread.runsOnEventLoop()) {
+          if (!dcThread.isOpen()) {
+            logger.info("Opening data consumer: " + dcThread.getThreadName());
+            dcThread.open();
+          }
+          return;
+        }
+
         // Check that the thread is still running.
         if (!dcThread.isRunning()) {
           logger.warn("Restarting data consumer thread: " + dcThread.getThreadName());
@@ -123,6 +159,9 @@ public class DataMan extends GracefulThread {
         }
       });
 
+      // Force frames appended since the last check to disk, in case no more frames arrive.
+      syncFrameLog();
+
       // Sleep for a period of time.
       try {
         Thread.sleep(5000);
@@ -135,7 +174,54 @@ public class DataMan extends GracefulThread {
 
     // Shut down all Data Consumer threads.
     for (Cd11DataConsumer dcThread : dataConsumerThreads.values()) {
-      dcThread.onStop();
+      if (dcThread.runsOnEventLoop()) {
+        dcThread.close();
+      } else {
+        dcThread.onStop();
+      }
+    }
+    if (eventLoops != null) {
+      eventLoops.close();
+    }
+    closeFrameLog();
+  }
+
+  private static FrameLogWriter openFrameLog(DataManConfig config) {
+    if (config.frameLogDirectory == null) {
+      return null;
+    }
+    try {
+      return FrameLogWriter.open(Paths.get(config.frameLogDirectory));
+    } catch (IOException e) {
+      throw new UncheckedIOException(
+          "Could not open frame log in " + config.frameLogDirectory, e);
+    }
+  }
+
+  private static StationReceiverOsdClientInterface newOsdClient(
+      String fsOutputDirectory, FrameLogWriter frameLog) {
+    return (frameLog != null) ?
+        new StationReceiverOsdClientAccessLibrary(frameLog)
+        : new StationReceiverOsdClientAccessLibrary(fsOutputDirectory);
+  }
+
+  private void syncFrameLog() {
+    if (frameLog != null) {
+      try {
+        frameLog.sync();
+      } catch (IOException e) {
+        logger.error("Frame log could not be synced.", e);
+      }
+    }
+  }
+
+  private void closeFrameLog() {
+    if (frameLog != null) {
+      try {
+        frameLog.close();
+      } catch (IOException e) {
+        logger.error("Frame log could not be closed.", e);
+      }
     }
   }
 
@@ -193,9 +279,11 @@ public class DataMan extends GracefulThread {
     }
 
     // Create the data consumer thread.
-    Cd11DataConsumer dcThread = useSameClientForConsumers ?
-        new Cd11DataConsumer(dcConfig, osdClient)
-        : new Cd11DataConsumer(dcConfig);
+    Cd11DataConsumer dcThread = new Cd11DataConsumer(dcConfig,
+        useSameClientForConsumers ?
+            osdClient
+            : newOsdClient(dcConfig.fsOutputDirectory, frameLog),
+        (eventLoops != null) ? eventLoops.next() : null);
 
     // Track the thread.
     dataConsumerThreads.put(dcConfig.dataConsumerPort, dcThread);
@@ -215,6 +303,10 @@ public class DataMan extends GracefulThread {
     }
 
     // Stop the data consumer.
+    if (cd11DataConsumer.runsOnEventLoop()) {
+      cd11DataConsumer.close();
+      return;
+    }
     cd11DataConsumer.stop();
     cd11DataConsumer.waitUntilThreadStops();
   }
@@ -9,16 +9,23 @@ public class DataManConfig {
   public static final String DEFAULT_FS_OUTPUT_DIRECTORY = null;
   public static final String DEFAULT_DATA_PROVIDER_IP_ADDRESS = "127.0.0.1";
   public static final String DEFAULT_DATA_CONSUMER_IP_ADDRESS = "127.0.0.1";
+  public static final int DEFAULT_EVENT_LOOP_THREADS = 0;
+  public static final String DEFAULT_FRAME_LOG_DIRECTORY = null;
 
   public final String fsOutputDirectory;
   public final String expectedDataProviderIpAddress;
   public final String dataConsumerIpAddress;
+  public final int eventLoopThreads;
+  public final String frameLogDirectory;
 
   private DataManConfig(
-      String fsOutputDirectory, String expectedDataProviderIpAddress, String dataConsumerIpAddress) {
+      String fsOutputDirectory, String expectedDataProviderIpAddress, String dataConsumerIpAddress,
+      int eventLoopThreads, String frameLogDirectory) {
     this.fsOutputDirectory = fsOutputDirectory;
     this.expectedDataProviderIpAddress = expectedDataProviderIpAddress;
     this.dataConsumerIpAddress = dataConsumerIpAddress;
+    this.eventLoopThreads = eventLoopThreads;
+    this.frameLogDirectory = frameLogDirectory;
   }
 
   /**
@@ -38,11 +45,15 @@ public class DataManConfig {
     private String fsOutputDirectory;
     private String expectedDataProviderIpAddress;
     private String dataConsumerIpAddress;
+    private int eventLoopThreads;
+    private String frameLogDirectory;
 
     private Builder() {
       this.fsOutputDirectory = DEFAULT_FS_OUTPUT_DIRECTORY;
       this.expectedDataProviderIpAddress = DEFAULT_DATA_PROVIDER_IP_ADDRESS;
       this.dataConsumerIpAddress = DEFAULT_DATA_CONSUMER_IP_ADDRESS;
+      this.eventLoopThreads = DEFAULT_EVENT_LOOP_THREADS;
+      this.frameLogDirectory = DEFAULT_FRAME_LOG_DIRECTORY;
     }
 
     /**
@@ -50,7 +61,8 @@ public class DataManConfig {
      *
      * @return Configuration built from this {@link Builder}, not null
      * @throws IllegalArgumentException if minThreads, maxThreads, idleTimeOutMillis
-     * are negative; if minThreads is greater than maxThreads
+     * are negative; if minThreads is greater than maxThreads; if eventLoopThreads is negative; if
+     * frameLogDirectory is blank
      */
     public DataManConfig build() {
       // Validate the directory path.
@@ -70,9 +82,14 @@ public class DataManConfig {
 
       Cd11Validator.validIpAddress(expectedDataProviderIpAddress);
       Cd11Validator.validIpAddress(dataConsumerIpAddress);
+      Validate.isTrue(eventLoopThreads >= 0, "Event loop threads cannot be negative.");
+      if (frameLogDirectory != null) {
+        Validate.notBlank(frameLogDirectory);
+      }
 
       return new DataManConfig(
-          fsOutputDirectory, expectedDataProviderIpAddress, dataConsumerIpAddress);
+          fsOutputDirectory, expectedDataProviderIpAddress, dataConsumerIpAddress,
+          eventLoopThreads, frameLogDirectory);
     }
 
     /**
@@ -107,5 +124,29 @@ public class DataManConfig {
       this.dataConsumerIpAddress = value;
       return this;
     }
+
+    /**
+     * Number of event loop threads shared by all Data Consumers.  When zero, each Data Consumer
+     * runs on its own threads instead.
+     *
+     * @param value Number of event loop threads (default: 0).
+     * @return this {@link Builder}
+     */
+    public Builder setEventLoopThreads(int value) {
+      this.eventLoopThreads = value;
+      return this;
+    }
+
+    /**
+     * Directory of the frame log that raw station data frames are appended to.  When set, frames
+     * are appended to this log instead of being written as flat JSON files to fsOutputDirectory.
+     *
+     * @param value Path to the frame log directory, created if needed (default: null).
+     * @return this {@link Builder}
+     */
+    public Builder setFrameLogDirectory(String value) {
+      this.frameLogDirectory = value;
+      return this;
+    }
   }
 }
@@ -70,6 +70,10 @@ public class DataManConfigurationLoader {
             getString("expectedDataProviderIpAddress", DataManConfig.DEFAULT_DATA_PROVIDER_IP_ADDRESS))
         .setDataConsumerIpAddress(
             getString("dataConsumerIpAddress", DataManConfig.DEFAULT_DATA_CONSUMER_IP_ADDRESS))
+        .setEventLoopThreads(
+            getInt("eventLoopThreads", DataManConfig.DEFAULT_EVENT_LOOP_THREADS))
+        .setFrameLogDirectory(
+            getString("frameLogDirectory", DataManConfig.DEFAULT_FRAME_LOG_DIRECTORY))
         .build();
   }
 
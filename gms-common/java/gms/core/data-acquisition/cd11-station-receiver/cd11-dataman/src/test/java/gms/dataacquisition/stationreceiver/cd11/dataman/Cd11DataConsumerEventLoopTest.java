@@ -0,0 +1,216 @@
+package gms.dataacquisition.stationreceiver.cd11.dataman;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import gms.dataacquisition.stationreceiver.cd11.common.Cd11EventLoopGroup;
+import gms.dataacquisition.stationreceiver.cd11.common.Cd11Socket;
+import gms.dataacquisition.stationreceiver.cd11.common.configuration.Cd11SocketConfig;
+import gms.dataacquisition.stationreceiver.cd11.common.frames.Cd11ChannelSubframe;
+import gms.dataacquisition.stationreceiver.cd11.dataman.configuration.Cd11DataConsumerConfig;
+import gms.dataacquisition.stationreceiver.cd11.dataprovider.FakeDataFrame;
+import gms.dataacquisition.stationreceiver.osdclient.StationReceiverOsdClientInterface;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.AcquiredChannelSoh;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.AcquiredChannelSohBooleanSegment;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.ChannelSegment;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.RawStationDataFrame;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.Waveform;
+import java.net.ServerSocket;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests Data Consumers sharing a single event loop, with frames sent by the Data Provider's fake
+ * data frame subframes from blocking {@link Cd11Socket}s.
+ */
+public class Cd11DataConsumerEventLoopTest {
+
+  private static final int SEQUENCE_NUMBER_OFFSET = Integer.BYTES * 2 + 16;
+
+  private final Cd11ChannelSubframe[] subframes = FakeDataFrame.generateFakeChannelSubframes();
+  private final List<Cd11DataConsumer> dataConsumers = new ArrayList<>();
+  private final List<Cd11Socket> stations = new ArrayList<>();
+
+  private Cd11EventLoopGroup eventLoops;
+  private ExecutorService senders;
+
+  @Before
+  public void setup() {
+    eventLoops = new Cd11EventLoopGroup("Cd11DataConsumerEventLoopTest", 1);
+    senders = Executors.newCachedThreadPool();
+  }
+
+  @After
+  public void teardown() {
+    senders.shutdownNow();
+    stations.forEach(Cd11Socket::disconnect);
+    dataConsumers.forEach(Cd11DataConsumer::close);
+    eventLoops.close();
+  }
+
+  @Test
+  public void testAllFramesStored() throws Exception {
+    int frameCount = 3 * Cd11DataConsumer.MAX_PENDING_STORES;
+    StoringOsdClient osdClient = new StoringOsdClient(new CountDownLatch(0));
+    Cd11DataConsumer dataConsumer = openDataConsumer(0, osdClient);
+    Cd11Socket station = connectStation(0, dataConsumer);
+
+    for (int i = 0; i < frameCount; i++) {
+      station.sendCd11DataFrame(subframes, i);
+    }
+
+    assertTrue(osdClient.awaitStored(frameCount));
+    assertEquals(frameCount, osdClient.sequenceNumbers.size());
+    assertEquals(frameCount, dataConsumer.getTotalDataFramesReceived());
+  }
+
+  @Test
+  public void testSlowStoreDoesNotBlockOtherDataConsumers() throws Exception {
+    int frameCount = 10;
+    CountDownLatch storageReleased = new CountDownLatch(1);
+    StoringOsdClient slowOsdClient = new StoringOsdClient(storageReleased);
+    StoringOsdClient osdClient = new StoringOsdClient(new CountDownLatch(0));
+    Cd11Socket slowStation = connectStation(0, openDataConsumer(0, slowOsdClient));
+    Cd11Socket station = connectStation(1, openDataConsumer(1, osdClient));
+
+    // Both Data Consumers run on the same event loop thread.
+    slowStation.sendCd11DataFrame(subframes, 0);
+    assertTrue(slowOsdClient.storing.await(10, TimeUnit.SECONDS));
+    for (int i = 0; i < frameCount; i++) {
+      station.sendCd11DataFrame(subframes, i);
+    }
+
+    assertTrue(osdClient.awaitStored(frameCount));
+    assertEquals(0, slowOsdClient.sequenceNumbers.size());
+
+    storageReleased.countDown();
+    assertTrue(slowOsdClient.awaitStored(1));
+  }
+
+  @Test
+  public void testReadingPausedWhileStoresPending() throws Exception {
+    int frameCount = 2 * Cd11DataConsumer.MAX_PENDING_STORES;
+    CountDownLatch storageReleased = new CountDownLatch(1);
+    StoringOsdClient osdClient = new StoringOsdClient(storageReleased);
+    Cd11DataConsumer dataConsumer = openDataConsumer(0, osdClient);
+    Cd11Socket station = connectStation(0, dataConsumer);
+
+    // Sent from another thread, since the socket's buffers fill up once reading is paused.
+    senders.execute(() -> {
+      try {
+        for (int i = 0; i < frameCount; i++) {
+          station.sendCd11DataFrame(subframes, i);
+        }
+      } catch (Exception e) {
+        throw new IllegalStateException(e);
+      }
+    });
+
+    assertTrue(osdClient.storing.await(10, TimeUnit.SECONDS));
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (dataConsumer.getTotalDataFramesReceived() < Cd11DataConsumer.MAX_PENDING_STORES
+        && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    Thread.sleep(200);
+    assertEquals(Cd11DataConsumer.MAX_PENDING_STORES, dataConsumer.getTotalDataFramesReceived());
+
+    storageReleased.countDown();
+    assertTrue(osdClient.awaitStored(frameCount));
+    assertEquals(frameCount, dataConsumer.getTotalDataFramesReceived());
+  }
+
+  private Cd11DataConsumer openDataConsumer(int index, StationReceiverOsdClientInterface osdClient)
+      throws Exception {
+    int port;
+    try (ServerSocket serverSocket = new ServerSocket(0)) {
+      port = serverSocket.getLocalPort();
+    }
+
+    Cd11DataConsumerConfig config = Cd11DataConsumerConfig
+        .builder(port, new UUID(0, index), "LOOP" + index)
+        .setThreadName("Event Loop Data Consumer " + index)
+        .setExpectedDataProviderIpAddress("127.0.0.1")
+        .setDataConsumerIpAddress("127.0.0.1")
+        .build();
+    Cd11DataConsumer dataConsumer = new Cd11DataConsumer(config, osdClient, eventLoops.next());
+    dataConsumer.open();
+    dataConsumers.add(dataConsumer);
+    return dataConsumer;
+  }
+
+  private Cd11Socket connectStation(int index, Cd11DataConsumer dataConsumer) throws Exception {
+    Cd11Socket station = new Cd11Socket(Cd11SocketConfig.builder()
+        .setStationOrResponderName("LOOP" + index)
+        .build());
+    station.connect("127.0.0.1", dataConsumer.getCd11ListeningPort(), 10000);
+    stations.add(station);
+    return station;
+  }
+
+  /**
+   * Records the sequence number of each data frame stored, waiting for a latch to be released
+   * before storing each frame.
+   */
+  private static class StoringOsdClient implements StationReceiverOsdClientInterface {
+
+    private final CountDownLatch storageReleased;
+    private final CountDownLatch storing = new CountDownLatch(1);
+    private final Set<Long> sequenceNumbers = ConcurrentHashMap.newKeySet();
+
+    private StoringOsdClient(CountDownLatch storageReleased) {
+      this.storageReleased = storageReleased;
+    }
+
+    private boolean awaitStored(int frameCount) throws InterruptedException {
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+      while (sequenceNumbers.size() < frameCount && System.nanoTime() < deadline) {
+        Thread.sleep(10);
+      }
+      return sequenceNumbers.size() >= frameCount;
+    }
+
+    @Override
+    public void storeRawStationDataFrame(RawStationDataFrame frame) throws Exception {
+      storing.countDown();
+      storageReleased.await();
+      sequenceNumbers.add(ByteBuffer.wrap(frame.getRawPayload()).getLong(SEQUENCE_NUMBER_OFFSET));
+    }
+
+    @Override
+    public Optional<UUID> getChannelId(String siteName, String channelName) {
+      return Optional.of(UUID.nameUUIDFromBytes((siteName + channelName).getBytes()));
+    }
+
+    @Override
+    public Optional<UUID> getStationId(String stationName) {
+      return Optional.empty();
+    }
+
+    @Override
+    public void storeChannelSegments(Collection<ChannelSegment<Waveform>> segments) {
+    }
+
+    @Override
+    public void storeChannelStatesOfHealth(Collection<AcquiredChannelSoh> sohs) {
+    }
+
+    @Override
+    public void storeChannelSohBooleanSegments(
+        Collection<AcquiredChannelSohBooleanSegment> segments) {
+    }
+  }
+}
@@ -42,6 +42,7 @@ public class IntegrationTests {
     // mock the osdClient
     doNothing().when(osdClient).storeChannelStatesOfHealth(any());
     doNothing().when(osdClient).storeChannelSegments(any());
+    doNothing().when(osdClient).storeChannelSohBooleanSegments(any());
     frameCaptor = ArgumentCaptor.forClass(RawStationDataFrame.class);
     doNothing().when(osdClient).storeRawStationDataFrame(frameCaptor.capture());
 
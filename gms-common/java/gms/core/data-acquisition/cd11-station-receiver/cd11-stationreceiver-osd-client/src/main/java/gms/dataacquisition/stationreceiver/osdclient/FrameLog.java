@@ -0,0 +1,111 @@
+package gms.dataacquisition.stationreceiver.osdclient;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+
+/**
+ * On-disk format shared by {@link FrameLogWriter} and {@link FrameLogReader}.
+ *
+ * A frame log is a directory of append-only segment files, each named by the offset (record
+ * number) of its first record, e.g. 00000000000000004096.log.  Each record is a 4 byte payload
+ * length, a 4 byte CRC-32C of the payload, and the payload itself.  A record is complete only when
+ * its length and CRC check out, so a record torn by a crash (or still being written) is never
+ * returned to a reader.
+ */
+final class FrameLog {
+
+  static final String SEGMENT_SUFFIX = ".log";
+  static final int RECORD_HEADER_BYTES = Integer.BYTES * 2;
+  static final int MAX_RECORD_BYTES = 64 * 1024 * 1024;
+
+  private FrameLog() {
+  }
+
+  static Path segmentPath(Path directory, long baseOffset) {
+    return directory.resolve(String.format("%020d%s", baseOffset, SEGMENT_SUFFIX));
+  }
+
+  /**
+   * Lists the base offsets of the segments in a frame log directory.
+   *
+   * @param directory Frame log directory.
+   * @return Base offsets in ascending order; empty if the directory does not exist.
+   * @throws IOException Thrown if the directory cannot be listed.
+   */
+  static List<Long> segmentBaseOffsets(Path directory) throws IOException {
+    List<Long> baseOffsets = new ArrayList<>();
+    if (!Files.isDirectory(directory)) {
+      return baseOffsets;
+    }
+    try (DirectoryStream<Path> segments = Files.newDirectoryStream(
+        directory, "*" + SEGMENT_SUFFIX)) {
+      for (Path segment : segments) {
+        String name = segment.getFileName().toString();
+        try {
+          baseOffsets.add(Long.parseLong(
+              name.substring(0, name.length() - SEGMENT_SUFFIX.length())));
+        } catch (NumberFormatException e) {
+          // Not a segment.
+        }
+      }
+    }
+    Collections.sort(baseOffsets);
+    return baseOffsets;
+  }
+
+  /**
+   * Reads the record at a position of a segment.
+   *
+   * @param segment Segment to read from.
+   * @param position Position of the record's header.
+   * @param header Buffer of {@link #RECORD_HEADER_BYTES} bytes used to read the header.
+   * @return The record's payload, or null if there is no complete, valid record at the position.
+   * @throws IOException Thrown if the segment cannot be read.
+   */
+  static byte[] readRecord(FileChannel segment, long position, ByteBuffer header)
+      throws IOException {
+    long size = segment.size();
+    if (size - position < RECORD_HEADER_BYTES) {
+      return null;
+    }
+    header.clear();
+    readFully(segment, header, position);
+    header.flip();
+    int length = header.getInt();
+    int crc = header.getInt();
+    if (length < 0 || length > MAX_RECORD_BYTES
+        || size - position - RECORD_HEADER_BYTES < length) {
+      return null;
+    }
+
+    byte[] payload = new byte[length];
+    readFully(segment, ByteBuffer.wrap(payload), position + RECORD_HEADER_BYTES);
+    return (crc(payload) == crc) ? payload : null;
+  }
+
+  static int crc(byte[] payload) {
+    CRC32C crc = new CRC32C();
+    crc.update(payload, 0, payload.length);
+    return (int) crc.getValue();
+  }
+
+  private static void readFully(FileChannel segment, ByteBuffer buffer, long position)
+      throws IOException {
+    while (buffer.hasRemaining()) {
+      int read = segment.read(buffer, position);
+      if (read < 0) {
+        throw new IOException("Unexpected end of segment.");
+      }
+      position += read;
+    }
+  }
+}
@@ -0,0 +1,231 @@
+package gms.dataacquisition.stationreceiver.osdclient;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Tails a frame log written by a {@link FrameLogWriter}; see {@link FrameLog} for the format.
+ *
+ * Each reader is identified by a consumer name, under which the offset of the next record to read
+ * is stored in the frame log directory by {@link #commit()}.  A reader opened again resumes from
+ * its last committed offset, so records read but not committed before a crash are read again.
+ */
+public final class FrameLogReader implements Closeable {
+
+  private static final Logger logger = LoggerFactory.getLogger(FrameLogReader.class);
+
+  private static final String OFFSET_SUFFIX = ".offset";
+
+  private final Path directory;
+  private final Path offsetFile;
+  private final ByteBuffer header = ByteBuffer.allocate(FrameLog.RECORD_HEADER_BYTES);
+
+  // The segment being read (null until one exists), and the next record's position and offset.
+  private FileChannel segment;
+  private long segmentBaseOffset;
+  private long position;
+  private long offset;
+  private long committedOffset;
+
+  private FrameLogReader(Path directory, String consumerName) {
+    this.directory = directory;
+    this.offsetFile = directory.resolve(consumerName + OFFSET_SUFFIX);
+  }
+
+  /**
+   * Opens a frame log for reading, from the consumer's last committed offset.  The directory does
+   * not need to exist yet.
+   *
+   * @param directory Frame log directory.
+   * @param consumerName Name the consumer's offset is stored under.
+   * @return The reader.
+   * @throws IOException Thrown if the consumer's offset cannot be read.
+   */
+  public static FrameLogReader open(Path directory, String consumerName) throws IOException {
+    Validate.notNull(directory);
+    Validate.notBlank(consumerName);
+
+    FrameLogReader reader = new FrameLogReader(directory, consumerName);
+    if (Files.exists(reader.offsetFile)) {
+      reader.offset = Long.parseLong(
+          new String(Files.readAllBytes(reader.offsetFile), StandardCharsets.US_ASCII).trim());
+    }
+    reader.committedOffset = reader.offset;
+    return reader;
+  }
+
+  /**
+   * Reads the next record, moving on to newer segments as earlier ones are finished.
+   *
+   * @return The next record's payload, or null if no complete record has been appended yet.
+   * @throws IOException Thrown if the frame log cannot be read.
+   */
+  public byte[] next() throws IOException {
+    if (segment == null && !seek()) {
+      return null;
+    }
+
+    while (true) {
+      byte[] payload = readRecord();
+      if (payload != null) {
+        return payload;
+      }
+
+      // The end of this segment has been reached; move on only once the writer has started a newer
+      // segment.  Since the writer finishes a segment before starting the next, the segment is
+      // read once more after seeing the newer segment, to pick up its last records.
+      Long nextBaseOffset = nextSegmentBaseOffset();
+      if (nextBaseOffset == null) {
+        return null;
+      }
+      payload = readRecord();
+      if (payload != null) {
+        return payload;
+      }
+      if (nextBaseOffset != offset) {
+        logger.warn(String.format(
+            "Frame log segment %d in %s ends at offset %d, but the next segment starts at %d",
+            segmentBaseOffset, directory, offset, nextBaseOffset));
+      }
+      openSegment(nextBaseOffset);
+      offset = nextBaseOffset;
+    }
+  }
+
+  /**
+   * Returns the offset of the next record to be read.
+   *
+   * @return Offset.
+   */
+  public long offset() {
+    return offset;
+  }
+
+  /**
+   * Stores the offset of the next record to be read, so that a reader opened later with the same
+   * consumer name resumes from it.
+   *
+   * @throws IOException Thrown if the offset cannot be stored.
+   */
+  public void commit() throws IOException {
+    if (offset == committedOffset) {
+      return;
+    }
+    Files.createDirectories(directory);
+    Path tempFile = offsetFile.resolveSibling(offsetFile.getFileName() + ".tmp");
+    try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      channel.write(ByteBuffer.wrap(
+          Long.toString(offset).getBytes(StandardCharsets.US_ASCII)));
+      channel.force(true);
+    }
+    Files.move(tempFile, offsetFile,
+        StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    committedOffset = offset;
+  }
+
+  /**
+   * Deletes the segments whose records are all before the committed offset.  The newest segment is
+   * never deleted, since the writer may still be appending to it.
+   *
+   * @return Number of segments deleted.
+   * @throws IOException Thrown if a segment cannot be deleted.
+   */
+  public int deleteConsumedSegments() throws IOException {
+    List<Long> baseOffsets = FrameLog.segmentBaseOffsets(directory);
+    int deleted = 0;
+    for (int i = 0; i < baseOffsets.size() - 1; i++) {
+      long baseOffset = baseOffsets.get(i);
+      if (baseOffsets.get(i + 1) > committedOffset
+          || (segment != null && baseOffset == segmentBaseOffset)) {
+        break;
+      }
+      Files.deleteIfExists(FrameLog.segmentPath(directory, baseOffset));
+      deleted++;
+    }
+    return deleted;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (segment != null) {
+      segment.close();
+      segment = null;
+    }
+  }
+
+  /**
+   * Opens the segment holding the current offset, and positions the reader at that offset.
+   *
+   * @return False if the frame log has no segments yet.
+   */
+  private boolean seek() throws IOException {
+    List<Long> baseOffsets = FrameLog.segmentBaseOffsets(directory);
+    if (baseOffsets.isEmpty()) {
+      return false;
+    }
+
+    long baseOffset = baseOffsets.get(0);
+    for (long candidate : baseOffsets) {
+      if (candidate <= offset) {
+        baseOffset = candidate;
+      }
+    }
+    if (baseOffset > offset) {
+      logger.warn(String.format(
+          "Frame log in %s starts at offset %d, after offset %d; records were lost",
+          directory, baseOffset, offset));
+    }
+
+    long targetOffset = Math.max(offset, baseOffset);
+    openSegment(baseOffset);
+    offset = baseOffset;
+    while (offset < targetOffset) {
+      if (readRecord() == null) {
+        logger.warn(String.format(
+            "Frame log in %s ends at offset %d, before offset %d; resuming from the end",
+            directory, offset, targetOffset));
+        break;
+      }
+    }
+    return true;
+  }
+
+  private void openSegment(long baseOffset) throws IOException {
+    close();
+    segment = FileChannel.open(
+        FrameLog.segmentPath(directory, baseOffset), StandardOpenOption.READ);
+    segmentBaseOffset = baseOffset;
+    position = 0;
+  }
+
+  private byte[] readRecord() throws IOException {
+    byte[] payload = FrameLog.readRecord(segment, position, header);
+    if (payload != null) {
+      position += FrameLog.RECORD_HEADER_BYTES + payload.length;
+      offset++;
+    }
+    return payload;
+  }
+
+  private Long nextSegmentBaseOffset() throws IOException {
+    for (long baseOffset : FrameLog.segmentBaseOffsets(directory)) {
+      if (baseOffset > segmentBaseOffset) {
+        return baseOffset;
+      }
+    }
+    return null;
+  }
+}
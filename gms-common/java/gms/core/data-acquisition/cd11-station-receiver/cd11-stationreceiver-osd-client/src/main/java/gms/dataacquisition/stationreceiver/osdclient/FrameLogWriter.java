@@ -0,0 +1,244 @@
+package gms.dataacquisition.stationreceiver.osdclient;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Appends records (e.g. serialized raw station data frames) to a frame log; see {@link FrameLog}
+ * for the format.  A new segment is started when the current one would exceed the segment size.
+ *
+ * Appends are written to the operating system immediately, so they survive a crash of this process,
+ * but are only forced to disk (fsync) once per sync interval, to batch the cost of syncing across
+ * many records; {@link #sync()} forces them immediately.  On opening, the newest segment is scanned
+ * and any torn record left by a crash is truncated, so appending resumes after the last complete
+ * record.  Likewise, a record left partly written by a failed append is truncated before the next
+ * append, so that it does not hide the records appended after it from readers.  (NOTE: This class
+ * is thread safe, but only one writer may have a directory open.)
+ */
+public final class FrameLogWriter implements Closeable {
+
+  private static final Logger logger = LoggerFactory.getLogger(FrameLogWriter.class);
+
+  public static final long DEFAULT_SEGMENT_BYTES = 64L * 1024 * 1024;
+  public static final long DEFAULT_SYNC_INTERVAL_MS = 1000;
+
+  private final Path directory;
+  private final long segmentBytes;
+  private final long syncIntervalNs;
+  private final ByteBuffer header = ByteBuffer.allocate(FrameLog.RECORD_HEADER_BYTES);
+
+  private FileChannel segment;
+  private long segmentSize;
+  private long nextOffset;
+  private long lastSyncNs;
+  private boolean unsynced = false;
+
+  // Set when a failed append may have left a partial record that could not be truncated.
+  private boolean failed = false;
+
+  private FrameLogWriter(Path directory, long segmentBytes, long syncIntervalMs) {
+    this.directory = directory;
+    this.segmentBytes = segmentBytes;
+    this.syncIntervalNs = TimeUnit.MILLISECONDS.toNanos(syncIntervalMs);
+    this.lastSyncNs = System.nanoTime();
+  }
+
+  /**
+   * Opens a frame log for appending with the default segment size and sync interval, creating the
+   * directory if needed.
+   *
+   * @param directory Frame log directory.
+   * @return The writer.
+   * @throws IOException Thrown if the frame log cannot be opened or recovered.
+   */
+  public static FrameLogWriter open(Path directory) throws IOException {
+    return open(directory, DEFAULT_SEGMENT_BYTES, DEFAULT_SYNC_INTERVAL_MS);
+  }
+
+  /**
+   * Opens a frame log for appending, creating the directory if needed.
+   *
+   * @param directory Frame log directory.
+   * @param segmentBytes Size at which a new segment is started.
+   * @param syncIntervalMs Longest time appended records go without being forced to disk, as long as
+   * records keep being appended (0 forces every record).
+   * @return The writer.
+   * @throws IOException Thrown if the frame log cannot be opened or recovered.
+   */
+  public static FrameLogWriter open(Path directory, long segmentBytes, long syncIntervalMs)
+      throws IOException {
+    Validate.notNull(directory);
+    Validate.isTrue(segmentBytes > 0, "Segment size must be positive.");
+    Validate.isTrue(syncIntervalMs >= 0, "Sync interval cannot be negative.");
+
+    Files.createDirectories(directory);
+    FrameLogWriter writer = new FrameLogWriter(directory, segmentBytes, syncIntervalMs);
+    writer.recover();
+    return writer;
+  }
+
+  /**
+   * Appends a record.
+   *
+   * @param payload The record's bytes.
+   * @return The record's offset.
+   * @throws IOException Thrown if the record cannot be written.
+   */
+  public synchronized long append(byte[] payload) throws IOException {
+    Validate.notNull(payload);
+    Validate.isTrue(payload.length <= FrameLog.MAX_RECORD_BYTES, "Record is too large.");
+    Validate.validState(segment != null, "Frame log is closed.");
+    if (failed) {
+      reopen();
+    }
+
+    long recordBytes = FrameLog.RECORD_HEADER_BYTES + payload.length;
+    try {
+      if (segmentSize > 0 && segmentSize + recordBytes > segmentBytes) {
+        roll();
+      }
+
+      header.clear();
+      header.putInt(payload.length).putInt(FrameLog.crc(payload)).flip();
+      ByteBuffer[] record = {header, ByteBuffer.wrap(payload)};
+      while (record[1].hasRemaining()) {
+        segment.write(record);
+      }
+    } catch (IOException e) {
+      discardPartialRecord(e);
+      throw e;
+    }
+    segmentSize += recordBytes;
+    unsynced = true;
+    long offset = nextOffset++;
+
+    long now = System.nanoTime();
+    if (now - lastSyncNs >= syncIntervalNs) {
+      forceSegment(now);
+    }
+    return offset;
+  }
+
+  /**
+   * Forces appended records to disk.
+   *
+   * @throws IOException Thrown if the segment cannot be synced.
+   */
+  public synchronized void sync() throws IOException {
+    if (segment != null && unsynced) {
+      forceSegment(System.nanoTime());
+    }
+  }
+
+  /**
+   * Returns the offset the next appended record will be given.
+   *
+   * @return Next offset.
+   */
+  public synchronized long nextOffset() {
+    return nextOffset;
+  }
+
+  /**
+   * Syncs and closes the frame log.
+   *
+   * @throws IOException Thrown if the segment cannot be synced or closed.
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    if (segment != null) {
+      sync();
+      segment.close();
+      segment = null;
+    }
+  }
+
+  /**
+   * Opens the newest segment, truncating any incomplete record at its end.
+   */
+  private void recover() throws IOException {
+    List<Long> baseOffsets = FrameLog.segmentBaseOffsets(directory);
+    if (baseOffsets.isEmpty()) {
+      openSegment(0);
+      return;
+    }
+
+    long baseOffset = baseOffsets.get(baseOffsets.size() - 1);
+    segment = FileChannel.open(FrameLog.segmentPath(directory, baseOffset),
+        StandardOpenOption.READ, StandardOpenOption.WRITE);
+    long position = 0;
+    long records = 0;
+    byte[] payload;
+    while ((payload = FrameLog.readRecord(segment, position, header)) != null) {
+      position += FrameLog.RECORD_HEADER_BYTES + payload.length;
+      records++;
+    }
+    if (position < segment.size()) {
+      logger.warn(String.format(
+          "Truncating %d bytes of incomplete records from frame log segment %d in %s",
+          segment.size() - position, baseOffset, directory));
+      segment.truncate(position);
+      segment.force(true);
+    }
+    segment.position(position);
+    segmentSize = position;
+    nextOffset = baseOffset + records;
+  }
+
+  /**
+   * Truncates the segment back to the end of its last complete record after a failed append.  If
+   * that fails too (e.g. the channel was closed by an interrupt), the segment is reopened and
+   * recovered before the next append.
+   */
+  private void discardPartialRecord(IOException cause) {
+    try {
+      segment.truncate(segmentSize);
+      segment.position(segmentSize);
+    } catch (IOException e) {
+      cause.addSuppressed(e);
+      failed = true;
+    }
+  }
+
+  private void reopen() throws IOException {
+    try {
+      segment.close();
+    } catch (IOException e) {
+      logger.debug("Frame log segment could not be closed before reopening it.", e);
+    }
+    recover();
+    failed = false;
+  }
+
+  private void roll() throws IOException {
+    segment.force(true);
+    segment.close();
+    unsynced = false;
+    openSegment(nextOffset);
+  }
+
+  private void openSegment(long baseOffset) throws IOException {
+    segment = FileChannel.open(FrameLog.segmentPath(directory, baseOffset),
+        StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    segment.position(segment.size());
+    segmentSize = segment.size();
+    nextOffset = baseOffset;
+  }
+
+  private void forceSegment(long now) throws IOException {
+    segment.force(false);
+    unsynced = false;
+    lastSyncNs = now;
+  }
+}
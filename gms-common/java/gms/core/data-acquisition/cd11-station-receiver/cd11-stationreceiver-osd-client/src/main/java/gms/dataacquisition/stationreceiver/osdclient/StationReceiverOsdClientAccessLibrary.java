@@ -22,6 +22,7 @@ import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import static org.apache.commons.text.CharacterPredicates.DIGITS;
@@ -43,6 +44,7 @@ public class StationReceiverOsdClientAccessLibrary implements StationReceiverOsd
       GET_SITE_BY_NAME_URL,
       STORE_ANALOG_SOHS_URL,
       STORE_BOOLEAN_SOHS_URL,
+      STORE_BOOLEAN_SOH_SEGMENTS_URL,
       STORE_CHANNEL_SEGMENTS_URL,
       STORE_RAW_STATION_DATA_FRAME_URL;
 
@@ -50,6 +52,7 @@ public class StationReceiverOsdClientAccessLibrary implements StationReceiverOsd
       LoggerFactory.getLogger(StationReceiverOsdClientAccessLibrary.class);
 
   private final String fsOutputDirectory;
+  private final FrameLogWriter frameLog;
 
   private static final int DEFAULT_CONNECTION_TIMEOUT = 10000;
   private final RandomStringGenerator generator = new RandomStringGenerator.Builder()
@@ -57,10 +60,11 @@ public class StationReceiverOsdClientAccessLibrary implements StationReceiverOsd
       .filteredBy(LETTERS, DIGITS)
       .build();
 
-  private final Map<ChannelInfo, UUID> channelIdCache = new HashMap<>();
-  private final Map<String, UUID> stationIdCache = new HashMap<>();
-  private final Set<ChannelInfo> unknownChannels = new HashSet<>();
-  private final Set<String> unknownStations = new HashSet<>();
+  // Concurrent, since frames may be parsed by several threads sharing this client.
+  private final Map<ChannelInfo, UUID> channelIdCache = new ConcurrentHashMap<>();
+  private final Map<String, UUID> stationIdCache = new ConcurrentHashMap<>();
+  private final Set<ChannelInfo> unknownChannels = ConcurrentHashMap.newKeySet();
+  private final Set<String> unknownStations = ConcurrentHashMap.newKeySet();
 
   // Required for JSON serialization.
   static {
@@ -95,6 +99,17 @@ public class StationReceiverOsdClientAccessLibrary implements StationReceiverOsd
     this(DEFAULT_STATION_REF_SERVICE_CONFIG, DEFAULT_WAVEFORMS_SERVICE_CONFIG, null);
   }
 
+  /**
+   * Access library used to query and send data to the OSD, and append raw station data frames to
+   * a frame log.
+   *
+   * @param frameLog Frame log to append raw station data frames to, as msgpack records.
+   */
+  public StationReceiverOsdClientAccessLibrary(FrameLogWriter frameLog) {
+    this(DEFAULT_STATION_REF_SERVICE_CONFIG, DEFAULT_WAVEFORMS_SERVICE_CONFIG, null,
+        Objects.requireNonNull(frameLog));
+  }
+
   /**
    * Access library used to query and send data to the OSD.
    */
@@ -112,7 +127,14 @@ public class StationReceiverOsdClientAccessLibrary implements StationReceiverOsd
    */
   public StationReceiverOsdClientAccessLibrary(HttpClientConfig stationRefServiceConfig,
       HttpClientConfig waveformsServiceConfig, String fsOutputDirectory) {
+    this(stationRefServiceConfig, waveformsServiceConfig, fsOutputDirectory, null);
+  }
+
+  private StationReceiverOsdClientAccessLibrary(HttpClientConfig stationRefServiceConfig,
+      HttpClientConfig waveformsServiceConfig, String fsOutputDirectory,
+      FrameLogWriter frameLog) {
     this.fsOutputDirectory = fsOutputDirectory;
+    this.frameLog = frameLog;
     Objects.requireNonNull(stationRefServiceConfig);
     Objects.requireNonNull(waveformsServiceConfig);
     this.GET_STATION_BY_NAME_URL = stationRefServiceConfig.asUrl()
@@ -123,6 +145,8 @@ public class StationReceiverOsdClientAccessLibrary implements StationReceiverOsd
         waveformsServiceConfig.asUrl() + "/coi/acquired-channel-sohs/analog";
     this.STORE_BOOLEAN_SOHS_URL =
         waveformsServiceConfig.asUrl() + "/coi/acquired-channel-sohs/boolean";
+    this.STORE_BOOLEAN_SOH_SEGMENTS_URL =
+        waveformsServiceConfig.asUrl() + "/coi/acquired-channel-sohs/boolean-segments";
     this.STORE_CHANNEL_SEGMENTS_URL =
         waveformsServiceConfig.asUrl() + "/mechanisms/object-storage-distribution/waveforms/channel-segment/store";
     this.STORE_RAW_STATION_DATA_FRAME_URL =
@@ -182,6 +206,26 @@ public class StationReceiverOsdClientAccessLibrary implements StationReceiverOsd
         sohs.size(), endTime - startTime));
   }
 
+  /**
+   * Stores a set of boolean SOH segments.
+   *
+   * @param segments the soh segments to store
+   */
+  @Override
+  public void storeChannelSohBooleanSegments(
+      Collection<AcquiredChannelSohBooleanSegment> segments) throws Exception {
+
+    Validate.notNull(segments);
+    if (segments.isEmpty()) {
+      return; // nothing to do
+    }
+    final long startTime = System.currentTimeMillis();
+    handleResponse(postMsgPack(segments, STORE_BOOLEAN_SOH_SEGMENTS_URL), segments.toString());
+    final long endTime = System.currentTimeMillis();
+    logger.info(String.format("Stored %d boolean SOH segments in %d ms",
+        segments.size(), endTime - startTime));
+  }
+
   /**
    * Sends a RawStationDataFrame to the OSD.
    *
@@ -192,7 +236,10 @@ public class StationReceiverOsdClientAccessLibrary implements StationReceiverOsd
     Validate.notNull(frame);
     FileWriter fileWriter = null;
     try {
-      if (this.fsOutputDirectory != null) {
+      if (this.frameLog != null) {
+        // Append to the frame log.
+        this.frameLog.append(msgpackMapper.writeValueAsBytes(frame));
+      } else if (this.fsOutputDirectory != null) {
         // Write to disk.
 
         String json = jsonMapper.writeValueAsString(frame);
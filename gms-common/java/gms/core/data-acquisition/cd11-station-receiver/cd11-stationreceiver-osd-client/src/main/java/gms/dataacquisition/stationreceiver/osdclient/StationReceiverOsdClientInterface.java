@@ -1,6 +1,7 @@
 package gms.dataacquisition.stationreceiver.osdclient;
 
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.AcquiredChannelSoh;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.AcquiredChannelSohBooleanSegment;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.ChannelSegment;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.RawStationDataFrame;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.Waveform;
@@ -27,6 +28,16 @@ public interface StationReceiverOsdClientInterface {
    */
   void storeChannelStatesOfHealth(Collection<AcquiredChannelSoh> sohs) throws Exception;
 
+  /**
+   * Stores a set of boolean Channel State-Of-Health segments, each holding all of the boolean
+   * statuses of a channel over a time range.
+   *
+   * @param segments the soh segments to store
+   * @throws Exception
+   */
+  void storeChannelSohBooleanSegments(Collection<AcquiredChannelSohBooleanSegment> segments)
+      throws Exception;
+
   /**
    * Stores a raw station data frame.
    *
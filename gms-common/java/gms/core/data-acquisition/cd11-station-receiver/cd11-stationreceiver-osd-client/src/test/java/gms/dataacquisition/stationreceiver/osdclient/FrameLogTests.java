@@ -0,0 +1,225 @@
+package gms.dataacquisition.stationreceiver.osdclient;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FrameLogTests {
+
+  private static final String CONSUMER = "test-consumer";
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private Path directory;
+
+  @Before
+  public void setup() {
+    directory = temporaryFolder.getRoot().toPath().resolve("frame-log");
+  }
+
+  @Test
+  public void testAppendAndRead() throws Exception {
+    try (FrameLogWriter writer = FrameLogWriter.open(directory);
+        FrameLogReader reader = FrameLogReader.open(directory, CONSUMER)) {
+      assertNull(reader.next());
+
+      for (int i = 0; i < 10; i++) {
+        assertEquals(i, writer.append(record(i)));
+      }
+      for (int i = 0; i < 10; i++) {
+        assertArrayEquals(record(i), reader.next());
+      }
+      assertNull(reader.next());
+      assertEquals(10, reader.offset());
+
+      // Records appended later are picked up by the same reader.
+      writer.append(record(10));
+      assertArrayEquals(record(10), reader.next());
+    }
+  }
+
+  @Test
+  public void testReaderOpenedBeforeDirectoryExists() throws Exception {
+    try (FrameLogReader reader = FrameLogReader.open(directory, CONSUMER)) {
+      assertNull(reader.next());
+      try (FrameLogWriter writer = FrameLogWriter.open(directory)) {
+        writer.append(record(0));
+      }
+      assertArrayEquals(record(0), reader.next());
+    }
+  }
+
+  @Test
+  public void testSegmentsRollAndAreTailed() throws Exception {
+    try (FrameLogWriter writer = FrameLogWriter.open(directory, 100, 0);
+        FrameLogReader reader = FrameLogReader.open(directory, CONSUMER)) {
+      for (int i = 0; i < 50; i++) {
+        writer.append(record(i));
+        assertArrayEquals(record(i), reader.next());
+      }
+      assertNull(reader.next());
+    }
+    assertTrue(FrameLog.segmentBaseOffsets(directory).size() > 1);
+  }
+
+  @Test
+  public void testCommittedOffsetIsResumed() throws Exception {
+    try (FrameLogWriter writer = FrameLogWriter.open(directory, 100, 0)) {
+      for (int i = 0; i < 50; i++) {
+        writer.append(record(i));
+      }
+    }
+
+    try (FrameLogReader reader = FrameLogReader.open(directory, CONSUMER)) {
+      for (int i = 0; i < 30; i++) {
+        reader.next();
+      }
+      reader.commit();
+      // Read but not committed.
+      reader.next();
+    }
+
+    try (FrameLogReader reader = FrameLogReader.open(directory, CONSUMER)) {
+      assertEquals(30, reader.offset());
+      for (int i = 30; i < 50; i++) {
+        assertArrayEquals(record(i), reader.next());
+      }
+      assertNull(reader.next());
+    }
+
+    // Other consumers keep their own offsets.
+    try (FrameLogReader reader = FrameLogReader.open(directory, "other-consumer")) {
+      assertArrayEquals(record(0), reader.next());
+    }
+  }
+
+  @Test
+  public void testDeleteConsumedSegments() throws Exception {
+    try (FrameLogWriter writer = FrameLogWriter.open(directory, 100, 0);
+        FrameLogReader reader = FrameLogReader.open(directory, CONSUMER)) {
+      for (int i = 0; i < 50; i++) {
+        writer.append(record(i));
+      }
+      for (int i = 0; i < 25; i++) {
+        reader.next();
+      }
+
+      // Nothing is deleted until the offset is committed.
+      assertEquals(0, reader.deleteConsumedSegments());
+      reader.commit();
+      assertTrue(reader.deleteConsumedSegments() > 0);
+
+      List<Long> baseOffsets = FrameLog.segmentBaseOffsets(directory);
+      assertTrue(baseOffsets.get(0) <= 25);
+      for (int i = 25; i < 50; i++) {
+        assertArrayEquals(record(i), reader.next());
+      }
+    }
+  }
+
+  @Test
+  public void testTornRecordIsTruncatedOnRecovery() throws Exception {
+    try (FrameLogWriter writer = FrameLogWriter.open(directory)) {
+      writer.append(record(0));
+      writer.append(record(1));
+    }
+
+    // Simulate a crash part way through appending a record.
+    Path segment = FrameLog.segmentPath(directory, 0);
+    try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.APPEND)) {
+      channel.write(ByteBuffer.allocate(FrameLog.RECORD_HEADER_BYTES + 3)
+          .putInt(100).putInt(1234).put(new byte[]{1, 2, 3}).flip());
+    }
+
+    try (FrameLogReader reader = FrameLogReader.open(directory, CONSUMER)) {
+      assertArrayEquals(record(0), reader.next());
+      assertArrayEquals(record(1), reader.next());
+      // The torn record is never returned.
+      assertNull(reader.next());
+
+      long sizeBeforeRecovery = Files.size(segment);
+      try (FrameLogWriter writer = FrameLogWriter.open(directory)) {
+        assertTrue(Files.size(segment) < sizeBeforeRecovery);
+        assertEquals(2, writer.nextOffset());
+        writer.append(record(2));
+      }
+      assertArrayEquals(record(2), reader.next());
+    }
+  }
+
+  @Test
+  public void testFailedAppendDoesNotHideLaterRecords() throws Exception {
+    try (FrameLogWriter writer = FrameLogWriter.open(directory)) {
+      writer.append(record(0));
+
+      // An interrupt fails the append and closes the segment's channel.
+      Thread.currentThread().interrupt();
+      try {
+        writer.append(record(1));
+        fail("Append should have failed");
+      } catch (ClosedByInterruptException e) {
+        // Expected.
+      } finally {
+        Thread.interrupted();
+      }
+
+      // Simulate the failed append having written part of its record.
+      try (FileChannel channel = FileChannel.open(FrameLog.segmentPath(directory, 0),
+          StandardOpenOption.APPEND)) {
+        channel.write(ByteBuffer.allocate(FrameLog.RECORD_HEADER_BYTES + 3)
+            .putInt(100).putInt(1234).put(new byte[]{1, 2, 3}).flip());
+      }
+
+      assertEquals(1, writer.append(record(2)));
+      assertEquals(2, writer.append(record(3)));
+    }
+
+    try (FrameLogReader reader = FrameLogReader.open(directory, CONSUMER)) {
+      assertArrayEquals(record(0), reader.next());
+      assertArrayEquals(record(2), reader.next());
+      assertArrayEquals(record(3), reader.next());
+      assertNull(reader.next());
+    }
+  }
+
+  @Test
+  public void testCorruptRecordIsNotReturned() throws Exception {
+    try (FrameLogWriter writer = FrameLogWriter.open(directory)) {
+      writer.append(record(0));
+    }
+    Path segment = FrameLog.segmentPath(directory, 0);
+    byte[] bytes = Files.readAllBytes(segment);
+    bytes[bytes.length - 1] ^= 1;
+    Files.write(segment, bytes);
+
+    try (FrameLogReader reader = FrameLogReader.open(directory, CONSUMER)) {
+      assertNull(reader.next());
+    }
+    try (FrameLogWriter writer = FrameLogWriter.open(directory)) {
+      assertEquals(0, writer.nextOffset());
+    }
+    assertFalse(Files.size(segment) > 0);
+  }
+
+  private static byte[] record(int i) {
+    byte[] record = new byte[10 + i % 7];
+    record[0] = (byte) i;
+    return record;
+  }
+}
@@ -39,6 +39,7 @@ public class StationReceiverOsdClientAccessLibraryTests {
       STORE_CHANNEL_SEGMENTS_URL = "/mechanisms/object-storage-distribution/waveforms/channel-segment/store",
       STORE_ANALOG_SOH_URL = "/coi/acquired-channel-sohs/analog",
       STORE_BOOLEAN_SOH_URL = "/coi/acquired-channel-sohs/boolean",
+      STORE_BOOLEAN_SOH_SEGMENTS_URL = "/coi/acquired-channel-sohs/boolean-segments",
       STORE_FRAME_URL = "/coi/raw-station-data-frames",
       GET_STATION_URL = "/mechanisms/object-storage-distribution/station-reference/stations/processing/name/",
       GET_SITE_URL = "/mechanisms/object-storage-distribution/station-reference/sites/processing/name/";
@@ -86,6 +87,16 @@ public class StationReceiverOsdClientAccessLibraryTests {
     verifyPostRequestMsgpack(STORE_BOOLEAN_SOH_URL, List.of(TestFixtures.sohBoolean));
   }
 
+  @Test
+  public void testStoreChannelSohBooleanSegments() throws Exception {
+    mockServiceMsgpackStore(STORE_BOOLEAN_SOH_SEGMENTS_URL,
+        List.of(TestFixtures.sohBooleanSegment),
+        List.of(TestFixtures.sohBooleanSegment.getId()));
+    client.storeChannelSohBooleanSegments(List.of(TestFixtures.sohBooleanSegment));
+    verifyPostRequestMsgpack(STORE_BOOLEAN_SOH_SEGMENTS_URL,
+        List.of(TestFixtures.sohBooleanSegment));
+  }
+
   @Test
   public void testStoreRawStationDataFrames() throws Exception {
     final List<RawStationDataFrame> frames = List.of(TestFixtures.frame);
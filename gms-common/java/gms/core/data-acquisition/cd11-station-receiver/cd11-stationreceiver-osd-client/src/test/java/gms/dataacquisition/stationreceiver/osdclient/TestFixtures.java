@@ -13,6 +13,7 @@ import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjec
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
@@ -31,6 +32,12 @@ public class TestFixtures {
       UUID.randomUUID(), AcquiredChannelSohType.VAULT_DOOR_OPENED,
       Instant.EPOCH, Instant.EPOCH.plusSeconds(10), true, CreationInfo.DEFAULT);
 
+  static final AcquiredChannelSohBooleanSegment sohBooleanSegment
+      = AcquiredChannelSohBooleanSegment.create(UUID.randomUUID(),
+      Instant.EPOCH, Instant.EPOCH.plusSeconds(10),
+      Map.of(AcquiredChannelSohType.VAULT_DOOR_OPENED, true,
+          AcquiredChannelSohType.CLIPPED, false), CreationInfo.DEFAULT);
+
   static final RawStationDataFrame frame = RawStationDataFrame.create(
           UUID.randomUUID(), Set.of(UUID.randomUUID()), AcquisitionProtocol.CD11,
       Instant.EPOCH, Instant.EPOCH.plusSeconds(10), Instant.EPOCH.plusSeconds(11),
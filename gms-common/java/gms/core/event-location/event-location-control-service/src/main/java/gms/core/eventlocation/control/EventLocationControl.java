@@ -28,6 +28,10 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import org.apache.commons.configuration.Configuration;
 import org.apache.commons.configuration.ConfigurationException;
@@ -37,10 +41,12 @@ import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class EventLocationControl {
+public class EventLocationControl implements AutoCloseable {
 
   private static final Logger logger = LoggerFactory.getLogger(EventLocationControl.class);
 
+  private static final String LOCATE_PARALLELISM_PROPERTY = "locateParallelism";
+
   private final PluginRegistry pluginRegistry;
 
   private final EventLocatorPlugin eventLocatorPlugin;
@@ -51,13 +57,17 @@ public class EventLocationControl {
 
   private final EventLocationControlOsdGateway osdGateway;
 
+  // Pool independent EventHypotheses are located on, or null to locate them sequentially
+  private final ExecutorService locatePool;
+
 
   private EventLocationControl(
       PluginRegistry pluginRegistry,
       EventLocatorPlugin eventLocatorPlugin,
       EventLocationControlParameters eventLocationControlParameters,
       EventLocationConfiguration eventLocationConfiguration,
-      EventLocationControlOsdGateway osdGateway
+      EventLocationControlOsdGateway osdGateway,
+      ExecutorService locatePool
   ) {
 
     this.pluginRegistry = pluginRegistry;
@@ -69,20 +79,63 @@ public class EventLocationControl {
     this.eventLocationConfiguration = eventLocationConfiguration;
 
     this.osdGateway = osdGateway;
+
+    this.locatePool = locatePool;
   }
 
 
+  /**
+   * Creates an EventLocationControl locating with the number of threads given by the optional
+   * "locateParallelism" property in EventLocationControl.properties, which defaults to 1
+   * (sequential).
+   *
+   * @param osdGateway gateway to the OSD, not null
+   * @return a new EventLocationControl, not null
+   */
   public static EventLocationControl create(EventLocationControlOsdGateway osdGateway) {
 
     Objects.requireNonNull(osdGateway, "Null osdGateway");
 
+    Configuration config = EventLocationControl.loadControlConfiguration();
+
+    return EventLocationControl
+        .create(osdGateway, config, config.getInt(LOCATE_PARALLELISM_PROPERTY, 1));
+  }
+
+
+  /**
+   * Creates an EventLocationControl that locates up to locateParallelism independent
+   * EventHypotheses concurrently.  Results do not depend on locateParallelism: each EventHypothesis
+   * is located independently and the results are assembled in the same order as when locating
+   * sequentially.
+   *
+   * @param osdGateway gateway to the OSD, not null
+   * @param locateParallelism maximum number of EventHypotheses located concurrently, >= 1.  1
+   * locates EventHypotheses sequentially on the calling thread.
+   * @return a new EventLocationControl, not null
+   */
+  public static EventLocationControl create(EventLocationControlOsdGateway osdGateway,
+      int locateParallelism) {
+
+    Objects.requireNonNull(osdGateway, "Null osdGateway");
+
+    return EventLocationControl
+        .create(osdGateway, EventLocationControl.loadControlConfiguration(), locateParallelism);
+  }
+
+
+  private static EventLocationControl create(EventLocationControlOsdGateway osdGateway,
+      Configuration config, int locateParallelism) {
+
+    Validate.isTrue(locateParallelism >= 1, "locateParallelism must be >= 1");
+
     PluginRegistry pluginRegistry = PluginRegistry.getRegistry();
     pluginRegistry.loadAndRegister();
 
     EventLocationConfiguration eventLocationConfiguration = EventLocationConfiguration.create();
 
     EventLocationControlParameters parameters = EventLocationControl
-        .loadDefaultEventLocationControlParameters(eventLocationConfiguration);
+        .loadDefaultEventLocationControlParameters(eventLocationConfiguration, config);
 
     PluginInfo defaultPluginInfo = parameters.getPluginInfo().orElseThrow(
         () -> new IllegalStateException(String
@@ -109,16 +162,51 @@ public class EventLocationControl {
 
     EventLocationControl.logger.info("Successfully initialized eventLocatorPlugin");
 
+    ExecutorService locatePool = null;
+    if (locateParallelism > 1) {
+
+      EventLocationControl.logger
+          .info("Locating up to {} EventHypotheses concurrently", locateParallelism);
+
+      locatePool = Executors.newFixedThreadPool(locateParallelism, runnable -> {
+        Thread thread = new Thread(runnable, "event-location-locate");
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+
     return new EventLocationControl(
         pluginRegistry,
         eventLocatorPlugin,
         parameters,
         eventLocationConfiguration,
-        osdGateway
+        osdGateway,
+        locatePool
     );
   }
 
 
+  /**
+   * Shuts down the pool EventHypotheses are located on and closes the default locator plugin if it
+   * holds resources of its own.  EventHypotheses already being located are allowed to finish.
+   */
+  @Override
+  public void close() {
+
+    if (this.locatePool != null) {
+      this.locatePool.shutdown();
+    }
+
+    if (this.eventLocatorPlugin instanceof AutoCloseable) {
+      try {
+        ((AutoCloseable) this.eventLocatorPlugin).close();
+      } catch (Exception e) {
+        EventLocationControl.logger.warn("Could not close eventLocatorPlugin", e);
+      }
+    }
+  }
+
+
   public Collection<EventHypothesisClaimCheck> locate(
       Collection<EventHypothesisClaimCheck> eventHypothesisClaimChecks
   ) throws TooManyRestraintsException {
@@ -206,10 +294,9 @@ public class EventLocationControl {
             + "EventHypotheses: {}\nSignalDetections: {}",
         eventHypotheses, signalDetections);
 
-    // Maps eventHypothesis UUID to collection of location solutions produced by the locator
-    Map<UUID, Set<LocationSolution>> locationSolutionsMap = new HashMap<>();
+    List<EventHypothesis> eventHypothesisList = new ArrayList<>(eventHypotheses);
 
-    for (EventHypothesis eh : eventHypotheses) {
+    List<Set<LocationSolution>> locationSolutionsList = this.locateEach(eventHypothesisList, eh -> {
 
 //      // Get UUIDs of all associated SignalDetectionHypotheses
 //      Set<UUID> associatedSignalDetectionHypothesesIds = eh.getAssociations()
@@ -278,7 +365,14 @@ public class EventLocationControl {
       );
 
       EventLocationControl.logger.info("Resulting LocationSolutions: {}\n", locationSolutions);
-      locationSolutionsMap.put(eh.getId(), locationSolutions);
+      return locationSolutions;
+    });
+
+    // Maps eventHypothesis UUID to collection of location solutions produced by the locator
+    Map<UUID, Set<LocationSolution>> locationSolutionsMap = new HashMap<>();
+
+    for (int i = 0; i < eventHypothesisList.size(); i++) {
+      locationSolutionsMap.put(eventHypothesisList.get(i).getId(), locationSolutionsList.get(i));
     }
 
     return locationSolutionsMap;
@@ -300,10 +394,9 @@ public class EventLocationControl {
     EventLocatorPlugin locatorPlugin = locatorPluginAndDefinition.getLocatorPlugin();
     EventLocationDefinition locationDefinition = locatorPluginAndDefinition.getLocationDefinition();
 
-    // Maps eventHypothesis UUID to collection of location solutions produced by the locator
-    Map<UUID, Set<LocationSolution>> locationSolutionsMap = new HashMap<>();
+    List<EventHypothesis> eventHypothesisList = new ArrayList<>(eventHypotheses);
 
-    for (EventHypothesis eh : eventHypotheses) {
+    List<Set<LocationSolution>> locationSolutionsList = this.locateEach(eventHypothesisList, eh -> {
 
       Set<UUID> referenceStationVersionIds = signalDetections.stream()
           .map(SignalDetection::getStationId).collect(
@@ -351,7 +444,14 @@ public class EventLocationControl {
       );
 
       EventLocationControl.logger.info("Resulting LocationSolution: {}\n", locationSolutions);
-      locationSolutionsMap.put(eh.getId(), locationSolutions);
+      return locationSolutions;
+    });
+
+    // Maps eventHypothesis UUID to collection of location solutions produced by the locator
+    Map<UUID, Set<LocationSolution>> locationSolutionsMap = new HashMap<>();
+
+    for (int i = 0; i < eventHypothesisList.size(); i++) {
+      locationSolutionsMap.put(eventHypothesisList.get(i).getId(), locationSolutionsList.get(i));
     }
 
     return locationSolutionsMap;
@@ -521,7 +621,35 @@ public class EventLocationControl {
     // Holds new EventHypothesisClaimChecks
     Set<EventHypothesisClaimCheck> newClaimChecks = new HashSet<>();
 
-    for (Event e : events) {
+    // Filter for only the EventHypotheses we want to locate on, in event order
+    List<Event> eventList = new ArrayList<>(events);
+    List<List<EventHypothesis>> hypothesesByEvent = eventList.stream()
+        .map(e -> e.getHypotheses().stream()
+            .filter(eh -> eventHypothesisIds.contains(eh.getId())).collect(Collectors.toList()))
+        .collect(Collectors.toList());
+
+    // Each EventHypothesis is located independently, so locate them all before building the
+    // updated Events
+    List<List<LocationSolution>> locationSolutionsList = this.locateEach(
+        hypothesesByEvent.stream().flatMap(List::stream).collect(Collectors.toList()), eh -> {
+
+          // Build input for locator plugin
+          Pair<List<SignalDetectionHypothesis>, List<ReferenceStation>> locatorInput = this
+              .buildLocatorInput(eh);
+          List<SignalDetectionHypothesis> signalDetectionHypotheses = locatorInput.getLeft();
+          List<ReferenceStation> referenceStations = locatorInput.getRight();
+
+          // Call locator plugin
+          return locatorPlugin
+              .locate(eh.getPreferredLocationSolution(), signalDetectionHypotheses,
+                  referenceStations, locatorDefinition);
+        });
+
+    int locationIndex = 0;
+
+    for (int i = 0; i < eventList.size(); i++) {
+
+      Event e = eventList.get(i);
 
       // Holds preferred event hypothesis history, needed when creating the new event to store.
       // Every location generates a new event hypothesis - and each event hypothesis gets added
@@ -529,25 +657,12 @@ public class EventLocationControl {
       List<PreferredEventHypothesis> preferredEventHypothesisHistory = new ArrayList<>(
           e.getPreferredEventHypothesisHistory());
 
-      // Filter for only the EventHypotheses we want to locate on
-      Set<EventHypothesis> hypotheses = e.getHypotheses().stream()
-          .filter(eh -> eventHypothesisIds.contains(eh.getId())).collect(Collectors.toSet());
-
       // Copy original list of hypotheses so we can add our new hypothesis to this
       Set<EventHypothesis> newHypotheses = new HashSet<>(e.getHypotheses());
 
-      for (EventHypothesis eh : hypotheses) {
+      for (EventHypothesis eh : hypothesesByEvent.get(i)) {
 
-        // Build input for locator plugin
-        Pair<List<SignalDetectionHypothesis>, List<ReferenceStation>> locatorInput = this
-            .buildLocatorInput(eh);
-        List<SignalDetectionHypothesis> signalDetectionHypotheses = locatorInput.getLeft();
-        List<ReferenceStation> referenceStations = locatorInput.getRight();
-
-        // Call locator plugin
-        List<LocationSolution> locationSolutions = locatorPlugin
-            .locate(eh.getPreferredLocationSolution(), signalDetectionHypotheses, referenceStations,
-                locatorDefinition);
+        List<LocationSolution> locationSolutions = locationSolutionsList.get(locationIndex++);
 
         // Builds and add new hypothesis to list of new Hypotheses so that we can add them to the updated Event
         EventHypothesis newHypothesis = this.buildUpdatedEventHypothesis(eh, locationSolutions);
@@ -613,6 +728,65 @@ public class EventLocationControl {
     return newClaimChecks;
   }
 
+  // Locates a single input, e.g. an EventHypothesis, with the locator plugin
+  @FunctionalInterface
+  private interface LocateTask<I, O> {
+
+    O locate(I input) throws TooManyRestraintsException;
+  }
+
+  // Utility method applying the locate task to each input, concurrently on the locate pool if there
+  // is one.  Outputs are returned in input order, and the exception of the first failing input is
+  // rethrown, so the results are the same as locating sequentially.
+  private <I, O> List<O> locateEach(List<I> inputs, LocateTask<I, O> task)
+      throws TooManyRestraintsException {
+
+    List<O> outputs = new ArrayList<>(inputs.size());
+
+    if (this.locatePool == null || inputs.size() < 2) {
+
+      for (I input : inputs) {
+        outputs.add(task.locate(input));
+      }
+
+      return outputs;
+    }
+
+    List<Future<O>> futures = new ArrayList<>(inputs.size());
+    try {
+
+      for (I input : inputs) {
+        futures.add(this.locatePool.submit(() -> task.locate(input)));
+      }
+
+      for (Future<O> future : futures) {
+        outputs.add(future.get());
+      }
+    } catch (ExecutionException e) {
+
+      Throwable cause = e.getCause();
+      if (cause instanceof TooManyRestraintsException) {
+        throw (TooManyRestraintsException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+
+      throw new IllegalStateException(cause);
+    } catch (InterruptedException e) {
+
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while locating", e);
+    } finally {
+
+      // Stop locating the remaining inputs if one failed
+      futures.forEach(future -> future.cancel(true));
+    }
+
+    return outputs;
+  }
+
   // Utility method to create a new EventHypothesis given a new LocationSolution and the EventHypothesis
   // the new LocationSolution was generated from
   private EventHypothesis buildUpdatedEventHypothesis(EventHypothesis oldHypothesis,
@@ -671,14 +845,12 @@ public class EventLocationControl {
     return optionalUserOverridePlugin.get();
   }
 
-  // Utility method for loading default EventLocationControlParameters and EventLocationDefinition from config
-  private static EventLocationControlParameters loadDefaultEventLocationControlParameters(
-      EventLocationConfiguration eventLocationConfiguration) {
+  // Utility method for loading EventLocationControl.properties
+  private static Configuration loadControlConfiguration() {
 
-    Configuration config;
     try {
 
-      config = new PropertiesConfiguration(
+      return new PropertiesConfiguration(
           "gms/core/eventlocation/control/EventLocationControl.properties");
     } catch (ConfigurationException e) {
 
@@ -686,6 +858,11 @@ public class EventLocationControl {
       EventLocationControl.logger.error(errorMsg, e);
       throw new IllegalStateException(errorMsg, e);
     }
+  }
+
+  // Utility method for loading default EventLocationControlParameters and EventLocationDefinition from config
+  private static EventLocationControlParameters loadDefaultEventLocationControlParameters(
+      EventLocationConfiguration eventLocationConfiguration, Configuration config) {
 
     // Load plugin name from config
     String pluginName = config.getString("pluginName");
@@ -42,8 +42,11 @@ public class Application {
    */
   private static ServiceDefinition getHttpServiceDefinition() {
 
-    RequestHandlers handlers = RequestHandlers
-        .create(EventLocationControl.create(Application.createOsdGateway()));
+    EventLocationControl eventLocationControl = EventLocationControl
+        .create(Application.createOsdGateway());
+    Runtime.getRuntime().addShutdownHook(new Thread(eventLocationControl::close));
+
+    RequestHandlers handlers = RequestHandlers.create(eventLocationControl);
 
     return ServiceDefinition.builder()
         .setJsonMapper(CoiObjectMapperFactory.getJsonObjectMapper())
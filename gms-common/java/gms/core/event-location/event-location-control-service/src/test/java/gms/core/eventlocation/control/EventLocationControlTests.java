@@ -15,20 +15,26 @@ import gms.core.eventlocation.plugins.exceptions.TooManyRestraintsException;
 import gms.shared.mechanisms.objectstoragedistribution.coi.event.commonobjects.DepthRestraintType;
 import gms.shared.mechanisms.objectstoragedistribution.coi.event.commonobjects.Event;
 import gms.shared.mechanisms.objectstoragedistribution.coi.event.commonobjects.EventHypothesis;
+import gms.shared.mechanisms.objectstoragedistribution.coi.event.commonobjects.EventLocation;
 import gms.shared.mechanisms.objectstoragedistribution.coi.event.commonobjects.LocationRestraint;
 import gms.shared.mechanisms.objectstoragedistribution.coi.event.commonobjects.LocationSolution;
+import gms.shared.mechanisms.objectstoragedistribution.coi.event.commonobjects.PreferredLocationSolution;
 import gms.shared.mechanisms.objectstoragedistribution.coi.event.commonobjects.RestraintType;
 import gms.shared.mechanisms.objectstoragedistribution.coi.event.commonobjects.ScalingFactorType;
 import gms.shared.mechanisms.pluginregistry.PluginInfo;
 import gms.shared.mechanisms.pluginregistry.PluginRegistry;
 import java.io.IOException;
+import java.lang.reflect.Field;
+import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -108,6 +114,39 @@ class EventLocationControlTests {
     Assertions.assertEquals("Null osdGateway", exception.getMessage());
   }
 
+  @Test
+  void testCreateLocateParallelismLessThanOne() {
+
+    Throwable exception = Assertions.assertThrows(IllegalArgumentException.class, () ->
+        EventLocationControl.create(this.mockOsdGateway, 0)
+    );
+
+    Assertions.assertEquals("locateParallelism must be >= 1", exception.getMessage());
+  }
+
+  @Test
+  void testCloseShutsDownLocatePoolAndPlugin() throws Exception {
+
+    EventLocationControl eventLocationControl = EventLocationControl
+        .create(this.mockOsdGateway, 2);
+
+    EventLocatorPlugin closeablePlugin = Mockito.mock(EventLocatorPlugin.class,
+        Mockito.withSettings().extraInterfaces(AutoCloseable.class));
+
+    FieldSetter.setField(eventLocationControl,
+        eventLocationControl.getClass().getDeclaredField("eventLocatorPlugin"),
+        closeablePlugin);
+
+    Field locatePoolField = eventLocationControl.getClass().getDeclaredField("locatePool");
+    locatePoolField.setAccessible(true);
+    ExecutorService locatePool = (ExecutorService) locatePoolField.get(eventLocationControl);
+
+    eventLocationControl.close();
+
+    Assertions.assertTrue(locatePool.isShutdown());
+    verify((AutoCloseable) closeablePlugin).close();
+  }
+
   // * * * * * * *
   // test locate()
   // * * * * * * *
@@ -650,6 +689,100 @@ class EventLocationControlTests {
     Assertions.assertEquals(expectedLocationSolutionsMap, locationSolutionsMap);
   }
 
+  @Test
+  void testLocateInteractiveInParallelMatchesSequential()
+      throws NoSuchFieldException, TooManyRestraintsException {
+
+    given(this.mockOsdGateway.retrieveStation(any(UUID.class)))
+        .willReturn(Optional.of(TestFixtures.stations.get(0)));
+
+    // Mock locate returns a LocationSolution 1 degree north of the start location, with an id
+    // derived from the start LocationSolution's id
+    given(this.mockEventLocatorPlugin.locate(any(), anyList(), anyList(), any()))
+        .willAnswer(invocation -> {
+          Optional<PreferredLocationSolution> start = invocation.getArgument(0);
+          LocationSolution startSolution = start.get().getLocationSolution();
+          EventLocation startLocation = startSolution.getLocation();
+
+          return List.of(LocationSolution.from(
+              UUID.nameUUIDFromBytes(startSolution.getId().toString().getBytes()),
+              EventLocation.from(startLocation.getLatitudeDegrees() + 1.0,
+                  startLocation.getLongitudeDegrees(), startLocation.getDepthKm(),
+                  startLocation.getTime()),
+              new LocationRestraint.Builder().build(), null, Set.of(), Set.of()));
+        });
+
+    List<EventHypothesis> eventHypotheses = IntStream.range(0, 20)
+        .mapToObj(i -> {
+          LocationSolution locationSolution = LocationSolution.withLocationAndRestraintOnly(
+              EventLocation.from(-40.0 + 4.0 * i, 2.0 * i, 10.0, Instant.EPOCH),
+              new LocationRestraint.Builder().build());
+
+          return EventHypothesis.from(UUID.randomUUID(), UUID.randomUUID(), Set.of(), false,
+              Set.of(locationSolution), PreferredLocationSolution.from(locationSolution),
+              Set.of());
+        })
+        .collect(Collectors.toList());
+
+    Map<UUID, Set<LocationSolution>> sequentialLocationSolutionsMap = this
+        .createWithMockPlugin(1)
+        .locateInteractive(eventHypotheses, TestFixtures.signalDetections);
+
+    Map<UUID, Set<LocationSolution>> parallelLocationSolutionsMap = this
+        .createWithMockPlugin(4)
+        .locateInteractive(eventHypotheses, TestFixtures.signalDetections);
+
+    Assertions.assertEquals(eventHypotheses.size(), parallelLocationSolutionsMap.size());
+    Assertions.assertEquals(sequentialLocationSolutionsMap, parallelLocationSolutionsMap);
+
+    eventHypotheses.forEach(eh -> Assertions.assertEquals(
+        eh.getPreferredLocationSolution().get().getLocationSolution().getLocation()
+            .getLatitudeDegrees() + 1.0,
+        parallelLocationSolutionsMap.get(eh.getId()).iterator().next().getLocation()
+            .getLatitudeDegrees()));
+  }
+
+  @Test
+  void testLocateInteractiveInParallelThrowsTooManyRestraintsException()
+      throws NoSuchFieldException, TooManyRestraintsException {
+
+    given(this.mockOsdGateway.retrieveStation(any(UUID.class)))
+        .willReturn(Optional.of(TestFixtures.stations.get(0)));
+
+    given(this.mockEventLocatorPlugin.locate(any(), anyList(), anyList(), any()))
+        .willReturn(List.of(TestFixtures.locationSolution))
+        .willThrow(new TooManyRestraintsException(5))
+        .willReturn(List.of(TestFixtures.locationSolution));
+
+    List<EventHypothesis> eventHypotheses = List.of(
+        TestFixtures.event.getHypotheses().iterator().next(),
+        TestFixtures.event.getHypotheses().iterator().next(),
+        TestFixtures.event.getHypotheses().iterator().next());
+
+    EventLocationControl eventLocationControl = this.createWithMockPlugin(4);
+
+    Assertions.assertThrows(TooManyRestraintsException.class, () ->
+        eventLocationControl.locateInteractive(eventHypotheses, TestFixtures.signalDetections));
+  }
+
+  // Creates an EventLocationControl locating with the mock plugin and test parameters
+  private EventLocationControl createWithMockPlugin(int locateParallelism)
+      throws NoSuchFieldException {
+
+    EventLocationControl eventLocationControl = EventLocationControl
+        .create(this.mockOsdGateway, locateParallelism);
+
+    FieldSetter.setField(eventLocationControl,
+        eventLocationControl.getClass().getDeclaredField("eventLocationControlParameters"),
+        this.parameters);
+
+    FieldSetter.setField(eventLocationControl,
+        eventLocationControl.getClass().getDeclaredField("eventLocatorPlugin"),
+        this.mockEventLocatorPlugin);
+
+    return eventLocationControl;
+  }
+
   @Test
   void testLocateInteractiveOverrideParameters()
       throws UnirestException, IOException, NoSuchFieldException, TooManyRestraintsException {
@@ -1,7 +1,9 @@
 package gms.core.eventlocation.plugins.implementations.apachelm;
 
 import gms.core.eventlocation.plugins.exceptions.TooManyRestraintsException;
+import gms.core.eventlocation.plugins.pluginutils.LeastSquaresSolver;
 import gms.core.eventlocation.plugins.pluginutils.LocatorAlgorithm;
+import gms.core.eventlocation.plugins.pluginutils.PrimitiveLeastSquares;
 import gms.core.eventlocation.plugins.pluginutils.Util;
 import gms.shared.utilities.geomath.FilteredRealVector;
 import java.time.Duration;
@@ -36,6 +38,7 @@ public class ApacheLmAlgorithm implements LocatorAlgorithm<RealMatrix> {
   private boolean longitudeParameterConstrainedToSeededValue;
   private boolean depthParameterConstrainedToSeededValue;
   private boolean timeParameterConstrainedToSeededValue;
+  private final LeastSquaresSolver leastSquaresSolver;
   private static Logger logger = LogManager.getLogger(ApacheLmAlgorithm.class);
 
 
@@ -62,12 +65,25 @@ public class ApacheLmAlgorithm implements LocatorAlgorithm<RealMatrix> {
       boolean longitudeParameterConstrainedToSeededValue,
       boolean depthParameterConstrainedToSeededValue,
       boolean timeParameterConstrainedToSeededValue) {
+    this(maximumIterationCount, residualConvergenceThreshold,
+        latitudeParameterConstrainedToSeededValue, longitudeParameterConstrainedToSeededValue,
+        depthParameterConstrainedToSeededValue, timeParameterConstrainedToSeededValue,
+        LeastSquaresSolver.PRIMITIVE_ARRAY);
+  }
+
+  public ApacheLmAlgorithm(int maximumIterationCount, double residualConvergenceThreshold,
+      boolean latitudeParameterConstrainedToSeededValue,
+      boolean longitudeParameterConstrainedToSeededValue,
+      boolean depthParameterConstrainedToSeededValue,
+      boolean timeParameterConstrainedToSeededValue,
+      LeastSquaresSolver leastSquaresSolver) {
     this.maximumIterationCount = maximumIterationCount;
     this.residualConvergenceThreshold = residualConvergenceThreshold;
     this.latitudeParameterConstrainedToSeededValue = latitudeParameterConstrainedToSeededValue;
     this.longitudeParameterConstrainedToSeededValue = longitudeParameterConstrainedToSeededValue;
     this.depthParameterConstrainedToSeededValue = depthParameterConstrainedToSeededValue;
     this.timeParameterConstrainedToSeededValue = timeParameterConstrainedToSeededValue;
+    this.leastSquaresSolver = leastSquaresSolver;
   }
 
   @Override
@@ -224,10 +240,24 @@ public class ApacheLmAlgorithm implements LocatorAlgorithm<RealMatrix> {
     Instant finish = Instant.now();
     logger.info(String.format("locate() execution time: %d ms", Duration.between(start, finish).toMillis()));
     return Triple
-        .of(fixPointRestrainedValues(optimum.getPoint(), mSeed), optimum.getCovariances(0.0),
+        .of(fixPointRestrainedValues(optimum.getPoint(), mSeed), getCovariance(optimum),
             residualWeightMatrix);
   }
 
+  /**
+   * The optimizer drives the iterations with its own QR decompositions, so the selected solver
+   * only computes inverse(J^T * J) for the Jacobian J at the optimum.
+   */
+  private RealMatrix getCovariance(Optimum optimum) {
+    if (leastSquaresSolver == LeastSquaresSolver.PRIMITIVE_ARRAY) {
+      PrimitiveLeastSquares leastSquares = new PrimitiveLeastSquares();
+      leastSquares.decompose(optimum.getJacobian(), null);
+      return leastSquares.getCovariance();
+    }
+
+    return optimum.getCovariances(0.0);
+  }
+
   @Override
   public Function<RealMatrix, RealMatrix> getErrorValueNaNProcessor() {
     return valueErrorMatrix -> {
@@ -290,6 +320,7 @@ public class ApacheLmAlgorithm implements LocatorAlgorithm<RealMatrix> {
     private boolean longitudeParameterConstrainedToSeededValue;
     private boolean depthParameterConstrainedToSeededValue;
     private boolean timeParameterConstrainedToSeededValue;
+    private LeastSquaresSolver leastSquaresSolver = LeastSquaresSolver.PRIMITIVE_ARRAY;
 
 
     /**
@@ -376,6 +407,19 @@ public class ApacheLmAlgorithm implements LocatorAlgorithm<RealMatrix> {
       return this;
     }
 
+    /**
+     * Sets the solver used to compute the covariance matrix of the location found by {@link
+     * ApacheLmAlgorithm}.  Defaults to {@link LeastSquaresSolver#PRIMITIVE_ARRAY}.
+     *
+     * @return this builder
+     * @throws IllegalStateException if the Builder has already been used to create a {@link
+     * ApacheLmAlgorithm}
+     */
+    public Builder withLeastSquaresSolver(final LeastSquaresSolver leastSquaresSolver) {
+      this.leastSquaresSolver = leastSquaresSolver;
+      return this;
+    }
+
     /**
      * Builds the {@link ApacheLmAlgorithm} from the parameters defined during the build phase.
      *
@@ -394,10 +438,12 @@ public class ApacheLmAlgorithm implements LocatorAlgorithm<RealMatrix> {
 
       Validate.isTrue(1 < maximumIterationCount,
           "ApacheLmAlgorithm must execute more than one iteration");
+      Validate.notNull(leastSquaresSolver, "Null leastSquaresSolver");
 
       return new ApacheLmAlgorithm(maximumIterationCount, residualConvergenceThreshold,
           latitudeParameterConstrainedToSeededValue, longitudeParameterConstrainedToSeededValue,
-          depthParameterConstrainedToSeededValue, timeParameterConstrainedToSeededValue);
+          depthParameterConstrainedToSeededValue, timeParameterConstrainedToSeededValue,
+          leastSquaresSolver);
     }
   }
 
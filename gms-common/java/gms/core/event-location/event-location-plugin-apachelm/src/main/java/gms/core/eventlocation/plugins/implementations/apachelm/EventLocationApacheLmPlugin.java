@@ -19,11 +19,10 @@ import org.apache.commons.lang3.Validate;
 @Version("1.0.0")
 public class EventLocationApacheLmPlugin implements EventLocatorPlugin {
 
-  private EventLocatorApacheLmDelegate delegate;
-
   @Override
   public void initialize() {
-    delegate = new EventLocatorApacheLmDelegate();
+    // Nothing to initialize; each locate call creates its own delegate, so concurrent calls to
+    // locate do not share state
   }
 
   @Override
@@ -52,6 +51,7 @@ public class EventLocationApacheLmPlugin implements EventLocatorPlugin {
     Validate.isInstanceOf(EventLocationDefinitionApacheLm.class, parameters);
     EventLocationDefinitionApacheLm apacheLmParameters = (EventLocationDefinitionApacheLm) parameters;
 
+    EventLocatorApacheLmDelegate delegate = new EventLocatorApacheLmDelegate();
     delegate.initialize(start, apacheLmParameters);
 
     return delegate.locate(observations, stations, parameters);
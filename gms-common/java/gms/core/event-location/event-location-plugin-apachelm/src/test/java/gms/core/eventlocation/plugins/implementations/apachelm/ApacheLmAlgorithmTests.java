@@ -1,6 +1,7 @@
 package gms.core.eventlocation.plugins.implementations.apachelm;
 
 import gms.core.eventlocation.plugins.exceptions.TooManyRestraintsException;
+import gms.core.eventlocation.plugins.pluginutils.LeastSquaresSolver;
 import gms.shared.mechanisms.objectstoragedistribution.coi.common.PhaseType;
 import gms.shared.mechanisms.objectstoragedistribution.coi.event.commonobjects.LocationRestraint;
 import gms.shared.mechanisms.objectstoragedistribution.coi.signaldetection.commonobjects.FeatureMeasurementType;
@@ -448,6 +449,47 @@ public class ApacheLmAlgorithmTests {
     logger.info("ending test");
   }
 
+  /**
+   * Assert the primitive array solver computes the same location and covariance as Commons Math
+   */
+  @Test
+  public void testLocateLeastSquaresSolversMatch() throws TooManyRestraintsException {
+    Function<RealVector, Pair<RealMatrix, RealMatrix>> predictionFunction =
+        new SignalFeaturePredictionUtility().getFFunction(
+            "ak135",
+            phaseLocationMap,
+            List.of(PhaseType.P),
+            List.of(),
+            featurePredictions -> {
+            },
+            TestFixtures.replaceWithZeroFilter,
+            TestFixtures.replaceWithZeroFilter,
+            new LocationRestraint.Builder().build()
+        );
+
+    Triple<RealVector, RealMatrix, RealMatrix> expected = new ApacheLmAlgorithm.Builder()
+        .withMaximumIterationCount(100)
+        .withResidualConvergenceThreshold(0.001)
+        .withLeastSquaresSolver(LeastSquaresSolver.COMMONS_MATH)
+        .build()
+        .locate(mSeed, observations, predictionFunction);
+
+    Triple<RealVector, RealMatrix, RealMatrix> actual = new ApacheLmAlgorithm.Builder()
+        .withMaximumIterationCount(100)
+        .withResidualConvergenceThreshold(0.001)
+        .withLeastSquaresSolver(LeastSquaresSolver.PRIMITIVE_ARRAY)
+        .build()
+        .locate(mSeed, observations, predictionFunction);
+
+    Assertions.assertArrayEquals(expected.getLeft().toArray(), actual.getLeft().toArray());
+
+    RealMatrix expectedCovariance = expected.getMiddle();
+    for (int i = 0; i < expectedCovariance.getRowDimension(); i++) {
+      Assertions.assertArrayEquals(expectedCovariance.getRow(i), actual.getMiddle().getRow(i),
+          1.0e-6 * expectedCovariance.getNorm());
+    }
+  }
+
   @Test
   public void testBuilderThrowsTooManyRestraintsException() {
     logger.info("beginning test");
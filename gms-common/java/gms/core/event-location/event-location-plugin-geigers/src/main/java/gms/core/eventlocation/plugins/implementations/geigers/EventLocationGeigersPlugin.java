@@ -10,20 +10,92 @@ import gms.shared.mechanisms.objectstoragedistribution.coi.signaldetection.commo
 import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.ReferenceStation;
 import gms.shared.mechanisms.pluginregistry.Name;
 import gms.shared.mechanisms.pluginregistry.Version;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ForkJoinPool;
 import org.apache.commons.lang3.Validate;
 
 @Name("eventLocationGeigersPlugin")
 @Version("1.0.0")
-public class EventLocationGeigersPlugin implements EventLocatorPlugin {
+public class EventLocationGeigersPlugin implements EventLocatorPlugin, AutoCloseable {
 
-  private EventLocatorGeigersDelegate delegate;
+  private static final String PREDICTION_PARALLELISM_PROPERTY = "predictionParallelism";
+
+  private final int predictionParallelism;
+
+  // Pool the predictions of every locate call are evaluated on, or null to evaluate them
+  // sequentially.  Its worker threads are daemons that exit once idle.
+  private volatile ForkJoinPool predictionPool;
+
+  /**
+   * Creates an EventLocationGeigersPlugin evaluating predictions with the number of threads given
+   * by the "predictionParallelism" property in application.properties, or the number of available
+   * processors if it is not set.
+   */
+  public EventLocationGeigersPlugin() {
+    this(loadPredictionParallelism());
+  }
+
+  /**
+   * Creates an EventLocationGeigersPlugin evaluating predictions on up to predictionParallelism
+   * threads.  The threads are shared by concurrent calls to locate, so they bound the number of
+   * predictions evaluated at once across all of them.
+   *
+   * @param predictionParallelism maximum number of predictions evaluated concurrently, >= 1.  1
+   * evaluates predictions sequentially on the thread calling locate.
+   */
+  public EventLocationGeigersPlugin(int predictionParallelism) {
+    Validate.isTrue(predictionParallelism >= 1, "predictionParallelism must be >= 1");
+    this.predictionParallelism = predictionParallelism;
+  }
+
+  private static int loadPredictionParallelism() {
+    Properties properties = new Properties();
+    try (InputStream input = EventLocationGeigersPlugin.class
+        .getResourceAsStream("application.properties")) {
+      if (input != null) {
+        properties.load(input);
+      }
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not load EventLocationGeigersPlugin properties", e);
+    }
+
+    String value = properties.getProperty(PREDICTION_PARALLELISM_PROPERTY);
+    return value == null ? Runtime.getRuntime().availableProcessors()
+        : Integer.parseInt(value.trim());
+  }
 
   @Override
-  public void initialize() {
-    delegate = new EventLocatorGeigersDelegate();
+  public synchronized void initialize() {
+    // Each locate call creates its own delegate, so concurrent calls to locate only share the
+    // prediction pool
+    if (this.predictionPool == null && this.predictionParallelism > 1) {
+      this.predictionPool = new ForkJoinPool(this.predictionParallelism);
+    }
+  }
+
+  /**
+   * Shuts down the pool predictions are evaluated on.  Predictions are evaluated sequentially
+   * until the next call to {@link #initialize()}.
+   */
+  @Override
+  public synchronized void close() {
+    if (this.predictionPool != null) {
+      this.predictionPool.shutdown();
+      this.predictionPool = null;
+    }
+  }
+
+  int getPredictionParallelism() {
+    return this.predictionParallelism;
+  }
+
+  ForkJoinPool getPredictionPool() {
+    return this.predictionPool;
   }
 
   @Override
@@ -52,7 +124,8 @@ public class EventLocationGeigersPlugin implements EventLocatorPlugin {
     Validate.isInstanceOf(EventLocationDefinitionGeigers.class, parameters);
     EventLocationDefinitionGeigers geigerParameters = (EventLocationDefinitionGeigers) parameters;
 
-    delegate.initialize(start, geigerParameters);
+    EventLocatorGeigersDelegate delegate = new EventLocatorGeigersDelegate();
+    delegate.initialize(start, geigerParameters, this.predictionPool);
 
     return delegate.locate(observations, stations, parameters);
   }
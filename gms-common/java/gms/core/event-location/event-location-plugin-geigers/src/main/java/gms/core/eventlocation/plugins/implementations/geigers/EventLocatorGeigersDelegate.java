@@ -9,12 +9,21 @@ import gms.shared.mechanisms.objectstoragedistribution.coi.event.commonobjects.R
 import gms.shared.utilities.geomath.RowFilteredRealMatrix;
 import gms.shared.utilities.signalfeaturepredictionutility.SignalFeaturePredictionUtility;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
 
 public class EventLocatorGeigersDelegate extends
     GeneralEventLocatorDelegate<RowFilteredRealMatrix> {
 
+  /**
+   * Initializes the delegate to evaluate the predictions for the stations at each iteration on
+   * predictionPool.
+   *
+   * @param start optional starting location solution
+   * @param geigerParameters Geiger's algorithm parameters
+   * @param predictionPool pool to evaluate predictions on, or null to evaluate them sequentially
+   */
   public void initialize(Optional<PreferredLocationSolution> start,
-      EventLocationDefinitionGeigers geigerParameters) {
+      EventLocationDefinitionGeigers geigerParameters, ForkJoinPool predictionPool) {
 
     super.initialize(
         GeneralEventLocatorDelegate.getDefaultSeedGenerator(start),
@@ -31,7 +40,7 @@ public class EventLocatorGeigersDelegate extends
             .withMaximumWeightedPartialDerivative(geigerParameters.getMaximumWeightedPartialDerivative()),
         //TODO: applyTravelTimeCorrections
 
-        new SignalFeaturePredictionUtility()
+        new SignalFeaturePredictionUtility(predictionPool)
     );
   }
 
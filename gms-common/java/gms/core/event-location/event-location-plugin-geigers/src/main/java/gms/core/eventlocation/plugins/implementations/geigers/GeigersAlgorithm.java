@@ -1,7 +1,9 @@
 package gms.core.eventlocation.plugins.implementations.geigers;
 
 import gms.core.eventlocation.plugins.exceptions.TooManyRestraintsException;
+import gms.core.eventlocation.plugins.pluginutils.LeastSquaresSolver;
 import gms.core.eventlocation.plugins.pluginutils.LocatorAlgorithm;
+import gms.core.eventlocation.plugins.pluginutils.PrimitiveLeastSquares;
 import gms.core.eventlocation.plugins.pluginutils.Util;
 import gms.shared.utilities.geomath.EarthShape;
 import gms.shared.utilities.geomath.GeoMath;
@@ -42,6 +44,7 @@ public class GeigersAlgorithm implements LocatorAlgorithm<RowFilteredRealMatrix>
   private final boolean CONSTRAIN_LONGITUDE_PARAMETER;
   private final boolean CONSTRAIN_DEPTH_PARAMETER;
   private final boolean CONSTRAIN_TIME_PARAMETER;
+  private final LeastSquaresSolver LEAST_SQUARES_SOLVER;
 
   private GeigersAlgorithm(
       final int maximumIterationCount,
@@ -56,7 +59,8 @@ public class GeigersAlgorithm implements LocatorAlgorithm<RowFilteredRealMatrix>
       final boolean constrainLatitudeParameter,
       final boolean constrainLongitudeParameter,
       final boolean constrainDepthParameter,
-      final boolean constrainTimeParameter) {
+      final boolean constrainTimeParameter,
+      final LeastSquaresSolver leastSquaresSolver) {
     this.MAXIMUM_ITERATION_COUNT = maximumIterationCount;
     this.CONVERGENCE_THRESHOLD = convergenceThreshold;
     this.CONVERGENCE_COUNT = convergenceCount;
@@ -70,6 +74,7 @@ public class GeigersAlgorithm implements LocatorAlgorithm<RowFilteredRealMatrix>
     this.CONSTRAIN_LONGITUDE_PARAMETER = constrainLongitudeParameter;
     this.CONSTRAIN_DEPTH_PARAMETER = constrainDepthParameter;
     this.CONSTRAIN_TIME_PARAMETER = constrainTimeParameter;
+    this.LEAST_SQUARES_SOLVER = leastSquaresSolver;
   }
 
 
@@ -176,6 +181,8 @@ public class GeigersAlgorithm implements LocatorAlgorithm<RowFilteredRealMatrix>
     private RealMatrix weightedAMatrix;
     private double residualSumOfSquares;
     private SVD svd;
+    private PrimitiveLeastSquares leastSquares;
+    private double[] delta;
     private double deltaNorm;
     private RealVector lastComputedLocation = null;
 
@@ -199,31 +206,53 @@ public class GeigersAlgorithm implements LocatorAlgorithm<RowFilteredRealMatrix>
       weightedResiduals = filteredObservations.getColumnVector(0).subtract(predictions.getColumnVector(0));
       weightedResiduals.ebeMultiply(inverseSigma);
 
-      DiagonalMatrix inverseSigmaMatrix = new DiagonalMatrix(inverseSigma.toArray());
-      weightedAMatrix = inverseSigmaMatrix.multiply(aMatrix);
-
-      svd = new SVD(weightedAMatrix);
-
       residualSumOfSquares = weightedResiduals.dotProduct(weightedResiduals);
 
       // check that there are more than zero degrees of freedom
-      if (weightedAMatrix.getRowDimension() < weightedAMatrix.getColumnDimension()) {
+      if (aMatrix.getRowDimension() < aMatrix.getColumnDimension()) {
         throw new IllegalStateException("Number of observations is less than number of parameters estimated.");
       }
 
+      // The weighted partial derivatives are only decomposed here; update() and clones reuse the
+      // decomposition
+      if (LEAST_SQUARES_SOLVER == LeastSquaresSolver.PRIMITIVE_ARRAY) {
+        leastSquares = new PrimitiveLeastSquares();
+        leastSquares.decompose(aMatrix, inverseSigma);
+        delta = new double[aMatrix.getColumnDimension()];
+      } else {
+        DiagonalMatrix inverseSigmaMatrix = new DiagonalMatrix(inverseSigma.toArray());
+        weightedAMatrix = inverseSigmaMatrix.multiply(aMatrix);
+
+        svd = new SVD(weightedAMatrix);
+      }
+
       // check for weighted partial derivatives exceeding permitted threshold
+      if (getMaximumWeightedPartialDerivative() > MAXIMUM_WEIGHTED_PARTIAL_DERIVATIVE) {
+        throw new IllegalStateException("Weighted partial derivative matrix has values exceeding limit, " + MAXIMUM_WEIGHTED_PARTIAL_DERIVATIVE);
+      }
+    }
+
+    private double getMaximumWeightedPartialDerivative() {
+      if (leastSquares != null) {
+        return leastSquares.getMaximumWeightedEntry();
+      }
+
+      double maximum = Double.NEGATIVE_INFINITY;
       for (int i = 0; i < weightedAMatrix.getRowDimension(); ++i) {
         for (int j = 0; j < weightedAMatrix.getColumnDimension(); ++j) {
-          if (weightedAMatrix.getEntry(i, j) > MAXIMUM_WEIGHTED_PARTIAL_DERIVATIVE) {
-            throw new IllegalStateException("Weighted partial derivative matrix has values exceeding limit, " + MAXIMUM_WEIGHTED_PARTIAL_DERIVATIVE);
+          if (weightedAMatrix.getEntry(i, j) > maximum) {
+            maximum = weightedAMatrix.getEntry(i, j);
           }
         }
       }
+      return maximum;
     }
 
     private void update(final double dampening) {
       // TODO - getS() should be replaced with the modified diagonal W matrix (singularities set to zero)
-      RealVector deltaLocation = calculateCartesianDelta(svd.getU(), svd.getV(), svd.getS(), weightedResiduals, dampening);
+      RealVector deltaLocation = leastSquares != null
+          ? calculateCartesianDelta(weightedResiduals, dampening)
+          : calculateCartesianDelta(svd.getU(), svd.getV(), svd.getS(), weightedResiduals, dampening);
       //TODO these two adjustments are not exactly right.  need to look into radius param more
 
       final double NOMINAL_SEISMIC_VELOCITY = 8.0; // km/sec
@@ -251,23 +280,6 @@ public class GeigersAlgorithm implements LocatorAlgorithm<RowFilteredRealMatrix>
       weightedResiduals.ebeMultiply(inverseSigma);
 
       residualSumOfSquares = weightedResiduals.dotProduct(weightedResiduals);
-
-      // check that there are more than zero degrees of freedom
-      if (weightedAMatrix.getRowDimension() < weightedAMatrix.getColumnDimension()) {
-        throw new IllegalStateException(
-            "Number of observations is less than number of parameters estimated.");
-      }
-
-      // check for weighted partial derivatives exceeding permitted threshold
-      for (int i = 0; i < weightedAMatrix.getRowDimension(); ++i) {
-        for (int j = 0; j < weightedAMatrix.getColumnDimension(); ++j) {
-          if (weightedAMatrix.getEntry(i, j) > MAXIMUM_WEIGHTED_PARTIAL_DERIVATIVE) {
-            throw new IllegalStateException(
-                "Weighted partial derivative matrix has values exceeding limit, "
-                    + MAXIMUM_WEIGHTED_PARTIAL_DERIVATIVE);
-          }
-        }
-      }
     }
 
     private void acceptLastComputedLocation() {
@@ -371,6 +383,16 @@ public class GeigersAlgorithm implements LocatorAlgorithm<RowFilteredRealMatrix>
           CONSTRAIN_TIME_PARAMETER ? 0.0 : delta.getEntry(i)});
     }
 
+    private RealVector calculateCartesianDelta(RealVector residual, double dampening) {
+      leastSquares.solve(residual, dampening, delta);
+      int i = 0;
+      return new ArrayRealVector(new double[]{
+          CONSTRAIN_LATITUDE_PARAMETER ? 0.0 : delta[i++],
+          CONSTRAIN_LONGITUDE_PARAMETER ? 0.0 : delta[i++],
+          CONSTRAIN_DEPTH_PARAMETER ? 0.0 : delta[i++],
+          CONSTRAIN_TIME_PARAMETER ? 0.0 : delta[i]});
+    }
+
 
 //    private RealVector applyDeltaToLocation_simple(RealVector location, RealVector delta) {
 //      double distance = Math.sqrt(delta.getEntry(0) * delta.getEntry(0) + delta.getEntry(1) * delta.getEntry(1));
@@ -406,7 +428,7 @@ public class GeigersAlgorithm implements LocatorAlgorithm<RowFilteredRealMatrix>
 //    }
 
     private RealMatrix getSVDCovarianceMatrix() {
-      return svd.getCovariance();
+      return leastSquares != null ? leastSquares.getCovariance() : svd.getCovariance();
     }
 
     private RealVector getLocation() {
@@ -442,10 +464,14 @@ public class GeigersAlgorithm implements LocatorAlgorithm<RowFilteredRealMatrix>
       locationEstimate.lastRowExclusionBitSet = (BitSet) lastRowExclusionBitSet.clone();
       locationEstimate.inverseSigma = inverseSigma.copy();
       locationEstimate.weightedResiduals = weightedResiduals.copy();
-      locationEstimate.weightedAMatrix = weightedAMatrix.copy();
+      if (weightedAMatrix != null) {
+        locationEstimate.weightedAMatrix = weightedAMatrix.copy();
+      }
       if (svd != null) {
         locationEstimate.svd = (SVD) svd.clone();
       }
+      // leastSquares is not changed after it is decomposed, and delta is only a workspace for
+      // update(), so clones share them
       return locationEstimate;
     }
   }
@@ -515,6 +541,7 @@ public class GeigersAlgorithm implements LocatorAlgorithm<RowFilteredRealMatrix>
     private boolean longitudeParameterConstrainedToSeededValue;
     private boolean depthParameterConstrainedToSeededValue;
     private boolean timeParameterConstrainedToSeededValue;
+    private LeastSquaresSolver leastSquaresSolver = LeastSquaresSolver.PRIMITIVE_ARRAY;
 
     /**
      * Sets the maximum number of iterations permitted in {@link GeigersAlgorithm}
@@ -692,6 +719,20 @@ public class GeigersAlgorithm implements LocatorAlgorithm<RowFilteredRealMatrix>
       return this;
     }
 
+    /**
+     * Sets the solver used to decompose the weighted partial derivative matrix and compute location
+     * deltas and the covariance matrix in {@link GeigersAlgorithm}.  Defaults to {@link
+     * LeastSquaresSolver#PRIMITIVE_ARRAY}.
+     *
+     * @return this builder
+     * @throws IllegalStateException if the Builder has already been used to create a {@link
+     * GeigersAlgorithm}
+     */
+    public Builder withLeastSquaresSolver(final LeastSquaresSolver leastSquaresSolver) {
+      this.leastSquaresSolver = leastSquaresSolver;
+      return this;
+    }
+
     /**
      * Builds the {@link GeigersAlgorithm} from the parameters defined during the build phase.
      *
@@ -711,6 +752,7 @@ public class GeigersAlgorithm implements LocatorAlgorithm<RowFilteredRealMatrix>
 
       Validate.isTrue(1 < maximumIterationCount,
           "GeigersAlgorithm must execute more than one iteration");
+      Validate.notNull(leastSquaresSolver, "Null leastSquaresSolver");
 
       return new GeigersAlgorithm(
           maximumIterationCount,
@@ -725,7 +767,8 @@ public class GeigersAlgorithm implements LocatorAlgorithm<RowFilteredRealMatrix>
           latitudeParameterConstrainedToSeededValue,
           longitudeParameterConstrainedToSeededValue,
           depthParameterConstrainedToSeededValue,
-          timeParameterConstrainedToSeededValue);
+          timeParameterConstrainedToSeededValue,
+          leastSquaresSolver);
     }
   }
 }
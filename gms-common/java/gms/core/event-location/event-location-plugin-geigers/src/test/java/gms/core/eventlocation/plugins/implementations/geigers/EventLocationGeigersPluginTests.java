@@ -1,5 +1,48 @@
 package gms.core.eventlocation.plugins.implementations.geigers;
 
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
 public class EventLocationGeigersPluginTests {
 
+  @Test
+  public void testDefaultPredictionParallelismFromProperties() {
+    Assertions.assertEquals(4, new EventLocationGeigersPlugin().getPredictionParallelism());
+  }
+
+  @Test
+  public void testPredictionParallelismLessThanOne() {
+    Throwable exception = Assertions.assertThrows(IllegalArgumentException.class,
+        () -> new EventLocationGeigersPlugin(0));
+
+    Assertions.assertEquals("predictionParallelism must be >= 1", exception.getMessage());
+  }
+
+  @Test
+  public void testInitializeCreatesBoundedPoolAndCloseShutsItDown() {
+    EventLocationGeigersPlugin plugin = new EventLocationGeigersPlugin(3);
+    Assertions.assertNull(plugin.getPredictionPool());
+
+    plugin.initialize();
+    ForkJoinPool pool = plugin.getPredictionPool();
+    Assertions.assertNotNull(pool);
+    Assertions.assertEquals(3, pool.getParallelism());
+
+    // Initializing again keeps the same pool
+    plugin.initialize();
+    Assertions.assertSame(pool, plugin.getPredictionPool());
+
+    plugin.close();
+    Assertions.assertTrue(pool.isShutdown());
+    Assertions.assertNull(plugin.getPredictionPool());
+  }
+
+  @Test
+  public void testPredictionParallelismOneEvaluatesSequentially() {
+    EventLocationGeigersPlugin plugin = new EventLocationGeigersPlugin(1);
+    plugin.initialize();
+
+    Assertions.assertNull(plugin.getPredictionPool());
+  }
 }
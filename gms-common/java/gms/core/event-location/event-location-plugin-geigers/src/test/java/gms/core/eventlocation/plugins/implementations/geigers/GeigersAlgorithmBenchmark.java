@@ -0,0 +1,206 @@
+package gms.core.eventlocation.plugins.implementations.geigers;
+
+import gms.core.eventlocation.plugins.exceptions.TooManyRestraintsException;
+import gms.core.eventlocation.plugins.pluginutils.LeastSquaresSolver;
+import gms.shared.mechanisms.objectstoragedistribution.coi.common.PhaseType;
+import gms.shared.mechanisms.objectstoragedistribution.coi.event.commonobjects.EventLocation;
+import gms.shared.mechanisms.objectstoragedistribution.coi.event.commonobjects.FeaturePrediction;
+import gms.shared.mechanisms.objectstoragedistribution.coi.event.commonobjects.LocationRestraint;
+import gms.shared.mechanisms.objectstoragedistribution.coi.signaldetection.commonobjects.FeatureMeasurementType;
+import gms.shared.mechanisms.objectstoragedistribution.coi.signaldetection.commonobjects.FeatureMeasurementTypes;
+import gms.shared.mechanisms.objectstoragedistribution.coi.signaldetection.commonobjects.InstantValue;
+import gms.shared.mechanisms.objectstoragedistribution.coi.signaldetection.commonobjects.Location;
+import gms.shared.utilities.geomath.RowFilteredRealMatrix;
+import gms.shared.utilities.signalfeaturepredictionutility.SignalFeaturePredictionUtility;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.apache.commons.lang3.tuple.Triple;
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.RealMatrix;
+import org.apache.commons.math3.linear.RealVector;
+import org.apache.commons.math3.util.Pair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH throughput benchmark of {@link GeigersAlgorithm} locating a batch of synthetic events from P
+ * arrivals predicted with ak135 at a network of synthetic stations.  Compares evaluating the
+ * predictions for the stations sequentially, evaluating them in parallel at each iteration, and
+ * additionally locating the events of the batch concurrently, with each {@link
+ * LeastSquaresSolver}.  Run with: java -cp (test runtime classpath) org.openjdk.jmh.Main
+ * GeigersAlgorithmBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class GeigersAlgorithmBenchmark {
+
+  private static final int STATION_COUNT = 40;
+  private static final double ARRIVAL_TIME_UNCERTAINTY = 1.0;
+
+  // Only stations between about 25 and 85 degrees are used, where P and its derivatives stay
+  // defined while locating
+  private static final double MINIMUM_TRAVEL_TIME = 320.0;
+  private static final double MAXIMUM_TRAVEL_TIME = 750.0;
+  private static final double EVENT_TIME = 1546300800.0;  // 01-JAN-2019 00:00:00 GMT
+
+  // latitude, longitude, depth of the synthetic events
+  private static final double[][] EVENTS = {
+      {10.0, 110.0, 70.0}, {-20.0, -70.0, 100.0}, {35.0, 140.0, 30.0}, {40.0, 20.0, 10.0},
+      {-5.0, 150.0, 200.0}, {55.0, -160.0, 20.0}, {0.0, 0.0, 10.0}, {-40.0, 175.0, 50.0}
+  };
+
+  @Param({"PRIMITIVE_ARRAY", "COMMONS_MATH"})
+  private LeastSquaresSolver leastSquaresSolver;
+
+  private List<Map<PhaseType, List<Pair<Location, FeatureMeasurementType<?>>>>> phaseLocationMaps;
+  private List<RealMatrix> observations;
+  private List<RealVector> seeds;
+
+  private SignalFeaturePredictionUtility sequentialUtility;
+  private SignalFeaturePredictionUtility parallelUtility;
+  private ExecutorService eventPool;
+
+  @Setup
+  public void setup() throws Exception {
+    final List<Location> receiverLocations = new ArrayList<>();
+    final List<FeatureMeasurementType<?>> types = new ArrayList<>();
+    for (int i = 0; i < STATION_COUNT; i++) {
+      receiverLocations.add(Location
+          .from(-70.0 + 140.0 * (i % 8) / 7.0, -180.0 + 9.0 * i, 0.0, 0.1 * (i % 5)));
+      types.add(FeatureMeasurementTypes.ARRIVAL_TIME);
+    }
+
+    sequentialUtility = new SignalFeaturePredictionUtility();
+    parallelUtility = new SignalFeaturePredictionUtility(ForkJoinPool.commonPool());
+    eventPool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+
+    // Synthetic arrivals are the predicted P arrival times at the true event locations
+    phaseLocationMaps = new ArrayList<>();
+    observations = new ArrayList<>();
+    seeds = new ArrayList<>();
+    for (double[] event : EVENTS) {
+      final List<FeaturePrediction<?>> predictions = sequentialUtility.predict(types,
+          EventLocation.from(event[0], event[1], event[2],
+              Instant.ofEpochSecond((long) EVENT_TIME)),
+          receiverLocations, PhaseType.P, "ak135", List.of());
+
+      final List<Pair<Location, FeatureMeasurementType<?>>> pairs = new ArrayList<>();
+      final List<double[]> rows = new ArrayList<>();
+      for (int i = 0; i < STATION_COUNT; i++) {
+        final double arrivalTime = predictions.get(i).getPredictedValue()
+            .map(value -> ((InstantValue) value).getValue())
+            .map(instant -> instant.getEpochSecond() + instant.getNano() * 1.0e-9)
+            .orElse(Double.NaN);
+
+        final double travelTime = arrivalTime - EVENT_TIME;
+        if (travelTime > MINIMUM_TRAVEL_TIME && travelTime < MAXIMUM_TRAVEL_TIME) {
+          pairs.add(Pair.create(receiverLocations.get(i), FeatureMeasurementTypes.ARRIVAL_TIME));
+          rows.add(new double[]{arrivalTime, ARRIVAL_TIME_UNCERTAINTY});
+        }
+      }
+      phaseLocationMaps.add(Map.of(PhaseType.P, pairs));
+      observations.add(new Array2DRowRealMatrix(rows.toArray(new double[0][])));
+      seeds.add(new ArrayRealVector(
+          new double[]{event[0] - 1.0, event[1] - 1.0, event[2], EVENT_TIME}));
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    eventPool.shutdown();
+  }
+
+  /**
+   * Baseline: evaluates the predictions for the stations sequentially
+   */
+  @Benchmark
+  public List<RealVector> locateSequential() throws Exception {
+    final List<RealVector> locations = new ArrayList<>();
+    for (int i = 0; i < EVENTS.length; i++) {
+      locations.add(locate(sequentialUtility, i));
+    }
+    return locations;
+  }
+
+  @Benchmark
+  public List<RealVector> locateStationsInParallel() throws Exception {
+    final List<RealVector> locations = new ArrayList<>();
+    for (int i = 0; i < EVENTS.length; i++) {
+      locations.add(locate(parallelUtility, i));
+    }
+    return locations;
+  }
+
+  @Benchmark
+  public List<RealVector> locateEventsAndStationsInParallel() throws Exception {
+    final List<Future<RealVector>> futures = new ArrayList<>();
+    for (int i = 0; i < EVENTS.length; i++) {
+      final int event = i;
+      futures.add(eventPool.submit(() -> locate(parallelUtility, event)));
+    }
+
+    final List<RealVector> locations = new ArrayList<>();
+    for (Future<RealVector> future : futures) {
+      locations.add(future.get());
+    }
+    return locations;
+  }
+
+  private RealVector locate(SignalFeaturePredictionUtility utility, int event)
+      throws TooManyRestraintsException {
+
+    final Function<RealVector, Pair<RowFilteredRealMatrix, RowFilteredRealMatrix>> predictionFunction =
+        utility.getFFunction(
+            "ak135",
+            phaseLocationMaps.get(event),
+            List.of(PhaseType.P),
+            List.of(),
+            featurePredictions -> {
+            },
+            valueErrorMatrix -> RowFilteredRealMatrix
+                .filterRowsByValue(valueErrorMatrix, Double::isNaN, false),
+            jacobianMatrix -> RowFilteredRealMatrix
+                .filterRowsByValue(jacobianMatrix, Double::isNaN, false),
+            new LocationRestraint.Builder().build()
+        );
+
+    final Triple<RealVector, RealMatrix, RealMatrix> result = new GeigersAlgorithm.Builder()
+        .withMaximumIterationCount(100)
+        .withConvergenceThreshold(0.01)
+        .withConvergenceCount(2)
+        .withLevenbergMarquardtEnabled(true)
+        .withLambda0(0.001)
+        .withLambdaX(10.0)
+        .withDeltaNormThreshold(0.01)
+        .withSingularValueWFactor(1.0e-6)
+        .withMaximumWeightedPartialDerivative(1.0e12)
+        .withLeastSquaresSolver(leastSquaresSolver)
+        .build()
+        .locate(seeds.get(event), observations.get(event), predictionFunction);
+
+    return result.getLeft();
+  }
+}
@@ -1,6 +1,7 @@
 package gms.core.eventlocation.plugins.implementations.geigers;
 
 import gms.core.eventlocation.plugins.exceptions.TooManyRestraintsException;
+import gms.core.eventlocation.plugins.pluginutils.LeastSquaresSolver;
 import gms.shared.mechanisms.objectstoragedistribution.coi.common.PhaseType;
 import gms.shared.mechanisms.objectstoragedistribution.coi.event.commonobjects.LocationRestraint;
 import gms.shared.mechanisms.objectstoragedistribution.coi.signaldetection.commonobjects.FeatureMeasurementType;
@@ -831,6 +832,75 @@ public class GeigersAlgorithmTests {
     );
   }
 
+  /**
+   * Assert locating with the primitive array solver finds the same location and covariance as
+   * locating with Commons Math, with and without a constrained parameter
+   */
+  @Test
+  public void testLocateLeastSquaresSolversMatch() throws Exception {
+    for (boolean constrainDepth : new boolean[]{false, true}) {
+      final Function<RealVector, Pair<RowFilteredRealMatrix, RowFilteredRealMatrix>> function =
+          new SignalFeaturePredictionUtility().getFFunction(
+              "ak135",
+              phaseLocationMap,
+              List.of(PhaseType.P),
+              List.of(),
+              featurePredictions -> {
+              },
+              valueErrorMatrix -> RowFilteredRealMatrix
+                  .filterRowsByValue(valueErrorMatrix, Double::isNaN, false),
+              jacobianMatrix -> RowFilteredRealMatrix
+                  .filterRowsByValue(jacobianMatrix, Double::isNaN, false),
+              constrainDepth
+                  ? new LocationRestraint.Builder().setDepthRestraint(mSeed.getEntry(2)).build()
+                  : new LocationRestraint.Builder().build()
+          );
+
+      final Triple<RealVector, RealMatrix, RealMatrix> expected = locateWithSolver(
+          LeastSquaresSolver.COMMONS_MATH, constrainDepth, function);
+      final Triple<RealVector, RealMatrix, RealMatrix> actual = locateWithSolver(
+          LeastSquaresSolver.PRIMITIVE_ARRAY, constrainDepth, function);
+
+      Assertions.assertArrayEquals(expected.getLeft().toArray(), actual.getLeft().toArray(),
+          1.0e-6);
+
+      final RealMatrix expectedCovariance = expected.getMiddle();
+      final RealMatrix actualCovariance = actual.getMiddle();
+      Assertions.assertEquals(expectedCovariance.getRowDimension(),
+          actualCovariance.getRowDimension());
+      for (int i = 0; i < expectedCovariance.getRowDimension(); i++) {
+        Assertions.assertArrayEquals(expectedCovariance.getRow(i), actualCovariance.getRow(i),
+            1.0e-6 * expectedCovariance.getNorm());
+      }
+
+      for (int j = 0; j < 2; j++) {
+        Assertions.assertArrayEquals(expected.getRight().getColumn(j),
+            actual.getRight().getColumn(j), 1.0e-6);
+      }
+    }
+  }
+
+  private Triple<RealVector, RealMatrix, RealMatrix> locateWithSolver(
+      LeastSquaresSolver leastSquaresSolver, boolean constrainDepth,
+      Function<RealVector, Pair<RowFilteredRealMatrix, RowFilteredRealMatrix>> function)
+      throws TooManyRestraintsException {
+
+    return new GeigersAlgorithm.Builder()
+        .withMaximumIterationCount(100)
+        .withConvergenceThreshold(0.001)
+        .withConvergenceCount(2)
+        .withLevenbergMarquardtEnabled(true)
+        .withLambda0(0.001)
+        .withLambdaX(10.0)
+        .withDeltaNormThreshold(0.01)
+        .withSingularValueWFactor(1.0e-6)
+        .withMaximumWeightedPartialDerivative(1.0e12)
+        .withDepthParameterConstrainedToSeededValue(constrainDepth)
+        .withLeastSquaresSolver(leastSquaresSolver)
+        .build()
+        .locate(mSeed, observations, function);
+  }
+
   @Test
   public void testBuilderThrowsTooManyRestraintsException() {
     Assertions.assertThrows(TooManyRestraintsException.class, () ->
@@ -0,0 +1,19 @@
+package gms.core.eventlocation.plugins.pluginutils;
+
+/**
+ * Selects how a {@link LocatorAlgorithm} decomposes its weighted partial derivative matrix and
+ * solves for location deltas and covariances.
+ */
+public enum LeastSquaresSolver {
+
+  /**
+   * Commons Math {@link org.apache.commons.math3.linear.RealMatrix} operations and {@link
+   * org.apache.commons.math3.linear.SingularValueDecomposition}
+   */
+  COMMONS_MATH,
+
+  /**
+   * {@link PrimitiveLeastSquares}, which works on primitive arrays and reuses its workspaces
+   */
+  PRIMITIVE_ARRAY
+}
@@ -0,0 +1,339 @@
+package gms.core.eventlocation.plugins.pluginutils;
+
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.RealMatrix;
+import org.apache.commons.math3.linear.RealVector;
+import org.apache.commons.math3.linear.SingularMatrixException;
+
+/**
+ * Damped linear least squares solver for the small, tall partial derivative matrices of event
+ * location, working on primitive arrays.
+ *
+ * {@link #decompose(RealMatrix, RealVector)} weights the rows of the design matrix A, scales its
+ * columns to unit length and computes the singular value decomposition of the scaled matrix with
+ * one-sided Jacobi rotations.  {@link #solve(RealVector, double, double[])} then solves (A^T * A +
+ * lambda * I) * delta = A^T * r, the same delta as V * inverse(S^2 + lambda * I) * S * U^T * r
+ * from the decomposition of A, and {@link #getCovariance()} returns inverse(A^T * A).  Scaling the
+ * columns keeps the decomposition accurate when the parameters have very different units (e.g.
+ * kilometers and seconds).
+ *
+ * The workspaces are kept between decompositions and only grow, so a solver reused across the
+ * iterations of a location does not allocate.  Instances are not thread safe.
+ */
+public class PrimitiveLeastSquares {
+
+  private static final int MAXIMUM_SWEEPS = 60;
+
+  /**
+   * Columns are treated as orthogonal when the cosine of their angle is below this
+   */
+  private static final double ORTHOGONALITY_TOLERANCE = 1.0e-15;
+
+  private int rowDimension;
+  private int columnDimension;
+  private boolean decomposed;
+  private double maximumWeightedEntry;
+
+  // Column major; holds the scaled, weighted design matrix and then U * S
+  private double[] columns = new double[0];
+  private double[] columnScales = new double[0];
+  private double[] singularValues = new double[0];
+
+  // Column major, columnDimension x columnDimension
+  private double[] v = new double[0];
+
+  // Workspaces for solve()
+  private double[] projections = new double[0];
+  private double[] normal = new double[0];
+  private double[] rhs = new double[0];
+
+  /**
+   * Weights the rows of designMatrix, scales its columns and decomposes it, replacing any previous
+   * decomposition.
+   *
+   * @param designMatrix partial derivative matrix, at least as many rows as columns, not null
+   * @param rowWeights weight of each row of designMatrix (e.g. inverse sigma), or null for unit
+   * weights
+   * @throws IllegalArgumentException if designMatrix has fewer rows than columns or rowWeights does
+   * not have an entry for each row
+   */
+  public void decompose(RealMatrix designMatrix, RealVector rowWeights) {
+    Validate.notNull(designMatrix, "Null designMatrix");
+
+    final int n = designMatrix.getRowDimension();
+    final int p = designMatrix.getColumnDimension();
+    Validate.isTrue(n >= p, "designMatrix must have at least as many rows as columns");
+    Validate.isTrue(rowWeights == null || rowWeights.getDimension() == n,
+        "rowWeights must have an entry for each row of designMatrix");
+
+    ensureCapacity(n, p);
+    rowDimension = n;
+    columnDimension = p;
+
+    maximumWeightedEntry = Double.NEGATIVE_INFINITY;
+    for (int j = 0; j < p; j++) {
+      final int offset = j * n;
+      double sumOfSquares = 0.0;
+      for (int i = 0; i < n; i++) {
+        final double entry = designMatrix.getEntry(i, j)
+            * (rowWeights == null ? 1.0 : rowWeights.getEntry(i));
+        columns[offset + i] = entry;
+        if (entry > maximumWeightedEntry) {
+          maximumWeightedEntry = entry;
+        }
+        sumOfSquares += entry * entry;
+      }
+
+      columnScales[j] = sumOfSquares > 0.0 ? Math.sqrt(sumOfSquares) : 1.0;
+      for (int i = 0; i < n; i++) {
+        columns[offset + i] /= columnScales[j];
+      }
+    }
+
+    for (int j = 0; j < p * p; j++) {
+      v[j] = j % (p + 1) == 0 ? 1.0 : 0.0;
+    }
+
+    rotateColumns(n, p);
+
+    for (int k = 0; k < p; k++) {
+      singularValues[k] = Math.sqrt(dot(k, k, n));
+    }
+
+    decomposed = true;
+  }
+
+  /**
+   * Solves (A^T * A + damping * I) * delta = A^T * residuals for the last decomposed, weighted
+   * design matrix A.
+   *
+   * @param residuals weighted residuals, one for each row of A, not null
+   * @param damping Levenberg-Marquardt damping, >= 0
+   * @param delta receives the solution; must have at least as many entries as A has columns
+   * @throws SingularMatrixException if damping is 0 and A is rank deficient
+   */
+  public void solve(RealVector residuals, double damping, double[] delta) {
+    Validate.validState(decomposed, "solve() called before decompose()");
+    Validate.notNull(residuals, "Null residuals");
+    Validate.isTrue(residuals.getDimension() == rowDimension,
+        "residuals must have an entry for each row of the design matrix");
+    Validate.isTrue(damping >= 0.0, "damping must be >= 0");
+    Validate.isTrue(delta.length >= columnDimension,
+        "delta must have an entry for each column of the design matrix");
+
+    final int n = rowDimension;
+    final int p = columnDimension;
+
+    // (U * S)^T * r
+    for (int k = 0; k < p; k++) {
+      final int offset = k * n;
+      double sum = 0.0;
+      for (int i = 0; i < n; i++) {
+        sum += columns[offset + i] * residuals.getEntry(i);
+      }
+      projections[k] = sum;
+    }
+
+    if (damping == 0.0) {
+      for (int k = 0; k < p; k++) {
+        if (singularValues[k] == 0.0) {
+          throw new SingularMatrixException();
+        }
+        projections[k] /= singularValues[k] * singularValues[k];
+      }
+
+      for (int j = 0; j < p; j++) {
+        double sum = 0.0;
+        for (int k = 0; k < p; k++) {
+          sum += v[k * p + j] * projections[k];
+        }
+        delta[j] = sum / columnScales[j];
+      }
+      return;
+    }
+
+    // With delta = inverse(D) * y for the column scales D, the damped normal equations become
+    // (V * S^2 * V^T + damping * inverse(D^2)) * y = V * S * U^T * r
+    for (int a = 0; a < p; a++) {
+      double sum = 0.0;
+      for (int k = 0; k < p; k++) {
+        sum += v[k * p + a] * projections[k];
+      }
+      rhs[a] = sum;
+
+      for (int b = 0; b <= a; b++) {
+        double entry = 0.0;
+        for (int k = 0; k < p; k++) {
+          entry += v[k * p + a] * v[k * p + b] * singularValues[k] * singularValues[k];
+        }
+        if (a == b) {
+          entry += damping / (columnScales[a] * columnScales[a]);
+        }
+        normal[a * p + b] = entry;
+      }
+    }
+
+    solveCholesky(p);
+
+    for (int j = 0; j < p; j++) {
+      delta[j] = rhs[j] / columnScales[j];
+    }
+  }
+
+  /**
+   * Gets inverse(A^T * A) for the last decomposed, weighted design matrix A
+   *
+   * @return a new covariance matrix, not null
+   * @throws SingularMatrixException if A is rank deficient
+   */
+  public RealMatrix getCovariance() {
+    Validate.validState(decomposed, "getCovariance() called before decompose()");
+
+    final int p = columnDimension;
+    for (int k = 0; k < p; k++) {
+      if (!(singularValues[k] > 0.0)) {
+        throw new SingularMatrixException();
+      }
+    }
+
+    final double[][] covariance = new double[p][p];
+    for (int a = 0; a < p; a++) {
+      for (int b = 0; b < p; b++) {
+        double sum = 0.0;
+        for (int k = 0; k < p; k++) {
+          sum += v[k * p + a] * v[k * p + b] / (singularValues[k] * singularValues[k]);
+        }
+        covariance[a][b] = sum / (columnScales[a] * columnScales[b]);
+      }
+    }
+
+    return new Array2DRowRealMatrix(covariance, false);
+  }
+
+  public int getRowDimension() {
+    return rowDimension;
+  }
+
+  public int getColumnDimension() {
+    return columnDimension;
+  }
+
+  /**
+   * Gets the largest entry of the last decomposed design matrix after weighting its rows, before
+   * scaling its columns
+   */
+  public double getMaximumWeightedEntry() {
+    return maximumWeightedEntry;
+  }
+
+  /**
+   * Orthogonalizes the columns with Jacobi rotations, accumulating the rotations in V, so the
+   * columns become U * S
+   */
+  private void rotateColumns(int n, int p) {
+    for (int sweep = 0; sweep < MAXIMUM_SWEEPS; sweep++) {
+      boolean rotated = false;
+
+      for (int j = 0; j < p - 1; j++) {
+        for (int k = j + 1; k < p; k++) {
+          final double alpha = dot(j, j, n);
+          final double beta = dot(k, k, n);
+          final double gamma = dot(j, k, n);
+
+          if (Math.abs(gamma) <= ORTHOGONALITY_TOLERANCE * Math.sqrt(alpha * beta)) {
+            continue;
+          }
+          rotated = true;
+
+          final double zeta = (beta - alpha) / (2.0 * gamma);
+          final double t = (zeta >= 0.0 ? 1.0 : -1.0)
+              / (Math.abs(zeta) + Math.sqrt(1.0 + zeta * zeta));
+          final double c = 1.0 / Math.sqrt(1.0 + t * t);
+          final double s = c * t;
+
+          rotate(columns, j * n, k * n, n, c, s);
+          rotate(v, j * p, k * p, p, c, s);
+        }
+      }
+
+      if (!rotated) {
+        return;
+      }
+    }
+  }
+
+  private static void rotate(double[] matrix, int first, int second, int length, double c,
+      double s) {
+    for (int i = 0; i < length; i++) {
+      final double x = matrix[first + i];
+      final double y = matrix[second + i];
+      matrix[first + i] = c * x - s * y;
+      matrix[second + i] = s * x + c * y;
+    }
+  }
+
+  private double dot(int j, int k, int n) {
+    final int first = j * n;
+    final int second = k * n;
+    double sum = 0.0;
+    for (int i = 0; i < n; i++) {
+      sum += columns[first + i] * columns[second + i];
+    }
+    return sum;
+  }
+
+  /**
+   * Solves normal * y = rhs in place, using the lower triangle of normal, leaving y in rhs
+   */
+  private void solveCholesky(int p) {
+    for (int j = 0; j < p; j++) {
+      double diagonal = normal[j * p + j];
+      for (int k = 0; k < j; k++) {
+        diagonal -= normal[j * p + k] * normal[j * p + k];
+      }
+      if (!(diagonal > 0.0)) {
+        throw new SingularMatrixException();
+      }
+      normal[j * p + j] = Math.sqrt(diagonal);
+
+      for (int i = j + 1; i < p; i++) {
+        double entry = normal[i * p + j];
+        for (int k = 0; k < j; k++) {
+          entry -= normal[i * p + k] * normal[j * p + k];
+        }
+        normal[i * p + j] = entry / normal[j * p + j];
+      }
+    }
+
+    for (int i = 0; i < p; i++) {
+      double sum = rhs[i];
+      for (int k = 0; k < i; k++) {
+        sum -= normal[i * p + k] * rhs[k];
+      }
+      rhs[i] = sum / normal[i * p + i];
+    }
+
+    for (int i = p - 1; i >= 0; i--) {
+      double sum = rhs[i];
+      for (int k = i + 1; k < p; k++) {
+        sum -= normal[k * p + i] * rhs[k];
+      }
+      rhs[i] = sum / normal[i * p + i];
+    }
+  }
+
+  private void ensureCapacity(int n, int p) {
+    if (columns.length < n * p) {
+      columns = new double[n * p];
+    }
+    if (columnScales.length < p) {
+      columnScales = new double[p];
+      singularValues = new double[p];
+      projections = new double[p];
+      rhs = new double[p];
+      v = new double[p * p];
+      normal = new double[p * p];
+    }
+  }
+}
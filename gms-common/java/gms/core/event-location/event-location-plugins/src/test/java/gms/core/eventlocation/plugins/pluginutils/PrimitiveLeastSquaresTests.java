@@ -0,0 +1,205 @@
+package gms.core.eventlocation.plugins.pluginutils;
+
+import java.util.Random;
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.DiagonalMatrix;
+import org.apache.commons.math3.linear.MatrixUtils;
+import org.apache.commons.math3.linear.RealMatrix;
+import org.apache.commons.math3.linear.RealVector;
+import org.apache.commons.math3.linear.SingularMatrixException;
+import org.apache.commons.math3.linear.SingularValueDecomposition;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class PrimitiveLeastSquaresTests {
+
+  private static final double TOLERANCE = 1.0e-9;
+
+  /**
+   * Column magnitudes like those of the partial derivatives of travel time with respect to
+   * latitude, longitude and depth (km) and origin time (s)
+   */
+  private static final double[] LOCATION_COLUMN_SCALES = {0.1, 0.1, 0.01, 1.0};
+
+  @Test
+  public void testSolveMatchesCommonsMathSvd() {
+    final Random random = new Random(22);
+    final PrimitiveLeastSquares leastSquares = new PrimitiveLeastSquares();
+    final double[] delta = new double[4];
+
+    for (int trial = 0; trial < 50; trial++) {
+      final int rows = 4 + random.nextInt(40);
+      final int columns = 1 + random.nextInt(4);
+      final RealMatrix aMatrix = randomMatrix(random, rows, columns);
+      final RealVector weights = randomVector(random, rows, 0.5, 2.0);
+      final RealVector residuals = randomVector(random, rows, -3.0, 3.0);
+
+      final SingularValueDecomposition svd = new SingularValueDecomposition(
+          new DiagonalMatrix(weights.toArray()).multiply(aMatrix));
+
+      leastSquares.decompose(aMatrix, weights);
+      for (double damping : new double[]{0.0, 1.0e-3, 1.0, 100.0}) {
+        final RealVector expected = commonsMathDelta(svd, residuals, damping);
+
+        leastSquares.solve(residuals, damping, delta);
+        for (int j = 0; j < columns; j++) {
+          Assertions.assertEquals(expected.getEntry(j), delta[j],
+              TOLERANCE * Math.max(1.0, expected.getNorm()));
+        }
+      }
+
+      assertMatricesEqual(svd.getCovariance(-1.0), leastSquares.getCovariance());
+    }
+  }
+
+  /**
+   * Assert the column scaling keeps the undamped solution accurate when the columns differ by
+   * several orders of magnitude
+   */
+  @Test
+  public void testSolveBadlyScaledColumns() {
+    final Random random = new Random(4);
+    final RealMatrix aMatrix = randomMatrix(random, 30, 4);
+    for (int j = 0; j < 4; j++) {
+      aMatrix.setColumnVector(j, aMatrix.getColumnVector(j).mapMultiply(Math.pow(1.0e3, j)));
+    }
+    final RealVector expected = new ArrayRealVector(new double[]{1.0e3, -2.0, 0.5e-3, 4.0e-6});
+    final RealVector residuals = aMatrix.operate(expected);
+
+    final PrimitiveLeastSquares leastSquares = new PrimitiveLeastSquares();
+    leastSquares.decompose(aMatrix, null);
+    final double[] delta = new double[4];
+    leastSquares.solve(residuals, 0.0, delta);
+
+    for (int j = 0; j < 4; j++) {
+      Assertions.assertEquals(expected.getEntry(j), delta[j],
+          1.0e-8 * Math.abs(expected.getEntry(j)));
+    }
+  }
+
+  @Test
+  public void testReusedWorkspacesMatchNewSolver() {
+    final Random random = new Random(7);
+    final PrimitiveLeastSquares reused = new PrimitiveLeastSquares();
+    final double[] reusedDelta = new double[4];
+    final double[] delta = new double[4];
+
+    // Shrink and grow the problem between decompositions
+    for (int[] dimensions : new int[][]{{40, 4}, {6, 2}, {25, 3}, {4, 4}, {60, 4}}) {
+      final RealMatrix aMatrix = randomMatrix(random, dimensions[0], dimensions[1]);
+      final RealVector weights = randomVector(random, dimensions[0], 0.5, 2.0);
+      final RealVector residuals = randomVector(random, dimensions[0], -1.0, 1.0);
+
+      final PrimitiveLeastSquares leastSquares = new PrimitiveLeastSquares();
+      leastSquares.decompose(aMatrix, weights);
+      leastSquares.solve(residuals, 0.01, delta);
+
+      reused.decompose(aMatrix, weights);
+      reused.solve(residuals, 0.01, reusedDelta);
+
+      Assertions.assertEquals(dimensions[0], reused.getRowDimension());
+      Assertions.assertEquals(dimensions[1], reused.getColumnDimension());
+      Assertions.assertArrayEquals(delta, reusedDelta);
+      assertMatricesEqual(leastSquares.getCovariance(), reused.getCovariance());
+    }
+  }
+
+  @Test
+  public void testMaximumWeightedEntry() {
+    final RealMatrix aMatrix = new Array2DRowRealMatrix(new double[][]{
+        {1.0, -8.0}, {2.0, 3.0}, {-4.0, 0.5}});
+
+    final PrimitiveLeastSquares leastSquares = new PrimitiveLeastSquares();
+    leastSquares.decompose(aMatrix, new ArrayRealVector(new double[]{1.0, 2.0, 3.0}));
+
+    Assertions.assertEquals(6.0, leastSquares.getMaximumWeightedEntry());
+  }
+
+  @Test
+  public void testSolveUndampedRankDeficientThrows() {
+    final RealMatrix aMatrix = new Array2DRowRealMatrix(new double[][]{
+        {1.0, 0.0}, {2.0, 0.0}, {3.0, 0.0}});
+    final RealVector residuals = new ArrayRealVector(new double[]{1.0, 1.0, 1.0});
+
+    final PrimitiveLeastSquares leastSquares = new PrimitiveLeastSquares();
+    leastSquares.decompose(aMatrix, null);
+
+    Assertions.assertThrows(SingularMatrixException.class,
+        () -> leastSquares.solve(residuals, 0.0, new double[2]));
+
+    // Damping regularizes the solution
+    final double[] delta = new double[2];
+    leastSquares.solve(residuals, 1.0, delta);
+    Assertions.assertEquals(6.0 / 15.0, delta[0], TOLERANCE);
+    Assertions.assertEquals(0.0, delta[1]);
+  }
+
+  @Test
+  public void testCovarianceRankDeficientThrows() {
+    final RealMatrix aMatrix = new Array2DRowRealMatrix(new double[][]{
+        {1.0, 0.0}, {2.0, 0.0}, {3.0, 0.0}});
+
+    final PrimitiveLeastSquares leastSquares = new PrimitiveLeastSquares();
+    leastSquares.decompose(aMatrix, null);
+
+    Assertions.assertThrows(SingularMatrixException.class, leastSquares::getCovariance);
+  }
+
+  @Test
+  public void testDecomposeFewerRowsThanColumnsThrows() {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new PrimitiveLeastSquares()
+        .decompose(new Array2DRowRealMatrix(3, 4), null));
+  }
+
+  @Test
+  public void testSolveBeforeDecomposeThrows() {
+    Assertions.assertThrows(IllegalStateException.class, () -> new PrimitiveLeastSquares()
+        .solve(new ArrayRealVector(4), 0.0, new double[4]));
+  }
+
+  /**
+   * The delta GeigersAlgorithm computes from a Commons Math decomposition of the weighted partial
+   * derivative matrix: V * inverse(S^2 + lambda * I) * S * U^T * r
+   */
+  private static RealVector commonsMathDelta(SingularValueDecomposition svd, RealVector residuals,
+      double damping) {
+
+    final RealMatrix s = svd.getS();
+    final RealMatrix lambdaW = s.power(2).add(MatrixUtils
+        .createRealIdentityMatrix(s.getColumnDimension()).scalarMultiply(damping));
+
+    return svd.getV().multiply(MatrixUtils.inverse(lambdaW)).multiply(s)
+        .multiply(svd.getU().transpose()).operate(residuals);
+  }
+
+  private static RealMatrix randomMatrix(Random random, int rows, int columns) {
+    final RealMatrix matrix = new Array2DRowRealMatrix(rows, columns);
+    for (int i = 0; i < rows; i++) {
+      for (int j = 0; j < columns; j++) {
+        matrix.setEntry(i, j,
+            (2.0 * random.nextDouble() - 1.0) * LOCATION_COLUMN_SCALES[j % 4]);
+      }
+    }
+    return matrix;
+  }
+
+  private static RealVector randomVector(Random random, int dimension, double minimum,
+      double maximum) {
+    final RealVector vector = new ArrayRealVector(dimension);
+    for (int i = 0; i < dimension; i++) {
+      vector.setEntry(i, minimum + (maximum - minimum) * random.nextDouble());
+    }
+    return vector;
+  }
+
+  private static void assertMatricesEqual(RealMatrix expected, RealMatrix actual) {
+    Assertions.assertEquals(expected.getRowDimension(), actual.getRowDimension());
+    Assertions.assertEquals(expected.getColumnDimension(), actual.getColumnDimension());
+
+    final double tolerance = TOLERANCE * Math.max(1.0, expected.getNorm());
+    for (int i = 0; i < expected.getRowDimension(); i++) {
+      Assertions.assertArrayEquals(expected.getRow(i), actual.getRow(i), tolerance);
+    }
+  }
+}
@@ -0,0 +1,186 @@
+package gms.core.featureprediction.plugins.implementations.signalfeaturepredictor;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import gms.shared.utilities.geomath.BicubicSplineInterpolator;
+import java.util.Objects;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Bounded, least recently used cache of the bicubic spline interpolants {@link
+ * BcsTravelTimeInterpolator} builds from minitables.  Within the interior of a travel time table
+ * the minitable only depends on the distance/depth cell a query falls in, so queries in the same
+ * cell can share the interpolant rather than rebuilding the minitable, transposing it and fitting
+ * splines to each of its rows and columns.
+ *
+ * Entries are keyed by the earth model set (by identity), earth model name, phase, extrapolation
+ * setting and cell.  Each entry holds a minitable of at most 7 distances by 4 depths, its
+ * transpose and their spline second derivatives, so the cache holds at most around 2 * maximumSize
+ * kilobytes.  Lookups do not lock the whole cache, so concurrent predictions do not contend on it.
+ * Hit, miss and eviction counts are kept for monitoring.
+ */
+public class BcsTravelTimeInterpolantCache {
+
+  static final int DEFAULT_MAXIMUM_SIZE = 8192;
+
+  private volatile Cache<Key, Interpolant> entries;
+  private volatile int maximumSize;
+
+  /**
+   * Counts of caches replaced by {@link #setMaximumSize(int)} since the last {@link #clear()}
+   */
+  private CacheStats retiredStats = new CacheStats(0, 0, 0, 0, 0, 0);
+
+  BcsTravelTimeInterpolantCache(int maximumSize) {
+    Validate.isTrue(maximumSize >= 0, "maximumSize must be >= 0");
+    this.maximumSize = maximumSize;
+    this.entries = newCache(maximumSize);
+  }
+
+  private static Cache<Key, Interpolant> newCache(int maximumSize) {
+    return CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().build();
+  }
+
+  /**
+   * Gets the cached interpolant for key, counting a hit or a miss
+   *
+   * @return the interpolant, or null if it is not cached
+   */
+  Interpolant get(Key key) {
+    return entries.getIfPresent(key);
+  }
+
+  void put(Key key, Interpolant interpolant) {
+    if (maximumSize > 0) {
+      entries.put(key, interpolant);
+    }
+  }
+
+  /**
+   * Sets the maximum number of interpolants cached, evicting interpolants if the cache is larger.
+   * A maximum size of 0 disables caching.
+   *
+   * @param maximumSize maximum number of interpolants, >= 0
+   * @throws IllegalArgumentException if maximumSize is negative
+   */
+  public synchronized void setMaximumSize(int maximumSize) {
+    Validate.isTrue(maximumSize >= 0, "maximumSize must be >= 0");
+
+    Cache<Key, Interpolant> resized = newCache(maximumSize);
+    resized.putAll(entries.asMap());
+    retiredStats = retiredStats.plus(entries.stats());
+    this.entries = resized;
+    this.maximumSize = maximumSize;
+  }
+
+  public int getMaximumSize() {
+    return maximumSize;
+  }
+
+  public int size() {
+    return (int) entries.size();
+  }
+
+  public long getHitCount() {
+    return stats().hitCount();
+  }
+
+  public long getMissCount() {
+    return stats().missCount();
+  }
+
+  public long getEvictionCount() {
+    return stats().evictionCount();
+  }
+
+  /**
+   * Gets the fraction of lookups that found a cached interpolant
+   *
+   * @return hits / (hits + misses), or 1.0 if there have been no lookups
+   */
+  public double getHitRate() {
+    return stats().hitRate();
+  }
+
+  private synchronized CacheStats stats() {
+    return retiredStats.plus(entries.stats());
+  }
+
+  /**
+   * Removes all cached interpolants and resets the hit, miss and eviction counts
+   */
+  public synchronized void clear() {
+    entries = newCache(maximumSize);
+    retiredStats = new CacheStats(0, 0, 0, 0, 0, 0);
+  }
+
+  /**
+   * Identifies a distance/depth cell of an earth model's travel time table
+   */
+  static final class Key {
+
+    private final Object modelSet;
+    private final String earthModelName;
+    private final Object phaseType;
+    private final boolean extrapolate;
+    private final int distanceIndex;
+    private final int depthIndex;
+
+    Key(Object modelSet, String earthModelName, Object phaseType, boolean extrapolate,
+        int distanceIndex, int depthIndex) {
+      this.modelSet = modelSet;
+      this.earthModelName = earthModelName;
+      this.phaseType = phaseType;
+      this.extrapolate = extrapolate;
+      this.distanceIndex = distanceIndex;
+      this.depthIndex = depthIndex;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key key = (Key) o;
+      return modelSet == key.modelSet
+          && extrapolate == key.extrapolate
+          && distanceIndex == key.distanceIndex
+          && depthIndex == key.depthIndex
+          && earthModelName.equals(key.earthModelName)
+          && phaseType.equals(key.phaseType);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(System.identityHashCode(modelSet), earthModelName, phaseType,
+          extrapolate, distanceIndex, depthIndex);
+    }
+  }
+
+  /**
+   * The interpolant built from a cell's minitable, and whether building the minitable
+   * extrapolated
+   */
+  static final class Interpolant {
+
+    private final BicubicSplineInterpolator.Interpolant function;
+    private final boolean extrapolated;
+
+    Interpolant(BicubicSplineInterpolator.Interpolant function, boolean extrapolated) {
+      this.function = function;
+      this.extrapolated = extrapolated;
+    }
+
+    BicubicSplineInterpolator.Interpolant getFunction() {
+      return function;
+    }
+
+    boolean isExtrapolated() {
+      return extrapolated;
+    }
+  }
+}
@@ -2,7 +2,6 @@ package gms.core.featureprediction.plugins.implementations.signalfeaturepredicto
 
 import gms.core.featureprediction.plugins.DepthDistance1dModelSet;
 import gms.shared.mechanisms.objectstoragedistribution.coi.common.PhaseType;
-import gms.shared.utilities.geomath.BicubicInterpolator;
 import gms.shared.utilities.geomath.BicubicSplineInterpolator;
 import org.apache.commons.lang3.Validate;
 import org.apache.commons.lang3.tuple.Triple;
@@ -21,14 +20,22 @@ public class BcsTravelTimeInterpolator {
 
   private static final double FLOAT_EPSILON = 1.0e-7;
 
+  private static final BcsTravelTimeInterpolantCache INTERPOLANT_CACHE =
+      new BcsTravelTimeInterpolantCache(BcsTravelTimeInterpolantCache.DEFAULT_MAXIMUM_SIZE);
+
   private final DepthDistance1dModelSet<double[], double[][]> depthDistance1dModelSet;
-  private final BicubicInterpolator interpolator = new BicubicSplineInterpolator();
+  private final BicubicSplineInterpolator interpolator = new BicubicSplineInterpolator();
   private final String earthModelName;
   private final PhaseType phaseType;
   private final boolean extrapolateGridpoints;
 
   private boolean wasExtrapolated;
 
+  /**
+   * Whether the last minitable generated depends only on the distance/depth cell of the query
+   */
+  private boolean cellInvariant;
+
   private BcsTravelTimeInterpolator(
       DepthDistance1dModelSet<double[], double[][]> depthDistance1dModelSet,
       String earthModelName, PhaseType phaseType, boolean extrapolateGridpoints) {
@@ -54,6 +61,16 @@ public class BcsTravelTimeInterpolator {
 
     wasExtrapolated = false;
 
+    BcsTravelTimeInterpolantCache.Key key = cellKey(depthKm, angleDeg, depthsKm, anglesDeg,
+        travelTimesSec);
+    if (key != null) {
+      BcsTravelTimeInterpolantCache.Interpolant cached = INTERPOLANT_CACHE.get(key);
+      if (cached != null) {
+        wasExtrapolated = cached.isExtrapolated();
+        return cached.getFunction().valueAndDerivatives(angleDeg, depthKm);
+      }
+    }
+
     Triple<double[], double[], double[][]> miniTable = generateMinitable(
         depthKm,
         angleDeg,
@@ -65,14 +82,82 @@ public class BcsTravelTimeInterpolator {
     double[] newAnglesDeg = miniTable.getMiddle();
     double[] newDepthsKm = miniTable.getLeft();
 
-    return interpolator.getFunctionAndDerivatives(newAnglesDeg, newDepthsKm,
-        transposeMatrix(newTravelTimeSec)).apply(angleDeg, depthKm);
+    BicubicSplineInterpolator.Interpolant function = interpolator
+        .getFunctionAndDerivatives(newAnglesDeg, newDepthsKm, transposeMatrix(newTravelTimeSec));
+
+    if (key != null && cellInvariant) {
+      INTERPOLANT_CACHE.put(key,
+          new BcsTravelTimeInterpolantCache.Interpolant(function, wasExtrapolated));
+    }
+
+    return function.valueAndDerivatives(angleDeg, depthKm);
+  }
+
+  /**
+   * Gets the cache of interpolants shared by all {@link BcsTravelTimeInterpolator}s, e.g. to
+   * monitor its hit rate or adjust its size
+   *
+   * @return the interpolant cache, not null
+   */
+  public static BcsTravelTimeInterpolantCache getInterpolantCache() {
+    return INTERPOLANT_CACHE;
   }
 
   public boolean wasExtrapolated() {
     return wasExtrapolated;
   }
 
+  /**
+   * Gets the cache key of the table cell containing the depth and distance, if the minitable for
+   * that cell can be cached.  Only cells within the table and outside of any hole are cached, as
+   * the minitables of other queries are shifted to surround the requested depth and distance.
+   *
+   * @return the cell's key, or null if the cell can not be cached
+   */
+  private BcsTravelTimeInterpolantCache.Key cellKey(double depth, double distance,
+      double[] depths, double[] distances, double[][] values) {
+
+    if (depths.length < 2 || distances.length < 2) {
+      return null;
+    }
+
+    int zleft = hunt(depths, depth);
+    int xleft = hunt(distances, distance);
+    if (zleft < 0 || zleft >= depths.length - 1 || xleft < 0 || xleft >= distances.length - 1) {
+      return null;
+    }
+
+    double[] holeDistances = holeDistances(distances, values);
+    if (distance > holeDistances[0] && distance < holeDistances[1]) {
+      return null;
+    }
+
+    return new BcsTravelTimeInterpolantCache.Key(depthDistance1dModelSet, earthModelName,
+        phaseType, extrapolateGridpoints, xleft, zleft);
+  }
+
+  /**
+   * Finds the distances bounding the first hole in the shallowest row of the table
+   *
+   * @return the last valid distance before the hole (181 if there is no hole) and the first valid
+   * distance after it (-1 if there is no hole or no valid distance after it)
+   */
+  private static double[] holeDistances(double[] distances, double[][] values) {
+    double[] ttcsInHoleDist = new double[]{181., -1., 0.};
+
+    boolean ok_so_far = true;
+    for (int i = 1; i < distances.length; i++) {
+      if (!Double.isNaN(values[0][i - 1]) && Double.isNaN(values[0][i])) {
+        ttcsInHoleDist[0] = distances[i - 1];
+        ok_so_far = false;
+      } else if (!ok_so_far && !Double.isNaN(values[0][i])) {
+        ttcsInHoleDist[1] = distances[i];
+        break;
+      }
+    }
+    return ttcsInHoleDist;
+  }
+
   private static double[][] transposeMatrix(double[][] m) {
     double[][] temp = new double[m[0].length][m.length];
     for (int i = 0; i < m.length; i++) {
@@ -161,18 +246,7 @@ public class BcsTravelTimeInterpolator {
     // Required # of samples in z-direction
     nz_req = Math.min(MAX_DEPTH_SAMPLES, depths.length);
 
-    double[] ttcsInHoleDist = new double[]{181., -1., 0.};
-
-    boolean ok_so_far = true;
-    for (int i = 1; i < distances.length; i++) {
-      if (!Double.isNaN(values[0][i - 1]) && Double.isNaN(values[0][i])) {
-        ttcsInHoleDist[0] = distances[i - 1];
-        ok_so_far = false;
-      } else if (!ok_so_far && !Double.isNaN(values[0][i])) {
-        ttcsInHoleDist[1] = distances[i];
-        break;
-      }
-    }
+    double[] ttcsInHoleDist = holeDistances(distances, values);
     boolean in_hole = distance > ttcsInHoleDist[0]
         && distance < ttcsInHoleDist[1];
 
@@ -357,6 +431,9 @@ public class BcsTravelTimeInterpolator {
       }
     }
 
+    // Within the table and without shifting, the minitable only depends on the query's cell
+    cellInvariant = !in_hole && idist == 0 && idepth == 0;
+
     // ====================================================================
     // Construct Mini Table
     //
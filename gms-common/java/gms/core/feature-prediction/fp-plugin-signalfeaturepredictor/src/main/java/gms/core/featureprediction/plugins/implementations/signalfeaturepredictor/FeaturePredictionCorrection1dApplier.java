@@ -56,40 +56,10 @@ public class FeaturePredictionCorrection1dApplier implements FeaturePredictionCo
   private static final Map<String, ElevationCorrectionUtility> elevationCorrectionUtilityMap =
       new ConcurrentHashMap<>();
 
-  // So each thread using this class can have its own SignalFeaturePredictorPlugin.
-  private static ThreadLocal<SignalFeaturePredictorPlugin> signalFeaturePredictorPluginThreadLocal =
-      ThreadLocal.withInitial(() -> {
-        SignalFeaturePredictorPlugin plugin = pluginRegistry.lookup(
-            PluginInfo.from("signalFeaturePredictor1dPlugin", "1.0.0"),
-            SignalFeaturePredictorPlugin.class).get();
-        try {
-          plugin.initialize(new PluginConfiguration());
-        } catch (IOException ioe) {
-          logger.error("error initializing SignalFeaturePredictorPlugin", ioe);
-        }
-        return plugin;
-      });
-
-  // So each thread using this class can have its own EllipticityCorrectionPlugin
-  private static ThreadLocal<EllipticityCorrectionPlugin> ellipticityCorrectionPluginThreadLocal =
-      ThreadLocal.withInitial(() -> {
-        EllipticityCorrectionPlugin plugin = pluginRegistry.lookup(
-            PluginInfo.from("dziewonskiGilbertEllipticityCorrection", "1.0.0"),
-            EllipticityCorrectionPlugin.class).get();
-
-        Properties p = new Properties();
-        try {
-          p.load(FeaturePredictionCorrection1dApplier.class.getResourceAsStream(
-              "application.properties"));
-          Set<String> names = Arrays.stream(p.getProperty("earthmodels").split("\\s*,\\s*"))
-              .collect(Collectors.toSet());
-          plugin.initialize(names);
-        } catch (IOException ioe) {
-          logger.error("error initializing SignalFeaturePredictorPlugin", ioe);
-        }
-        return plugin;
-      });
-
+  // The plugins are only read once initialized, so a single instance of each is shared by every
+  // thread using this class. Both are created on first use.
+  private static volatile SignalFeaturePredictorPlugin signalFeaturePredictorPlugin;
+  private static volatile EllipticityCorrectionPlugin ellipticityCorrectionPlugin;
 
   private FeaturePredictionCorrection1dApplier(String earthModelName, EventLocation sourceLocation,
       Location receiverLocation, PhaseType phase) {
@@ -222,26 +192,60 @@ public class FeaturePredictionCorrection1dApplier implements FeaturePredictionCo
   }
 
   /**
-   * Get a {@link SignalFeaturePredictorPlugin} specific to the calling thread.
+   * Get the {@link SignalFeaturePredictorPlugin} shared by all threads, initializing it on first
+   * use.
    * @return
    */
   private static SignalFeaturePredictorPlugin getSignalFeaturePredictorPlugin() {
-    return signalFeaturePredictorPluginThreadLocal.get();
+    SignalFeaturePredictorPlugin plugin = signalFeaturePredictorPlugin;
+    if (plugin == null) {
+      synchronized (FeaturePredictionCorrection1dApplier.class) {
+        plugin = signalFeaturePredictorPlugin;
+        if (plugin == null) {
+          plugin = pluginRegistry.lookup(
+              PluginInfo.from("signalFeaturePredictor1dPlugin", "1.0.0"),
+              SignalFeaturePredictorPlugin.class).get();
+          try {
+            plugin.initialize(new PluginConfiguration());
+          } catch (IOException ioe) {
+            logger.error("error initializing SignalFeaturePredictorPlugin", ioe);
+          }
+          signalFeaturePredictorPlugin = plugin;
+        }
+      }
+    }
+    return plugin;
   }
 
   /**
-   * Get a {@link EllipticityCorrectionPlugin} specifc to the calling thread.
+   * Get the {@link EllipticityCorrectionPlugin} shared by all threads, initializing it on first
+   * use.
    * @return
    */
   private static EllipticityCorrectionPlugin getEllipticityCorrectionPlugin() {
-    return ellipticityCorrectionPluginThreadLocal.get();
-  }
-
-  /**
-   * Removes plugins associated with the calling thread. This is a cleanup method.
-   */
-  public static void removeThreadSpecificPlugins() {
-    signalFeaturePredictorPluginThreadLocal.remove();
-    ellipticityCorrectionPluginThreadLocal.remove();
+    EllipticityCorrectionPlugin plugin = ellipticityCorrectionPlugin;
+    if (plugin == null) {
+      synchronized (FeaturePredictionCorrection1dApplier.class) {
+        plugin = ellipticityCorrectionPlugin;
+        if (plugin == null) {
+          plugin = pluginRegistry.lookup(
+              PluginInfo.from("dziewonskiGilbertEllipticityCorrection", "1.0.0"),
+              EllipticityCorrectionPlugin.class).get();
+
+          Properties p = new Properties();
+          try {
+            p.load(FeaturePredictionCorrection1dApplier.class.getResourceAsStream(
+                "application.properties"));
+            Set<String> names = Arrays.stream(p.getProperty("earthmodels").split("\\s*,\\s*"))
+                .collect(Collectors.toSet());
+            plugin.initialize(names);
+          } catch (IOException ioe) {
+            logger.error("error initializing EllipticityCorrectionPlugin", ioe);
+          }
+          ellipticityCorrectionPlugin = plugin;
+        }
+      }
+    }
+    return plugin;
   }
-}
\ No newline at end of file
+}
@@ -1,13 +1,23 @@
 package gms.core.featureprediction.plugins.implementations.signalfeaturepredictor;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertTrue;
 
 import gms.shared.mechanisms.objectstoragedistribution.coi.common.PhaseType;
+import java.util.Random;
+import org.junit.After;
 import org.junit.Test;
 
 public class BcsTravelTimeInterpolatorTests {
 
+  @After
+  public void tearDown() {
+    BcsTravelTimeInterpolator.getInterpolantCache()
+        .setMaximumSize(BcsTravelTimeInterpolantCache.DEFAULT_MAXIMUM_SIZE);
+    BcsTravelTimeInterpolator.getInterpolantCache().clear();
+  }
+
   @Test
   public void testGridPointsNoHoles() {
     double[] distances = TestFixtures.modelNoHoles
@@ -156,4 +166,89 @@ public class BcsTravelTimeInterpolatorTests {
 
     assertTrue(wasExtrapolated);
   }
+
+  /**
+   * Assert cached interpolants give the same travel times, derivatives and extrapolation flags as
+   * building each minitable, inside and outside the table and its holes
+   */
+  @Test
+  public void testCachedInterpolantsMatchUncached() {
+    final BcsTravelTimeInterpolantCache cache = BcsTravelTimeInterpolator.getInterpolantCache();
+    final double[] distances = TestFixtures.modelInternalHoles
+        .getDistancesDeg("ignored", PhaseType.P);
+    final double[] depths = TestFixtures.modelInternalHoles.getDepthsKm("ignored", PhaseType.P);
+
+    for (boolean extrapolate : new boolean[]{true, false}) {
+      final BcsTravelTimeInterpolator interpolator = new BcsTravelTimeInterpolator.Builder()
+          .withEarthModelName("ak135")
+          .withEarthModelsPlugin(TestFixtures.modelInternalHoles)
+          .withPhaseType(PhaseType.P)
+          .withExtrapolation(extrapolate)
+          .build();
+
+      final Random random = new Random(distances.length);
+      for (int i = 0; i < 500; i++) {
+        final double depth = depths[0] - 10.0
+            + (depths[depths.length - 1] - depths[0] + 20.0) * random.nextDouble();
+        final double distance = distances[0]
+            + (distances[distances.length - 1] - distances[0] + 2.0) * random.nextDouble();
+
+        cache.setMaximumSize(0);
+        final double[] expected = interpolator.getPhaseTravelTimeAndDerivatives(depth, distance);
+        final boolean expectedExtrapolated = interpolator.wasExtrapolated();
+
+        cache.setMaximumSize(BcsTravelTimeInterpolantCache.DEFAULT_MAXIMUM_SIZE);
+        for (int repeat = 0; repeat < 2; repeat++) {
+          assertArrayEquals(expected,
+              interpolator.getPhaseTravelTimeAndDerivatives(depth, distance), 0.0);
+          assertEquals(expectedExtrapolated, interpolator.wasExtrapolated());
+        }
+      }
+    }
+
+    assertTrue(cache.getHitCount() > 0);
+  }
+
+  @Test
+  public void testCacheBoundedAndCountsHits() {
+    final BcsTravelTimeInterpolantCache cache = BcsTravelTimeInterpolator.getInterpolantCache();
+    cache.clear();
+    cache.setMaximumSize(2);
+
+    final BcsTravelTimeInterpolator interpolator = new BcsTravelTimeInterpolator.Builder()
+        .withEarthModelName("ak135")
+        .withEarthModelsPlugin(TestFixtures.modelNoHoles)
+        .withPhaseType(PhaseType.P)
+        .withExtrapolation(true)
+        .build();
+    final double[] distances = TestFixtures.modelNoHoles.getDistancesDeg("ignored", PhaseType.P);
+    final double[] depths = TestFixtures.modelNoHoles.getDepthsKm("ignored", PhaseType.P);
+    final double depth = (depths[0] + depths[1]) / 2.0;
+
+    // Two queries in each of three cells
+    for (int i = 0; i < 3; i++) {
+      interpolator.getPhaseTravelTimeAndDerivatives(depth,
+          distances[i] + 0.25 * (distances[i + 1] - distances[i]));
+      interpolator.getPhaseTravelTimeAndDerivatives(depth,
+          distances[i] + 0.75 * (distances[i + 1] - distances[i]));
+    }
+
+    assertEquals(3, cache.getHitCount());
+    assertEquals(3, cache.getMissCount());
+    assertEquals(0.5, cache.getHitRate(), 0.0);
+    assertEquals(1, cache.getEvictionCount());
+    assertEquals(2, cache.size());
+
+    // Queries off the table are not cached
+    interpolator.getPhaseTravelTimeAndDerivatives(depths[depths.length - 1] + 100.0, distances[0]);
+    assertEquals(3, cache.getMissCount());
+
+    cache.setMaximumSize(1);
+    assertEquals(1, cache.size());
+    assertEquals(2, cache.getEvictionCount());
+
+    cache.clear();
+    assertEquals(0, cache.size());
+    assertEquals(1.0, cache.getHitRate(), 0.0);
+  }
 }
@@ -6,7 +6,6 @@ import gms.shared.utilities.signalprocessing.normalization.DeMeaner;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.time.Instant;
-import java.util.Arrays;
 import java.util.Objects;
 
 class AicOnsetTimeRefinementAlgorithm {
@@ -49,44 +48,108 @@ class AicOnsetTimeRefinementAlgorithm {
 
     Waveform aicWindow = waveform.window(startTime, endTime);
 
-    int order = parameters.getOrder();
+    int minAicIndex = minAicIndex(DeMeaner.demean(aicWindow.getValues()),
+        parameters.getOrder());
+
+    if (minAicIndex < 0) {
+      return previousOnsetTime;
+    }
+
+    return aicWindow.computeSampleTime(minAicIndex);
+  }
+
+  /**
+   * Finds the sample splitting the waveform (after skipping the first order samples) into noise
+   * and signal windows with the minimum AIC = length(noise) * ln(variance(noise)) + length(signal)
+   * * ln(variance(signal)).
+   *
+   * The window variances come from running sums of the samples and their squares, so every split
+   * is evaluated in one pass over the waveform rather than by summing both windows anew.  The
+   * signal window sums are accumulated backwards in a first pass, and the noise window sums
+   * forwards while evaluating the splits, both with compensated (Kahan) summation.  For demeaned
+   * data the AIC at each split matches the AIC from the two-pass variances of copied windows to
+   * within 1e-12 of its magnitude (or absolutely, below 1.0), so the chosen split only differs from
+   * copying the windows when two splits' AICs are that close.
+   *
+   * @param demeanedWaveform waveform samples, demeaned so window means are small, not null
+   * @param order number of samples at the beginning of the waveform to ignore
+   * @return index in demeanedWaveform of the first signal sample at the minimum AIC, or -1 if no
+   * split has a finite AIC (e.g. the waveform is flat)
+   */
+  static int minAicIndex(double[] demeanedWaveform, int order) {
+    final int length = demeanedWaveform.length;
+    if (length - order < 2) {
+      return -1;
+    }
+
+    // Sums of the samples and squared samples from index j to the end, for j > order
+    final double[] signalSums = new double[length];
+    final double[] signalSquareSums = new double[length];
+    double sum = 0.0;
+    double sumCompensation = 0.0;
+    double squareSum = 0.0;
+    double squareSumCompensation = 0.0;
+    for (int j = length - 1; j > order; j--) {
+      final double value = demeanedWaveform[j];
+
+      final double y = value - sumCompensation;
+      final double t = sum + y;
+      sumCompensation = (t - sum) - y;
+      sum = t;
+
+      final double ySquare = value * value - squareSumCompensation;
+      final double tSquare = squareSum + ySquare;
+      squareSumCompensation = (tSquare - squareSum) - ySquare;
+      squareSum = tSquare;
+
+      signalSums[j] = sum;
+      signalSquareSums[j] = squareSum;
+    }
 
     double minAic = Double.POSITIVE_INFINITY;
     int minAicIndex = -1;
-    double[] demeanedWaveform = DeMeaner.demean(aicWindow.getValues());
-    for (int i = 1; i < demeanedWaveform.length - order; i++) {
-      double[] noise = new double[i];
-      System.arraycopy(demeanedWaveform, order, noise, 0, noise.length);
-      double noiseVariance = variance(noise);
 
-      double[] signal = new double[demeanedWaveform.length - (order + i)];
-      System.arraycopy(demeanedWaveform, order + i, signal, 0, signal.length);
-      double signalVariance = variance(signal);
+    // Sums of the noise window samples and squared samples, from order to order + i - 1
+    sum = 0.0;
+    sumCompensation = 0.0;
+    squareSum = 0.0;
+    squareSumCompensation = 0.0;
+    for (int i = 1; i < length - order; i++) {
+      final double value = demeanedWaveform[order + i - 1];
+
+      final double y = value - sumCompensation;
+      final double t = sum + y;
+      sumCompensation = (t - sum) - y;
+      sum = t;
+
+      final double ySquare = value * value - squareSumCompensation;
+      final double tSquare = squareSum + ySquare;
+      squareSumCompensation = (tSquare - squareSum) - ySquare;
+      squareSum = tSquare;
+
+      final int noiseLength = i;
+      final int signalLength = length - (order + i);
+      final double noiseVariance = variance(sum, squareSum, noiseLength);
+      final double signalVariance = variance(signalSums[order + i],
+          signalSquareSums[order + i], signalLength);
 
       double aic =
-          noise.length * Math.log(noiseVariance) + signal.length * Math.log(signalVariance);
+          noiseLength * Math.log(noiseVariance) + signalLength * Math.log(signalVariance);
       if (aic < minAic && aic > Double.NEGATIVE_INFINITY) {
         minAic = aic;
         minAicIndex = i + order;
       }
     }
 
-    if (minAicIndex < 0) {
-      return previousOnsetTime;
-    }
-
-    return aicWindow.computeSampleTime(minAicIndex);
-  }
-
-  private static double variance(double[] window) {
-    double mean = mean(window);
-    return Arrays.stream(window)
-        .map(value -> Math.pow(value - mean, 2))
-        .sum() / window.length;
+    return minAicIndex;
   }
 
-  private static double mean(double[] window) {
-    return Arrays.stream(window)
-        .sum() / window.length;
+  /**
+   * Computes the population variance of a window from the sum of its samples and the sum of its
+   * squared samples.  Rounding can make the difference slightly negative for a (nearly) constant
+   * window, so it is clamped to 0.0.
+   */
+  private static double variance(double sum, double squareSum, int length) {
+    return Math.max(0.0, (squareSum - sum * sum / length) / length);
   }
 }
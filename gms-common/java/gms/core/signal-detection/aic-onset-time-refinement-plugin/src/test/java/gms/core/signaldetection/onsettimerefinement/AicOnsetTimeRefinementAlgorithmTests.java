@@ -9,12 +9,14 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.type.TypeFactory;
 import gms.shared.mechanisms.objectstoragedistribution.coi.common.datatransferobjects.CoiObjectMapperFactory;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.Waveform;
+import gms.shared.utilities.signalprocessing.normalization.DeMeaner;
 import java.io.IOException;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Random;
 import java.util.function.Function;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -90,6 +92,65 @@ public class AicOnsetTimeRefinementAlgorithmTests {
         AicOnsetTimeRefinementAlgorithm.refineOnsetTime(waveform, onsetTime, parameters));
   }
 
+  @Test
+  void testMinAicIndexMatchesCopiedWindows() {
+    final int order = parameters.getOrder();
+    final double[] demeaned = DeMeaner.demean(waveform.getValues());
+    assertEquals(referenceMinAicIndex(demeaned, order),
+        AicOnsetTimeRefinementAlgorithm.minAicIndex(demeaned, order));
+
+    // Noise followed by a stronger arrival at a random sample, on a large DC offset
+    final Random random = new Random(15);
+    for (int trial = 0; trial < 50; ++trial) {
+      final int length = 200 + random.nextInt(800);
+      final int onset = 20 + random.nextInt(length - 40);
+      final double amplitude = 1.5 + 20.0 * random.nextDouble();
+      final double[] values = new double[length];
+      for (int i = 0; i < length; ++i) {
+        values[i] = 1.0e4 + random.nextGaussian() * (i < onset ? 1.0 : amplitude);
+      }
+
+      final double[] demeanedValues = DeMeaner.demean(values);
+      assertEquals(referenceMinAicIndex(demeanedValues, order),
+          AicOnsetTimeRefinementAlgorithm.minAicIndex(demeanedValues, order));
+    }
+  }
+
+  @Test
+  void testMinAicIndexShortWaveform() {
+    assertEquals(-1, AicOnsetTimeRefinementAlgorithm.minAicIndex(new double[]{1.0, -1.0}, 1));
+    assertEquals(-1, AicOnsetTimeRefinementAlgorithm.minAicIndex(new double[0], 0));
+  }
+
+  /**
+   * The original AIC minimization, which copies the noise and signal windows at every split and
+   * computes their variances in two passes
+   */
+  private static int referenceMinAicIndex(double[] demeanedWaveform, int order) {
+    double minAic = Double.POSITIVE_INFINITY;
+    int minAicIndex = -1;
+    for (int i = 1; i < demeanedWaveform.length - order; i++) {
+      double[] noise = new double[i];
+      System.arraycopy(demeanedWaveform, order, noise, 0, noise.length);
+
+      double[] signal = new double[demeanedWaveform.length - (order + i)];
+      System.arraycopy(demeanedWaveform, order + i, signal, 0, signal.length);
+
+      double aic = noise.length * Math.log(referenceVariance(noise))
+          + signal.length * Math.log(referenceVariance(signal));
+      if (aic < minAic && aic > Double.NEGATIVE_INFINITY) {
+        minAic = aic;
+        minAicIndex = i + order;
+      }
+    }
+    return minAicIndex;
+  }
+
+  private static double referenceVariance(double[] window) {
+    double mean = Arrays.stream(window).sum() / window.length;
+    return Arrays.stream(window).map(value -> Math.pow(value - mean, 2)).sum() / window.length;
+  }
+
   @Test
   void testRefineOnsetTimeFlatWaveform() {
     double[] flatData = new double[waveform.getValues().length];
@@ -39,6 +39,7 @@ public class CandidateEventGenerator extends AbstractGenerator<Set<CandidateEven
 
   private double sigmaTime = Double.NaN;
   private Map<UUID, Set<GridNode>> gridNodeMap;
+  private GridNodeSlownessIndex gridNodeIndex;
   private List<SdhStationAssociation> sdhStationAssociations;
   private static Logger logger = LoggerFactory.getLogger(CandidateEventGenerator.class);
   private SignalDetectionAssociatorDefinition definition;
@@ -60,20 +61,34 @@ public class CandidateEventGenerator extends AbstractGenerator<Set<CandidateEven
 
     Set<CandidateEvent> driverSet = new HashSet<>();
 
+    if (this.gridNodeIndex == null) {
+      this.gridNodeIndex = GridNodeSlownessIndex.from(this.gridNodeMap);
+    }
+
+    logger.debug("Generating candidate events for {} SDH station associations and {} stations",
+        this.sdhStationAssociations.size(), this.gridNodeMap.size());
+
     try {
-      this.gridNodeMap.keySet().stream()
-          .forEach((uuid) -> logger.info(String.format("UUID: %s", uuid.toString())));
-      this.sdhStationAssociations.forEach((obj) -> logger.info(String
-          .format("SDH association station %s",
-              obj.getReferenceStation().getVersionId().toString())));
       for (SdhStationAssociation sdhsa : this.sdhStationAssociations) {
-        Set<GridNode> gridNodeSet = this.gridNodeMap
-            .get(sdhsa.getReferenceStation().getVersionId());
-        if (gridNodeSet == null) {
-          logger.info(String.format("Station %s not found in GridNodeMap",
-              sdhsa.getReferenceStation().getVersionId()));
+        UUID stationId = sdhsa.getReferenceStation().getVersionId();
+        if (!this.gridNodeIndex.containsStation(stationId)) {
+          logger.info(String.format("Station %s not found in GridNodeMap", stationId));
         } else {
-          for (GridNode gridNode : gridNodeSet) {
+          // Only grid nodes with a theoretical slowness near the observed slowness can pass the
+          // slowness constraint check
+          Optional<FeatureMeasurement<NumericMeasurementValue>> slowness = sdhsa
+              .getSignalDetectionHypothesis()
+              .getFeatureMeasurement(FeatureMeasurementTypes.SLOWNESS);
+          double observedSlowness = slowness
+              .map(fm -> fm.getMeasurementValue().getMeasurementValue().getValue())
+              .orElse(Double.NaN);
+          double slownessTolerance = slowness
+              .map(fm -> definition.getSigmaSlowness()
+                  * fm.getMeasurementValue().getMeasurementValue().getStandardDeviation())
+              .orElse(Double.NaN);
+
+          for (GridNode gridNode : this.gridNodeIndex
+              .candidates(stationId, observedSlowness, slownessTolerance)) {
             // TODO: need to add a check for phase of SDH
             if (CandidateEvent.passesSlownessConstraintCheck(
                 sdhsa.getReferenceStation(),
@@ -81,7 +96,7 @@ public class CandidateEventGenerator extends AbstractGenerator<Set<CandidateEven
                 definition.getSigmaSlowness(),
                 gridNode)) {
               driverSet.add(CandidateEvent.from(
-                  sdhsa.getReferenceStation().getVersionId(),
+                  stationId,
                   gridNode,
                   sdhsa.getSignalDetectionHypothesis(),
                   sigmaTime));
@@ -130,6 +145,24 @@ public class CandidateEventGenerator extends AbstractGenerator<Set<CandidateEven
       Map<UUID, Set<GridNode>> gridNodeMap) {
     Validate.notEmpty(gridNodeMap, "Null or empty gridNodeMap");
     this.gridNodeMap = gridNodeMap;
+    if (this.gridNodeIndex != null && this.gridNodeIndex.getGridNodeMap() != gridNodeMap) {
+      this.gridNodeIndex = null;
+    }
+    return this;
+  }
+
+  public GridNodeSlownessIndex gridNodeIndex() {
+    return gridNodeIndex;
+  }
+
+  /**
+   * Sets the gridNodeMap to the map indexed by gridNodeIndex, and uses gridNodeIndex rather than
+   * indexing the map when generating.  Useful when the same map is used for several generations.
+   */
+  public CandidateEventGenerator gridNodeIndex(GridNodeSlownessIndex gridNodeIndex) {
+    Objects.requireNonNull(gridNodeIndex, "Null gridNodeIndex");
+    gridNodeMap(gridNodeIndex.getGridNodeMap());
+    this.gridNodeIndex = gridNodeIndex;
     return this;
   }
 
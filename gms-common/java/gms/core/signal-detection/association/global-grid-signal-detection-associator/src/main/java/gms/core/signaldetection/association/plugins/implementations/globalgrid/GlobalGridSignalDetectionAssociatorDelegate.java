@@ -67,7 +67,7 @@ public class GlobalGridSignalDetectionAssociatorDelegate {
     CandidateEventGenerator eventGenerator = new CandidateEventGenerator()
         .definition(definition)
         .sigmaTime(definition.getSigmaTime())
-        .gridNodeMap(model.getFirstArrivalMap())
+        .gridNodeIndex(model.getFirstArrivalIndex())
         .sdhStationAssociations(new ArrayList<>(sdhStationAssociations));
 
     // generate a set of candidate events
@@ -0,0 +1,212 @@
+package gms.core.signaldetection.association.plugins.implementations.globalgrid;
+
+import gms.shared.mechanisms.objectstoragedistribution.coi.common.PhaseType;
+import gms.shared.mechanisms.objectstoragedistribution.coi.signaldetection.association.commonobjects.GridNode;
+import gms.shared.mechanisms.objectstoragedistribution.coi.signaldetection.association.commonobjects.NodeStation;
+import gms.shared.mechanisms.objectstoragedistribution.coi.signaldetection.association.commonobjects.PhaseInfo;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Index of the grid nodes in a first arrival map (station id to the grid nodes for which that
+ * station is a first arrival station) by the theoretical P slowness from each grid node to the
+ * station.
+ *
+ * The magnitude of the difference between a theoretical and an observed slowness vector is at
+ * least the difference of their magnitudes, so only the grid nodes whose theoretical slowness is
+ * within the slowness constraint's upper limit of the observed slowness can pass {@link
+ * gms.core.signaldetection.association.CandidateEvent#passesSlownessConstraintCheck}.  Looking
+ * those up in slowness order avoids checking every grid node of the station for every detection.
+ */
+public class GridNodeSlownessIndex {
+
+  /**
+   * Relative slack added to slowness bands, so grid nodes on the edge of a band are not missed due
+   * to rounding in the law of cosines used by the slowness constraint check
+   */
+  private static final double BAND_SLACK = 1.0e-9;
+
+  private final Map<UUID, Set<GridNode>> gridNodeMap;
+  private final Map<UUID, StationNodes> stationNodes;
+
+  private GridNodeSlownessIndex(Map<UUID, Set<GridNode>> gridNodeMap,
+      Map<UUID, StationNodes> stationNodes) {
+    this.gridNodeMap = gridNodeMap;
+    this.stationNodes = stationNodes;
+  }
+
+  /**
+   * Creates the index of the grid nodes in gridNodeMap.
+   *
+   * @param gridNodeMap map of station id to the grid nodes for which the station is a first
+   * arrival station, not null
+   * @return a GridNodeSlownessIndex, not null
+   */
+  public static GridNodeSlownessIndex from(Map<UUID, Set<GridNode>> gridNodeMap) {
+    Validate.notNull(gridNodeMap, "Null gridNodeMap");
+
+    final Map<UUID, StationNodes> stationNodes = new HashMap<>();
+    gridNodeMap.forEach((stationId, gridNodes) ->
+        stationNodes.put(stationId, StationNodes.from(stationId, gridNodes)));
+
+    return new GridNodeSlownessIndex(gridNodeMap, stationNodes);
+  }
+
+  /**
+   * Gets the map of station id to grid nodes this index was created from
+   *
+   * @return the indexed map, not null
+   */
+  public Map<UUID, Set<GridNode>> getGridNodeMap() {
+    return gridNodeMap;
+  }
+
+  /**
+   * Determines whether the station has an entry in the indexed map
+   *
+   * @param stationId station id
+   * @return true if the indexed map contains the station
+   */
+  public boolean containsStation(UUID stationId) {
+    return stationNodes.containsKey(stationId);
+  }
+
+  /**
+   * Gets the grid nodes of the station that may pass the slowness constraint check for a
+   * detection with the observed slowness.  This includes every grid node whose theoretical P
+   * slowness is within the check's upper limit (the node's slowness cell width plus
+   * slownessTolerance) of observedSlowness, and any grid node without exactly one P phase for the
+   * station, so the check can report it.
+   *
+   * @param stationId station id
+   * @param observedSlowness observed slowness of the detection; if NaN, no grid nodes with a P
+   * phase are returned
+   * @param slownessTolerance the multiple of the observed slowness standard deviation allowed by
+   * the slowness constraint check
+   * @return the grid nodes that may pass the slowness constraint check, not null
+   */
+  public List<GridNode> candidates(UUID stationId, double observedSlowness,
+      double slownessTolerance) {
+
+    final StationNodes nodes = stationNodes.get(stationId);
+    if (nodes == null) {
+      return Collections.emptyList();
+    }
+
+    return nodes.candidates(observedSlowness, slownessTolerance);
+  }
+
+  /**
+   * The grid nodes of one station, sorted by theoretical slowness
+   */
+  private static final class StationNodes {
+
+    private final double[] slownesses;
+    private final GridNode[] gridNodes;
+    private final double minimumCellWidth;
+    private final double maximumCellWidth;
+
+    /**
+     * Grid nodes that do not have exactly one P phase for the station
+     */
+    private final List<GridNode> unindexedNodes;
+
+    private StationNodes(double[] slownesses, GridNode[] gridNodes, double minimumCellWidth,
+        double maximumCellWidth, List<GridNode> unindexedNodes) {
+      this.slownesses = slownesses;
+      this.gridNodes = gridNodes;
+      this.minimumCellWidth = minimumCellWidth;
+      this.maximumCellWidth = maximumCellWidth;
+      this.unindexedNodes = unindexedNodes;
+    }
+
+    private static StationNodes from(UUID stationId, Set<GridNode> gridNodes) {
+      final List<GridNode> unindexedNodes = new ArrayList<>();
+      final List<GridNode> indexedNodes = new ArrayList<>();
+      final Map<GridNode, PhaseInfo> pPhases = new IdentityHashMap<>();
+
+      for (GridNode gridNode : gridNodes) {
+        final Optional<NodeStation> nodeStation = gridNode.getNodeStations().stream()
+            .filter(ns -> ns.getStationId().equals(stationId))
+            .findFirst();
+
+        // The slowness constraint check fails grid nodes without the station
+        if (nodeStation.isPresent()) {
+          final List<PhaseInfo> phaseInfos = nodeStation.get().getPhaseInfos().stream()
+              .filter(phaseInfo -> phaseInfo.getPhaseType() == PhaseType.P)
+              .collect(Collectors.toList());
+
+          if (phaseInfos.size() != 1) {
+            unindexedNodes.add(gridNode);
+          } else if (!Double.isNaN(phaseInfos.get(0).getSlowness())) {
+            indexedNodes.add(gridNode);
+            pPhases.put(gridNode, phaseInfos.get(0));
+          }
+        }
+      }
+
+      indexedNodes
+          .sort(Comparator.comparingDouble(gridNode -> pPhases.get(gridNode).getSlowness()));
+
+      final double[] slownesses = new double[indexedNodes.size()];
+      double minimumCellWidth = Double.POSITIVE_INFINITY;
+      double maximumCellWidth = Double.NEGATIVE_INFINITY;
+      for (int i = 0; i < slownesses.length; i++) {
+        final PhaseInfo phaseInfo = pPhases.get(indexedNodes.get(i));
+        slownesses[i] = phaseInfo.getSlowness();
+        minimumCellWidth = Math.min(minimumCellWidth, phaseInfo.getSlownessCellWidth());
+        maximumCellWidth = Math.max(maximumCellWidth, phaseInfo.getSlownessCellWidth());
+      }
+
+      return new StationNodes(slownesses, indexedNodes.toArray(new GridNode[0]),
+          minimumCellWidth, maximumCellWidth, unindexedNodes);
+    }
+
+    private List<GridNode> candidates(double observedSlowness, double slownessTolerance) {
+      // The check passes when the slowness difference is within |cellWidth + slownessTolerance|,
+      // which is largest at the smallest or largest cell width
+      final double band = Math.max(Math.abs(minimumCellWidth + slownessTolerance),
+          Math.abs(maximumCellWidth + slownessTolerance)) * (1.0 + BAND_SLACK) + BAND_SLACK;
+
+      final List<GridNode> candidates = new ArrayList<>(unindexedNodes);
+      if (slownesses.length == 0 || Double.isNaN(observedSlowness) || Double.isNaN(band)) {
+        return candidates;
+      }
+
+      final int first = lowerBound(observedSlowness - band);
+      for (int i = first; i < slownesses.length && slownesses[i] <= observedSlowness + band; i++) {
+        candidates.add(gridNodes[i]);
+      }
+
+      return candidates;
+    }
+
+    /**
+     * Finds the index of the first slowness >= value
+     */
+    private int lowerBound(double value) {
+      final int index = Arrays.binarySearch(slownesses, value);
+      if (index < 0) {
+        return -index - 1;
+      }
+
+      // binarySearch finds any of several equal slownesses
+      int first = index;
+      while (first > 0 && slownesses[first - 1] == value) {
+        first--;
+      }
+      return first;
+    }
+  }
+}
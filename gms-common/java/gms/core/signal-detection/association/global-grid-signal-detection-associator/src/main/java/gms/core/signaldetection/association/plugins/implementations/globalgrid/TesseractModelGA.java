@@ -37,6 +37,16 @@ public class TesseractModelGA extends GeoTessModel {
    */
   private Map<UUID, Set<GridNode>> firstArrivalMap;
 
+  /**
+   * Index of firstArrivalMap by slowness
+   */
+  private GridNodeSlownessIndex firstArrivalIndex;
+
+  /**
+   * The numFirstSta firstArrivalMap was initialized with
+   */
+  private int firstArrivalNumFirstSta;
+
   protected TesseractModelGA(File geoTessGridFile, GeoTessMetaData geoTessMetaData)
       throws IOException {
     super(geoTessGridFile, geoTessMetaData);
@@ -106,12 +116,21 @@ public class TesseractModelGA extends GeoTessModel {
           "profiles containing a single GridNodeData instance are required");
     }
     super.setProfile(vertex, layer, profile);
+    clearFirstArrivalMap();
+  }
+
+  private synchronized void clearFirstArrivalMap() {
+    this.firstArrivalMap = null;
+    this.firstArrivalIndex = null;
   }
 
   /**
    * Creates a Map from a Station UUID to a Set of GridNodes such that the Station is a
    * first-arrival Station for every GridNode in that Set.
    *
+   * The map, and its {@link GridNodeSlownessIndex}, are only recomputed if numFirstSta changes or
+   * a profile has been set since the last call.
+   *
    * @param numFirstSta maximum size of the Set of GridNodes
    */
   public synchronized void initializeFirstArrivalMap(final int numFirstSta) {
@@ -119,6 +138,10 @@ public class TesseractModelGA extends GeoTessModel {
     // Synchronized this method and getFirstArrivalMap() so firstArrivalMap() would block while
     // the map is being computed.
 
+    if (this.firstArrivalMap != null && this.firstArrivalNumFirstSta == numFirstSta) {
+      return;
+    }
+
     final Map<UUID, Set<GridNode>> map = new HashMap<>();
     final int nVertices = getNVertices();
     final int nLayers = getNLayers();
@@ -145,6 +168,8 @@ public class TesseractModelGA extends GeoTessModel {
     }
 
     this.firstArrivalMap = map;
+    this.firstArrivalIndex = GridNodeSlownessIndex.from(map);
+    this.firstArrivalNumFirstSta = numFirstSta;
   }
 
   /**
@@ -177,4 +202,15 @@ public class TesseractModelGA extends GeoTessModel {
   public synchronized Map<UUID, Set<GridNode>> getFirstArrivalMap() {
     return firstArrivalMap;
   }
+
+  /**
+   * Synchronized method to obtain the index of the first arrival map by slowness. Since
+   * synchronized, do not call within a loop. Call it once outside of the loop.
+   * @return the {@link GridNodeSlownessIndex} of the map built by the last call to
+   *   {@link #initializeFirstArrivalMap(int)}, or null if that has not been called since the model
+   *   was loaded or a profile was last set.
+   */
+  public synchronized GridNodeSlownessIndex getFirstArrivalIndex() {
+    return firstArrivalIndex;
+  }
 }
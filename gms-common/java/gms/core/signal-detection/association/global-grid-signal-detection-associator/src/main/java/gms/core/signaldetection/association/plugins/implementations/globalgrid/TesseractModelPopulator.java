@@ -256,8 +256,6 @@ public class TesseractModelPopulator implements Callable<TesseractModelGA> {
 
           }
 
-          SignalFeaturePredictionUtility.freeThreadSpecificPlugins();
-
           return null;
         }
 
@@ -0,0 +1,180 @@
+package gms.core.signaldetection.association.plugins.implementations.globalgrid;
+
+import static org.mockito.ArgumentMatchers.any;
+
+import gms.core.signaldetection.association.CandidateEvent;
+import gms.core.signaldetection.association.plugins.SdhStationAssociation;
+import gms.core.signaldetection.association.plugins.SignalDetectionAssociatorDefinition;
+import gms.shared.mechanisms.objectstoragedistribution.coi.common.DoubleValue;
+import gms.shared.mechanisms.objectstoragedistribution.coi.common.PhaseType;
+import gms.shared.mechanisms.objectstoragedistribution.coi.common.Units;
+import gms.shared.mechanisms.objectstoragedistribution.coi.emerging.provenance.commonobjects.InformationSource;
+import gms.shared.mechanisms.objectstoragedistribution.coi.signaldetection.association.commonobjects.GridNode;
+import gms.shared.mechanisms.objectstoragedistribution.coi.signaldetection.commonobjects.FeatureMeasurement;
+import gms.shared.mechanisms.objectstoragedistribution.coi.signaldetection.commonobjects.FeatureMeasurementTypes;
+import gms.shared.mechanisms.objectstoragedistribution.coi.signaldetection.commonobjects.InstantValue;
+import gms.shared.mechanisms.objectstoragedistribution.coi.signaldetection.commonobjects.NumericMeasurementValue;
+import gms.shared.mechanisms.objectstoragedistribution.coi.signaldetection.commonobjects.SignalDetectionHypothesis;
+import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.ReferenceStation;
+import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.StationType;
+import gms.shared.utilities.geotess.GeoTessGrid;
+import gms.shared.utilities.signalfeaturepredictionutility.SignalFeaturePredictionUtility;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmark of {@link CandidateEventGenerator} driving candidate events from detections at a
+ * handful of stations, over a grid populated by {@link TesseractModelPopulator}.  Compares the
+ * slowness indexed generation against checking every grid node of each detection's station.  Run
+ * with: java -cp (test runtime classpath) org.openjdk.jmh.Main CandidateEventGeneratorBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class CandidateEventGeneratorBenchmark {
+
+  private static final int MAX_VERTICES = 2000;
+  private static final int DETECTIONS_PER_STATION = 50;
+  private static final double SIGMA_SLOWNESS = 2.0;
+
+  private static final double[][] STATION_LOCATIONS = {
+      {35.2, -103.8}, {20.0, 0.0}, {-30.0, 140.0}, {60.0, 90.0}, {-15.0, -60.0}
+  };
+
+  private SignalDetectionAssociatorDefinition definition;
+  private Map<UUID, Set<GridNode>> gridNodeMap;
+  private GridNodeSlownessIndex gridNodeIndex;
+  private List<SdhStationAssociation> sdhStationAssociations;
+
+  @Setup
+  public void setup() throws Exception {
+    final Set<ReferenceStation> stations = new HashSet<>();
+    for (int i = 0; i < STATION_LOCATIONS.length; i++) {
+      stations.add(ReferenceStation.create("STA" + i, "Synthetic station",
+          StationType.SeismicArray,
+          InformationSource.create("Synthetic", Instant.EPOCH, "Synthetic"), "Synthetic",
+          STATION_LOCATIONS[i][0], STATION_LOCATIONS[i][1], 0.0, Instant.EPOCH, Instant.EPOCH,
+          List.of()));
+    }
+
+    final GeoTessGrid grid = GridNodeDataTest
+        .loadGridAndShrink("tesseract-models/geotess_grid_01000.geotess", MAX_VERTICES);
+
+    final int numThreads = Runtime.getRuntime().availableProcessors();
+    final List<SignalFeaturePredictionUtility> predictionUtilities = new ArrayList<>(numThreads);
+    for (int i = 0; i < numThreads; i++) {
+      predictionUtilities.add(new SignalFeaturePredictionUtility());
+    }
+
+    final TesseractModelGA model = TesseractModelPopulator.newBuilder()
+        .grid(grid)
+        .gridCylinderHeightKm(100.0)
+        .gridCircleRadiusDegrees(90.0)
+        .minimumMagnitude(0.1)
+        .phaseTypes(Set.of(PhaseType.P))
+        .stations(stations)
+        .predictionUtilities(predictionUtilities)
+        .build()
+        .call();
+
+    model.initializeFirstArrivalMap(STATION_LOCATIONS.length);
+    gridNodeMap = model.getFirstArrivalMap();
+    gridNodeIndex = model.getFirstArrivalIndex();
+
+    definition = Mockito.mock(SignalDetectionAssociatorDefinition.class);
+    BDDMockito.given(definition.getSigmaSlowness()).willReturn(SIGMA_SLOWNESS);
+
+    // Teleseismic P detections with slownesses and azimuths spread over the grid
+    final Random random = new Random(MAX_VERTICES);
+    sdhStationAssociations = new ArrayList<>();
+    for (ReferenceStation station : stations) {
+      for (int i = 0; i < DETECTIONS_PER_STATION; i++) {
+        sdhStationAssociations.add(SdhStationAssociation.from(
+            sdh(4.0 + 10.0 * random.nextDouble(), 0.5, 360.0 * random.nextDouble()), station));
+      }
+    }
+  }
+
+  @Benchmark
+  public Optional<Set<CandidateEvent>> generateIndexed() throws Exception {
+    return new CandidateEventGenerator()
+        .definition(definition)
+        .sigmaTime(2.0)
+        .gridNodeIndex(gridNodeIndex)
+        .sdhStationAssociations(sdhStationAssociations)
+        .generate();
+  }
+
+  /**
+   * Baseline: checks every grid node of each detection's station
+   */
+  @Benchmark
+  public Set<CandidateEvent> generateFullScan() throws Exception {
+    final Set<CandidateEvent> driverSet = new HashSet<>();
+    for (SdhStationAssociation sdhsa : sdhStationAssociations) {
+      final UUID stationId = sdhsa.getReferenceStation().getVersionId();
+      for (GridNode gridNode : gridNodeMap.getOrDefault(stationId, Set.of())) {
+        if (CandidateEvent.passesSlownessConstraintCheck(sdhsa.getReferenceStation(),
+            sdhsa.getSignalDetectionHypothesis(), SIGMA_SLOWNESS, gridNode)) {
+          driverSet.add(CandidateEvent
+              .from(stationId, gridNode, sdhsa.getSignalDetectionHypothesis(), 2.0));
+        }
+      }
+    }
+    return driverSet;
+  }
+
+  private static SignalDetectionHypothesis sdh(double slowness, double standardDeviation,
+      double azimuth) {
+
+    final SignalDetectionHypothesis sdh = Mockito.mock(SignalDetectionHypothesis.class);
+    final Optional<FeatureMeasurement<NumericMeasurementValue>> slownessMeasurement = Optional
+        .of(FeatureMeasurement.from(UUID.randomUUID(), UUID.randomUUID(),
+            FeatureMeasurementTypes.SLOWNESS, NumericMeasurementValue.from(Instant.EPOCH,
+                DoubleValue.from(slowness, standardDeviation, Units.SECONDS_PER_DEGREE))));
+    final Optional<FeatureMeasurement<NumericMeasurementValue>> azimuthMeasurement = Optional
+        .of(FeatureMeasurement.from(UUID.randomUUID(), UUID.randomUUID(),
+            FeatureMeasurementTypes.RECEIVER_TO_SOURCE_AZIMUTH, NumericMeasurementValue
+                .from(Instant.EPOCH, DoubleValue.from(azimuth, 1.0, Units.DEGREES))));
+    final Optional<FeatureMeasurement<InstantValue>> arrivalMeasurement = Optional
+        .of(FeatureMeasurement.from(UUID.randomUUID(), UUID.randomUUID(),
+            FeatureMeasurementTypes.ARRIVAL_TIME,
+            InstantValue.from(Instant.EPOCH.plusSeconds(3600), Duration.ofSeconds(1))));
+
+    Mockito.when(sdh.getFeatureMeasurement(any())).thenAnswer(invocation -> {
+      if (invocation.getArgument(0) == FeatureMeasurementTypes.SLOWNESS) {
+        return slownessMeasurement;
+      } else if (invocation.getArgument(0) == FeatureMeasurementTypes.RECEIVER_TO_SOURCE_AZIMUTH) {
+        return azimuthMeasurement;
+      } else if (invocation.getArgument(0) == FeatureMeasurementTypes.ARRIVAL_TIME) {
+        return arrivalMeasurement;
+      }
+      return Optional.empty();
+    });
+    return sdh;
+  }
+}
@@ -0,0 +1,149 @@
+package gms.core.signaldetection.association.plugins.implementations.globalgrid;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+
+import gms.core.signaldetection.association.CandidateEvent;
+import gms.core.signaldetection.association.UnexpectedPhasesException;
+import gms.shared.mechanisms.objectstoragedistribution.coi.common.DoubleValue;
+import gms.shared.mechanisms.objectstoragedistribution.coi.common.PhaseType;
+import gms.shared.mechanisms.objectstoragedistribution.coi.common.Units;
+import gms.shared.mechanisms.objectstoragedistribution.coi.emerging.provenance.commonobjects.InformationSource;
+import gms.shared.mechanisms.objectstoragedistribution.coi.signaldetection.association.commonobjects.GridNode;
+import gms.shared.mechanisms.objectstoragedistribution.coi.signaldetection.association.commonobjects.NodeStation;
+import gms.shared.mechanisms.objectstoragedistribution.coi.signaldetection.association.commonobjects.PhaseInfo;
+import gms.shared.mechanisms.objectstoragedistribution.coi.signaldetection.commonobjects.FeatureMeasurement;
+import gms.shared.mechanisms.objectstoragedistribution.coi.signaldetection.commonobjects.FeatureMeasurementTypes;
+import gms.shared.mechanisms.objectstoragedistribution.coi.signaldetection.commonobjects.NumericMeasurementValue;
+import gms.shared.mechanisms.objectstoragedistribution.coi.signaldetection.commonobjects.SignalDetectionHypothesis;
+import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.ReferenceStation;
+import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.StationType;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class GridNodeSlownessIndexTests {
+
+  private final ReferenceStation station = ReferenceStation.create(
+      "TUC",
+      "FAKE",
+      StationType.SeismicArray,
+      InformationSource.create("FAKE", Instant.EPOCH, "FAKE"),
+      "FAKE",
+      35.2,
+      -103.8,
+      1.5,
+      Instant.EPOCH,
+      Instant.EPOCH,
+      List.of()
+  );
+
+  /**
+   * Assert the candidates contain every grid node passing the slowness constraint check, for
+   * detections spanning the range of theoretical slownesses and tolerances
+   */
+  @Test
+  void testCandidatesContainAllPassingGridNodes() throws Exception {
+    final Random random = new Random(4000);
+    final Set<GridNode> gridNodes = new HashSet<>();
+    for (int i = 0; i < 2000; i++) {
+      gridNodes.add(gridNode(random.nextDouble() * 180.0 - 90.0,
+          random.nextDouble() * 360.0 - 180.0, 4.0 + 10.0 * random.nextDouble(),
+          0.5 + random.nextDouble(), PhaseType.P));
+    }
+
+    final GridNodeSlownessIndex index = GridNodeSlownessIndex
+        .from(Map.of(station.getVersionId(), gridNodes));
+
+    int totalPassing = 0;
+    for (int i = 0; i < 200; i++) {
+      final double slowness = 2.0 + 14.0 * random.nextDouble();
+      final double standardDeviation = random.nextDouble();
+      final double sigmaSlowness = 3.0 * random.nextDouble();
+      final SignalDetectionHypothesis sdh = sdh(slowness, standardDeviation,
+          360.0 * random.nextDouble());
+
+      final List<GridNode> candidates = index
+          .candidates(station.getVersionId(), slowness, sigmaSlowness * standardDeviation);
+      assertTrue(candidates.size() < gridNodes.size());
+
+      for (GridNode gridNode : gridNodes) {
+        if (CandidateEvent.passesSlownessConstraintCheck(station, sdh, sigmaSlowness, gridNode)) {
+          assertTrue(candidates.contains(gridNode));
+          totalPassing++;
+        }
+      }
+    }
+
+    // Make sure the comparison was not vacuous
+    assertTrue(totalPassing > 0);
+  }
+
+  @Test
+  void testCandidatesIncludeGridNodesWithoutSingleP() {
+    final GridNode noP = gridNode(0.0, 0.0, 8.0, 1.0, PhaseType.S);
+    final GridNode p = gridNode(0.0, 10.0, 8.0, 1.0, PhaseType.P);
+    final GridNodeSlownessIndex index = GridNodeSlownessIndex
+        .from(Map.of(station.getVersionId(), Set.of(noP, p)));
+
+    assertEquals(List.of(noP), index.candidates(station.getVersionId(), 20.0, 1.0));
+    assertEquals(List.of(noP), index.candidates(station.getVersionId(), Double.NaN, 1.0));
+    assertEquals(Set.of(noP, p),
+        new HashSet<>(index.candidates(station.getVersionId(), 8.5, 1.0)));
+
+    // The check still reports the grid node without a single P phase
+    assertThrows(UnexpectedPhasesException.class, () -> CandidateEvent
+        .passesSlownessConstraintCheck(station, sdh(20.0, 1.0, 0.0), 1.0, noP));
+  }
+
+  @Test
+  void testCandidatesUnknownStationEmpty() {
+    final GridNodeSlownessIndex index = GridNodeSlownessIndex.from(Map.of(station.getVersionId(),
+        Set.of(gridNode(0.0, 0.0, 8.0, 1.0, PhaseType.P))));
+
+    assertTrue(index.containsStation(station.getVersionId()));
+    assertEquals(false, index.containsStation(UUID.randomUUID()));
+    assertTrue(index.candidates(UUID.randomUUID(), 8.0, 1.0).isEmpty());
+  }
+
+  private GridNode gridNode(double latitude, double longitude, double slowness,
+      double slownessCellWidth, PhaseType phaseType) {
+
+    final PhaseInfo phaseInfo = PhaseInfo.from(phaseType, true, 300.0, 270.0, 270.0, 250.0,
+        350.0, 3.5, 3.5, slownessCellWidth, slowness, 5.0, 1.0, 1.0, 1.0);
+    final NodeStation nodeStation = NodeStation.from(UUID.randomUUID(), station.getVersionId(),
+        1.0, new TreeSet<>(Set.of(phaseInfo)));
+
+    return GridNode.from(UUID.randomUUID(), latitude, longitude, 0.0, 50.0,
+        new TreeSet<>(Set.of(nodeStation)));
+  }
+
+  private static SignalDetectionHypothesis sdh(double slowness, double standardDeviation,
+      double azimuth) {
+
+    final SignalDetectionHypothesis sdh = Mockito.mock(SignalDetectionHypothesis.class);
+    Mockito.when(sdh.getFeatureMeasurement(any())).thenAnswer(invocation -> {
+      if (invocation.getArgument(0) == FeatureMeasurementTypes.SLOWNESS) {
+        return Optional.of(FeatureMeasurement.from(UUID.randomUUID(), UUID.randomUUID(),
+            FeatureMeasurementTypes.SLOWNESS, NumericMeasurementValue.from(Instant.EPOCH,
+                DoubleValue.from(slowness, standardDeviation, Units.SECONDS_PER_DEGREE))));
+      } else if (invocation.getArgument(0) == FeatureMeasurementTypes.RECEIVER_TO_SOURCE_AZIMUTH) {
+        return Optional.of(FeatureMeasurement.from(UUID.randomUUID(), UUID.randomUUID(),
+            FeatureMeasurementTypes.RECEIVER_TO_SOURCE_AZIMUTH, NumericMeasurementValue
+                .from(Instant.EPOCH, DoubleValue.from(azimuth, 1.0, Units.DEGREES))));
+      }
+      return Optional.empty();
+    });
+    return sdh;
+  }
+}
@@ -1,25 +1,18 @@
 package gms.core.signaldetection.staltapowerdetector;
 
-import java.time.Duration;
-import java.time.Instant;
-import java.util.HashSet;
+import java.util.Arrays;
 import java.util.Objects;
-import java.util.PrimitiveIterator.OfDouble;
-import java.util.Set;
 import java.util.function.DoubleUnaryOperator;
-import java.util.function.IntToDoubleFunction;
-import java.util.stream.Collectors;
-import java.util.stream.DoubleStream;
-import java.util.stream.IntStream;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 /**
  * Implements the STA/LTA algorithm (both standard and recursive).
  */
 public class StaLtaAlgorithm {
 
-  static final Logger logger = LoggerFactory.getLogger(StaLtaAlgorithm.class);
+  /**
+   * Initial size of the trigger index array, grown as needed
+   */
+  private static final int INITIAL_TRIGGER_CAPACITY = 16;
 
   /**
    * Type of STA/LTA algorithm implementation
@@ -72,12 +65,11 @@ public class StaLtaAlgorithm {
    * @param triggerThreshold minimum waveform value not causing a trigger, {@code > 0 }
    * @param detriggerThreshold maximum waveform value not causing a detrigger, {@code > 0 }
    * @param waveform double[] of data to transform, not null
-   * @return Set of signal detection sample indices, not null
+   * @return signal detection sample indices in ascending order, not null
    * @throws NullPointerException if waveform, algorithmType, or waveformTransformation are null
    * @throws IllegalArgumentException if STA or LTA window length {@code <= 0 };
-   * @throws IllegalArgumentException if algorithmType is {@link AlgorithmType#RECURSIVE}
    */
-  public Set<Integer> staLta(AlgorithmType algorithmType,
+  public int[] staLta(AlgorithmType algorithmType,
       WaveformTransformation waveformTransformation, int staLeadSamples, int staLengthSamples,
       int ltaLeadSamples, int ltaLengthSamples, double triggerThreshold, double detriggerThreshold,
       double[] waveform) {
@@ -89,13 +81,16 @@ public class StaLtaAlgorithm {
         .requireNonNull(waveformTransformation, "STA/LTA requires non-null waveformTransformation");
 
     // Compute triggers on the transformed waveform
-    final Set<Integer> triggers = trigger(triggerThreshold, detriggerThreshold,
+    final int[] triggers = trigger(triggerThreshold, detriggerThreshold,
         transform(algorithmType, waveformTransformation, staLeadSamples, staLengthSamples,
             ltaLeadSamples, ltaLengthSamples, waveform));
 
     // Convert trigger sample indices to corresponding input waveform sample indices
     final int firstTransformed = firstTransformedIndex(staLeadSamples, ltaLeadSamples);
-    return triggers.stream().map(i -> i + firstTransformed).collect(Collectors.toSet());
+    for (int i = 0; i < triggers.length; ++i) {
+      triggers[i] += firstTransformed;
+    }
+    return triggers;
   }
 
   /**
@@ -108,6 +103,11 @@ public class StaLtaAlgorithm {
    *
    * The length of the output waveform is: waveform.length - startupSamples - lagSamples
    *
+   * {@link AlgorithmType#STANDARD} averages are the mean of the samples in each window.  {@link
+   * AlgorithmType#RECURSIVE} averages are exponentially weighted, with a time constant of the
+   * window length, and end on the same sample as the corresponding standard window.  Each
+   * recursive average starts from the mean of the first full window in the waveform.
+   *
    * @param algorithmType an {@link AlgorithmType}, not null
    * @param waveformTransformation an {@link WaveformTransformation}, not null
    * @param staLeadSamples number of samples the STA window leads the transformed sample
@@ -115,80 +115,132 @@ public class StaLtaAlgorithm {
    * @param ltaLeadSamples number of samples the LTA window leads the transformed sample
    * @param ltaLengthSamples length of the LTA window, > 0
    * @param waveform double[] of data to transform, not null
-   * @return {@link DoubleStream} containing the STA/LTA transformed waveform, not null
+   * @return STA/LTA transformed waveform, not null
    * @throws IllegalArgumentException if STA or LTA window length <= 0;
-   * @throws IllegalArgumentException if algorithmType is {@link AlgorithmType#RECURSIVE}
    */
-  static DoubleStream transform(AlgorithmType algorithmType,
+  static double[] transform(AlgorithmType algorithmType,
       WaveformTransformation waveformTransformation, int staLeadSamples, int staLengthSamples,
       int ltaLeadSamples, int ltaLengthSamples, double[] waveform) {
     // Validate the STA and LTA windows
     ParameterValidation.validateWindowLengths(staLengthSamples, ltaLengthSamples, i -> i > 0);
 
+    final int firstSample = firstTransformedIndex(staLeadSamples, ltaLeadSamples);
+    final int lastSample = lastTransformedIndex(staLeadSamples, staLengthSamples, ltaLeadSamples,
+        ltaLengthSamples, waveform.length);
+    if (lastSample < firstSample) {
+      return new double[0];
+    }
+
     // TODO: if demeaning is required then the WaveformTransformation needs to be applied within
     // the STA/LTA loop since demeaning uses the samples used to compute a single STA/LTA point.
 
     // Compute the transformed input waveform (rectified, squared, etc.)
-    double[] transformedWaveform = DoubleStream.of(waveform)
-        .map(waveformTransformation.getOperation()).toArray();
+    final DoubleUnaryOperator operation = waveformTransformation.getOperation();
+    final double[] transformedWaveform = new double[waveform.length];
+    for (int i = 0; i < waveform.length; ++i) {
+      transformedWaveform[i] = operation.applyAsDouble(waveform[i]);
+    }
 
+    // Compute waveform STA and LTA, indexed by the last sample in each window
+    final double[] sta;
+    final double[] lta;
     if (AlgorithmType.STANDARD == algorithmType) {
-      return standardTransform(staLeadSamples, staLengthSamples,
-          ltaLeadSamples, ltaLengthSamples, transformedWaveform);
+      sta = standardAverages(staLengthSamples, transformedWaveform);
+      lta = standardAverages(ltaLengthSamples, transformedWaveform);
     } else {
-      throw new IllegalArgumentException("Recursive STA/LTA not implemented");
+      sta = recursiveAverages(staLengthSamples, transformedWaveform);
+      lta = recursiveAverages(ltaLengthSamples, transformedWaveform);
     }
+
+    // Compute STA/LTA for each sample.
+    final int staOffset = staLengthSamples - staLeadSamples - 1;
+    final int ltaOffset = ltaLengthSamples - ltaLeadSamples - 1;
+    final double[] staLta = new double[lastSample - firstSample + 1];
+    for (int i = firstSample; i <= lastSample; ++i) {
+      staLta[i - firstSample] = sta[i + staOffset] / lta[i + ltaOffset];
+    }
+    return staLta;
   }
 
   /**
-   * Compute the standard STA/LTA transform on waveform with the provided STA and LTA windows
+   * Computes the mean of every window of numSamples consecutive waveform values, keeping a running
+   * sum of the window rather than summing each window anew.
    *
-   * @param staLeadSamples number of samples the STA window leads the transformed sample
-   * @param staLengthSamples length of the STA window
-   * @param ltaLeadSamples number of samples the LTA window leads the transformed sample
-   * @param ltaLengthSamples length of the LTA window
-   * @param waveform double[] of data to transform, not null
-   * @return DoubleStream containing the STA/LTA transformed waveform, not null
+   * The running sum is compensated so rounding errors do not accumulate along the waveform, and
+   * is exactly 0.0 whenever the window holds only zeros (e.g. in a gap) so the STA/LTA there is
+   * the same NaN or infinity as when summing each window.
+   *
+   * @param numSamples number of samples in the average window, > 0
+   * @param waveform data values
+   * @return array the length of waveform whose element i is the average of the window ending at
+   * sample i, or 0.0 when {@code i < numSamples - 1}
    */
-  private static DoubleStream standardTransform(int staLeadSamples, int staLengthSamples,
-      int ltaLeadSamples, int ltaLengthSamples, double[] waveform) {
-
-    Instant start = Instant.now();
-    // TODO: consider refactoring when implementing recursive algorithm to avoid duplication
-
-    // Compute waveform STA and LTA over the defined windows
-    IntToDoubleFunction sta = getAvgClosure(staLeadSamples, staLengthSamples, waveform);
-    IntToDoubleFunction lta = getAvgClosure(ltaLeadSamples, ltaLengthSamples, waveform);
+  private static double[] standardAverages(int numSamples, double[] waveform) {
+    final double[] averages = new double[waveform.length];
+
+    double sum = 0.0;
+    double compensation = 0.0;
+    int nonZeroSamples = 0;
+    for (int i = 0; i < waveform.length; ++i) {
+      double delta = waveform[i];
+      if (waveform[i] != 0.0) {
+        ++nonZeroSamples;
+      }
+      if (i >= numSamples) {
+        delta -= waveform[i - numSamples];
+        if (waveform[i - numSamples] != 0.0) {
+          --nonZeroSamples;
+        }
+      }
 
-    // Compute STA/LTA for each sample.
-    final int firstSample = firstTransformedIndex(staLeadSamples, ltaLeadSamples);
-    final int lastSample = lastTransformedIndex(staLeadSamples, staLengthSamples, ltaLeadSamples,
-        ltaLengthSamples, waveform.length);
+      if (nonZeroSamples == 0) {
+        sum = 0.0;
+        compensation = 0.0;
+      } else {
+        // Kahan summation of the change in the window sum
+        final double y = delta - compensation;
+        final double t = sum + y;
+        compensation = (t - sum) - y;
+        sum = t;
+      }
 
-    Instant finish = Instant.now();
+      if (i >= numSamples - 1) {
+        averages[i] = sum / numSamples;
+      }
+    }
 
-    String message = String.format("standardTransform() execution time: %d ms", Duration.between(start, finish).toMillis());
-    logger.info(message);
-    return IntStream.rangeClosed(firstSample, lastSample)
-        .mapToDouble(i -> sta.applyAsDouble(i) / lta.applyAsDouble(i));
+    return averages;
   }
 
   /**
-   * Obtain an (int -> double) function which computes an average value from the provided waveform
-   * values based on the integer parameter, leadSamples before the integer, and numSamples in the
-   * average.
+   * Computes the exponentially weighted average of waveform with a time constant of numSamples,
+   * i.e. {@code avg[i] = avg[i - 1] + (waveform[i] - avg[i - 1]) / numSamples }, starting from the
+   * mean of the first numSamples waveform values.
    *
-   * @param leadSamples number of samples the average window leads the input sample
-   * @param numSamples number of samples in the average window
+   * @param numSamples number of samples in the average time constant, > 0
    * @param waveform data values
-   * @return {@link IntToDoubleFunction} computing waveform average value in a window around the
-   * sample index
+   * @return array the length of waveform whose element i is the average up to and including
+   * sample i, or 0.0 when {@code i < numSamples - 1}
    */
-  private static IntToDoubleFunction getAvgClosure(int leadSamples, int numSamples,
-      double[] waveform) {
+  private static double[] recursiveAverages(int numSamples, double[] waveform) {
+    final double[] averages = new double[waveform.length];
+    if (waveform.length < numSamples) {
+      return averages;
+    }
+
+    double sum = 0.0;
+    for (int i = 0; i < numSamples; ++i) {
+      sum += waveform[i];
+    }
 
-    return i -> IntStream.rangeClosed(i - leadSamples, i - leadSamples + numSamples - 1)
-        .mapToDouble(j -> waveform[j]).sum() / numSamples;
+    double average = sum / numSamples;
+    averages[numSamples - 1] = average;
+    for (int i = numSamples; i < waveform.length; ++i) {
+      average += (waveform[i] - average) / numSamples;
+      averages[i] = average;
+    }
+
+    return averages;
   }
 
   /**
@@ -243,30 +295,29 @@ public class StaLtaAlgorithm {
    *
    * @param triggerThreshold minimum waveform value not causing a trigger, > 0
    * @param detriggerThreshold maximum waveform value not causing a detrigger, > 0
-   * @param waveform {@link DoubleStream} of waveform samples, not null
-   * @return Set of trigger sample indices, not null
+   * @param waveform waveform samples, not null
+   * @return trigger sample indices in ascending order, not null
    * @throws IllegalArgumentException if triggerThreshold is <= 0; if detriggerThreshold <= 0
    */
-  static Set<Integer> trigger(double triggerThreshold, double detriggerThreshold,
-      DoubleStream waveform) {
+  static int[] trigger(double triggerThreshold, double detriggerThreshold, double[] waveform) {
 
     ParameterValidation.validateTriggerThresholds(triggerThreshold, detriggerThreshold);
 
-    Set<Integer> triggers = new HashSet<>();
-
-    // Tracks sample index
-    int i = 0;
+    int[] triggers = new int[INITIAL_TRIGGER_CAPACITY];
+    int numTriggers = 0;
 
     // Initial state is untriggered
     boolean triggered = false;
 
-    OfDouble wfIter = waveform.iterator();
-    while (wfIter.hasNext()) {
-      final double sample = wfIter.nextDouble();
+    for (int i = 0; i < waveform.length; ++i) {
+      final double sample = waveform[i];
 
       // Not currently triggered and sample exceeds trigger threshold -> create trigger
       if (!triggered && sample > triggerThreshold) {
-        triggers.add(i);
+        if (numTriggers == triggers.length) {
+          triggers = Arrays.copyOf(triggers, 2 * numTriggers);
+        }
+        triggers[numTriggers++] = i;
         triggered = true;
       }
 
@@ -274,10 +325,8 @@ public class StaLtaAlgorithm {
       else if (triggered && sample < detriggerThreshold) {
         triggered = false;
       }
-
-      i = i + 1;
     }
 
-    return triggers;
+    return Arrays.copyOf(triggers, numTriggers);
   }
 }
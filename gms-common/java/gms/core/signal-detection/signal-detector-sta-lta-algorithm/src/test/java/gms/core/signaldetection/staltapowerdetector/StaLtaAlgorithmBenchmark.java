@@ -0,0 +1,72 @@
+package gms.core.signaldetection.staltapowerdetector;
+
+import gms.core.signaldetection.staltapowerdetector.StaLtaAlgorithm.AlgorithmType;
+import gms.core.signaldetection.staltapowerdetector.StaLtaAlgorithm.WaveformTransformation;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * JMH benchmark of {@link StaLtaAlgorithm} against the original implementation ({@link
+ * StaLtaReference}), which sums every window anew, on an hour of 40 samples/sec data.  Run with:
+ * java -cp (test runtime classpath) org.openjdk.jmh.Main StaLtaAlgorithmBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StaLtaAlgorithmBenchmark {
+
+  private static final double SAMPLE_RATE = 40.0;
+  private static final int WAVEFORM_SECONDS = 3600;
+  private static final int STA_SECONDS = 1;
+
+  @Param({"10", "60"})
+  public int ltaSeconds;
+
+  private final StaLtaAlgorithm algorithm = new StaLtaAlgorithm();
+
+  private double[] waveform;
+  private int staLength;
+  private int ltaLength;
+
+  @Setup
+  public void setup() {
+    waveform = new Random(ltaSeconds).doubles((int) (WAVEFORM_SECONDS * SAMPLE_RATE))
+        .map(d -> d - 0.5).toArray();
+    staLength = (int) (STA_SECONDS * SAMPLE_RATE);
+    ltaLength = (int) (ltaSeconds * SAMPLE_RATE);
+  }
+
+  @Benchmark
+  public Set<Integer> reference() {
+    return StaLtaReference.staLta(WaveformTransformation.SQUARED, staLength / 2, staLength,
+        ltaLength, ltaLength, 3.0, 1.5, waveform);
+  }
+
+  @Benchmark
+  public int[] standard() {
+    return algorithm.staLta(AlgorithmType.STANDARD, WaveformTransformation.SQUARED,
+        staLength / 2, staLength, ltaLength, ltaLength, 3.0, 1.5, waveform);
+  }
+
+  @Benchmark
+  public int[] recursive() {
+    return algorithm.staLta(AlgorithmType.RECURSIVE, WaveformTransformation.SQUARED,
+        staLength / 2, staLength, ltaLength, ltaLength, 3.0, 1.5, waveform);
+  }
+}
@@ -8,7 +8,8 @@ import static org.junit.Assert.assertTrue;
 import gms.core.signaldetection.staltapowerdetector.StaLtaAlgorithm.AlgorithmType;
 import gms.core.signaldetection.staltapowerdetector.StaLtaAlgorithm.WaveformTransformation;
 import java.util.Arrays;
-import java.util.Set;
+import java.util.Random;
+import java.util.function.IntToDoubleFunction;
 import java.util.stream.DoubleStream;
 import java.util.stream.IntStream;
 import org.junit.Rule;
@@ -36,14 +37,11 @@ public class StaLtaAlgorithmTests {
     final double[] waveform = new double[]{1, 1, 100, 50, 1, 1, 1, 1, 200};
 
     logger.info("Calling STA/LTA algorithm");
-    final Set<Integer> triggers = new StaLtaAlgorithm()
+    final int[] triggers = new StaLtaAlgorithm()
         .staLta(AlgorithmType.STANDARD, WaveformTransformation.RECTIFIED, 0, 1, 2, 2, 5.0, 3.0,
             waveform);
 
-    assertNotNull(triggers);
-    assertEquals(2, triggers.size());
-    assertTrue(triggers.contains(2));
-    assertTrue(triggers.contains(8));
+    assertArrayEquals(new int[]{2, 8}, triggers);
   }
 
   @Test
@@ -82,7 +80,7 @@ public class StaLtaAlgorithmTests {
     // Test the STA/LTA transform matches SME expectations
     double[] transformed = StaLtaAlgorithm
         .transform(AlgorithmType.STANDARD, WaveformTransformation.SQUARED, staLeadSamples,
-            staLengthSamples, ltaLeadSamples, ltaLengthSamples, SmeExampleData.data).toArray();
+            staLengthSamples, ltaLeadSamples, ltaLengthSamples, SmeExampleData.data);
 
     assertEquals(SmeExampleData.sta.length, SmeExampleData.lta.length);
     double[] expectedTransformed = new double[SmeExampleData.sta.length - ltaLeadSamples];
@@ -94,20 +92,18 @@ public class StaLtaAlgorithmTests {
 
     // Test data is at 20 samples/sec and has detections at 100.0s and 200.15s from the start
     final double sampleRate = 20.0;
-    final Set<Integer> expectedDetections = Set.of(
+    final int[] expectedDetections = new int[]{
         (int) (100.0 * sampleRate),
-        (int) (200.15 * sampleRate));
+        (int) (200.15 * sampleRate)};
 
     // Test detections match SME expected detections
-    final Set<Integer> detections = new StaLtaAlgorithm()
+    final int[] detections = new StaLtaAlgorithm()
         .staLta(AlgorithmType.STANDARD, WaveformTransformation.SQUARED, staLeadSamples,
             staLengthSamples, ltaLeadSamples, ltaLengthSamples, triggerThreshold,
             detriggerThreshold,
             SmeExampleData.data);
 
-    assertEquals(expectedDetections.size(), detections.size());
-    assertTrue(expectedDetections.containsAll(detections));
-    assertTrue(detections.containsAll(expectedDetections));
+    assertArrayEquals(expectedDetections, detections);
   }
 
   // Transform algorithm tests
@@ -117,7 +113,7 @@ public class StaLtaAlgorithmTests {
     final int length = 100;
     final double[] transformed = StaLtaAlgorithm
         .transform(AlgorithmType.STANDARD, WaveformTransformation.RECTIFIED, 2,
-            2, 6, 4, new double[length]).toArray();
+            2, 6, 4, new double[length]);
 
     assertEquals(length - 6, transformed.length);
   }
@@ -127,7 +123,7 @@ public class StaLtaAlgorithmTests {
     final int length = 200;
     final double[] transformed =
         StaLtaAlgorithm.transform(AlgorithmType.STANDARD, WaveformTransformation.RECTIFIED, 2,
-            4, 6, 5, new double[length]).toArray();
+            4, 6, 5, new double[length]);
 
     // Sta length is 4 and lead is 2.  For sample i the STA window is: [i-2, i-1, i, i+1]
     // This is one lagging sample, so input.length - 2 is the last index that can be computed
@@ -141,7 +137,7 @@ public class StaLtaAlgorithmTests {
     final int length = 100;
     final double[] transformed = StaLtaAlgorithm
         .transform(AlgorithmType.STANDARD, WaveformTransformation.RECTIFIED, 10,
-            2, 6, 4, new double[length]).toArray();
+            2, 6, 4, new double[length]);
 
     assertEquals(length - 10, transformed.length);
   }
@@ -151,7 +147,7 @@ public class StaLtaAlgorithmTests {
     final int length = 200;
     final double[] transformed =
         StaLtaAlgorithm.transform(AlgorithmType.STANDARD, WaveformTransformation.RECTIFIED, 2,
-            4, 6, 13, new double[length]).toArray();
+            4, 6, 13, new double[length]);
 
     // LTA length is 13 and lead is 6.  For sample i the LTA window is: [i-6, i-5, ..., i+6]
     // This is 6 lagging samples, so input.length - 6 is the last index that can be computed
@@ -164,7 +160,7 @@ public class StaLtaAlgorithmTests {
   public void testNegativeOutputLength() {
     final double[] result = StaLtaAlgorithm
         .transform(AlgorithmType.STANDARD, WaveformTransformation.RECTIFIED, 0, 6, 10, 9,
-            new double[10]).toArray();
+            new double[10]);
 
     assertNotNull(result);
     assertEquals(0, result.length);
@@ -187,9 +183,10 @@ public class StaLtaAlgorithmTests {
     // Get actual results
     final double[] transformResult = StaLtaAlgorithm
         .transform(AlgorithmType.STANDARD, WaveformTransformation.RECTIFIED, staLeadSamples,
-            staLengthSamples, ltaLeadSamples, ltaLengthSamples, waveform).toArray();
+            staLengthSamples, ltaLeadSamples, ltaLengthSamples, waveform);
 
-    assertArrayEquals(expected, transformResult, 0);
+    // Running window sums round differently than summing each window
+    assertArrayEquals(expected, transformResult, 1e-12);
   }
 
   @Test
@@ -209,9 +206,9 @@ public class StaLtaAlgorithmTests {
     // Get actual results
     final double[] transformResult = StaLtaAlgorithm
         .transform(AlgorithmType.STANDARD, WaveformTransformation.SQUARED, staLeadSamples,
-            staLengthSamples, ltaLeadSamples, ltaLengthSamples, waveform).toArray();
+            staLengthSamples, ltaLeadSamples, ltaLengthSamples, waveform);
 
-    assertArrayEquals(expected, transformResult, 0);
+    assertArrayEquals(expected, transformResult, 1e-12);
   }
 
   /**
@@ -272,17 +269,135 @@ public class StaLtaAlgorithmTests {
     // Get actual results
     final double[] transformResult = StaLtaAlgorithm
         .transform(AlgorithmType.STANDARD, WaveformTransformation.RECTIFIED, staLeadSamples,
-            staLengthSamples, ltaLeadSamples, ltaLengthSamples, waveform).toArray();
+            staLengthSamples, ltaLeadSamples, ltaLengthSamples, waveform);
 
     assertArrayEquals(expected, transformResult, 0);
   }
 
   @Test
-  public void testRecursiveExpectIllegalArgumentException() {
-    exception.expect(IllegalArgumentException.class);
-    exception.expectMessage("Recursive STA/LTA not implemented");
-    StaLtaAlgorithm.transform(AlgorithmType.RECURSIVE, WaveformTransformation.RECTIFIED, 2,
-        4, 6, 6, new double[10]);
+  public void testRecursiveOutputLengthMatchesStandard() {
+    final double[] waveform = new Random(7).doubles(200).toArray();
+    final int[][] windows = {{2, 2, 6, 4}, {2, 4, 6, 5}, {10, 2, 6, 4}, {2, 4, 6, 13}, {0, 6, 10, 9}};
+
+    for (int[] w : windows) {
+      assertEquals(
+          StaLtaAlgorithm.transform(AlgorithmType.STANDARD, WaveformTransformation.RECTIFIED,
+              w[0], w[1], w[2], w[3], waveform).length,
+          StaLtaAlgorithm.transform(AlgorithmType.RECURSIVE, WaveformTransformation.RECTIFIED,
+              w[0], w[1], w[2], w[3], waveform).length);
+    }
+  }
+
+  @Test
+  public void testRecursiveConstantWaveform() {
+    final double[] waveform = new double[100];
+    Arrays.fill(waveform, -3.0);
+
+    final double[] transformResult = StaLtaAlgorithm
+        .transform(AlgorithmType.RECURSIVE, WaveformTransformation.SQUARED, 3, 4, 20, 20,
+            waveform);
+
+    final double[] expected = new double[100 - 20];
+    Arrays.fill(expected, 1.0);
+    assertArrayEquals(expected, transformResult, 1e-15);
+  }
+
+  @Test
+  public void testRecursiveStep() {
+    final int length = 300;
+    final int step = 150;
+    final int staLeadSamples = 0;
+    final int staLengthSamples = 5;
+    final int ltaLeadSamples = 50;
+    final int ltaLengthSamples = 50;
+
+    // Waveform is 1.0 and then 3.0 from the step onwards
+    final double[] waveform = new double[length];
+    Arrays.fill(waveform, 0, step, 1.0);
+    Arrays.fill(waveform, step, length, 3.0);
+
+    // Recursive average of a window of length L ending on sample e, for e >= step, is
+    // 3 - 2 * (1 - 1/L)^(e - step + 1)
+    final IntToDoubleFunction sta = i -> stepAverage(i + staLengthSamples - staLeadSamples - 1,
+        step, staLengthSamples);
+    final IntToDoubleFunction lta = i -> stepAverage(i + ltaLengthSamples - ltaLeadSamples - 1,
+        step, ltaLengthSamples);
+    final double[] expected = IntStream.range(ltaLeadSamples, length - staLengthSamples + 1)
+        .mapToDouble(i -> sta.applyAsDouble(i) / lta.applyAsDouble(i)).toArray();
+
+    final double[] transformResult = StaLtaAlgorithm
+        .transform(AlgorithmType.RECURSIVE, WaveformTransformation.RECTIFIED, staLeadSamples,
+            staLengthSamples, ltaLeadSamples, ltaLengthSamples, waveform);
+
+    assertArrayEquals(expected, transformResult, 1e-12);
+
+    // The step triggers once, and only after reaching the sample STA window
+    final int[] triggers = new StaLtaAlgorithm()
+        .staLta(AlgorithmType.RECURSIVE, WaveformTransformation.RECTIFIED, staLeadSamples,
+            staLengthSamples, ltaLeadSamples, ltaLengthSamples, 1.5, 1.1, waveform);
+    assertEquals(1, triggers.length);
+    assertTrue(triggers[0] > step - staLengthSamples && triggers[0] <= step);
+  }
+
+  private static double stepAverage(int e, int step, int numSamples) {
+    return e < step ? 1.0 : 3.0 - 2.0 * Math.pow(1.0 - 1.0 / numSamples, e - step + 1);
+  }
+
+  // Golden tests against the original STA/LTA implementation
+
+  @Test
+  public void testStandardMatchesReferenceSmeExample() {
+    for (WaveformTransformation transformation : WaveformTransformation.values()) {
+      assertMatchesReference(transformation, 3, 4, 103, 100, 10.0, 6.0, SmeExampleData.data);
+    }
+  }
+
+  @Test
+  public void testStandardMatchesReferenceLongLta() {
+    // Ten minutes at 40 samples/sec: noise with impulsive arrivals and a gap longer than the LTA
+    final double sampleRate = 40.0;
+    final Random random = new Random(40);
+    final double[] waveform = random.doubles((int) (600 * sampleRate)).map(d -> d - 0.5)
+        .toArray();
+    for (int arrival : new int[]{3000, 9000, 9100, 20000}) {
+      for (int i = 0; i < 80; ++i) {
+        waveform[arrival + i] += 20.0 * Math.exp(-i / 20.0) * random.nextGaussian();
+      }
+    }
+    Arrays.fill(waveform, 12000, 16000, 0.0);
+
+    for (WaveformTransformation transformation : WaveformTransformation.values()) {
+      assertMatchesReference(transformation, 20, 40, 2400, 2400, 3.0, 1.5, waveform);
+      assertMatchesReference(transformation, 0, 20, 1200, 3600, 3.0, 1.5, waveform);
+    }
+  }
+
+  private static void assertMatchesReference(WaveformTransformation transformation,
+      int staLeadSamples, int staLengthSamples, int ltaLeadSamples, int ltaLengthSamples,
+      double triggerThreshold, double detriggerThreshold, double[] waveform) {
+
+    final double[] expected = StaLtaReference.transform(transformation, staLeadSamples,
+        staLengthSamples, ltaLeadSamples, ltaLengthSamples, waveform).toArray();
+    final double[] actual = StaLtaAlgorithm.transform(AlgorithmType.STANDARD, transformation,
+        staLeadSamples, staLengthSamples, ltaLeadSamples, ltaLengthSamples, waveform);
+
+    assertEquals(expected.length, actual.length);
+    for (int i = 0; i < expected.length; ++i) {
+      if (Double.isNaN(expected[i]) || Double.isInfinite(expected[i])) {
+        assertEquals("Sample " + i, expected[i], actual[i], 0.0);
+      } else {
+        assertEquals("Sample " + i, expected[i], actual[i], 1e-10 * Math.abs(expected[i]));
+      }
+    }
+
+    final int[] expectedTriggers = StaLtaReference.staLta(transformation, staLeadSamples,
+        staLengthSamples, ltaLeadSamples, ltaLengthSamples, triggerThreshold, detriggerThreshold,
+        waveform).stream().mapToInt(Integer::intValue).sorted().toArray();
+    final int[] actualTriggers = new StaLtaAlgorithm().staLta(AlgorithmType.STANDARD,
+        transformation, staLeadSamples, staLengthSamples, ltaLeadSamples, ltaLengthSamples,
+        triggerThreshold, detriggerThreshold, waveform);
+
+    assertArrayEquals(expectedTriggers, actualTriggers);
   }
 
   @Test
@@ -305,77 +420,67 @@ public class StaLtaAlgorithmTests {
 
   @Test
   public void testTrigger() {
-    Set<Integer> triggers = StaLtaAlgorithm
-        .trigger(5.0, 4.0, Arrays.stream(new double[]{1, 2, 3, 4, 5.01, 6, 4.5, 3.99}));
+    int[] triggers = StaLtaAlgorithm
+        .trigger(5.0, 4.0, new double[]{1, 2, 3, 4, 5.01, 6, 4.5, 3.99});
 
-    assertNotNull(triggers);
-    assertEquals(1, triggers.size());
-    assertTrue(triggers.contains(4));
+    assertArrayEquals(new int[]{4}, triggers);
   }
 
   @Test
   public void testNoTrigger() {
-    Set<Integer> triggers = StaLtaAlgorithm
-        .trigger(5.0, 4.0, Arrays.stream(new double[]{1, 2, 3, 4, 5.0, 5.0, 4, 3.99}));
+    int[] triggers = StaLtaAlgorithm
+        .trigger(5.0, 4.0, new double[]{1, 2, 3, 4, 5.0, 5.0, 4, 3.99});
 
     assertNotNull(triggers);
-    assertEquals(0, triggers.size());
+    assertEquals(0, triggers.length);
   }
 
   @Test
   public void testNoDetrigger() {
-    Set<Integer> triggers = StaLtaAlgorithm
-        .trigger(5.0, 4.0, Arrays.stream(new double[]{20.0, 4.0, 30.0, 4.0, 6.0, 5.0, 4.0, 10.0}));
+    int[] triggers = StaLtaAlgorithm
+        .trigger(5.0, 4.0, new double[]{20.0, 4.0, 30.0, 4.0, 6.0, 5.0, 4.0, 10.0});
 
-    assertNotNull(triggers);
-    assertEquals(1, triggers.size());
-    assertTrue(triggers.contains(0));
+    assertArrayEquals(new int[]{0}, triggers);
   }
 
   @Test
   public void testNaNDoesNotTrigger() {
     // Transformed waveform will contain a Double.NaN when the LTA is 0 (x/0.0D = NaN)
-    Set<Integer> triggers = StaLtaAlgorithm
-        .trigger(5.0, 4.0, Arrays.stream(new double[]{1, 2, 3, 4, Double.NaN, 6, 4.5, 3.99}));
+    int[] triggers = StaLtaAlgorithm
+        .trigger(5.0, 4.0, new double[]{1, 2, 3, 4, Double.NaN, 6, 4.5, 3.99});
 
-    assertNotNull(triggers);
-    assertEquals(1, triggers.size());
-    assertTrue(triggers.contains(5));
+    assertArrayEquals(new int[]{5}, triggers);
   }
 
   @Test
   public void testPositiveInfinityTriggers() {
-    Set<Integer> triggers = StaLtaAlgorithm
+    int[] triggers = StaLtaAlgorithm
         .trigger(5.0, 4.0,
-            Arrays.stream(new double[]{1, 2, 3, 4, Double.POSITIVE_INFINITY, 6, 4.5, 3.99}));
+            new double[]{1, 2, 3, 4, Double.POSITIVE_INFINITY, 6, 4.5, 3.99});
 
-    assertNotNull(triggers);
-    assertEquals(1, triggers.size());
-    assertTrue(triggers.contains(4));
+    assertArrayEquals(new int[]{4}, triggers);
   }
 
   @Test
   public void testNegativeInfinityDoesNotTrigger() {
-    Set<Integer> triggers = StaLtaAlgorithm
+    int[] triggers = StaLtaAlgorithm
         .trigger(5.0, 4.0,
-            Arrays.stream(new double[]{1, 2, 3, 4, Double.NEGATIVE_INFINITY, 6, 4.5, 3.99}));
+            new double[]{1, 2, 3, 4, Double.NEGATIVE_INFINITY, 6, 4.5, 3.99});
 
-    assertNotNull(triggers);
-    assertEquals(1, triggers.size());
-    assertTrue(triggers.contains(5));
+    assertArrayEquals(new int[]{5}, triggers);
   }
 
   @Test
   public void testNegativeTriggerThresholdExpectIllegalArgumentException() {
     exception.expect(IllegalArgumentException.class);
     exception.expectMessage("STA/LTA trigger threshold must be positive");
-    StaLtaAlgorithm.trigger(-5.0, 4.0, Arrays.stream(new double[]{}));
+    StaLtaAlgorithm.trigger(-5.0, 4.0, new double[]{});
   }
 
   @Test
   public void testNegativeDetriggerThresholdExpectIllegalArgumentException() {
     exception.expect(IllegalArgumentException.class);
     exception.expectMessage("STA/LTA detrigger threshold must be positive");
-    StaLtaAlgorithm.trigger(5.0, -4.0, Arrays.stream(new double[]{}));
+    StaLtaAlgorithm.trigger(5.0, -4.0, new double[]{});
   }
 }
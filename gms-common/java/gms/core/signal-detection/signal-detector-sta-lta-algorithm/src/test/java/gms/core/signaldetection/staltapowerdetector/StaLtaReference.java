@@ -0,0 +1,92 @@
+package gms.core.signaldetection.staltapowerdetector;
+
+import gms.core.signaldetection.staltapowerdetector.StaLtaAlgorithm.WaveformTransformation;
+import java.util.HashSet;
+import java.util.PrimitiveIterator.OfDouble;
+import java.util.Set;
+import java.util.function.IntToDoubleFunction;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+
+/**
+ * The original standard STA/LTA implementation, which sums every STA and LTA window anew and
+ * collects triggers into a {@link Set}.  Kept as the golden reference for {@link StaLtaAlgorithm}
+ * and as the baseline for {@link StaLtaAlgorithmBenchmark}.
+ */
+final class StaLtaReference {
+
+  private StaLtaReference() {
+  }
+
+  /**
+   * Computes standard STA/LTA trigger indices on waveform, as {@link StaLtaAlgorithm#staLta}
+   * originally did.
+   */
+  static Set<Integer> staLta(WaveformTransformation waveformTransformation, int staLeadSamples,
+      int staLengthSamples, int ltaLeadSamples, int ltaLengthSamples, double triggerThreshold,
+      double detriggerThreshold, double[] waveform) {
+
+    final Set<Integer> triggers = trigger(triggerThreshold, detriggerThreshold,
+        transform(waveformTransformation, staLeadSamples, staLengthSamples, ltaLeadSamples,
+            ltaLengthSamples, waveform));
+
+    final int firstTransformed = Math.max(staLeadSamples, ltaLeadSamples);
+    final Set<Integer> shifted = new HashSet<>();
+    triggers.forEach(i -> shifted.add(i + firstTransformed));
+    return shifted;
+  }
+
+  /**
+   * Computes the standard STA/LTA transformed waveform, summing each window for each sample.
+   */
+  static DoubleStream transform(WaveformTransformation waveformTransformation,
+      int staLeadSamples, int staLengthSamples, int ltaLeadSamples, int ltaLengthSamples,
+      double[] waveform) {
+
+    final double[] transformedWaveform = DoubleStream.of(waveform)
+        .map(waveformTransformation.getOperation()).toArray();
+
+    final IntToDoubleFunction sta = avgClosure(staLeadSamples, staLengthSamples,
+        transformedWaveform);
+    final IntToDoubleFunction lta = avgClosure(ltaLeadSamples, ltaLengthSamples,
+        transformedWaveform);
+
+    final int firstSample = Math.max(staLeadSamples, ltaLeadSamples);
+    final int numLagSamples = Math.max(staLengthSamples - staLeadSamples - 1,
+        ltaLengthSamples - ltaLeadSamples - 1);
+    final int lastSample = (numLagSamples > 0) ? waveform.length - 1 - numLagSamples
+        : waveform.length - 1;
+
+    return IntStream.rangeClosed(firstSample, lastSample)
+        .mapToDouble(i -> sta.applyAsDouble(i) / lta.applyAsDouble(i));
+  }
+
+  private static IntToDoubleFunction avgClosure(int leadSamples, int numSamples,
+      double[] waveform) {
+
+    return i -> IntStream.rangeClosed(i - leadSamples, i - leadSamples + numSamples - 1)
+        .mapToDouble(j -> waveform[j]).sum() / numSamples;
+  }
+
+  private static Set<Integer> trigger(double triggerThreshold, double detriggerThreshold,
+      DoubleStream waveform) {
+
+    final Set<Integer> triggers = new HashSet<>();
+    int i = 0;
+    boolean triggered = false;
+
+    final OfDouble wfIter = waveform.iterator();
+    while (wfIter.hasNext()) {
+      final double sample = wfIter.nextDouble();
+      if (!triggered && sample > triggerThreshold) {
+        triggers.add(i);
+        triggered = true;
+      } else if (triggered && sample < detriggerThreshold) {
+        triggered = false;
+      }
+      i = i + 1;
+    }
+
+    return triggers;
+  }
+}
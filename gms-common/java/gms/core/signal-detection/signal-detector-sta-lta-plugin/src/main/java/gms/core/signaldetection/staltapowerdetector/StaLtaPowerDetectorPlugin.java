@@ -90,12 +90,14 @@ public class StaLtaPowerDetectorPlugin implements SignalDetectorPlugin {
       final int ltaLength = samplesFromDuration(samplesPerSec, parameters.getLtaLength());
 
       // Invoke STA/LTA and convert trigger indices to trigger times
-      final Set<Integer> triggerIndices = this.staLta
+      final int[] triggerIndices = this.staLta
           .staLta(parameters.getAlgorithmType(), parameters.getWaveformTransformation(),
               staLead, staLength, ltaLead, ltaLength, parameters.getTriggerThreshold(),
               parameters.getDetriggerThreshold(), wf.getValues());
 
-      triggerIndices.stream().map(wf::computeSampleTime).forEach(triggerTimes::add);
+      for (int triggerIndex : triggerIndices) {
+        triggerTimes.add(wf.computeSampleTime(triggerIndex));
+      }
     });
 
     return triggerTimes;
@@ -28,6 +28,7 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.function.Executable;
@@ -186,9 +187,9 @@ public class StaLtaPowerDetectorPluginTests {
     final double[] samples = new double[length];
     final Waveform wf = Waveform.withValues(Instant.now(), sampleRate, samples);
 
-    final Set<Integer> triggerIndices = Set.of(1, 5, 10);
-    final Set<Instant> expectedTriggerTimes = triggerIndices.stream().map(wf::computeSampleTime)
-        .collect(Collectors.toSet());
+    final int[] triggerIndices = new int[]{1, 5, 10};
+    final Set<Instant> expectedTriggerTimes = IntStream.of(triggerIndices)
+        .mapToObj(wf::computeSampleTime).collect(Collectors.toSet());
 
     given(mockStaLtaAlgorithm
         .staLta(type, transformation, staLead, staLength, ltaLead, ltaLength, triggerThreshold,
@@ -215,7 +216,7 @@ public class StaLtaPowerDetectorPluginTests {
     final double[] samples1 = new double[length];
     final Waveform wf1 = Waveform.withValues(Instant.EPOCH, sampleRate, samples1);
 
-    final Set<Integer> triggerIndices1 = Set.of(1, 5, 10);
+    final int[] triggerIndices1 = new int[]{1, 5, 10};
     given(mockStaLtaAlgorithm
         .staLta(type, transformation, staLead, staLength, ltaLead, ltaLength, triggerThreshold,
             detriggerThreshold, samples1)).willReturn(triggerIndices1);
@@ -225,15 +226,15 @@ public class StaLtaPowerDetectorPluginTests {
     final Waveform wf2 = Waveform
         .withValues(Instant.EPOCH.plus(Duration.ofDays(5000)), sampleRate, samples2);
 
-    final Set<Integer> triggerIndices2 = Set.of(99, 17);
+    final int[] triggerIndices2 = new int[]{17, 99};
     given(mockStaLtaAlgorithm
         .staLta(type, transformation, staLead, staLength, ltaLead, ltaLength, triggerThreshold,
             detriggerThreshold, samples2)).willReturn(triggerIndices2);
 
     // Get expected trigger times
     final Set<Instant> expectedTriggerTimes = Stream.concat(
-        triggerIndices1.stream().map(wf1::computeSampleTime),
-        triggerIndices2.stream().map(wf2::computeSampleTime))
+        IntStream.of(triggerIndices1).mapToObj(wf1::computeSampleTime),
+        IntStream.of(triggerIndices2).mapToObj(wf2::computeSampleTime))
         .collect(Collectors.toSet());
 
     final ChannelSegment<Waveform> channelSegment = channelSegmentFromWaveforms(List.of(wf1, wf2));
@@ -7,21 +7,16 @@ import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjec
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.Waveform;
 import gms.shared.utilities.signalprocessing.validation.JitterPredicate;
 import org.apache.commons.lang3.Validate;
-import org.apache.commons.lang3.tuple.ImmutablePair;
-import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
-import java.util.NavigableMap;
 import java.util.NoSuchElementException;
 import java.util.Objects;
-import java.util.TreeMap;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -118,7 +113,20 @@ public class PlaneWaveAlgorithm {
         .orElseThrow(NoSuchElementException::new);
 
     logger.info("Generating beams for {} channel segments", channelSegments.size());
-    List<ChannelSegment<Waveform>> shiftedChannelSegments = new ArrayList<>();
+
+    // The beam is sampled at minStart + k * nominalSamplePeriod for k in [0, numSamples)
+    long nominalSamplePeriod = (long) (1E9 / nominalSampleRate);
+    int numSamples = (int) (Duration.between(minStart, maxEnd).toNanos() / nominalSamplePeriod) + 1;
+
+    // Sum of the (shifted) waveform values at each beam sample, the number of waveforms covering
+    // each beam sample, and the beam samples at which the set of covering waveforms changes
+    double[] sum = new double[numSamples];
+    int[] count = new int[numSamples];
+    boolean[] boundary = new boolean[numSamples + 1];
+    boundary[0] = true;
+    boundary[numSamples] = true;
+
+    JitterPredicate jitterPredicate = new JitterPredicate(minStart);
     for (ChannelSegment<Waveform> channelSegment : channelSegments) {
       RelativePosition position = relativePositionsByChannelId
           .get(channelSegment.getChannelId());
@@ -126,172 +134,99 @@ public class PlaneWaveAlgorithm {
           + position.getNorthDisplacementKm() * slownessVector[1] +
           position.getVerticalDisplacementKm() * slownessVector[2]) * -1;
 
-      List<Waveform> shiftedWaveforms = new ArrayList<>();
       for (Waveform waveform : channelSegment.getTimeseries()) {
-        int numPointsToShift = (int) Math.round(offset * waveform.getSampleRate());
-        double[] shifted = shiftWaveformBySamples(waveform.getValues(), numPointsToShift);
-        shiftedWaveforms.add(
-            Waveform.withValues(waveform.getStartTime(), waveform.getSampleRate(), shifted));
-      }
-
-      shiftedChannelSegments.add(ChannelSegment.create(channelSegment.getChannelId(),
-          channelSegment.getName(),
-          channelSegment.getType(),
-          shiftedWaveforms,
-          channelSegment.getCreationInfo()));
-    }
-
-    // Break the waveforms out into the beams they will form
-
-    // Map of end times, to the start time and the waveforms for the segment
-    JitterPredicate jitterPredicate = new JitterPredicate(minStart);
-    long nominalSamplePeriod = (long) (1E9 / nominalSampleRate);
-    NavigableMap<Instant, Pair<Instant, List<Waveform>>> beamDurations = new TreeMap<>();
-    logger.info("partitioning time into mini-beams");
-    for (Instant current = minStart;
-         current.compareTo(maxEnd) <= 0;
-         current = current.plusNanos(nominalSamplePeriod)) {
-
-      Instant previous;
-      if (current.equals(minStart)) {
-        previous = current;
-      } else {
-        previous = current.minusNanos(nominalSamplePeriod);
-      }
-
-      // make current effectively final
-      Instant compareTime = current;
-
-      List<Waveform> currentWaveforms = shiftedChannelSegments.stream()
-          .flatMap(cs -> cs.getTimeseries().stream())
-          .filter(this::isSampleRateInTolerance)
-          .filter(jitterPredicate)
-          .filter(waveform -> isBetweenInclusive(compareTime, waveform.getStartTime(),
-              waveform.getEndTime()))
-          .collect(Collectors.toList());
-
-      Pair<Instant, List<Waveform>> previousDurationStart = beamDurations.get(previous);
-      if (previousDurationStart != null) {
-
-        // If the waveforms from the previous time step and the current time set are the same,
-        // extend the previous waveform
-        if (previousDurationStart.getValue().containsAll(currentWaveforms) &&
-            currentWaveforms.containsAll(previousDurationStart.getValue())) {
-          beamDurations.remove(previous);
-          beamDurations.put(current, previousDurationStart);
-        } else {
-          // different set of waveforms, so start a new beam
-          beamDurations.put(current, ImmutablePair.of(current, currentWaveforms));
+        if (isSampleRateInTolerance(waveform) && jitterPredicate.test(waveform)) {
+          int numPointsToShift = (int) Math.round(offset * waveform.getSampleRate());
+          accumulate(waveform, numPointsToShift, minStart, nominalSamplePeriod, sum, count,
+              boundary);
         }
-      } else {
-        // first time step
-        beamDurations.put(current, ImmutablePair.of(current, currentWaveforms));
       }
     }
 
-    // Turn the beam durations into actual beams
+    // Each run of beam samples covered by the same waveforms becomes one beam
     List<Waveform> waveforms = new ArrayList<>();
-
-    for (Map.Entry<Instant, Pair<Instant, List<Waveform>>> miniBeam : beamDurations.entrySet()) {
-      logger.info("generating beam segment between {} and {} from {} waveforms",
-          miniBeam.getValue().getKey(), miniBeam.getKey(), miniBeam.getValue().getValue().size());
-      // splice the waveforms
-      List<double[]> beamComponents = new ArrayList<>();
-      // TODO: Figure out how to handle this error case better - possibly related to an incoming CR
-      if (miniBeam.getKey().equals(miniBeam.getValue().getKey())) {
-        logger.info("skipping single-sample beam at {}" + miniBeam.getKey());
-      } else {
-        for (Waveform waveform : miniBeam.getValue().getValue()) {
-          beamComponents.add(waveform.trim(miniBeam.getValue().getKey(), miniBeam.getKey()).getValues());
-        }
-
-        int numWaveforms = miniBeam.getValue().getValue().size();
-        if (numWaveforms >= minimumWaveformsForBeam) {
-          logger.info("Found sufficient waveforms to create beam");
-          List<double[]> waveformData = miniBeam.getValue().getValue().stream()
-              .map(waveform -> waveform.trim(miniBeam.getValue().getKey(), miniBeam.getKey()))
-              .map(Waveform::getValues)
-              .collect(Collectors.toList());
-
-          int numSamples = (int) Duration.between(miniBeam.getValue().getKey(), miniBeam.getKey())
-              .dividedBy(Duration.ofNanos(nominalSamplePeriod)) + 1;
-
-          double[] sum = new double[numSamples];
-          for (double[] waveformValues : waveformData) {
-            sum = sum(sum, waveformValues);
+    int runStart = 0;
+    for (int k = 1; k <= numSamples; k++) {
+      if (boundary[k]) {
+        Instant start = minStart.plusNanos(runStart * nominalSamplePeriod);
+        // TODO: Figure out how to handle this error case better - possibly related to an incoming CR
+        if (k - 1 == runStart) {
+          logger.info("skipping single-sample beam at {}", start);
+        } else if (count[runStart] >= minimumWaveformsForBeam) {
+          logger.info("generating beam segment between {} and {} from {} waveforms",
+              start, minStart.plusNanos((k - 1) * nominalSamplePeriod), count[runStart]);
+          double[] beam = new double[k - runStart];
+          double numWaveforms = count[runStart];
+          for (int i = 0; i < beam.length; i++) {
+            beam[i] = sum[runStart + i] / numWaveforms;
           }
-
-          double[] beam = Arrays.stream(sum)
-              .map(val -> val / numWaveforms)
-              .toArray();
-          waveforms.add(Waveform.withValues(miniBeam.getValue().getKey(), nominalSampleRate, beam));
+          waveforms.add(Waveform.withValues(start, nominalSampleRate, beam));
         }
+        runStart = k;
       }
     }
     return waveforms;
   }
 
   /**
-   * Shifts the provided double array by the provided size, padding any empty values with 0.
+   * Adds the waveform, shifted by the provided number of samples, into the beam sums.  Each beam
+   * sample the waveform covers is counted whether or not the shifted waveform has a value there,
+   * since shifting pads the waveform with 0 rather than changing the time it covers.
    *
-   * @param waveformData the data to shift
-   * @param shiftSize    the number of places to shift, with negative values shifting left and
-   *                     positive
-   *                     values shifting right.
-   * @return a double array that has been shifted by the specified number of points
+   * @param waveform            the waveform to add
+   * @param shiftSize           the number of samples to shift the waveform, with negative values
+   *                            shifting left and positive values shifting right
+   * @param beamStart           the time of the first beam sample
+   * @param nominalSamplePeriod the beam sample period in nanoseconds
+   * @param sum                 the beam sums, updated with the waveform's (shifted) values
+   * @param count               the number of waveforms covering each beam sample, updated with
+   *                            the beam samples this waveform covers
+   * @param boundary            the beam samples at which the covering waveforms change, updated
+   *                            with the first beam sample this waveform covers and the one after
+   *                            its last
    */
-  private double[] shiftWaveformBySamples(double[] waveformData, int shiftSize) {
-    double[] shifted = new double[waveformData.length];
-    for (int i = 0; i < shifted.length; i++) {
-      if (shiftSize > 0) {
-        if (i >= shiftSize && i - shiftSize > 0) {
-          shifted[i] = waveformData[i - shiftSize];
-        } else {
-          shifted[i] = 0;
-        }
-      } else if (shiftSize < 0) {
-        if (i < waveformData.length - Math.abs(shiftSize)) {
-          shifted[i] = waveformData[i + Math.abs(shiftSize)];
-        } else {
-          shifted[i] = 0;
-        }
-      } else {
-        shifted[i] = waveformData[i];
-      }
+  private void accumulate(Waveform waveform, int shiftSize, Instant beamStart,
+      long nominalSamplePeriod, double[] sum, int[] count, boolean[] boundary) {
+
+    // Beam samples within [startTime, endTime] of the waveform
+    long startOffset = Duration.between(beamStart, waveform.getStartTime()).toNanos();
+    long endOffset = Duration.between(beamStart, waveform.getEndTime()).toNanos();
+    int first = (int) Math.max(0, (startOffset + nominalSamplePeriod - 1) / nominalSamplePeriod);
+    int last = (int) Math.min(endOffset / nominalSamplePeriod, count.length - 1);
+    if (first > last) {
+      return;
     }
 
-    return shifted;
-  }
-
-  private boolean isBetweenInclusive(Instant compareTime, Instant start, Instant end) {
-    return compareTime.equals(start) || (compareTime.isAfter(start) && compareTime.isBefore(end)) ||
-        compareTime.equals(end);
+    for (int k = first; k <= last; k++) {
+      count[k]++;
+    }
+    boundary[first] = true;
+    boundary[last + 1] = true;
+
+    // Index of the waveform's first covered sample, found as Waveform.trim does, less the shift
+    Instant firstTime = beamStart.plusNanos(first * nominalSamplePeriod);
+    int firstIndex = (int) Math.ceil(Duration.between(waveform.getStartTime(), firstTime).toMillis()
+        * waveform.getSampleRate() / 1000.0);
+    int indexOffset = firstIndex - shiftSize - first;
+
+    double[] values = waveform.getValues();
+    int from = Math.max(first, -indexOffset);
+    int to = Math.min(last, values.length - 1 - indexOffset);
+    if (coherent) {
+      for (int k = from; k <= to; k++) {
+        sum[k] += values[k + indexOffset];
+      }
+    } else {
+      for (int k = from; k <= to; k++) {
+        sum[k] += Math.abs(values[k + indexOffset]);
+      }
+    }
   }
 
   private boolean isSampleRateInTolerance(Waveform waveform) {
     return Math.abs(waveform.getSampleRate() - nominalSampleRate) <= sampleRateTolerance;
   }
 
-  /**
-   * Adds two double arrays
-   *
-   * @param base   the double array storing the values that will be added to.
-   * @param values the double array that will be added to base
-   * @return the base array with the new values added to it.
-   */
-  private double[] sum(double[] base, double[] values) {
-    double[] sum = new double[base.length];
-    for (int i = 0; i < base.length && i < values.length; i++) {
-      if (coherent) {
-        sum[i] = base[i] + values[i];
-      } else {
-        sum[i] = base[i] + Math.abs(values[i]);
-      }
-    }
-
-    return sum;
-  }
-
   /**
    * Calculates the horizontalSlowness vector from the provided horizontalSlowness, azimuth,
    * incidence, and medium
@@ -207,6 +207,100 @@ public class PlaneWaveAlgorithmTest {
     assertEquals(1.0, beam2.getSampleRate(), 0.0000001);
   }
 
+  @Test
+  public void testShiftedFirstSampleContributes() {
+    // A channel 1 km east, beamed at 0.1 s/km towards the east, is shifted right by 4 samples
+    // at 40 samples/sec; its first sample lines up with sample 4 of the reference channel
+    UUID referenceId = UUID.randomUUID();
+    UUID shiftedId = UUID.randomUUID();
+    Map<UUID, RelativePosition> relativePositions = Map.of(
+        referenceId, RelativePosition.from(0, 0, 0),
+        shiftedId, RelativePosition.from(0, 1, 0));
+
+    double[] referenceValues = new double[10];
+    referenceValues[4] = 1.0;
+    double[] shiftedValues = new double[10];
+    shiftedValues[0] = 1.0;
+
+    List<ChannelSegment<Waveform>> channelSegments = List.of(
+        ChannelSegment.create(referenceId, "Reference", ChannelSegment.Type.RAW,
+            List.of(Waveform.withValues(Instant.EPOCH, 40, referenceValues)),
+            CreationInfo.DEFAULT),
+        ChannelSegment.create(shiftedId, "Shifted", ChannelSegment.Type.RAW,
+            List.of(Waveform.withValues(Instant.EPOCH, 40, shiftedValues)),
+            CreationInfo.DEFAULT));
+
+    PlaneWaveAlgorithm algorithm = new PlaneWaveAlgorithm.Builder()
+        .withNominalSampleRate(40)
+        .withSampleRateTolerance(0.001)
+        .withAzimuth(90)
+        .withHorizontalSlowness(0.1)
+        .withMediumVelocity(1.0)
+        .withSnappedSampling(true)
+        .withCoherence(true)
+        .withDimensionality(true)
+        .withPhaseType(PhaseType.P)
+        .withRelativePositions(relativePositions)
+        .withMinimumWaveformsForBeam(1)
+        .build();
+
+    List<Waveform> beams = algorithm.generateBeam(channelSegments);
+    assertEquals(1, beams.size());
+
+    double[] expected = new double[10];
+    expected[4] = 1.0;
+    assertArrayEquals(expected, beams.get(0).getValues(), 1e-12);
+  }
+
+  @Test
+  public void testAdjacentWaveformsStartNewBeam() {
+    Map<UUID, RelativePosition> relativePositions = new HashMap<>();
+    List<ChannelSegment<Waveform>> channelSegments = new ArrayList<>();
+    Instant startTime = Instant.EPOCH;
+
+    UUID continuousId = UUID.randomUUID();
+    relativePositions.put(continuousId, RelativePosition.from(0, 0, 0));
+    channelSegments.add(ChannelSegment.create(continuousId,
+        "Continuous",
+        ChannelSegment.Type.RAW,
+        List.of(Waveform.withValues(startTime, 1, new double[]{1, 1, 1, 1, 1, 1, 1, 1})),
+        CreationInfo.DEFAULT));
+
+    // The same number of waveforms cover every sample, but the set changes after sample 3
+    UUID splitId = UUID.randomUUID();
+    relativePositions.put(splitId, RelativePosition.from(0, 0, 0));
+    channelSegments.add(ChannelSegment.create(splitId,
+        "Split",
+        ChannelSegment.Type.RAW,
+        List.of(
+            Waveform.withValues(startTime, 1, new double[]{3, 3, 3, 3}),
+            Waveform.withValues(startTime.plusSeconds(4), 1, new double[]{5, 5, 5, 5})),
+        CreationInfo.DEFAULT));
+
+    PlaneWaveAlgorithm algorithm = new PlaneWaveAlgorithm.Builder()
+        .withNominalSampleRate(1)
+        .withSampleRateTolerance(0.001)
+        .withAzimuth(0)
+        .withHorizontalSlowness(0)
+        .withMediumVelocity(1.0)
+        .withSnappedSampling(true)
+        .withCoherence(true)
+        .withDimensionality(true)
+        .withPhaseType(PhaseType.P)
+        .withRelativePositions(relativePositions)
+        .withMinimumWaveformsForBeam(2)
+        .build();
+
+    List<Waveform> beams = algorithm.generateBeam(channelSegments);
+    assertEquals(2, beams.size());
+
+    assertEquals(startTime, beams.get(0).getStartTime());
+    assertArrayEquals(new double[]{2, 2, 2, 2}, beams.get(0).getValues(), 1e-12);
+
+    assertEquals(startTime.plusSeconds(4), beams.get(1).getStartTime());
+    assertArrayEquals(new double[]{3, 3, 3, 3}, beams.get(1).getValues(), 1e-12);
+  }
+
   @Test
   public void testCoherent2D() throws IOException {
     BeamValidationData data =
@@ -2,6 +2,7 @@ package gms.core.signalenhancement.fk.plugin.algorithms;
 
 import com.google.common.primitives.Ints;
 import gms.core.signalenhancement.fk.plugin.algorithms.util.FftUtilities;
+import gms.core.signalenhancement.fk.plugin.algorithms.util.SlidingDft;
 import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.RelativePosition;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.ChannelSegment;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.FkSpectrum;
@@ -12,15 +13,20 @@ import org.apache.commons.lang3.Validate;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Default algorithm for the FK Spectrum plugin
@@ -45,6 +51,22 @@ public class CaponFkSpectrumAlgorithm {
   private final Duration windowLead;
   private final double sampleRate;
   private final int minimumSamplesForSpectra;
+  private final ForkJoinPool pool;
+  private final long maxCachedSteeringFactors;
+
+  /**
+   * Steering vectors computed for the most recent window, reused by later windows with the same
+   * channels and passband frequencies.  Replaced whenever the channels or passband change, so at
+   * most one geometry's steering vectors are held at a time.
+   */
+  private volatile SteeringVectors steeringVectors;
+
+  /**
+   * Default maximum number of complex steering factors (pixels * frequencies * channels) to keep
+   * between windows; 2^21 factors take 32 MiB.  Larger steering vectors are computed a slowness
+   * row at a time as each window is processed instead.
+   */
+  static final long MAX_CACHED_STEERING_FACTORS = 1L << 21;
 
   private static final double SEC_PER_NANO_SEC = 1.0e-9;
   /**
@@ -62,7 +84,8 @@ public class CaponFkSpectrumAlgorithm {
       double highFrequency,
       int eastSlowCount, double eastSlowStart, double eastSlowDelta, int northSlowCount,
       double northSlowStart, double northSlowDelta, Duration windowLength, Duration windowLead,
-      double sampleRate, int minimumSamplesForSpectra) {
+      double sampleRate, int minimumSamplesForSpectra, ForkJoinPool pool,
+      long maxCachedSteeringFactors) {
     this.useChannelVerticalOffsets = useChannelVerticalOffsets;
     this.normalizeWaveforms = normalizeWaveforms;
     this.relativePositionMap = relativePositionMap;
@@ -81,6 +104,8 @@ public class CaponFkSpectrumAlgorithm {
     this.windowLead = windowLead;
     this.sampleRate = sampleRate;
     this.minimumSamplesForSpectra = minimumSamplesForSpectra;
+    this.pool = pool;
+    this.maxCachedSteeringFactors = maxCachedSteeringFactors;
   }
 
   /**
@@ -218,13 +243,15 @@ public class CaponFkSpectrumAlgorithm {
        * The distance between 0 and 1.5, 1.5 and 2.5, and 2.5, and 3.5 is the window length
        * (noted by [-])
        */
+      List<Waveform> snappedWaveforms = snapWaveforms(fkChannelSegments, jitterBaseStartTime);
+      WindowSpectra spectra = new WindowSpectra();
       for (Instant windowStart = jitterBaseStartTime,
            fkStartTime = windowStart.plus(windowLead);
            !windowStart.plus(windowLength).isAfter(endTime);
            fkStartTime = fkStartTime.plus(fkSamplePeriod),
                windowStart = fkStartTime.minus(windowLead)) {
-        generateSingleFk(fkChannelSegments, relativePositionList, windowStart,
-            jitterBaseStartTime).ifPresent(fkList::add);
+        generateSingleFk(snappedWaveforms, relativePositionList, windowStart, spectra)
+            .ifPresent(fkList::add);
       }
     }
 
@@ -237,23 +264,18 @@ public class CaponFkSpectrumAlgorithm {
   }
 
   /**
-   * Gets the subset of waveforms that can be used to calculate an FkSpectrum in the time window
-   * defined by windowStart, windowEnd (inclusive).  This includes rejecting any waveforms that
-   * have sample rates out of tolerance (according the setup of this algorithm), that are within
-   * the allowable jitter (< 1/2 sample period off the jitterBaseStartTime), and contain both the
-   * start and end times, once they have been snapped to the jitter sample
+   * Gets the waveforms that can be used to calculate FkSpectra, snapped to the jitter sample.  This
+   * includes rejecting any waveforms that have sample rates out of tolerance (according the setup
+   * of this algorithm), or that are not within the allowable jitter (< 1/2 sample period off the
+   * jitterBaseStartTime).
    *
-   * @param channelSegments     The channel segments for which the usable subset will be calculated
-   * @param windowStart         The start time of the FkSpectrum
-   * @param windowEnd           The end time of the FkSpectrum
+   * @param channelSegments     The channel segments for which the usable waveforms will be
+   *                            calculated
    * @param jitterBaseStartTime The reference point against which all waveforms are compared for
    *                            jitter.
-   * @return A subset of waveforms suitable for calculating the FkSpectrum defined by the
-   * windowStart and windowEnd.
+   * @return The waveforms suitable for calculating FkSpectra, snapped to the jitter sample
    */
-  private List<Waveform> getWaveformSubset(Collection<ChannelSegment<Waveform>> channelSegments,
-      Instant windowStart,
-      Instant windowEnd,
+  private List<Waveform> snapWaveforms(Collection<ChannelSegment<Waveform>> channelSegments,
       Instant jitterBaseStartTime) {
 
     return channelSegments.stream()
@@ -261,6 +283,26 @@ public class CaponFkSpectrumAlgorithm {
         .filter(this::validateSampleRate)
         .filter(waveform -> jitterCheck(waveform, jitterBaseStartTime))
         .map(waveform -> shiftWaveform(waveform, jitterBaseStartTime))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Gets the subset of snapped waveforms that can be used to calculate an FkSpectrum in the time
+   * window defined by windowStart, windowEnd (inclusive): those that contain both the start and end
+   * times.
+   *
+   * @param snappedWaveforms The waveforms, from {@link #snapWaveforms(Collection, Instant)}, for
+   *                         which the usable subset will be calculated
+   * @param windowStart      The start time of the FkSpectrum
+   * @param windowEnd        The end time of the FkSpectrum
+   * @return A subset of waveforms suitable for calculating the FkSpectrum defined by the
+   * windowStart and windowEnd.
+   */
+  private static List<Waveform> getWaveformSubset(List<Waveform> snappedWaveforms,
+      Instant windowStart,
+      Instant windowEnd) {
+
+    return snappedWaveforms.stream()
         .filter(waveform -> waveform.computeTimeRange().contains(windowStart))
         .filter(waveform -> waveform.computeTimeRange().contains(windowEnd))
         .collect(Collectors.toList());
@@ -529,10 +571,24 @@ public class CaponFkSpectrumAlgorithm {
 
   Optional<FkSpectrum> generateSingleFk(List<ChannelSegment<Waveform>> channelSegments,
       List<RelativePosition> relativePositions, Instant windowStart, Instant minStartTime) {
-    List<Waveform> waveformSubset = getWaveformSubset(channelSegments,
+    return generateSingleFk(snapWaveforms(channelSegments, minStartTime), relativePositions,
+        windowStart, new WindowSpectra());
+  }
+
+  /**
+   * Generates the FkSpectrum for the window starting at windowStart.
+   *
+   * @param snappedWaveforms  The waveforms, from {@link #snapWaveforms(Collection, Instant)}
+   * @param relativePositions The relative position of each channel
+   * @param windowStart       The start time of the window
+   * @param spectra           The channel spectra of the previous window, updated to this window's
+   * @return The FkSpectrum, or empty if too few waveforms cover the window
+   */
+  private Optional<FkSpectrum> generateSingleFk(List<Waveform> snappedWaveforms,
+      List<RelativePosition> relativePositions, Instant windowStart, WindowSpectra spectra) {
+    List<Waveform> waveformSubset = getWaveformSubset(snappedWaveforms,
         windowStart,
-        windowStart.plus(windowLength),
-        minStartTime);
+        windowStart.plus(windowLength));
 
     List<Waveform> windowedWaveforms = waveformSubset.stream()
         .map(waveform -> waveform.trim(windowStart, windowStart.plus(windowLength)))
@@ -543,12 +599,6 @@ public class CaponFkSpectrumAlgorithm {
     }
 
     long numSamples = windowedWaveforms.get(0).getSampleCount();
-    List<double[]> ffts = windowedWaveforms.stream()
-        .map(FftUtilities::computeFftWindow)
-        .collect(Collectors.toList());
-
-    List<double[]> realFfts = FftUtilities.getRealPartOfFfts(ffts);
-    List<double[]> imaginaryFfts = FftUtilities.getImaginaryPartOfFfts(ffts);
 
     double delFrequency = waveformSampleRateHz / numSamples;
 
@@ -567,128 +617,69 @@ public class CaponFkSpectrumAlgorithm {
       passbandFrequencies[i] = frequencyAxis[frequencyBinIndices[i]];
     }
 
-    List<double[]> passBandRealFfts = new ArrayList<>();
-    List<double[]> passBandImaginaryFfts = new ArrayList<>();
-    for (int i = 0; i < realFfts.size() && i < imaginaryFfts.size(); i++) {
-      double[] realFft = realFfts.get(i);
-      double[] imaginaryFft = imaginaryFfts.get(i);
-      double[] realPassBand = new double[numFrequencyBins];
-      double[] imaginaryPassBand = new double[numFrequencyBins];
-      for (int j = 0; j < numFrequencyBins; j++) {
-        int binIndex = frequencyBinIndices[j];
-        realPassBand[j] = realFft[binIndex];
-        imaginaryPassBand[j] = imaginaryFft[binIndex];
-      }
-
-      passBandRealFfts.add(realPassBand);
-      passBandImaginaryFfts.add(imaginaryPassBand);
-    }
-
     int channelCount = windowedWaveforms.size();
 
+    // Passband values of each channel's fft, ordered by frequency and then channel to match the
+    // steering vectors
+    spectra.update(waveformSubset, windowedWaveforms, frequencyBinIndices);
+    double[] realPassBand = spectra.real;
+    double[] imaginaryPassBand = spectra.imaginary;
+
     double sharedScalingFactor = 1 / (Math.pow(channelCount, 2) * Math.pow(numSamples, 2));
 
     // Calculate the average power
     double pAvg = 0.0;
-    for (int i = 0; i < passBandRealFfts.size() && i < passBandImaginaryFfts.size(); i++) {
-      double[] realFftPassBand = passBandRealFfts.get(i);
-      double[] imaginaryFftPassBand = passBandImaginaryFfts.get(i);
-      for (int j = 0; j < realFftPassBand.length && j < imaginaryFftPassBand.length; j++) {
-        double absValue =
-            Math.sqrt(Math.pow(realFftPassBand[j], 2) + Math.pow(imaginaryFftPassBand[j], 2));
-        pAvg += Math.pow(absValue, 2);
-      }
+    for (int k = 0; k < realPassBand.length; k++) {
+      pAvg += realPassBand[k] * realPassBand[k] + imaginaryPassBand[k] * imaginaryPassBand[k];
     }
 
-    pAvg /= (Math.pow(numSamples, 2) * windowedWaveforms.size());
+    pAvg /= (Math.pow(numSamples, 2) * channelCount);
+
+    List<RelativePosition> positions = relativePositions.subList(0, channelCount);
+    Optional<SteeringVectors> cachedSteering = getSteeringVectors(positions, passbandFrequencies);
+    double[] northSlownesses = slownesses(northSlowStart, northSlowDelta, northSlowCount);
+    double[] eastSlownesses = slownesses(eastSlowStart, eastSlowDelta, eastSlowCount);
 
     double[][] fk = new double[northSlowCount][eastSlowCount];
     double[][] fstat = new double[northSlowCount][eastSlowCount];
-    double slowNorth = northSlowStart;
-
-    for (int north = 0; north < northSlowCount; slowNorth += northSlowDelta, north++) {
-      double slowEast = eastSlowStart;
-      for (int east = 0; east < eastSlowCount; slowEast += eastSlowDelta, east++) {
-        // compute sz, the vertical slowness, accounting for measurement errors that could
-        // result in a very small negative vertical slowness.
-        final double ZERO_THRESHOLD = 1.0e-5;
-        double verticalSlowness;
-        if (useChannelVerticalOffsets) {  // compute 3D FK
-          verticalSlowness =
-              1.0 / (mediumVelocityKmPerSec * mediumVelocityKmPerSec)
-                  - Math.pow(slowEast, 2)
-                  - Math.pow(slowNorth, 2);
-          if (verticalSlowness >= ZERO_THRESHOLD) {
-            verticalSlowness = Math.sqrt(verticalSlowness);
-          } else {
-            verticalSlowness = Double.NaN;
-          }
-        } else {  // else compute 2D FK
-          verticalSlowness = 0.0;
-        }
-
-        if (!Double.isNaN(verticalSlowness)) {
-          double[] timeShifts = new double[channelCount];
-          for (int i = 0; i < channelCount; i++) {
-            RelativePosition position = relativePositions.get(i);
-            timeShifts[i] = position.getNorthDisplacementKm() * slowNorth
-                + position.getEastDisplacementKm() * slowEast
-                + position.getVerticalDisplacementKm() + verticalSlowness;
-          }
-
-          // Java doesn't have complex numbers, so we use Euler's formula to handle the second
-          // Fourier Transform
-          // e^(i*theta) = cos(theta) + i*sin(theta)
-          // or, if theta is negative (due to the even/odd properties of sine and cosine)
-          // e^(-i*theta) = cos(theta) - i * sin(theta)
-          // so e^(-2*pi*i*fn*timeshift) = cos(-2*pi*fn*timeshift) + i*sin(-2*pi*fn*timeshift)
-          // where fn is the particular frequency in the passband
-          double[][] thetas = new double[channelCount][numFrequencyBins];
-          double[][] realSpatialFourierFactor = new double[channelCount][numFrequencyBins];
-          double[][] imaginarySpatialFourierFactor = new double[channelCount][numFrequencyBins];
-          for (int i = 0; i < channelCount; i++) {
-            for (int j = 0; j < numFrequencyBins; j++) {
-              thetas[i][j] = -2.0 * Math.PI * timeShifts[i] * passbandFrequencies[j];
-              realSpatialFourierFactor[i][j] = Math.cos(thetas[i][j]);
-              imaginarySpatialFourierFactor[i][j] = Math.sin(thetas[i][j]);
-            }
-          }
+    double averagePower = pAvg;
+    forEachNorthSlowness(north -> {
+      // Steering vectors too large to cache are computed one pixel at a time into these
+      double[] realFactors = null;
+      double[] imaginaryFactors = null;
+      if (!cachedSteering.isPresent()) {
+        realFactors = new double[numFrequencyBins * channelCount];
+        imaginaryFactors = new double[numFrequencyBins * channelCount];
+      }
 
-          double[][] realShiftedWaveforms = new double[channelCount][frequencyBinIndices.length];
-          double[][] imaginaryShiftedWaveforms =
-              new double[channelCount][frequencyBinIndices.length];
-          for (int i = 0; i < realShiftedWaveforms.length; i++) {
-            double[] realWaveformPassBand = passBandRealFfts.get(i);
-            double[] imaginaryWaveformPassBand = passBandImaginaryFfts.get(i);
-            for (int j = 0; j < realShiftedWaveforms[i].length; j++) {
-              // We are multiplying two complex numbers together, without having the ability to
-              // represent them properly, so it looks something like this
-              // 1) FFT'd waveform value after passband = a + b*i
-              // 2) Euler'd Spatial Fourier Factor = c + d*i
-              // 1) * 2) = (a + b*i) (c + d*i) = a*c + (a*d + b*c)i - b*d (minus because of the i^2)
-              // thus, the real portion of the new fft is a*c - b*d
-              // and the imaginary portion if a*d + b*c
-              realShiftedWaveforms[i][j] = realWaveformPassBand[j] * realSpatialFourierFactor[i][j]
-                  - imaginaryWaveformPassBand[j] * imaginarySpatialFourierFactor[i][j];
-              imaginaryShiftedWaveforms[i][j] =
-                  realWaveformPassBand[j] * imaginarySpatialFourierFactor[i][j]
-                      + imaginaryWaveformPassBand[j] * realSpatialFourierFactor[i][j];
-            }
-          }
+      for (int east = 0; east < eastSlowCount; east++) {
+        double[] realSteering = null;
+        double[] imaginarySteering = null;
+        if (cachedSteering.isPresent()) {
+          realSteering = cachedSteering.get().real[north * eastSlowCount + east];
+          imaginarySteering = cachedSteering.get().imaginary[north * eastSlowCount + east];
+        } else if (computePixelSteering(positions, passbandFrequencies, northSlownesses[north],
+            eastSlownesses[east], realFactors, imaginaryFactors)) {
+          realSteering = realFactors;
+          imaginarySteering = imaginaryFactors;
+        }
 
-          // Now we create the beam, and sum it up into a single value that will be the FkPixel
-          double[] realUnaveragedBeam = new double[frequencyBinIndices.length];
-          double[] imaginaryUnaveragedBeam = new double[frequencyBinIndices.length];
+        if (realSteering != null) {
+          // Shift each channel's fft by the steering vector (a complex multiplication, since
+          // Java doesn't have complex numbers: (a + b*i) (c + d*i) = a*c - b*d + (a*d + b*c)i),
+          // beam by summing over channels, and sum the beam's power into a single FkPixel
           double sum = 0;
-          for (int j = 0; j < frequencyBinIndices.length; j++) {
-            for (int i = 0; i < channelCount; i++) {
-              realUnaveragedBeam[j] += realShiftedWaveforms[i][j];
-              imaginaryUnaveragedBeam[j] += imaginaryShiftedWaveforms[i][j];
+          for (int j = 0, k = 0; j < numFrequencyBins; j++) {
+            double realBeam = 0;
+            double imaginaryBeam = 0;
+            for (int i = 0; i < channelCount; i++, k++) {
+              realBeam += realPassBand[k] * realSteering[k]
+                  - imaginaryPassBand[k] * imaginarySteering[k];
+              imaginaryBeam += realPassBand[k] * imaginarySteering[k]
+                  + imaginaryPassBand[k] * realSteering[k];
             }
 
-            double absTimeStep = Math.sqrt(Math.pow(realUnaveragedBeam[j], 2)
-                + Math.pow(imaginaryUnaveragedBeam[j], 2));
-            sum += Math.pow(absTimeStep, 2);
+            sum += realBeam * realBeam + imaginaryBeam * imaginaryBeam;
           }
 
           fk[north][east] = sum * sharedScalingFactor;
@@ -696,15 +687,301 @@ public class CaponFkSpectrumAlgorithm {
           fk[north][east] = Double.NaN;
         }
 
-        fstat[north][east] = computeFStatistic(fk[north][east], pAvg, channelCount);
+        fstat[north][east] = computeFStatistic(fk[north][east], averagePower, channelCount);
       }
-    }
+    });
 
     int fkQual = computeFkQual(fk);
 
     return Optional.of(FkSpectrum.from(fk, fstat, fkQual));
   }
 
+  /**
+   * Gets the steering vectors for the relative positions and passband frequencies, reusing the
+   * cached steering vectors when they were computed for the same inputs.  Every window of an FK
+   * spectrogram has the same passband frequencies, and the same positions unless the available
+   * channels change, so this is computed once per spectrogram.  Steering vectors with more than
+   * the maximum number of cached factors are not computed here, and any cached steering vectors
+   * are dropped.
+   *
+   * @param relativePositions   the relative position of each channel
+   * @param passbandFrequencies the frequencies, in Hz, of the passband fft bins
+   * @return the steering vectors for the relative positions and passband frequencies, or empty if
+   * they are too large to cache
+   */
+  private Optional<SteeringVectors> getSteeringVectors(List<RelativePosition> relativePositions,
+      double[] passbandFrequencies) {
+    SteeringVectors cached = steeringVectors;
+    if (cached != null && cached.isFor(relativePositions, passbandFrequencies)) {
+      return Optional.of(cached);
+    }
+
+    long factors = (long) northSlowCount * eastSlowCount * passbandFrequencies.length
+        * relativePositions.size();
+    if (factors > maxCachedSteeringFactors) {
+      steeringVectors = null;
+      return Optional.empty();
+    }
+
+    SteeringVectors computed = computeSteeringVectors(relativePositions, passbandFrequencies);
+    steeringVectors = computed;
+    return Optional.of(computed);
+  }
+
+  /**
+   * Computes the steering vector e^(-2*pi*i*fn*timeshift) = cos(-2*pi*fn*timeshift) +
+   * i*sin(-2*pi*fn*timeshift) of each channel, at each passband frequency fn, for each pixel of
+   * the slowness grid.
+   *
+   * @param relativePositions   the relative position of each channel
+   * @param passbandFrequencies the frequencies, in Hz, of the passband fft bins
+   * @return the steering vectors for the slowness grid
+   */
+  private SteeringVectors computeSteeringVectors(List<RelativePosition> relativePositions,
+      double[] passbandFrequencies) {
+    int channelCount = relativePositions.size();
+    int numFrequencyBins = passbandFrequencies.length;
+
+    double[] northSlownesses = slownesses(northSlowStart, northSlowDelta, northSlowCount);
+    double[] eastSlownesses = slownesses(eastSlowStart, eastSlowDelta, eastSlowCount);
+
+    double[][] real = new double[northSlowCount * eastSlowCount][];
+    double[][] imaginary = new double[northSlowCount * eastSlowCount][];
+    forEachNorthSlowness(north -> {
+      for (int east = 0; east < eastSlowCount; east++) {
+        double[] realFactors = new double[numFrequencyBins * channelCount];
+        double[] imaginaryFactors = new double[numFrequencyBins * channelCount];
+        if (computePixelSteering(relativePositions, passbandFrequencies, northSlownesses[north],
+            eastSlownesses[east], realFactors, imaginaryFactors)) {
+          real[north * eastSlowCount + east] = realFactors;
+          imaginary[north * eastSlowCount + east] = imaginaryFactors;
+        }
+      }
+    });
+
+    return new SteeringVectors(new ArrayList<>(relativePositions), passbandFrequencies.clone(),
+        real, imaginary);
+  }
+
+  /**
+   * Computes the steering vector of each channel, at each passband frequency, for one pixel of the
+   * slowness grid.
+   *
+   * @param relativePositions   the relative position of each channel
+   * @param passbandFrequencies the frequencies, in Hz, of the passband fft bins
+   * @param slowNorth           the north slowness of the pixel
+   * @param slowEast            the east slowness of the pixel
+   * @param realFactors         receives the real parts, indexed by [frequency * channelCount +
+   *                            channel]
+   * @param imaginaryFactors    receives the imaginary parts, indexed like realFactors
+   * @return false if the pixel has no real vertical slowness, in which case the factors are not
+   * computed
+   */
+  private boolean computePixelSteering(List<RelativePosition> relativePositions,
+      double[] passbandFrequencies, double slowNorth, double slowEast, double[] realFactors,
+      double[] imaginaryFactors) {
+    int channelCount = relativePositions.size();
+
+    // compute sz, the vertical slowness, accounting for measurement errors that could
+    // result in a very small negative vertical slowness.
+    final double ZERO_THRESHOLD = 1.0e-5;
+    double verticalSlowness;
+    if (useChannelVerticalOffsets) {  // compute 3D FK
+      verticalSlowness =
+          1.0 / (mediumVelocityKmPerSec * mediumVelocityKmPerSec)
+              - slowEast * slowEast
+              - slowNorth * slowNorth;
+      if (verticalSlowness >= ZERO_THRESHOLD) {
+        verticalSlowness = Math.sqrt(verticalSlowness);
+      } else {
+        return false;
+      }
+    } else {  // else compute 2D FK
+      verticalSlowness = 0.0;
+    }
+
+    double[] timeShifts = new double[channelCount];
+    for (int i = 0; i < channelCount; i++) {
+      RelativePosition position = relativePositions.get(i);
+      timeShifts[i] = position.getNorthDisplacementKm() * slowNorth
+          + position.getEastDisplacementKm() * slowEast
+          + position.getVerticalDisplacementKm() + verticalSlowness;
+    }
+
+    for (int j = 0, k = 0; j < passbandFrequencies.length; j++) {
+      for (int i = 0; i < channelCount; i++, k++) {
+        double theta = -2.0 * Math.PI * timeShifts[i] * passbandFrequencies[j];
+        realFactors[k] = Math.cos(theta);
+        imaginaryFactors[k] = Math.sin(theta);
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * Computes the slowness of each sample along one axis of the slowness grid
+   */
+  private static double[] slownesses(double start, double delta, int count) {
+    double[] slownesses = new double[count];
+    double slowness = start;
+    for (int i = 0; i < count; slowness += delta, i++) {
+      slownesses[i] = slowness;
+    }
+
+    return slownesses;
+  }
+
+  /**
+   * Runs the action for each north slowness index of the slowness grid, in parallel on this
+   * algorithm's pool.  Each index is processed by exactly one thread.
+   */
+  private void forEachNorthSlowness(IntConsumer action) {
+    pool.submit(() -> IntStream.range(0, northSlowCount).parallel().forEach(action)).join();
+  }
+
+  /**
+   * The passband fft values of each channel in the most recent window, ordered by frequency and
+   * then channel ([frequency * channelCount + channel]).  When a window contains the same waveforms
+   * as the previous window, moved forward by a hop that is cheaper to slide than to transform, the
+   * values are slid forward with a {@link SlidingDft} rather than recomputed from an FFT.
+   */
+  private static final class WindowSpectra {
+
+    private List<Waveform> waveforms = Collections.emptyList();
+    private final Map<Waveform, double[]> waveformValues = new IdentityHashMap<>();
+    private int[] startIndices;
+    private int[] bins;
+    private long numSamples;
+    private SlidingDft slidingDft;
+    private int slidingDftHop;
+    private int slides;
+    private double[] real;
+    private double[] imaginary;
+
+    /**
+     * Updates the passband fft values to the window given by windowedWaveforms
+     *
+     * @param waveformSubset    The (snapped) waveforms covering the window
+     * @param windowedWaveforms Each waveform in waveformSubset trimmed to the window
+     * @param bins              The indices of the passband fft bins
+     */
+    private void update(List<Waveform> waveformSubset, List<Waveform> windowedWaveforms,
+        int[] bins) {
+      int channelCount = waveformSubset.size();
+      long windowSamples = windowedWaveforms.get(0).getSampleCount();
+
+      int[] windowStartIndices = new int[channelCount];
+      for (int i = 0; i < channelCount; i++) {
+        Waveform waveform = waveformSubset.get(i);
+        windowStartIndices[i] = (int) Math.round(
+            Duration.between(waveform.getStartTime(), windowedWaveforms.get(i).getStartTime())
+                .toNanos() * waveform.getSampleRate() / 1.0e9);
+      }
+
+      int hop = slidableHop(waveformSubset, windowedWaveforms, windowStartIndices, windowSamples,
+          bins);
+      if (hop > 0) {
+        if (slidingDft == null || hop != slidingDftHop) {
+          slidingDft = new SlidingDft((int) windowSamples, hop, bins);
+          slidingDftHop = hop;
+        }
+
+        for (int i = 0; i < channelCount; i++) {
+          slidingDft.slide(waveformValues.computeIfAbsent(waveformSubset.get(i),
+              Waveform::getValues), startIndices[i], real, imaginary, i, channelCount);
+        }
+        slides++;
+      } else {
+        List<double[]> ffts = windowedWaveforms.stream()
+            .map(FftUtilities::computeFftWindow)
+            .collect(Collectors.toList());
+
+        List<double[]> realFfts = FftUtilities.getRealPartOfFfts(ffts);
+        List<double[]> imaginaryFfts = FftUtilities.getImaginaryPartOfFfts(ffts);
+
+        real = new double[bins.length * channelCount];
+        imaginary = new double[bins.length * channelCount];
+        for (int i = 0; i < channelCount; i++) {
+          double[] realFft = realFfts.get(i);
+          double[] imaginaryFft = imaginaryFfts.get(i);
+          for (int j = 0; j < bins.length; j++) {
+            real[j * channelCount + i] = realFft[bins[j]];
+            imaginary[j * channelCount + i] = imaginaryFft[bins[j]];
+          }
+        }
+        if (windowSamples != numSamples || !Arrays.equals(bins, this.bins)) {
+          slidingDft = null;
+        }
+        slides = 0;
+      }
+
+      this.waveforms = waveformSubset;
+      this.startIndices = windowStartIndices;
+      this.bins = bins;
+      this.numSamples = windowSamples;
+    }
+
+    /**
+     * Gets the number of samples the previous window's values can be slid forward to reach the
+     * window given by windowedWaveforms, or 0 if they must be recomputed.  Sliding requires the
+     * same waveforms, window length and bins as the previous window, every waveform's window to
+     * move forward by the same hop, and for the slide to be cheaper than an FFT.  The values are
+     * also recomputed after {@link SlidingDft#MAX_SLIDES} slides to bound rounding error.
+     */
+    private int slidableHop(List<Waveform> waveformSubset, List<Waveform> windowedWaveforms,
+        int[] windowStartIndices, long windowSamples, int[] bins) {
+
+      if (real == null || slides >= SlidingDft.MAX_SLIDES || windowSamples != numSamples
+          || waveformSubset.size() != waveforms.size() || !Arrays.equals(bins, this.bins)) {
+        return 0;
+      }
+
+      int hop = windowStartIndices[0] - startIndices[0];
+      if (!SlidingDft.isCheaperThanFft((int) windowSamples, hop, bins.length)) {
+        return 0;
+      }
+
+      for (int i = 0; i < waveformSubset.size(); i++) {
+        if (waveformSubset.get(i) != waveforms.get(i)
+            || windowStartIndices[i] - startIndices[i] != hop
+            || windowedWaveforms.get(i).getSampleCount() != windowSamples) {
+          return 0;
+        }
+      }
+
+      return hop;
+    }
+  }
+
+  /**
+   * Steering vectors for each pixel of the slowness grid, computed for a list of channel relative
+   * positions and passband frequencies.  The real and imaginary parts of each pixel's steering
+   * vectors are indexed by [north * eastSlowCount + east][frequency * channelCount + channel], and
+   * are null for pixels without a real vertical slowness.
+   */
+  private static final class SteeringVectors {
+
+    private final List<RelativePosition> relativePositions;
+    private final double[] passbandFrequencies;
+    private final double[][] real;
+    private final double[][] imaginary;
+
+    private SteeringVectors(List<RelativePosition> relativePositions,
+        double[] passbandFrequencies, double[][] real, double[][] imaginary) {
+      this.relativePositions = relativePositions;
+      this.passbandFrequencies = passbandFrequencies;
+      this.real = real;
+      this.imaginary = imaginary;
+    }
+
+    private boolean isFor(List<RelativePosition> relativePositions,
+        double[] passbandFrequencies) {
+      return Arrays.equals(this.passbandFrequencies, passbandFrequencies)
+          && this.relativePositions.equals(relativePositions);
+    }
+  }
+
   /**
    * Compute the FFT Frequency Bin Array for an array with N Samples. Based on the NumPy library
    * function numpy.fft.fftfreq found here: https://docs.scipy
@@ -767,8 +1044,10 @@ public class CaponFkSpectrumAlgorithm {
   public Builder toBuilder() {
     return new Builder()
         .useChannelVerticalOffsets(useChannelVerticalOffsets)
+        .normalizeWaveforms(normalizeWaveforms)
         .withRelativePositionMap(relativePositionMap)
         .withWaveformSampleRateHz(waveformSampleRateHz)
+        .withWaveformSampleRateToleranceHz(waveformSampleRateToleranceHz)
         .withMediumVelocityKmPerSec(mediumVelocityKmPerSec)
         .withLowFrequency(lowFrequency)
         .withHighFrequency(highFrequency)
@@ -780,7 +1059,17 @@ public class CaponFkSpectrumAlgorithm {
         .withNorthSlowDelta(northSlowDelta)
         .withWindowLead(windowLead)
         .withWindowLength(windowLength)
-        .withSampleRate(sampleRate);
+        .withSampleRate(sampleRate)
+        .withMinimumWaveformsForSpectra(minimumSamplesForSpectra)
+        .withPool(pool)
+        .withMaxCachedSteeringFactors(maxCachedSteeringFactors);
+  }
+
+  /**
+   * @return the maximum number of complex steering factors kept between windows
+   */
+  long getMaxCachedSteeringFactors() {
+    return maxCachedSteeringFactors;
   }
 
   /**
@@ -814,6 +1103,8 @@ public class CaponFkSpectrumAlgorithm {
     private Duration windowLead;
     private double sampleRate;
     private int minimumWaveformsForSpectra;
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+    private long maxCachedSteeringFactors = MAX_CACHED_STEERING_FACTORS;
 
     /**
      * Sets whether the {@link CaponFkSpectrumAlgorithm} should calculate 2D or 3D FK Spectra
@@ -1121,6 +1412,44 @@ public class CaponFkSpectrumAlgorithm {
       return this;
     }
 
+    /**
+     * Sets the pool on which the pixels of the slowness grid are computed in parallel.  Defaults to
+     * the {@link ForkJoinPool#commonPool()}.
+     *
+     * @param pool the pool on which to compute FK Spectra, not null
+     * @return this builder
+     * @throws IllegalStateException if the Builder has already been used to create a {@link
+     *                               CaponFkSpectrumAlgorithm}
+     */
+    public Builder withPool(ForkJoinPool pool) {
+      if (built) {
+        throw new IllegalStateException(ALREADY_BUILT_MESSAGE);
+      }
+
+      this.pool = pool;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of complex steering factors (slowness grid pixels * passband
+     * frequencies * channels) kept between the windows of a spectrogram.  Steering vectors with
+     * more factors are recomputed for each window.  Defaults to {@link
+     * #MAX_CACHED_STEERING_FACTORS}.
+     *
+     * @param maxCachedSteeringFactors the maximum number of factors to cache, not negative
+     * @return this builder
+     * @throws IllegalStateException if the Builder has already been used to create a {@link
+     *                               CaponFkSpectrumAlgorithm}
+     */
+    public Builder withMaxCachedSteeringFactors(long maxCachedSteeringFactors) {
+      if (built) {
+        throw new IllegalStateException(ALREADY_BUILT_MESSAGE);
+      }
+
+      this.maxCachedSteeringFactors = maxCachedSteeringFactors;
+      return this;
+    }
+
     /**
      * Builds the {@link CaponFkSpectrumAlgorithm} from the parameters defined during the build
      * phase.
@@ -1146,6 +1475,9 @@ public class CaponFkSpectrumAlgorithm {
       Objects.requireNonNull(windowLength,
           "CaponFkSpectrumAlgorithm cannot be built from null window length");
 
+      Objects.requireNonNull(pool,
+          "CaponFkSpectrumAlgorithm cannot be built from null pool");
+
       Validate.isTrue(Double.compare(waveformSampleRateHz, 0) > 0,
           "Waveform sample rate (Hz) must be greater than 0");
 
@@ -1176,6 +1508,9 @@ public class CaponFkSpectrumAlgorithm {
       Validate.isTrue(minimumWaveformsForSpectra > 1,
           "Minimum waveforms required to create an FkSpectrum must be greater than 1");
 
+      Validate.isTrue(maxCachedSteeringFactors >= 0,
+          "Maximum cached steering factors must be non-negative");
+
       built = true;
       return new CaponFkSpectrumAlgorithm(useChannelVerticalOffsets,
           normalizeWaveforms,
@@ -1185,7 +1520,7 @@ public class CaponFkSpectrumAlgorithm {
           mediumVelocityKmPerSec,
           lowFrequency, highFrequency, eastSlowCount, eastSlowStart, eastSlowDelta,
           northSlowCount, northSlowStart, northSlowDelta, windowLength, windowLead,
-          sampleRate, minimumWaveformsForSpectra);
+          sampleRate, minimumWaveformsForSpectra, pool, maxCachedSteeringFactors);
     }
   }
 
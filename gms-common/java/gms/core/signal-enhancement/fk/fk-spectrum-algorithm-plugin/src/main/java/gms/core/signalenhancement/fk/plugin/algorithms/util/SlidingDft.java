@@ -0,0 +1,172 @@
+package gms.core.signalenhancement.fk.plugin.algorithms.util;
+
+import java.util.Objects;
+
+/**
+ * Slides selected DFT bins of a fixed length window forward through a signal.  Moving the window
+ * forward by hop samples only needs the hop samples leaving and entering the window:
+ * <p>
+ * X_(s+H)[k] = e^(2*pi*i*k*H/N) * (X_s[k] + sum{m=0 to H-1}[(x[s+N+m] - x[s+m]) *
+ * e^(-2*pi*i*k*m/N)])
+ * <p>
+ * where X_s[k] is bin k of the N sample window starting at sample s.  This costs O(H) per bin
+ * rather than the O(N log N) of recomputing the window's FFT, which is cheaper when successive
+ * windows overlap heavily and only a band of bins is needed.
+ * <p>
+ * Each slide adds a little rounding error to the bins, so callers should periodically recompute
+ * the bins from an FFT; see {@link #MAX_SLIDES}.
+ */
+public class SlidingDft {
+
+  /**
+   * Number of slides after which the bins should be recomputed from an FFT, bounding the
+   * accumulated rounding error to around MAX_SLIDES * hop ulps of the bins' magnitude
+   */
+  public static final int MAX_SLIDES = 64;
+
+  private final int windowLength;
+  private final int hop;
+  private final int[] bins;
+
+  /**
+   * For each bin, the index of the bin it is the complex conjugate of (the bin at the negated
+   * frequency, for a real signal), or -1 if the bin is slid
+   */
+  private final int[] conjugateOf;
+
+  /**
+   * e^(-2*pi*i*k*m/N) for each bin k and m in [0, hop), indexed by [bin * hop + m]
+   */
+  private final double[] realTwiddles;
+  private final double[] imaginaryTwiddles;
+
+  /**
+   * e^(2*pi*i*k*H/N) for each bin k
+   */
+  private final double[] realRotations;
+  private final double[] imaginaryRotations;
+
+  /**
+   * Creates a SlidingDft moving a windowLength sample window forward hop samples at a time.
+   *
+   * @param windowLength number of samples in the window, N, > 0
+   * @param hop number of samples the window moves per slide, in (0, windowLength)
+   * @param bins DFT bins to slide, each in [0, windowLength), not null
+   * @throws NullPointerException if bins is null
+   * @throws IllegalArgumentException if hop is not in (0, windowLength) or a bin is not in [0,
+   * windowLength)
+   */
+  public SlidingDft(int windowLength, int hop, int[] bins) {
+    Objects.requireNonNull(bins, "SlidingDft requires non-null bins");
+
+    if (hop <= 0 || hop >= windowLength) {
+      throw new IllegalArgumentException("SlidingDft requires hop in (0, windowLength)");
+    }
+
+    for (int bin : bins) {
+      if (bin < 0 || bin >= windowLength) {
+        throw new IllegalArgumentException("SlidingDft requires bins in [0, windowLength)");
+      }
+    }
+
+    this.windowLength = windowLength;
+    this.hop = hop;
+    this.bins = bins.clone();
+
+    this.conjugateOf = new int[bins.length];
+    for (int j = 0; j < bins.length; j++) {
+      conjugateOf[j] = -1;
+      int negated = (windowLength - bins[j]) % windowLength;
+      if (negated < bins[j]) {
+        for (int other = 0; other < bins.length; other++) {
+          if (bins[other] == negated) {
+            conjugateOf[j] = other;
+            break;
+          }
+        }
+      }
+    }
+
+    this.realTwiddles = new double[bins.length * hop];
+    this.imaginaryTwiddles = new double[bins.length * hop];
+    this.realRotations = new double[bins.length];
+    this.imaginaryRotations = new double[bins.length];
+    for (int j = 0; j < bins.length; j++) {
+      for (int m = 0; m < hop; m++) {
+        double angle = -angle(bins[j], m);
+        realTwiddles[j * hop + m] = Math.cos(angle);
+        imaginaryTwiddles[j * hop + m] = Math.sin(angle);
+      }
+
+      double angle = angle(bins[j], hop);
+      realRotations[j] = Math.cos(angle);
+      imaginaryRotations[j] = Math.sin(angle);
+    }
+  }
+
+  /**
+   * Determines whether sliding is expected to be cheaper than recomputing each window's FFT, by
+   * comparing the hop * bins complex multiply-adds of a slide with the N log2(N) cost of an FFT.
+   *
+   * @param windowLength number of samples in the window
+   * @param hop number of samples the window moves per slide
+   * @param numBins number of bins to slide
+   * @return true if sliding is expected to be cheaper
+   */
+  public static boolean isCheaperThanFft(int windowLength, int hop, int numBins) {
+    long slideCost = (long) hop * numBins;
+    long fftCost =
+        (long) windowLength * (Integer.SIZE - Integer.numberOfLeadingZeros(windowLength));
+    return hop > 0 && hop < windowLength && slideCost < fftCost;
+  }
+
+  /**
+   * Slides the bins of the window starting at values[windowStart] forward to the window starting
+   * at values[windowStart + hop].  The bins are stored at real[offset + j * stride] and
+   * imaginary[offset + j * stride] for each bin j, so a single pair of arrays can hold the bins of
+   * several signals.
+   *
+   * @param values the signal, containing at least windowStart + windowLength + hop samples, not
+   * null
+   * @param windowStart index of the first sample of the window the bins are currently for
+   * @param real real parts of the bins, updated in place, not null
+   * @param imaginary imaginary parts of the bins, updated in place, not null
+   * @param offset index of the first bin in real and imaginary
+   * @param stride distance between successive bins in real and imaginary
+   */
+  public void slide(double[] values, int windowStart, double[] real, double[] imaginary,
+      int offset, int stride) {
+
+    for (int j = 0; j < bins.length; j++) {
+      if (conjugateOf[j] >= 0) {
+        continue;
+      }
+
+      double sumReal = real[offset + j * stride];
+      double sumImaginary = imaginary[offset + j * stride];
+      for (int m = 0, t = j * hop; m < hop; m++, t++) {
+        double difference = values[windowStart + windowLength + m] - values[windowStart + m];
+        sumReal += difference * realTwiddles[t];
+        sumImaginary += difference * imaginaryTwiddles[t];
+      }
+
+      real[offset + j * stride] = realRotations[j] * sumReal - imaginaryRotations[j] * sumImaginary;
+      imaginary[offset + j * stride] =
+          realRotations[j] * sumImaginary + imaginaryRotations[j] * sumReal;
+    }
+
+    for (int j = 0; j < bins.length; j++) {
+      if (conjugateOf[j] >= 0) {
+        real[offset + j * stride] = real[offset + conjugateOf[j] * stride];
+        imaginary[offset + j * stride] = -imaginary[offset + conjugateOf[j] * stride];
+      }
+    }
+  }
+
+  /**
+   * Computes 2*pi*k*m/N, reducing k*m modulo N first so large products don't lose precision
+   */
+  private double angle(int bin, int m) {
+    return 2.0 * Math.PI * (((long) bin * m) % windowLength) / windowLength;
+  }
+}
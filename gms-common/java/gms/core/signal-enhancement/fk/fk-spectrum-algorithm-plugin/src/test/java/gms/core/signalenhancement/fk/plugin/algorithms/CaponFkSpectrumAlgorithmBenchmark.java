@@ -0,0 +1,111 @@
+package gms.core.signalenhancement.fk.plugin.algorithms;
+
+import gms.shared.mechanisms.objectstoragedistribution.coi.emerging.provenance.commonobjects.CreationInfo;
+import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.RelativePosition;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.ChannelSegment;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.ChannelSegment.Type;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.FkSpectrum;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.Waveform;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmark of {@link CaponFkSpectrumAlgorithm} computing an FK spectrogram, on an 81 x 81
+ * slowness grid, over a minute of noise on a synthetic 20 element array.  Run with:
+ * java -cp (test runtime classpath) org.openjdk.jmh.Main CaponFkSpectrumAlgorithmBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class CaponFkSpectrumAlgorithmBenchmark {
+
+  private static final double SAMPLE_RATE = 40.0;
+  private static final int WAVEFORM_SECONDS = 60;
+  private static final int CHANNEL_COUNT = 20;
+
+  /**
+   * Number of threads computing slowness pixels
+   */
+  @Param({"1", "4"})
+  public int parallelism;
+
+  private ForkJoinPool pool;
+  private CaponFkSpectrumAlgorithm algorithm;
+  private List<ChannelSegment<Waveform>> channelSegments;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(CHANNEL_COUNT);
+    Map<UUID, RelativePosition> relativePositions = new HashMap<>();
+    channelSegments = new ArrayList<>();
+    for (int i = 0; i < CHANNEL_COUNT; i++) {
+      // Elements on two rings, as for a typical small aperture array
+      double radius = i < CHANNEL_COUNT / 2 ? 1.0 : 2.5;
+      double angle = 2.0 * Math.PI * i / (CHANNEL_COUNT / 2.0);
+      UUID channelId = UUID.randomUUID();
+      relativePositions.put(channelId, RelativePosition
+          .from(radius * Math.cos(angle), radius * Math.sin(angle), 0.0));
+
+      double[] values = random.doubles((int) (WAVEFORM_SECONDS * SAMPLE_RATE))
+          .map(d -> d - 0.5).toArray();
+      channelSegments.add(ChannelSegment.create(channelId, "channel" + i, Type.RAW,
+          List.of(Waveform.withValues(Instant.EPOCH, SAMPLE_RATE, values)),
+          CreationInfo.DEFAULT));
+    }
+
+    pool = new ForkJoinPool(parallelism);
+    algorithm = new CaponFkSpectrumAlgorithm.Builder()
+        .useChannelVerticalOffsets(false)
+        .normalizeWaveforms(false)
+        .withRelativePositionMap(relativePositions)
+        .withWaveformSampleRateHz(SAMPLE_RATE)
+        .withMediumVelocityKmPerSec(5.8)
+        .withLowFrequency(1.0)
+        .withHighFrequency(3.0)
+        .withEastSlowStart(-0.36)
+        .withEastSlowDelta(0.009)
+        .withEastSlowCount(81)
+        .withNorthSlowStart(-0.36)
+        .withNorthSlowDelta(0.009)
+        .withNorthSlowCount(81)
+        .withWindowLead(Duration.ofSeconds(1))
+        .withWindowLength(Duration.ofSeconds(4))
+        .withSampleRate(2.0)
+        .withMinimumWaveformsForSpectra(2)
+        .withPool(pool)
+        .build();
+  }
+
+  @TearDown
+  public void tearDown() {
+    pool.shutdown();
+  }
+
+  @Benchmark
+  public List<FkSpectrum> generateFk() {
+    return algorithm.generateFk(channelSegments);
+  }
+}
@@ -25,6 +25,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -154,6 +155,9 @@ public class CaponFkSpectrumAlgorithmTests {
     CaponFkSpectrumAlgorithm.Builder nullWindowLength = baseAlgorithm.toBuilder()
         .withWindowLength(null);
 
+    CaponFkSpectrumAlgorithm.Builder nullPool = baseAlgorithm.toBuilder()
+        .withPool(null);
+
     CaponFkSpectrumAlgorithm.Builder shortWindowLength = baseAlgorithm.toBuilder()
         .withWindowLead(Duration.ofSeconds(5))
         .withWindowLength(Duration.ofSeconds(2));
@@ -181,6 +185,7 @@ public class CaponFkSpectrumAlgorithmTests {
         () -> assertThrows(IllegalArgumentException.class, emptyRelativePositions::build),
         () -> assertThrows(NullPointerException.class, nullWindowLead::build),
         () -> assertThrows(NullPointerException.class, nullWindowLength::build),
+        () -> assertThrows(NullPointerException.class, nullPool::build),
         () -> assertThrows(IllegalArgumentException.class, shortWindowLength::build),
         () -> assertThrows(IllegalArgumentException.class, negativeWindowLength::build),
         () -> assertThrows(IllegalArgumentException.class, negativeWindowLead::build),
@@ -189,6 +194,32 @@ public class CaponFkSpectrumAlgorithmTests {
         () -> assertThrows(IllegalArgumentException.class, tooHighFrequency::build));
   }
 
+  @Test
+  public void testToBuilderKeepsMaxCachedSteeringFactors() {
+    CaponFkSpectrumAlgorithm algorithm = new CaponFkSpectrumAlgorithm.Builder()
+        .withSampleRate(WF_SAMPLE_RATE)
+        .withLowFrequency(LOW_FREQ)
+        .withHighFrequency(HIGH_FREQ)
+        .withWindowLead(Duration.ZERO)
+        .withWindowLength(Duration.ofSeconds(1))
+        .withMediumVelocityKmPerSec(2.5)
+        .withRelativePositionMap(Map.of(UUID.randomUUID(), RelativePosition.from(0.0, 0.0, 0.0)))
+        .withWaveformSampleRateHz(WF_SAMPLE_RATE)
+        .withEastSlowStart(1.0)
+        .withEastSlowDelta(0.1)
+        .withEastSlowCount(20)
+        .withNorthSlowStart(1.0)
+        .withNorthSlowDelta(0.1)
+        .withNorthSlowCount(20)
+        .withMinimumWaveformsForSpectra(2)
+        .withMaxCachedSteeringFactors(1234)
+        .build();
+
+    assertEquals(1234, algorithm.toBuilder().build().getMaxCachedSteeringFactors());
+    assertEquals(0, algorithm.toBuilder().withMaxCachedSteeringFactors(0).build()
+        .getMaxCachedSteeringFactors());
+  }
+
   @Test
   public void testGenerateFkValidation() {
     Map<UUID, RelativePosition> relativePositionsByChannelId = Map.of(
@@ -536,6 +567,73 @@ public class CaponFkSpectrumAlgorithmTests {
     }
   }
 
+  @Test
+  public void testGenerateMultipleFksOnPool() {
+    List<ChannelSegment<Waveform>> channelSegments = new ArrayList<>();
+    Map<UUID, RelativePosition> relativePositionMap = new HashMap<>();
+    for (int i = 0; i < baseWaveforms.size() && i < relativePositions.size(); i++) {
+      double[] data = baseWaveforms.get(i);
+      Waveform waveform = Waveform.withValues(Instant.EPOCH, 40.0, data);
+
+      UUID uuid = UUID.randomUUID();
+      channelSegments.add(ChannelSegment.from(UUID.randomUUID(),
+          uuid,
+          "channel" + i,
+          Type.RAW,
+          List.of(waveform),
+          CreationInfo.DEFAULT));
+
+      relativePositionMap.put(uuid, relativePositions.get(i));
+    }
+
+    // Steering vectors are cached by default, and recomputed for each window when too large
+    for (long maxCachedFactors : new long[]{CaponFkSpectrumAlgorithm.MAX_CACHED_STEERING_FACTORS,
+        0}) {
+      for (int parallelism : new int[]{1, 3}) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+          CaponFkSpectrumAlgorithm algorithm = new CaponFkSpectrumAlgorithm.Builder()
+              .useChannelVerticalOffsets(false)
+              .normalizeWaveforms(false)
+              .withLowFrequency(MULTIPLE_FK_LOW_FREQUENCY)
+              .withHighFrequency(MULTIPLE_FK_HIGH_FREQUENCY)
+              .withWaveformSampleRateHz(WF_SAMPLE_RATE)
+              .withSampleRate(FK_SAMPLE_RATE)
+              .withEastSlowStart(EAST_SLOW_START)
+              .withEastSlowDelta(EAST_SLOW_DELTA)
+              .withEastSlowCount(EAST_SLOW_COUNT)
+              .withNorthSlowStart(NORTH_SLOW_START)
+              .withNorthSlowDelta(NORTH_SLOW_DELTA)
+              .withNorthSlowCount(NORTH_SLOW_COUNT)
+              .withWindowLead(WINDOW_LEAD)
+              .withWindowLength(WINDOW_LENGTH)
+              .withRelativePositionMap(relativePositionMap)
+              .withMinimumWaveformsForSpectra(MIN_WAVEFORMS)
+              .withPool(pool)
+              .withMaxCachedSteeringFactors(maxCachedFactors)
+              .build();
+
+          // The second call reuses any steering vectors cached by the first
+          for (int call = 0; call < 2; call++) {
+            List<FkSpectrum> fkSpectrumList = algorithm.generateFk(channelSegments);
+            assertEquals(baseFks.size(), fkSpectrumList.size());
+
+            for (int i = 0; i < baseFks.size(); i++) {
+              FkSpectrum expected = baseFks.get(i);
+              FkSpectrum actual = fkSpectrumList.get(i);
+
+              compareArrays(expected.getPower(), actual.getPower());
+              compareArrays(expected.getFstat(), actual.getFstat());
+              assertEquals(expected.getQuality(), actual.getQuality());
+            }
+          }
+        } finally {
+          pool.shutdown();
+        }
+      }
+    }
+  }
+
   @Test
   public void testMultipleFkFromWaveformWithGaps() {
     List<ChannelSegment<Waveform>> channelSegments = new ArrayList<>();
@@ -0,0 +1,94 @@
+package gms.core.signalenhancement.fk.plugin.algorithms.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class SlidingDftTest {
+
+  @Rule
+  public final ExpectedException exception = ExpectedException.none();
+
+  private static final int WINDOW_LENGTH = 40;
+
+  /**
+   * Assert sliding a window through noise matches the directly computed DFT of each window,
+   * including the DC, Nyquist and a pair of conjugate bins
+   */
+  @Test
+  public void testSlideMatchesDirectDft() {
+    final double[] values = new Random(WINDOW_LENGTH).doubles(400).map(d -> d - 0.5).toArray();
+    final int hop = 3;
+    final int[] bins = {0, 4, 5, 6, 20, WINDOW_LENGTH - 5};
+    final SlidingDft slidingDft = new SlidingDft(WINDOW_LENGTH, hop, bins);
+
+    // Two interleaved signals sharing the arrays, as stride 2 offsets 0 and 1
+    final double[] real = new double[bins.length * 2];
+    final double[] imaginary = new double[bins.length * 2];
+    for (int j = 0; j < bins.length; ++j) {
+      final double[] bin = dft(values, 0, bins[j]);
+      real[2 * j + 1] = bin[0];
+      imaginary[2 * j + 1] = bin[1];
+    }
+
+    for (int start = 0; start + WINDOW_LENGTH + hop <= values.length; start += hop) {
+      slidingDft.slide(values, start, real, imaginary, 1, 2);
+
+      for (int j = 0; j < bins.length; ++j) {
+        final double[] expected = dft(values, start + hop, bins[j]);
+        assertEquals(expected[0], real[2 * j + 1], 1e-12);
+        assertEquals(expected[1], imaginary[2 * j + 1], 1e-12);
+        assertEquals(0.0, real[2 * j], 0.0);
+        assertEquals(0.0, imaginary[2 * j], 0.0);
+      }
+    }
+  }
+
+  @Test
+  public void testIsCheaperThanFft() {
+    assertTrue(SlidingDft.isCheaperThanFft(160, 20, 40));
+    assertFalse(SlidingDft.isCheaperThanFft(160, 20, 80));
+    assertFalse(SlidingDft.isCheaperThanFft(160, 0, 1));
+    assertFalse(SlidingDft.isCheaperThanFft(160, 160, 1));
+  }
+
+  @Test
+  public void testConstructNullBinsExpectNullPointerException() {
+    exception.expect(NullPointerException.class);
+    exception.expectMessage("SlidingDft requires non-null bins");
+    new SlidingDft(WINDOW_LENGTH, 1, null);
+  }
+
+  @Test
+  public void testConstructHopTooLargeExpectIllegalArgumentException() {
+    exception.expect(IllegalArgumentException.class);
+    exception.expectMessage("SlidingDft requires hop in (0, windowLength)");
+    new SlidingDft(WINDOW_LENGTH, WINDOW_LENGTH, new int[]{1});
+  }
+
+  @Test
+  public void testConstructBinOutOfRangeExpectIllegalArgumentException() {
+    exception.expect(IllegalArgumentException.class);
+    exception.expectMessage("SlidingDft requires bins in [0, windowLength)");
+    new SlidingDft(WINDOW_LENGTH, 1, new int[]{WINDOW_LENGTH});
+  }
+
+  /**
+   * Computes bin of the WINDOW_LENGTH sample window starting at values[start] directly
+   */
+  private static double[] dft(double[] values, int start, int bin) {
+    double real = 0.0;
+    double imaginary = 0.0;
+    for (int m = 0; m < WINDOW_LENGTH; ++m) {
+      final double angle = -2.0 * Math.PI * bin * m / WINDOW_LENGTH;
+      real += values[start + m] * Math.cos(angle);
+      imaginary += values[start + m] * Math.sin(angle);
+    }
+    return new double[]{real, imaginary};
+  }
+}
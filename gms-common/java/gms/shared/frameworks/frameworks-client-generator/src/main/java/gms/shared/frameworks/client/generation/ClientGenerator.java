@@ -17,12 +17,18 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.time.Duration;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Objects;
-import java.util.function.Function;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
  * Creates client implementations that use HTTP given an interface.
+ *
+ * Interface methods returning {@link CompletableFuture} send their requests asynchronously and
+ * return a future of the response; the response type is the future's type argument.  Other methods
+ * block until the response is received.
  */
 public class ClientGenerator {
 
@@ -31,9 +37,15 @@ public class ClientGenerator {
 
   private static final ObjectMapper mapper = new ObjectMapper();
 
+  // Reflection results are the same for every client of an interface, so they are computed once
+  private static final Map<Class<?>, Map<Method, ClientMethod>> clientMethodsByClass
+      = new ConcurrentHashMap<>();
+
   /**
    * Creates a proxy instantiation of the given client interface that is
-   * implemented using HTTP.
+   * implemented using HTTP.  The client has at most {@link
+   * SystemConfig#CLIENT_MAX_CONCURRENT_REQUESTS} requests outstanding at once,
+   * and its own connections to the service.
    * @param clientClass the class of the interface
    * @param <T> the type of the interface, same as the return type
    * @return an instance of the client interface
@@ -41,8 +53,9 @@ public class ClientGenerator {
    * @throws IllegalArgumentException if the clientClass doesn't have @Control
    */
   public static <T> T createClient(Class<T> clientClass) {
-    return createClient(clientClass, ServiceClientJdkHttp.create(),
-        SystemConfig.create(getControlName(clientClass)));
+    final SystemConfig sysConfig = SystemConfig.create(getControlName(clientClass));
+    return createClient(clientClass, ServiceClientJdkHttp.create(
+        sysConfig.getValueAsInt(SystemConfig.CLIENT_MAX_CONCURRENT_REQUESTS)), sysConfig);
   }
 
   /**
@@ -64,10 +77,11 @@ public class ClientGenerator {
 
     final URL url = sysConfig.getUrl();
     final Duration timeout = sysConfig.getValueAsDuration(SystemConfig.CLIENT_TIMEOUT);
-    final Map<Method, PathMethod> pathMethods = pathMethodsByMethod(clientClass);
+    final Map<Method, BoundMethod> boundMethods = bindMethods(
+        clientMethodsByClass.computeIfAbsent(clientClass, ClientGenerator::clientMethods), url);
     return clientClass.cast(Proxy.newProxyInstance(
         ClientGenerator.class.getClassLoader(),
-        new Class[]{clientClass}, handler(httpClient, url, timeout, pathMethods)));
+        new Class[]{clientClass}, handler(httpClient, timeout, boundMethods)));
   }
 
   private static String getControlName(Class clientClass) {
@@ -76,32 +90,81 @@ public class ClientGenerator {
         .value();
   }
 
-  private static <T> Map<Method, PathMethod> pathMethodsByMethod(Class<T> clientClass) {
+  private static Map<Method, ClientMethod> clientMethods(Class<?> clientClass) {
     return ServiceReflectionUtilities.findPathAnnotatedMethodsOnlyOrThrow(clientClass)
-        .stream().collect(Collectors.toMap(PathMethod::getMethod, Function.identity()));
+        .stream().collect(Collectors.toMap(PathMethod::getMethod, ClientMethod::from));
+  }
+
+  private static Map<Method, BoundMethod> bindMethods(Map<Method, ClientMethod> clientMethods,
+      URL url) {
+    return clientMethods.entrySet().stream().collect(Collectors.toMap(
+        Entry::getKey, e -> BoundMethod.from(e.getValue(), url)));
   }
 
   private static InvocationHandler handler(ServiceClient client,
-      URL url, Duration timeout, Map<Method, PathMethod> pathMethods) {
+      Duration timeout, Map<Method, BoundMethod> boundMethods) {
     return (proxyObj, method, args) -> sendRequest(
-        client, args[0], url, timeout, pathMethods.get(method));
+        client, args[0], timeout, boundMethods.get(method));
   }
 
   private static Object sendRequest(ServiceClient httpClient,
-      Object requestBody, URL url, Duration timeout, PathMethod method)
-      throws MalformedURLException {
-    return httpClient.send(ServiceRequest.from(
-        appendToUrl(url, method.getRelativePath()), requestBody,
-        timeout, getReturnType(method),
-        method.getInputFormat(), method.getOutputFormat()));
+      Object requestBody, Duration timeout, BoundMethod method) {
+    final ClientMethod clientMethod = method.clientMethod;
+    final ServiceRequest request = ServiceRequest.from(
+        method.url, requestBody, timeout, clientMethod.responseType,
+        clientMethod.pathMethod.getInputFormat(), clientMethod.pathMethod.getOutputFormat());
+    return clientMethod.async ? httpClient.sendAsync(request) : httpClient.send(request);
   }
 
-  private static JavaType getReturnType(PathMethod method) {
-    return mapper.constructType(method.getMethod().getGenericReturnType());
+  private static URL appendToUrl(URL url, String path) {
+    try {
+      return new URL(url.getProtocol(), url.getHost(), url.getPort(),
+          url.getFile() + path, null);
+    } catch (MalformedURLException ex) {
+      throw new IllegalArgumentException("Could not create url for path " + path, ex);
+    }
   }
 
-  private static URL appendToUrl(URL url, String path) throws MalformedURLException {
-    return new URL(url.getProtocol(), url.getHost(), url.getPort(),
-        url.getFile() + path, null);
+  /**
+   * Reflection information about a client interface method.
+   */
+  private static final class ClientMethod {
+
+    private final PathMethod pathMethod;
+    private final JavaType responseType;
+    private final boolean async;
+
+    private ClientMethod(PathMethod pathMethod, JavaType responseType, boolean async) {
+      this.pathMethod = pathMethod;
+      this.responseType = responseType;
+      this.async = async;
+    }
+
+    private static ClientMethod from(PathMethod pathMethod) {
+      final JavaType returnType = mapper.constructType(
+          pathMethod.getMethod().getGenericReturnType());
+      return returnType.hasRawClass(CompletableFuture.class)
+          ? new ClientMethod(pathMethod, returnType.containedTypeOrUnknown(0), true)
+          : new ClientMethod(pathMethod, returnType, false);
+    }
+  }
+
+  /**
+   * A {@link ClientMethod} together with the url of its endpoint on a particular service.
+   */
+  private static final class BoundMethod {
+
+    private final ClientMethod clientMethod;
+    private final URL url;
+
+    private BoundMethod(ClientMethod clientMethod, URL url) {
+      this.clientMethod = clientMethod;
+      this.url = url;
+    }
+
+    private static BoundMethod from(ClientMethod clientMethod, URL baseUrl) {
+      return new BoundMethod(clientMethod,
+          appendToUrl(baseUrl, clientMethod.pathMethod.getRelativePath()));
+    }
   }
 }
@@ -2,8 +2,11 @@ package gms.shared.frameworks.client.generation;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 import gms.shared.frameworks.common.annotations.Control;
@@ -16,6 +19,7 @@ import gms.shared.frameworks.common.ContentType;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
@@ -32,6 +36,7 @@ public class ClientGeneratorTests {
   private static final String NO_CONSUMES_OR_PRODUCES = "no-consumes-or-produces";
   private static final String CONSUMES_MSGPACK = "consumes-msgpack";
   private static final String PRODUCES_MSGPACK = "produces-msgpack";
+  private static final String ASYNC = "async";
   private static final String CONTROL_NAME = "the-control";
   private static final String BASE_PATH = "example";
   private final String HOSTNAME = "some-host";
@@ -71,6 +76,10 @@ public class ClientGeneratorTests {
     @POST
     @Produces({ContentType.MSGPACK_NAME})
     String producesMsgpack(String s);
+
+    @Path(ASYNC)
+    @POST
+    CompletableFuture<String> async(String s);
   }
 
   @Test
@@ -92,6 +101,33 @@ public class ClientGeneratorTests {
     verifyClientCall(PRODUCES_MSGPACK, ContentType.defaultContentType(), ContentType.MSGPACK);
   }
 
+  @Test
+  void testCall_async() throws Exception {
+    final CompletableFuture<String> response = new CompletableFuture<>();
+    doReturn(response).when(mockClient).sendAsync(any());
+
+    assertSame(response, api.async(s));
+    verify(mockClient).sendAsync(ServiceRequest.from(constructUrl(ASYNC), s, TIMEOUT, typeOfS,
+        ContentType.defaultContentType(), ContentType.defaultContentType()));
+    verify(mockClient, never()).send(any());
+  }
+
+  @Test
+  void testCreateClientTwiceSendsToEachClientsUrl() throws Exception {
+    final String otherBaseUrl = "http://other-host:6666/";
+    doReturn(new URL(otherBaseUrl)).when(sysConfig).getUrl();
+    final ExampleApi otherApi = ClientGenerator.createClient(
+        ExampleApi.class, mockClient, sysConfig);
+
+    otherApi.noConsumesOrProduces(s);
+    api.noConsumesOrProduces(s);
+    verify(mockClient).send(ServiceRequest.from(
+        new URL(otherBaseUrl + BASE_PATH + "/" + NO_CONSUMES_OR_PRODUCES), s, TIMEOUT, typeOfS,
+        ContentType.defaultContentType(), ContentType.defaultContentType()));
+    verifyClientCall(NO_CONSUMES_OR_PRODUCES,
+        ContentType.defaultContentType(), ContentType.defaultContentType());
+  }
+
   private void verifyClientCall(String path, ContentType consumes, ContentType produces)
       throws Exception {
     verify(mockClient).send(ServiceRequest.from(
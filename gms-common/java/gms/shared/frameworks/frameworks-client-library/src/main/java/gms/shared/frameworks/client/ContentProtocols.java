@@ -6,10 +6,10 @@ import static gms.shared.frameworks.common.ContentType.MSGPACK;
 import gms.shared.frameworks.common.ContentType;
 import com.fasterxml.jackson.databind.JavaType;
 import gms.shared.mechanisms.objectstoragedistribution.coi.common.datatransferobjects.CoiObjectMapperFactory;
+import java.io.InputStream;
 import java.util.Map;
 import java.util.function.Function;
 import jdk.incubator.http.HttpRequest.BodyProcessor;
-import jdk.incubator.http.HttpResponse.BodyHandler;
 
 /**
  * Provides content protocols from ContentType's.
@@ -57,12 +57,7 @@ class ContentProtocols {
     }
 
     @Override
-    public BodyHandler<String> bodyHandler() {
-      return BodyHandler.asString();
-    }
-
-    @Override
-    public <T> T deserialize(String data, JavaType type) throws Exception {
+    public <T> T deserialize(InputStream data, JavaType type) throws Exception {
       return CoiObjectMapperFactory.getJsonObjectMapper().readValue(data, type);
     }
   }
@@ -80,12 +75,7 @@ class ContentProtocols {
     }
 
     @Override
-    public BodyHandler<byte[]> bodyHandler() {
-      return BodyHandler.asByteArray();
-    }
-
-    @Override
-    public <T> T deserialize(byte[] data, JavaType type) throws Exception {
+    public <T> T deserialize(InputStream data, JavaType type) throws Exception {
       return CoiObjectMapperFactory.getMsgpackObjectMapper().readValue(data, type);
     }
   }
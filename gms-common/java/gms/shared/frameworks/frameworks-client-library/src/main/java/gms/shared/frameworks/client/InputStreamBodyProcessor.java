@@ -0,0 +1,141 @@
+package gms.shared.frameworks.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import jdk.incubator.http.HttpResponse.BodyProcessor;
+
+/**
+ * Response body processor providing the body as an {@link InputStream} that can be read while the
+ * body is still being received, so the body can be decoded without first collecting it into a
+ * String or byte[].
+ *
+ * The body future completes immediately.  Reads block until body data arrives and at most {@link
+ * #MAX_BUFFERED_CHUNKS} received chunks are held at once; further chunks are not requested from the
+ * connection until the reader has consumed earlier ones.  The stream must be read on a thread other
+ * than those delivering the body, and closing the stream before the end of the body cancels the
+ * remainder.
+ */
+final class InputStreamBodyProcessor implements BodyProcessor<InputStream> {
+
+  static final int MAX_BUFFERED_CHUNKS = 16;
+
+  // Marks the end of the body (or a failure) in the chunk queue
+  private static final byte[] END = new byte[0];
+
+  private final BlockingQueue<byte[]> chunks = new LinkedBlockingQueue<>();
+  private final CompletableFuture<InputStream> body;
+  private volatile Flow.Subscription subscription;
+  private volatile Throwable failure;
+
+  InputStreamBodyProcessor() {
+    this.body = CompletableFuture.completedFuture(new ChunkInputStream());
+  }
+
+  @Override
+  public CompletionStage<InputStream> getBody() {
+    return body;
+  }
+
+  @Override
+  public void onSubscribe(Flow.Subscription subscription) {
+    this.subscription = subscription;
+    subscription.request(MAX_BUFFERED_CHUNKS);
+  }
+
+  @Override
+  public void onNext(ByteBuffer item) {
+    // the chunk is copied since the client may reuse the buffer once onNext returns
+    final byte[] chunk = new byte[item.remaining()];
+    item.get(chunk);
+    chunks.add(chunk);
+  }
+
+  @Override
+  public void onError(Throwable throwable) {
+    failure = throwable;
+    chunks.add(END);
+  }
+
+  @Override
+  public void onComplete() {
+    chunks.add(END);
+  }
+
+  private final class ChunkInputStream extends InputStream {
+
+    private byte[] chunk = new byte[0];
+    private int position;
+    private boolean finished;
+
+    @Override
+    public int read() throws IOException {
+      return nextChunk() ? chunk[position++] & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      if (len == 0) {
+        return 0;
+      }
+      if (!nextChunk()) {
+        return -1;
+      }
+      final int count = Math.min(len, chunk.length - position);
+      System.arraycopy(chunk, position, b, off, count);
+      position += count;
+      return count;
+    }
+
+    @Override
+    public int available() {
+      return finished ? 0 : chunk.length - position;
+    }
+
+    @Override
+    public void close() {
+      if (!finished) {
+        finished = true;
+        chunks.clear();
+        final Flow.Subscription s = subscription;
+        if (s != null) {
+          s.cancel();
+        }
+      }
+    }
+
+    /**
+     * Makes sure unread bytes remain in the current chunk, waiting for the next chunk if needed.
+     *
+     * @return false at the end of the body
+     * @throws IOException if receiving the body failed or the reading thread is interrupted
+     */
+    private boolean nextChunk() throws IOException {
+      while (!finished && position == chunk.length) {
+        try {
+          chunk = chunks.take();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IOException("Interrupted while reading response body", e);
+        }
+        position = 0;
+
+        if (chunk == END) {
+          finished = true;
+          if (failure != null) {
+            throw new IOException("Failed receiving response body", failure);
+          }
+        } else {
+          // a queued chunk was consumed, so one more can be accepted
+          subscription.request(1);
+        }
+      }
+      return !finished;
+    }
+  }
+}
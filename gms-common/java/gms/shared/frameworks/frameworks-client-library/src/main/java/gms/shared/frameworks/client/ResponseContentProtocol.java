@@ -1,7 +1,7 @@
 package gms.shared.frameworks.client;
 
 import com.fasterxml.jackson.databind.JavaType;
-import jdk.incubator.http.HttpResponse.BodyHandler;
+import java.io.InputStream;
 
 /**
  * A protocol for decoding HTTP response body content.
@@ -11,19 +11,13 @@ import jdk.incubator.http.HttpResponse.BodyHandler;
 interface ResponseContentProtocol<W> {
 
   /**
-   * A body handler for the WireType.  This is typically
-   * implemented using a method on BodyHandler, e.g. BodyHandler.asString().
-   */
-  BodyHandler<W> bodyHandler();
-
-  /**
-   * Deserializes data from the wire into the specified type.
+   * Deserializes data from the wire into the specified type, reading it as it arrives.
    * This is typically implemented using a Jackson ObjectMapper.
-   * @param data the data to deserialize
+   * @param data stream of the data to deserialize
    * @param type the type of the data
    * @param <X> the type param of the data, matches the class
    * @return an instance of the desired type
    * @throws Exception on deserialization failure, etc.
    */
-  <X> X deserialize(W data, JavaType type) throws Exception;
+  <X> X deserialize(InputStream data, JavaType type) throws Exception;
 }
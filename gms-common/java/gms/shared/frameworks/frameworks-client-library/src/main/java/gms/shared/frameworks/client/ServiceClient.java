@@ -1,5 +1,7 @@
 package gms.shared.frameworks.client;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Client abstraction for use with GMS.
  */
@@ -23,6 +25,19 @@ public interface ServiceClient {
    */
   <T> T send(ServiceRequest request);
 
+  /**
+   * Send a request without waiting for the response.
+   * @param request the request to send
+   * @param <T> type param of the expected response
+   * @return a future completing with the ResponseType.  The future completes exceptionally
+   * with the same exceptions {@link #send(ServiceRequest)} throws for connection failures,
+   * error responses, and response deserialization failures.
+   * @throws IllegalArgumentException if the url in the request is invalid,
+   * the requestFormat or responseFormat's in the request are unsupported,
+   * or request serialization fails.
+   */
+  <T> CompletableFuture<T> sendAsync(ServiceRequest request);
+
   /**
    * Exception for when the server has an internal error.
    */
@@ -46,7 +61,7 @@ public interface ServiceClient {
    * an unknown hostname, etc.
    */
   class ConnectionFailed extends RuntimeException {
-    ConnectionFailed(String msg, Exception e) {
+    ConnectionFailed(String msg, Throwable e) {
       super(msg, e);
     }
   }
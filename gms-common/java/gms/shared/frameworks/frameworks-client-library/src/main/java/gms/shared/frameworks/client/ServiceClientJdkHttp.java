@@ -2,42 +2,112 @@ package gms.shared.frameworks.client;
 
 import gms.shared.frameworks.common.ContentType;
 import com.fasterxml.jackson.databind.JavaType;
+import gms.shared.utilities.javautilities.concurrent.AsyncRequestLimiter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Objects;
-import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import jdk.incubator.http.HttpClient;
 import jdk.incubator.http.HttpRequest;
 import jdk.incubator.http.HttpRequest.BodyProcessor;
 import jdk.incubator.http.HttpResponse;
-import jdk.incubator.http.HttpResponse.BodyHandler;
 
 /**
  * Implementation of the HTTP client abstraction using the built-in JDK HttpClient.
+ *
+ * Response bodies are deserialized as they are received rather than after being collected into a
+ * String or byte[].  A client may bound the number of requests it has outstanding at once; requests
+ * sent beyond that bound wait, without blocking the sending thread in the case of {@link
+ * #sendAsync(ServiceRequest)}, until earlier requests complete.
  */
 public class ServiceClientJdkHttp implements ServiceClient {
 
+  /**
+   * Name of the system property setting {@link #DEFAULT_MAX_CONCURRENT_REQUESTS}.
+   */
+  public static final String MAX_CONCURRENT_REQUESTS_PROPERTY =
+      "gms.client.maxConcurrentRequests";
+
+  /**
+   * Maximum number of requests outstanding at once for clients created without an explicit limit.
+   * Defaults to 16, the client-max-concurrent-requests of the GMS system configuration, and may be
+   * set with the {@link #MAX_CONCURRENT_REQUESTS_PROPERTY} system property.
+   */
+  public static final int DEFAULT_MAX_CONCURRENT_REQUESTS =
+      Integer.getInteger(MAX_CONCURRENT_REQUESTS_PROPERTY, 16);
+
+  // Response bodies are read with blocking InputStream reads, so they are deserialized on these
+  // threads rather than on the threads the HttpClient uses to receive them.  Deserialization is
+  // CPU bound once the body has arrived, so the pool is sized to the processors.
+  private static final AtomicInteger decoderCount = new AtomicInteger();
+  private static final ExecutorService decodingExecutor = Executors.newFixedThreadPool(
+      Runtime.getRuntime().availableProcessors(), r -> {
+        final Thread thread = new Thread(r,
+            "service-client-decoder-" + decoderCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      });
+
   private final HttpClient httpClient;
+  private final AsyncRequestLimiter requestLimiter;
 
-  private ServiceClientJdkHttp(HttpClient client) {
+  private ServiceClientJdkHttp(HttpClient client, int maxConcurrentRequests) {
     this.httpClient = Objects.requireNonNull(client);
+    this.requestLimiter = new AsyncRequestLimiter(maxConcurrentRequests);
   }
 
   /**
-   * Create a client.
+   * Create a client with at most {@link #DEFAULT_MAX_CONCURRENT_REQUESTS} requests outstanding at
+   * once.
    *
    * @return a ServiceClientJdkHttp
    */
   public static ServiceClientJdkHttp create() {
-    return new ServiceClientJdkHttp(HttpClient.newHttpClient());
+    return create(HttpClient.newHttpClient());
   }
 
   /**
-   * Create a client that uses the provided JDK HttpClient.
+   * Create a client that uses the provided JDK HttpClient with at most {@link
+   * #DEFAULT_MAX_CONCURRENT_REQUESTS} requests outstanding at once.
    *
    * @param client the JDK HttpClient to use for communications
    * @return a ServiceClientJdkHttp
    */
   public static ServiceClientJdkHttp create(HttpClient client) {
-    return new ServiceClientJdkHttp(client);
+    return new ServiceClientJdkHttp(client, DEFAULT_MAX_CONCURRENT_REQUESTS);
+  }
+
+  /**
+   * Create a client with at most maxConcurrentRequests requests outstanding at once.  The client
+   * has its own JDK HttpClient, and therefore its own connection pool, and each outstanding request
+   * occupies at most one connection, so this also bounds the number of connections the client
+   * opens.
+   *
+   * @param maxConcurrentRequests maximum number of requests outstanding at once, must be positive
+   * @return a ServiceClientJdkHttp
+   * @throws IllegalArgumentException if maxConcurrentRequests is not positive
+   */
+  public static ServiceClientJdkHttp create(int maxConcurrentRequests) {
+    return create(HttpClient.newHttpClient(), maxConcurrentRequests);
+  }
+
+  /**
+   * Create a client that uses the provided JDK HttpClient with at most maxConcurrentRequests
+   * requests outstanding at once.
+   *
+   * @param client the JDK HttpClient to use for communications
+   * @param maxConcurrentRequests maximum number of requests outstanding at once, must be positive
+   * @return a ServiceClientJdkHttp
+   * @throws IllegalArgumentException if maxConcurrentRequests is not positive
+   */
+  public static ServiceClientJdkHttp create(HttpClient client, int maxConcurrentRequests) {
+    return new ServiceClientJdkHttp(client, maxConcurrentRequests);
   }
 
   /**
@@ -57,19 +127,38 @@ public class ServiceClientJdkHttp implements ServiceClient {
    */
   @Override
   public <T> T send(ServiceRequest request) {
-    return sendImpl(request);
+    try {
+      return this.<T>sendAsync(request).join();
+    } catch (CompletionException ex) {
+      if (ex.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) ex.getCause();
+      }
+      throw ex;
+    }
   }
 
-  // this method is split out from send so it can have an extra type parameter
-  // that is not part of the interface
-  private <T, F> T sendImpl(ServiceRequest request) {
+  /**
+   * Send a request without waiting for the response.
+   *
+   * @param request the request to send
+   * @param <T> type param of the expected response
+   * @return a future completing with the ResponseType.  The future completes exceptionally with
+   * {@link ConnectionFailed}, {@link InternalServerError}, {@link BadRequest} or {@link
+   * IllegalStateException} in the cases {@link #send(ServiceRequest)} throws them.
+   * @throws IllegalArgumentException if the url in the request is invalid, the requestFormat or
+   * responseFormat's in the request are unsupported, or request serialization fails.
+   */
+  @Override
+  public <T> CompletableFuture<T> sendAsync(ServiceRequest request) {
     Objects.requireNonNull(request, "Cannot send null request");
-    final ResponseContentProtocol<F> responseProtocol
+    final ResponseContentProtocol<?> responseProtocol
         = ContentProtocols.from(request.getResponseFormat());
     final HttpRequest httpRequest = createHttpRequest(request);
-    final HttpResponse<F> httpResponse = throwIfErrorResponse(
-        sendHttp(httpRequest, responseProtocol.bodyHandler()));
-    return tryDeserialize(httpResponse.body(), responseProtocol, request.getResponseType());
+
+    // the request remains outstanding until its body is read, since it holds a connection until then
+    return requestLimiter.submit(() -> sendHttp(httpRequest).thenApplyAsync(
+        response -> readResponse(response, responseProtocol, request.getResponseType()),
+        decodingExecutor));
   }
 
   private HttpRequest createHttpRequest(ServiceRequest request) {
@@ -101,17 +190,36 @@ public class ServiceClientJdkHttp implements ServiceClient {
     }
   }
 
-  private <F> HttpResponse<F> sendHttp(HttpRequest request, BodyHandler<F> bodyHandler) {
+  private CompletableFuture<HttpResponse<InputStream>> sendHttp(HttpRequest request) {
+    CompletableFuture<HttpResponse<InputStream>> response;
     try {
-      return this.httpClient.send(request, bodyHandler);
+      response = this.httpClient.sendAsync(request,
+          (statusCode, headers) -> new InputStreamBodyProcessor());
     } catch (Exception ex) {
-      throw new ConnectionFailed("Could not connect to " + request.uri(), ex);
+      response = CompletableFuture.failedFuture(ex);
     }
+    return response.exceptionally(ex -> {
+      throw new ConnectionFailed("Could not connect to " + request.uri(), unwrap(ex));
+    });
   }
 
-  private static <T, F> T tryDeserialize(
-      F data,
-      ResponseContentProtocol<F> responseProtocol,
+  private static Throwable unwrap(Throwable ex) {
+    return ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+  }
+
+  private static <T> T readResponse(HttpResponse<InputStream> response,
+      ResponseContentProtocol<?> responseProtocol, JavaType type) {
+    try (InputStream body = response.body()) {
+      throwIfErrorResponse(response.statusCode(), body);
+      return tryDeserialize(body, responseProtocol, type);
+    } catch (IOException ex) {
+      throw new UncheckedIOException("Could not close response body", ex);
+    }
+  }
+
+  private static <T> T tryDeserialize(
+      InputStream data,
+      ResponseContentProtocol<?> responseProtocol,
       JavaType type) {
     try {
       return responseProtocol.deserialize(data, type);
@@ -120,34 +228,28 @@ public class ServiceClientJdkHttp implements ServiceClient {
     }
   }
 
-  private static <X> HttpResponse<X> throwIfErrorResponse(HttpResponse<X> response) {
-    return throwIfInternalServerError(throwIfBadRequest(response));
-  }
-
-  private static <X> HttpResponse<X> throwIfBadRequest(
-      HttpResponse<X> response) {
-    if (isBadRequest(response.statusCode())) {
-      throw new BadRequest(getErrorMessage(response));
+  private static void throwIfErrorResponse(int status, InputStream body) {
+    if (isBadRequest(status)) {
+      throw new BadRequest(getErrorMessage(body));
+    }
+    if (isInternalServerError(status)) {
+      throw new InternalServerError(getErrorMessage(body));
     }
-    return response;
   }
 
   private static boolean isBadRequest(int status) {
     return status >= 400 && status <= 499;
   }
 
-  private static <X> HttpResponse<X> throwIfInternalServerError(HttpResponse<X> response) {
-    if (isInternalServerError(response.statusCode())) {
-      throw new InternalServerError(getErrorMessage(response));
-    }
-    return response;
-  }
-
   private static boolean isInternalServerError(int status) {
     return status >= 500 && status <= 599;
   }
 
-  private static String getErrorMessage(HttpResponse response) {
-    return Optional.ofNullable(response.body()).map(Object::toString).orElse("");
+  private static String getErrorMessage(InputStream body) {
+    try {
+      return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+    } catch (IOException ex) {
+      return "";
+    }
   }
 }
@@ -0,0 +1,111 @@
+package gms.shared.frameworks.client;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class InputStreamBodyProcessorTests {
+
+  private final AtomicLong requested = new AtomicLong();
+  private final AtomicBoolean cancelled = new AtomicBoolean();
+  private InputStreamBodyProcessor processor;
+  private InputStream body;
+
+  @BeforeEach
+  void setUp() {
+    processor = new InputStreamBodyProcessor();
+    body = processor.getBody().toCompletableFuture().getNow(null);
+    processor.onSubscribe(new Flow.Subscription() {
+      @Override
+      public void request(long n) {
+        requested.addAndGet(n);
+      }
+
+      @Override
+      public void cancel() {
+        cancelled.set(true);
+      }
+    });
+  }
+
+  @Test
+  void testReadsChunksInOrder() throws Exception {
+    processor.onNext(bytes("hello "));
+    processor.onNext(bytes("streamed "));
+    processor.onNext(bytes("world"));
+    processor.onComplete();
+
+    assertEquals("hello streamed world",
+        new String(body.readAllBytes(), StandardCharsets.UTF_8));
+    assertEquals(-1, body.read());
+  }
+
+  @Test
+  void testReadsWhileBodyArrives() throws Exception {
+    final CompletableFuture<byte[]> read = CompletableFuture.supplyAsync(() -> {
+      try {
+        return body.readAllBytes();
+      } catch (IOException e) {
+        throw new IllegalStateException(e);
+      }
+    });
+
+    processor.onNext(bytes("ab"));
+    processor.onNext(bytes("cd"));
+    processor.onComplete();
+
+    assertArrayEquals("abcd".getBytes(StandardCharsets.UTF_8), read.get(10, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void testRequestsMoreOnlyAsChunksAreConsumed() throws Exception {
+    assertEquals(InputStreamBodyProcessor.MAX_BUFFERED_CHUNKS, requested.get());
+
+    processor.onNext(bytes("ab"));
+    processor.onNext(bytes("cd"));
+    assertEquals('a', body.read());
+    assertEquals(InputStreamBodyProcessor.MAX_BUFFERED_CHUNKS + 1, requested.get());
+    assertEquals('b', body.read());
+    assertEquals(InputStreamBodyProcessor.MAX_BUFFERED_CHUNKS + 1, requested.get());
+    assertEquals('c', body.read());
+    assertEquals(InputStreamBodyProcessor.MAX_BUFFERED_CHUNKS + 2, requested.get());
+  }
+
+  @Test
+  void testErrorIsThrownAfterReceivedData() throws Exception {
+    final IOException failure = new IOException("connection reset");
+    processor.onNext(bytes("ab"));
+    processor.onError(failure);
+
+    final byte[] buffer = new byte[4];
+    assertEquals(2, body.read(buffer, 0, buffer.length));
+    assertSame(failure, assertThrows(IOException.class, body::read).getCause());
+  }
+
+  @Test
+  void testCloseBeforeEndCancels() throws Exception {
+    processor.onNext(bytes("ab"));
+    body.close();
+
+    assertTrue(cancelled.get());
+    assertEquals(-1, body.read());
+  }
+
+  private static ByteBuffer bytes(String s) {
+    return ByteBuffer.wrap(s.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -12,6 +12,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -26,8 +27,13 @@ import gms.shared.frameworks.common.ContentType;
 import gms.shared.mechanisms.objectstoragedistribution.coi.common.datatransferobjects.CoiObjectMapperFactory;
 import java.net.URL;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -47,6 +53,18 @@ public class ServiceClientJdkHttpTests {
   private String baseUrl;
   private final ServiceClientJdkHttp basicClient = ServiceClientJdkHttp.create();
 
+  /**
+   * ServiceClientJdkHttp is built on the incubating HttpClient of Java 9 and 10, which is only
+   * available when the build adds its module (see build.gradle) and was removed in Java 11.  These
+   * tests are reported as skipped rather than silently passing where it is not available.
+   */
+  @BeforeAll
+  static void requireIncubatorHttpClient() {
+    assumeTrue(ModuleLayer.boot().findModule("jdk.incubator.httpclient").isPresent(),
+        "jdk.incubator.httpclient module is not available on Java "
+            + System.getProperty("java.version"));
+  }
+
   @BeforeEach
   void setUp() {
     wireMockServer = new WireMockServer(wireMockConfig().dynamicPort());
@@ -67,6 +85,11 @@ public class ServiceClientJdkHttpTests {
     assertNotNull(ServiceClientJdkHttp.create());
   }
 
+  @Test
+  void testDefaultMaxConcurrentRequests() {
+    assertEquals(16, ServiceClientJdkHttp.DEFAULT_MAX_CONCURRENT_REQUESTS);
+  }
+
   @ParameterizedTest
   @EnumSource(ContentType.class)
   void testRequestCustomObject(ContentType requestFormat) throws Exception {
@@ -86,6 +109,59 @@ public class ServiceClientJdkHttpTests {
     }
   }
 
+  @ParameterizedTest
+  @EnumSource(ContentType.class)
+  void testSendAsyncCustomObject(ContentType format) throws Exception {
+    final String path = "/echo";
+    final SomeObject<Optional<String>> obj
+        = SomeObject.create(5, "bar", Optional.of("foo"));
+    wireMockServer.addStubMapping(mockServerSuccess(path, obj, obj, format, format));
+
+    final CompletableFuture<SomeObject> response = basicClient.sendAsync(ServiceRequest.from(
+        new URL(baseUrl + path), obj, timeout,
+        constructType(SomeObject.class), format, format));
+    assertEquals(obj, response.get());
+  }
+
+  @Test
+  void testSendAsyncLimitsConcurrentRequests() throws Exception {
+    final String path = "/echo";
+    final StubMapping stub = mockServerSuccess(path, "foo", "foo",
+        ContentType.JSON, ContentType.JSON);
+    wireMockServer.addStubMapping(stub);
+    final ServiceClientJdkHttp limitedClient = ServiceClientJdkHttp.create(2);
+
+    final List<CompletableFuture<String>> responses = new ArrayList<>();
+    for (int i = 0; i < 6; i++) {
+      responses.add(limitedClient.sendAsync(ServiceRequest.from(
+          new URL(baseUrl + path), "foo", timeout,
+          constructType(String.class), ContentType.JSON, ContentType.JSON)));
+    }
+    for (CompletableFuture<String> response : responses) {
+      assertEquals("foo", response.get());
+    }
+  }
+
+  @Test
+  void testSendAsyncOnBadHostCompletesWithConnectionFailed() throws Exception {
+    final CompletableFuture<String> response = basicClient.sendAsync(ServiceRequest.builder(
+        new URL("http://fake-host:" + port + "/bar"), "foo", timeout,
+        constructType(String.class)).build());
+    final Throwable cause = assertThrows(ExecutionException.class, response::get).getCause();
+    assertTrue(cause instanceof ConnectionFailed);
+    assertTrue(cause.getMessage().contains("fake-host"));
+  }
+
+  @Test
+  void testSendAsyncServerReturnsStatus5xxCompletesWithInternalServerError() throws Exception {
+    final CompletableFuture<String> response = basicClient.sendAsync(ServiceRequest.builder(
+        new URL(baseUrl + SERVER_ERROR_PATH), "foo", timeout,
+        constructType(String.class)).build());
+    final Throwable cause = assertThrows(ExecutionException.class, response::get).getCause();
+    assertTrue(cause instanceof InternalServerError);
+    assertEquals(SERVER_ERROR_MSG, cause.getMessage());
+  }
+
   @Test
   void testRequestOnBadHostThrowsConnectionFailed() {
     assertTrue(assertThrows(ConnectionFailed.class,
@@ -0,0 +1,151 @@
+package gms.shared.frameworks.service;
+
+import com.github.luben.zstd.ZstdOutputStream;
+import com.github.luben.zstd.util.Native;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compression applied to response bodies, negotiated from a request's Accept-Encoding header.
+ */
+enum ContentEncoding {
+
+  /**
+   * Zstandard compression; compresses about as well as gzip at a fraction of the CPU cost.
+   */
+  ZSTD("zstd") {
+    @Override
+    OutputStream wrap(OutputStream output) throws IOException {
+      return new ZstdOutputStream(output);
+    }
+  },
+
+  GZIP("gzip") {
+    @Override
+    OutputStream wrap(OutputStream output) throws IOException {
+      return new GZIPOutputStream(output, BUFFER_SIZE);
+    }
+  },
+
+  /**
+   * No compression.
+   */
+  IDENTITY("identity") {
+    @Override
+    OutputStream wrap(OutputStream output) {
+      return output;
+    }
+  };
+
+  private static final Logger logger = LoggerFactory.getLogger(ContentEncoding.class);
+
+  private static final int BUFFER_SIZE = 8192;
+
+  // Encodings in the order the server prefers them when the client accepts them equally
+  private static final ContentEncoding[] PREFERENCE_ORDER = {ZSTD, GZIP};
+
+  private static final boolean ZSTD_AVAILABLE = loadZstd();
+
+  private final String token;
+
+  ContentEncoding(String token) {
+    this.token = token;
+  }
+
+  /**
+   * Gets the Content-Encoding header value of this encoding
+   *
+   * @return the encoding's token, e.g. "gzip"
+   */
+  String getToken() {
+    return token;
+  }
+
+  /**
+   * Wraps an output stream so data written to the returned stream is compressed with this
+   * encoding.  Closing the returned stream finishes the compressed data and closes the output.
+   *
+   * @param output the stream receiving the compressed data
+   * @return the stream to write uncompressed data to
+   * @throws IOException if the compressed stream could not be started
+   */
+  abstract OutputStream wrap(OutputStream output) throws IOException;
+
+  /**
+   * Selects the encoding for a response from a request's Accept-Encoding header.  Among the
+   * supported encodings the client accepts (i.e. with a non-zero quality, either explicitly or
+   * through '*'), the one with the highest quality is selected, preferring zstd over gzip on ties.
+   *
+   * @param acceptEncoding value of the Accept-Encoding header, if present
+   * @return the negotiated encoding; {@link #IDENTITY} if the client accepts no supported
+   * compression
+   */
+  static ContentEncoding negotiate(Optional<String> acceptEncoding) {
+    if (!acceptEncoding.isPresent()) {
+      return IDENTITY;
+    }
+
+    final Map<String, Double> qualities = parseQualities(acceptEncoding.get());
+    ContentEncoding selected = IDENTITY;
+    double selectedQuality = 0.0;
+    for (ContentEncoding encoding : PREFERENCE_ORDER) {
+      if (encoding == ZSTD && !ZSTD_AVAILABLE) {
+        continue;
+      }
+      final double quality = qualities.getOrDefault(encoding.token,
+          qualities.getOrDefault("*", 0.0));
+      if (quality > selectedQuality) {
+        selected = encoding;
+        selectedQuality = quality;
+      }
+    }
+    return selected;
+  }
+
+  /**
+   * Parses an Accept-Encoding header (e.g. "gzip;q=0.8, zstd, *;q=0") into a map from encoding
+   * token to quality.  Elements with a malformed quality are ignored.
+   */
+  private static Map<String, Double> parseQualities(String acceptEncoding) {
+    final Map<String, Double> qualities = new HashMap<>();
+    for (String element : acceptEncoding.split(",")) {
+      final String[] parts = element.split(";");
+      final String token = parts[0].trim().toLowerCase(Locale.ENGLISH);
+      if (token.isEmpty()) {
+        continue;
+      }
+      double quality = 1.0;
+      for (int i = 1; i < parts.length; i++) {
+        final String param = parts[i].trim();
+        if (param.startsWith("q=")) {
+          try {
+            quality = Double.parseDouble(param.substring(2));
+          } catch (NumberFormatException e) {
+            quality = Double.NaN;
+          }
+        }
+      }
+      if (!Double.isNaN(quality)) {
+        qualities.put(token, quality);
+      }
+    }
+    return qualities;
+  }
+
+  private static boolean loadZstd() {
+    try {
+      Native.load();
+      return true;
+    } catch (UnsatisfiedLinkError | RuntimeException e) {
+      logger.warn("zstd native library is unavailable; responses will not be zstd compressed", e);
+      return false;
+    }
+  }
+}
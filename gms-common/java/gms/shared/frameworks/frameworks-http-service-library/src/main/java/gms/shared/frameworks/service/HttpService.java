@@ -1,9 +1,13 @@
 package gms.shared.frameworks.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import gms.shared.frameworks.utilities.ServerConfig;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.Instant;
 import java.util.Objects;
+import javax.servlet.http.HttpServletResponse;
 import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -67,8 +71,12 @@ public class HttpService {
       final spark.Route sparkRoute = sparkRoute(r.getHandler(),
           this.definition.getJsonMapper(), this.definition.getMsgpackMapper());
       // register the route
-      logger.info("Registering route with path {}", r.getPath());
-      this.sparkService.post(r.getPath(), sparkRoute);
+      logger.info("Registering {} route with path {}", r.getMethod(), r.getPath());
+      if (r.getMethod() == Route.Method.GET) {
+        this.sparkService.get(r.getPath(), sparkRoute);
+      } else {
+        this.sparkService.post(r.getPath(), sparkRoute);
+      }
     }
     // start the service
     logger.info("Starting the service...");
@@ -114,7 +122,8 @@ public class HttpService {
     this.sparkService.notFound(HttpErrorHandlers::handleNotFound);
     this.sparkService.internalServerError(
         (req, resp) -> HttpErrorHandlers.handleInternalServerError(resp));
-    this.sparkService.after((request, response) -> response.header(
+    // set before routes run since streamed responses are committed before 'after' filters run
+    this.sparkService.before((request, response) -> response.header(
         "access-control-allow-origin", "*"));
 
   }
@@ -146,18 +155,55 @@ public class HttpService {
       } else {
         Validate.isTrue(routeResponse.getBody().isPresent(),
             "Expected body to be present since error message was not present");
-        // serialize based on what client accepts and return the response
+        // serialize based on what client accepts, writing directly to the response
+        final ObjectMapper serializer;
         if (request.clientAcceptsMsgpack()) {
           sparkResponse.type("application/msgpack");
-          return msgpackMapper.writeValueAsBytes(routeResponse.getBody().get());
+          serializer = msgpackMapper;
         } else {
           sparkResponse.type("application/json");
-          return jsonMapper.writeValueAsString(routeResponse.getBody().get());
+          serializer = jsonMapper;
         }
+        writeBody(routeResponse.getBody().get(), serializer,
+            ContentEncoding.negotiate(request.getHeader("Accept-Encoding")), sparkResponse.raw());
+        // the response is committed, so Spark will not write this
+        return "";
       }
     };
   }
 
+  /**
+   * Serializes a response body directly to the response's output stream (compressing it with the
+   * provided encoding), so the serialized body is never held in memory as a whole.  A {@link
+   * StreamingBody} writes itself incrementally.  Closes the output stream, committing the
+   * response.
+   *
+   * @param body the response body
+   * @param serializer serializer for the format the client accepts
+   * @param encoding the content encoding negotiated with the client
+   * @param response the response to write to
+   * @throws IOException if the body could not be written
+   */
+  private static void writeBody(Object body, ObjectMapper serializer, ContentEncoding encoding,
+      HttpServletResponse response) throws IOException {
+
+    response.addHeader("Vary", "Accept-Encoding");
+    if (encoding != ContentEncoding.IDENTITY) {
+      response.setHeader("Content-Encoding", encoding.getToken());
+    }
+
+    final OutputStream output = encoding.wrap(response.getOutputStream());
+    // On failure the output is deliberately left open: closing it would finish the compressed
+    // stream, making a truncated body look complete to the client.
+    if (body instanceof StreamingBody) {
+      ((StreamingBody) body).writeTo(output, serializer);
+    } else {
+      serializer.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+          .writeValue(output, body);
+    }
+    output.close();
+  }
+
   /**
    * Convenience function for calling a request handler on a request safely, returning either the
    * Response from the handler or a server error if the handler throws an exception
@@ -19,6 +19,15 @@ public interface Request {
    */
   Optional<String> getPathParam(String name);
 
+  /**
+   * Gets a query parameter, which is one that follows the path of the URL e.g. /person?name=john,
+   * where 'john' is the value of the query parameter 'name'
+   *
+   * @param name the name of the parameter
+   * @return optional value of the parameter with the specified name
+   */
+  Optional<String> getQueryParam(String name);
+
   /**
    * Gets the body as a String
    *
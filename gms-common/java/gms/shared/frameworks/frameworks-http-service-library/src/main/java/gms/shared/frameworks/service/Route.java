@@ -11,6 +11,13 @@ import org.apache.commons.lang3.Validate;
 @AutoValue
 public abstract class Route {
 
+  /**
+   * The HTTP methods a route can handle.
+   */
+  public enum Method {
+    GET, POST
+  }
+
   /**
    * Gets the path (URL) of the route
    *
@@ -18,6 +25,13 @@ public abstract class Route {
    */
   public abstract String getPath();
 
+  /**
+   * Gets the HTTP method of requests matching this route.
+   *
+   * @return the method
+   */
+  public abstract Method getMethod();
+
   /**
    * Gets the handler that is to be used for requests matching this route.
    *
@@ -26,19 +40,32 @@ public abstract class Route {
   public abstract RequestHandler getHandler();
 
   /**
-   * Creates a Route
+   * Creates a Route handling POST requests
    *
    * @param path the path (URL) of the route
    * @param handler the handler that is to be used for requests matching this route
    * @return a route
    */
   public static Route create(String path, RequestHandler handler) {
+    return create(Method.POST, path, handler);
+  }
+
+  /**
+   * Creates a Route
+   *
+   * @param method the HTTP method of requests matching this route
+   * @param path the path (URL) of the route
+   * @param handler the handler that is to be used for requests matching this route
+   * @return a route
+   */
+  public static Route create(Method method, String path, RequestHandler handler) {
+    Validate.notNull(method, "Method cannot be null");
     Validate.notBlank(path, "Path cannot be blank or null");
     if (!path.startsWith("/")) {
       path = "/" + path;
     }
     validateIsUrl(path);
-    return new AutoValue_Route(path, handler);
+    return new AutoValue_Route(path, method, handler);
   }
 
   private static void validateIsUrl(String path) {
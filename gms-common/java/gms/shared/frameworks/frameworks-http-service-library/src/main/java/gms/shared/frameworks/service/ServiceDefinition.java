@@ -24,7 +24,8 @@ public abstract class ServiceDefinition {
 
   /**
    * Gets the HTTP {@link Route}s of this service definition. These define the behavior of the
-   * service.  Each Route has a unique {@link Route#getPath()} and none of the {@link
+   * service.  Each Route has a unique combination of {@link Route#getMethod()} and {@link
+   * Route#getPath()} and none of the {@link
    * Route#getPath()} are equal to {@link ServiceDefinition#HEALTHCHECK_PATH}
    *
    * @return the routes, immutable
@@ -90,7 +91,8 @@ public abstract class ServiceDefinition {
      * Obtains a new {@link ServiceDefinition} from the contents of this builder.  Validates the
      * ServiceDefinition's parameters and throws an IllegalArgumentException if any of them are
      * invalid. The validations are:
-     *  - Each {@link Route#getPath()} in {@link ServiceDefinition#getRoutes()} must be unique
+     *  - Each combination of {@link Route#getMethod()} and {@link Route#getPath()} in {@link
+     *  ServiceDefinition#getRoutes()} must be unique
      *  - None of the {@link Route#getPath()} can equal {@link ServiceDefinition#HEALTHCHECK_PATH}
      *
      * @return new {@link ServiceDefinition}, not null
@@ -99,7 +101,7 @@ public abstract class ServiceDefinition {
     public ServiceDefinition build() {
       ServiceDefinition def = setRoutes(Collections.unmodifiableSet(getRoutes())).autoBuild();
       // validate the object properties
-      Validation.throwForNonUnique(def.getRoutes(), Route::getPath,
+      Validation.throwForNonUnique(def.getRoutes(), r -> r.getMethod() + " " + r.getPath(),
           "Each route must have a unique path but paths but the following paths are duplicated");
       Validate.isTrue(
           def.getRoutes().stream().map(Route::getPath).noneMatch(HEALTHCHECK_PATH::equals),
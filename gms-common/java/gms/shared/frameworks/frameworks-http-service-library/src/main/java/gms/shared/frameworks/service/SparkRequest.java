@@ -24,6 +24,11 @@ class SparkRequest implements Request {
     return Optional.ofNullable(this.request.params(name));
   }
 
+  @Override
+  public Optional<String> getQueryParam(String name) {
+    return Optional.ofNullable(this.request.queryParams(name));
+  }
+
   @Override
   public String getBody() {
     return this.request.body();
@@ -0,0 +1,99 @@
+package gms.shared.frameworks.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Objects;
+import org.apache.commons.lang3.Validate;
+import org.msgpack.core.MessagePack;
+import org.msgpack.core.MessagePacker;
+import org.msgpack.jackson.dataformat.MessagePackFactory;
+
+/**
+ * A response body that is written incrementally to the response's output stream instead of being
+ * serialized as a whole before it is sent.  A {@link RequestHandler} returns a StreamingBody
+ * through {@link Response#success(Object)}; the service writes it using the serializer (JSON or
+ * msgpack) the client accepts.
+ */
+@FunctionalInterface
+public interface StreamingBody {
+
+  /**
+   * Writes the body.  Implementations must not close the output stream.
+   *
+   * @param output the (possibly compressed) response output stream
+   * @param serializer the serializer for the format the client accepts
+   * @throws IOException if the body cannot be written
+   */
+  void writeTo(OutputStream output, ObjectMapper serializer) throws IOException;
+
+  /**
+   * Creates a body serialized as an array containing the elements of a collection.
+   *
+   * @param elements the elements of the array, not null
+   * @return a StreamingBody
+   * @see #ofArray(int, Iterator)
+   */
+  static StreamingBody ofArray(Collection<?> elements) {
+    Objects.requireNonNull(elements, "Cannot create StreamingBody from null elements");
+    return ofArray(elements.size(), elements.iterator());
+  }
+
+  /**
+   * Creates a body serialized as an array whose elements are obtained from an iterator and
+   * serialized one at a time as they are written, so only one element needs to be in memory at
+   * once.  The size is required up front since msgpack arrays begin with their size.
+   *
+   * @param size number of elements the iterator provides
+   * @param elements provides the elements of the array, not null
+   * @return a StreamingBody
+   */
+  static StreamingBody ofArray(int size, Iterator<?> elements) {
+    Validate.isTrue(size >= 0, "Array size must be non-negative");
+    Objects.requireNonNull(elements, "Cannot create StreamingBody from null elements");
+
+    return (output, serializer) -> {
+      final OutputStream unclosable = new FilterOutputStream(output) {
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+          out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+          flush();
+        }
+      };
+
+      // Elements are serialized with the serializer's own configuration; flushing after each one
+      // would defeat the response compression
+      final ObjectWriter writer = serializer.writer()
+          .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+      int written = 0;
+      if (serializer.getFactory() instanceof MessagePackFactory) {
+        // msgpack generators buffer arrays until they end, so write the array header directly
+        // and serialize each element as its own value
+        final MessagePacker packer = MessagePack.newDefaultPacker(unclosable);
+        packer.packArrayHeader(size);
+        packer.flush();
+        for (; elements.hasNext(); written++) {
+          writer.writeValue(unclosable, elements.next());
+        }
+      } else {
+        try (SequenceWriter array = writer.writeValuesAsArray(unclosable)) {
+          for (; elements.hasNext(); written++) {
+            array.write(elements.next());
+          }
+        }
+      }
+      Validate.validState(written == size,
+          "StreamingBody array declared %s elements but provided %s", size, written);
+    };
+  }
+}
@@ -0,0 +1,73 @@
+package gms.shared.frameworks.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+import com.github.luben.zstd.ZstdInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class ContentEncodingTests {
+
+  @ParameterizedTest
+  @MethodSource("negotiateArguments")
+  void testNegotiate(String acceptEncoding, ContentEncoding expected) {
+    assertEquals(expected, ContentEncoding.negotiate(Optional.ofNullable(acceptEncoding)));
+  }
+
+  private static Stream<Arguments> negotiateArguments() {
+    return Stream.of(
+        arguments(null, ContentEncoding.IDENTITY),
+        arguments("", ContentEncoding.IDENTITY),
+        arguments("identity", ContentEncoding.IDENTITY),
+        arguments("deflate, br", ContentEncoding.IDENTITY),
+        arguments("gzip", ContentEncoding.GZIP),
+        arguments("GZIP", ContentEncoding.GZIP),
+        arguments("zstd", ContentEncoding.ZSTD),
+        // zstd preferred when accepted equally
+        arguments("gzip, deflate, zstd", ContentEncoding.ZSTD),
+        arguments("*", ContentEncoding.ZSTD),
+        // client preference via quality
+        arguments("zstd;q=0.5, gzip;q=0.8", ContentEncoding.GZIP),
+        arguments("gzip;q=0, *", ContentEncoding.ZSTD),
+        arguments("zstd;q=0, *;q=0.1", ContentEncoding.GZIP),
+        arguments("*;q=0", ContentEncoding.IDENTITY),
+        // malformed quality is ignored
+        arguments("zstd;q=abc, gzip", ContentEncoding.GZIP)
+    );
+  }
+
+  @ParameterizedTest
+  @EnumSource(ContentEncoding.class)
+  void testWrapRoundTrip(ContentEncoding encoding) throws Exception {
+    final byte[] data = String.join(",", Collections.nCopies(100, "some response body"))
+        .getBytes(StandardCharsets.UTF_8);
+    final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    try (OutputStream output = encoding.wrap(compressed)) {
+      output.write(data);
+    }
+
+    final InputStream input = new ByteArrayInputStream(compressed.toByteArray());
+    final InputStream decompressed;
+    if (encoding == ContentEncoding.GZIP) {
+      decompressed = new GZIPInputStream(input);
+    } else if (encoding == ContentEncoding.ZSTD) {
+      decompressed = new ZstdInputStream(input);
+    } else {
+      decompressed = input;
+    }
+    assertArrayEquals(data, decompressed.readAllBytes());
+  }
+}
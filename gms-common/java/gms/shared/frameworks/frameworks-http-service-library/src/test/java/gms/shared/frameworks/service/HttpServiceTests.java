@@ -4,11 +4,13 @@ import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.github.luben.zstd.ZstdInputStream;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mashape.unirest.http.HttpResponse;
 import com.mashape.unirest.http.Unirest;
@@ -17,7 +19,10 @@ import gms.shared.frameworks.service.HttpStatus.Code;
 import gms.shared.frameworks.utilities.ServerConfig;
 import gms.shared.mechanisms.objectstoragedistribution.coi.common.datatransferobjects.CoiObjectMapperFactory;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
 import java.net.ServerSocket;
+import java.net.URL;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -25,12 +30,17 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.zip.GZIPInputStream;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
 public class HttpServiceTests {
 
+  private static final List<String> STREAMED_ELEMENTS = List.of("a", "b", "c");
+
   private static final Set<Route> routes = Set.of(
       // returns the body of the request unchanged.
       // Purposely leave out leading '/' to see that it gets setup correctly anyway.
@@ -45,9 +55,16 @@ public class HttpServiceTests {
       // a route that just always throws an exception
       Route.create("/throw", (req, deser) -> {
         throw new RuntimeException("psyche!");
-      })
+      }),
+      // a GET route that returns the query param 'foo'
+      Route.create(Route.Method.GET, "/echoQueryParam",
+          (req, deser) -> Response.success(req.getQueryParam("foo").orElse(""))),
+      // returns a streamed array
+      Route.create("/streamArray",
+          (req, deser) -> Response.success(StreamingBody.ofArray(STREAMED_ELEMENTS)))
   );
 
+
   private static final ObjectMapper jsonMapper = CoiObjectMapperFactory.getJsonObjectMapper();
   private static final ObjectMapper msgpackMapper = CoiObjectMapperFactory.getMsgpackObjectMapper();
 
@@ -166,6 +183,65 @@ public class HttpServiceTests {
         "Expected response to contain error message ('psyche')");
   }
 
+  @Test
+  void testGetRoute() throws Exception {
+    final HttpResponse<String> response = Unirest
+        .get("http://localhost:" + servicePort + "/echoQueryParam")
+        .queryString("foo", "bar")
+        .asString();
+    assertEquals(HttpStatus.OK_200, response.getStatus());
+    assertEquals("\"bar\"", response.getBody());
+  }
+
+  @Test
+  void testStreamingBodyJson() throws Exception {
+    final HttpResponse<String> response = Unirest
+        .post("http://localhost:" + servicePort + "/streamArray")
+        .asString();
+    assertEquals(HttpStatus.OK_200, response.getStatus());
+    assertEquals("application/json", response.getHeaders().getFirst("Content-Type"));
+    assertEquals(STREAMED_ELEMENTS,
+        Arrays.asList(jsonMapper.readValue(response.getBody(), String[].class)));
+  }
+
+  @Test
+  void testStreamingBodyMsgpack() throws Exception {
+    final HttpResponse<String> response = Unirest
+        .post("http://localhost:" + servicePort + "/streamArray")
+        .header("Accept", "application/msgpack")
+        .asString();
+    assertEquals(HttpStatus.OK_200, response.getStatus());
+    assertEquals("application/msgpack", response.getHeaders().getFirst("Content-Type"));
+    assertArrayEquals(msgpackMapper.writeValueAsBytes(STREAMED_ELEMENTS),
+        response.getRawBody().readAllBytes());
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"identity", "gzip", "zstd"})
+  void testResponseCompression(String encoding) throws Exception {
+    final HttpURLConnection connection = (HttpURLConnection) new URL(
+        "http://localhost:" + servicePort + "/streamArray").openConnection();
+    connection.setRequestMethod("POST");
+    connection.setRequestProperty("Accept-Encoding", encoding);
+    assertEquals(HttpStatus.OK_200, connection.getResponseCode());
+
+    final InputStream body;
+    if ("gzip".equals(encoding)) {
+      assertEquals("gzip", connection.getHeaderField("Content-Encoding"));
+      body = new GZIPInputStream(connection.getInputStream());
+    } else if ("zstd".equals(encoding)) {
+      assertEquals("zstd", connection.getHeaderField("Content-Encoding"));
+      body = new ZstdInputStream(connection.getInputStream());
+    } else {
+      assertNull(connection.getHeaderField("Content-Encoding"));
+      body = connection.getInputStream();
+    }
+    try (body) {
+      assertEquals(STREAMED_ELEMENTS,
+          Arrays.asList(jsonMapper.readValue(body.readAllBytes(), String[].class)));
+    }
+  }
+
   @Test
   void testServiceMakesHealthcheckRoute() throws Exception {
     final HttpResponse<String> response = Unirest
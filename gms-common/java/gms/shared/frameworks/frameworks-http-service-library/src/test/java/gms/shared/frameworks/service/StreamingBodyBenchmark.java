@@ -0,0 +1,120 @@
+package gms.shared.frameworks.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gms.shared.mechanisms.objectstoragedistribution.coi.common.datatransferobjects.CoiObjectMapperFactory;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmark of writing a large response body, a list of 60 arrays of 100,000 doubles, to an
+ * output stream that discards its input.  Compares serializing the whole body with
+ * writeValueAsBytes before writing it against writing it with {@link StreamingBody#ofArray}.
+ * Reports the time to write the body and the time until its first byte is written; run with -prof
+ * gc to compare the memory allocated for each.  Run with: java -cp (test runtime classpath)
+ * org.openjdk.jmh.Main StreamingBodyBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx1g"})
+public class StreamingBodyBenchmark {
+
+  private static final int ELEMENT_COUNT = 60;
+  private static final int SAMPLES_PER_ELEMENT = 100_000;
+
+  private static final OutputStream DISCARD = new OutputStream() {
+    @Override
+    public void write(int b) {
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+    }
+  };
+
+  private static final OutputStream FIRST_BYTE = new OutputStream() {
+    @Override
+    public void write(int b) throws IOException {
+      throw new FirstByteWrittenException();
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      throw new FirstByteWrittenException();
+    }
+  };
+
+  @Param({"STREAMING", "BYTES"})
+  private String body;
+
+  @Param({"JSON", "MSGPACK"})
+  private String format;
+
+  private ObjectMapper serializer;
+  private List<double[]> elements;
+
+  @Setup
+  public void setup() {
+    serializer = "JSON".equals(format) ?
+        CoiObjectMapperFactory.getJsonObjectMapper() :
+        CoiObjectMapperFactory.getMsgpackObjectMapper();
+
+    elements = new ArrayList<>();
+    for (int i = 0; i < ELEMENT_COUNT; i++) {
+      double[] samples = new double[SAMPLES_PER_ELEMENT];
+      for (int j = 0; j < samples.length; j++) {
+        samples[j] = Math.sin(i + j * 0.01);
+      }
+      elements.add(samples);
+    }
+  }
+
+  @Benchmark
+  public void write() throws IOException {
+    writeTo(DISCARD);
+  }
+
+  @Benchmark
+  public void firstByte() throws IOException {
+    try {
+      writeTo(FIRST_BYTE);
+    } catch (FirstByteWrittenException e) {
+      // expected
+    }
+  }
+
+  private void writeTo(OutputStream output) throws IOException {
+    if ("STREAMING".equals(body)) {
+      StreamingBody.ofArray(elements).writeTo(output, serializer);
+    } else {
+      output.write(serializer.writeValueAsBytes(elements));
+    }
+  }
+
+  /**
+   * Thrown by {@link #FIRST_BYTE} to stop writing once the first byte arrives.
+   */
+  private static final class FirstByteWrittenException extends IOException {
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+      return this;
+    }
+  }
+}
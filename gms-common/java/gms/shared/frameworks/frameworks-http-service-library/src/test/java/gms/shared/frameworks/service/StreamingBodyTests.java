@@ -0,0 +1,73 @@
+package gms.shared.frameworks.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import gms.shared.mechanisms.objectstoragedistribution.coi.common.datatransferobjects.CoiObjectMapperFactory;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class StreamingBodyTests {
+
+  private static final List<Map<String, Instant>> ELEMENTS = List.of(
+      Map.of("time", Instant.parse("2019-01-01T00:00:00Z")),
+      Map.of("time", Instant.parse("2019-01-02T00:00:00Z")));
+
+  @Test
+  void testOfArrayJsonUsesSerializerConfiguration() throws IOException {
+    final ObjectMapper serializer = CoiObjectMapperFactory.getJsonObjectMapper().copy()
+        .enable(SerializationFeature.INDENT_OUTPUT);
+
+    assertEquals(serializer.writeValueAsString(ELEMENTS), write(serializer).toString("UTF-8"));
+  }
+
+  @Test
+  void testOfArrayMsgpack() throws IOException {
+    final ObjectMapper serializer = CoiObjectMapperFactory.getMsgpackObjectMapper();
+
+    assertArrayEquals(serializer.writeValueAsBytes(ELEMENTS), write(serializer).toByteArray());
+  }
+
+  @Test
+  void testOfArrayDoesNotCloseOutput() throws IOException {
+    final boolean[] closed = {false};
+    final ByteArrayOutputStream output = new ByteArrayOutputStream() {
+      @Override
+      public void close() {
+        closed[0] = true;
+      }
+    };
+
+    StreamingBody.ofArray(ELEMENTS).writeTo(output, CoiObjectMapperFactory.getJsonObjectMapper());
+
+    assertFalse(closed[0]);
+  }
+
+  @Test
+  void testOfArraySizeMismatchThrows() {
+    final StreamingBody body = StreamingBody.ofArray(3, ELEMENTS.iterator());
+
+    assertThrows(IllegalStateException.class, () -> body.writeTo(new ByteArrayOutputStream(),
+        CoiObjectMapperFactory.getJsonObjectMapper()));
+  }
+
+  @Test
+  void testOfArrayNegativeSizeThrows() {
+    assertThrows(IllegalArgumentException.class,
+        () -> StreamingBody.ofArray(-1, ELEMENTS.iterator()));
+  }
+
+  private static ByteArrayOutputStream write(ObjectMapper serializer) throws IOException {
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    StreamingBody.ofArray(ELEMENTS).writeTo(output, serializer);
+    return output;
+  }
+}
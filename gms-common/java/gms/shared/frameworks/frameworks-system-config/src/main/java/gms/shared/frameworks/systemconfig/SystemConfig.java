@@ -60,6 +60,12 @@ public class SystemConfig {
    */
   public static final String CLIENT_TIMEOUT = "client-timeout";
 
+  /**
+   * The name of the configuration item indicating the maximum number of requests a client of a
+   * service may have outstanding at once.
+   */
+  public static final String CLIENT_MAX_CONCURRENT_REQUESTS = "client-max-concurrent-requests";
+
   /**
    * The name of the configuration item indicating a service host identifier.
    */
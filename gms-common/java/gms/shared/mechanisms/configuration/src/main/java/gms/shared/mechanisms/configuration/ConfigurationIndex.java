@@ -0,0 +1,219 @@
+package gms.shared.mechanisms.configuration;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import gms.shared.mechanisms.configuration.constraints.DefaultConstraint;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Precompiled form of a {@link Configuration} used by {@link ConfigurationResolver}.  Groups the
+ * {@link ConfigurationOption}s by the criteria of their non-{@link
+ * gms.shared.mechanisms.configuration.constraints.WildcardConstraint}s and indexes them by the
+ * {@link Selector} values satisfying their {@link Constraint}s, so matching a list of Selectors
+ * only tests the Constraints that cannot be looked up by value.  Also caches the parameters
+ * resolved for each normalized (sorted by criterion) list of Selectors.
+ *
+ * A Configuration is immutable, so an index never needs to be invalidated; a changed Configuration
+ * is a new Configuration instance with its own index.
+ */
+class ConfigurationIndex {
+
+  /**
+   * Maximum number of resolved parameter maps cached per Configuration
+   */
+  static final int MAXIMUM_RESOLVED_PARAMETERS = 4096;
+
+  private final ConfigurationOption[] options;
+
+  /**
+   * Options grouped by their sorted non-WildcardConstraint criteria
+   */
+  private final Map<Set<String>, BitSet> optionsByCriteria;
+
+  private final Map<String, CriterionIndex> criterionIndexes;
+
+  private final Cache<List<Selector>, Map<String, Object>> resolvedParameters =
+      CacheBuilder.newBuilder().maximumSize(MAXIMUM_RESOLVED_PARAMETERS).build();
+
+  ConfigurationIndex(Configuration configuration) {
+    this.options = configuration.getConfigurationOptions().toArray(new ConfigurationOption[0]);
+    this.optionsByCriteria = new LinkedHashMap<>();
+    this.criterionIndexes = new HashMap<>();
+
+    for (int i = 0; i < options.length; i++) {
+      final Set<String> criteria = new TreeSet<>();
+
+      for (Constraint<?, ?> constraint : options[i].getConstraints()) {
+        if (constraint.getConstraintType() != ConstraintType.WILDCARD) {
+          criteria.add(constraint.getCriterion());
+          criterionIndexes.computeIfAbsent(constraint.getCriterion(), c -> new CriterionIndex())
+              .add(i, constraint);
+        }
+      }
+
+      optionsByCriteria.computeIfAbsent(criteria, c -> new BitSet()).set(i);
+    }
+  }
+
+  Map<String, Object> getResolvedParameters(List<Selector> normalizedSelectors) {
+    return resolvedParameters.getIfPresent(normalizedSelectors);
+  }
+
+  void putResolvedParameters(List<Selector> normalizedSelectors, Map<String, Object> parameters) {
+    resolvedParameters.put(normalizedSelectors, parameters);
+  }
+
+  /**
+   * Finds the {@link ConfigurationOption}s matched by the selectors, in the order they appear in
+   * the Configuration.  An option matches when there is a selector satisfying each of its
+   * non-WildcardConstraints.  When matching with the default selector only options with a {@link
+   * DefaultConstraint} match.
+   *
+   * @param selectorValues selector values by criterion; must not contain the {@link
+   * DefaultConstraint#CRITERION}
+   * @param withDefault whether to also match the default selector
+   * @return matching ConfigurationOptions, not null
+   */
+  List<ConfigurationOption> match(Map<String, Object> selectorValues, boolean withDefault) {
+    final BitSet matches = new BitSet(options.length);
+
+    for (Map.Entry<Set<String>, BitSet> group : optionsByCriteria.entrySet()) {
+      final Set<String> criteria = group.getKey();
+      if (withDefault != criteria.contains(DefaultConstraint.CRITERION)
+          || !selectorValuesCover(selectorValues, criteria)) {
+        continue;
+      }
+
+      final BitSet candidates = (BitSet) group.getValue().clone();
+      for (String criterion : criteria) {
+        if (!DefaultConstraint.CRITERION.equals(criterion)) {
+          criterionIndexes.get(criterion)
+              .retainCandidates(selectorValues.get(criterion), candidates);
+        }
+      }
+
+      for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+        if (testUnindexedConstraints(i, selectorValues)) {
+          matches.set(i);
+        }
+      }
+    }
+
+    // Keep the Configuration's order of the ConfigurationOptions
+    final List<ConfigurationOption> matchingOptions = new ArrayList<>(matches.cardinality());
+    for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+      matchingOptions.add(options[i]);
+    }
+    return matchingOptions;
+  }
+
+  private static boolean selectorValuesCover(Map<String, Object> selectorValues,
+      Set<String> criteria) {
+    for (String criterion : criteria) {
+      if (!DefaultConstraint.CRITERION.equals(criterion)
+          && !selectorValues.containsKey(criterion)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @SuppressWarnings("unchecked")
+  private boolean testUnindexedConstraints(int option, Map<String, Object> selectorValues) {
+    for (Constraint constraint : options[option].getConstraints()) {
+      final CriterionIndex criterionIndex = criterionIndexes.get(constraint.getCriterion());
+      if (constraint.getConstraintType() != ConstraintType.WILDCARD
+          && criterionIndex.isTested(option)
+          && !constraint.test(selectorValues.get(constraint.getCriterion()))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Index of the options with a non-WildcardConstraint for one criterion
+   */
+  private static final class CriterionIndex {
+
+    /**
+     * Options whose Constraint is satisfied exactly by the selector values they are indexed by
+     */
+    private final Map<Object, BitSet> optionsByValue = new HashMap<>();
+
+    /**
+     * Options whose Constraint is satisfied by any selector value
+     */
+    private final BitSet anyValue = new BitSet();
+
+    /**
+     * Options whose Constraint must be tested with the selector value
+     */
+    private final BitSet tested = new BitSet();
+
+    private void add(int option, Constraint<?, ?> constraint) {
+      final boolean negated = constraint.getOperator().isNegated();
+
+      switch (constraint.getConstraintType()) {
+        case DEFAULT:
+          anyValue.set(option);
+          break;
+
+        case BOOLEAN:
+          if (negated) {
+            tested.set(option);
+          } else {
+            indexValue(option, constraint.getValue());
+          }
+          break;
+
+        case STRING:
+        case PHASE:
+          final Collection<?> values = (Collection<?>) constraint.getValue();
+          if (negated) {
+            tested.set(option);
+          } else if (constraint.getOperator().getType() == Operator.Type.IN
+              || values.size() == 1) {
+            values.forEach(value -> indexValue(option, value));
+          }
+          // A non-negated EQ Constraint with several values is never satisfied, so those options
+          // are not indexed
+          break;
+
+        default:
+          tested.set(option);
+      }
+    }
+
+    private void indexValue(int option, Object value) {
+      optionsByValue.computeIfAbsent(value, v -> new BitSet()).set(option);
+    }
+
+    private boolean isTested(int option) {
+      return tested.get(option);
+    }
+
+    /**
+     * Removes the candidates that cannot be satisfied by the selector value
+     */
+    private void retainCandidates(Object selectorValue, BitSet candidates) {
+      final BitSet satisfiable = (BitSet) tested.clone();
+      satisfiable.or(anyValue);
+
+      final BitSet byValue = optionsByValue.get(selectorValue);
+      if (byValue != null) {
+        satisfiable.or(byValue);
+      }
+
+      candidates.and(satisfiable);
+    }
+  }
+}
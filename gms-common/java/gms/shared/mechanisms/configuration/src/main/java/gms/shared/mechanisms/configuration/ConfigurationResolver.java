@@ -1,7 +1,10 @@
 package gms.shared.mechanisms.configuration;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import gms.shared.mechanisms.configuration.constraints.DefaultConstraint;
 import gms.shared.mechanisms.configuration.constraints.WildcardConstraint;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -23,6 +26,12 @@ import java.util.stream.Stream;
 /**
  * Processes {@link Configuration} to find which {@link ConfigurationOption} best matches a list of
  * {@link Selector}s.
+ *
+ * Each Configuration is compiled into a {@link ConfigurationIndex} the first time it is resolved,
+ * which also caches the parameters resolved for each list of Selectors.  The indexes are held by
+ * Configuration identity and released once their Configuration is no longer referenced, so
+ * replacing a Configuration (e.g. loading a new {@link FileConfigurationRepository}) invalidates
+ * its cached resolutions.
  */
 public class ConfigurationResolver {
 
@@ -39,6 +48,13 @@ public class ConfigurationResolver {
   private static final Selector<String> defaultSelector = Selector
       .from(DefaultConstraint.CRITERION, "-");
 
+  /**
+   * Compiled {@link ConfigurationIndex} for each resolved {@link Configuration}, weakly keyed by
+   * Configuration identity
+   */
+  private static final Cache<Configuration, ConfigurationIndex> indexes = CacheBuilder
+      .newBuilder().weakKeys().build();
+
   private ConfigurationResolver() {
   }
 
@@ -87,16 +103,66 @@ public class ConfigurationResolver {
       throw new IllegalArgumentException("Each Selector must be for a unique criterion");
     }
 
-    // Resolve the best matching defaults for the provided selectors
-    List<Selector> selectorsWithDefault = Stream
-        .concat(selectors.stream(), Stream.of(defaultSelector)).collect(Collectors.toList());
+    // A Selector for the DefaultConstraint criterion changes which options are defaults and a null
+    // Selector value cannot be looked up, so resolve those with the full scan rather than the index
+    if (selectors.stream().anyMatch(
+        s -> DefaultConstraint.CRITERION.equals(s.getCriterion()) || s.getValue() == null)) {
+      return merge(
+          getBestMatchedParameters(configuration,
+              Stream.concat(selectors.stream(), Stream.of(defaultSelector))
+                  .collect(Collectors.toList())),
+          getBestMatchedParameters(configuration, selectors));
+    }
+
+    final ConfigurationIndex index = getIndex(configuration);
+
+    // Selector order does not affect resolution, so cache by the Selectors sorted by criterion
+    final List<Selector> normalizedSelectors = new ArrayList<>(selectors);
+    normalizedSelectors.sort(Comparator.comparing(Selector::getCriterion));
+
+    Map<String, Object> resolvedParameters = index.getResolvedParameters(normalizedSelectors);
+    if (resolvedParameters == null) {
+      final Map<String, Object> selectorValues = new HashMap<>();
+      normalizedSelectors.forEach(s -> selectorValues.put(s.getCriterion(), s.getValue()));
+
+      // Resolve the best matching defaults and default overrides for the provided selectors
+      resolvedParameters = merge(
+          findBestMatchedParameters(index.match(selectorValues, true)),
+          findBestMatchedParameters(index.match(selectorValues, false)));
+
+      index.putResolvedParameters(normalizedSelectors, resolvedParameters);
+    }
+
+    return new HashMap<>(resolvedParameters);
+  }
 
-    final Optional<Map<String, Object>> defaults =
-        getBestMatchedParameters(configuration, selectorsWithDefault);
+  /**
+   * Obtains the {@link ConfigurationIndex} for the {@link Configuration}, compiling it if the
+   * Configuration has not been resolved before.
+   *
+   * @param configuration {@link Configuration}, not null
+   * @return ConfigurationIndex for the configuration, not null
+   */
+  private static ConfigurationIndex getIndex(Configuration configuration) {
+    ConfigurationIndex index = indexes.getIfPresent(configuration);
+    if (index == null) {
+      index = new ConfigurationIndex(configuration);
+      indexes.put(configuration, index);
+    }
+    return index;
+  }
 
-    // Resolve the best matching default overrides for the provided selectors
-    final Optional<Map<String, Object>> overrides =
-        getBestMatchedParameters(configuration, selectors);
+  /**
+   * Constructs a field map containing the defaults field map with entries overwritten by
+   * corresponding entries from the override field map
+   *
+   * @param defaults best matching default parameters, not null
+   * @param overrides best matching default override parameters, not null
+   * @return a new field map, not null
+   * @throws IllegalStateException if there are no defaults and no default overrides
+   */
+  private static Map<String, Object> merge(Optional<Map<String, Object>> defaults,
+      Optional<Map<String, Object>> overrides) {
 
     // Throw if there are no defaults and no default overrides matching the provided selectors
     if (!defaults.isPresent() && !overrides.isPresent()) {
@@ -104,8 +170,6 @@ public class ConfigurationResolver {
           + "ConfigurationOptions and also did not match any default ConfigurationOptions");
     }
 
-    // Construct a field map containing the defaults field map with entries overwritten by
-    // corresponding entries from the override field map
     final Map<String, Object> resolvedParameters = new HashMap<>(defaults.orElse(Map.of()));
     resolvedParameters.putAll(overrides.orElse(Map.of()));
     return resolvedParameters;
@@ -127,6 +191,19 @@ public class ConfigurationResolver {
         .filter(o -> match(o.getConstraints(), selectors))
         .collect(Collectors.toList());
 
+    return findBestMatchedParameters(matches);
+  }
+
+  /**
+   * Obtains an Optional field map containing the {@link ConfigurationOption#getParameters()} from
+   * the best of the matching {@link ConfigurationOption}s.
+   *
+   * @param matches matching ConfigurationOptions, not null
+   * @return Optional string to object map, empty if there are no matches, not null
+   */
+  private static Optional<Map<String, Object>> findBestMatchedParameters(
+      List<ConfigurationOption> matches) {
+
     // Find the best matching ConfigurationOption
     return Optional.ofNullable(matches.isEmpty() ? null : findBestMatch(matches).getParameters());
   }
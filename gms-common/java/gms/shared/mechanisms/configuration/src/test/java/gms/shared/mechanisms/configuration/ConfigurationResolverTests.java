@@ -1,15 +1,19 @@
 package gms.shared.mechanisms.configuration;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 
 import gms.shared.mechanisms.configuration.Operator.Type;
 import gms.shared.mechanisms.configuration.client.FooParameters;
+import gms.shared.mechanisms.configuration.constraints.BooleanConstraint;
 import gms.shared.mechanisms.configuration.constraints.DefaultConstraint;
 import gms.shared.mechanisms.configuration.constraints.NumericScalarConstraint;
+import gms.shared.mechanisms.configuration.constraints.StringConstraint;
 import gms.shared.mechanisms.configuration.constraints.WildcardConstraint;
 import gms.shared.mechanisms.configuration.util.ObjectSerialization;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -216,6 +220,85 @@ class ConfigurationResolverTests {
     );
   }
 
+  /**
+   * Resolving the same Selectors again returns the cached parameters in a new, independent field
+   * map
+   */
+  @Test
+  void testResolveRepeatedReturnsIndependentFieldMaps() {
+    final List<Selector> selectors = List.of(Selector.from("snr", 5.0), Selector.from("baz", 10.0));
+
+    final Map<String, Object> first = ConfigurationResolver
+        .resolve(configurationSnrIs5BazIs10, selectors);
+    first.put("a", -1);
+    first.remove("b");
+
+    final Map<String, Object> second = ConfigurationResolver
+        .resolve(configurationSnrIs5BazIs10, selectors);
+    assertNotSame(first, second);
+    assertEquals(fooParamsSnrIs5BazIs10FieldMap, second);
+    assertEquals(fooParamsSnrIs5BazIs10FieldMap, ConfigurationResolver
+        .resolve(configurationSnrIs5BazIs10, List.of(selectors.get(1), selectors.get(0))));
+  }
+
+  /**
+   * String and boolean Constraints are matched by looking up the Selector values; the negated
+   * Constraints and the EQ Constraint with multiple values still follow {@link Constraint#test}
+   */
+  @Test
+  void testResolvesStringAndBooleanConstraints() {
+    final ConfigurationOption stationIsAbc = ConfigurationOption.from("STA-ABC",
+        List.of(StringConstraint.from("sta", Operator.from(Type.EQ, false), Set.of("ABC"), 1)),
+        Map.of("a", 1));
+    final ConfigurationOption stationInDefGhi = ConfigurationOption.from("STA-IN-DEF-GHI",
+        List.of(
+            StringConstraint.from("sta", Operator.from(Type.IN, false), Set.of("DEF", "GHI"), 1),
+            BooleanConstraint.from("beam", true, 2)),
+        Map.of("a", 2));
+    final ConfigurationOption stationNotAbc = ConfigurationOption.from("STA-NOT-ABC",
+        List.of(StringConstraint.from("sta", Operator.from(Type.EQ, true), Set.of("ABC"), 1),
+            BooleanConstraint.from("beam", false, 2)),
+        Map.of("a", 3));
+    final ConfigurationOption stationIsJklOrMno = ConfigurationOption.from("STA-JKL-MNO",
+        List.of(StringConstraint.from("sta", Operator.from(Type.EQ, false), Set.of("JKL", "MNO"),
+            1)),
+        Map.of("a", 4));
+
+    final Configuration configuration = Configuration.from("TEST-CONFIG",
+        List.of(configOptDefault, stationIsAbc, stationInDefGhi, stationNotAbc, stationIsJklOrMno));
+
+    final Map<List<Selector>, Integer> expectedA = Map.of(
+        List.of(Selector.from("sta", "ABC")), 1,
+        List.of(Selector.from("sta", "ABC"), Selector.from("beam", false)), 1,
+        List.of(Selector.from("sta", "GHI"), Selector.from("beam", true)), 2,
+        List.of(Selector.from("sta", "GHI"), Selector.from("beam", false)), 3,
+        List.of(Selector.from("sta", "JKL"), Selector.from("beam", false)), 3,
+        List.of(Selector.from("sta", "JKL")), 100,
+        List.of(Selector.from("beam", true)), 100);
+
+    expectedA.forEach((selectors, a) -> assertEquals(
+        ObjectSerialization.toFieldMap(fooParamsDefaults.toBuilder().a(a).build()),
+        ConfigurationResolver.resolve(configuration, selectors), selectors.toString()));
+  }
+
+  @Test
+  void testResolveHasTieRepeatedExpectIllegalStateException() {
+    final Constraint barIs20 = NumericScalarConstraint
+        .from("bar", Operator.from(Type.EQ, false), 20.0, snrIs5.getPriority());
+
+    final Configuration configuration = Configuration.from("TEST-CONFIG",
+        List.of(configOptDefault, configOptSnrIs5BazIsWildcard,
+            ConfigurationOption.from("(BAR-20)", List.of(barIs20), Map.of("a", 40))));
+
+    final List<Selector> selectors = List.of(Selector.from("snr", 5.0), Selector.from("bar", 20.0));
+    for (int i = 0; i < 2; i++) {
+      TestUtilities.expectExceptionAndMessage(
+          () -> ConfigurationResolver.resolve(configuration, selectors),
+          IllegalStateException.class,
+          "Configuration resolved to multiple ConfigurationOptions");
+    }
+  }
+
   @Test
   void testResolveDuplicateSelectorCriteriaExpectIllegalArgumentException() {
     TestUtilities.expectExceptionAndMessage(
@@ -66,12 +66,14 @@ import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.comm
 import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.datatransferobjects.ReferenceStationMembershipDto;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.AcquiredChannelSohAnalog;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.AcquiredChannelSohBoolean;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.AcquiredChannelSohBooleanSegment;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.ChannelSegment;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.Immutable2dDoubleArray;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.RawStationDataFrame;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.Waveform;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.datatransferobjects.AcquiredChannelSohAnalogDto;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.datatransferobjects.AcquiredChannelSohBooleanDto;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.datatransferobjects.AcquiredChannelSohBooleanSegmentDto;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.datatransferobjects.ChannelSegmentDto;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.datatransferobjects.Immutable2dDoubleArrayDto;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.datatransferobjects.RawStationDataFrameDto;
@@ -139,6 +141,8 @@ public final class CoiObjectMapperFactory {
     objMapper
         .addMixIn(AcquiredChannelSohAnalog.class, AcquiredChannelSohAnalogDto.class)
         .addMixIn(AcquiredChannelSohBoolean.class, AcquiredChannelSohBooleanDto.class)
+        .addMixIn(AcquiredChannelSohBooleanSegment.class,
+            AcquiredChannelSohBooleanSegmentDto.class)
         .addMixIn(AnalystActionReference.class, AnalystActionReferenceDto.class)
         .addMixIn(Calibration.class, CalibrationDto.class)
         .addMixIn(Channel.class, ChannelDto.class)
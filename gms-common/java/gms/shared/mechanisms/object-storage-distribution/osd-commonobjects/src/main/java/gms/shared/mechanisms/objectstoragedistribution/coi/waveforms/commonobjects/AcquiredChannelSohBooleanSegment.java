@@ -0,0 +1,300 @@
+package gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects;
+
+import gms.shared.mechanisms.objectstoragedistribution.coi.emerging.provenance.commonobjects.CreationInfo;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.AcquiredChannelSoh.AcquiredChannelSohType;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Compact representation of all of the boolean State-of-Health statuses reported for one channel
+ * over one time range (e.g. the status bits of a CD-1.1 channel subframe).  The statuses are held
+ * as two bit sets, indexed by {@link AcquiredChannelSohType} ordinal: which types were reported,
+ * and which of those were set.
+ *
+ * Each status is equivalent to an {@link AcquiredChannelSohBoolean} whose id is derived from this
+ * segment's id and the status type (see {@link #flagId(UUID, AcquiredChannelSohType)}), so the
+ * statuses can be expanded with {@link #toSohBooleans()} and packed back with {@link
+ * #pack(Collection)} without losing their ids.
+ */
+public final class AcquiredChannelSohBooleanSegment {
+
+  static {
+    Validate.validState(AcquiredChannelSohType.values().length <= Long.SIZE,
+        "AcquiredChannelSohBooleanSegment can only hold %d SOH types", Long.SIZE);
+  }
+
+  private final UUID id, channelId;
+  private final Instant startTime, endTime;
+  private final long typeBits, statusBits;
+  private final CreationInfo creationInfo;
+
+  /**
+   * Creates an AcquiredChannelSohBooleanSegment anew.
+   *
+   * @param channelId identifier referencing the ProcessingChannel the SOH is for.
+   * @param startTime the start time for the statuses
+   * @param endTime the end time for the statuses
+   * @param statuses the status of each reported State-Of-Health type, not empty
+   * @param creationInfo metadata about when this object was created and by what/whom.
+   * @throws NullPointerException if any arg is null
+   * @throws IllegalArgumentException if statuses is empty or startTime is not before endTime
+   */
+  public static AcquiredChannelSohBooleanSegment create(UUID channelId,
+      Instant startTime, Instant endTime, Map<AcquiredChannelSohType, Boolean> statuses,
+      CreationInfo creationInfo) {
+
+    Objects.requireNonNull(statuses);
+    long typeBits = 0;
+    long statusBits = 0;
+    for (Map.Entry<AcquiredChannelSohType, Boolean> status : statuses.entrySet()) {
+      long bit = bit(status.getKey());
+      typeBits |= bit;
+      if (Objects.requireNonNull(status.getValue())) {
+        statusBits |= bit;
+      }
+    }
+    return new AcquiredChannelSohBooleanSegment(UUID.randomUUID(), channelId,
+        startTime, endTime, typeBits, statusBits, creationInfo);
+  }
+
+  /**
+   * Creates an AcquiredChannelSohBooleanSegment from all params.
+   *
+   * @param id the identifier for this entity
+   * @param channelId identifier referencing the ProcessingChannel the SOH is for.
+   * @param startTime the start time for the statuses
+   * @param endTime the end time for the statuses
+   * @param typeBits bit set of the reported types, by {@link AcquiredChannelSohType} ordinal
+   * @param statusBits bit set of the reported types whose status is true
+   * @param creationInfo metadata about when this object was created and by what/whom.
+   * @throws NullPointerException if any arg is null
+   * @throws IllegalArgumentException if no types are reported, a status is set for a type that
+   * is not reported, or startTime is not before endTime
+   */
+  public static AcquiredChannelSohBooleanSegment from(UUID id, UUID channelId,
+      Instant startTime, Instant endTime, long typeBits, long statusBits,
+      CreationInfo creationInfo) {
+
+    return new AcquiredChannelSohBooleanSegment(id, channelId,
+        startTime, endTime, typeBits, statusBits, creationInfo);
+  }
+
+  /**
+   * Packs boolean SOH statuses into one segment, if they can be packed without losing anything:
+   * they must all be for the same channel, time range and creation info, each must be of a
+   * different type, and their ids must all be derived from one segment id (as those from {@link
+   * #toSohBooleans()} are).  A single status can always be packed.
+   *
+   * @param sohs the statuses to pack, not empty
+   * @return the segment holding the statuses, or empty if they cannot be packed
+   */
+  public static Optional<AcquiredChannelSohBooleanSegment> pack(
+      Collection<AcquiredChannelSohBoolean> sohs) {
+
+    Validate.notEmpty(sohs);
+    Iterator<AcquiredChannelSohBoolean> it = sohs.iterator();
+    AcquiredChannelSohBoolean first = it.next();
+    UUID id = segmentId(first.getId(), first.getType());
+    long typeBits = bit(first.getType());
+    long statusBits = first.getStatus() ? typeBits : 0;
+
+    while (it.hasNext()) {
+      AcquiredChannelSohBoolean soh = it.next();
+      long bit = bit(soh.getType());
+      if ((typeBits & bit) != 0
+          || !soh.getId().equals(flagId(id, soh.getType()))
+          || !soh.getChannelId().equals(first.getChannelId())
+          || !soh.getStartTime().equals(first.getStartTime())
+          || !soh.getEndTime().equals(first.getEndTime())
+          || !soh.getCreationInfo().equals(first.getCreationInfo())) {
+        return Optional.empty();
+      }
+      typeBits |= bit;
+      if (soh.getStatus()) {
+        statusBits |= bit;
+      }
+    }
+    return Optional.of(new AcquiredChannelSohBooleanSegment(id, first.getChannelId(),
+        first.getStartTime(), first.getEndTime(), typeBits, statusBits,
+        first.getCreationInfo()));
+  }
+
+  /**
+   * Derives the id of the {@link AcquiredChannelSohBoolean} holding one status of a segment.
+   * Derivation is its own inverse: {@code flagId(flagId(id, type), type)} is {@code id}.
+   *
+   * @param segmentId id of the segment
+   * @param type type of the status
+   * @return id of the status
+   */
+  public static UUID flagId(UUID segmentId, AcquiredChannelSohType type) {
+    return new UUID(segmentId.getMostSignificantBits(),
+        segmentId.getLeastSignificantBits() ^ (type.ordinal() + 1));
+  }
+
+  /**
+   * Derives the id of the segment that would hold a status with the given id, i.e. the inverse of
+   * {@link #flagId(UUID, AcquiredChannelSohType)}.
+   *
+   * @param flagId id of the status
+   * @param type type of the status
+   * @return id of the segment
+   */
+  public static UUID segmentId(UUID flagId, AcquiredChannelSohType type) {
+    return flagId(flagId, type);
+  }
+
+  private AcquiredChannelSohBooleanSegment(UUID id, UUID channelId,
+      Instant startTime, Instant endTime, long typeBits, long statusBits,
+      CreationInfo creationInfo) {
+
+    Validate.isTrue(startTime.isBefore(endTime));
+    Validate.isTrue(typeBits != 0, "A segment must hold at least one status");
+    Validate.isTrue((typeBits >>> AcquiredChannelSohType.values().length) == 0,
+        "Unknown SOH types in %x", typeBits);
+    Validate.isTrue((statusBits & ~typeBits) == 0,
+        "Statuses %x set for types %x that are not reported", statusBits, typeBits);
+
+    this.id = Objects.requireNonNull(id);
+    this.channelId = Objects.requireNonNull(channelId);
+    this.startTime = Objects.requireNonNull(startTime);
+    this.endTime = Objects.requireNonNull(endTime);
+    this.typeBits = typeBits;
+    this.statusBits = statusBits;
+    this.creationInfo = Objects.requireNonNull(creationInfo);
+  }
+
+  public UUID getId() {
+    return id;
+  }
+
+  public UUID getChannelId() {
+    return channelId;
+  }
+
+  public Instant getStartTime() {
+    return startTime;
+  }
+
+  public Instant getEndTime() {
+    return endTime;
+  }
+
+  /**
+   * Gets the bit set of reported types, indexed by {@link AcquiredChannelSohType} ordinal.
+   */
+  public long getTypeBits() {
+    return typeBits;
+  }
+
+  /**
+   * Gets the bit set of reported types whose status is true, indexed by {@link
+   * AcquiredChannelSohType} ordinal.
+   */
+  public long getStatusBits() {
+    return statusBits;
+  }
+
+  public CreationInfo getCreationInfo() {
+    return creationInfo;
+  }
+
+  /**
+   * Gets the reported types.
+   */
+  public Set<AcquiredChannelSohType> getTypes() {
+    Set<AcquiredChannelSohType> types = EnumSet.noneOf(AcquiredChannelSohType.class);
+    for (AcquiredChannelSohType type : AcquiredChannelSohType.values()) {
+      if ((typeBits & bit(type)) != 0) {
+        types.add(type);
+      }
+    }
+    return types;
+  }
+
+  /**
+   * Gets the status of a type.
+   *
+   * @param type the type, not null
+   * @return the status, or empty if the type was not reported
+   */
+  public Optional<Boolean> getStatus(AcquiredChannelSohType type) {
+    long bit = bit(type);
+    return (typeBits & bit) == 0 ? Optional.empty() : Optional.of((statusBits & bit) != 0);
+  }
+
+  /**
+   * Gets the statuses by type.
+   */
+  public Map<AcquiredChannelSohType, Boolean> getStatuses() {
+    Map<AcquiredChannelSohType, Boolean> statuses = new EnumMap<>(AcquiredChannelSohType.class);
+    for (AcquiredChannelSohType type : getTypes()) {
+      statuses.put(type, (statusBits & bit(type)) != 0);
+    }
+    return statuses;
+  }
+
+  /**
+   * Expands this segment into one {@link AcquiredChannelSohBoolean} per reported type, in type
+   * order, with ids derived from this segment's id.
+   */
+  public List<AcquiredChannelSohBoolean> toSohBooleans() {
+    List<AcquiredChannelSohBoolean> sohs = new ArrayList<>(Long.bitCount(typeBits));
+    for (AcquiredChannelSohType type : getTypes()) {
+      sohs.add(AcquiredChannelSohBoolean.from(flagId(id, type), channelId, type,
+          startTime, endTime, (statusBits & bit(type)) != 0, creationInfo));
+    }
+    return sohs;
+  }
+
+  private static long bit(AcquiredChannelSohType type) {
+    return 1L << type.ordinal();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    AcquiredChannelSohBooleanSegment that = (AcquiredChannelSohBooleanSegment) o;
+    return typeBits == that.typeBits &&
+        statusBits == that.statusBits &&
+        id.equals(that.id) &&
+        channelId.equals(that.channelId) &&
+        startTime.equals(that.startTime) &&
+        endTime.equals(that.endTime) &&
+        creationInfo.equals(that.creationInfo);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects
+        .hash(id, channelId, startTime, endTime, typeBits, statusBits, creationInfo);
+  }
+
+  @Override
+  public String toString() {
+    return "AcquiredChannelSohBooleanSegment{" +
+        "id=" + id +
+        ", channelId=" + channelId +
+        ", startTime=" + startTime +
+        ", endTime=" + endTime +
+        ", statuses=" + getStatuses() +
+        ", creationInfo=" + creationInfo +
+        '}';
+  }
+}
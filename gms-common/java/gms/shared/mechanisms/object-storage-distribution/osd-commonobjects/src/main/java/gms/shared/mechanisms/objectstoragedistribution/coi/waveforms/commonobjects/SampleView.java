@@ -0,0 +1,185 @@
+package gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects;
+
+import com.google.common.base.Preconditions;
+import java.nio.DoubleBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Read-only view over a contiguous range of a backing double[], used to hold the samples of a
+ * {@link Waveform}.  Narrowing a view (e.g. when a Waveform is trimmed or windowed) shares the
+ * backing array rather than copying it, so repeatedly narrowing long waveforms does not allocate
+ * copies of their samples.
+ *
+ * The backing array is not copied when a view is created, so it must not be modified afterwards.
+ * Two views are equal if they contain the same samples, regardless of their backing arrays.
+ */
+public final class SampleView {
+
+  /**
+   * A view without any samples.
+   */
+  public static final SampleView EMPTY = new SampleView(new double[]{}, 0, 0);
+
+  private final double[] backing;
+  private final int offset;
+  private final int length;
+
+  // Copy of the viewed range, created by the first call to toArray() on a partial view
+  private volatile double[] materialized;
+
+  private SampleView(double[] backing, int offset, int length) {
+    this.backing = backing;
+    this.offset = offset;
+    this.length = length;
+  }
+
+  /**
+   * Obtains a view of an entire array.
+   *
+   * @param values the backing array, not null
+   * @return a view of all of the values
+   */
+  public static SampleView of(double[] values) {
+    Objects.requireNonNull(values, "Cannot create SampleView from null values");
+    return values.length == 0 ? EMPTY : new SampleView(values, 0, values.length);
+  }
+
+  /**
+   * Obtains a view of a range of an array.
+   *
+   * @param values the backing array, not null
+   * @param offset index of the first value in the view
+   * @param length number of values in the view
+   * @return a view of values[offset, offset + length)
+   * @throws IndexOutOfBoundsException if the range is not within the array
+   */
+  public static SampleView of(double[] values, int offset, int length) {
+    Objects.requireNonNull(values, "Cannot create SampleView from null values");
+    Preconditions.checkPositionIndexes(offset, offset + length, values.length);
+    return length == 0 ? EMPTY : new SampleView(values, offset, length);
+  }
+
+  /**
+   * The number of samples in this view.
+   */
+  public int length() {
+    return length;
+  }
+
+  /**
+   * Whether this view contains no samples.
+   */
+  public boolean isEmpty() {
+    return length == 0;
+  }
+
+  /**
+   * Gets the sample at an index of this view.
+   *
+   * @param index index within this view
+   * @return the sample
+   * @throws IndexOutOfBoundsException if index is not in [0, length())
+   */
+  public double get(int index) {
+    Preconditions.checkElementIndex(index, length);
+    return backing[offset + index];
+  }
+
+  /**
+   * Obtains a view of a range of this view sharing the same backing array.
+   *
+   * @param fromIndex index within this view of the first sample in the returned view
+   * @param subLength number of samples in the returned view
+   * @return a view of this view's samples [fromIndex, fromIndex + subLength)
+   * @throws IndexOutOfBoundsException if the range is not within this view
+   */
+  public SampleView subView(int fromIndex, int subLength) {
+    Preconditions.checkPositionIndexes(fromIndex, fromIndex + subLength, length);
+    if (fromIndex == 0 && subLength == length) {
+      return this;
+    }
+    return of(backing, offset + fromIndex, subLength);
+  }
+
+  /**
+   * Obtains a read-only buffer over the samples of this view without copying them.
+   *
+   * @return a read-only buffer positioned at the first sample, with limit length()
+   */
+  public DoubleBuffer asDoubleBuffer() {
+    return DoubleBuffer.wrap(backing, offset, length).slice().asReadOnlyBuffer();
+  }
+
+  /**
+   * Copies the samples of this view into an array.
+   *
+   * @param destination the array to copy into, not null
+   * @param destinationIndex index in destination of the first copied sample
+   * @throws IndexOutOfBoundsException if destination is too short
+   */
+  public void copyTo(double[] destination, int destinationIndex) {
+    System.arraycopy(backing, offset, destination, destinationIndex, length);
+  }
+
+  /**
+   * Obtains the samples of this view as an array.  A view of an entire array returns that array; a
+   * view of part of an array returns a copy of the range, created once and then reused.  As with
+   * the backing array, the returned array must not be modified.
+   *
+   * @return array containing the samples of this view
+   */
+  public double[] toArray() {
+    if (offset == 0 && length == backing.length) {
+      return backing;
+    }
+
+    double[] values = materialized;
+    if (values == null) {
+      values = Arrays.copyOfRange(backing, offset, offset + length);
+      materialized = values;
+    }
+    return values;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    SampleView that = (SampleView) o;
+    return Arrays.equals(backing, offset, offset + length,
+        that.backing, that.offset, that.offset + that.length);
+  }
+
+  /**
+   * Computes the same hash code as {@link Arrays#hashCode(double[])} of the viewed samples.
+   */
+  @Override
+  public int hashCode() {
+    int result = 1;
+    for (int i = offset; i < offset + length; i++) {
+      long bits = Double.doubleToLongBits(backing[i]);
+      result = 31 * result + (int) (bits ^ (bits >>> 32));
+    }
+    return result;
+  }
+
+  /**
+   * Formats the samples as {@link Arrays#toString(double[])} does.
+   */
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder("[");
+    for (int i = offset; i < offset + length; i++) {
+      if (i > offset) {
+        builder.append(", ");
+      }
+      builder.append(backing[i]);
+    }
+    return builder.append(']').toString();
+  }
+}
@@ -1,15 +1,19 @@
 package gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.google.auto.value.AutoValue;
 import com.google.common.base.Preconditions;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.Arrays;
 import org.apache.commons.lang3.Validate;
 import org.apache.commons.lang3.tuple.Triple;
 
 /**
  * Data class that represents a Waveform which is more generally known as a timeseries.
+ *
+ * The values of a Waveform are held in a {@link SampleView}, so waveforms produced by {@link
+ * #trim(Instant, Instant)} and {@link #window(Instant, Instant)} share the values of the waveform
+ * they were created from instead of copying them.
  */
 @AutoValue
 public abstract class Waveform extends Timeseries {
@@ -20,11 +24,20 @@ public abstract class Waveform extends Timeseries {
    */
   public static Waveform from(Instant startTime, double sampleRate,
       long sampleCount, double[] values) {
+    return from(startTime, sampleRate, sampleCount, SampleView.of(values));
+  }
+
+  /**
+   * Creates a waveform by providing all arguments, except endTime which is computed in the base
+   * class.  The values are shared with the provided view rather than copied.
+   */
+  public static Waveform from(Instant startTime, double sampleRate,
+      long sampleCount, SampleView values) {
     Preconditions.checkArgument(sampleRate > 0.0, "Cannot create"
         + "Waveform with negative sample rate");
     Preconditions.checkArgument(sampleCount > 0, "Cannot create"
         + "Waveform with negative sample count");
-    Preconditions.checkArgument(values.length == 0 || values.length == sampleCount,
+    Preconditions.checkArgument(values.isEmpty() || values.length() == sampleCount,
         "Sample Count must match values count when values are provided");
     return new AutoValue_Waveform(Type.WAVEFORM, startTime, sampleRate, sampleCount, values);
   }
@@ -37,11 +50,19 @@ public abstract class Waveform extends Timeseries {
     return from(startTime, sampleRate, values.length, values);
   }
 
+  /**
+   * Creates a Waveform with its values, sharing the values of the provided view.
+   */
+  public static Waveform withValues(Instant startTime, double sampleRate,
+      SampleView values) {
+    return from(startTime, sampleRate, values.length(), values);
+  }
+
   /**
    * Creates a waveform that omits values.
    */
   public static Waveform withoutValues(Instant startTime, double sampleRate, long sampleCount) {
-    return from(startTime, sampleRate, sampleCount, new double[]{});
+    return from(startTime, sampleRate, sampleCount, SampleView.EMPTY);
   }
 
   /**
@@ -60,9 +81,19 @@ public abstract class Waveform extends Timeseries {
   public abstract long getSampleCount();
 
   /**
-   * The data points of this Waveform.
+   * A read-only view of the data points of this Waveform.
    */
-  public abstract double[] getValues();
+  @JsonIgnore
+  public abstract SampleView getSampleView();
+
+  /**
+   * The data points of this Waveform.  Waveforms created by trimming or windowing another Waveform
+   * copy their data points the first time this is called; use {@link #getSampleView()} to read
+   * them without copying.
+   */
+  public double[] getValues() {
+    return getSampleView().toArray();
+  }
 
   /**
    * Gets the first value
@@ -71,9 +102,9 @@ public abstract class Waveform extends Timeseries {
    */
   public double getFirstSample() {
     Preconditions
-        .checkState(getValues().length != 0, "Cannot get first sample because values are empty");
+        .checkState(!getSampleView().isEmpty(), "Cannot get first sample because values are empty");
 
-    return getValues()[0];
+    return getSampleView().get(0);
   }
 
   /**
@@ -83,9 +114,9 @@ public abstract class Waveform extends Timeseries {
    */
   public double getLastSample() {
     Preconditions
-        .checkState(getValues().length != 0, "Cannot get last sample because values are empty");
+        .checkState(!getSampleView().isEmpty(), "Cannot get last sample because values are empty");
 
-    return getValues()[(int) getSampleCount() - 1];
+    return getSampleView().get((int) getSampleCount() - 1);
   }
 
   /**
@@ -94,7 +125,8 @@ public abstract class Waveform extends Timeseries {
    *
    * @param start the start of the time bound
    * @param end the end of the time bound
-   * @return A new waveform with data only within the given time range
+   * @return A new waveform with data only within the given time range, sharing the values of this
+   * waveform
    * @throws NullPointerException if start or end are null
    * @throws IllegalArgumentException if start is not before end, or if the requested time range is
    * completely outside the range of data this waveform has.
@@ -120,7 +152,7 @@ public abstract class Waveform extends Timeseries {
    * @param start the start of the time bound
    * @param end the end of the time bound
    * @return A few possibilities: 1.) A new Waveform that contains the narrowed (windowed) set of
-   * data from this Waveform. It will have updated start/end times and sample count.  Note that the
+   * data from this Waveform, sharing the values of this Waveform. It will have updated start/end times and sample count.  Note that the
    * start/end times of the new Waveform may not equal the requested start/end times, as they
    * reflect where data actually begins and ends. 2.) This exact Waveform if this ones' start/end
    * times are equal to requested range. 3.) A new Waveform with empty points (sampleRate=0,
@@ -148,14 +180,14 @@ public abstract class Waveform extends Timeseries {
     Instant newStart = computeSampleTime(newIndicesAndSampleCount.getLeft());
 
     // If Waveform doesn't have samples, return new waveform with the new time range.
-    if (this.getValues().length == 0) {
+    if (this.getSampleView().isEmpty()) {
       return Waveform
           .withoutValues(newStart, this.getSampleRate(), newIndicesAndSampleCount.getRight());
     }
-    // copy values into new array; adding one to upper index because Arrays.copyOfRange is end-exclusive
-    // but the upper index is to be included.
-    double[] newValues = Arrays.copyOfRange(this.getValues(),
-        newIndicesAndSampleCount.getLeft(), newIndicesAndSampleCount.getMiddle() + 1);
+    // view the values within the window; adding one to the length because the upper index is to be
+    // included.
+    SampleView newValues = this.getSampleView().subView(newIndicesAndSampleCount.getLeft(),
+        newIndicesAndSampleCount.getMiddle() - newIndicesAndSampleCount.getLeft() + 1);
     return Waveform.withValues(newStart, getSampleRate(), newValues);
   }
 
@@ -1,12 +1,12 @@
 package gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.utility;
 
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.SampleView;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.Waveform;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
-import org.apache.commons.lang3.ArrayUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -116,6 +116,9 @@ public class WaveformUtility {
    * adjacent {@link Waveform}s.
    * @return A new ChannelSegment containing 0 to the number of input {@link Waveform}s -1 merged
    * waveforms on return.
+   *
+   * Each run of mergeable waveforms is tracked by its metadata only and its values are copied into
+   * the merged waveform once, so merging n waveforms copies each value a single time.
    */
   public static List<Waveform> mergeWaveforms(List<Waveform> waveforms,
       double sampleRateTolerance, double minimumGapSampleCountLimit) {
@@ -125,9 +128,9 @@ public class WaveformUtility {
       return waveforms;
     }
 
+    // Check the views rather than getValues(), which copies the values of trimmed waveforms
     boolean hasValues = waveforms.stream()
-        .map(Waveform::getValues)
-        .allMatch(values -> values.length > 0);
+        .noneMatch(waveform -> waveform.getSampleView().isEmpty());
 
     if (!hasValues) {
       logger.warn(
@@ -135,11 +138,12 @@ public class WaveformUtility {
     }
 
     // create a new list for the new channel segment and iterate over all waveforms in this
-    // channel segment. Add the first waveform to the new list to begin
+    // channel segment. The first waveform begins the first run of waveforms to merge.
     List<Waveform> newWaveforms = new ArrayList<>();
     Iterator<Waveform> waveformIterator = waveforms.iterator();
     Waveform previousWaveform = waveformIterator.next();
-    newWaveforms.add(previousWaveform);
+    List<Waveform> mergeRun = new ArrayList<>();
+    mergeRun.add(previousWaveform);
     while (waveformIterator.hasNext()) {
 
       // get the next waveform after the previous and see if the sample rates are comparable.
@@ -154,39 +158,50 @@ public class WaveformUtility {
         if (fractionalGapSampleCount < 1.5 &&
             fractionalGapSampleCount > minimumGapSampleCountLimit) {
 
-          nextWaveform = hasValues ? mergeWithValues(previousWaveform, nextWaveform)
-              : mergeWithoutValues(previousWaveform, nextWaveform);
-
-          // remove the previous waveform (which is now merged) and continue
-          newWaveforms.remove(newWaveforms.size() - 1);
+          // extend the current run; the merged metadata is needed to evaluate the next gap
+          previousWaveform = mergeWithoutValues(previousWaveform, nextWaveform);
+          mergeRun.add(nextWaveform);
+          continue;
         }
       }
 
-      // add the next waveform, update the previousWaveform and continue
-      newWaveforms.add(nextWaveform);
+      // the next waveform can't be merged, so finish the current run and start a new one
+      newWaveforms.add(completeMergeRun(previousWaveform, mergeRun, hasValues));
       previousWaveform = nextWaveform;
+      mergeRun = new ArrayList<>();
+      mergeRun.add(nextWaveform);
     }
+    newWaveforms.add(completeMergeRun(previousWaveform, mergeRun, hasValues));
 
     // return the merged waveforms
     return newWaveforms;
   }
 
   /**
-   * Merges two waveforms together, including their underlying values
+   * Creates the waveform resulting from merging a run of adjacent waveforms.
    *
-   * @param first The first waveform to merge
-   * @param second The second waveform to merge
-   * @return The merged waveform, including the values from the two input waveforms.
+   * @param merged The metadata (start time, sample rate and sample count) of the merged run
+   * @param mergeRun The waveforms in the run, in order
+   * @param hasValues Whether the merged waveform includes the values of the waveforms in the run
+   * @return The single waveform of a run of one, otherwise the merged waveform
    */
-  private static Waveform mergeWithValues(Waveform first, Waveform second) {
-    // make a new Waveform that is a merger of the previousWaveform and the next Waveform
-    double[] samples = ArrayUtils
-        .addAll(first.getValues(), second.getValues());
-    double sampleRate = (double) (samples.length - 1) /
-        getDurationSeconds(first.getStartTime(), second.getEndTime());
-    return Waveform.withValues(
-        first.getStartTime(),
-        sampleRate, samples);
+  private static Waveform completeMergeRun(Waveform merged, List<Waveform> mergeRun,
+      boolean hasValues) {
+    if (mergeRun.size() == 1) {
+      return mergeRun.get(0);
+    }
+    if (!hasValues) {
+      return merged;
+    }
+
+    double[] samples = new double[(int) merged.getSampleCount()];
+    int offset = 0;
+    for (Waveform waveform : mergeRun) {
+      SampleView values = waveform.getSampleView();
+      values.copyTo(samples, offset);
+      offset += values.length();
+    }
+    return Waveform.withValues(merged.getStartTime(), merged.getSampleRate(), samples);
   }
 
   /**
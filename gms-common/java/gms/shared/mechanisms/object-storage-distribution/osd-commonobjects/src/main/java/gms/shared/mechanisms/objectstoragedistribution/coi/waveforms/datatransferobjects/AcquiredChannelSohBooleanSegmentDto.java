@@ -0,0 +1,38 @@
+package gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.datatransferobjects;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import gms.shared.mechanisms.objectstoragedistribution.coi.emerging.provenance.commonobjects.CreationInfo;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.AcquiredChannelSoh.AcquiredChannelSohType;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.AcquiredChannelSohBooleanSegment;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Create class to allow transformation to and from JSON.
+ */
+public interface AcquiredChannelSohBooleanSegmentDto {
+
+  @JsonCreator
+  static AcquiredChannelSohBooleanSegment from(
+      @JsonProperty("id") UUID id,
+      @JsonProperty("channelId") UUID channelId,
+      @JsonProperty("startTime") Instant startTime,
+      @JsonProperty("endTime") Instant endTime,
+      @JsonProperty("typeBits") long typeBits,
+      @JsonProperty("statusBits") long statusBits,
+      @JsonProperty("creationInfo") CreationInfo creationInfo) {
+
+    return AcquiredChannelSohBooleanSegment.from(id, channelId,
+        startTime, endTime, typeBits, statusBits, creationInfo);
+  }
+
+  @JsonIgnore
+  Set<AcquiredChannelSohType> getTypes();
+
+  @JsonIgnore
+  Map<AcquiredChannelSohType, Boolean> getStatuses();
+}
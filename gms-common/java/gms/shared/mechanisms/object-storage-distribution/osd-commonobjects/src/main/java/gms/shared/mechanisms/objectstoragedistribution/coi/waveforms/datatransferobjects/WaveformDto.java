@@ -3,6 +3,7 @@ package gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.datatransf
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.SampleView;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.Waveform;
 import java.time.Instant;
 
@@ -36,4 +37,8 @@ public interface WaveformDto {
   @JsonIgnore
   Instant getEndTime();
 
+  // values are serialized from getValues(), so views and copies serialize identically
+  @JsonIgnore
+  SampleView getSampleView();
+
 }
@@ -0,0 +1,137 @@
+package gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import gms.shared.mechanisms.objectstoragedistribution.coi.common.TestUtilities;
+import gms.shared.mechanisms.objectstoragedistribution.coi.emerging.provenance.commonobjects.CreationInfo;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.TestFixtures;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.AcquiredChannelSoh.AcquiredChannelSohType;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.Test;
+
+/**
+ * Tests {@link AcquiredChannelSohBooleanSegment} creation, packing and unpacking.
+ */
+public class AcquiredChannelSohBooleanSegmentTests {
+
+  private final Instant epoch = Instant.EPOCH;
+  private final Instant later = epoch.plusSeconds(10);
+  private final UUID channelId = TestFixtures.PROCESSING_CHANNEL_1_ID;
+  private final Map<AcquiredChannelSohType, Boolean> statuses = new EnumMap<>(Map.of(
+      AcquiredChannelSohType.DEAD_SENSOR_CHANNEL, false,
+      AcquiredChannelSohType.CLIPPED, true,
+      AcquiredChannelSohType.VAULT_DOOR_OPENED, true,
+      AcquiredChannelSohType.GPS_RECEIVER_UNLOCKED, false));
+
+  @Test
+  public void testCreate() {
+    AcquiredChannelSohBooleanSegment segment = AcquiredChannelSohBooleanSegment.create(
+        channelId, epoch, later, statuses, CreationInfo.DEFAULT);
+
+    assertEquals(statuses, segment.getStatuses());
+    assertEquals(statuses.keySet(), segment.getTypes());
+    assertEquals(Optional.of(true), segment.getStatus(AcquiredChannelSohType.CLIPPED));
+    assertEquals(Optional.of(false), segment.getStatus(AcquiredChannelSohType.DEAD_SENSOR_CHANNEL));
+    assertEquals(Optional.empty(), segment.getStatus(AcquiredChannelSohType.ZEROED_DATA));
+    assertEquals(4, Long.bitCount(segment.getTypeBits()));
+    assertEquals(2, Long.bitCount(segment.getStatusBits()));
+  }
+
+  @Test
+  public void testSerialization() throws Exception {
+    TestUtilities.testSerialization(AcquiredChannelSohBooleanSegment.create(
+        channelId, epoch, later, statuses, CreationInfo.DEFAULT),
+        AcquiredChannelSohBooleanSegment.class);
+  }
+
+  @Test
+  public void testToSohBooleansAndPack() {
+    AcquiredChannelSohBooleanSegment segment = AcquiredChannelSohBooleanSegment.create(
+        channelId, epoch, later, statuses, CreationInfo.DEFAULT);
+
+    List<AcquiredChannelSohBoolean> sohs = segment.toSohBooleans();
+    assertEquals(statuses.size(), sohs.size());
+    for (AcquiredChannelSohBoolean soh : sohs) {
+      assertEquals(channelId, soh.getChannelId());
+      assertEquals(epoch, soh.getStartTime());
+      assertEquals(later, soh.getEndTime());
+      assertEquals(statuses.get(soh.getType()), soh.getStatus());
+      assertEquals(AcquiredChannelSohBooleanSegment.flagId(segment.getId(), soh.getType()),
+          soh.getId());
+    }
+
+    // Packing is independent of order.
+    List<AcquiredChannelSohBoolean> shuffled = new ArrayList<>(sohs);
+    Collections.reverse(shuffled);
+    assertEquals(Optional.of(segment), AcquiredChannelSohBooleanSegment.pack(shuffled));
+  }
+
+  @Test
+  public void testFlagIdIsReversible() {
+    UUID segmentId = UUID.randomUUID();
+    for (AcquiredChannelSohType type : AcquiredChannelSohType.values()) {
+      UUID flagId = AcquiredChannelSohBooleanSegment.flagId(segmentId, type);
+      assertFalse(segmentId.equals(flagId));
+      assertEquals(segmentId, AcquiredChannelSohBooleanSegment.segmentId(flagId, type));
+    }
+  }
+
+  @Test
+  public void testPackSingleSoh() {
+    AcquiredChannelSohBoolean soh = TestFixtures.channelSohBoolean;
+    Optional<AcquiredChannelSohBooleanSegment> segment = AcquiredChannelSohBooleanSegment
+        .pack(List.of(soh));
+    assertTrue(segment.isPresent());
+    assertEquals(List.of(soh), segment.get().toSohBooleans());
+  }
+
+  @Test
+  public void testPackRejectsUnrelatedIds() {
+    // Statuses created individually have unrelated ids, which would be lost by packing.
+    List<AcquiredChannelSohBoolean> sohs = List.of(
+        AcquiredChannelSohBoolean.create(channelId, AcquiredChannelSohType.CLIPPED,
+            epoch, later, true, CreationInfo.DEFAULT),
+        AcquiredChannelSohBoolean.create(channelId, AcquiredChannelSohType.ZEROED_DATA,
+            epoch, later, false, CreationInfo.DEFAULT));
+    assertFalse(AcquiredChannelSohBooleanSegment.pack(sohs).isPresent());
+  }
+
+  @Test
+  public void testPackRejectsDifferentTimes() {
+    AcquiredChannelSohBooleanSegment segment = AcquiredChannelSohBooleanSegment.create(
+        channelId, epoch, later, statuses, CreationInfo.DEFAULT);
+    List<AcquiredChannelSohBoolean> sohs = new ArrayList<>(segment.toSohBooleans());
+    AcquiredChannelSohBoolean last = sohs.remove(sohs.size() - 1);
+    sohs.add(AcquiredChannelSohBoolean.from(last.getId(), channelId, last.getType(),
+        epoch, later.plusSeconds(1), last.getStatus(), CreationInfo.DEFAULT));
+    assertFalse(AcquiredChannelSohBooleanSegment.pack(sohs).isPresent());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testFromNoTypes() {
+    AcquiredChannelSohBooleanSegment.from(UUID.randomUUID(), channelId, epoch, later,
+        0L, 0L, CreationInfo.DEFAULT);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testFromStatusOfUnreportedType() {
+    AcquiredChannelSohBooleanSegment.from(UUID.randomUUID(), channelId, epoch, later,
+        0b01L, 0b10L, CreationInfo.DEFAULT);
+  }
+
+  @Test
+  public void testCreateNullParameters() throws Exception {
+    TestUtilities.checkStaticMethodValidatesNullArguments(
+        AcquiredChannelSohBooleanSegment.class, "create",
+        channelId, epoch, later, statuses, CreationInfo.DEFAULT);
+  }
+}
@@ -0,0 +1,75 @@
+package gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.DoubleBuffer;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+class SampleViewTests {
+
+  private final double[] values = {1.0, 2.0, 3.0, 4.0, 5.0};
+
+  @Test
+  void testSubViewSharesBackingArray() {
+    SampleView view = SampleView.of(values).subView(1, 3).subView(1, 2);
+
+    assertEquals(2, view.length());
+    assertEquals(3.0, view.get(0));
+    assertEquals(4.0, view.get(1));
+    assertArrayEquals(new double[]{3.0, 4.0}, view.toArray());
+  }
+
+  @Test
+  void testToArrayOfEntireArrayReturnsBackingArray() {
+    assertSame(values, SampleView.of(values).toArray());
+  }
+
+  @Test
+  void testEqualsAndHashCodeMatchArrays() {
+    SampleView view = SampleView.of(values, 1, 3);
+    double[] copy = {2.0, 3.0, 4.0};
+
+    assertEquals(SampleView.of(copy), view);
+    assertEquals(Arrays.hashCode(copy), view.hashCode());
+    assertEquals(Arrays.toString(copy), view.toString());
+  }
+
+  @Test
+  void testEmptyViews() {
+    assertSame(SampleView.EMPTY, SampleView.of(new double[]{}));
+    assertSame(SampleView.EMPTY, SampleView.of(values, 2, 0));
+    assertTrue(SampleView.EMPTY.isEmpty());
+    assertEquals(0, SampleView.EMPTY.toArray().length);
+  }
+
+  @Test
+  void testCopyTo() {
+    double[] destination = new double[4];
+    SampleView.of(values, 2, 3).copyTo(destination, 1);
+
+    assertArrayEquals(new double[]{0.0, 3.0, 4.0, 5.0}, destination);
+  }
+
+  @Test
+  void testAsDoubleBufferIsReadOnly() {
+    DoubleBuffer buffer = SampleView.of(values, 1, 2).asDoubleBuffer();
+
+    assertEquals(2, buffer.remaining());
+    assertEquals(2.0, buffer.get(0));
+    assertTrue(buffer.isReadOnly());
+  }
+
+  @Test
+  void testOutOfBoundsThrows() {
+    SampleView view = SampleView.of(values, 1, 3);
+
+    assertThrows(IndexOutOfBoundsException.class, () -> SampleView.of(values, 3, 3));
+    assertThrows(IndexOutOfBoundsException.class, () -> view.get(3));
+    assertThrows(IndexOutOfBoundsException.class, () -> view.subView(2, 2));
+  }
+}
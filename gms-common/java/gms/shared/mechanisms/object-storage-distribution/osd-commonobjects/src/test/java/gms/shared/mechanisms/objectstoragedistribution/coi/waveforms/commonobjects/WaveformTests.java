@@ -3,9 +3,12 @@ package gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobje
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import gms.shared.mechanisms.objectstoragedistribution.coi.common.TestUtilities;
+import gms.shared.mechanisms.objectstoragedistribution.coi.common.datatransferobjects.CoiObjectMapperFactory;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.TestFixtures;
 import java.time.Instant;
 import org.junit.jupiter.api.Test;
@@ -257,4 +260,37 @@ public class WaveformTests {
         testWf.getStartTime().minusSeconds(1), testWf.getEndTime().plusSeconds(1));
     assertEquals(testWf, trimmedBothOutsideRange);
   }
+
+  @Test
+  public void testWindowSharesValues() {
+    final Waveform wf = Waveform.withValues(startTime, sampleRate, values);
+    Waveform windowed = wf.window(startTime.plusMillis(700), startTime.plusMillis(1500));
+    Waveform copy = Waveform.withValues(startTime.plusMillis(800), sampleRate,
+        new double[]{5, 6, 7, 8});
+
+    assertEquals(copy, windowed);
+    assertEquals(copy.hashCode(), windowed.hashCode());
+    assertArrayEquals(copy.getValues(), windowed.getValues(), TOLERANCE);
+    assertEquals(5, windowed.getFirstSample(), TOLERANCE);
+    assertEquals(8, windowed.getLastSample(), TOLERANCE);
+    // repeated calls reuse the values copied from the view
+    assertSame(windowed.getValues(), windowed.getValues());
+  }
+
+  @Test
+  public void testSerializationOfViewMatchesCopy() throws Exception {
+    final Waveform wf = Waveform.withValues(startTime, sampleRate, values);
+    Waveform trimmed = wf.trim(startTime.plusMillis(700), startTime.plusMillis(1500))
+        .trim(startTime.plusMillis(1000), startTime.plusMillis(1500));
+    Waveform copy = Waveform.withValues(startTime.plusMillis(1000), sampleRate,
+        new double[]{6, 7, 8});
+
+    ObjectMapper jsonMapper = CoiObjectMapperFactory.getJsonObjectMapper();
+    ObjectMapper msgpackMapper = CoiObjectMapperFactory.getMsgpackObjectMapper();
+    assertEquals(jsonMapper.writeValueAsString(copy), jsonMapper.writeValueAsString(trimmed));
+    assertArrayEquals(msgpackMapper.writeValueAsBytes(copy),
+        msgpackMapper.writeValueAsBytes(trimmed));
+    assertEquals(trimmed,
+        jsonMapper.readValue(jsonMapper.writeValueAsString(trimmed), Waveform.class));
+  }
 }
@@ -1,9 +1,14 @@
 package gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.utility;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.SampleView;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.Waveform;
+import java.lang.reflect.Field;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Arrays;
@@ -466,6 +471,39 @@ public class WaveformUtilityTests {
     assertEquals(0, actualWaveform.getValues().length);
   }
 
+  /**
+   * Merging waveforms trimmed from one waveform reads their shared values in place: none of the
+   * trimmed views is copied, whether or not it is merged.
+   */
+  @Test
+  public void testMergeTrimmedWaveformsDoesNotCopyValues() throws Exception {
+    double[] samples = new double[120];
+    Arrays.setAll(samples, i -> i);
+    Waveform waveform = Waveform.withValues(Instant.EPOCH, 40.0, samples);
+
+    List<Waveform> trimmed = List.of(
+        waveform.trim(Instant.EPOCH, Instant.EPOCH.plusMillis(975)),
+        waveform.trim(Instant.EPOCH.plusSeconds(1), Instant.EPOCH.plusMillis(1975)),
+        waveform.trim(Instant.EPOCH.plusSeconds(2), waveform.getEndTime()));
+
+    // Adjacent samples are one sample period apart, so nothing is merged above a 1.1 sample gap
+    List<Waveform> unmerged = WaveformUtility.mergeWaveforms(trimmed, .01, 1.1);
+    assertEquals(trimmed.size(), unmerged.size());
+    for (int i = 0; i < trimmed.size(); ++i) {
+      assertSame(trimmed.get(i), unmerged.get(i));
+    }
+
+    List<Waveform> merged = WaveformUtility.mergeWaveforms(trimmed, .01, 0.9);
+    assertEquals(1, merged.size());
+    assertArrayEquals(samples, merged.get(0).getValues(), 0.0);
+
+    Field materialized = SampleView.class.getDeclaredField("materialized");
+    materialized.setAccessible(true);
+    for (Waveform view : trimmed) {
+      assertNull(materialized.get(view.getSampleView()));
+    }
+  }
+
   private static double[] getDoubleArray(int n, double value) {
     double[] a = new double[n];
     Arrays.fill(a, value);
@@ -2,6 +2,8 @@ package gms.shared.mechanisms.objectstoragedistribution.coi.channelsegments.repo
 
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.ChannelSegment;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.Timeseries;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.Waveform;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.datatransferobjects.ChannelSegmentStorageResponse;
 import java.time.Instant;
 import java.util.Collection;
 import java.util.UUID;
@@ -13,4 +15,7 @@ public interface ChannelSegmentsRepository {
 
   Collection<ChannelSegment<? extends Timeseries>> retrieveChannelSegmentsByChannelIds(Collection<UUID> channelIds,
       Instant startTime, Instant endTime) throws Exception;
+
+  ChannelSegmentStorageResponse storeChannelSegments(
+      Collection<ChannelSegment<Waveform>> channelSegments);
 }
@@ -7,6 +7,8 @@ import gms.shared.mechanisms.objectstoragedistribution.coi.emerging.provenance.r
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.ChannelSegment;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.Timeseries;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.Timeseries.Type;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.Waveform;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.datatransferobjects.ChannelSegmentStorageResponse;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.repository.FkSpectraRepository;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.repository.WaveformRepository;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.repository.jpa.dataaccessobjects.ChannelSegmentDao;
@@ -169,6 +171,29 @@ public class ChannelSegmentsRepositoryJpa implements ChannelSegmentsRepository {
   }
 
 
+  /**
+   * Stores the provided {@link Collection} of {@link ChannelSegment}s of {@link Waveform}s in bulk
+   * using {@link WaveformRepository#storeChannelSegments(Collection)}, which persists the {@link
+   * ChannelSegment} metadata of the whole {@link Collection} in a single transaction rather than one
+   * transaction per {@link ChannelSegment}.
+   *
+   * @param channelSegments {@link Collection} of {@link ChannelSegment}s to store
+   * @return {@link ChannelSegmentStorageResponse} detailing which {@link ChannelSegment}s were
+   * stored and which failed to store
+   */
+  @Override
+  public ChannelSegmentStorageResponse storeChannelSegments(
+      Collection<ChannelSegment<Waveform>> channelSegments) {
+
+    Objects.requireNonNull(channelSegments,
+        "ChannelSegmentsRepositoryJpa::storeChannelSegments() requires non-null \"channelSegments\" parameter");
+
+    logger.info("Storing {} ChannelSegments.", channelSegments.size());
+
+    return this.waveformRepository.storeChannelSegments(channelSegments);
+  }
+
+
   // Utility method to reconstruct ChannelSegments from a provided Collection of ChannelSegmentDaos.
   //
   // If withTimeseries is set to TRUE, the Timeseries contained in the reconstructed ChannelSegment
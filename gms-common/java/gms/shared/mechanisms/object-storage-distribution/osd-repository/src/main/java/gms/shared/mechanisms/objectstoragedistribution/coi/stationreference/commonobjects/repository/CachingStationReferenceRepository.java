@@ -0,0 +1,592 @@
+package gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.repository;
+
+import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.ReferenceCalibration;
+import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.ReferenceChannel;
+import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.ReferenceDigitizer;
+import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.ReferenceDigitizerMembership;
+import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.ReferenceNetwork;
+import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.ReferenceNetworkMembership;
+import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.ReferenceResponse;
+import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.ReferenceSensor;
+import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.ReferenceSite;
+import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.ReferenceSiteMembership;
+import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.ReferenceStation;
+import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.ReferenceStationMembership;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Read-through cache in front of another {@link StationReferenceRepositoryInterface}, typically a
+ * {@code StationReferenceRepositoryJpa}.
+ *
+ * The first retrieval loads every station reference object and their versions from the delegate,
+ * one query per object type, into an immutable {@link Snapshot} indexed by entity id, version id,
+ * name and membership ids.  Later retrievals are answered from the snapshot in the order the
+ * delegate would return them.  Each store through this repository writes to the delegate and then
+ * discards the snapshot, so the next retrieval loads a new one.  A snapshot loaded while a store is
+ * in progress is never published, so readers never see a snapshot older than a completed store.
+ *
+ * Writes made to the underlying database by other processes are not seen until {@link
+ * #invalidate()} is called.
+ */
+public class CachingStationReferenceRepository implements StationReferenceRepositoryInterface {
+
+  private static final Logger logger = LoggerFactory
+      .getLogger(CachingStationReferenceRepository.class);
+
+  private final StationReferenceRepositoryInterface delegate;
+
+  /**
+   * Guards generation and publishing the snapshot
+   */
+  private final Object lock = new Object();
+
+  /**
+   * Held while loading a snapshot so concurrent retrievals wait for a single load
+   */
+  private final Object loadLock = new Object();
+
+  /**
+   * Current snapshot, or null when it must be loaded from the delegate
+   */
+  private volatile Snapshot snapshot;
+
+  /**
+   * Incremented by each store and invalidation; guarded by lock
+   */
+  private long generation;
+
+  /**
+   * Obtains a new {@link CachingStationReferenceRepository} reading through to the delegate
+   *
+   * @param delegate repository loaded into and written through by this cache, not null
+   */
+  public CachingStationReferenceRepository(StationReferenceRepositoryInterface delegate) {
+    Validate.notNull(delegate,
+        "Cannot create CachingStationReferenceRepository with null delegate");
+    this.delegate = delegate;
+  }
+
+  /**
+   * Discards the cached snapshot so the next retrieval loads the delegate's current contents
+   */
+  public void invalidate() {
+    synchronized (lock) {
+      generation++;
+      snapshot = null;
+    }
+  }
+
+  @Override
+  public boolean close() {
+    invalidate();
+    return delegate.close();
+  }
+
+  @Override
+  public List<ReferenceNetwork> retrieveNetworks() throws Exception {
+    return new ArrayList<>(getSnapshot().networks);
+  }
+
+  @Override
+  public List<ReferenceNetwork> retrieveNetworksByEntityId(UUID id) throws Exception {
+    return lookup(getSnapshot().networksByEntityId, id);
+  }
+
+  @Override
+  public List<ReferenceNetwork> retrieveNetworksByName(String name) throws Exception {
+    Validate.notEmpty(name);
+    return lookup(getSnapshot().networksByName, name);
+  }
+
+  @Override
+  public List<ReferenceStation> retrieveStations() throws Exception {
+    return new ArrayList<>(getSnapshot().stations);
+  }
+
+  @Override
+  public List<ReferenceStation> retrieveStationsByEntityId(UUID id) throws Exception {
+    return lookup(getSnapshot().stationsByEntityId, id);
+  }
+
+  @Override
+  public List<ReferenceStation> retrieveStationsByVersionIds(Collection<UUID> stationVersionIds)
+      throws Exception {
+    Objects.requireNonNull(stationVersionIds,
+        "Cannot find ReferenceStations by null or empty version ids");
+    return lookupVersions(getSnapshot().stationsByVersionId, stationVersionIds);
+  }
+
+  @Override
+  public List<ReferenceStation> retrieveStationsByName(String name) throws Exception {
+    Validate.notEmpty(name);
+    return lookup(getSnapshot().stationsByName, name);
+  }
+
+  @Override
+  public List<ReferenceSite> retrieveSites() throws Exception {
+    return new ArrayList<>(getSnapshot().sites);
+  }
+
+  @Override
+  public List<ReferenceSite> retrieveSitesByEntityId(UUID id) throws Exception {
+    return lookup(getSnapshot().sitesByEntityId, id);
+  }
+
+  @Override
+  public List<ReferenceSite> retrieveSitesByName(String name) throws Exception {
+    Validate.notEmpty(name);
+    return lookup(getSnapshot().sitesByName, name);
+  }
+
+  @Override
+  public List<ReferenceChannel> retrieveChannels() throws Exception {
+    return new ArrayList<>(getSnapshot().channels);
+  }
+
+  @Override
+  public List<ReferenceChannel> retrieveChannelsByEntityId(UUID id) throws Exception {
+    return lookup(getSnapshot().channelsByEntityId, id);
+  }
+
+  @Override
+  public List<ReferenceChannel> retrieveChannelsByVersionIds(Collection<UUID> channelVersionIds)
+      throws Exception {
+    Objects.requireNonNull(channelVersionIds,
+        "Cannot find ReferenceChannels by null or empty version ids");
+    return lookupVersions(getSnapshot().channelsByVersionId, channelVersionIds);
+  }
+
+  @Override
+  public List<ReferenceChannel> retrieveChannelsByName(String name) throws Exception {
+    return lookup(getSnapshot().channelsByName, name);
+  }
+
+  @Override
+  public List<ReferenceDigitizer> retrieveDigitizers() throws Exception {
+    return new ArrayList<>(getSnapshot().digitizers);
+  }
+
+  @Override
+  public List<ReferenceDigitizer> retrieveDigitizersByEntityId(UUID id) throws Exception {
+    return lookup(getSnapshot().digitizersByEntityId, id);
+  }
+
+  @Override
+  public List<ReferenceDigitizer> retrieveDigitizersByName(String name) throws Exception {
+    return lookup(getSnapshot().digitizersByName, name);
+  }
+
+  @Override
+  public List<ReferenceCalibration> retrieveCalibrations() throws Exception {
+    return new ArrayList<>(getSnapshot().calibrations);
+  }
+
+  @Override
+  public List<ReferenceCalibration> retrieveCalibrationsByChannelId(UUID channelId)
+      throws Exception {
+    return lookup(getSnapshot().calibrationsByChannelId, channelId);
+  }
+
+  @Override
+  public List<ReferenceResponse> retrieveResponses() throws Exception {
+    return new ArrayList<>(getSnapshot().responses);
+  }
+
+  @Override
+  public List<ReferenceResponse> retrieveResponsesByChannelId(UUID channelId) throws Exception {
+    return lookup(getSnapshot().responsesByChannelId, channelId);
+  }
+
+  @Override
+  public List<ReferenceSensor> retrieveSensors() throws Exception {
+    return new ArrayList<>(getSnapshot().sensors);
+  }
+
+  @Override
+  public List<ReferenceSensor> retrieveSensorsByChannelId(UUID channelId) throws Exception {
+    return lookup(getSnapshot().sensorsByChannelId, channelId);
+  }
+
+  @Override
+  public List<ReferenceNetworkMembership> retrieveNetworkMemberships() throws Exception {
+    return new ArrayList<>(getSnapshot().networkMemberships);
+  }
+
+  @Override
+  public List<ReferenceNetworkMembership> retrieveNetworkMembershipsByNetworkId(UUID id)
+      throws Exception {
+    return lookup(getSnapshot().networkMembershipsByNetworkId, id);
+  }
+
+  @Override
+  public List<ReferenceNetworkMembership> retrieveNetworkMembershipsByStationId(UUID id)
+      throws Exception {
+    return lookup(getSnapshot().networkMembershipsByStationId, id);
+  }
+
+  @Override
+  public List<ReferenceNetworkMembership> retrieveNetworkMembershipsByNetworkAndStationId(
+      UUID networkId, UUID stationId) throws Exception {
+    return lookup(getSnapshot().networkMembershipsByNetworkId, networkId,
+        m -> m.getStationId().equals(stationId));
+  }
+
+  @Override
+  public List<ReferenceStationMembership> retrieveStationMemberships() throws Exception {
+    return new ArrayList<>(getSnapshot().stationMemberships);
+  }
+
+  @Override
+  public List<ReferenceStationMembership> retrieveStationMembershipsByStationId(UUID id)
+      throws Exception {
+    return lookup(getSnapshot().stationMembershipsByStationId, id);
+  }
+
+  @Override
+  public List<ReferenceStationMembership> retrieveStationMembershipsBySiteId(UUID id)
+      throws Exception {
+    return lookup(getSnapshot().stationMembershipsBySiteId, id);
+  }
+
+  @Override
+  public List<ReferenceStationMembership> retrieveStationMembershipsByStationAndSiteId(
+      UUID stationId, UUID siteId) throws Exception {
+    return lookup(getSnapshot().stationMembershipsByStationId, stationId,
+        m -> m.getSiteId().equals(siteId));
+  }
+
+  @Override
+  public List<ReferenceSiteMembership> retrieveSiteMemberships() throws Exception {
+    return new ArrayList<>(getSnapshot().siteMemberships);
+  }
+
+  @Override
+  public List<ReferenceSiteMembership> retrieveSiteMembershipsBySiteId(UUID id) throws Exception {
+    return lookup(getSnapshot().siteMembershipsBySiteId, id);
+  }
+
+  @Override
+  public List<ReferenceSiteMembership> retrieveSiteMembershipsByChannelId(UUID id)
+      throws Exception {
+    return lookup(getSnapshot().siteMembershipsByChannelId, id);
+  }
+
+  @Override
+  public List<ReferenceSiteMembership> retrieveSiteMembershipsBySiteAndChannelId(UUID siteId,
+      UUID channelId) throws Exception {
+    return lookup(getSnapshot().siteMembershipsBySiteId, siteId,
+        m -> m.getChannelId().equals(channelId));
+  }
+
+  @Override
+  public List<ReferenceDigitizerMembership> retrieveDigitizerMemberships() throws Exception {
+    return new ArrayList<>(getSnapshot().digitizerMemberships);
+  }
+
+  @Override
+  public List<ReferenceDigitizerMembership> retrieveDigitizerMembershipsByDigitizerId(UUID id)
+      throws Exception {
+    return lookup(getSnapshot().digitizerMembershipsByDigitizerId, id);
+  }
+
+  @Override
+  public List<ReferenceDigitizerMembership> retrieveDigitizerMembershipsByChannelId(UUID id)
+      throws Exception {
+    return lookup(getSnapshot().digitizerMembershipsByChannelId, id);
+  }
+
+  @Override
+  public List<ReferenceDigitizerMembership> retrieveDigitizerMembershipsByDigitizerAndChannelId(
+      UUID digitizerId, UUID channelId) throws Exception {
+    return lookup(getSnapshot().digitizerMembershipsByDigitizerId, digitizerId,
+        m -> m.getChannelId().equals(channelId));
+  }
+
+  @Override
+  public void storeReferenceNetwork(ReferenceNetwork network) throws Exception {
+    store(() -> delegate.storeReferenceNetwork(network));
+  }
+
+  @Override
+  public void storeReferenceStation(ReferenceStation station) throws Exception {
+    store(() -> delegate.storeReferenceStation(station));
+  }
+
+  @Override
+  public void storeReferenceSite(ReferenceSite site) throws Exception {
+    store(() -> delegate.storeReferenceSite(site));
+  }
+
+  @Override
+  public void storeReferenceChannel(ReferenceChannel channel) throws Exception {
+    store(() -> delegate.storeReferenceChannel(channel));
+  }
+
+  @Override
+  public void storeReferenceDigitizer(ReferenceDigitizer digitizer) throws Exception {
+    store(() -> delegate.storeReferenceDigitizer(digitizer));
+  }
+
+  @Override
+  public void storeCalibration(ReferenceCalibration calibration) throws Exception {
+    store(() -> delegate.storeCalibration(calibration));
+  }
+
+  @Override
+  public void storeResponse(ReferenceResponse response) throws Exception {
+    store(() -> delegate.storeResponse(response));
+  }
+
+  @Override
+  public void storeSensor(ReferenceSensor sensor) throws Exception {
+    store(() -> delegate.storeSensor(sensor));
+  }
+
+  @Override
+  public void storeNetworkMemberships(Collection<ReferenceNetworkMembership> memberships)
+      throws Exception {
+    store(() -> delegate.storeNetworkMemberships(memberships));
+  }
+
+  @Override
+  public void storeStationMemberships(Collection<ReferenceStationMembership> memberships)
+      throws Exception {
+    store(() -> delegate.storeStationMemberships(memberships));
+  }
+
+  @Override
+  public void storeSiteMemberships(Collection<ReferenceSiteMembership> memberships)
+      throws Exception {
+    store(() -> delegate.storeSiteMemberships(memberships));
+  }
+
+  @Override
+  public void storeDigitizerMembership(ReferenceDigitizerMembership membership)
+      throws Exception {
+    store(() -> delegate.storeDigitizerMembership(membership));
+  }
+
+  /**
+   * Performs a store on the delegate and then invalidates the snapshot.  The snapshot is also
+   * invalidated when the store fails since the delegate may have been partially written (e.g. some
+   * of a collection of memberships).
+   */
+  private void store(Store store) throws Exception {
+    // Also invalidate before the store so a snapshot loading concurrently is not published
+    invalidate();
+    try {
+      store.store();
+    } finally {
+      invalidate();
+    }
+  }
+
+  /**
+   * Obtains the current {@link Snapshot}, loading it from the delegate if it was invalidated.  A
+   * loaded snapshot is only published if no store or invalidation occurred while it was loading,
+   * but is still used for the retrieval that loaded it.
+   */
+  private Snapshot getSnapshot() throws Exception {
+    Snapshot current = snapshot;
+    if (current != null) {
+      return current;
+    }
+
+    synchronized (loadLock) {
+      current = snapshot;
+      if (current != null) {
+        return current;
+      }
+
+      final long loadGeneration;
+      synchronized (lock) {
+        loadGeneration = generation;
+      }
+
+      final Snapshot loaded = new Snapshot(delegate);
+
+      synchronized (lock) {
+        if (generation == loadGeneration) {
+          snapshot = loaded;
+          logger.info("Loaded station reference snapshot with " + loaded.summary());
+        }
+      }
+      return loaded;
+    }
+  }
+
+  private static <K, V> List<V> lookup(Map<K, List<V>> index, K key) {
+    return new ArrayList<>(index.getOrDefault(key, List.of()));
+  }
+
+  private static <K, V> List<V> lookup(Map<K, List<V>> index, K key, Predicate<V> filter) {
+    return index.getOrDefault(key, List.of()).stream()
+        .filter(filter)
+        .collect(Collectors.toList());
+  }
+
+  private static <V> List<V> lookupVersions(Map<UUID, V> index, Collection<UUID> versionIds) {
+    return versionIds.stream()
+        .distinct()
+        .map(index::get)
+        .filter(Objects::nonNull)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * A store operation on the delegate
+   */
+  @FunctionalInterface
+  private interface Store {
+
+    void store() throws Exception;
+  }
+
+  /**
+   * Immutable copy of the delegate's station reference objects, indexed for each retrieval.  Each
+   * indexed list keeps the order of the delegate's full retrieval, which is the order the delegate
+   * returns from its filtered retrievals.
+   */
+  private static final class Snapshot {
+
+    private final List<ReferenceNetwork> networks;
+    private final Map<UUID, List<ReferenceNetwork>> networksByEntityId;
+    private final Map<String, List<ReferenceNetwork>> networksByName;
+
+    private final List<ReferenceStation> stations;
+    private final Map<UUID, List<ReferenceStation>> stationsByEntityId;
+    private final Map<UUID, ReferenceStation> stationsByVersionId;
+    private final Map<String, List<ReferenceStation>> stationsByName;
+
+    private final List<ReferenceSite> sites;
+    private final Map<UUID, List<ReferenceSite>> sitesByEntityId;
+    private final Map<String, List<ReferenceSite>> sitesByName;
+
+    private final List<ReferenceChannel> channels;
+    private final Map<UUID, List<ReferenceChannel>> channelsByEntityId;
+    private final Map<UUID, ReferenceChannel> channelsByVersionId;
+    private final Map<String, List<ReferenceChannel>> channelsByName;
+
+    private final List<ReferenceDigitizer> digitizers;
+    private final Map<UUID, List<ReferenceDigitizer>> digitizersByEntityId;
+    private final Map<String, List<ReferenceDigitizer>> digitizersByName;
+
+    private final List<ReferenceCalibration> calibrations;
+    private final Map<UUID, List<ReferenceCalibration>> calibrationsByChannelId;
+
+    private final List<ReferenceResponse> responses;
+    private final Map<UUID, List<ReferenceResponse>> responsesByChannelId;
+
+    private final List<ReferenceSensor> sensors;
+    private final Map<UUID, List<ReferenceSensor>> sensorsByChannelId;
+
+    private final List<ReferenceNetworkMembership> networkMemberships;
+    private final Map<UUID, List<ReferenceNetworkMembership>> networkMembershipsByNetworkId;
+    private final Map<UUID, List<ReferenceNetworkMembership>> networkMembershipsByStationId;
+
+    private final List<ReferenceStationMembership> stationMemberships;
+    private final Map<UUID, List<ReferenceStationMembership>> stationMembershipsByStationId;
+    private final Map<UUID, List<ReferenceStationMembership>> stationMembershipsBySiteId;
+
+    private final List<ReferenceSiteMembership> siteMemberships;
+    private final Map<UUID, List<ReferenceSiteMembership>> siteMembershipsBySiteId;
+    private final Map<UUID, List<ReferenceSiteMembership>> siteMembershipsByChannelId;
+
+    private final List<ReferenceDigitizerMembership> digitizerMemberships;
+    private final Map<UUID, List<ReferenceDigitizerMembership>> digitizerMembershipsByDigitizerId;
+    private final Map<UUID, List<ReferenceDigitizerMembership>> digitizerMembershipsByChannelId;
+
+    private Snapshot(StationReferenceRepositoryInterface repository) throws Exception {
+      networks = Collections.unmodifiableList(repository.retrieveNetworks());
+      networksByEntityId = index(networks, ReferenceNetwork::getEntityId);
+      networksByName = index(networks, ReferenceNetwork::getName);
+
+      stations = Collections.unmodifiableList(repository.retrieveStations());
+      stationsByEntityId = index(stations, ReferenceStation::getEntityId);
+      stationsByVersionId = indexVersions(stations, ReferenceStation::getVersionId);
+      stationsByName = index(stations, ReferenceStation::getName);
+
+      sites = Collections.unmodifiableList(repository.retrieveSites());
+      sitesByEntityId = index(sites, ReferenceSite::getEntityId);
+      sitesByName = index(sites, ReferenceSite::getName);
+
+      channels = Collections.unmodifiableList(repository.retrieveChannels());
+      channelsByEntityId = index(channels, ReferenceChannel::getEntityId);
+      channelsByVersionId = indexVersions(channels, ReferenceChannel::getVersionId);
+      channelsByName = index(channels, ReferenceChannel::getName);
+
+      digitizers = Collections.unmodifiableList(repository.retrieveDigitizers());
+      digitizersByEntityId = index(digitizers, ReferenceDigitizer::getEntityId);
+      digitizersByName = index(digitizers, ReferenceDigitizer::getName);
+
+      calibrations = Collections.unmodifiableList(repository.retrieveCalibrations());
+      calibrationsByChannelId = index(calibrations, ReferenceCalibration::getChannelId);
+
+      responses = Collections.unmodifiableList(repository.retrieveResponses());
+      responsesByChannelId = index(responses, ReferenceResponse::getChannelId);
+
+      sensors = Collections.unmodifiableList(repository.retrieveSensors());
+      sensorsByChannelId = index(sensors, ReferenceSensor::getChannelId);
+
+      networkMemberships = Collections
+          .unmodifiableList(repository.retrieveNetworkMemberships());
+      networkMembershipsByNetworkId = index(networkMemberships,
+          ReferenceNetworkMembership::getNetworkId);
+      networkMembershipsByStationId = index(networkMemberships,
+          ReferenceNetworkMembership::getStationId);
+
+      stationMemberships = Collections
+          .unmodifiableList(repository.retrieveStationMemberships());
+      stationMembershipsByStationId = index(stationMemberships,
+          ReferenceStationMembership::getStationId);
+      stationMembershipsBySiteId = index(stationMemberships,
+          ReferenceStationMembership::getSiteId);
+
+      siteMemberships = Collections.unmodifiableList(repository.retrieveSiteMemberships());
+      siteMembershipsBySiteId = index(siteMemberships, ReferenceSiteMembership::getSiteId);
+      siteMembershipsByChannelId = index(siteMemberships, ReferenceSiteMembership::getChannelId);
+
+      digitizerMemberships = Collections
+          .unmodifiableList(repository.retrieveDigitizerMemberships());
+      digitizerMembershipsByDigitizerId = index(digitizerMemberships,
+          ReferenceDigitizerMembership::getDigitizerId);
+      digitizerMembershipsByChannelId = index(digitizerMemberships,
+          ReferenceDigitizerMembership::getChannelId);
+    }
+
+    private static <K, V> Map<K, List<V>> index(List<V> values, Function<V, K> key) {
+      final Map<K, List<V>> index = new HashMap<>();
+      for (V value : values) {
+        index.computeIfAbsent(key.apply(value), k -> new ArrayList<>()).add(value);
+      }
+      index.replaceAll((k, v) -> Collections.unmodifiableList(v));
+      return Collections.unmodifiableMap(index);
+    }
+
+    private static <V> Map<UUID, V> indexVersions(List<V> values, Function<V, UUID> versionId) {
+      final Map<UUID, V> index = new HashMap<>();
+      for (V value : values) {
+        index.putIfAbsent(versionId.apply(value), value);
+      }
+      return Collections.unmodifiableMap(index);
+    }
+
+    private String summary() {
+      return networks.size() + " networks, " + stations.size() + " stations, " + sites.size()
+          + " sites, " + channels.size() + " channels, " + digitizers.size() + " digitizers";
+    }
+  }
+}
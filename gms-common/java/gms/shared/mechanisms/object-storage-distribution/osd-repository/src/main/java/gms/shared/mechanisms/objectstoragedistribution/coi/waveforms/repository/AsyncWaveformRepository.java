@@ -0,0 +1,107 @@
+package gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.repository;
+
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.ChannelSegment;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.Waveform;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.datatransferobjects.ChannelSegmentStorageResponse;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking variant of {@link WaveformRepository}.  Operations return immediately with a {@link
+ * CompletableFuture} that completes once the underlying persistence operations complete, so callers
+ * do not tie up a thread while waiting on storage.
+ *
+ * Invalid parameters are reported by throwing from the method call itself.  Storage failures
+ * complete the returned future exceptionally.
+ */
+public interface AsyncWaveformRepository {
+
+  /**
+   * Asynchronously store a collection of {@link ChannelSegment} of {@link Waveform}.
+   *
+   * @param segments The channel segments
+   * @return A future {@link ChannelSegmentStorageResponse} detailing which channel segments stored
+   * successfully, and which failed to store.
+   * @see WaveformRepository#store(Collection)
+   */
+  CompletableFuture<ChannelSegmentStorageResponse> storeAsync(
+      Collection<ChannelSegment<Waveform>> segments);
+
+  /**
+   * Helper method for asynchronously storing a single {@link ChannelSegment} of {@link Waveform}
+   *
+   * @param segment The channel segment
+   * @see AsyncWaveformRepository#storeAsync(Collection)
+   */
+  default CompletableFuture<ChannelSegmentStorageResponse> storeAsync(
+      ChannelSegment<Waveform> segment) {
+    return storeAsync(List.of(segment));
+  }
+
+  /**
+   * Asynchronously get a collection of Waveform objects for a channel.
+   *
+   * @param channelId the id of the processing channel the waveform is for.
+   * @param startTime Starting time for the time-series.
+   * @param endTime Ending time for the time-series.
+   * @return A future list of Waveform objects.  The list may be empty.
+   * @see WaveformRepository#retrieveWaveformsByTime(UUID, Instant, Instant, boolean)
+   */
+  default CompletableFuture<List<Waveform>> retrieveWaveformsByTimeAsync(UUID channelId,
+      Instant startTime, Instant endTime, boolean includeWaveformValues) {
+    return retrieveWaveformsByTimeAsync(List.of(channelId), startTime, endTime,
+        includeWaveformValues)
+        .thenApply(waveformsById -> waveformsById.getOrDefault(channelId, List.of()));
+  }
+
+  /**
+   * Asynchronously get a Map from UUID to Waveform objects.
+   *
+   * @param channelIds the ids of the processing channel the waveform is for.
+   * @param startTime Starting time for the time-series.
+   * @param endTime Ending time for the time-series.
+   * @return A future map from channel id to Waveform objects.  Channels without data are absent.
+   * @see WaveformRepository#retrieveWaveformsByTime(Collection, Instant, Instant, boolean)
+   */
+  CompletableFuture<Map<UUID, List<Waveform>>> retrieveWaveformsByTimeAsync(
+      Collection<UUID> channelIds, Instant startTime, Instant endTime,
+      boolean includeWaveformValues);
+
+  /**
+   * Asynchronously retrieve a map from channel Id to new ChannelSegment from querying for the given
+   * channel Ids and time range.  Channel id's for which no data is found will not be present in the
+   * result map.
+   *
+   * @param channelIds ids of the processing channels to retrieve segments for
+   * @param rangeStart - the start of the range to query for - inclusive
+   * @param rangeEnd - the end of the range to query for - inclusive
+   * @param includeWaveformValues - return waveform sample or just metadata.
+   * @return A future Map from the id of the channel to the segment retrieved for it.
+   * @see WaveformRepository#retrieveChannelSegments(Collection, Instant, Instant, boolean)
+   */
+  CompletableFuture<Map<UUID, ChannelSegment<Waveform>>> retrieveChannelSegmentsAsync(
+      Collection<UUID> channelIds, Instant rangeStart, Instant rangeEnd,
+      boolean includeWaveformValues);
+
+  /**
+   * Asynchronously retrieve a new ChannelSegment for a ProcessingChannel and a time range.
+   *
+   * @param channelId id of the processing channel to retrieve segments for
+   * @param rangeStart - the start of the range to query for - inclusive
+   * @param rangeEnd - the end of the range to query for - inclusive
+   * @param includeWaveformValues - return waveform sample or just metadata.
+   * @return A future {@link Optional} ChannelSegment, empty if no data matches the query.
+   * @see WaveformRepository#retrieveChannelSegment(UUID, Instant, Instant, boolean)
+   */
+  default CompletableFuture<Optional<ChannelSegment<Waveform>>> retrieveChannelSegmentAsync(
+      UUID channelId, Instant rangeStart, Instant rangeEnd, boolean includeWaveformValues) {
+    return retrieveChannelSegmentsAsync(List.of(channelId), rangeStart, rangeEnd,
+        includeWaveformValues)
+        .thenApply(segmentsById -> Optional.ofNullable(segmentsById.get(channelId)));
+  }
+}
@@ -3,6 +3,7 @@ package gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.repository
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.AcquiredChannelSoh;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.AcquiredChannelSohAnalog;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.AcquiredChannelSohBoolean;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.AcquiredChannelSohBooleanSegment;
 import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
@@ -45,12 +46,24 @@ public interface StationSohRepositoryInterface {
   void storeBooleanSoh(AcquiredChannelSohBoolean soh) throws Exception;
 
   /**
-   * Store State from Health objects.
+   * Store State from Health objects.  Boolean SOH objects that can be packed into {@link
+   * AcquiredChannelSohBooleanSegment}s (see {@link AcquiredChannelSohBooleanSegment#pack}) may be
+   * stored as segments; they are retrieved the same either way.
    *
    * @param sohs The SOH objects.
    */
   void storeSoh(Collection<AcquiredChannelSoh> sohs) throws Exception;
 
+  /**
+   * Store boolean State from Health segments, each holding all of the boolean statuses of a
+   * channel over a time range.  Their statuses are also retrieved as {@link
+   * AcquiredChannelSohBoolean}s.
+   *
+   * @param segments The SOH segments.
+   */
+  void storeBooleanSohSegments(Collection<AcquiredChannelSohBooleanSegment> segments)
+      throws Exception;
+
   /**
    * Get the SOH objects from the database that contain analog data.
    *
@@ -78,6 +91,19 @@ public interface StationSohRepositoryInterface {
   List<AcquiredChannelSohBoolean> retrieveBooleanSohByProcessingChannelAndTimeRange(
       UUID channelId, Instant startTime, Instant endTime) throws Exception;
 
+  /**
+   * Retrieve all {@link AcquiredChannelSohBooleanSegment} objects from the provided processing
+   * channel created within the provided time range. The time range is inclusive for both start and
+   * end time.  Boolean SOH stored individually, rather than as segments, is not included.
+   *
+   * @param channelId Id for the processing channel the SOH was measured on.
+   * @param startTime Inclusive start from time range for the query.
+   * @param endTime Inclusive end from time range for the query.
+   * @return All SOH boolean segments that meet the query criteria.
+   */
+  List<AcquiredChannelSohBooleanSegment> retrieveBooleanSohSegmentsByProcessingChannelAndTimeRange(
+      UUID channelId, Instant startTime, Instant endTime) throws Exception;
+
   /**
    * Retrieve all {@link AcquiredChannelSohAnalog} objects from the provided processing channel
    * created within the provided time range. The time range is inclusive for both start and end
@@ -33,6 +33,21 @@ public interface WaveformRepository {
     return store(List.of(segment));
   }
 
+  /**
+   * Store a collection of {@link ChannelSegment} of {@link Waveform} in bulk.  Implementations
+   * amortize database round trips across all of the segments instead of storing each segment
+   * separately, so this should be preferred over {@link #store(Collection)} when ingesting many
+   * segments at once.
+   *
+   * @param segments The channel segments
+   * @return A {@link ChannelSegmentStorageResponse} detailing which channel segments stored
+   * successfully, and which failed to store.
+   */
+  default ChannelSegmentStorageResponse storeChannelSegments(
+      Collection<ChannelSegment<Waveform>> segments) {
+    return store(segments);
+  }
+
   /**
    * Get a collection from Waveform objects from the database.
    *
@@ -2,7 +2,6 @@ package gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.repository
 
 import java.time.Instant;
 import java.time.LocalDate;
-import java.time.Period;
 import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
@@ -29,15 +28,14 @@ public class CassandraDbUtility {
     Validate.isTrue(!start.isAfter(end), "Start must be <= end");
 
     final List<LocalDate> days = new ArrayList<>();
+    final LocalDate startDate = LocalDate.ofInstant(start, ZoneOffset.UTC);
     // calculate number of days between the two times;
     // this counts a day whenever a date boundary is crossed.
-    final int numDays = Period.between(
-        LocalDate.ofInstant(start, ZoneOffset.UTC),
-        LocalDate.ofInstant(end, ZoneOffset.UTC))
-        .getDays() + 1;
+    final long numDays = ChronoUnit.DAYS.between(startDate,
+        LocalDate.ofInstant(end, ZoneOffset.UTC)) + 1;
     // add each day between start and including end;
-    for (int i = 0; i < numDays; i++) {
-      days.add(LocalDate.ofInstant(start.plus(i, ChronoUnit.DAYS), ZoneOffset.UTC));
+    for (long i = 0; i < numDays; i++) {
+      days.add(startDate.plusDays(i));
     }
     return days;
   }
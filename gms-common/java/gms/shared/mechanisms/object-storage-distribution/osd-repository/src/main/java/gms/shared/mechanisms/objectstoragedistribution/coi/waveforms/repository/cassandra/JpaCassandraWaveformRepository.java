@@ -1,9 +1,11 @@
 package gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.repository.cassandra;
 
+import com.datastax.driver.core.BatchStatement;
 import com.datastax.driver.core.BoundStatement;
 import com.datastax.driver.core.ConsistencyLevel;
 import com.datastax.driver.core.LocalDate;
 import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.ResultSet;
 import com.datastax.driver.core.ResultSetFuture;
 import com.datastax.driver.core.Row;
 import com.datastax.driver.core.Session;
@@ -13,31 +15,47 @@ import com.datastax.driver.core.exceptions.QueryValidationException;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ListMultimap;
-import com.google.common.primitives.Doubles;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import gms.shared.mechanisms.objectstoragedistribution.coi.common.repository.RepositoryException;
 import gms.shared.mechanisms.objectstoragedistribution.coi.common.repository.StorageUnavailableException;
 import gms.shared.mechanisms.objectstoragedistribution.coi.emerging.provenance.commonobjects.CreationInfo;
 import gms.shared.mechanisms.objectstoragedistribution.coi.emerging.provenance.commonobjects.SoftwareComponentInfo;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.ChannelSegment;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.ChannelSegmentDescriptor;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.SampleView;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.Waveform;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.utility.WaveformUtility;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.datatransferobjects.ChannelSegmentStorageResponse;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.repository.AsyncWaveformRepository;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.repository.RepositoryExceptionUtils;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.repository.WaveformRepository;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.repository.cassandra.WaveformQueryPlanner.PartitionRead;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.repository.cassandra.configuration.CassandraConfig;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.repository.jpa.dataaccessobjects.ChannelSegmentDao;
+import gms.shared.utilities.javautilities.concurrent.AsyncRequestLimiter;
+import java.nio.ByteBuffer;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import javax.persistence.EntityManager;
@@ -53,22 +71,57 @@ import org.slf4j.LoggerFactory;
 /**
  *
  */
-public class JpaCassandraWaveformRepository implements WaveformRepository {
+public class JpaCassandraWaveformRepository implements WaveformRepository,
+    AsyncWaveformRepository {
 
   private static final Logger logger = LoggerFactory.getLogger(JpaCassandraWaveformRepository.class);
 
   private final EntityManagerFactory entityManagerFactory;
   private final CassandraConfig cassandraConfig;
+  private final Function<UUID, WaveformSampleEncoding> sampleEncodingByChannel;
+  private final Executor executor;
   private Session session;
   private PreparedStatement preparedWaveformsInsert;
-  private PreparedStatement preparedWaveformsQueryWithWaveforms;
-  private PreparedStatement preparedWaveformsQueryNoWaveforms;
+  private PreparedStatement preparedRangeQueryWithWaveforms;
+  private PreparedStatement preparedRangeQueryNoWaveforms;
+  private PreparedStatement preparedPrecedingQueryWithWaveforms;
+  private PreparedStatement preparedPrecedingQueryNoWaveforms;
+  private final AsyncRequestLimiter readLimiter =
+      new AsyncRequestLimiter(MAX_CONCURRENT_PARTITION_READS);
+  private final AsyncRequestLimiter writeLimiter =
+      new AsyncRequestLimiter(MAX_CONCURRENT_WRITES);
 
   static final long DOUBLES_PER_BLOCK = 100_000;
 
+  /**
+   * Longest time spanned by a stored block.  Blocks of waveforms sampled slowly enough that
+   * {@link #DOUBLES_PER_BLOCK} samples would span longer are shortened, which bounds how many day
+   * partitions before a time range {@link WaveformQueryPlanner} must search for a block extending
+   * into it.
+   */
+  static final Duration MAX_BLOCK_DURATION = Duration.ofDays(2);
+
+  /**
+   * Most block inserts and block batches outstanding at once across this repository.
+   */
+  static final int MAX_CONCURRENT_WRITES = 16;
+
   private static final double MERGE_SAMPLE_RATE_TOLERANCE = 2.0;
   private static final double MERGE_MIN_GAP_SAMPLE_COUNT_LIMIT = 0.9;
   private static final long BILLION = 1_000_000_000L;
+  private static final int MAX_CONCURRENT_PARTITION_READS = 64;
+  private static final long MAX_BATCH_SAMPLE_BYTES = 4L * 1024 * 1024;
+  private static final int JPA_FLUSH_INTERVAL = 50;
+
+  /**
+   * Default executor for the blocking work of the asynchronous operations (JPA access and decoding
+   * Cassandra result sets), shared by the repositories that do not provide their own.  A dedicated
+   * pool keeps that work off of {@link java.util.concurrent.ForkJoinPool#commonPool()}, which is
+   * used for parallel computation elsewhere.
+   */
+  private static final Executor DEFAULT_EXECUTOR = Executors.newFixedThreadPool(
+      Math.max(2, Runtime.getRuntime().availableProcessors()),
+      new ThreadFactoryBuilder().setNameFormat("waveform-repository-%d").setDaemon(true).build());
 
   public JpaCassandraWaveformRepository(EntityManagerFactory entityManagerFactory) {
     this(entityManagerFactory, CassandraConfig.builder().build());
@@ -79,8 +132,36 @@ public class JpaCassandraWaveformRepository implements WaveformRepository {
    */
   public JpaCassandraWaveformRepository(EntityManagerFactory entityManagerFactory,
       CassandraConfig cassandraConfig) {
+    this(entityManagerFactory, cassandraConfig,
+        channelId -> cassandraConfig.waveformSampleEncoding);
+  }
+
+  /**
+   * Constructor selecting the {@link WaveformSampleEncoding} used to store each channel's samples.
+   *
+   * @param sampleEncodingByChannel provides the sample encoding for a channel id, not null
+   */
+  public JpaCassandraWaveformRepository(EntityManagerFactory entityManagerFactory,
+      CassandraConfig cassandraConfig,
+      Function<UUID, WaveformSampleEncoding> sampleEncodingByChannel) {
+    this(entityManagerFactory, cassandraConfig, sampleEncodingByChannel, DEFAULT_EXECUTOR);
+  }
+
+  /**
+   * Constructor selecting the {@link WaveformSampleEncoding} used to store each channel's samples
+   * and the {@link Executor} running the blocking work of the asynchronous operations.
+   *
+   * @param sampleEncodingByChannel provides the sample encoding for a channel id, not null
+   * @param executor runs JPA access and result set decoding for the asynchronous operations; should
+   * be bounded since it is given blocking work, not null
+   */
+  public JpaCassandraWaveformRepository(EntityManagerFactory entityManagerFactory,
+      CassandraConfig cassandraConfig,
+      Function<UUID, WaveformSampleEncoding> sampleEncodingByChannel, Executor executor) {
     this.entityManagerFactory = entityManagerFactory;
     this.cassandraConfig = cassandraConfig;
+    this.sampleEncodingByChannel = Objects.requireNonNull(sampleEncodingByChannel);
+    this.executor = Objects.requireNonNull(executor);
   }
 
   @Override
@@ -117,63 +198,367 @@ public class JpaCassandraWaveformRepository implements WaveformRepository {
     }
   }
 
-  private void storeWaveform(ChannelSegment<Waveform> channelSegment) {
-    UUID channelId = channelSegment.getChannelId();
+  /**
+   * Stores the channel segments without blocking the calling thread.  Each segment's waveform
+   * blocks are encoded on the executor and written to Cassandra with {@link Session#executeAsync}
+   * (at most {@link #MAX_CONCURRENT_WRITES} writes at once across this repository), and its
+   * metadata is persisted in its own JPA transaction once all of its blocks have been written.
+   */
+  @Override
+  public CompletableFuture<ChannelSegmentStorageResponse> storeAsync(
+      Collection<ChannelSegment<Waveform>> channelSegments) {
+    Preconditions.checkNotNull(channelSegments, "Error storing channel segments: null");
 
-    List<ResultSetFuture> futures = new ArrayList<>();
-    for (Waveform waveform : channelSegment.getTimeseries()) {
-      futures.addAll(storeWaveformInternal(waveform, channelId));
+    logger.info("Asynchronously storing {} waveform channel segments", channelSegments.size());
+    List<ChannelSegmentDescriptor> descriptors = new ArrayList<>();
+    List<CompletableFuture<Boolean>> results = new ArrayList<>();
+    for (ChannelSegment<Waveform> channelSegment : channelSegments) {
+      descriptors.add(ChannelSegmentDescriptor.from(channelSegment));
+      // The session is initialized, and the samples encoded, on the executor rather than the caller
+      results.add(CompletableFuture.supplyAsync(() -> storeWaveformAsync(channelSegment), executor)
+          .thenCompose(Function.identity())
+          .thenApplyAsync(v -> {
+            persistChannelSegmentDao(channelSegment);
+            return true;
+          }, executor)
+          .exceptionally(e -> {
+            logger.error("Error storing channel segment", e);
+            return false;
+          }));
     }
-    pollFutures(futures);
+
+    return CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0]))
+        .thenApply(v -> {
+          ChannelSegmentStorageResponse.Builder response = ChannelSegmentStorageResponse
+              .builder();
+          for (int i = 0; i < descriptors.size(); i++) {
+            if (results.get(i).join()) {
+              response.addStored(descriptors.get(i));
+            } else {
+              response.addFailed(descriptors.get(i));
+            }
+          }
+          return response.build();
+        });
   }
 
-  private static void pollFutures(Collection<ResultSetFuture> futures) {
-    Collection<ResultSetFuture> futuresToRemove = new ArrayList<>();
-    while (!futures.isEmpty()) {
-      for (ResultSetFuture f : futures) {
-        if (f.isDone()) {
-          try {
-            f.getUninterruptibly();
-          } catch (NoHostAvailableException e) {
-            throw new StorageUnavailableException(e);
-          } catch (QueryExecutionException | QueryValidationException e) {
-            throw new RepositoryException(e);
+  private void persistChannelSegmentDao(ChannelSegment<Waveform> channelSegment) {
+    EntityManager em = entityManagerFactory.createEntityManager();
+    try {
+      em.getTransaction().begin();
+      em.persist(new ChannelSegmentDao(channelSegment));
+      em.getTransaction().commit();
+    } catch (RuntimeException e) {
+      if (em.getTransaction().isActive()) {
+        em.getTransaction().rollback();
+      }
+      throw e;
+    } finally {
+      em.close();
+    }
+  }
+
+  /**
+   * Stores the channel segments in bulk.  The waveform blocks of all of the segments are grouped by
+   * (channel_id, date) partition and written as unlogged batches, so each batch is applied as a
+   * single mutation by the replicas owning its partition.  The metadata of every segment whose
+   * blocks were written is then persisted in a single JPA transaction, allowing the inserts to be
+   * sent as JDBC batches (see hibernate.jdbc.batch_size).  If that transaction fails the metadata is
+   * persisted one segment per transaction so the response identifies exactly which segments failed.
+   */
+  @Override
+  public ChannelSegmentStorageResponse storeChannelSegments(
+      Collection<ChannelSegment<Waveform>> channelSegments) {
+    Preconditions.checkNotNull(channelSegments, "Error storing channel segments: null");
+
+    logger.info("Storing {} waveform channel segments in bulk", channelSegments.size());
+    List<ChannelSegment<Waveform>> segments = new ArrayList<>(channelSegments);
+    Set<Integer> failedSegments = ConcurrentHashMap.newKeySet();
+
+    join(storeBlockBatches(segments, failedSegments));
+
+    List<Integer> writtenSegments = new ArrayList<>();
+    for (int i = 0; i < segments.size(); i++) {
+      if (!failedSegments.contains(i)) {
+        writtenSegments.add(i);
+      }
+    }
+    persistChannelSegmentDaos(segments, writtenSegments, failedSegments);
+
+    ChannelSegmentStorageResponse.Builder response = ChannelSegmentStorageResponse.builder();
+    for (int i = 0; i < segments.size(); i++) {
+      ChannelSegmentDescriptor descriptor = ChannelSegmentDescriptor.from(segments.get(i));
+      if (failedSegments.contains(i)) {
+        response.addFailed(descriptor);
+      } else {
+        response.addStored(descriptor);
+      }
+    }
+    return response.build();
+  }
+
+  /**
+   * Writes the waveform blocks of the segments as unlogged single-partition batches, adding the
+   * index of each segment with a block that could not be written to failedSegments.  The returned
+   * future completes once every batch has been written or has failed.
+   */
+  private CompletableFuture<Void> storeBlockBatches(List<ChannelSegment<Waveform>> segments,
+      Set<Integer> failedSegments) {
+    logger.debug("Calling initializeSession in storeBlockBatches");
+    initializeSession();
+
+    Map<Pair<UUID, LocalDate>, List<PendingBlock>> blocksByPartition = new LinkedHashMap<>();
+    for (int i = 0; i < segments.size(); i++) {
+      UUID channelId = segments.get(i).getChannelId();
+      List<PendingBlock> segmentBlocks = new ArrayList<>();
+      try {
+        WaveformSampleEncoding encoding = sampleEncodingByChannel.apply(channelId);
+        for (Waveform waveform : segments.get(i).getTimeseries()) {
+          for (Waveform block : breakIntoBlocks(waveform)) {
+            ByteBuffer samples = encodeSamples(block.getSampleView(), encoding, channelId);
+            segmentBlocks.add(new PendingBlock(i, toPartitionDate(block),
+                bindWaveformInsert(block, channelId, samples), samples.remaining()));
+          }
+        }
+      } catch (RuntimeException e) {
+        logger.error("Error storing channel segment", e);
+        failedSegments.add(i);
+        continue;
+      }
+
+      for (PendingBlock block : segmentBlocks) {
+        blocksByPartition.computeIfAbsent(Pair.of(channelId, block.date), k -> new ArrayList<>())
+            .add(block);
+      }
+    }
+
+    List<CompletableFuture<Void>> batchWrites = new ArrayList<>();
+    for (List<PendingBlock> partitionBlocks : blocksByPartition.values()) {
+      int start = 0;
+      while (start < partitionBlocks.size()) {
+        // Bound the size of each batch since Cassandra rejects mutations larger than half of a
+        // commit log segment.
+        int end = start;
+        long batchBytes = 0;
+        do {
+          batchBytes += partitionBlocks.get(end++).sampleBytes;
+        } while (end < partitionBlocks.size()
+            && batchBytes + partitionBlocks.get(end).sampleBytes <= MAX_BATCH_SAMPLE_BYTES);
+
+        batchWrites.add(storeBlockBatch(partitionBlocks.subList(start, end), failedSegments));
+        start = end;
+      }
+    }
+
+    return CompletableFuture.allOf(batchWrites.toArray(new CompletableFuture<?>[0]));
+  }
+
+  private CompletableFuture<Void> storeBlockBatch(List<PendingBlock> blocks,
+      Set<Integer> failedSegments) {
+    BatchStatement batch = new BatchStatement(BatchStatement.Type.UNLOGGED);
+    Set<Integer> batchSegments = new HashSet<>();
+    for (PendingBlock block : blocks) {
+      batch.add(block.insert);
+      batchSegments.add(block.segmentIndex);
+    }
+    batch.setConsistencyLevel(ConsistencyLevel.QUORUM);
+
+    return writeLimiter.submit(() -> toCompletableFuture(session.executeAsync(batch)))
+        .handle((resultSet, e) -> {
+          if (e != null) {
+            logger.error("Error storing waveform block batch", e);
+            failedSegments.addAll(batchSegments);
           }
-          futuresToRemove.add(f);
+          return null;
+        });
+  }
+
+  /**
+   * Persists the metadata of the segments at the provided indices in a single transaction, falling
+   * back to a transaction per segment if it fails.  Adds the index of each segment that could not be
+   * persisted to failedSegments.
+   */
+  private void persistChannelSegmentDaos(List<ChannelSegment<Waveform>> segments,
+      List<Integer> indices, Set<Integer> failedSegments) {
+    if (indices.isEmpty()) {
+      return;
+    }
+
+    EntityManager em = entityManagerFactory.createEntityManager();
+    try {
+      em.getTransaction().begin();
+      int persisted = 0;
+      for (int i : indices) {
+        em.persist(new ChannelSegmentDao(segments.get(i)));
+        // Flush at the JDBC batch size so the persistence context does not grow with the request
+        if (++persisted % JPA_FLUSH_INTERVAL == 0) {
+          em.flush();
+          em.clear();
         }
       }
-      futures.removeAll(futuresToRemove);
+      em.getTransaction().commit();
+      return;
+    } catch (RuntimeException e) {
+      logger.warn("Error storing {} channel segments in a single transaction, storing individually",
+          indices.size(), e);
+      if (em.getTransaction().isActive()) {
+        em.getTransaction().rollback();
+      }
+    } finally {
+      em.close();
+    }
+
+    for (int i : indices) {
+      try {
+        persistChannelSegmentDao(segments.get(i));
+      } catch (RuntimeException e) {
+        logger.error("Error storing channel segment", e);
+        failedSegments.add(i);
+      }
+    }
+  }
+
+  /**
+   * A bound waveform block insert awaiting a batch.
+   */
+  private static final class PendingBlock {
+
+    private final int segmentIndex;
+    private final LocalDate date;
+    private final BoundStatement insert;
+    private final int sampleBytes;
+
+    private PendingBlock(int segmentIndex, LocalDate date, BoundStatement insert,
+        int sampleBytes) {
+      this.segmentIndex = segmentIndex;
+      this.date = date;
+      this.insert = insert;
+      this.sampleBytes = sampleBytes;
     }
   }
 
-  private Collection<ResultSetFuture> storeWaveformInternal(Waveform waveform, UUID channelId) {
+  private void storeWaveform(ChannelSegment<Waveform> channelSegment) {
+    join(storeWaveformAsync(channelSegment));
+  }
+
+  private CompletableFuture<Void> storeWaveformAsync(ChannelSegment<Waveform> channelSegment) {
+    UUID channelId = channelSegment.getChannelId();
+
+    List<CompletableFuture<ResultSet>> futures = new ArrayList<>();
+    try {
+      for (Waveform waveform : channelSegment.getTimeseries()) {
+        futures.addAll(storeWaveformInternal(waveform, channelId));
+      }
+    } catch (RuntimeException e) {
+      futures.add(CompletableFuture.failedFuture(e));
+    }
+    return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+  }
+
+  /**
+   * Adapts a Cassandra {@link ResultSetFuture} to a {@link CompletableFuture}, translating driver
+   * exceptions into {@link StorageUnavailableException} and {@link RepositoryException}.
+   */
+  private static CompletableFuture<ResultSet> toCompletableFuture(ResultSetFuture future) {
+    CompletableFuture<ResultSet> result = new CompletableFuture<>();
+    future.addListener(() -> {
+      try {
+        result.complete(future.getUninterruptibly());
+      } catch (NoHostAvailableException e) {
+        result.completeExceptionally(new StorageUnavailableException(e));
+      } catch (QueryExecutionException | QueryValidationException e) {
+        result.completeExceptionally(new RepositoryException(e));
+      } catch (RuntimeException e) {
+        result.completeExceptionally(e);
+      }
+    }, MoreExecutors.directExecutor());
+    return result;
+  }
+
+  /**
+   * Waits for the future to complete, rethrowing the unchecked exception it completed with.
+   */
+  private static <T> T join(CompletableFuture<T> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  private Collection<CompletableFuture<ResultSet>> storeWaveformInternal(Waveform waveform,
+      UUID channelId) {
     logger.debug("Calling initializeSession in storeWaveformInternal");
     initializeSession();
 
-    Collection<ResultSetFuture> futures = new ArrayList<>();
+    WaveformSampleEncoding encoding = sampleEncodingByChannel.apply(channelId);
+    Collection<CompletableFuture<ResultSet>> futures = new ArrayList<>();
     List<Waveform> brokenDownWaveforms = breakIntoBlocks(waveform);
     for (Waveform wf : brokenDownWaveforms) {
-      LocalDate waveformDate = LocalDate
-          .fromMillisSinceEpoch(wf.getStartTime().toEpochMilli());
-      List<Double> samples = Doubles.asList(wf.getValues());
-
       // Write the data points.
       logger.debug("storeWaveformInternal's preparedWaveformsInsert preparedId {}, routingKey {}",
           preparedWaveformsInsert.getPreparedId(), preparedWaveformsInsert.getRoutingKey());
-      BoundStatement bs = preparedWaveformsInsert.bind()
-          .setUUID("c", channelId)
-          .setDate("d", waveformDate)
-          .setLong("st", CassandraDbUtility.toEpochNano(wf.getStartTime()))
-          .setLong("e", CassandraDbUtility.toEpochNano(wf.getEndTime()))
-          .setLong("sc", wf.getSampleCount())
-          .setDouble("sr", wf.getSampleRate())
-          .setList("s", samples);
+      BoundStatement bs = bindWaveformInsert(wf, channelId,
+          encodeSamples(wf.getSampleView(), encoding, channelId));
 
-      futures.add(session.executeAsync(bs));
+      futures.add(writeLimiter.submit(() -> toCompletableFuture(session.executeAsync(bs))));
     }
     return futures;
   }
 
+  private BoundStatement bindWaveformInsert(Waveform block, UUID channelId, ByteBuffer samples) {
+    return preparedWaveformsInsert.bind()
+        .setUUID("c", channelId)
+        .setDate("d", toPartitionDate(block))
+        .setLong("st", CassandraDbUtility.toEpochNano(block.getStartTime()))
+        .setLong("e", CassandraDbUtility.toEpochNano(block.getEndTime()))
+        .setLong("sc", block.getSampleCount())
+        .setDouble("sr", block.getSampleRate())
+        .setBytes("s", samples);
+  }
+
+  private static LocalDate toPartitionDate(Waveform block) {
+    return LocalDate.fromMillisSinceEpoch(block.getStartTime().toEpochMilli());
+  }
+
+  /**
+   * Encodes a block of samples with the channel's encoding, falling back to {@link
+   * WaveformSampleEncoding#FLOAT64} when the block cannot be represented by that encoding (e.g.
+   * non-integer samples on an {@link WaveformSampleEncoding#INTEGER_DELTA} channel).
+   */
+  private static ByteBuffer encodeSamples(SampleView samples, WaveformSampleEncoding encoding,
+      UUID channelId) {
+    if (!encoding.canEncode(samples)) {
+      logger.debug("Samples for channel {} cannot be stored using {} encoding, using {}",
+          channelId, encoding, WaveformSampleEncoding.FLOAT64);
+      encoding = WaveformSampleEncoding.FLOAT64;
+    }
+    return encoding.encode(samples);
+  }
+
+  /**
+   * Reads the samples of a waveforms table row.  Rows written before the introduction of {@link
+   * WaveformSampleEncoding} only contain the legacy {@code samples list<double>} column, so they
+   * are read from it when {@code encoded_samples} is null.
+   */
+  private static double[] readSamples(Row row) {
+    ByteBuffer encodedSamples = row.getBytes("encoded_samples");
+    if (encodedSamples != null) {
+      return WaveformSampleEncoding.decode(encodedSamples);
+    }
+
+    List<Double> legacySamples = row.getList("samples", Double.class);
+    double[] values = new double[legacySamples.size()];
+    int i = 0;
+    for (Double sample : legacySamples) {
+      values[i++] = sample;
+    }
+    return values;
+  }
+
   /**
    * Get a list of Waveforms based on the passed parameters.
    *
@@ -206,85 +591,123 @@ public class JpaCassandraWaveformRepository implements WaveformRepository {
   @Override
   public Map<UUID, List<Waveform>> retrieveWaveformsByTime(Collection<UUID> channelIds,
       Instant startTime, Instant endTime, boolean includeWaveformValues) throws Exception {
+    return join(retrieveWaveformsByTimeAsync(channelIds, startTime, endTime,
+        includeWaveformValues));
+  }
+
+  /**
+   * Asynchronously get a Map from UUID to Waveform objects from Cassandra.  The partition reads
+   * planned by {@link WaveformQueryPlanner} are issued in parallel (at most {@link
+   * #MAX_CONCURRENT_PARTITION_READS} at once across this repository), and each read's blocks are
+   * decoded as soon as it completes.  The blocks of each channel are merged once every read has
+   * completed.
+   *
+   * @param channelIds the ids of the processing channel the waveform is for.
+   * @param startTime Starting time for the time-series.
+   * @param endTime Ending time for the time-series.
+   * @return A future map from channel id to Waveform objects.
+   */
+  @Override
+  public CompletableFuture<Map<UUID, List<Waveform>>> retrieveWaveformsByTimeAsync(
+      Collection<UUID> channelIds, Instant startTime, Instant endTime,
+      boolean includeWaveformValues) {
     Validate.notNull(channelIds);
     Validate.notNull(startTime);
     Validate.notNull(endTime);
 
-    logger.debug("Calling initializeSession in retrieveWaveformsByTime");
-    initializeSession();
-    final PreparedStatement ps = includeWaveformValues ?
-        preparedWaveformsQueryWithWaveforms : preparedWaveformsQueryNoWaveforms;
-    logger.debug("retrieveWaveformsByTime's preparedStatement preparedId {}, routingKey {}",
-        ps.getPreparedId(), ps.getRoutingKey());
-
-    final List<ResultSetFuture> callbacks = new ArrayList<>();
-
-    // The data within Cassandra is partitioned
-    // using the channel ID and the date, so we have to issue queries for each day in the
-    // time range.
-    for (LocalDate date : CassandraDbUtility.getCassandraDays(startTime, endTime)) {
-      /* Use the start time and our ending inequality, because that is our clustering column.
-      Because we always grab full blocks, this will give us all the blocks until the start
-      time no longer matches the criteria
-      */
-      ArrayList<UUID> channelIdsList = new ArrayList<>(channelIds);
-      BoundStatement bs = ps.bind()
-          .setList("c", channelIdsList)
-          .setDate("d", date)
-          .setLong("s", CassandraDbUtility.toEpochNano(startTime))
-          .setLong("e", CassandraDbUtility.toEpochNano(endTime));
-      callbacks.add(session.executeAsync(bs));
-    }
-
-    ListMultimap<UUID, Waveform> uuidWaveformListMultimap = ArrayListMultimap.create();
-    // Wait for the queries to finish and process the results.
-    while (!callbacks.isEmpty()) {
-      List<ResultSetFuture> callbacksToRemove = new ArrayList<>();
-      for (ResultSetFuture callback : callbacks) {
-        if (callback.isDone()) {
-          callbacksToRemove.add(callback);
-
-          for (Row r : callback.get()) {
-            Instant start = CassandraDbUtility.fromEpochNano(r.getLong("start_epoch_nano"));
-            Instant end = CassandraDbUtility.fromEpochNano(r.getLong("end_epoch_nano"));
-            double rate = r.getDouble("sample_rate");
-
-            if (!intersects(Pair.of(start, end), Pair.of(startTime, endTime))) {
-              continue;
-            }
+    final List<PartitionRead> reads = WaveformQueryPlanner
+        .plan(channelIds, startTime, endTime, MAX_BLOCK_DURATION);
 
-            // Convert the Cassandra waveform points list to an array of doubles.
-            Waveform wf;
-            if (includeWaveformValues) {
-              double[] values = r.getList("samples", Double.class).stream()
-                  .mapToDouble(d -> d).toArray();
-              wf = Waveform
-                  .withValues(start, rate, values);
-            } else {
-              wf = Waveform.withoutValues(start, rate, r.getLong("sample_count"));
-            }
-            //Add UUID, waveform key pair to map
-            uuidWaveformListMultimap.put(r.getUUID("channel_id"), wf.trim(startTime, endTime));
+    logger.debug("Calling initializeSession in retrieveWaveformsByTimeAsync");
+    try {
+      initializeSession();
+    } catch (RuntimeException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+
+    // Rows are decoded off of the driver's I/O threads since iterating a result set may
+    // synchronously fetch additional pages.
+    final List<Pair<UUID, CompletableFuture<List<Waveform>>>> blockReads = new ArrayList<>();
+    for (PartitionRead read : reads) {
+      BoundStatement bs = bindPartitionRead(read, includeWaveformValues);
+      blockReads.add(Pair.of(read.getChannelId(), readLimiter
+          .submit(() -> toCompletableFuture(session.executeAsync(bs)))
+          .thenApplyAsync(rs -> toWaveformBlocks(rs, startTime, endTime, includeWaveformValues),
+              executor)));
+    }
 
-          } // end for rows loop
-        } // end if query is done
-      } // end for results loop
-      callbacks.removeAll(callbacksToRemove);
-    } // end while still futures to process
+    return CompletableFuture.allOf(blockReads.stream()
+        .map(Pair::getRight)
+        .toArray(CompletableFuture<?>[]::new))
+        .thenApply(v -> mergeWaveformBlocks(blockReads));
+  }
 
-    //Convert to a map, merge the waveforms for each UUID
-    Map<UUID, List<Waveform>> uuidWaveformListMap = new HashMap<>();
-    for(UUID uuid : uuidWaveformListMultimap.keySet()){
-      List<Waveform> wfs = uuidWaveformListMultimap.get(uuid);
-      if (wfs.isEmpty()) {
-        logger.warn("No waveforms found for query on channelId {}, start time {}, end time {}",
-            channelIds, startTime, endTime);
+  private BoundStatement bindPartitionRead(PartitionRead read, boolean includeWaveformValues) {
+    final PreparedStatement ps;
+    if (read.getKind() == PartitionRead.Kind.RANGE) {
+      ps = includeWaveformValues ? preparedRangeQueryWithWaveforms : preparedRangeQueryNoWaveforms;
+    } else {
+      ps = includeWaveformValues ?
+          preparedPrecedingQueryWithWaveforms : preparedPrecedingQueryNoWaveforms;
+    }
+
+    BoundStatement bs = ps.bind()
+        .setUUID("c", read.getChannelId())
+        .setDate("d", CassandraDbUtility.toCassandraLocalDate(read.getDate()))
+        .setLong("s", read.getStartEpochNano());
+    if (read.getKind() == PartitionRead.Kind.RANGE) {
+      bs.setLong("e", read.getEndEpochNano());
+    }
+    return bs;
+  }
+
+  /**
+   * Converts the rows of a partition read into Waveforms trimmed to [startTime, endTime], skipping
+   * blocks that do not intersect the time range.
+   */
+  private List<Waveform> toWaveformBlocks(ResultSet resultSet, Instant startTime,
+      Instant endTime, boolean includeWaveformValues) {
+
+    List<Waveform> blocks = new ArrayList<>();
+    for (Row r : resultSet) {
+      Instant start = CassandraDbUtility.fromEpochNano(r.getLong("start_epoch_nano"));
+      Instant end = CassandraDbUtility.fromEpochNano(r.getLong("end_epoch_nano"));
+      double rate = r.getDouble("sample_rate");
+
+      if (!intersects(Pair.of(start, end), Pair.of(startTime, endTime))) {
+        continue;
       }
-      else{
-        List<Waveform> merged = WaveformUtility.mergeWaveforms(
-            uuidWaveformListMultimap.get(uuid), MERGE_SAMPLE_RATE_TOLERANCE, MERGE_MIN_GAP_SAMPLE_COUNT_LIMIT);
-        uuidWaveformListMap.put(uuid, merged);
+
+      // Convert the Cassandra waveform samples to an array of doubles.
+      Waveform wf;
+      if (includeWaveformValues) {
+        wf = Waveform.withValues(start, rate, readSamples(r));
+      } else {
+        wf = Waveform.withoutValues(start, rate, r.getLong("sample_count"));
       }
+      blocks.add(wf.trim(startTime, endTime));
+    }
+    return blocks;
+  }
+
+  /**
+   * Orders each channel's blocks by start time and merges adjacent blocks.  Channels without blocks
+   * are not present in the returned map.
+   */
+  private static Map<UUID, List<Waveform>> mergeWaveformBlocks(
+      List<Pair<UUID, CompletableFuture<List<Waveform>>>> blockReads) {
+
+    ListMultimap<UUID, Waveform> blocksByChannel = ArrayListMultimap.create();
+    for (Pair<UUID, CompletableFuture<List<Waveform>>> blockRead : blockReads) {
+      blocksByChannel.putAll(blockRead.getLeft(), blockRead.getRight().join());
+    }
+
+    Map<UUID, List<Waveform>> uuidWaveformListMap = new HashMap<>();
+    for (UUID uuid : blocksByChannel.keySet()) {
+      List<Waveform> blocks = blocksByChannel.get(uuid);
+      blocks.sort(Comparator.comparing(Waveform::getStartTime));
+      uuidWaveformListMap.put(uuid, WaveformUtility.mergeWaveforms(
+          blocks, MERGE_SAMPLE_RATE_TOLERANCE, MERGE_MIN_GAP_SAMPLE_COUNT_LIMIT));
     }
     return uuidWaveformListMap;
   }
@@ -320,11 +743,39 @@ public class JpaCassandraWaveformRepository implements WaveformRepository {
   @Override
   public Map<UUID, ChannelSegment<Waveform>> retrieveChannelSegments(Collection<UUID> channelIds,
       Instant rangeStart, Instant rangeEnd, boolean includeWaveformValues) throws Exception {
+    return join(retrieveChannelSegmentsAsync(channelIds, rangeStart, rangeEnd,
+        includeWaveformValues));
+  }
 
-    Map<UUID, List<ChannelSegmentDao>> daosByChanId = segmentDaosByChannelIds(
-        channelIds, rangeStart, rangeEnd);
-    Map<UUID, List<Waveform>> waveformsByChanId = retrieveWaveformsByTime(
-        channelIds, rangeStart, rangeEnd, includeWaveformValues);
+  /**
+   * Asynchronously retrieves new ChannelSegments for the channels.  The ChannelSegment metadata
+   * query runs concurrently with the waveform queries.
+   */
+  @Override
+  public CompletableFuture<Map<UUID, ChannelSegment<Waveform>>> retrieveChannelSegmentsAsync(
+      Collection<UUID> channelIds, Instant rangeStart, Instant rangeEnd,
+      boolean includeWaveformValues) {
+
+    CompletableFuture<Map<UUID, List<ChannelSegmentDao>>> daosByChanId = CompletableFuture
+        .supplyAsync(() -> {
+          try {
+            return segmentDaosByChannelIds(channelIds, rangeStart, rangeEnd);
+          } catch (RuntimeException e) {
+            throw e;
+          } catch (Exception e) {
+            throw new CompletionException(e);
+          }
+        }, executor);
+    CompletableFuture<Map<UUID, List<Waveform>>> waveformsByChanId =
+        retrieveWaveformsByTimeAsync(channelIds, rangeStart, rangeEnd, includeWaveformValues);
+
+    return daosByChanId.thenCombine(waveformsByChanId,
+        (daos, waveforms) -> toChannelSegments(daos, waveforms, rangeStart, rangeEnd));
+  }
+
+  private static Map<UUID, ChannelSegment<Waveform>> toChannelSegments(
+      Map<UUID, List<ChannelSegmentDao>> daosByChanId,
+      Map<UUID, List<Waveform>> waveformsByChanId, Instant rangeStart, Instant rangeEnd) {
 
     Map<UUID, ChannelSegment<Waveform>> newSegmentByChanId = new HashMap<>();
     for (Entry<UUID, List<ChannelSegmentDao>> e : daosByChanId.entrySet()) {
@@ -544,57 +995,57 @@ public class JpaCassandraWaveformRepository implements WaveformRepository {
   /**
    * @throws StorageUnavailableException if a connection cannot be retrieved
    */
-  private void initializeSession() {
+  private synchronized void initializeSession() {
     if (this.session == null || this.session.isClosed()) {
       this.session = this.cassandraConfig.getConnection();
       // initialize all prepared statements.
-      /*
-        We have to use start time as our inequality criteria for these queries
-        because that is the clustering column of our db. To achieve this we will manually have to:
-        1) subtract the blocking size from the start time (leading to possible overfetching),
-           but will guarantee that we grab the block containing our desired start time
-        2) use the start time and our ending inequality. Because we always grab full blocks,
-           this will give us all the blocks until the start time no longer matches the criteria
-      */
       logger.debug("initializeSession\nstate: { }\ncluster: { } ", session.getState(), session.getCluster());
       this.preparedWaveformsInsert = this.session.prepare(
           "INSERT INTO "
               + cassandraConfig.timeseriesKeySpace + "." + cassandraConfig.waveformTable + " "
-              + "(channel_id, date, start_epoch_nano, end_epoch_nano, sample_count, sample_rate, samples) "
+              + "(channel_id, date, start_epoch_nano, end_epoch_nano, sample_count, sample_rate, encoded_samples) "
               + "VALUES (:c, :d, :st, :e, :sc, :sr, :s)")
           .setConsistencyLevel(ConsistencyLevel.QUORUM);
       logger.debug("initializeSession: created preparedWaveformsInsert");
 
-      //TODO: Remove ALLOW FILTERING ONCE DB image is optimized
-      this.preparedWaveformsQueryWithWaveforms = this.session.prepare(
-          "SELECT channel_id, start_epoch_nano, end_epoch_nano, sample_count, sample_rate, samples "
-              + "FROM " + cassandraConfig.timeseriesKeySpace + "." + cassandraConfig.waveformTable
-              + " "
-              + "WHERE channel_id IN :c AND date = :d AND start_epoch_nano <= :e AND end_epoch_nano >= :s"
-              + " "
-              + "ALLOW FILTERING")
+      // Every query restricts a single (channel_id, date) partition and only the clustering
+      // column within it (see WaveformQueryPlanner), so the driver can route each query to a
+      // replica owning the partition.
+      final String table = cassandraConfig.timeseriesKeySpace + "." + cassandraConfig.waveformTable;
+      final String withWaveformsColumns =
+          "SELECT start_epoch_nano, end_epoch_nano, sample_count, sample_rate, samples, encoded_samples ";
+      final String noWaveformsColumns =
+          "SELECT start_epoch_nano, end_epoch_nano, sample_count, sample_rate ";
+      final String rangeRestriction = "FROM " + table + " "
+          + "WHERE channel_id = :c AND date = :d AND start_epoch_nano >= :s AND start_epoch_nano <= :e";
+      final String precedingRestriction = "FROM " + table + " "
+          + "WHERE channel_id = :c AND date = :d AND start_epoch_nano < :s "
+          + "ORDER BY start_epoch_nano DESC LIMIT 1";
+
+      this.preparedRangeQueryWithWaveforms = this.session
+          .prepare(withWaveformsColumns + rangeRestriction)
+          .setConsistencyLevel(ConsistencyLevel.QUORUM);
+      this.preparedRangeQueryNoWaveforms = this.session
+          .prepare(noWaveformsColumns + rangeRestriction)
+          .setConsistencyLevel(ConsistencyLevel.QUORUM);
+      this.preparedPrecedingQueryWithWaveforms = this.session
+          .prepare(withWaveformsColumns + precedingRestriction)
           .setConsistencyLevel(ConsistencyLevel.QUORUM);
-      logger.debug("initializeSession: created preparedWaveformsQueryWithWaveforms");
-
-      //TODO: Remove ALLOW FILTERING ONCE DB image is optimized
-      this.preparedWaveformsQueryNoWaveforms = this.session.prepare(
-          "SELECT channel_id, start_epoch_nano, end_epoch_nano, sample_count, sample_rate "
-              + "FROM " + cassandraConfig.timeseriesKeySpace + "." + cassandraConfig.waveformTable
-              + " "
-              + "WHERE channel_id IN :c AND date = :d AND start_epoch_nano <= :e AND end_epoch_nano >= :s"
-              + " "
-              + "ALLOW FILTERING")
+      this.preparedPrecedingQueryNoWaveforms = this.session
+          .prepare(noWaveformsColumns + precedingRestriction)
           .setConsistencyLevel(ConsistencyLevel.QUORUM);
-      logger.debug("initializeSession: created preparedWaveformsQueryNoWaveforms");
+      logger.debug("initializeSession: created waveform range and preceding block queries");
 
     }
   }
 
   static List<Waveform> breakIntoBlocks(Waveform waveform) {
 
-    long nanosPerBlock = (long) ((DOUBLES_PER_BLOCK) / waveform.getSampleRate() * BILLION);
+    long samplesPerBlock = Math.max(1, Math.min(DOUBLES_PER_BLOCK,
+        (long) (MAX_BLOCK_DURATION.getSeconds() * waveform.getSampleRate())));
+    long nanosPerBlock = (long) ((samplesPerBlock) / waveform.getSampleRate() * BILLION);
     //since start time is included, we add 1 less than block size to get the correct amount of samples
-    long blockEndNanos = (long) ((DOUBLES_PER_BLOCK - 1) / waveform.getSampleRate() * BILLION);
+    long blockEndNanos = (long) ((samplesPerBlock - 1) / waveform.getSampleRate() * BILLION);
 
     Instant end;
     List<Waveform> blockWaveforms = new ArrayList<>();
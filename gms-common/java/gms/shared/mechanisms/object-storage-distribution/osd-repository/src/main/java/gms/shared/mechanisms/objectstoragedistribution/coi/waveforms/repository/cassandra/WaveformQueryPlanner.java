@@ -0,0 +1,167 @@
+package gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.repository.cassandra;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Plans the single-partition reads needed to retrieve the waveform blocks of channels over a time
+ * range.
+ *
+ * The waveforms table is partitioned by (channel_id, date) and clustered by start_epoch_nano, where
+ * date is the day a block starts.  A block intersects [start, end] if it starts within the range, or
+ * if it is the last block starting before the range and extends into it.  The plan therefore
+ * contains, per channel, a clustering range read of each day partition in the range, plus reads of
+ * the single latest block starting before the range in the start day's partition and in each
+ * earlier day's partition a block of the maximum duration could start in (a block may start days
+ * before the range and extend across several midnights).  Every
+ * read restricts only the partition key and the clustering column, so none requires ALLOW FILTERING
+ * and each can be routed directly to a replica owning its partition.
+ */
+final class WaveformQueryPlanner {
+
+  private WaveformQueryPlanner() {
+  }
+
+  /**
+   * A read of a single (channel_id, date) partition.
+   */
+  static final class PartitionRead {
+
+    /**
+     * The kind of clustering restriction applied by a {@link PartitionRead}.
+     */
+    enum Kind {
+      /**
+       * Reads every block whose start_epoch_nano is in [startEpochNano, endEpochNano].
+       */
+      RANGE,
+      /**
+       * Reads the latest block whose start_epoch_nano is before startEpochNano.
+       */
+      PRECEDING
+    }
+
+    private final Kind kind;
+    private final UUID channelId;
+    private final LocalDate date;
+    private final long startEpochNano;
+    private final long endEpochNano;
+
+    private PartitionRead(Kind kind, UUID channelId, LocalDate date, long startEpochNano,
+        long endEpochNano) {
+      this.kind = kind;
+      this.channelId = channelId;
+      this.date = date;
+      this.startEpochNano = startEpochNano;
+      this.endEpochNano = endEpochNano;
+    }
+
+    static PartitionRead range(UUID channelId, LocalDate date, long startEpochNano,
+        long endEpochNano) {
+      return new PartitionRead(Kind.RANGE, channelId, date, startEpochNano, endEpochNano);
+    }
+
+    static PartitionRead preceding(UUID channelId, LocalDate date, long startEpochNano) {
+      return new PartitionRead(Kind.PRECEDING, channelId, date, startEpochNano, startEpochNano);
+    }
+
+    Kind getKind() {
+      return kind;
+    }
+
+    UUID getChannelId() {
+      return channelId;
+    }
+
+    LocalDate getDate() {
+      return date;
+    }
+
+    long getStartEpochNano() {
+      return startEpochNano;
+    }
+
+    long getEndEpochNano() {
+      return endEpochNano;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      PartitionRead that = (PartitionRead) o;
+      return startEpochNano == that.startEpochNano &&
+          endEpochNano == that.endEpochNano &&
+          kind == that.kind &&
+          channelId.equals(that.channelId) &&
+          date.equals(that.date);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(kind, channelId, date, startEpochNano, endEpochNano);
+    }
+
+    @Override
+    public String toString() {
+      return "PartitionRead{" +
+          "kind=" + kind +
+          ", channelId=" + channelId +
+          ", date=" + date +
+          ", startEpochNano=" + startEpochNano +
+          ", endEpochNano=" + endEpochNano +
+          '}';
+    }
+  }
+
+  /**
+   * Plans the partition reads retrieving every block of the channels intersecting [start, end].
+   *
+   * @param channelIds ids of the channels to read, not null
+   * @param start start of the time range, inclusive, not null
+   * @param end end of the time range, inclusive, not null
+   * @param maxBlockDuration longest time spanned by a stored block, not null or negative
+   * @return the partition reads, grouped by channel and ordered by date within each channel
+   * @throws IllegalArgumentException if start is after end or maxBlockDuration is negative
+   */
+  static List<PartitionRead> plan(Collection<UUID> channelIds, Instant start, Instant end,
+      Duration maxBlockDuration) {
+    Objects.requireNonNull(channelIds);
+    Objects.requireNonNull(start);
+    Objects.requireNonNull(end);
+    Objects.requireNonNull(maxBlockDuration);
+    Validate.isTrue(!start.isAfter(end), "Start must be <= end");
+    Validate.isTrue(!maxBlockDuration.isNegative(), "maxBlockDuration must be >= 0");
+
+    final long startEpochNano = CassandraDbUtility.toEpochNano(start);
+    final long endEpochNano = CassandraDbUtility.toEpochNano(end);
+    final LocalDate startDay = LocalDate.ofInstant(start, ZoneOffset.UTC);
+    // earliest day a block extending into the range can start
+    final LocalDate firstPrecedingDay = LocalDate
+        .ofInstant(start.minus(maxBlockDuration), ZoneOffset.UTC);
+    final List<LocalDate> days = CassandraDbUtility.getDays(start, end);
+
+    List<PartitionRead> reads = new ArrayList<>();
+    for (UUID channelId : channelIds) {
+      for (LocalDate day = firstPrecedingDay; !day.isAfter(startDay); day = day.plusDays(1)) {
+        reads.add(PartitionRead.preceding(channelId, day, startEpochNano));
+      }
+      for (LocalDate day : days) {
+        reads.add(PartitionRead.range(channelId, day, startEpochNano, endEpochNano));
+      }
+    }
+    return reads;
+  }
+}
@@ -0,0 +1,295 @@
+package gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.repository.cassandra;
+
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.SampleView;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Objects;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Encodings used to store a block of waveform samples in the Cassandra waveforms table as a single
+ * binary blob (the {@code encoded_samples} column) instead of a boxed {@code list<double>}.
+ *
+ * Every encoded blob is laid out as:
+ * <pre>
+ *   byte    format version ({@link #FORMAT_VERSION})
+ *   byte    encoding id (see {@link #getId()})
+ *   int32   sample count (little-endian)
+ *   ...     encoding specific payload
+ * </pre>
+ * The header makes each blob self-describing, so blocks written with different encodings (e.g.
+ * after a channel's encoding is changed) can always be decoded.
+ */
+public enum WaveformSampleEncoding {
+
+  /**
+   * Lossless raw little-endian IEEE-754 float64 samples; 8 bytes per sample.
+   */
+  FLOAT64((byte) 1) {
+    @Override
+    public boolean canEncode(SampleView samples) {
+      return true;
+    }
+
+    @Override
+    int payloadSize(SampleView samples) {
+      return samples.length() * Double.BYTES;
+    }
+
+    @Override
+    void encodePayload(SampleView samples, ByteBuffer buffer) {
+      buffer.asDoubleBuffer().put(samples.asDoubleBuffer());
+    }
+
+    @Override
+    void decodePayload(ByteBuffer buffer, double[] samples) {
+      buffer.asDoubleBuffer().get(samples);
+    }
+  },
+
+  /**
+   * Raw little-endian IEEE-754 float32 samples; 4 bytes per sample.  This encoding is lossy for
+   * samples that are not exactly representable as a float, so it should only be selected for
+   * channels whose data does not need double precision.
+   */
+  FLOAT32((byte) 2) {
+    @Override
+    public boolean canEncode(SampleView samples) {
+      return true;
+    }
+
+    @Override
+    int payloadSize(SampleView samples) {
+      return samples.length() * Float.BYTES;
+    }
+
+    @Override
+    void encodePayload(SampleView samples, ByteBuffer buffer) {
+      for (int i = 0; i < samples.length(); i++) {
+        buffer.putFloat((float) samples.get(i));
+      }
+    }
+
+    @Override
+    void decodePayload(ByteBuffer buffer, double[] samples) {
+      for (int i = 0; i < samples.length; i++) {
+        samples[i] = buffer.getFloat();
+      }
+    }
+  },
+
+  /**
+   * Lossless Steim-style compression for integer valued samples (e.g. raw digitizer counts).  The
+   * first sample and each successive first difference are written as zig-zag encoded variable
+   * length integers, so slowly varying signals use one or two bytes per sample.  Only blocks where
+   * every sample is an integer of magnitude at most 2^53 can be encoded (see {@link
+   * #canEncode(SampleView)}).
+   */
+  INTEGER_DELTA((byte) 3) {
+    private static final double MAX_EXACT_INTEGER = 9_007_199_254_740_992.0;  // 2^53
+
+    @Override
+    public boolean canEncode(SampleView samples) {
+      for (int i = 0; i < samples.length(); i++) {
+        double sample = samples.get(i);
+        if (sample != Math.rint(sample) || Math.abs(sample) > MAX_EXACT_INTEGER
+            || Double.doubleToRawLongBits(sample) == NEGATIVE_ZERO_BITS) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    int payloadSize(SampleView samples) {
+      int size = 0;
+      long previous = 0;
+      for (int i = 0; i < samples.length(); i++) {
+        long current = (long) samples.get(i);
+        size += varLongSize(zigZag(current - previous));
+        previous = current;
+      }
+      return size;
+    }
+
+    @Override
+    void encodePayload(SampleView samples, ByteBuffer buffer) {
+      long previous = 0;
+      for (int i = 0; i < samples.length(); i++) {
+        long current = (long) samples.get(i);
+        putVarLong(zigZag(current - previous), buffer);
+        previous = current;
+      }
+    }
+
+    @Override
+    void decodePayload(ByteBuffer buffer, double[] samples) {
+      long previous = 0;
+      for (int i = 0; i < samples.length; i++) {
+        previous += unZigZag(getVarLong(buffer));
+        samples[i] = previous;
+      }
+    }
+  };
+
+  /**
+   * Version of the blob layout written by {@link #encode(double[])}.
+   */
+  public static final byte FORMAT_VERSION = 1;
+
+  private static final int HEADER_SIZE = 2 + Integer.BYTES;
+  private static final long NEGATIVE_ZERO_BITS = Double.doubleToRawLongBits(-0.0);
+
+  private final byte id;
+
+  WaveformSampleEncoding(byte id) {
+    this.id = id;
+  }
+
+  /**
+   * Obtains the identifier written into the header of blobs produced by this encoding.
+   *
+   * @return encoding identifier
+   */
+  public byte getId() {
+    return id;
+  }
+
+  /**
+   * Determines whether the provided samples can be represented by this encoding.
+   *
+   * @param samples waveform samples, not null
+   * @return true if {@link #encode(double[])} accepts the samples
+   * @see #canEncode(SampleView)
+   */
+  public boolean canEncode(double[] samples) {
+    return canEncode(SampleView.of(samples));
+  }
+
+  /**
+   * Determines whether the provided samples can be represented by this encoding.  Lossy encodings
+   * (e.g. {@link #FLOAT32}) accept all samples.
+   *
+   * @param samples waveform samples, not null
+   * @return true if {@link #encode(SampleView)} accepts the samples
+   */
+  public abstract boolean canEncode(SampleView samples);
+
+  abstract int payloadSize(SampleView samples);
+
+  abstract void encodePayload(SampleView samples, ByteBuffer buffer);
+
+  abstract void decodePayload(ByteBuffer buffer, double[] samples);
+
+  /**
+   * Encodes the samples into a self-describing blob.
+   *
+   * @param samples waveform samples, not null
+   * @return a little-endian buffer positioned at zero containing the encoded samples
+   * @throws IllegalArgumentException if the samples cannot be represented by this encoding
+   */
+  public ByteBuffer encode(double[] samples) {
+    Objects.requireNonNull(samples, "Cannot encode null samples");
+    return encode(SampleView.of(samples));
+  }
+
+  /**
+   * Encodes the samples of a view into a self-describing blob without copying them beforehand.
+   *
+   * @param samples waveform samples, not null
+   * @return a little-endian buffer positioned at zero containing the encoded samples
+   * @throws IllegalArgumentException if the samples cannot be represented by this encoding
+   */
+  public ByteBuffer encode(SampleView samples) {
+    Objects.requireNonNull(samples, "Cannot encode null samples");
+    Validate.isTrue(canEncode(samples), "Samples cannot be represented using %s encoding", this);
+
+    ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + payloadSize(samples))
+        .order(ByteOrder.LITTLE_ENDIAN);
+    buffer.put(FORMAT_VERSION)
+        .put(id)
+        .putInt(samples.length());
+    encodePayload(samples, buffer.slice().order(ByteOrder.LITTLE_ENDIAN));
+    return buffer.rewind();
+  }
+
+  /**
+   * Decodes a blob produced by {@link #encode(double[])} using whichever encoding is recorded in
+   * its header.  The provided buffer's position is not modified.
+   *
+   * @param blob encoded samples, not null
+   * @return decoded samples
+   * @throws IllegalArgumentException if the blob has an unknown format version or encoding
+   */
+  public static double[] decode(ByteBuffer blob) {
+    Objects.requireNonNull(blob, "Cannot decode null blob");
+
+    ByteBuffer buffer = blob.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    Validate.isTrue(buffer.remaining() >= HEADER_SIZE,
+        "Encoded samples blob is too short to contain a header");
+    byte version = buffer.get();
+    Validate.isTrue(version == FORMAT_VERSION,
+        "Unsupported encoded samples format version %d", version);
+    WaveformSampleEncoding encoding = fromId(buffer.get());
+    int sampleCount = buffer.getInt();
+    Validate.isTrue(sampleCount >= 0, "Encoded samples blob has a negative sample count");
+
+    double[] samples = new double[sampleCount];
+    encoding.decodePayload(buffer.slice().order(ByteOrder.LITTLE_ENDIAN), samples);
+    return samples;
+  }
+
+  /**
+   * Obtains the encoding with the provided identifier.
+   *
+   * @param id encoding identifier read from a blob header
+   * @return the matching encoding
+   * @throws IllegalArgumentException if no encoding has the identifier
+   */
+  public static WaveformSampleEncoding fromId(byte id) {
+    for (WaveformSampleEncoding encoding : values()) {
+      if (encoding.id == id) {
+        return encoding;
+      }
+    }
+    throw new IllegalArgumentException("Unknown waveform sample encoding id " + id);
+  }
+
+  private static long zigZag(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  private static long unZigZag(long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  private static int varLongSize(long value) {
+    int size = 1;
+    while ((value & ~0x7FL) != 0) {
+      value >>>= 7;
+      size++;
+    }
+    return size;
+  }
+
+  private static void putVarLong(long value, ByteBuffer buffer) {
+    while ((value & ~0x7FL) != 0) {
+      buffer.put((byte) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    buffer.put((byte) value);
+  }
+
+  private static long getVarLong(ByteBuffer buffer) {
+    long value = 0;
+    int shift = 0;
+    byte b;
+    do {
+      Validate.isTrue(shift < Long.SIZE, "Malformed variable length integer in encoded samples");
+      b = buffer.get();
+      value |= (long) (b & 0x7F) << shift;
+      shift += 7;
+    } while ((b & 0x80) != 0);
+    return value;
+  }
+}
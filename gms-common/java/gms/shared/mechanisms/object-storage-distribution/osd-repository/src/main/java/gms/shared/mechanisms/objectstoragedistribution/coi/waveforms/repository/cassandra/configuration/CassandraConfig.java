@@ -1,9 +1,12 @@
 package gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.repository.cassandra.configuration;
 
 import com.datastax.driver.core.Cluster;
+import com.datastax.driver.core.HostDistance;
 import com.datastax.driver.core.PlainTextAuthProvider;
+import com.datastax.driver.core.PoolingOptions;
 import com.datastax.driver.core.Session;
 import gms.shared.mechanisms.objectstoragedistribution.coi.common.repository.StorageUnavailableException;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.repository.cassandra.WaveformSampleEncoding;
 import java.util.Objects;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,6 +23,9 @@ public class CassandraConfig {
   private static final String DEFAULT_KEYSPACE = "gms_timeseries_data";
   private static final String DEFAULT_WAVEFORMS_TABLE = "waveforms";
   private static final String DEFAULT_FKSPECTRA_TABLE = "fk_spectra";
+  private static final WaveformSampleEncoding DEFAULT_WAVEFORM_SAMPLE_ENCODING =
+      WaveformSampleEncoding.FLOAT64;
+  private static final int DEFAULT_MAX_REQUESTS_PER_HOST = 0;
 
   public final String connectPoints;
   public final int port;
@@ -29,11 +35,21 @@ public class CassandraConfig {
   public final String timeseriesKeySpace;
   public final String waveformTable;
   public final String fkSpectraTable;
+  public final WaveformSampleEncoding waveformSampleEncoding;
+  public final int maxRequestsPerHost;
   private Cluster cluster;
 
   public CassandraConfig(String connectPoints, int port, String user, String pass,
       String clusterName, String timeseriesKeySpace,
       String waveformTable, String fkSpectraTable) {
+    this(connectPoints, port, user, pass, clusterName, timeseriesKeySpace, waveformTable,
+        fkSpectraTable, DEFAULT_WAVEFORM_SAMPLE_ENCODING, DEFAULT_MAX_REQUESTS_PER_HOST);
+  }
+
+  public CassandraConfig(String connectPoints, int port, String user, String pass,
+      String clusterName, String timeseriesKeySpace,
+      String waveformTable, String fkSpectraTable,
+      WaveformSampleEncoding waveformSampleEncoding, int maxRequestsPerHost) {
     this.connectPoints = Objects.requireNonNull(connectPoints);
     this.port = port;
     this.user = Objects.requireNonNull(user);
@@ -42,6 +58,8 @@ public class CassandraConfig {
     this.timeseriesKeySpace = Objects.requireNonNull(timeseriesKeySpace);
     this.waveformTable = Objects.requireNonNull(waveformTable);
     this.fkSpectraTable = Objects.requireNonNull(fkSpectraTable);
+    this.waveformSampleEncoding = Objects.requireNonNull(waveformSampleEncoding);
+    this.maxRequestsPerHost = maxRequestsPerHost;
   }
 
   /**
@@ -66,6 +84,8 @@ public class CassandraConfig {
     private String timeseriesKeySpace;
     private String waveformTable;
     private String fkSpectraTable;
+    private WaveformSampleEncoding waveformSampleEncoding;
+    private int maxRequestsPerHost;
 
     private Builder() {
       this.connectPoints = DEFAULT_CONNECT_POINTS;
@@ -76,6 +96,8 @@ public class CassandraConfig {
       this.timeseriesKeySpace = DEFAULT_KEYSPACE;
       this.waveformTable = DEFAULT_WAVEFORMS_TABLE;
       this.fkSpectraTable = DEFAULT_FKSPECTRA_TABLE;
+      this.waveformSampleEncoding = DEFAULT_WAVEFORM_SAMPLE_ENCODING;
+      this.maxRequestsPerHost = DEFAULT_MAX_REQUESTS_PER_HOST;
     }
 
     /**
@@ -87,7 +109,8 @@ public class CassandraConfig {
      */
     public CassandraConfig build() {
       return new CassandraConfig(connectPoints, port, user, pass,
-          clusterName, timeseriesKeySpace, waveformTable, fkSpectraTable);
+          clusterName, timeseriesKeySpace, waveformTable, fkSpectraTable, waveformSampleEncoding,
+          maxRequestsPerHost);
     }
 
     public Builder setConnectPoints(String connectPoints) {
@@ -129,6 +152,24 @@ public class CassandraConfig {
       this.fkSpectraTable = Objects.requireNonNull(fkSpectraTable);
       return this;
     }
+
+    /**
+     * Sets the default {@link WaveformSampleEncoding} used when storing waveform sample blocks.
+     */
+    public Builder setWaveformSampleEncoding(WaveformSampleEncoding waveformSampleEncoding) {
+      this.waveformSampleEncoding = Objects.requireNonNull(waveformSampleEncoding);
+      return this;
+    }
+
+    /**
+     * Bounds the number of requests in flight to each Cassandra host.  Requests beyond the bound
+     * are queued by the driver until an in-flight request completes.  Values less than 1 keep the
+     * driver's default.
+     */
+    public Builder setMaxRequestsPerHost(int maxRequestsPerHost) {
+      this.maxRequestsPerHost = maxRequestsPerHost;
+      return this;
+    }
   }
 
   /**
@@ -143,6 +184,7 @@ public class CassandraConfig {
           .withPort(this.port)
           .withCredentials(this.user, this.pass)
           .withAuthProvider(new PlainTextAuthProvider(this.user, this.pass))
+          .withPoolingOptions(buildPoolingOptions())
           .build();
     }
     logger.info("Created Cassandra Cluster for {}, keyspace: {}, user: {}", this.clusterName,
@@ -155,4 +197,21 @@ public class CassandraConfig {
       throw new StorageUnavailableException(e);
     }
   }
+
+  /**
+   * Builds the driver's connection pooling options.  When {@link #maxRequestsPerHost} is set each
+   * host gets exactly one connection, so the per-connection request limit bounds the requests in
+   * flight to each host.
+   */
+  private PoolingOptions buildPoolingOptions() {
+    PoolingOptions poolingOptions = new PoolingOptions();
+    if (maxRequestsPerHost > 0) {
+      poolingOptions
+          .setConnectionsPerHost(HostDistance.LOCAL, 1, 1)
+          .setConnectionsPerHost(HostDistance.REMOTE, 1, 1)
+          .setMaxRequestsPerConnection(HostDistance.LOCAL, maxRequestsPerHost)
+          .setMaxRequestsPerConnection(HostDistance.REMOTE, maxRequestsPerHost);
+    }
+    return poolingOptions;
+  }
 }
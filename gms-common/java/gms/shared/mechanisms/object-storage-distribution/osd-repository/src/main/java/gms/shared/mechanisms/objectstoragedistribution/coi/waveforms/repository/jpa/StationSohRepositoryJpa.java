@@ -5,14 +5,21 @@ import gms.shared.mechanisms.objectstoragedistribution.coi.common.repository.Coi
 import gms.shared.mechanisms.objectstoragedistribution.coi.common.repository.DataExistsException;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.AcquiredChannelSoh;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.AcquiredChannelSohAnalog;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.AcquiredChannelSoh.AcquiredChannelSohType;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.AcquiredChannelSohBoolean;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.AcquiredChannelSohBooleanSegment;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.repository.RepositoryExceptionUtils;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.repository.StationSohRepositoryInterface;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.repository.jpa.dataaccessobjects.AcquiredChannelSohAnalogDao;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.repository.jpa.dataaccessobjects.AcquiredChannelSohBooleanDao;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.repository.jpa.dataaccessobjects.AcquiredChannelSohBooleanSegmentDao;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
@@ -33,6 +40,14 @@ import org.slf4j.LoggerFactory;
 /**
  * Implement interface for storing and retrieving objects related to State of Health (SOH) from the
  * relational database.
+ *
+ * Boolean SOH is stored one row per status by {@link #storeBooleanSoh(AcquiredChannelSohBoolean)},
+ * but one row per channel and time range by {@link #storeBooleanSohSegments(Collection)}, which
+ * cuts the number of rows stored and scanned by queries by the number of statuses per channel
+ * (about 16 for CD-1.1).  Producers that read statuses a channel at a time (such as the CD-1.1
+ * frame parser) build {@link AcquiredChannelSohBooleanSegment}s directly; {@link
+ * #storeSoh(Collection)} still packs the individual statuses it is given whenever that loses
+ * nothing, for older callers.  Boolean SOH queries return statuses from both kinds of row.
  */
 public class StationSohRepositoryJpa implements StationSohRepositoryInterface {
 
@@ -122,19 +137,36 @@ public class StationSohRepositoryJpa implements StationSohRepositoryInterface {
           "Unknown types of SOH objects to store: " + unknownTypes);
     }
 
+    // Group boolean SOH by channel and time range, to be packed into segments.
+    Map<List<Object>, List<AcquiredChannelSohBoolean>> booleanGroups = new LinkedHashMap<>();
+    for (AcquiredChannelSoh soh : sohs) {
+      Validate.notNull(soh, "Cannot store null SOH");
+      if (soh instanceof AcquiredChannelSohBoolean) {
+        booleanGroups.computeIfAbsent(
+            Arrays.asList(soh.getChannelId(), soh.getStartTime(), soh.getEndTime()),
+            k -> new ArrayList<>()).add((AcquiredChannelSohBoolean) soh);
+      }
+    }
+
     EntityManager em = this.entityManagerFactory.createEntityManager();
     try {
-      final long txStart = System.currentTimeMillis();
       em.getTransaction().begin();
 
       for (AcquiredChannelSoh soh : sohs) {
-        Validate.notNull(soh, "Cannot store null SOH");
         if (soh instanceof AcquiredChannelSohAnalog) {
           AcquiredChannelSohAnalog analog = (AcquiredChannelSohAnalog) soh;
           em.persist(new AcquiredChannelSohAnalogDao(analog));
-        } else if (soh instanceof AcquiredChannelSohBoolean) {
-          AcquiredChannelSohBoolean bool = (AcquiredChannelSohBoolean) soh;
-          em.persist(new AcquiredChannelSohBooleanDao(bool));
+        }
+      }
+      for (List<AcquiredChannelSohBoolean> group : booleanGroups.values()) {
+        Optional<AcquiredChannelSohBooleanSegment> segment
+            = AcquiredChannelSohBooleanSegment.pack(group);
+        if (segment.isPresent()) {
+          em.persist(new AcquiredChannelSohBooleanSegmentDao(segment.get()));
+        } else {
+          for (AcquiredChannelSohBoolean bool : group) {
+            em.persist(new AcquiredChannelSohBooleanDao(bool));
+          }
         }
       }
       em.getTransaction().commit();
@@ -143,6 +175,26 @@ public class StationSohRepositoryJpa implements StationSohRepositoryInterface {
     }
   }
 
+  @Override
+  public void storeBooleanSohSegments(Collection<AcquiredChannelSohBooleanSegment> segments)
+      throws Exception {
+    Validate.notNull(segments);
+
+    EntityManager em = this.entityManagerFactory.createEntityManager();
+    try {
+      em.getTransaction().begin();
+      for (AcquiredChannelSohBooleanSegment segment : segments) {
+        Validate.notNull(segment, "Cannot store null SOH segment");
+        em.persist(new AcquiredChannelSohBooleanSegmentDao(segment));
+      }
+      em.getTransaction().commit();
+    } catch (Exception ex) {
+      throw RepositoryExceptionUtils.wrap(ex);
+    } finally {
+      em.close();
+    }
+  }
+
   /**
    * Retrieve all SOH double objects in the relational database.
    *
@@ -193,9 +245,18 @@ public class StationSohRepositoryJpa implements StationSohRepositoryInterface {
       CriteriaQuery<AcquiredChannelSohBooleanDao> all = criteriaQuery.select(rootEntry);
       TypedQuery<AcquiredChannelSohBooleanDao> allQuery = entityManager.createQuery(all);
 
-      return allQuery.getResultList().stream()
+      List<AcquiredChannelSohBoolean> sohs = allQuery.getResultList().stream()
           .map(AcquiredChannelSohBooleanDao::toCoi)
           .collect(Collectors.toList());
+
+      CriteriaQuery<AcquiredChannelSohBooleanSegmentDao> segmentQuery = criteriaBuilder
+          .createQuery(AcquiredChannelSohBooleanSegmentDao.class);
+      segmentQuery.select(segmentQuery.from(AcquiredChannelSohBooleanSegmentDao.class));
+      entityManager.createQuery(segmentQuery).getResultList().stream()
+          .map(AcquiredChannelSohBooleanSegmentDao::toCoi)
+          .map(AcquiredChannelSohBooleanSegment::toSohBooleans)
+          .forEach(sohs::addAll);
+      return sohs;
     } catch (Exception ex) {
       throw RepositoryExceptionUtils.wrap(ex);
     } finally {
@@ -211,8 +272,47 @@ public class StationSohRepositoryJpa implements StationSohRepositoryInterface {
 
     Objects.requireNonNull(acquiredChannelSohId,
         "retrieveAcquiredChannelSohBooleanById requires non-null acquiredChannelSohId");
-    return querySohById(AcquiredChannelSohBooleanDao.class, AcquiredChannelSohBooleanDao::toCoi,
-        acquiredChannelSohId);
+    Optional<AcquiredChannelSohBoolean> soh = querySohById(AcquiredChannelSohBooleanDao.class,
+        AcquiredChannelSohBooleanDao::toCoi, acquiredChannelSohId);
+    return soh.isPresent() ? soh : querySegmentSohById(acquiredChannelSohId);
+  }
+
+  /**
+   * Looks for a boolean SOH status with the provided identity in the stored segments.  A status's
+   * id is derived from its segment's id and its type, so the segment can only have one of a few
+   * ids, which are looked up together.
+   *
+   * @param acquiredChannelSohId {@link UUID} of the desired AcquiredChannelSohBoolean, not null
+   * @return Optional AcquiredChannelSohBoolean, not null
+   */
+  private Optional<AcquiredChannelSohBoolean> querySegmentSohById(UUID acquiredChannelSohId)
+      throws Exception {
+
+    List<UUID> segmentIds = Arrays.stream(AcquiredChannelSohType.values())
+        .map(type -> AcquiredChannelSohBooleanSegment.segmentId(acquiredChannelSohId, type))
+        .collect(Collectors.toList());
+
+    EntityManager entityManager = null;
+    try {
+      entityManager = entityManagerFactory.createEntityManager();
+
+      final TypedQuery<AcquiredChannelSohBooleanSegmentDao> query = entityManager.createQuery(
+          "SELECT s FROM " + AcquiredChannelSohBooleanSegmentDao.class.getTypeName()
+              + " s WHERE s.id IN :ids", AcquiredChannelSohBooleanSegmentDao.class);
+      query.setParameter("ids", segmentIds);
+
+      return query.getResultList().stream()
+          .map(AcquiredChannelSohBooleanSegmentDao::toCoi)
+          .flatMap(segment -> segment.toSohBooleans().stream())
+          .filter(soh -> soh.getId().equals(acquiredChannelSohId))
+          .findFirst();
+    } catch (Exception ex) {
+      throw RepositoryExceptionUtils.wrap(ex);
+    } finally {
+      if (entityManager != null) {
+        entityManager.close();
+      }
+    }
   }
 
   @Override
@@ -264,8 +364,22 @@ public class StationSohRepositoryJpa implements StationSohRepositoryInterface {
   public List<AcquiredChannelSohBoolean> retrieveBooleanSohByProcessingChannelAndTimeRange(
       UUID channelId, Instant startTime, Instant endTime) throws Exception {
 
-    return querySohByProcessingChannelAndTimeRange(AcquiredChannelSohBooleanDao.class,
-        AcquiredChannelSohBooleanDao::toCoi, entityManagerFactory.createEntityManager(),
+    List<AcquiredChannelSohBoolean> sohs = new ArrayList<>(
+        querySohByProcessingChannelAndTimeRange(
+            AcquiredChannelSohBooleanDao.class, AcquiredChannelSohBooleanDao::toCoi,
+            entityManagerFactory.createEntityManager(), channelId, startTime, endTime));
+    retrieveBooleanSohSegmentsByProcessingChannelAndTimeRange(channelId, startTime, endTime)
+        .forEach(segment -> sohs.addAll(segment.toSohBooleans()));
+    return sohs;
+  }
+
+  @Override
+  public List<AcquiredChannelSohBooleanSegment>
+  retrieveBooleanSohSegmentsByProcessingChannelAndTimeRange(
+      UUID channelId, Instant startTime, Instant endTime) throws Exception {
+
+    return querySohByProcessingChannelAndTimeRange(AcquiredChannelSohBooleanSegmentDao.class,
+        AcquiredChannelSohBooleanSegmentDao::toCoi, entityManagerFactory.createEntityManager(),
         channelId, startTime, endTime);
   }
 
@@ -287,10 +401,11 @@ public class StationSohRepositoryJpa implements StationSohRepositoryInterface {
    * @param channelId Id for the processing channel the SOH was measured on.
    * @param startTime Inclusive start from time range for the query.
    * @param endTime Inclusive end from time range for the query.
-   * @param <J> type of acquired channel SOH JPA entity (either {@link AcquiredChannelSohBooleanDao}
-   * or {@link AcquiredChannelSohAnalogDao})
-   * @param <B> type of acquired channel SOH business object (either {@link
-   * AcquiredChannelSohBoolean} or {@link AcquiredChannelSohAnalog})
+   * @param <J> type of acquired channel SOH JPA entity (one of {@link AcquiredChannelSohBooleanDao},
+   * {@link AcquiredChannelSohAnalogDao} or {@link AcquiredChannelSohBooleanSegmentDao})
+   * @param <B> type of acquired channel SOH business object (one of {@link
+   * AcquiredChannelSohBoolean}, {@link AcquiredChannelSohAnalog} or {@link
+   * AcquiredChannelSohBooleanSegment})
    * @return All SOH objects that meet the query criteria.
    */
   private static <J, B> List<B> querySohByProcessingChannelAndTimeRange(Class<J> entityType,
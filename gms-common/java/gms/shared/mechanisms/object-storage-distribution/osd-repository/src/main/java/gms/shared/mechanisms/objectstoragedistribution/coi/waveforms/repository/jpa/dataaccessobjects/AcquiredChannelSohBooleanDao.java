@@ -20,7 +20,7 @@ import org.apache.commons.lang3.Validate;
 @Entity
 @Table(name = "channel_soh_boolean",
     indexes = {@Index
-        (name = "booleanSohChannelIdStartEnd", columnList = "channel_id, startTime, endTime", unique = true)})
+        (name = "booleanSohChannelIdTypeStartEnd", columnList = "channel_id, type, startTime, endTime", unique = true)})
 public class AcquiredChannelSohBooleanDao {
 
   @Id
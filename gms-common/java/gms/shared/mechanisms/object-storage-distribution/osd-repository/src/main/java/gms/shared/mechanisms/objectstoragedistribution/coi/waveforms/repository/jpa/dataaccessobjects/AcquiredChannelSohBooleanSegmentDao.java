@@ -0,0 +1,148 @@
+package gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.repository.jpa.dataaccessobjects;
+
+import gms.shared.mechanisms.objectstoragedistribution.coi.emerging.provenance.repository.jpa.dataaccessobjects.CreationInfoDao;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.AcquiredChannelSohBooleanSegment;
+import java.time.Instant;
+import java.util.UUID;
+import javax.persistence.Column;
+import javax.persistence.Embedded;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Define a Data Access Object to allow access to the relational database.  Holds all of the
+ * boolean SOH statuses of a channel over a time range in one row, as bit sets.
+ */
+@Entity
+@Table(name = "channel_soh_boolean_segment",
+    indexes = {
+        @Index(name = "booleanSohSegmentChannelIdStartEnd",
+            columnList = "channel_id, startTime, endTime"),
+        @Index(name = "booleanSohSegmentId", columnList = "id", unique = true)})
+public class AcquiredChannelSohBooleanSegmentDao {
+
+  @Id
+  @GeneratedValue
+  private long primaryKey;
+
+  @Column(name = "id", nullable = false)
+  private UUID id;
+
+  @Column(name = "channel_id", nullable = false)
+  private UUID channelId;
+
+  @Column(name = "startTime", nullable = false, columnDefinition = "TIMESTAMP WITH TIME ZONE")
+  private Instant startTime;
+
+  @Column(name = "endTime", nullable = false, columnDefinition = "TIMESTAMP WITH TIME ZONE")
+  private Instant endTime;
+
+  @Column(name = "type_bits", nullable = false)
+  private long typeBits;
+
+  @Column(name = "status_bits", nullable = false)
+  private long statusBits;
+
+  @Embedded
+  private CreationInfoDao creationInfo;
+
+  /**
+   * Default constructor for use by JPA.
+   */
+  public AcquiredChannelSohBooleanSegmentDao() {
+
+  }
+
+  /**
+   * Create this DAO from the COI object.
+   *
+   * @param segment The COI object
+   */
+  public AcquiredChannelSohBooleanSegmentDao(AcquiredChannelSohBooleanSegment segment)
+      throws NullPointerException {
+    Validate.notNull(segment);
+
+    this.id = segment.getId();
+    this.channelId = segment.getChannelId();
+    this.startTime = segment.getStartTime();
+    this.endTime = segment.getEndTime();
+    this.typeBits = segment.getTypeBits();
+    this.statusBits = segment.getStatusBits();
+    this.creationInfo = new CreationInfoDao(segment.getCreationInfo());
+  }
+
+  public long getPrimaryKey() {
+    return primaryKey;
+  }
+
+  public void setPrimaryKey(long primaryKey) {
+    this.primaryKey = primaryKey;
+  }
+
+  public UUID getId() {
+    return id;
+  }
+
+  public void setId(UUID id) {
+    this.id = id;
+  }
+
+  public UUID getChannelId() {
+    return channelId;
+  }
+
+  public void setChannelId(UUID channelId) {
+    this.channelId = channelId;
+  }
+
+  public Instant getStartTime() {
+    return startTime;
+  }
+
+  public void setStartTime(Instant startTime) {
+    this.startTime = startTime;
+  }
+
+  public Instant getEndTime() {
+    return endTime;
+  }
+
+  public void setEndTime(Instant endTime) {
+    this.endTime = endTime;
+  }
+
+  public long getTypeBits() {
+    return typeBits;
+  }
+
+  public void setTypeBits(long typeBits) {
+    this.typeBits = typeBits;
+  }
+
+  public long getStatusBits() {
+    return statusBits;
+  }
+
+  public void setStatusBits(long statusBits) {
+    this.statusBits = statusBits;
+  }
+
+  public CreationInfoDao getCreationInfo() {
+    return creationInfo;
+  }
+
+  public void setCreationInfo(
+      CreationInfoDao creationInfo) {
+    this.creationInfo = creationInfo;
+  }
+
+  public AcquiredChannelSohBooleanSegment toCoi() {
+    return AcquiredChannelSohBooleanSegment.from(
+        this.id, this.channelId, this.startTime, this.endTime,
+        this.typeBits, this.statusBits, this.creationInfo.toCoi());
+  }
+}
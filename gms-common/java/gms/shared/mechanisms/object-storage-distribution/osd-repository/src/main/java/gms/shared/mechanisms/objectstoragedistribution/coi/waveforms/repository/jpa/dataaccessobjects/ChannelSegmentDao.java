@@ -13,8 +13,10 @@ import javax.persistence.Embedded;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.Index;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 import javax.persistence.Transient;
 import org.apache.commons.lang3.Validate;
@@ -38,8 +40,12 @@ import org.apache.commons.lang3.Validate;
 //    indexes = {@Index(columnList = "channel_id,startTime")})
 public class ChannelSegmentDao {
 
+  // Allocates keys in blocks of the JDBC batch size (see hibernate.jdbc.batch_size) rather than
+  // reading the sequence for every insert
   @Id
-  @GeneratedValue
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "channel_segment_sequence")
+  @SequenceGenerator(name = "channel_segment_sequence", sequenceName = "channel_segment_sequence",
+      allocationSize = 50)
   private long primaryKey;
 
   @Column(unique = true)
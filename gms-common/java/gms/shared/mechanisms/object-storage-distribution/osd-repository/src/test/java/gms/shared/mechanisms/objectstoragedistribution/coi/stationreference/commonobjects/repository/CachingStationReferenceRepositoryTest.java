@@ -0,0 +1,264 @@
+package gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import gms.shared.mechanisms.objectstoragedistribution.coi.CoiTestingEntityManagerFactory;
+import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.NetworkOrganization;
+import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.NetworkRegion;
+import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.ReferenceCalibration;
+import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.ReferenceChannel;
+import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.ReferenceDigitizer;
+import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.ReferenceDigitizerMembership;
+import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.ReferenceNetwork;
+import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.ReferenceNetworkMembership;
+import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.ReferenceResponse;
+import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.ReferenceSensor;
+import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.ReferenceSite;
+import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.ReferenceSiteMembership;
+import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.ReferenceStation;
+import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.ReferenceStationMembership;
+import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.repository.jpa.StationReferenceRepositoryJpa;
+import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.repository.jpa.TestFixtures;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.persistence.EntityManagerFactory;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Tests {@link CachingStationReferenceRepository} answers retrievals like the {@link
+ * StationReferenceRepositoryJpa} it caches and reloads after stores.
+ */
+public class CachingStationReferenceRepositoryTest {
+
+  private static final UUID UNKNOWN_ID = UUID.fromString("e2a78dbc-97d6-466b-9dd4-4e3fdf6dd95b");
+
+  private static EntityManagerFactory entityManagerFactory;
+  private static StationReferenceRepositoryJpa stationReferenceJpa;
+  private static CachingStationReferenceRepository cachingRepository;
+
+  @BeforeClass
+  public static void setUp() throws Exception {
+    entityManagerFactory = CoiTestingEntityManagerFactory.createTesting();
+    stationReferenceJpa = new StationReferenceRepositoryJpa(entityManagerFactory);
+    cachingRepository = new CachingStationReferenceRepository(stationReferenceJpa);
+
+    // Load the initial objects through the cache, reading in between so each store invalidates
+    // a loaded snapshot
+    cachingRepository.storeReferenceNetwork(TestFixtures.net_ims_aux);
+    cachingRepository.retrieveNetworks();
+    cachingRepository.storeReferenceNetwork(TestFixtures.net_idc_da);
+    for (ReferenceStation sta : TestFixtures.jnuVersions) {
+      cachingRepository.storeReferenceStation(sta);
+      cachingRepository.retrieveStations();
+    }
+    for (ReferenceSite site : TestFixtures.jnuSiteVersions) {
+      cachingRepository.storeReferenceSite(site);
+    }
+    for (ReferenceChannel chan : TestFixtures.allChannels) {
+      cachingRepository.storeReferenceChannel(chan);
+    }
+    for (ReferenceDigitizer digi : TestFixtures.allDigitizers) {
+      cachingRepository.storeReferenceDigitizer(digi);
+    }
+    for (ReferenceCalibration calib : TestFixtures.allCalibrations) {
+      cachingRepository.storeCalibration(calib);
+    }
+    for (ReferenceResponse resp : TestFixtures.allResponses) {
+      cachingRepository.storeResponse(resp);
+    }
+    for (ReferenceSensor sensor : TestFixtures.allSensors) {
+      cachingRepository.storeSensor(sensor);
+    }
+    cachingRepository.storeNetworkMemberships(TestFixtures.networkMemberships);
+    cachingRepository.storeStationMemberships(TestFixtures.stationMemberships);
+    cachingRepository.storeSiteMemberships(TestFixtures.siteMemberships);
+    for (ReferenceDigitizerMembership m : TestFixtures.digitizerMemberships) {
+      cachingRepository.storeDigitizerMembership(m);
+    }
+  }
+
+  @AfterClass
+  public static void tearDown() {
+    cachingRepository.close();
+  }
+
+  @Test
+  public void testRetrievalsMatchDelegate() throws Exception {
+    assertEquals(stationReferenceJpa.retrieveNetworks(), cachingRepository.retrieveNetworks());
+    assertEquals(stationReferenceJpa.retrieveStations(), cachingRepository.retrieveStations());
+    assertEquals(stationReferenceJpa.retrieveSites(), cachingRepository.retrieveSites());
+    assertEquals(stationReferenceJpa.retrieveChannels(), cachingRepository.retrieveChannels());
+    assertEquals(stationReferenceJpa.retrieveDigitizers(),
+        cachingRepository.retrieveDigitizers());
+    assertEquals(stationReferenceJpa.retrieveCalibrations(),
+        cachingRepository.retrieveCalibrations());
+    assertEquals(stationReferenceJpa.retrieveResponses(), cachingRepository.retrieveResponses());
+    assertEquals(stationReferenceJpa.retrieveSensors(), cachingRepository.retrieveSensors());
+    assertEquals(stationReferenceJpa.retrieveNetworkMemberships(),
+        cachingRepository.retrieveNetworkMemberships());
+    assertEquals(stationReferenceJpa.retrieveStationMemberships(),
+        cachingRepository.retrieveStationMemberships());
+    assertEquals(stationReferenceJpa.retrieveSiteMemberships(),
+        cachingRepository.retrieveSiteMemberships());
+    assertEquals(stationReferenceJpa.retrieveDigitizerMemberships(),
+        cachingRepository.retrieveDigitizerMemberships());
+
+    for (String name : Set.of("IMS_AUX", "IDC_DA", "JNU", "someFakeName")) {
+      assertEquals(stationReferenceJpa.retrieveNetworksByName(name),
+          cachingRepository.retrieveNetworksByName(name));
+      assertEquals(stationReferenceJpa.retrieveStationsByName(name),
+          cachingRepository.retrieveStationsByName(name));
+      assertEquals(stationReferenceJpa.retrieveSitesByName(name),
+          cachingRepository.retrieveSitesByName(name));
+    }
+    for (ReferenceChannel chan : TestFixtures.allChannels) {
+      assertEquals(stationReferenceJpa.retrieveChannelsByName(chan.getName()),
+          cachingRepository.retrieveChannelsByName(chan.getName()));
+    }
+    for (ReferenceDigitizer digi : TestFixtures.allDigitizers) {
+      assertEquals(stationReferenceJpa.retrieveDigitizersByName(digi.getName()),
+          cachingRepository.retrieveDigitizersByName(digi.getName()));
+    }
+
+    for (UUID id : entityIds()) {
+      assertEquals(stationReferenceJpa.retrieveNetworksByEntityId(id),
+          cachingRepository.retrieveNetworksByEntityId(id));
+      assertEquals(stationReferenceJpa.retrieveStationsByEntityId(id),
+          cachingRepository.retrieveStationsByEntityId(id));
+      assertEquals(stationReferenceJpa.retrieveSitesByEntityId(id),
+          cachingRepository.retrieveSitesByEntityId(id));
+      assertEquals(stationReferenceJpa.retrieveChannelsByEntityId(id),
+          cachingRepository.retrieveChannelsByEntityId(id));
+      assertEquals(stationReferenceJpa.retrieveDigitizersByEntityId(id),
+          cachingRepository.retrieveDigitizersByEntityId(id));
+      assertEquals(stationReferenceJpa.retrieveCalibrationsByChannelId(id),
+          cachingRepository.retrieveCalibrationsByChannelId(id));
+      assertEquals(stationReferenceJpa.retrieveResponsesByChannelId(id),
+          cachingRepository.retrieveResponsesByChannelId(id));
+      assertEquals(stationReferenceJpa.retrieveSensorsByChannelId(id),
+          cachingRepository.retrieveSensorsByChannelId(id));
+      assertEquals(stationReferenceJpa.retrieveNetworkMembershipsByNetworkId(id),
+          cachingRepository.retrieveNetworkMembershipsByNetworkId(id));
+      assertEquals(stationReferenceJpa.retrieveNetworkMembershipsByStationId(id),
+          cachingRepository.retrieveNetworkMembershipsByStationId(id));
+      assertEquals(stationReferenceJpa.retrieveStationMembershipsByStationId(id),
+          cachingRepository.retrieveStationMembershipsByStationId(id));
+      assertEquals(stationReferenceJpa.retrieveStationMembershipsBySiteId(id),
+          cachingRepository.retrieveStationMembershipsBySiteId(id));
+      assertEquals(stationReferenceJpa.retrieveSiteMembershipsBySiteId(id),
+          cachingRepository.retrieveSiteMembershipsBySiteId(id));
+      assertEquals(stationReferenceJpa.retrieveSiteMembershipsByChannelId(id),
+          cachingRepository.retrieveSiteMembershipsByChannelId(id));
+      assertEquals(stationReferenceJpa.retrieveDigitizerMembershipsByDigitizerId(id),
+          cachingRepository.retrieveDigitizerMembershipsByDigitizerId(id));
+      assertEquals(stationReferenceJpa.retrieveDigitizerMembershipsByChannelId(id),
+          cachingRepository.retrieveDigitizerMembershipsByChannelId(id));
+    }
+
+    for (ReferenceNetworkMembership m : TestFixtures.networkMemberships) {
+      assertEquals(stationReferenceJpa
+              .retrieveNetworkMembershipsByNetworkAndStationId(m.getNetworkId(), m.getStationId()),
+          cachingRepository
+              .retrieveNetworkMembershipsByNetworkAndStationId(m.getNetworkId(), m.getStationId()));
+    }
+    for (ReferenceStationMembership m : TestFixtures.stationMemberships) {
+      assertEquals(stationReferenceJpa
+              .retrieveStationMembershipsByStationAndSiteId(m.getStationId(), m.getSiteId()),
+          cachingRepository
+              .retrieveStationMembershipsByStationAndSiteId(m.getStationId(), m.getSiteId()));
+    }
+    for (ReferenceSiteMembership m : TestFixtures.siteMemberships) {
+      assertEquals(stationReferenceJpa
+              .retrieveSiteMembershipsBySiteAndChannelId(m.getSiteId(), m.getChannelId()),
+          cachingRepository
+              .retrieveSiteMembershipsBySiteAndChannelId(m.getSiteId(), m.getChannelId()));
+    }
+    for (ReferenceDigitizerMembership m : TestFixtures.digitizerMemberships) {
+      assertEquals(stationReferenceJpa.retrieveDigitizerMembershipsByDigitizerAndChannelId(
+          m.getDigitizerId(), m.getChannelId()),
+          cachingRepository.retrieveDigitizerMembershipsByDigitizerAndChannelId(
+              m.getDigitizerId(), m.getChannelId()));
+    }
+  }
+
+  @Test
+  public void testRetrieveByVersionIds() throws Exception {
+    final List<UUID> stationVersionIds = List.of(TestFixtures.jnuVersions.get(0).getVersionId(),
+        TestFixtures.jnuVersions.get(2).getVersionId(), UNKNOWN_ID);
+    assertEquals(new HashSet<>(stationReferenceJpa.retrieveStationsByVersionIds(stationVersionIds)),
+        new HashSet<>(cachingRepository.retrieveStationsByVersionIds(stationVersionIds)));
+
+    final List<UUID> channelVersionIds = TestFixtures.allChannels.stream()
+        .map(ReferenceChannel::getVersionId)
+        .collect(Collectors.toList());
+    assertEquals(new HashSet<>(stationReferenceJpa.retrieveChannelsByVersionIds(channelVersionIds)),
+        new HashSet<>(cachingRepository.retrieveChannelsByVersionIds(channelVersionIds)));
+  }
+
+  @Test
+  public void testRetrievedListsAreIndependentOfSnapshot() throws Exception {
+    final List<ReferenceStation> stations = cachingRepository.retrieveStations();
+    final int stationCount = stations.size();
+    stations.clear();
+
+    final List<ReferenceChannel> channels = cachingRepository
+        .retrieveChannelsByEntityId(TestFixtures.allChannels.get(0).getEntityId());
+    final int channelCount = channels.size();
+    channels.clear();
+
+    assertEquals(stationCount, cachingRepository.retrieveStations().size());
+    assertEquals(channelCount, cachingRepository
+        .retrieveChannelsByEntityId(TestFixtures.allChannels.get(0).getEntityId()).size());
+  }
+
+  @Test
+  public void testStoreInvalidatesSnapshot() throws Exception {
+    final Instant changeTime = Instant.ofEpochSecond(1546300800);
+    final ReferenceNetwork network = ReferenceNetwork.create("CACHE_STORE",
+        "Stored through the cache", NetworkOrganization.UNKNOWN, NetworkRegion.GLOBAL,
+        TestFixtures.infoSource, "", changeTime, changeTime);
+
+    assertTrue(cachingRepository.retrieveNetworksByName("CACHE_STORE").isEmpty());
+    cachingRepository.storeReferenceNetwork(network);
+
+    assertEquals(List.of(network), cachingRepository.retrieveNetworksByName("CACHE_STORE"));
+    assertTrue(cachingRepository.retrieveNetworks().contains(network));
+  }
+
+  @Test
+  public void testDelegateStoreNotSeenUntilInvalidate() throws Exception {
+    final Instant changeTime = Instant.ofEpochSecond(1546300800);
+    final ReferenceNetwork network = ReferenceNetwork.create("DELEGATE_STORE",
+        "Stored around the cache", NetworkOrganization.UNKNOWN, NetworkRegion.GLOBAL,
+        TestFixtures.infoSource, "", changeTime, changeTime);
+
+    cachingRepository.retrieveNetworks();
+    stationReferenceJpa.storeReferenceNetwork(network);
+    assertFalse(cachingRepository.retrieveNetworks().contains(network));
+
+    cachingRepository.invalidate();
+    assertTrue(cachingRepository.retrieveNetworks().contains(network));
+  }
+
+  private static Set<UUID> entityIds() {
+    return Stream.of(
+        Stream.of(TestFixtures.net_ims_aux, TestFixtures.net_idc_da)
+            .map(ReferenceNetwork::getEntityId),
+        TestFixtures.jnuVersions.stream().map(ReferenceStation::getEntityId),
+        TestFixtures.jnuSiteVersions.stream().map(ReferenceSite::getEntityId),
+        TestFixtures.allChannels.stream().map(ReferenceChannel::getEntityId),
+        TestFixtures.allDigitizers.stream().map(ReferenceDigitizer::getEntityId),
+        Stream.of(UNKNOWN_ID))
+        .flatMap(s -> s)
+        .collect(Collectors.toSet());
+  }
+}
@@ -0,0 +1,152 @@
+package gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.repository;
+
+import gms.shared.mechanisms.objectstoragedistribution.coi.CoiTestingEntityManagerFactory;
+import gms.shared.mechanisms.objectstoragedistribution.coi.emerging.provenance.commonobjects.InformationSource;
+import gms.shared.mechanisms.objectstoragedistribution.coi.signaldetection.commonobjects.Station;
+import gms.shared.mechanisms.objectstoragedistribution.coi.signaldetection.repository.factory.ProcessingStationReferenceFactory;
+import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.ChannelDataType;
+import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.ChannelType;
+import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.NetworkOrganization;
+import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.NetworkRegion;
+import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.ReferenceChannel;
+import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.ReferenceNetwork;
+import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.ReferenceNetworkMembership;
+import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.ReferenceSite;
+import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.ReferenceSiteMembership;
+import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.ReferenceStation;
+import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.ReferenceStationMembership;
+import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.RelativePosition;
+import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.StationType;
+import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.StatusType;
+import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.repository.jpa.StationReferenceRepositoryJpa;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmark of station reference lookups against an embedded H2 database, reading directly
+ * through {@link StationReferenceRepositoryJpa} and through a {@link
+ * CachingStationReferenceRepository}.  Reports throughput (lookups per second) and sampled latency
+ * of building the processing view of a station, which chains a retrieval for the station, its
+ * memberships, each site, each site's memberships and each channel.  Run with: java -cp (test
+ * runtime classpath) org.openjdk.jmh.Main StationReferenceRepositoryBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class StationReferenceRepositoryBenchmark {
+
+  private static final int STATION_COUNT = 50;
+  private static final int SITES_PER_STATION = 3;
+  private static final String[] CHANNELS = {"BHE", "BHN", "BHZ"};
+
+  private static final Instant CHANGE_TIME = Instant.ofEpochSecond(797731200);
+  private static final InformationSource INFO_SOURCE = InformationSource.create("IDC",
+      CHANGE_TIME, "IDC");
+  private static final RelativePosition ZERO_POSITION = RelativePosition.from(0.0, 0.0, 0.0);
+
+  @Param({"CACHING", "JPA"})
+  private String repository;
+
+  private StationReferenceRepositoryJpa stationReferenceJpa;
+  private StationReferenceRepositoryInterface stationReferenceRepository;
+  private ProcessingStationReferenceFactory stationReferenceFactory;
+
+  private int nextStation;
+
+  @Setup
+  public void setup() throws Exception {
+    stationReferenceJpa = new StationReferenceRepositoryJpa(
+        CoiTestingEntityManagerFactory.createTesting());
+
+    final ReferenceNetwork network = ReferenceNetwork.create("BENCHMARK", "Benchmark network",
+        NetworkOrganization.UNKNOWN, NetworkRegion.GLOBAL, INFO_SOURCE, "", CHANGE_TIME,
+        CHANGE_TIME);
+    stationReferenceJpa.storeReferenceNetwork(network);
+
+    final List<ReferenceNetworkMembership> networkMemberships = new ArrayList<>();
+    final List<ReferenceStationMembership> stationMemberships = new ArrayList<>();
+    final List<ReferenceSiteMembership> siteMemberships = new ArrayList<>();
+
+    for (int i = 0; i < STATION_COUNT; i++) {
+      final ReferenceStation station = ReferenceStation.create(stationName(i), "",
+          StationType.Seismic3Component, INFO_SOURCE, "", 10.0, 20.0 + i, 0.1,
+          CHANGE_TIME, CHANGE_TIME, new ArrayList<>());
+      stationReferenceJpa.storeReferenceStation(station);
+      networkMemberships.add(ReferenceNetworkMembership.from(UUID.randomUUID(), "",
+          CHANGE_TIME, CHANGE_TIME, network.getEntityId(), station.getEntityId(),
+          StatusType.ACTIVE));
+
+      for (int j = 0; j < SITES_PER_STATION; j++) {
+        final String siteName = stationName(i) + j;
+        final ReferenceSite site = ReferenceSite.create(siteName, "", INFO_SOURCE, "", 10.0,
+            20.0 + i, 0.1, CHANGE_TIME, CHANGE_TIME, ZERO_POSITION, new ArrayList<>());
+        stationReferenceJpa.storeReferenceSite(site);
+        stationMemberships.add(ReferenceStationMembership.from(UUID.randomUUID(), "",
+            CHANGE_TIME, CHANGE_TIME, station.getEntityId(), site.getEntityId(),
+            StatusType.ACTIVE));
+
+        for (String channelName : CHANNELS) {
+          final ReferenceChannel channel = ReferenceChannel.create(siteName + "/" + channelName,
+              ChannelType.BROADBAND_HIGH_GAIN_VERTICAL, ChannelDataType.SEISMIC_3_COMPONENT,
+              "0", 10.0, 20.0 + i, 0.1, 0.0, 0.0, 90.0, 40.0, CHANGE_TIME, CHANGE_TIME,
+              INFO_SOURCE, "", ZERO_POSITION, new ArrayList<>());
+          stationReferenceJpa.storeReferenceChannel(channel);
+          siteMemberships.add(ReferenceSiteMembership.from(UUID.randomUUID(), "", CHANGE_TIME,
+              CHANGE_TIME, site.getEntityId(), channel.getEntityId(), StatusType.ACTIVE));
+        }
+      }
+    }
+
+    stationReferenceJpa.storeNetworkMemberships(networkMemberships);
+    stationReferenceJpa.storeStationMemberships(stationMemberships);
+    stationReferenceJpa.storeSiteMemberships(siteMemberships);
+
+    stationReferenceRepository = "CACHING".equals(repository)
+        ? new CachingStationReferenceRepository(stationReferenceJpa)
+        : stationReferenceJpa;
+    stationReferenceFactory = new ProcessingStationReferenceFactory(stationReferenceRepository);
+  }
+
+  @TearDown
+  public void tearDown() {
+    stationReferenceRepository.close();
+  }
+
+  @Benchmark
+  public Optional<Station> stationFromName() {
+    return stationReferenceFactory.stationFromName(nextStationName(), false);
+  }
+
+  @Benchmark
+  public List<ReferenceStation> retrieveStationsByName() throws Exception {
+    return stationReferenceRepository.retrieveStationsByName(nextStationName());
+  }
+
+  private String nextStationName() {
+    nextStation = (nextStation + 1) % STATION_COUNT;
+    return stationName(nextStation);
+  }
+
+  private static String stationName(int station) {
+    return String.format("STA%02d", station);
+  }
+}
@@ -53,6 +53,16 @@ public class CassandraDbUtiltyTest {
     assertEquals(LocalDate.parse(endDateStr), days.get(1));
   }
 
+  @Test
+  public void testGetDaysSpansMultipleMonths() {
+    final Instant start = Instant.parse("2019-01-15T12:00:00Z");
+    final Instant end = Instant.parse("2019-03-02T00:00:00Z");
+    final List<LocalDate> days = CassandraDbUtility.getDays(start, end);
+    assertEquals(47, days.size());
+    assertEquals(LocalDate.parse("2019-01-15"), days.get(0));
+    assertEquals(LocalDate.parse("2019-03-02"), days.get(days.size() - 1));
+  }
+
   @Test
   public void getTimeTest() {
     long t0 = System.currentTimeMillis() - 5;
@@ -0,0 +1,305 @@
+package gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.repository.cassandra;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.exceptions.NoHostAvailableException;
+import gms.shared.mechanisms.objectstoragedistribution.coi.CoiTestingEntityManagerFactory;
+import gms.shared.mechanisms.objectstoragedistribution.coi.common.repository.StorageUnavailableException;
+import gms.shared.mechanisms.objectstoragedistribution.coi.emerging.provenance.commonobjects.CreationInfo;
+import gms.shared.mechanisms.objectstoragedistribution.coi.emerging.provenance.commonobjects.SoftwareComponentInfo;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.ChannelSegment;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.ChannelSegmentDescriptor;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.Waveform;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.datatransferobjects.ChannelSegmentStorageResponse;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.repository.cassandra.configuration.CassandraConfig;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.repository.jpa.dataaccessobjects.ChannelSegmentDao;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the {@link gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.repository.AsyncWaveformRepository}
+ * operations of {@link JpaCassandraWaveformRepository} against an H2 database and a mock Cassandra
+ * {@link Session} whose requests are completed by the tests.
+ */
+class JpaCassandraWaveformRepositoryAsyncTests {
+
+  private static final Instant START = Instant.parse("2019-01-01T12:00:00Z");
+
+  private EntityManagerFactory entityManagerFactory;
+  private List<TestResultSetFuture> requests;
+  private AtomicInteger executedTasks;
+  private CassandraConfig cassandraConfig;
+  private JpaCassandraWaveformRepository repository;
+
+  @BeforeEach
+  void setUp() {
+    entityManagerFactory = CoiTestingEntityManagerFactory.createTesting();
+
+    requests = Collections.synchronizedList(new ArrayList<>());
+    Session session = mock(Session.class);
+    PreparedStatement preparedStatement = mock(PreparedStatement.class, RETURNS_SELF);
+    when(session.prepare(anyString())).thenReturn(preparedStatement);
+    when(preparedStatement.bind()).thenAnswer(i -> mock(BoundStatement.class, RETURNS_SELF));
+    when(session.executeAsync(any(Statement.class))).thenAnswer(i -> {
+      TestResultSetFuture request = new TestResultSetFuture();
+      requests.add(request);
+      return request;
+    });
+
+    cassandraConfig = spy(CassandraConfig.builder().build());
+    doReturn(session).when(cassandraConfig).getConnection();
+
+    // Runs the blocking work inline, counting the tasks given to the executor
+    executedTasks = new AtomicInteger();
+    Executor executor = task -> {
+      executedTasks.incrementAndGet();
+      task.run();
+    };
+
+    repository = new JpaCassandraWaveformRepository(entityManagerFactory, cassandraConfig,
+        channelId -> WaveformSampleEncoding.FLOAT64, executor);
+  }
+
+  @AfterEach
+  void tearDown() {
+    entityManagerFactory.close();
+  }
+
+  @Test
+  void testStoreAsyncPersistsSegmentAfterBlocksAreWritten() {
+    ChannelSegment<Waveform> segment = segment(UUID.randomUUID(), START, 3);
+
+    CompletableFuture<ChannelSegmentStorageResponse> response = repository.storeAsync(segment);
+
+    assertEquals(1, requests.size());
+    assertFalse(response.isDone());
+    assertFalse(isPersisted(segment));
+
+    requests.get(0).complete(mock(ResultSet.class));
+
+    assertEquals(List.of(ChannelSegmentDescriptor.from(segment)), response.join().getStored());
+    assertTrue(response.join().getFailed().isEmpty());
+    assertTrue(isPersisted(segment));
+    assertTrue(executedTasks.get() > 0);
+  }
+
+  @Test
+  void testStoreAsyncReportsFailedBlockWrites() {
+    ChannelSegment<Waveform> stored = segment(UUID.randomUUID(), START, 3);
+    ChannelSegment<Waveform> failed = segment(UUID.randomUUID(), START, 3);
+
+    CompletableFuture<ChannelSegmentStorageResponse> response = repository
+        .storeAsync(List.of(stored, failed));
+
+    assertEquals(2, requests.size());
+    requests.get(1).fail(new NoHostAvailableException(Collections.emptyMap()));
+    assertFalse(response.isDone());
+    requests.get(0).complete(mock(ResultSet.class));
+
+    assertEquals(List.of(ChannelSegmentDescriptor.from(stored)), response.join().getStored());
+    assertEquals(List.of(ChannelSegmentDescriptor.from(failed)), response.join().getFailed());
+    assertTrue(isPersisted(stored));
+    assertFalse(isPersisted(failed));
+  }
+
+  @Test
+  void testStoreAsyncInitializesSessionOnExecutor() {
+    Queue<Runnable> tasks = new ArrayDeque<>();
+    repository = new JpaCassandraWaveformRepository(entityManagerFactory, cassandraConfig,
+        channelId -> WaveformSampleEncoding.FLOAT64, tasks::add);
+
+    CompletableFuture<ChannelSegmentStorageResponse> response = repository
+        .storeAsync(segment(UUID.randomUUID(), START, 3));
+
+    verify(cassandraConfig, never()).getConnection();
+    assertTrue(requests.isEmpty());
+
+    tasks.remove().run();
+    verify(cassandraConfig).getConnection();
+    assertEquals(1, requests.size());
+
+    requests.get(0).complete(mock(ResultSet.class));
+    tasks.remove().run();
+    assertEquals(1, response.join().getStored().size());
+  }
+
+  @Test
+  void testStoreAsyncLimitsConcurrentWrites() {
+    List<ChannelSegment<Waveform>> segments = new ArrayList<>();
+    for (int i = 0; i < 40; i++) {
+      segments.add(segment(UUID.randomUUID(), START, 3));
+    }
+
+    CompletableFuture<ChannelSegmentStorageResponse> response = repository.storeAsync(segments);
+
+    // Each completed write starts the next queued write
+    for (int i = 0; i < segments.size(); i++) {
+      assertEquals(Math.min(segments.size(),
+          i + JpaCassandraWaveformRepository.MAX_CONCURRENT_WRITES), requests.size());
+      requests.get(i).complete(mock(ResultSet.class));
+    }
+
+    assertEquals(segments.size(), response.join().getStored().size());
+  }
+
+  @Test
+  void testStoreAsyncEmpty() {
+    ChannelSegmentStorageResponse response = repository.storeAsync(List.of()).join();
+
+    assertTrue(response.getStored().isEmpty());
+    assertTrue(response.getFailed().isEmpty());
+    assertTrue(requests.isEmpty());
+  }
+
+  @Test
+  void testRetrieveWaveformsByTimeAsyncOrdersBlocksCompletedOutOfOrder() {
+    UUID channelId = UUID.randomUUID();
+    Waveform first = Waveform.withoutValues(START, 1.0, 10);
+    Waveform second = Waveform.withoutValues(START.plusSeconds(100), 1.0, 10);
+
+    CompletableFuture<List<Waveform>> waveforms = repository
+        .retrieveWaveformsByTimeAsync(channelId, START, START.plusSeconds(200), false);
+
+    assertTrue(requests.size() > 1);
+    assertFalse(waveforms.isDone());
+
+    // Complete the partition reads in reverse order, with the later block read first
+    for (int i = requests.size() - 1; i >= 0; i--) {
+      if (i == requests.size() - 1) {
+        requests.get(i).complete(resultSet(second));
+      } else if (i == 0) {
+        requests.get(i).complete(resultSet(first));
+      } else {
+        requests.get(i).complete(resultSet());
+      }
+    }
+
+    assertEquals(List.of(first, second), waveforms.join());
+    assertTrue(executedTasks.get() >= requests.size());
+  }
+
+  @Test
+  void testRetrieveWaveformsByTimeAsyncCompletesExceptionally() {
+    CompletableFuture<Map<UUID, List<Waveform>>> waveforms = repository
+        .retrieveWaveformsByTimeAsync(List.of(UUID.randomUUID()), START,
+            START.plusSeconds(200), false);
+
+    requests.get(0).fail(new NoHostAvailableException(Collections.emptyMap()));
+    for (int i = 1; i < requests.size(); i++) {
+      requests.get(i).complete(resultSet());
+    }
+
+    CompletionException e = assertThrows(CompletionException.class, waveforms::join);
+    assertTrue(e.getCause() instanceof StorageUnavailableException);
+  }
+
+  @Test
+  void testRetrieveChannelSegmentAsync() {
+    UUID channelId = UUID.randomUUID();
+    ChannelSegment<Waveform> segment = segment(channelId, START, 10);
+
+    CompletableFuture<ChannelSegmentStorageResponse> response = repository.storeAsync(segment);
+    requests.get(0).complete(mock(ResultSet.class));
+    response.join();
+    requests.clear();
+
+    CompletableFuture<Optional<ChannelSegment<Waveform>>> retrieved = repository
+        .retrieveChannelSegmentAsync(channelId, START, START.plusSeconds(9), false);
+    for (int i = 0; i < requests.size(); i++) {
+      requests.get(i).complete(i == 0 ? resultSet(segment.getTimeseries().get(0)) : resultSet());
+    }
+
+    assertTrue(retrieved.join().isPresent());
+    assertEquals(segment.getName(), retrieved.join().get().getName());
+    assertEquals(List.of(Waveform.withoutValues(START, 1.0, 10)),
+        retrieved.join().get().getTimeseries());
+  }
+
+  @Test
+  void testRetrieveChannelSegmentAsyncWithoutData() {
+    CompletableFuture<Optional<ChannelSegment<Waveform>>> retrieved = repository
+        .retrieveChannelSegmentAsync(UUID.randomUUID(), START, START.plusSeconds(9), false);
+    requests.forEach(request -> request.complete(resultSet()));
+
+    assertEquals(Optional.empty(), retrieved.join());
+  }
+
+  private boolean isPersisted(ChannelSegment<Waveform> segment) {
+    EntityManager entityManager = entityManagerFactory.createEntityManager();
+    try {
+      return !entityManager
+          .createQuery("SELECT c FROM ChannelSegmentDao c WHERE c.id = :id", ChannelSegmentDao.class)
+          .setParameter("id", segment.getId())
+          .getResultList()
+          .isEmpty();
+    } finally {
+      entityManager.close();
+    }
+  }
+
+  private static ChannelSegment<Waveform> segment(UUID channelId, Instant start,
+      int sampleCount) {
+    double[] samples = new double[sampleCount];
+    for (int i = 0; i < sampleCount; i++) {
+      samples[i] = i;
+    }
+    return ChannelSegment.create(channelId, "segment", ChannelSegment.Type.RAW,
+        List.of(Waveform.withValues(start, 1.0, samples)),
+        new CreationInfo("test", Instant.now(), new SoftwareComponentInfo("test", "1.0")));
+  }
+
+  /**
+   * Mock result set with a row for each waveform block, without samples
+   */
+  private static ResultSet resultSet(Waveform... blocks) {
+    List<Row> rows = new ArrayList<>();
+    for (Waveform block : blocks) {
+      Row row = mock(Row.class);
+      when(row.getLong("start_epoch_nano"))
+          .thenReturn(CassandraDbUtility.toEpochNano(block.getStartTime()));
+      when(row.getLong("end_epoch_nano"))
+          .thenReturn(CassandraDbUtility.toEpochNano(block.getEndTime()));
+      when(row.getLong("sample_count")).thenReturn(block.getSampleCount());
+      when(row.getDouble("sample_rate")).thenReturn(block.getSampleRate());
+      rows.add(row);
+    }
+
+    ResultSet resultSet = mock(ResultSet.class);
+    when(resultSet.iterator()).thenAnswer(i -> rows.iterator());
+    return resultSet;
+  }
+}
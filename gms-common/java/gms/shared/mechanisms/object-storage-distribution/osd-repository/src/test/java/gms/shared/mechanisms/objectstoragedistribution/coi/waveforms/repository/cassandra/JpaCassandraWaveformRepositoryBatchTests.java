@@ -0,0 +1,252 @@
+package gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.repository.cassandra;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
+
+import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.exceptions.NoHostAvailableException;
+import gms.shared.mechanisms.objectstoragedistribution.coi.CoiTestingEntityManagerFactory;
+import gms.shared.mechanisms.objectstoragedistribution.coi.emerging.provenance.commonobjects.CreationInfo;
+import gms.shared.mechanisms.objectstoragedistribution.coi.emerging.provenance.commonobjects.SoftwareComponentInfo;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.ChannelSegment;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.ChannelSegmentDescriptor;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.Waveform;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.datatransferobjects.ChannelSegmentStorageResponse;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.repository.cassandra.configuration.CassandraConfig;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.repository.jpa.dataaccessobjects.ChannelSegmentDao;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link JpaCassandraWaveformRepository#storeChannelSegments} against an H2 database and a
+ * mock Cassandra {@link Session} that completes each batch as soon as it is executed, failing the
+ * batches of the channels in {@link #unavailableChannels}.
+ */
+class JpaCassandraWaveformRepositoryBatchTests {
+
+  private static final Instant START = Instant.parse("2019-01-01T00:00:00Z");
+
+  private EntityManagerFactory entityManagerFactory;
+  private Map<Statement, UUID> channelByInsert;
+  private List<List<UUID>> batches;
+  private Set<UUID> unavailableChannels;
+  private Set<UUID> unencodableChannels;
+  private JpaCassandraWaveformRepository repository;
+
+  @BeforeEach
+  void setUp() {
+    entityManagerFactory = CoiTestingEntityManagerFactory.createTesting();
+
+    channelByInsert = new ConcurrentHashMap<>();
+    batches = Collections.synchronizedList(new ArrayList<>());
+    unavailableChannels = ConcurrentHashMap.newKeySet();
+    unencodableChannels = ConcurrentHashMap.newKeySet();
+
+    Session session = mock(Session.class);
+    PreparedStatement preparedStatement = mock(PreparedStatement.class, RETURNS_SELF);
+    when(session.prepare(anyString())).thenReturn(preparedStatement);
+    when(preparedStatement.bind()).thenAnswer(i -> {
+      BoundStatement insert = mock(BoundStatement.class, RETURNS_SELF);
+      when(insert.setUUID(eq("c"), any())).thenAnswer(set -> {
+        channelByInsert.put(insert, set.getArgument(1));
+        return insert;
+      });
+      return insert;
+    });
+    when(session.executeAsync(any(Statement.class))).thenAnswer(i -> {
+      List<UUID> batch = ((BatchStatement) i.getArgument(0)).getStatements().stream()
+          .map(channelByInsert::get)
+          .collect(Collectors.toList());
+      batches.add(batch);
+
+      TestResultSetFuture request = new TestResultSetFuture();
+      if (batch.stream().anyMatch(unavailableChannels::contains)) {
+        request.fail(new NoHostAvailableException(Collections.emptyMap()));
+      } else {
+        request.complete(mock(ResultSet.class));
+      }
+      return request;
+    });
+
+    CassandraConfig cassandraConfig = spy(CassandraConfig.builder().build());
+    doReturn(session).when(cassandraConfig).getConnection();
+
+    repository = new JpaCassandraWaveformRepository(entityManagerFactory, cassandraConfig,
+        channelId -> {
+          if (unencodableChannels.contains(channelId)) {
+            throw new IllegalStateException("No encoding for channel " + channelId);
+          }
+          return WaveformSampleEncoding.FLOAT64;
+        },
+        Runnable::run);
+  }
+
+  @AfterEach
+  void tearDown() {
+    entityManagerFactory.close();
+  }
+
+  @Test
+  void testStoreChannelSegmentsEmpty() {
+    ChannelSegmentStorageResponse response = repository.storeChannelSegments(List.of());
+
+    assertTrue(response.getStored().isEmpty());
+    assertTrue(response.getFailed().isEmpty());
+    assertTrue(batches.isEmpty());
+  }
+
+  @Test
+  void testStoreChannelSegmentsNullThrows() {
+    assertThrows(NullPointerException.class, () -> repository.storeChannelSegments(null));
+  }
+
+  @Test
+  void testStoreChannelSegmentsBatchesBlocksByPartition() {
+    UUID channel1 = UUID.randomUUID();
+    UUID channel2 = UUID.randomUUID();
+    ChannelSegment<Waveform> first = segment(channel1, START, 10);
+    ChannelSegment<Waveform> second = segment(channel1, START.plusSeconds(10), 10);
+    ChannelSegment<Waveform> other = segment(channel2, START, 10);
+    ChannelSegment<Waveform> nextDay = segment(channel2, START.plusSeconds(86_400), 10);
+
+    ChannelSegmentStorageResponse response = repository
+        .storeChannelSegments(List.of(first, second, other, nextDay));
+
+    assertEquals(descriptors(first, second, other, nextDay), response.getStored());
+    assertTrue(response.getFailed().isEmpty());
+    assertEquals(List.of(List.of(channel1, channel1), List.of(channel2), List.of(channel2)),
+        batches);
+    assertTrue(isPersisted(first));
+    assertTrue(isPersisted(second));
+    assertTrue(isPersisted(other));
+    assertTrue(isPersisted(nextDay));
+  }
+
+  @Test
+  void testStoreChannelSegmentsSplitsLargePartitionBatches() {
+    // Six 800 kB blocks of FLOAT64 samples exceed the 4 MB limit of a single batch
+    UUID channelId = UUID.randomUUID();
+    ChannelSegment<Waveform> segment = segment(channelId, START, 40.0,
+        (int) (6 * JpaCassandraWaveformRepository.DOUBLES_PER_BLOCK));
+
+    ChannelSegmentStorageResponse response = repository.storeChannelSegments(List.of(segment));
+
+    assertEquals(descriptors(segment), response.getStored());
+    assertEquals(2, batches.size());
+    assertEquals(6, batches.get(0).size() + batches.get(1).size());
+  }
+
+  @Test
+  void testStoreChannelSegmentsReportsFailedBatches() {
+    UUID available = UUID.randomUUID();
+    UUID unavailable = UUID.randomUUID();
+    unavailableChannels.add(unavailable);
+    ChannelSegment<Waveform> stored = segment(available, START, 10);
+    ChannelSegment<Waveform> failed = segment(unavailable, START, 10);
+
+    ChannelSegmentStorageResponse response = repository
+        .storeChannelSegments(List.of(failed, stored));
+
+    assertEquals(descriptors(stored), response.getStored());
+    assertEquals(descriptors(failed), response.getFailed());
+    assertTrue(isPersisted(stored));
+    assertFalse(isPersisted(failed));
+  }
+
+  @Test
+  void testStoreChannelSegmentsReportsUnencodableSegments() {
+    UUID unencodable = UUID.randomUUID();
+    unencodableChannels.add(unencodable);
+    ChannelSegment<Waveform> stored = segment(UUID.randomUUID(), START, 10);
+    ChannelSegment<Waveform> failed = segment(unencodable, START, 10);
+
+    ChannelSegmentStorageResponse response = repository
+        .storeChannelSegments(List.of(stored, failed));
+
+    assertEquals(descriptors(stored), response.getStored());
+    assertEquals(descriptors(failed), response.getFailed());
+    assertEquals(1, batches.size());
+    assertFalse(isPersisted(failed));
+  }
+
+  @Test
+  void testStoreChannelSegmentsPersistsIndividuallyAfterTransactionFails() {
+    ChannelSegment<Waveform> duplicate = segment(UUID.randomUUID(), START, 10);
+    ChannelSegment<Waveform> stored = segment(UUID.randomUUID(), START, 10);
+    assertEquals(descriptors(duplicate),
+        repository.storeChannelSegments(List.of(duplicate)).getStored());
+
+    // The duplicate id violates the unique constraint, failing the single transaction
+    ChannelSegmentStorageResponse response = repository
+        .storeChannelSegments(List.of(duplicate, stored));
+
+    assertEquals(descriptors(stored), response.getStored());
+    assertEquals(descriptors(duplicate), response.getFailed());
+    assertTrue(isPersisted(stored));
+  }
+
+  private boolean isPersisted(ChannelSegment<Waveform> segment) {
+    EntityManager entityManager = entityManagerFactory.createEntityManager();
+    try {
+      return !entityManager
+          .createQuery("SELECT c FROM ChannelSegmentDao c WHERE c.id = :id", ChannelSegmentDao.class)
+          .setParameter("id", segment.getId())
+          .getResultList()
+          .isEmpty();
+    } finally {
+      entityManager.close();
+    }
+  }
+
+  @SafeVarargs
+  private static List<ChannelSegmentDescriptor> descriptors(ChannelSegment<Waveform>... segments) {
+    List<ChannelSegmentDescriptor> descriptors = new ArrayList<>();
+    for (ChannelSegment<Waveform> segment : segments) {
+      descriptors.add(ChannelSegmentDescriptor.from(segment));
+    }
+    return descriptors;
+  }
+
+  private static ChannelSegment<Waveform> segment(UUID channelId, Instant start,
+      int sampleCount) {
+    return segment(channelId, start, 1.0, sampleCount);
+  }
+
+  private static ChannelSegment<Waveform> segment(UUID channelId, Instant start,
+      double sampleRate, int sampleCount) {
+    double[] samples = new double[sampleCount];
+    for (int i = 0; i < sampleCount; i++) {
+      samples[i] = i;
+    }
+    return ChannelSegment.create(channelId, "segment", ChannelSegment.Type.RAW,
+        List.of(Waveform.withValues(start, sampleRate, samples)),
+        new CreationInfo("test", Instant.now(), new SoftwareComponentInfo("test", "1.0")));
+  }
+}
@@ -1,6 +1,7 @@
 package gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.repository.cassandra;
 
 import static gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.repository.cassandra.JpaCassandraWaveformRepository.DOUBLES_PER_BLOCK;
+import static gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.repository.cassandra.JpaCassandraWaveformRepository.MAX_BLOCK_DURATION;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
 
@@ -52,7 +53,13 @@ class JpaCassandraWaveformRepositoryTest {
         //Single sample block
         arguments(Waveform.withoutValues(Instant.EPOCH, 1.0, DOUBLES_PER_BLOCK + 1),
             List.of(Waveform.withoutValues(Instant.EPOCH, 1.0, DOUBLES_PER_BLOCK),
-                Waveform.withoutValues(Instant.EPOCH.plusSeconds(DOUBLES_PER_BLOCK), 1.0, 1)))
+                Waveform.withoutValues(Instant.EPOCH.plusSeconds(DOUBLES_PER_BLOCK), 1.0, 1))),
+        //Low sample rate blocks are limited to the maximum block duration
+        arguments(Waveform.withoutValues(Instant.EPOCH, 0.1, 40_000),
+            List.of(Waveform.withoutValues(Instant.EPOCH, 0.1, 17_280),
+                Waveform.withoutValues(Instant.EPOCH.plus(MAX_BLOCK_DURATION), 0.1, 17_280),
+                Waveform.withoutValues(Instant.EPOCH.plus(MAX_BLOCK_DURATION.multipliedBy(2)),
+                    0.1, 5_440)))
     );
   }
 }
\ No newline at end of file
@@ -0,0 +1,42 @@
+package gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.repository.cassandra;
+
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
+import com.google.common.util.concurrent.AbstractFuture;
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * ResultSetFuture completed by a test, failing like the driver's by throwing the driver exception
+ * from getUninterruptibly
+ */
+final class TestResultSetFuture extends AbstractFuture<ResultSet> implements ResultSetFuture {
+
+  void complete(ResultSet resultSet) {
+    set(resultSet);
+  }
+
+  void fail(RuntimeException e) {
+    setException(e);
+  }
+
+  @Override
+  public ResultSet getUninterruptibly() {
+    try {
+      return Uninterruptibles.getUninterruptibly(this);
+    } catch (ExecutionException e) {
+      throw (RuntimeException) e.getCause();
+    }
+  }
+
+  @Override
+  public ResultSet getUninterruptibly(long timeout, TimeUnit unit) throws TimeoutException {
+    try {
+      return Uninterruptibles.getUninterruptibly(this, timeout, unit);
+    } catch (ExecutionException e) {
+      throw (RuntimeException) e.getCause();
+    }
+  }
+}
@@ -0,0 +1,103 @@
+package gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.repository.cassandra;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.Waveform;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.repository.cassandra.WaveformQueryPlanner.PartitionRead;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class WaveformQueryPlannerTests {
+
+  private static final UUID CHANNEL_1 = UUID.fromString("a7d0c2a4-3d94-4c6e-9a1f-2e0f5d1c6b01");
+  private static final UUID CHANNEL_2 = UUID.fromString("b2e6f0c9-8a13-4f2d-b7c5-91d3e4a0f702");
+  private static final Duration ONE_DAY = Duration.ofDays(1);
+
+  @Test
+  void testPlanSingleDay() {
+    Instant start = Instant.parse("2019-01-15T12:00:00Z");
+    Instant end = Instant.parse("2019-01-15T13:00:00Z");
+    long s = CassandraDbUtility.toEpochNano(start);
+    long e = CassandraDbUtility.toEpochNano(end);
+
+    assertEquals(List.of(
+        PartitionRead.preceding(CHANNEL_1, LocalDate.of(2019, 1, 14), s),
+        PartitionRead.preceding(CHANNEL_1, LocalDate.of(2019, 1, 15), s),
+        PartitionRead.range(CHANNEL_1, LocalDate.of(2019, 1, 15), s, e)),
+        WaveformQueryPlanner.plan(List.of(CHANNEL_1), start, end, ONE_DAY));
+  }
+
+  @Test
+  void testPlanSpansMidnight() {
+    Instant start = Instant.parse("2019-01-31T23:00:00Z");
+    Instant end = Instant.parse("2019-02-01T01:00:00Z");
+    long s = CassandraDbUtility.toEpochNano(start);
+    long e = CassandraDbUtility.toEpochNano(end);
+
+    assertEquals(List.of(
+        PartitionRead.preceding(CHANNEL_1, LocalDate.of(2019, 1, 30), s),
+        PartitionRead.preceding(CHANNEL_1, LocalDate.of(2019, 1, 31), s),
+        PartitionRead.range(CHANNEL_1, LocalDate.of(2019, 1, 31), s, e),
+        PartitionRead.range(CHANNEL_1, LocalDate.of(2019, 2, 1), s, e),
+        PartitionRead.preceding(CHANNEL_2, LocalDate.of(2019, 1, 30), s),
+        PartitionRead.preceding(CHANNEL_2, LocalDate.of(2019, 1, 31), s),
+        PartitionRead.range(CHANNEL_2, LocalDate.of(2019, 1, 31), s, e),
+        PartitionRead.range(CHANNEL_2, LocalDate.of(2019, 2, 1), s, e)),
+        WaveformQueryPlanner.plan(List.of(CHANNEL_1, CHANNEL_2), start, end, ONE_DAY));
+  }
+
+  @Test
+  void testPlanLowSampleRateBlocksSpanningDays() {
+    // 100,000 samples at 0.4 sps span 250,000 s, so a block may start three days before the range
+    Duration maxBlockDuration = Duration.ofSeconds(250_000);
+    Instant start = Instant.parse("2019-01-15T01:00:00Z");
+    Instant end = Instant.parse("2019-01-15T02:00:00Z");
+    long s = CassandraDbUtility.toEpochNano(start);
+    long e = CassandraDbUtility.toEpochNano(end);
+
+    assertEquals(List.of(
+        PartitionRead.preceding(CHANNEL_1, LocalDate.of(2019, 1, 12), s),
+        PartitionRead.preceding(CHANNEL_1, LocalDate.of(2019, 1, 13), s),
+        PartitionRead.preceding(CHANNEL_1, LocalDate.of(2019, 1, 14), s),
+        PartitionRead.preceding(CHANNEL_1, LocalDate.of(2019, 1, 15), s),
+        PartitionRead.range(CHANNEL_1, LocalDate.of(2019, 1, 15), s, e)),
+        WaveformQueryPlanner.plan(List.of(CHANNEL_1), start, end, maxBlockDuration));
+  }
+
+  @Test
+  void testPlanMaxBlockDurationCoversStoredBlocks() {
+    // the slowest blocks stored start no earlier than the first day searched for preceding blocks
+    Waveform slow = Waveform.withoutValues(Instant.parse("2019-01-10T23:59:00Z"), 0.01, 20_000);
+    List<Waveform> blocks = JpaCassandraWaveformRepository.breakIntoBlocks(slow);
+
+    for (Waveform block : blocks) {
+      assertTrue(
+          Duration.between(block.getStartTime(), block.getEndTime()).compareTo(
+              JpaCassandraWaveformRepository.MAX_BLOCK_DURATION) < 0);
+
+      Instant start = block.getEndTime();
+      List<LocalDate> searched = WaveformQueryPlanner.plan(List.of(CHANNEL_1), start, start,
+          JpaCassandraWaveformRepository.MAX_BLOCK_DURATION).stream()
+          .filter(read -> read.getKind() == PartitionRead.Kind.PRECEDING)
+          .map(PartitionRead::getDate)
+          .collect(Collectors.toList());
+      assertTrue(searched.contains(LocalDate.ofInstant(block.getStartTime(), ZoneOffset.UTC)));
+    }
+  }
+
+  @Test
+  void testPlanStartAfterEndThrows() {
+    Instant start = Instant.parse("2019-01-15T12:00:00Z");
+
+    assertThrows(IllegalArgumentException.class,
+        () -> WaveformQueryPlanner.plan(List.of(CHANNEL_1), start, start.minusNanos(1), ONE_DAY));
+  }
+}
@@ -0,0 +1,127 @@
+package gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.repository.cassandra;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.SampleView;
+import java.nio.ByteBuffer;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class WaveformSampleEncodingTests {
+
+  private static final double[] INTEGER_SAMPLES = {0.0, 1.0, -1.0, 1024.0, -65536.0, 3.0,
+      9_007_199_254_740_992.0, -9_007_199_254_740_992.0, 7.0};
+
+  private static final double[] REAL_SAMPLES = {0.0, -0.0, 1.5, -2.25, Math.PI, Double.MIN_VALUE,
+      Double.MAX_VALUE, Double.NaN, Double.POSITIVE_INFINITY};
+
+  @ParameterizedTest
+  @EnumSource(WaveformSampleEncoding.class)
+  void testRoundTripIntegerSamples(WaveformSampleEncoding encoding) {
+    assertArrayEquals(INTEGER_SAMPLES,
+        WaveformSampleEncoding.decode(encoding.encode(INTEGER_SAMPLES)));
+  }
+
+  @ParameterizedTest
+  @EnumSource(WaveformSampleEncoding.class)
+  void testRoundTripEmptySamples(WaveformSampleEncoding encoding) {
+    assertArrayEquals(new double[]{},
+        WaveformSampleEncoding.decode(encoding.encode(new double[]{})));
+  }
+
+  @ParameterizedTest
+  @EnumSource(WaveformSampleEncoding.class)
+  void testEncodeViewMatchesEncodeCopy(WaveformSampleEncoding encoding) {
+    SampleView view = SampleView.of(INTEGER_SAMPLES, 2, 5);
+
+    assertEquals(encoding.encode(view.toArray()), encoding.encode(view));
+  }
+
+  @Test
+  void testFloat64RoundTripIsLossless() {
+    assertArrayEquals(REAL_SAMPLES, WaveformSampleEncoding
+        .decode(WaveformSampleEncoding.FLOAT64.encode(REAL_SAMPLES)));
+  }
+
+  @Test
+  void testFloat32RoundTripMatchesFloatPrecision() {
+    double[] decoded = WaveformSampleEncoding
+        .decode(WaveformSampleEncoding.FLOAT32.encode(REAL_SAMPLES));
+
+    assertEquals(REAL_SAMPLES.length, decoded.length);
+    for (int i = 0; i < REAL_SAMPLES.length; i++) {
+      assertEquals((float) REAL_SAMPLES[i], (float) decoded[i]);
+    }
+  }
+
+  @ParameterizedTest
+  @MethodSource("encodedSizeArguments")
+  void testEncodedSize(WaveformSampleEncoding encoding, double[] samples, int expectedSize) {
+    assertEquals(expectedSize, encoding.encode(samples).remaining());
+  }
+
+  private static Stream<Arguments> encodedSizeArguments() {
+    return Stream.of(
+        arguments(WaveformSampleEncoding.FLOAT64, new double[]{1.0, 2.0, 3.0}, 6 + 3 * 8),
+        arguments(WaveformSampleEncoding.FLOAT32, new double[]{1.0, 2.0, 3.0}, 6 + 3 * 4),
+        // first sample and deltas each fit in a single byte
+        arguments(WaveformSampleEncoding.INTEGER_DELTA, new double[]{1.0, 2.0, 3.0}, 6 + 3),
+        // zig-zag(200) = 400 requires two bytes, delta of -1 requires one
+        arguments(WaveformSampleEncoding.INTEGER_DELTA, new double[]{200.0, 199.0}, 6 + 3)
+    );
+  }
+
+  @ParameterizedTest
+  @MethodSource("integerDeltaRejectedSamples")
+  void testIntegerDeltaRejectsNonIntegerSamples(double sample) {
+    double[] samples = {1.0, sample};
+
+    assertFalse(WaveformSampleEncoding.INTEGER_DELTA.canEncode(samples));
+    assertThrows(IllegalArgumentException.class,
+        () -> WaveformSampleEncoding.INTEGER_DELTA.encode(samples));
+  }
+
+  private static Stream<Double> integerDeltaRejectedSamples() {
+    return Stream.of(0.5, -0.0, Double.NaN, Double.POSITIVE_INFINITY, 1.0e300);
+  }
+
+  @Test
+  void testFloatEncodingsAcceptAllSamples() {
+    assertTrue(WaveformSampleEncoding.FLOAT64.canEncode(REAL_SAMPLES));
+    assertTrue(WaveformSampleEncoding.FLOAT32.canEncode(REAL_SAMPLES));
+  }
+
+  @Test
+  void testDecodeDoesNotModifyBufferPosition() {
+    ByteBuffer blob = WaveformSampleEncoding.INTEGER_DELTA.encode(INTEGER_SAMPLES);
+
+    WaveformSampleEncoding.decode(blob);
+
+    assertEquals(0, blob.position());
+  }
+
+  @Test
+  void testDecodeUnknownVersionThrows() {
+    ByteBuffer blob = WaveformSampleEncoding.FLOAT64.encode(new double[]{1.0});
+    blob.put(0, (byte) (WaveformSampleEncoding.FORMAT_VERSION + 1));
+
+    assertThrows(IllegalArgumentException.class, () -> WaveformSampleEncoding.decode(blob));
+  }
+
+  @Test
+  void testDecodeUnknownEncodingThrows() {
+    ByteBuffer blob = WaveformSampleEncoding.FLOAT64.encode(new double[]{1.0});
+    blob.put(1, (byte) 0);
+
+    assertThrows(IllegalArgumentException.class, () -> WaveformSampleEncoding.decode(blob));
+  }
+}
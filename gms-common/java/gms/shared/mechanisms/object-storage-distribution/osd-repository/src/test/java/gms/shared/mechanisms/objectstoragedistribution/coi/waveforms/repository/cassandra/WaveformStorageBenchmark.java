@@ -0,0 +1,139 @@
+package gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.repository.cassandra;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
+
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.Statement;
+import gms.shared.mechanisms.objectstoragedistribution.coi.CoiTestingEntityManagerFactory;
+import gms.shared.mechanisms.objectstoragedistribution.coi.emerging.provenance.commonobjects.CreationInfo;
+import gms.shared.mechanisms.objectstoragedistribution.coi.emerging.provenance.commonobjects.SoftwareComponentInfo;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.ChannelSegment;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.Waveform;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.datatransferobjects.ChannelSegmentStorageResponse;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.repository.cassandra.configuration.CassandraConfig;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmark of storing a set of waveform channel segments with {@link
+ * JpaCassandraWaveformRepository#store}, which writes each segment's blocks and metadata in turn,
+ * and with the batched {@link JpaCassandraWaveformRepository#storeChannelSegments}.  Metadata is
+ * persisted to an embedded H2 database and Cassandra is simulated by a session that completes each
+ * request after a fixed round trip latency.  Reports the average time to store the segments.  Run
+ * with: java -cp (test runtime classpath) org.openjdk.jmh.Main WaveformStorageBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class WaveformStorageBenchmark {
+
+  private static final int CHANNEL_COUNT = 20;
+  private static final int SEGMENTS_PER_CHANNEL = 5;
+  private static final double SAMPLE_RATE = 40.0;
+  private static final int SAMPLES_PER_SEGMENT = 400;
+  private static final long ROUND_TRIP_MICROS = 500;
+
+  @Param({"BATCHED", "PER_SEGMENT"})
+  private String storage;
+
+  private ScheduledExecutorService cassandra;
+  private EntityManagerFactory entityManagerFactory;
+  private JpaCassandraWaveformRepository repository;
+  private List<UUID> channelIds;
+  private List<ChannelSegment<Waveform>> segments;
+  private Instant nextStart = Instant.parse("2019-01-01T00:00:00Z");
+
+  @Setup
+  public void setup() {
+    cassandra = Executors.newScheduledThreadPool(4);
+
+    Session session = mock(Session.class);
+    PreparedStatement preparedStatement = mock(PreparedStatement.class, RETURNS_SELF);
+    when(session.prepare(anyString())).thenReturn(preparedStatement);
+    when(preparedStatement.bind()).thenAnswer(i -> mock(BoundStatement.class, RETURNS_SELF));
+    ResultSet resultSet = mock(ResultSet.class);
+    when(session.executeAsync(any(Statement.class))).thenAnswer(i -> {
+      TestResultSetFuture request = new TestResultSetFuture();
+      cassandra.schedule(() -> request.complete(resultSet), ROUND_TRIP_MICROS,
+          TimeUnit.MICROSECONDS);
+      return request;
+    });
+
+    CassandraConfig cassandraConfig = spy(CassandraConfig.builder().build());
+    doReturn(session).when(cassandraConfig).getConnection();
+
+    entityManagerFactory = CoiTestingEntityManagerFactory.createTesting();
+    repository = new JpaCassandraWaveformRepository(entityManagerFactory, cassandraConfig,
+        channelId -> WaveformSampleEncoding.FLOAT64);
+
+    channelIds = new ArrayList<>();
+    for (int i = 0; i < CHANNEL_COUNT; i++) {
+      channelIds.add(UUID.randomUUID());
+    }
+  }
+
+  /**
+   * Creates new segments for each invocation, since segment ids must be unique.
+   */
+  @Setup(Level.Invocation)
+  public void createSegments() {
+    double[] samples = new double[SAMPLES_PER_SEGMENT];
+    for (int i = 0; i < samples.length; i++) {
+      samples[i] = Math.sin(i);
+    }
+    CreationInfo creationInfo = new CreationInfo("benchmark", Instant.now(),
+        new SoftwareComponentInfo("benchmark", "1.0"));
+
+    segments = new ArrayList<>();
+    for (int s = 0; s < SEGMENTS_PER_CHANNEL; s++) {
+      for (UUID channelId : channelIds) {
+        segments.add(ChannelSegment.create(channelId, "segment", ChannelSegment.Type.RAW,
+            List.of(Waveform.withValues(nextStart, SAMPLE_RATE, samples)), creationInfo));
+      }
+      nextStart = nextStart.plusSeconds(10);
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    entityManagerFactory.close();
+    cassandra.shutdownNow();
+  }
+
+  @Benchmark
+  public ChannelSegmentStorageResponse store() {
+    return "BATCHED".equals(storage) ?
+        repository.storeChannelSegments(segments) : repository.store(segments);
+  }
+}
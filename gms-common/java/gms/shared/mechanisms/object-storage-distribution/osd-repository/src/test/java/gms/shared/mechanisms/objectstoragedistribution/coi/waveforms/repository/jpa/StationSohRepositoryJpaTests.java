@@ -10,14 +10,21 @@ import gms.shared.mechanisms.objectstoragedistribution.coi.common.TestUtilities;
 import gms.shared.mechanisms.objectstoragedistribution.coi.common.repository.DataExistsException;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.AcquiredChannelSoh;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.AcquiredChannelSohAnalog;
+import gms.shared.mechanisms.objectstoragedistribution.coi.emerging.provenance.commonobjects.CreationInfo;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.AcquiredChannelSoh.AcquiredChannelSohType;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.AcquiredChannelSohBoolean;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.AcquiredChannelSohBooleanSegment;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.repository.TestFixtures;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.repository.jpa.dataaccessobjects.AcquiredChannelSohAnalogDao;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.repository.jpa.dataaccessobjects.AcquiredChannelSohBooleanDao;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.repository.jpa.dataaccessobjects.AcquiredChannelSohBooleanSegmentDao;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import javax.persistence.EntityManager;
@@ -52,6 +59,9 @@ public class StationSohRepositoryJpaTests {
           .executeUpdate();
       entityManager.createQuery("DELETE FROM " + AcquiredChannelSohBooleanDao.class.getSimpleName())
           .executeUpdate();
+      entityManager.createQuery(
+          "DELETE FROM " + AcquiredChannelSohBooleanSegmentDao.class.getSimpleName())
+          .executeUpdate();
       entityManager.getTransaction().commit();
     } finally {
       entityManager.close();
@@ -80,6 +90,73 @@ public class StationSohRepositoryJpaTests {
     assertEquals(bools.get(0), TestFixtures.channelSohBool);
   }
 
+  @Test
+  public void storeSohPacksBooleanSegmentsTest() throws Exception {
+    AcquiredChannelSohBooleanSegment segment = createSegment();
+    List<AcquiredChannelSoh> sohs = new ArrayList<>(segment.toSohBooleans());
+    sohs.add(TestFixtures.channelSohAnalog);
+    stationSohPersistenceJpa.storeSoh(sohs);
+
+    // All of the boolean statuses are stored in one row.
+    assertEquals(0, countRows(AcquiredChannelSohBooleanDao.class));
+    assertEquals(1, countRows(AcquiredChannelSohBooleanSegmentDao.class));
+
+    List<AcquiredChannelSohBoolean> expected = segment.toSohBooleans();
+    assertEquals(new HashSet<>(expected),
+        new HashSet<>(stationSohPersistenceJpa.retrieveAllBooleanSoh()));
+    assertEquals(new HashSet<>(expected), new HashSet<>(
+        stationSohPersistenceJpa.retrieveBooleanSohByProcessingChannelAndTimeRange(
+            segment.getChannelId(), TestFixtures.SEGMENT_START, TestFixtures.SEGMENT_END)));
+    for (AcquiredChannelSohBoolean soh : expected) {
+      assertEquals(Optional.of(soh),
+          stationSohPersistenceJpa.retrieveAcquiredChannelSohBooleanById(soh.getId()));
+    }
+    assertEquals(List.of(segment),
+        stationSohPersistenceJpa.retrieveBooleanSohSegmentsByProcessingChannelAndTimeRange(
+            segment.getChannelId(), TestFixtures.SEGMENT_START, TestFixtures.SEGMENT_END));
+  }
+
+  @Test
+  public void storeSohDoesNotPackUnrelatedBooleansTest() throws Exception {
+    // Statuses created individually have unrelated ids, so are stored individually.
+    List<AcquiredChannelSoh> sohs = List.of(
+        AcquiredChannelSohBoolean.create(TestFixtures.PROCESSING_CHANNEL_ID,
+            AcquiredChannelSohType.CLIPPED, TestFixtures.SEGMENT_START, TestFixtures.SEGMENT_END,
+            true, CreationInfo.DEFAULT),
+        AcquiredChannelSohBoolean.create(TestFixtures.PROCESSING_CHANNEL_ID,
+            AcquiredChannelSohType.ZEROED_DATA, TestFixtures.SEGMENT_START,
+            TestFixtures.SEGMENT_END.plusSeconds(1), false, CreationInfo.DEFAULT));
+    stationSohPersistenceJpa.storeSoh(sohs);
+
+    // Each has a different time range, so each is its own single status segment.
+    assertEquals(2, countRows(AcquiredChannelSohBooleanSegmentDao.class));
+    assertEquals(new HashSet<>(sohs),
+        new HashSet<>(stationSohPersistenceJpa.retrieveAllBooleanSoh()));
+
+    stationSohPersistenceJpa.storeSoh(List.of(
+        AcquiredChannelSohBoolean.create(TestFixtures.PROCESSING_CHANNEL_ID,
+            AcquiredChannelSohType.CLIPPED, TestFixtures.SEGMENT_START2,
+            TestFixtures.SEGMENT_END2, true, CreationInfo.DEFAULT),
+        AcquiredChannelSohBoolean.create(TestFixtures.PROCESSING_CHANNEL_ID,
+            AcquiredChannelSohType.ZEROED_DATA, TestFixtures.SEGMENT_START2,
+            TestFixtures.SEGMENT_END2, false, CreationInfo.DEFAULT)));
+    assertEquals(2, countRows(AcquiredChannelSohBooleanDao.class));
+    assertEquals(4, stationSohPersistenceJpa.retrieveAllBooleanSoh().size());
+  }
+
+  @Test
+  public void storeAndRetrieveBooleanSohSegmentsTest() throws Exception {
+    AcquiredChannelSohBooleanSegment segment = createSegment();
+    stationSohPersistenceJpa.storeBooleanSohSegments(List.of(segment));
+
+    assertEquals(List.of(segment),
+        stationSohPersistenceJpa.retrieveBooleanSohSegmentsByProcessingChannelAndTimeRange(
+            segment.getChannelId(), TestFixtures.SEGMENT_START, TestFixtures.SEGMENT_END));
+    assertTrue(stationSohPersistenceJpa.retrieveBooleanSohSegmentsByProcessingChannelAndTimeRange(
+        segment.getChannelId(), TestFixtures.SEGMENT_END.plusSeconds(1),
+        TestFixtures.SEGMENT_END.plusSeconds(10)).isEmpty());
+  }
+
   @Test
   public void storeAndRetrieveAnalogSohTest() throws Exception {
     // Test normal case, which should add a record.
@@ -242,6 +319,27 @@ public class StationSohRepositoryJpaTests {
             .retrieveAnalogSohByProcessingChannelAndTimeRange(id, start, end));
   }
 
+  private static AcquiredChannelSohBooleanSegment createSegment() {
+    Map<AcquiredChannelSohType, Boolean> statuses = new EnumMap<>(AcquiredChannelSohType.class);
+    statuses.put(AcquiredChannelSohType.DEAD_SENSOR_CHANNEL, false);
+    statuses.put(AcquiredChannelSohType.CLIPPED, true);
+    statuses.put(AcquiredChannelSohType.VAULT_DOOR_OPENED, false);
+    statuses.put(AcquiredChannelSohType.MAIN_POWER_FAILURE, true);
+    return AcquiredChannelSohBooleanSegment.create(TestFixtures.PROCESSING_CHANNEL_ID,
+        TestFixtures.SEGMENT_START, TestFixtures.SEGMENT_END, statuses, CreationInfo.DEFAULT);
+  }
+
+  private long countRows(Class<?> entityType) {
+    EntityManager entityManager = entityManagerFactory.createEntityManager();
+    try {
+      return entityManager.createQuery(
+          "SELECT COUNT(s) FROM " + entityType.getSimpleName() + " s", Long.class)
+          .getSingleResult();
+    } finally {
+      entityManager.close();
+    }
+  }
+
   /**
    * Utility interface used to help test the id and time based channel soh queries
    *
@@ -2,6 +2,7 @@ package gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.ser
 
 import gms.shared.mechanisms.objectstoragedistribution.coi.common.repository.CoiEntityManagerFactory;
 import gms.shared.mechanisms.objectstoragedistribution.coi.signaldetection.repository.factory.ProcessingStationReferenceFactory;
+import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.repository.CachingStationReferenceRepository;
 import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.repository.StationReferenceRepositoryInterface;
 import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.repository.jpa.StationReferenceRepositoryJpa;
 import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.service.configuration.Configuration;
@@ -25,8 +26,10 @@ public class StationReferenceCoiServiceApplication {
     config.getPersistenceUrl().ifPresent(s -> entityMgrProps.put("hibernate.connection.url", s));
     EntityManagerFactory entityManagerFactory = CoiEntityManagerFactory.create(entityMgrProps);
     Runtime.getRuntime().addShutdownHook(new Thread(entityManagerFactory::close));
-    final StationReferenceRepositoryInterface stationRefRepo = new StationReferenceRepositoryJpa(
-        entityManagerFactory);
+    // Stores are routed through this service, which keeps the cached snapshot current
+    final StationReferenceRepositoryInterface stationRefRepo =
+        new CachingStationReferenceRepository(
+            new StationReferenceRepositoryJpa(entityManagerFactory));
 
 
     StationReferenceCoiService.startService(config, stationRefRepo,
@@ -199,6 +199,11 @@ public class WaveformRepositoryService {
             .storeAcquiredChannelSohsBoolean(request, response, stationSohRepository),
         new JsonTransformer());
 
+    Spark.post("/coi/acquired-channel-sohs/boolean-segments",
+        (request, response) -> SparkChannelSohCoiRouteHandlers
+            .storeAcquiredChannelSohBooleanSegments(request, response, stationSohRepository),
+        new JsonTransformer());
+
     Spark.post("/mechanisms/object-storage-distribution/waveforms/channel-availability",
         ((request, response) -> SparkWaveformCoiRouteHandler
             .batchCalculateChannelAvailability(request, response, waveformRepository)));
@@ -4,9 +4,11 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import gms.shared.mechanisms.objectstoragedistribution.coi.common.datatransferobjects.CoiObjectMapperFactory;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.AcquiredChannelSohAnalog;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.AcquiredChannelSohBoolean;
+import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.AcquiredChannelSohBooleanSegment;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.repository.StationSohRepositoryInterface;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -271,4 +273,45 @@ public class SparkChannelSohCoiRouteHandlers {
         System.currentTimeMillis() - t1);
     return sohIDs;
   }
+
+  /**
+   * Handles a request to store {@link AcquiredChannelSohBooleanSegment}s, given an array of
+   * acquired channel soh boolean segments.  Each segment is stored as one row.
+   *
+   * @param request the request (HTTP)
+   * @param response the response (HTTP)
+   * @param stationSohRepositoryInterface the repository interface to use
+   * @return HTTP status codes: 200 when successful 400 when the parameters are not valid
+   */
+  public static List<UUID> storeAcquiredChannelSohBooleanSegments(Request request,
+      Response response, StationSohRepositoryInterface stationSohRepositoryInterface)
+      throws Exception {
+
+    Validate.notNull(stationSohRepositoryInterface);
+    Objects.requireNonNull(request, "Cannot accept null request");
+    Objects.requireNonNull(response, "Cannot accept null response");
+    Validate.notNull(request.body(), "Cannot store null acquired channel soh boolean segments");
+
+    AcquiredChannelSohBooleanSegment[] segments;
+    List<UUID> segmentIDs = new ArrayList<>();
+
+    String contentType = request.contentType();
+    if (contentType.equalsIgnoreCase(ContentTypes.MSGPACK)) {
+      segments = msgpackObjectMapper
+          .readValue(request.bodyAsBytes(), AcquiredChannelSohBooleanSegment[].class);
+    } else {
+      segments = jsonObjectMapper
+          .readValue(request.body(), AcquiredChannelSohBooleanSegment[].class);
+    }
+    Validate.notNull(segments);
+    logger.info("Got request to store {} AcquiredChannelSohBooleanSegment", segments.length);
+    final long t1 = System.currentTimeMillis();
+    stationSohRepositoryInterface.storeBooleanSohSegments(Arrays.asList(segments));
+    for (AcquiredChannelSohBooleanSegment segment : segments) {
+      segmentIDs.add(segment.getId());
+    }
+    logger.info("Stored {} AcquiredChannelSohBooleanSegment in {} millis", segments.length,
+        System.currentTimeMillis() - t1);
+    return segmentIDs;
+  }
 }
@@ -43,34 +43,102 @@ public class BicubicSplineInterpolator implements BicubicInterpolator {
   }
 
   @Override
-  public BiFunction<Double, Double, double[]> getFunctionAndDerivatives(double[] x, double[] y,
-      double[][] data) {
-    double[] xGrid = Arrays.copyOf(x, x.length);
-    double[] yGrid = Arrays.copyOf(y, y.length);
-    double[][] values = new double[data.length][];
-    for (int i = 0; i < values.length; ++i) {
-      values[i] = Arrays.copyOf(data[i], data[i].length);
-    }
+  public Interpolant getFunctionAndDerivatives(double[] x, double[] y, double[][] data) {
+    return new Interpolant(x, y, data);
+  }
 
-    BiFunction<Double, Double, double[]> transposeInterpolator = (yintrp, xintrp) ->
-        interpolate(yGrid, xGrid, transposeMatrix(values), new Bracket(yintrp, y),
-            new Bracket(xintrp, x));
+  /**
+   * Bicubic spline interpolant of a grid of values.  The second derivatives of the splines along
+   * each grid row and column only depend on the grid, so they are computed once when the
+   * interpolant is created and each interpolation only fits the spline through the interpolation
+   * location.  Immutable, so it can be shared between threads.
+   */
+  public static final class Interpolant implements BiFunction<Double, Double, double[]> {
 
-    return (xintrp, yintrp) -> {
-      double[] derivativeSet1 = interpolate(xGrid, yGrid, values, new Bracket(xintrp, x),
-          new Bracket(yintrp, y));
-      double[] derivativeSet2 = transposeInterpolator.apply(yintrp, xintrp);
-      //double crossDerivative = interpolatedCrossDerivative(transposeInterpolator, yintrp, xintrp);
+    private final double[] xGrid;
+    private final double[] yGrid;
+
+    /**
+     * Values stored as [x][y], and the second derivatives of the splines running in the y
+     * direction through each x grid location
+     */
+    private final double[][] values;
+    private final double[][] d2v_dy2;
+
+    /**
+     * Values stored as [y][x], and the second derivatives of the splines running in the x
+     * direction through each y grid location
+     */
+    private final double[][] transposedValues;
+    private final double[][] d2v_dx2;
+
+    private Interpolant(double[] x, double[] y, double[][] data) {
+      this.xGrid = Arrays.copyOf(x, x.length);
+      this.yGrid = Arrays.copyOf(y, y.length);
+      this.values = new double[data.length][];
+      for (int i = 0; i < values.length; ++i) {
+        values[i] = Arrays.copyOf(data[i], data[i].length);
+      }
+      this.transposedValues = transposeMatrix(values);
+      this.d2v_dy2 = secondDerivatives(yGrid, values);
+      this.d2v_dx2 = secondDerivatives(xGrid, transposedValues);
+    }
+
+    /**
+     * Interpolates the value and derivatives at (x, y)
+     *
+     * @param x The x interpolation location.
+     * @param y The y interpolation location.
+     * @return The interpolated data, plus the following derivatives: df/dx, d2f/dx2, df/dy,
+     * d2f/dydx
+     */
+    public double[] valueAndDerivatives(double x, double y) {
+      Bracket xBracket = new Bracket(x, xGrid);
+      Bracket yBracket = new Bracket(y, yGrid);
+      double[] derivativeSet1 = interpolate(xGrid, values, d2v_dy2, xBracket, yBracket);
+      double[] derivativeSet2 = interpolate(yGrid, transposedValues, d2v_dx2, yBracket,
+          xBracket);
 
       return new double[]{
           derivativeSet1[0], // f
           derivativeSet1[1], // df/dx
           derivativeSet1[2], // df2/d2x
           derivativeSet2[1], // df/dy
-          interpolatedCrossDerivative(xGrid, yGrid, values, xintrp, yintrp) // d2f/dydx
+          interpolatedCrossDerivative(x, y) // d2f/dydx
       };
-    };
-    //interpolate(xGrid, yGrid, values, new Bracket(xintrp, x), new Bracket(yintrp, y));
+    }
+
+    @Override
+    public double[] apply(Double x, Double y) {
+      return valueAndDerivatives(x, y);
+    }
+
+    private double interpolatedCrossDerivative(double x, double y) {
+
+      final double EPSILON = 1e-7;
+
+      double upperXderivative = interpolate(xGrid, values, d2v_dy2, new Bracket(x, xGrid),
+          new Bracket(y + EPSILON, yGrid))[1];
+      double lowerXderivative = interpolate(xGrid, values, d2v_dy2, new Bracket(x, xGrid),
+          new Bracket(y - EPSILON, yGrid))[1];
+
+      return (upperXderivative - lowerXderivative) / (2 * EPSILON);
+    }
+  }
+
+  /**
+   * Computes the second derivatives of the natural cubic splines running along each row of values
+   *
+   * @param grid The grid locations of each row. A monotonically increasing array.
+   * @param values The rows of values, each with one value per grid location.
+   * @return The second derivatives, stored like values.
+   */
+  private static double[][] secondDerivatives(double[] grid, double[][] values) {
+    double[][] d2v = new double[values.length][grid.length];
+    for (int j = 0; j < values.length; j++) {
+      naturalSpline(grid, values[j], d2v[j]);
+    }
+    return d2v;
   }
 
   /**
@@ -82,9 +150,9 @@ public class BicubicSplineInterpolator implements BicubicInterpolator {
    *
    * @param xGrid The x grid locations. A monotonically increasing array. The x interpolation
    * location must lie within the limits of this vector.
-   * @param yGrid The y grid locations. A monotonically increasing array. The y interpolation
-   * location must lie within the limits of this vector.
    * @param values The 2d array of values to be interpolated. These are stored as [x][y].
+   * @param d2v_dy2 The second derivatives of the splines running in the y direction through each x
+   * grid location, from {@link #secondDerivatives(double[], double[][])}.
    * @param xBracket A Bracket object that contains the interpolation spacing information for the x
    * grid.
    * @param yBracket A Bracket object that contains the interpolation spacing information for the y
@@ -92,17 +160,8 @@ public class BicubicSplineInterpolator implements BicubicInterpolator {
    * @return An array with three elements: the interpolated value, the interpolated 1st derivative,
    * the interpolated 2nd derivative
    */
-  private static double[] interpolate(double[] xGrid, double[] yGrid, double[][] values,
+  private static double[] interpolate(double[] xGrid, double[][] values, double[][] d2v_dy2,
       Bracket xBracket, Bracket yBracket) {
-    // calculate the 2nd derivatives at each of the tables values for splines
-    // running in the y directions (d2v_dy2)
-
-    double[][] d2v_dy2 = new double[xGrid.length][yGrid.length];
-    for (int j = 0; j < xGrid.length; j++) {
-      naturalSpline(yGrid, values[j], d2v_dy2[j]);
-    }
-    //spline(yGrid, values[j], 1.0e30, 1.0e30, d2v_dy2[j]);
-
     // calculate xgrid interpolated values interpolated at the y interpolation
     // location (valuesOnXAtYinterp)
 
@@ -291,20 +350,6 @@ public class BicubicSplineInterpolator implements BicubicInterpolator {
     return bracket.a * d2v[bracket.klo] + bracket.b * d2v[bracket.khi];
   }
 
-  private static double interpolatedCrossDerivative(
-      double[] xGrid, double[] yGrid, double[][] values,
-      double x, double y) {
-
-    final double EPSILON = 1e-7;
-
-    double upperXderivative = interpolate(xGrid, yGrid, values, new Bracket(x, xGrid),
-        new Bracket(y + EPSILON, yGrid))[1];
-    double lowerXderivative = interpolate(xGrid, yGrid, values, new Bracket(x, xGrid),
-        new Bracket(y - EPSILON, yGrid))[1];
-
-    return (upperXderivative - lowerXderivative) / (2 * EPSILON);
-  }
-
   protected static double[][] transposeMatrix(double[][] m) {
     double[][] temp = new double[m[0].length][m.length];
     for (int i = 0; i < m.length; i++) {
@@ -1,5 +1,6 @@
 package gms.shared.utilities.geotess;
 
+import gms.shared.utilities.geotess.util.filebuffer.MappedDataInputStream;
 import gms.shared.utilities.geotess.util.globals.DataType;
 
 import java.io.DataInputStream;
@@ -52,8 +53,11 @@ public class DataArrayOfLongs extends Data
 			throws IOException
 	{
 		values = new long[nAttributes];
-		for (int i = 0; i < values.length; ++i)
-			values[i] = input.readLong();
+		if (input instanceof MappedDataInputStream)
+			((MappedDataInputStream) input).readLongs(values);
+		else
+			for (int i = 0; i < values.length; ++i)
+				values[i] = input.readLong();
 	}
 
 	/**
@@ -1,5 +1,6 @@
 package gms.shared.utilities.geotess;
 
+import gms.shared.utilities.geotess.util.filebuffer.MappedDataInputStream;
 import gms.shared.utilities.geotess.util.globals.DataType;
 
 import java.io.DataInputStream;
@@ -52,8 +53,11 @@ public class DataArrayOfShorts extends Data
 			throws IOException
 	{
 		values = new short[nAttributes];
-		for (int i = 0; i < values.length; ++i)
-			values[i] = input.readShort();
+		if (input instanceof MappedDataInputStream)
+			((MappedDataInputStream) input).readShorts(values);
+		else
+			for (int i = 0; i < values.length; ++i)
+				values[i] = input.readShort();
 	}
 
 	/**
@@ -7,6 +7,7 @@ import gms.shared.utilities.geotess.util.containers.arraylist.ArrayListInt;
 import gms.shared.utilities.geotess.util.containers.hash.maps.HashMapIntegerDouble;
 import gms.shared.utilities.geotess.util.containers.hash.sets.HashSetInteger;
 import gms.shared.utilities.geotess.util.containers.hash.sets.HashSetInteger.Iterator;
+import gms.shared.utilities.geotess.util.filebuffer.MappedDataInputStream;
 import gms.shared.utilities.geotess.util.globals.DataType;
 import gms.shared.utilities.geotess.util.globals.GMTFormat;
 import gms.shared.utilities.geotess.util.md5.MD5Hash;
@@ -1989,15 +1990,15 @@ public class GeoTessGrid
 	}
 
 	/**
-	 * Load the 2D grid from a File.
+	 * Load the 2D grid from a File. The file is read through a
+	 * MappedDataInputStream, so the vertices and triangles are read in bulk.
 	 * 
 	 * @param file
 	 * @throws IOException
 	 */
 	private GeoTessGrid loadGridBinary(String file) throws IOException
 	{
-		DataInputStream input = new DataInputStream(new BufferedInputStream(
-				new FileInputStream(file)));
+		DataInputStream input = new MappedDataInputStream(new File(file));
 		loadGrid(input);
 		input.close();
 		return this;
@@ -2038,6 +2039,17 @@ public class GeoTessGrid
 		triangles = new int[input.readInt()][3];
 		vertices = new double[input.readInt()][3];
 
+		if (input instanceof MappedDataInputStream)
+		{
+			MappedDataInputStream mappedInput = (MappedDataInputStream) input;
+			mappedInput.readInts(tessellations);
+			mappedInput.readInts(levels);
+			mappedInput.readDoubles(vertices);
+			mappedInput.readInts(triangles);
+			initialize();
+			return this;
+		}
+
 		for (int i = 0; i < tessellations.length; ++i)
 		{
 			int[] a = tessellations[i];
@@ -5,6 +5,7 @@ import gms.shared.utilities.geotess.util.containers.arraylist.ArrayListInt;
 import gms.shared.utilities.geotess.util.containers.hash.maps.HashMapIntegerDouble;
 import gms.shared.utilities.geotess.util.containers.hash.sets.HashSetInteger;
 import gms.shared.utilities.geotess.util.containers.hash.sets.HashSetInteger.Iterator;
+import gms.shared.utilities.geotess.util.filebuffer.MappedDataInputStream;
 import gms.shared.utilities.geotess.util.globals.DataType;
 import gms.shared.utilities.geotess.util.globals.InterpolatorType;
 import gms.shared.utilities.geotess.util.globals.OptimizationType;
@@ -2924,12 +2925,15 @@ public class GeoTessModel {
    * nAttributes, dataType(DOUBLE or FLOAT). <br> int[] tessellations = new int[nLayers]; <br>
    * Profile[nVertices][nLayers]: data
    *
+   * <p>
+   * The file is read through a {@link MappedDataInputStream}, so the grid and the primitive
+   * attribute arrays are read in bulk. The whole model is still built on the heap.
+   *
    * @param model a reference to the Model3D into which the data is to be stored.
    */
   protected void loadModelBinary(File inputFile, String relGridFilePath)
       throws GeoTessException, IOException {
-    DataInputStream input = new DataInputStream(new BufferedInputStream(
-        new FileInputStream(inputFile)));
+    DataInputStream input = new MappedDataInputStream(inputFile);
 
     loadModelBinary(input, inputFile.getParent(), relGridFilePath);
 
@@ -0,0 +1,348 @@
+package gms.shared.utilities.geotess.util.filebuffer;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+/**
+ * DataInputStream that reads a binary file through read-only memory mappings
+ * of the file instead of through a FileInputStream and a BufferedInputStream.
+ * Bytes are copied out of the mapped pages as they are read, so whatever is
+ * built from the stream is still materialized on the heap; the mapping only
+ * avoids the read system calls and the intermediate buffer copy, and lets the
+ * primitive arrays below be copied in bulk through typed views of the mapped
+ * bytes.
+ *
+ * A MappedByteBuffer can map at most Integer.MAX_VALUE bytes, so the file is
+ * mapped one region at a time as the stream is read. All of the DataInput
+ * functions are supported, reading big-endian values exactly as a
+ * DataInputStream wrapping a FileInputStream would. In addition arrays of
+ * primitives can be read in bulk, which avoids reading each value one byte at
+ * a time:
+ *
+ *       readShorts(short[] values);
+ *       readInts(int[] values);
+ *       readInts(int[][] values);
+ *       readLongs(long[] values);
+ *       readFloats(float[] values);
+ *       readDoubles(double[] values);
+ *       readDoubles(double[][] values);
+ *
+ * Each bulk read fills the entire supplied array.
+ */
+public class MappedDataInputStream extends DataInputStream
+{
+  /**
+   * Largest number of bytes of the file that are mapped at a time.
+   */
+  static final int MAXIMUM_REGION_SIZE = 1 << 30;
+
+  /**
+   * Shortest array that is copied through a typed view of the mapped bytes.
+   * Creating the view costs more than it saves for the few attribute values of
+   * a single node, so shorter arrays are read a value at a time from the
+   * region.
+   */
+  static final int MINIMUM_VIEW_LENGTH = 16;
+
+  /**
+   * Mapped regions of the file that back this DataInputStream.
+   */
+  private final MappedRegions regions;
+
+  /**
+   * Opens the file and maps its first region.
+   *
+   * @param file the file to be read.
+   * @throws IOException
+   */
+  public MappedDataInputStream(File file) throws IOException
+  {
+    this(new MappedRegions(file, MAXIMUM_REGION_SIZE));
+  }
+
+  /**
+   * Opens the file and maps its first region, mapping at most regionSize bytes
+   * at a time.
+   *
+   * @param file the file to be read.
+   * @param regionSize largest number of bytes mapped at a time.
+   * @throws IOException
+   */
+  MappedDataInputStream(File file, int regionSize) throws IOException
+  {
+    this(new MappedRegions(file, regionSize));
+  }
+
+  private MappedDataInputStream(MappedRegions regions)
+  {
+    super(regions);
+    this.regions = regions;
+  }
+
+  /**
+   * Reads values.length shorts into values.
+   *
+   * @param values the array to be filled.
+   * @throws IOException
+   */
+  public void readShorts(short[] values) throws IOException
+  {
+    ByteBuffer region = regions.getRegion(Short.BYTES * (long) values.length);
+    if (region == null)
+      for (int i = 0; i < values.length; ++i) values[i] = readShort();
+    else if (values.length < MINIMUM_VIEW_LENGTH)
+      for (int i = 0; i < values.length; ++i) values[i] = region.getShort();
+    else
+    {
+      region.asShortBuffer().get(values);
+      region.position(region.position() + Short.BYTES * values.length);
+    }
+  }
+
+  /**
+   * Reads values.length ints into values.
+   *
+   * @param values the array to be filled.
+   * @throws IOException
+   */
+  public void readInts(int[] values) throws IOException
+  {
+    ByteBuffer region = regions.getRegion(Integer.BYTES * (long) values.length);
+    if (region == null)
+      for (int i = 0; i < values.length; ++i) values[i] = readInt();
+    else if (values.length < MINIMUM_VIEW_LENGTH)
+      for (int i = 0; i < values.length; ++i) values[i] = region.getInt();
+    else
+    {
+      region.asIntBuffer().get(values);
+      region.position(region.position() + Integer.BYTES * values.length);
+    }
+  }
+
+  /**
+   * Reads each row of values in order, filling every row.
+   *
+   * @param values the arrays to be filled.
+   * @throws IOException
+   */
+  public void readInts(int[][] values) throws IOException
+  {
+    for (int[] row : values) readInts(row);
+  }
+
+  /**
+   * Reads values.length longs into values.
+   *
+   * @param values the array to be filled.
+   * @throws IOException
+   */
+  public void readLongs(long[] values) throws IOException
+  {
+    ByteBuffer region = regions.getRegion(Long.BYTES * (long) values.length);
+    if (region == null)
+      for (int i = 0; i < values.length; ++i) values[i] = readLong();
+    else if (values.length < MINIMUM_VIEW_LENGTH)
+      for (int i = 0; i < values.length; ++i) values[i] = region.getLong();
+    else
+    {
+      region.asLongBuffer().get(values);
+      region.position(region.position() + Long.BYTES * values.length);
+    }
+  }
+
+  /**
+   * Reads values.length floats into values.
+   *
+   * @param values the array to be filled.
+   * @throws IOException
+   */
+  public void readFloats(float[] values) throws IOException
+  {
+    ByteBuffer region = regions.getRegion(Float.BYTES * (long) values.length);
+    if (region == null)
+      for (int i = 0; i < values.length; ++i) values[i] = readFloat();
+    else if (values.length < MINIMUM_VIEW_LENGTH)
+      for (int i = 0; i < values.length; ++i) values[i] = region.getFloat();
+    else
+    {
+      region.asFloatBuffer().get(values);
+      region.position(region.position() + Float.BYTES * values.length);
+    }
+  }
+
+  /**
+   * Reads values.length doubles into values.
+   *
+   * @param values the array to be filled.
+   * @throws IOException
+   */
+  public void readDoubles(double[] values) throws IOException
+  {
+    ByteBuffer region = regions.getRegion(Double.BYTES * (long) values.length);
+    if (region == null)
+      for (int i = 0; i < values.length; ++i) values[i] = readDouble();
+    else if (values.length < MINIMUM_VIEW_LENGTH)
+      for (int i = 0; i < values.length; ++i) values[i] = region.getDouble();
+    else
+    {
+      region.asDoubleBuffer().get(values);
+      region.position(region.position() + Double.BYTES * values.length);
+    }
+  }
+
+  /**
+   * Reads each row of values in order, filling every row.
+   *
+   * @param values the arrays to be filled.
+   * @throws IOException
+   */
+  public void readDoubles(double[][] values) throws IOException
+  {
+    for (double[] row : values) readDoubles(row);
+  }
+
+  /**
+   * InputStream over the successive mapped regions of a file. Only the current
+   * region is referenced; earlier regions are unmapped when they are garbage
+   * collected.
+   */
+  static class MappedRegions extends InputStream
+  {
+    private final FileChannel channel;
+
+    private final long fileSize;
+
+    private final int regionSize;
+
+    /**
+     * Offset in the file of the first byte of the current region.
+     */
+    private long regionStart = 0;
+
+    private MappedByteBuffer region;
+
+    MappedRegions(File file, int regionSize) throws IOException
+    {
+      if (regionSize < 1)
+        throw new IllegalArgumentException("regionSize must be positive");
+
+      this.regionSize = regionSize;
+
+      RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+      try
+      {
+        this.channel = randomAccessFile.getChannel();
+        this.fileSize = channel.size();
+        this.region = map(0);
+      }
+      catch (IOException ex)
+      {
+        randomAccessFile.close();
+        throw ex;
+      }
+    }
+
+    private MappedByteBuffer map(long start) throws IOException
+    {
+      return channel.map(MapMode.READ_ONLY, start,
+          Math.min(regionSize, fileSize - start));
+    }
+
+    /**
+     * Returns the current region positioned at the next unread byte, mapping
+     * the next region if the current one has been read entirely, or null at
+     * the end of the file.
+     */
+    private ByteBuffer nextBytes() throws IOException
+    {
+      if (region == null)
+        throw new IOException("Stream closed");
+
+      if (!region.hasRemaining())
+      {
+        if (regionStart + region.capacity() >= fileSize)
+          return null;
+
+        regionStart += region.capacity();
+        region = map(regionStart);
+      }
+      return region;
+    }
+
+    /**
+     * Returns the current region if the next byteCount bytes can be read from
+     * it, otherwise null.
+     */
+    ByteBuffer getRegion(long byteCount) throws IOException
+    {
+      ByteBuffer bytes = nextBytes();
+      return bytes != null && bytes.remaining() >= byteCount ? bytes : null;
+    }
+
+    @Override
+    public int read() throws IOException
+    {
+      ByteBuffer bytes = nextBytes();
+      return bytes == null ? -1 : bytes.get() & 0xff;
+    }
+
+    /**
+     * Reads len bytes unless the end of the file is reached first, continuing
+     * into the next region when the current one is exhausted.
+     */
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException
+    {
+      if (len == 0)
+        return 0;
+
+      int count = 0;
+      ByteBuffer bytes;
+      while (count < len && (bytes = nextBytes()) != null)
+      {
+        int n = Math.min(len - count, bytes.remaining());
+        bytes.get(b, off + count, n);
+        count += n;
+      }
+      return count == 0 ? -1 : count;
+    }
+
+    @Override
+    public long skip(long n) throws IOException
+    {
+      long skipped = 0;
+      ByteBuffer bytes;
+      while (skipped < n && (bytes = nextBytes()) != null)
+      {
+        int count = (int) Math.min(n - skipped, bytes.remaining());
+        bytes.position(bytes.position() + count);
+        skipped += count;
+      }
+      return skipped;
+    }
+
+    @Override
+    public int available() throws IOException
+    {
+      if (region == null)
+        throw new IOException("Stream closed");
+
+      return (int) Math.min(Integer.MAX_VALUE,
+          fileSize - regionStart - region.position());
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+      region = null;
+      channel.close();
+    }
+  }
+}
@@ -0,0 +1,78 @@
+package gms.shared.utilities.geotess.util.filebuffer;
+
+import gms.shared.utilities.geotess.GeoTessModel;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmark of loading a binary GeoTessModel, with its grid, from a file
+ * through a {@link MappedDataInputStream}, as GeoTessModel(File) does, and
+ * through a DataInputStream wrapping a BufferedInputStream and a
+ * FileInputStream, as it did before. The model file is written once and stays
+ * in the page cache, so this measures decoding rather than disk reads. Both
+ * build the whole model on the heap. Run with: java -cp (test runtime
+ * classpath) org.openjdk.jmh.Main MappedDataInputStreamBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class MappedDataInputStreamBenchmark
+{
+	/**
+	 * Nodes in each of the 24 profiles of the model. 20000 nodes writes a
+	 * model of about 13 MB.
+	 */
+	@Param({ "1000", "20000" })
+	private int nodes;
+
+	private File modelFile;
+
+	@Setup
+	public void setUp() throws Exception
+	{
+		modelFile = File.createTempFile("MappedDataInputStreamBenchmark",
+				".geotess");
+		MappedDataInputStreamTest.newModel(nodes).writeModel(modelFile, "*");
+	}
+
+	@TearDown
+	public void tearDown()
+	{
+		modelFile.delete();
+	}
+
+	@Benchmark
+	public GeoTessModel loadMapped() throws IOException
+	{
+		return new GeoTessModel(modelFile);
+	}
+
+	@Benchmark
+	public GeoTessModel loadBuffered() throws Exception
+	{
+		try (DataInputStream input = new DataInputStream(
+				new BufferedInputStream(new FileInputStream(modelFile))))
+		{
+			return new GeoTessModel(input);
+		}
+	}
+}
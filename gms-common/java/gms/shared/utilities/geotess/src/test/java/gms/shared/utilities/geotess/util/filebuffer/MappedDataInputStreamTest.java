@@ -0,0 +1,305 @@
+package gms.shared.utilities.geotess.util.filebuffer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import gms.shared.utilities.geotess.GeoTessGrid;
+import gms.shared.utilities.geotess.GeoTessMetaData;
+import gms.shared.utilities.geotess.GeoTessModel;
+import gms.shared.utilities.geotess.util.globals.DataType;
+import gms.shared.utilities.geotess.util.numerical.platonicsolid.PlatonicSolid;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MappedDataInputStreamTest
+{
+	private static final int N = 1000;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File file;
+
+	private int[] ints;
+
+	private double[] doubles;
+
+	private float[] floats;
+
+	private long[] longs;
+
+	private short[] shorts;
+
+	@Before
+	public void setUp() throws IOException
+	{
+		Random random = new Random(1);
+		ints = new int[N];
+		doubles = new double[N];
+		floats = new float[N];
+		longs = new long[N];
+		shorts = new short[N];
+
+		file = folder.newFile("values.bin");
+		try (DataOutputStream output = new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(file))))
+		{
+			output.writeBytes("HEADER");
+			output.writeInt(42);
+			for (int i = 0; i < N; ++i)
+				output.writeInt(ints[i] = random.nextInt());
+			output.writeByte(7);
+			for (int i = 0; i < N; ++i)
+				output.writeDouble(doubles[i] = random.nextDouble());
+			for (int i = 0; i < N; ++i)
+				output.writeFloat(floats[i] = random.nextFloat());
+			for (int i = 0; i < N; ++i)
+				output.writeLong(longs[i] = random.nextLong());
+			for (int i = 0; i < N; ++i)
+				output.writeShort(shorts[i] = (short) random.nextInt());
+			output.writeUTF("tail");
+		}
+	}
+
+	/**
+	 * Reads every value back with region sizes that split values across
+	 * regions, one larger than the file, and bulk reads of single values, short
+	 * rows and whole arrays.
+	 */
+	@Test
+	public void testRoundTrip() throws IOException
+	{
+		for (int regionSize : new int[] { 7, 61, 4093,
+				MappedDataInputStream.MAXIMUM_REGION_SIZE })
+			for (int rowLength : new int[] { 1, 3, N })
+				try (MappedDataInputStream input = new MappedDataInputStream(file,
+						regionSize))
+				{
+					byte[] header = new byte[6];
+					input.readFully(header);
+					assertEquals("HEADER", new String(header, "US-ASCII"));
+					assertEquals(42, input.readInt());
+
+					int[][] intRows = new int[N / rowLength][rowLength];
+					input.readInts(intRows);
+					for (int i = 0; i < intRows.length * rowLength; ++i)
+						assertEquals(ints[i], intRows[i / rowLength][i % rowLength]);
+					for (int i = intRows.length * rowLength; i < N; ++i)
+						assertEquals(ints[i], input.readInt());
+
+					assertEquals(7, input.readByte());
+
+					double[][] doubleRows = new double[N / rowLength][rowLength];
+					input.readDoubles(doubleRows);
+					for (int i = 0; i < doubleRows.length * rowLength; ++i)
+						assertEquals(doubles[i], doubleRows[i / rowLength][i % rowLength], 0.);
+					for (int i = doubleRows.length * rowLength; i < N; ++i)
+						assertEquals(doubles[i], input.readDouble(), 0.);
+
+					float[] floatValues = new float[N];
+					input.readFloats(floatValues);
+					assertArrayEquals(floats, floatValues, 0f);
+
+					long[] longValues = new long[N];
+					input.readLongs(longValues);
+					assertArrayEquals(longs, longValues);
+
+					short[] shortValues = new short[N];
+					input.readShorts(shortValues);
+					assertArrayEquals(shorts, shortValues);
+
+					assertEquals("tail", input.readUTF());
+					assertEquals(-1, input.read());
+					assertEquals(0, input.available());
+				}
+	}
+
+	@Test(expected = EOFException.class)
+	public void testReadPastEndOfFile() throws IOException
+	{
+		try (MappedDataInputStream input = new MappedDataInputStream(file, 61))
+		{
+			input.skipBytes((int) file.length() - 2);
+			input.readInt();
+		}
+	}
+
+	@Test
+	public void testReadBytesAcrossRegions() throws IOException
+	{
+		byte[] expected = Files.readAllBytes(file.toPath());
+
+		try (MappedDataInputStream.MappedRegions regions =
+				new MappedDataInputStream.MappedRegions(file, 10))
+		{
+			byte[] bytes = new byte[expected.length + 5];
+			assertEquals(3, regions.read(bytes, 0, 3));
+
+			// 3 bytes are left in the first region, so this continues 22 bytes
+			// into the following regions
+			assertEquals(25, regions.read(bytes, 3, 25));
+
+			assertEquals(expected.length - 28,
+					regions.read(bytes, 28, bytes.length - 28));
+			assertEquals(-1, regions.read(bytes, 0, 1));
+			assertEquals(0, regions.read(bytes, 0, 0));
+
+			byte[] read = new byte[expected.length];
+			System.arraycopy(bytes, 0, read, 0, read.length);
+			assertArrayEquals(expected, read);
+		}
+	}
+
+	@Test
+	public void testGetRegion() throws IOException
+	{
+		try (MappedDataInputStream.MappedRegions regions =
+				new MappedDataInputStream.MappedRegions(file, 16))
+		{
+			assertEquals(6, regions.skip(6));
+
+			// All 10 remaining bytes of the first region
+			ByteBuffer region = regions.getRegion(10);
+			assertNotNull(region);
+			assertEquals(10, region.remaining());
+
+			// A bulk read that straddles the first and second regions
+			assertNull(regions.getRegion(11));
+
+			assertEquals(10, regions.skip(10));
+
+			// The first region is exhausted, so the second is mapped and returned
+			ByteBuffer next = regions.getRegion(16);
+			assertNotNull(next);
+			assertEquals(16, next.remaining());
+			assertSame(next, regions.getRegion(1));
+			assertNull(regions.getRegion(17));
+		}
+	}
+
+	@Test
+	public void testSkipAndAvailableAfterRemap() throws IOException
+	{
+		long length = file.length();
+
+		try (MappedDataInputStream.MappedRegions regions =
+				new MappedDataInputStream.MappedRegions(file, 8))
+		{
+			assertEquals(length, regions.available());
+
+			assertEquals(10, regions.read(new byte[10], 0, 10));
+			assertEquals(length - 10, regions.available());
+
+			// Crosses several region boundaries
+			assertEquals(21, regions.skip(21));
+			assertEquals(length - 31, regions.available());
+			assertEquals(Files.readAllBytes(file.toPath())[31] & 0xff, regions.read());
+			assertEquals(length - 32, regions.available());
+
+			// Skipping past the end of the file stops there
+			assertEquals(length - 32, regions.skip(length));
+			assertEquals(0, regions.available());
+			assertEquals(0, regions.skip(1));
+			assertEquals(-1, regions.read());
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testReadAfterClose() throws IOException
+	{
+		MappedDataInputStream input = new MappedDataInputStream(file);
+		input.close();
+		input.read();
+	}
+
+	@Test
+	public void testEmptyFile() throws IOException
+	{
+		try (MappedDataInputStream input = new MappedDataInputStream(
+				folder.newFile("empty.bin")))
+		{
+			assertEquals(-1, input.read());
+			assertEquals(0, input.available());
+		}
+	}
+
+	/**
+	 * A model loaded from a file through a MappedDataInputStream writes back
+	 * the same bytes, and the same bytes as the model loaded through a
+	 * DataInputStream.
+	 */
+	@Test
+	public void testModelLoadAndWriteByteIdentical() throws Exception
+	{
+		File modelFile = folder.newFile("model.geotess");
+		newModel(5).writeModel(modelFile, "*");
+		byte[] expected = Files.readAllBytes(modelFile.toPath());
+
+		File mappedFile = folder.newFile("mapped.geotess");
+		new GeoTessModel(modelFile).writeModel(mappedFile, "*");
+		assertArrayEquals(expected, Files.readAllBytes(mappedFile.toPath()));
+
+		File streamFile = folder.newFile("stream.geotess");
+		try (DataInputStream input = new DataInputStream(
+				new BufferedInputStream(new FileInputStream(modelFile))))
+		{
+			new GeoTessModel(input).writeModel(streamFile, "*");
+		}
+		assertArrayEquals(expected, Files.readAllBytes(streamFile.toPath()));
+	}
+
+	/**
+	 * Builds a two layer model of doubles on an icosahedron, with the given
+	 * number of nodes in each profile and three attributes per node.
+	 */
+	static GeoTessModel newModel(int nodes) throws Exception
+	{
+		PlatonicSolid solid = PlatonicSolid.ICOSAHEDRON;
+		GeoTessGrid grid = new GeoTessGrid(new int[][] { { 0, 1 } },
+				new int[][] { { 0, solid.getNFaces() } }, solid.getFaces(),
+				solid.getVertices());
+
+		GeoTessMetaData metaData = new GeoTessMetaData();
+		metaData.setDescription("MappedDataInputStream test model");
+		metaData.setLayerNames("MANTLE; CRUST");
+		metaData.setLayerTessIds(new int[] { 0, 0 });
+		metaData.setAttributes("VP; VS; RHO", "km/sec; km/sec; g/cc");
+		metaData.setDataType(DataType.DOUBLE);
+		metaData.setModelSoftwareVersion("MappedDataInputStreamTest");
+		metaData.setModelGenerationDate("2019-01-01");
+
+		GeoTessModel model = new GeoTessModel(grid, metaData);
+		for (int vertex = 0; vertex < model.getNVertices(); ++vertex)
+			for (int layer = 0; layer < 2; ++layer)
+			{
+				float[] radii = new float[nodes];
+				double[][] values = new double[nodes][3];
+				for (int node = 0; node < nodes; ++node)
+				{
+					radii[node] = 3000f + 100f * (layer * (nodes - 1) + node);
+					values[node][0] = vertex + 0.25 * node;
+					values[node][1] = layer + 0.5 * node;
+					values[node][2] = 0.125 * node;
+				}
+				model.setProfile(vertex, layer, radii, values);
+			}
+		return model;
+	}
+}
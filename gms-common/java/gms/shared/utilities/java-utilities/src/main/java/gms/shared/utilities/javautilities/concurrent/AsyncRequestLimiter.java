@@ -0,0 +1,107 @@
+package gms.shared.utilities.javautilities.concurrent;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Bounds the number of concurrently outstanding asynchronous requests without blocking the
+ * submitting thread.  Requests submitted while the bound is reached are queued and started, in
+ * submission order, as outstanding requests complete.
+ */
+public final class AsyncRequestLimiter {
+
+  private final int maxOutstanding;
+  private final Queue<Runnable> queued = new ArrayDeque<>();
+  private int outstanding;
+  private int released;
+  private boolean draining;
+
+  /**
+   * @param maxOutstanding maximum number of requests outstanding at once, must be positive
+   */
+  public AsyncRequestLimiter(int maxOutstanding) {
+    Validate.isTrue(maxOutstanding > 0, "maxOutstanding must be positive");
+    this.maxOutstanding = maxOutstanding;
+  }
+
+  /**
+   * Submits a request, starting it immediately if fewer than the maximum number of requests are
+   * outstanding.
+   *
+   * @param request starts the request and provides a future completing with its result, not null
+   * @return a future completing with the request's result
+   */
+  public <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> request) {
+    CompletableFuture<T> result = new CompletableFuture<>();
+    Runnable start = () -> {
+      CompletableFuture<T> response;
+      try {
+        response = request.get();
+      } catch (RuntimeException e) {
+        response = CompletableFuture.failedFuture(e);
+      }
+      response.whenComplete((value, error) -> {
+        release();
+        if (error == null) {
+          result.complete(value);
+        } else {
+          result.completeExceptionally(error);
+        }
+      });
+    };
+
+    synchronized (this) {
+      if (outstanding >= maxOutstanding) {
+        queued.add(start);
+        return result;
+      }
+      outstanding++;
+    }
+    start.run();
+    return result;
+  }
+
+  /**
+   * The number of requests started but not yet completed.
+   */
+  public synchronized int outstanding() {
+    return outstanding;
+  }
+
+  /**
+   * Hands the completed request's slot to the next queued request, or frees it.  A queued request
+   * may complete while it is being started, releasing its slot again on this thread, so slots are
+   * handed over in a loop by whichever thread is already draining the queue rather than by
+   * starting each queued request from the completion of the previous one, which could exhaust the
+   * stack.
+   */
+  private void release() {
+    synchronized (this) {
+      released++;
+      if (draining) {
+        return;
+      }
+      draining = true;
+    }
+
+    while (true) {
+      Runnable next;
+      synchronized (this) {
+        if (released == 0) {
+          draining = false;
+          return;
+        }
+        released--;
+        next = queued.poll();
+        if (next == null) {
+          outstanding--;
+          continue;
+        }
+      }
+      next.run();
+    }
+  }
+}
@@ -0,0 +1,94 @@
+package gms.shared.utilities.javautilities.concurrent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class AsyncRequestLimiterTests {
+
+  @Test
+  void testNonPositiveMaxThrows() {
+    assertThrows(IllegalArgumentException.class, () -> new AsyncRequestLimiter(0));
+  }
+
+  @Test
+  void testRequestsBeyondMaxWaitForEarlierRequests() throws Exception {
+    final AsyncRequestLimiter limiter = new AsyncRequestLimiter(2);
+    final List<CompletableFuture<Integer>> responses = new ArrayList<>();
+    final List<CompletableFuture<Integer>> results = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      results.add(limiter.submit(() -> {
+        final CompletableFuture<Integer> response = new CompletableFuture<>();
+        responses.add(response);
+        return response;
+      }));
+    }
+
+    assertEquals(2, responses.size());
+    assertEquals(2, limiter.outstanding());
+
+    responses.get(1).complete(1);
+    assertEquals(1, (int) results.get(1).get());
+    assertEquals(3, responses.size());
+    assertEquals(2, limiter.outstanding());
+
+    responses.get(0).complete(0);
+    responses.get(2).complete(2);
+    responses.get(3).complete(3);
+    for (int i = 0; i < 4; i++) {
+      assertEquals(i, (int) results.get(i).get());
+    }
+    assertEquals(0, limiter.outstanding());
+  }
+
+  @Test
+  void testFailedRequestReleasesItsSlot() {
+    final AsyncRequestLimiter limiter = new AsyncRequestLimiter(1);
+    final IllegalStateException failure = new IllegalStateException("failed");
+    final CompletableFuture<Object> failed = limiter.submit(() -> {
+      throw failure;
+    });
+
+    assertTrue(failed.isCompletedExceptionally());
+    assertSame(failure, assertThrows(ExecutionException.class, failed::get).getCause());
+    assertEquals(0, limiter.outstanding());
+
+    final CompletableFuture<String> next = limiter.submit(
+        () -> CompletableFuture.completedFuture("next"));
+    assertFalse(next.isCompletedExceptionally());
+    assertEquals("next", next.join());
+  }
+
+  @Test
+  void testManyQueuedRequestsCompletingWhileStartingDoNotRecurse() {
+    final AsyncRequestLimiter limiter = new AsyncRequestLimiter(1);
+    final CompletableFuture<Integer> first = new CompletableFuture<>();
+    limiter.submit(() -> first);
+
+    final AtomicInteger started = new AtomicInteger();
+    final List<CompletableFuture<Integer>> results = new ArrayList<>();
+    for (int i = 0; i < 100_000; i++) {
+      results.add(limiter.submit(
+          () -> CompletableFuture.completedFuture(started.incrementAndGet())));
+    }
+    assertEquals(0, started.get());
+    assertFalse(results.get(0).isDone());
+
+    first.complete(0);
+
+    assertEquals(results.size(), started.get());
+    for (int i = 0; i < results.size(); i++) {
+      assertEquals(i + 1, (int) results.get(i).join());
+    }
+    assertEquals(0, limiter.outstanding());
+  }
+}
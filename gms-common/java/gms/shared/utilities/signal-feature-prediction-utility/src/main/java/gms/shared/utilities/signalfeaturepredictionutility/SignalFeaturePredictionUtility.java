@@ -6,7 +6,6 @@ package gms.shared.utilities.signalfeaturepredictionutility;
 import gms.core.featureprediction.common.objects.PluginConfiguration;
 import gms.core.featureprediction.exceptions.MissingEarthModelOrPhaseException;
 import gms.core.featureprediction.plugins.SignalFeaturePredictorPlugin;
-import gms.core.featureprediction.plugins.implementations.signalfeaturepredictor.FeaturePredictionCorrection1dApplier;
 import gms.core.featureprediction.plugins.implementations.signalfeaturepredictor.PredictionType;
 import gms.shared.mechanisms.objectstoragedistribution.coi.common.DoubleValue;
 import gms.shared.mechanisms.objectstoragedistribution.coi.common.PhaseType;
@@ -38,10 +37,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import org.apache.commons.lang3.Validate;
 import org.apache.commons.math3.linear.Array2DRowRealMatrix;
@@ -59,6 +60,12 @@ public class SignalFeaturePredictionUtility {
 
   private final List<SignalFeaturePredictorPlugin> plugins;
 
+  /**
+   * Pool the ordered predict evaluates receivers on, or null to evaluate them sequentially on the
+   * calling thread
+   */
+  private final ForkJoinPool predictionPool;
+
   /**
    * Constructor
    *
@@ -72,9 +79,32 @@ public class SignalFeaturePredictionUtility {
       final PluginRegistry pluginRegistry,
       final List<PluginInfo> pluginInfoList) {
 
+    this(pluginRegistry, pluginInfoList, null);
+  }
+
+  /**
+   * Constructor
+   *
+   * @param pluginRegistry a registry for looking up plugins that implement
+   * SignalFeaturePredictorPlugin for each element of pluginInfoList. This parameter must not be
+   * null.
+   * @param pluginInfoList a list of PluginInfo for plugins that implement
+   * SignalFeaturePredictorPlugin. This parameter must not be null or empty.
+   * @param predictionPool pool the predictions for the receivers of an ordered {@link
+   * #predict(List, EventLocation, List, PhaseType, String, List)} call are evaluated on, or null
+   * to evaluate them sequentially on the calling thread.  Predictions are returned in receiver
+   * order either way.
+   */
+  public SignalFeaturePredictionUtility(
+      final PluginRegistry pluginRegistry,
+      final List<PluginInfo> pluginInfoList,
+      final ForkJoinPool predictionPool) {
+
     Validate.notNull(pluginRegistry, "pluginRegistry is required");
     Validate.notEmpty(pluginInfoList, "pluginInfoList must not be null or empty");
 
+    this.predictionPool = predictionPool;
+
     pluginRegistry.loadAndRegister();
 
     // Load up the plugins here, not in every call to predict.
@@ -116,11 +146,18 @@ public class SignalFeaturePredictionUtility {
   }
 
   /**
-   * A cleanup method to remove plugins created per thread during the population of
-   * a geotess model with grid nodes.
+   * Constructor using the default plugin, evaluating the predictions for the receivers of an
+   * ordered {@link #predict(List, EventLocation, List, PhaseType, String, List)} call on
+   * predictionPool.
+   *
+   * @param predictionPool pool to evaluate predictions on, or null to evaluate them sequentially
    */
-  public static void freeThreadSpecificPlugins() {
-    FeaturePredictionCorrection1dApplier.removeThreadSpecificPlugins();
+  public SignalFeaturePredictionUtility(final ForkJoinPool predictionPool) {
+    this(
+        PluginRegistry.getRegistry(),
+        List.of(PluginInfo.from("signalFeaturePredictor1dPlugin", "1.0.0")),
+        predictionPool
+    );
   }
 
   /**
@@ -243,6 +280,11 @@ public class SignalFeaturePredictionUtility {
     //TODO: having a set of plugins may be invalid
     SignalFeaturePredictorPlugin plugin = plugins.get(0);
 
+    if (predictionPool != null && types.size() > 1) {
+      return predictInParallel(plugin.initialize(new PluginConfiguration()), types,
+          sourceLocation, receiverLocations, phase, model, correctionDefsArray);
+    }
+
     //Use a for each loop so any exception can escape
     for (int i = 0; i < types.size(); i++) {
       try {
@@ -266,6 +308,51 @@ public class SignalFeaturePredictionUtility {
     }
 
     return featurePredictions;
+  }
+
+  /**
+   * Evaluates the predictions of the ordered predict on predictionPool.  The plugin is initialized
+   * once by the caller, since initialization is not thread safe.  Each prediction is stored at its
+   * receiver's index, and the first exception by index is rethrown, so the result is the same as
+   * the sequential loop's.
+   */
+  private List<FeaturePrediction<?>> predictInParallel(
+      SignalFeaturePredictorPlugin plugin,
+      List<FeatureMeasurementType<?>> types,
+      EventLocation sourceLocation,
+      List<Location> receiverLocations,
+      PhaseType phase,
+      String model,
+      FeaturePredictionCorrection[] correctionDefsArray) throws Exception {
+
+    final FeaturePrediction<?>[] predictions = new FeaturePrediction<?>[types.size()];
+    final Exception[] exceptions = new Exception[types.size()];
+
+    predictionPool.submit(() -> IntStream.range(0, types.size()).parallel().forEach(i -> {
+      try {
+        predictions[i] = plugin.predict(
+            model,
+            types.get(i),
+            sourceLocation,
+            receiverLocations.get(i),
+            phase,
+            PredictionType
+                .valueOf(types.get(i).getFeatureMeasurementTypeName())
+                .correctionsValid(correctionDefsArray) ? correctionDefsArray
+                : new FeaturePredictionCorrection[]{});
+      } catch (Exception e) {
+        exceptions[i] = e;
+      }
+    })).join();
+
+    for (Exception e : exceptions) {
+      if (e != null) {
+        logger.error("Plugin predict(..) method threw an exception: " + e.toString());
+        throw e;
+      }
+    }
+
+    return new ArrayList<>(Arrays.asList(predictions));
 
   }
 
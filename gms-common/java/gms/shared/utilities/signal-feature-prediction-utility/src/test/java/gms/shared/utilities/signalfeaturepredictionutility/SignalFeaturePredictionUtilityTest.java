@@ -25,6 +25,7 @@ import gms.shared.mechanisms.objectstoragedistribution.coi.signaldetection.commo
 import gms.shared.mechanisms.objectstoragedistribution.coi.signaldetection.commonobjects.FeatureMeasurementTypes;
 import gms.shared.mechanisms.objectstoragedistribution.coi.signaldetection.commonobjects.InstantValue;
 import gms.shared.mechanisms.objectstoragedistribution.coi.signaldetection.commonobjects.Location;
+import gms.shared.mechanisms.objectstoragedistribution.coi.signaldetection.commonobjects.NumericMeasurementValue;
 import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.ChannelDataType;
 import gms.shared.mechanisms.objectstoragedistribution.coi.stationreference.commonobjects.ChannelType;
 import gms.shared.mechanisms.pluginregistry.PluginInfo;
@@ -41,6 +42,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -219,6 +221,97 @@ public class SignalFeaturePredictionUtilityTest {
     });
   }
 
+  /**
+   * Assert the ordered predict returns the same predictions, in receiver order, when evaluating the
+   * receivers on a pool as when evaluating them sequentially
+   */
+  @Test
+  public void testOrderedPredictOnPoolMatchesSequential() throws Exception {
+    final List<FeatureMeasurementType<?>> types = new ArrayList<>();
+    final List<Location> receiverLocations = new ArrayList<>();
+    for (int i = 0; i < 30; i++) {
+      types.add(TestFixtures.typesAll.get(i % TestFixtures.typesAll.size()));
+      receiverLocations.add(Location.from(-60.0 + 4.0 * i, 3.0 * i, 0.0, 0.1));
+    }
+    final EventLocation sourceLocation = EventLocation.from(10.0, 110.0, 70.0, Instant.EPOCH);
+
+    final List<FeaturePrediction<?>> expected = new SignalFeaturePredictionUtility()
+        .predict(types, sourceLocation, receiverLocations, TestFixtures.phase, TestFixtures.model,
+            TestFixtures.correctionDefinitionsAll);
+
+    final ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      final List<FeaturePrediction<?>> actual = new SignalFeaturePredictionUtility(pool)
+          .predict(types, sourceLocation, receiverLocations, TestFixtures.phase,
+              TestFixtures.model, TestFixtures.correctionDefinitionsAll);
+
+      Assertions.assertEquals(expected.size(), actual.size());
+      for (int i = 0; i < expected.size(); i++) {
+        Assertions.assertEquals(types.get(i), actual.get(i).getPredictionType());
+        Assertions.assertEquals(receiverLocations.get(i), actual.get(i).getReceiverLocation());
+        Assertions.assertEquals(predictedValue(expected.get(i)), predictedValue(actual.get(i)));
+        Assertions.assertEquals(expected.get(i).getFeaturePredictionDerivativeMap(),
+            actual.get(i).getFeaturePredictionDerivativeMap());
+        Assertions.assertEquals(expected.get(i).isExtrapolated(), actual.get(i).isExtrapolated());
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Gets the predicted value, without the reference time of numeric values, which is the time the
+   * prediction was made
+   */
+  private static Optional<?> predictedValue(FeaturePrediction<?> featurePrediction) {
+    return featurePrediction.getPredictedValue()
+        .map(value -> value instanceof NumericMeasurementValue
+            ? ((NumericMeasurementValue) value).getMeasurementValue() : value);
+  }
+
+  /**
+   * Assert the ordered predict rethrows the exception of the first failing receiver when
+   * evaluating the receivers on a pool
+   */
+  @Test
+  public void testOrderedPredictOnPoolRethrowsFirstException() throws Exception {
+    PluginRegistry mockPluginRegistry = Mockito.mock(PluginRegistry.class);
+    SignalFeaturePredictorPlugin mockPlugin = Mockito.mock(SignalFeaturePredictorPlugin.class);
+    when(mockPluginRegistry.lookup(any(), any())).thenReturn(Optional.of(mockPlugin));
+    when(mockPlugin.initialize(any())).thenReturn(mockPlugin);
+
+    final List<FeatureMeasurementType<?>> types = new ArrayList<>();
+    final List<Location> receiverLocations = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      types.add(FeatureMeasurementTypes.ARRIVAL_TIME);
+      receiverLocations.add(Location.from(i, i, 0.0, 0.0));
+    }
+
+    // Receivers 5 and 15 fail, with exceptions naming their latitude
+    when(mockPlugin.predict(any(), any(), any(), any(), any(), any())).thenAnswer(invocation -> {
+      Location receiverLocation = invocation.getArgument(3);
+      if (receiverLocation.getLatitudeDegrees() == 5.0
+          || receiverLocation.getLatitudeDegrees() == 15.0) {
+        throw new IOException(Double.toString(receiverLocation.getLatitudeDegrees()));
+      }
+      return null;
+    });
+
+    final ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      SignalFeaturePredictionUtility signalFeaturePredictionUtility =
+          new SignalFeaturePredictionUtility(mockPluginRegistry,
+              List.of(PluginInfo.from("FAKE", "FAKE")), pool);
+
+      IOException exception = Assertions.assertThrows(IOException.class,
+          () -> signalFeaturePredictionUtility.predict(types, TestFixtures.sourceLocation, receiverLocations, TestFixtures.phase,
+              TestFixtures.model, TestFixtures.correctionDefinitions));
+      Assertions.assertEquals("5.0", exception.getMessage());
+    } finally {
+      pool.shutdown();
+    }
+  }
+
   @Test
   public void testProperCorrectionsPassedToPluginReceiverChannels() throws Exception {
     PluginRegistry mockPluginRegistry = Mockito.mock(PluginRegistry.class);
@@ -1,12 +1,8 @@
 package gms.shared.utilities.signalprocessing.filter;
 
 import gms.shared.mechanisms.objectstoragedistribution.coi.signaldetection.commonobjects.FilterDefinition;
-import gms.shared.mechanisms.objectstoragedistribution.coi.signaldetection.commonobjects.FilterType;
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.Waveform;
-import java.util.Collection;
-import java.util.List;
 import java.util.Objects;
-import java.util.function.Function;
 
 /**
  * Utility operations to filter {@link Waveform}s
@@ -18,37 +14,60 @@ public class Filter {
    * {@link Waveform#getSampleRate()} is in the inclusive range of {@link
    * FilterDefinition#getSampleRate()} +/- {@link FilterDefinition#getSampleRateTolerance()}
    *
+   * FIR filters apply the {@link FilterDefinition#getbCoefficients()} (see {@link Fir}).  IIR
+   * Butterworth filters are designed as second order sections from the definition's pass band
+   * type, corner frequencies, order and sample rate (see {@link Iir#butterworth}), and are applied
+   * forwards and backwards when {@link FilterDefinition#isZeroPhase()}.
+   *
    * @param waveform Waveform to filter, not null
    * @param filterDefinition FilterDefinition to apply, not null
    * @return filtered Waveform, not null
    * @throws NullPointerException if waveform or filterDefinition are null
-   * @throws IllegalArgumentException if filterDefinition is not an FIR filter
    * @throws IllegalArgumentException if waveform sampleRate is not within tolerance of the filter's
    * sampleRate
+   * @throws IllegalArgumentException if an IIR filterDefinition's corner frequencies are not
+   * below the Nyquist frequency
    */
   public static Waveform filter(Waveform waveform, FilterDefinition filterDefinition) {
 
     Objects.requireNonNull(waveform, "Filter requires non-null waveform");
     Objects.requireNonNull(filterDefinition, "Filter requires non-null filterDefinition");
 
-    // Determine filter type - currently only support FIR
-    final Collection<FilterType> firFilters = List.of(FilterType.FIR_HAMMING);
-    if (!firFilters.contains(filterDefinition.getFilterType())) {
-      throw new IllegalArgumentException("Only FIR filtering implemented");
-    }
-
     // Verify filter sample rate matches waveform sample rate
     assertSampleRateWithinTolerance(waveform, filterDefinition);
 
+    final double[] filtered;
+    switch (filterDefinition.getFilterType()) {
+      case FIR_HAMMING:
+        filtered = Fir.filter(waveform.getValues(), filterDefinition.getbCoefficients());
+        break;
+      case IIR_BUTTERWORTH:
+        filtered = iir(waveform.getValues(), filterDefinition);
+        break;
+      default:
+        throw new IllegalArgumentException(
+            "Unsupported filter type " + filterDefinition.getFilterType());
+    }
+
     // Create a new waveform with the same metadata but different samples than the input waveform
-    final Function<double[], Waveform> createWaveform = s -> Waveform
-        .withValues(waveform.getStartTime(), waveform.getSampleRate(), s);
+    return Waveform.withValues(waveform.getStartTime(), waveform.getSampleRate(), filtered);
+  }
 
-    // Apply an FIR filter to the input waveform
-    final Function<Waveform, double[]> fir = w -> Fir
-        .filter(w.getValues(), filterDefinition.getbCoefficients());
+  /**
+   * Applies the IIR Butterworth filter described by the {@link FilterDefinition} to the samples
+   *
+   * @param samples waveform samples, not null
+   * @param filterDefinition IIR Butterworth FilterDefinition, not null
+   * @return filtered samples, not null
+   */
+  private static double[] iir(double[] samples, FilterDefinition filterDefinition) {
+    final double[][] sections = Iir.butterworth(filterDefinition.getFilterPassBandType(),
+        filterDefinition.getLowFrequencyHz(), filterDefinition.getHighFrequencyHz(),
+        filterDefinition.getOrder(), filterDefinition.getSampleRate());
 
-    return createWaveform.apply(fir.apply(waveform));
+    return filterDefinition.isZeroPhase()
+        ? Iir.filterZeroPhase(samples, sections)
+        : Iir.filter(samples, sections);
   }
 
   /**
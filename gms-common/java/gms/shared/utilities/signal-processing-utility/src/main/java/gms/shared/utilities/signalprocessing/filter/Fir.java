@@ -2,12 +2,26 @@ package gms.shared.utilities.signalprocessing.filter;
 
 import java.util.Arrays;
 import java.util.Objects;
+import org.jtransforms.fft.DoubleFFT_1D;
 
 /**
- * Implements FIR filtering
+ * Implements FIR filtering.  Short filters are applied by direct convolution; filters with at least
+ * {@link #OVERLAP_SAVE_MIN_COEFFICIENTS} coefficients are applied by FFT using the overlap-save
+ * method, which costs O(log K) rather than O(K) per sample for K coefficients.
  */
 public class Fir {
 
+  /**
+   * Minimum number of bCoefficients for which {@link #filter(double[], double[])} convolves by FFT
+   */
+  static final int OVERLAP_SAVE_MIN_COEFFICIENTS = 64;
+
+  /**
+   * Overlap-save FFT length as a multiple of the number of bCoefficients (rounded up to a power of
+   * two), trading FFT length against the fraction of each block that is discarded
+   */
+  private static final int OVERLAP_SAVE_FFT_FACTOR = 4;
+
   /**
    * Applies an FIR filter defined by the bCoefficients to the input:
    * output[n] = sum{k=0 to N-1}[bCoefficients(k) * input(n-k)]
@@ -30,49 +44,101 @@ public class Fir {
       throw new IllegalArgumentException("FIR filtering requires non-empty bCoefficients");
     }
 
-    // Delay contains the relevant input samples in reverse order, i.e.
-    // delay[0] = x[n-0], delay[1] = x[n-1], ..., delay[N-1] = x[n - (N-1)]
-    // Therefore, the convolution becomes a pairwise multiply and add operation, i.e.
-    // output[n] = sum{k=0 to N-1}[bCoefficients(k) * input(n-k)]
-    //           = sum{k=0 to N-1}[bCoefficients(k) * delay(k)]
-    double[] delay = new double[bCoefficients.length];
-    Arrays.fill(delay, 0.0);
+    if (bCoefficients.length >= OVERLAP_SAVE_MIN_COEFFICIENTS
+        && input.length > bCoefficients.length) {
+      return filterOverlapSave(input, bCoefficients);
+    }
+
+    return filterDirect(input, bCoefficients);
+  }
 
-    double[] output = new double[input.length];
+  /**
+   * Applies the FIR filter by direct convolution.  Assumes input and bCoefficients are not null and
+   * bCoefficients is not empty.
+   *
+   * @param input input, not null
+   * @param bCoefficients bCoefficients, not null
+   * @return output, not null
+   */
+  static double[] filterDirect(double[] input, double[] bCoefficients) {
+    // output[n] = sum{k=0 to N-1}[bCoefficients(k) * input(n-k)], where input(n-k) is 0.0 before
+    // the first sample
+    final double[] output = new double[input.length];
     for (int n = 0; n < input.length; ++n) {
-      shiftRight(delay);
-      delay[0] = input[n];
-      output[n] = pairwiseMultiplyAndSum(bCoefficients, delay);
+      final int numTaps = Math.min(n + 1, bCoefficients.length);
+
+      double sum = 0.0;
+      for (int k = 0; k < numTaps; ++k) {
+        sum += bCoefficients[k] * input[n - k];
+      }
+      output[n] = sum;
     }
 
     return output;
   }
 
   /**
-   * Assuming a and b are of equal length and non-null, compute the sum of the pairwise
-   * multiplication of each element from a and b, i.e.
-   *  sum{n=0, N-1}[a(n) * b(n)]  where N = length of a and b
-   *  @param a double array, not null
-   *  @param b double array, not null
-   *  @return double containing the sum of pairwise multiplying a and b
+   * Applies the FIR filter by FFT convolution using the overlap-save method.  The input is split
+   * into blocks of FFT length M, each overlapping the previous one by N-1 samples (N =
+   * length(bCoefficients)).  Each block is multiplied by the filter's frequency response, and the
+   * last M-N+1 samples of its inverse FFT are output; the first N-1 are circular convolution
+   * wrap-around and are discarded.  Assumes input and bCoefficients are not null and bCoefficients
+   * is not empty.
+   *
+   * @param input input, not null
+   * @param bCoefficients bCoefficients, not null
+   * @return output, not null
    */
-  private static double pairwiseMultiplyAndSum(double[] a, double[] b) {
-    double sum = 0.0;
-    for (int k = 0; k < a.length; ++k) {
-      sum += a[k] * b[k];
+  static double[] filterOverlapSave(double[] input, double[] bCoefficients) {
+    final int numCoefficients = bCoefficients.length;
+    final int fftLength = Integer.highestOneBit(
+        Math.max(2, OVERLAP_SAVE_FFT_FACTOR * numCoefficients - 1)) << 1;
+    final int blockOutputLength = fftLength - numCoefficients + 1;
+    final DoubleFFT_1D fft = new DoubleFFT_1D(fftLength);
+
+    // Filter frequency response, in the packed real FFT layout used by DoubleFFT_1D
+    final double[] response = new double[fftLength];
+    System.arraycopy(bCoefficients, 0, response, 0, numCoefficients);
+    fft.realForward(response);
+
+    final double[] output = new double[input.length];
+    final double[] block = new double[fftLength];
+    for (int start = 0; start < input.length; start += blockOutputLength) {
+
+      // Block holds the N-1 inputs before start (0.0 before the first sample) then the new inputs
+      final int blockStart = start - (numCoefficients - 1);
+      final int firstInput = Math.max(0, blockStart);
+      final int lastInput = Math.min(input.length, blockStart + fftLength);
+      Arrays.fill(block, 0.0);
+      System.arraycopy(input, firstInput, block, firstInput - blockStart, lastInput - firstInput);
+
+      fft.realForward(block);
+      multiplyPacked(block, response);
+      fft.realInverse(block, true);
+
+      final int count = Math.min(blockOutputLength, input.length - start);
+      System.arraycopy(block, numCoefficients - 1, output, start, count);
     }
 
-    return sum;
+    return output;
   }
 
   /**
-   * Assuming a is not null, shift all of the elements of a to the right by one element.  Does not
-   * change a[0]
-   * @param a array to shift, not null
+   * Multiplies spectrum a by spectrum b in place, where both are in the packed layout produced by
+   * {@link DoubleFFT_1D#realForward(double[])} for an even length: a[0] and a[1] are the real DC
+   * and Nyquist terms, then a[2k] and a[2k+1] are the real and imaginary parts of term k.
+   *
+   * @param a spectrum to multiply, replaced by the product, not null
+   * @param b spectrum to multiply by, same length as a, not null
    */
-  private static void shiftRight(double[] a) {
-    for (int i = a.length - 1; i > 0; i--) {
-      a[i] = a[i - 1];
+  private static void multiplyPacked(double[] a, double[] b) {
+    a[0] *= b[0];
+    a[1] *= b[1];
+    for (int k = 2; k < a.length; k += 2) {
+      final double re = a[k] * b[k] - a[k + 1] * b[k + 1];
+      final double im = a[k] * b[k + 1] + a[k + 1] * b[k];
+      a[k] = re;
+      a[k + 1] = im;
     }
   }
 }
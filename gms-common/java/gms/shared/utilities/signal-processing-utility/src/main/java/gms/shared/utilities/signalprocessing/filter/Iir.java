@@ -0,0 +1,306 @@
+package gms.shared.utilities.signalprocessing.filter;
+
+import gms.shared.mechanisms.objectstoragedistribution.coi.signaldetection.commonobjects.FilterPassBandType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Implements IIR filtering as a cascade of second order sections (biquads), and the design of
+ * Butterworth filters in that form.
+ *
+ * Each section is a double[] of {b0, b1, b2, a1, a2} implementing:
+ * y[n] = b0*x[n] + b1*x[n-1] + b2*x[n-2] - a1*y[n-1] - a2*y[n-2]
+ *
+ * Cascading low order sections avoids the coefficient sensitivity of a single high order
+ * difference equation, which becomes unstable for the orders and narrow bands used in seismology.
+ */
+public class Iir {
+
+  private static final int SECTION_LENGTH = 5;
+
+  /**
+   * Designs a digital Butterworth filter by the bilinear transform of the analog prototype, with
+   * corner frequencies prewarped so the digital filter's -3 dB points fall at the requested
+   * frequencies.  LOW_PASS and HIGH_PASS filters have order poles; BAND_PASS and BAND_STOP filters
+   * have 2 * order poles (order poles per corner).  The passband gain is 1.0.
+   *
+   * @param passBandType type of pass band, not null
+   * @param lowFrequencyHz low corner frequency; used by HIGH_PASS, BAND_PASS and BAND_STOP
+   * @param highFrequencyHz high corner frequency; used by LOW_PASS, BAND_PASS and BAND_STOP
+   * @param order order of the analog low pass prototype, > 0
+   * @param sampleRate sample rate in Hz, > 0
+   * @return second order sections, not null
+   * @throws NullPointerException if passBandType is null
+   * @throws IllegalArgumentException if order or sampleRate are {@code <= 0}; if a corner
+   * frequency used by the passBandType is not strictly between 0 and the Nyquist frequency; if
+   * lowFrequencyHz {@code >= } highFrequencyHz for BAND_PASS or BAND_STOP
+   */
+  public static double[][] butterworth(FilterPassBandType passBandType, double lowFrequencyHz,
+      double highFrequencyHz, int order, double sampleRate) {
+
+    Objects.requireNonNull(passBandType, "Butterworth design requires non-null passBandType");
+
+    if (order <= 0) {
+      throw new IllegalArgumentException("Butterworth design requires order > 0");
+    }
+
+    if (sampleRate <= 0.0) {
+      throw new IllegalArgumentException("Butterworth design requires sampleRate > 0");
+    }
+
+    final boolean usesLow = passBandType != FilterPassBandType.LOW_PASS;
+    final boolean usesHigh = passBandType != FilterPassBandType.HIGH_PASS;
+    final double nyquist = sampleRate / 2.0;
+    if ((usesLow && (lowFrequencyHz <= 0.0 || lowFrequencyHz >= nyquist))
+        || (usesHigh && (highFrequencyHz <= 0.0 || highFrequencyHz >= nyquist))) {
+      throw new IllegalArgumentException(
+          "Butterworth design requires corner frequencies in (0, " + nyquist + ")");
+    }
+
+    if (usesLow && usesHigh && lowFrequencyHz >= highFrequencyHz) {
+      throw new IllegalArgumentException(
+          "Butterworth design requires low frequency < high frequency");
+    }
+
+    // Prewarped analog corners in rad/s, for the bilinear transform s = (z - 1) / (z + 1)
+    final double low = Math.tan(Math.PI * lowFrequencyHz / sampleRate);
+    final double high = Math.tan(Math.PI * highFrequencyHz / sampleRate);
+    final double bandwidth = high - low;
+    final double centerSquared = low * high;
+
+    // Digital poles from the analog prototype poles, and the digital zeros the pass band type
+    // places at z = -1 (zeros at s = infinity), z = 1 (s = 0) or the band stop center frequency
+    final List<double[]> poles = new ArrayList<>();
+    final List<double[]> zeros = new ArrayList<>();
+    final double center = 2.0 * Math.atan(Math.sqrt(centerSquared));
+    for (int k = 0; k < order; ++k) {
+      final double theta = Math.PI * (2 * k + order + 1) / (2 * order);
+      final double re = Math.cos(theta);
+      final double im = Math.sin(theta);
+
+      switch (passBandType) {
+        case LOW_PASS:
+          // s -> s / w
+          poles.add(bilinear(high * re, high * im));
+          zeros.add(new double[]{-1.0, 0.0});
+          break;
+        case HIGH_PASS:
+          // s -> w / s, and w / p = w * conj(p) since |p| = 1
+          poles.add(bilinear(low * re, -low * im));
+          zeros.add(new double[]{1.0, 0.0});
+          break;
+        case BAND_PASS:
+          // s -> (s^2 + w0^2) / (bw * s): roots of s^2 - bw * p * s + w0^2
+          addBandPoles(poles, bandwidth * re, bandwidth * im, centerSquared);
+          zeros.add(new double[]{1.0, 0.0});
+          zeros.add(new double[]{-1.0, 0.0});
+          break;
+        case BAND_STOP:
+          // s -> bw * s / (s^2 + w0^2): roots of s^2 - bw * conj(p) * s + w0^2
+          addBandPoles(poles, bandwidth * re, -bandwidth * im, centerSquared);
+          zeros.add(new double[]{Math.cos(center), Math.sin(center)});
+          zeros.add(new double[]{Math.cos(center), -Math.sin(center)});
+          break;
+        default:
+          throw new IllegalArgumentException("Unsupported pass band type " + passBandType);
+      }
+    }
+
+    // Digital frequency (radians/sample) at which the pass band gain is normalized
+    final double normalizationFrequency;
+    switch (passBandType) {
+      case HIGH_PASS:
+        normalizationFrequency = Math.PI;
+        break;
+      case BAND_PASS:
+        normalizationFrequency = center;
+        break;
+      default:
+        normalizationFrequency = 0.0;
+    }
+
+    // Each section pairs a quadratic (or linear) factor of the denominator with one of the
+    // numerator, and has unit gain at the normalization frequency
+    final List<double[]> denominators = factors(poles);
+    final List<double[]> numerators = factors(zeros);
+    final double[][] sections = new double[denominators.size()][];
+    for (int i = 0; i < sections.length; ++i) {
+      final double[] b = numerators.get(i);
+      final double[] a = denominators.get(i);
+      final double gain = magnitude(b, a, normalizationFrequency);
+      sections[i] = new double[]{b[0] / gain, b[1] / gain, b[2] / gain, a[1], a[2]};
+    }
+
+    return sections;
+  }
+
+  /**
+   * Applies the cascade of second order sections to the input, starting from rest.
+   *
+   * @param input input, not null
+   * @param sections second order sections, each {b0, b1, b2, a1, a2}, not null
+   * @return output, not null
+   * @throws NullPointerException if input or sections are null
+   * @throws IllegalArgumentException if sections is empty or a section does not have 5
+   * coefficients
+   */
+  public static double[] filter(double[] input, double[][] sections) {
+    validate(input, sections);
+
+    final double[] output = input.clone();
+    for (double[] section : sections) {
+      filterInPlace(output, section);
+    }
+
+    return output;
+  }
+
+  /**
+   * Applies the cascade of second order sections to the input forwards and then backwards, so the
+   * output has no phase shift and the squared magnitude response of the cascade.  The output is
+   * non-causal.
+   *
+   * @param input input, not null
+   * @param sections second order sections, each {b0, b1, b2, a1, a2}, not null
+   * @return output, not null
+   * @throws NullPointerException if input or sections are null
+   * @throws IllegalArgumentException if sections is empty or a section does not have 5
+   * coefficients
+   */
+  public static double[] filterZeroPhase(double[] input, double[][] sections) {
+    final double[] output = filter(input, sections);
+
+    reverse(output);
+    for (double[] section : sections) {
+      filterInPlace(output, section);
+    }
+    reverse(output);
+
+    return output;
+  }
+
+  private static void validate(double[] input, double[][] sections) {
+    Objects.requireNonNull(input, "IIR filtering requires non-null input signal");
+    Objects.requireNonNull(sections, "IIR filtering requires non-null sections");
+
+    if (sections.length == 0) {
+      throw new IllegalArgumentException("IIR filtering requires non-empty sections");
+    }
+
+    for (double[] section : sections) {
+      if (section == null || section.length != SECTION_LENGTH) {
+        throw new IllegalArgumentException(
+            "IIR filtering requires sections of " + SECTION_LENGTH + " coefficients");
+      }
+    }
+  }
+
+  /**
+   * Applies one second order section to the signal in place, using the transposed direct form II
+   * structure (two state variables, no delay line to shift).
+   */
+  private static void filterInPlace(double[] signal, double[] section) {
+    final double b0 = section[0];
+    final double b1 = section[1];
+    final double b2 = section[2];
+    final double a1 = section[3];
+    final double a2 = section[4];
+
+    double s1 = 0.0;
+    double s2 = 0.0;
+    for (int n = 0; n < signal.length; ++n) {
+      final double x = signal[n];
+      final double y = b0 * x + s1;
+      s1 = b1 * x - a1 * y + s2;
+      s2 = b2 * x - a2 * y;
+      signal[n] = y;
+    }
+  }
+
+  private static void reverse(double[] a) {
+    for (int i = 0, j = a.length - 1; i < j; ++i, --j) {
+      final double t = a[i];
+      a[i] = a[j];
+      a[j] = t;
+    }
+  }
+
+  /**
+   * Adds the digital poles for the analog roots of s^2 - c * s + w0^2, where c = (cRe, cIm)
+   */
+  private static void addBandPoles(List<double[]> poles, double cRe, double cIm,
+      double centerSquared) {
+
+    // s = c/2 +/- sqrt(c^2/4 - w0^2)
+    final double hr = cRe / 2.0;
+    final double hi = cIm / 2.0;
+    final double[] root = complexSqrt(hr * hr - hi * hi - centerSquared, 2.0 * hr * hi);
+
+    poles.add(bilinear(hr + root[0], hi + root[1]));
+    poles.add(bilinear(hr - root[0], hi - root[1]));
+  }
+
+  /**
+   * Groups roots (which must be real or in conjugate pairs) into polynomial factors in z^-1, each
+   * {1, c1, c2}: one per conjugate pair, one per two real roots, and a linear factor for a
+   * remaining real root.  Complex factors come first, then real ones, so the factors of poles and
+   * zeros with the same number of roots line up.
+   */
+  private static List<double[]> factors(List<double[]> roots) {
+    final List<double[]> factors = new ArrayList<>();
+    final List<Double> realRoots = new ArrayList<>();
+    for (double[] root : roots) {
+      final double tolerance = 1e-12 * Math.max(1.0, Math.hypot(root[0], root[1]));
+      if (Math.abs(root[1]) <= tolerance) {
+        realRoots.add(root[0]);
+      } else if (root[1] > 0.0) {
+        factors.add(new double[]{1.0, -2.0 * root[0], root[0] * root[0] + root[1] * root[1]});
+      }
+    }
+
+    for (int i = 0; i < realRoots.size(); i += 2) {
+      final double r1 = realRoots.get(i);
+      if (i + 1 < realRoots.size()) {
+        final double r2 = realRoots.get(i + 1);
+        factors.add(new double[]{1.0, -(r1 + r2), r1 * r2});
+      } else {
+        factors.add(new double[]{1.0, -r1, 0.0});
+      }
+    }
+
+    return factors;
+  }
+
+  /**
+   * Maps analog s to digital z = (1 + s) / (1 - s)
+   */
+  private static double[] bilinear(double re, double im) {
+    final double nr = 1.0 + re;
+    final double dr = 1.0 - re;
+    final double di = -im;
+    final double denominator = dr * dr + di * di;
+    return new double[]{(nr * dr + im * di) / denominator, (im * dr - nr * di) / denominator};
+  }
+
+  /**
+   * Computes |B(e^jw) / A(e^jw)| for second order polynomials b and a in z^-1
+   */
+  private static double magnitude(double[] b, double[] a, double w) {
+    return Math.hypot(poly(b, w, true), poly(b, w, false))
+        / Math.hypot(poly(a, w, true), poly(a, w, false));
+  }
+
+  private static double poly(double[] c, double w, boolean real) {
+    return real
+        ? c[0] + c[1] * Math.cos(w) + c[2] * Math.cos(2 * w)
+        : -c[1] * Math.sin(w) - c[2] * Math.sin(2 * w);
+  }
+
+  private static double[] complexSqrt(double re, double im) {
+    final double modulus = Math.hypot(re, im);
+    final double r = Math.sqrt((modulus + re) / 2.0);
+    final double i = Math.copySign(Math.sqrt((modulus - re) / 2.0), im);
+    return new double[]{r, i};
+  }
+}
@@ -15,6 +15,7 @@ import gms.shared.mechanisms.objectstoragedistribution.coi.signaldetection.commo
 import gms.shared.mechanisms.objectstoragedistribution.coi.waveforms.commonobjects.Waveform;
 import java.time.Instant;
 import java.util.Arrays;
+import java.util.Random;
 import org.junit.jupiter.api.Test;
 
 class FilterTests {
@@ -111,11 +112,22 @@ class FilterTests {
   }
 
   @Test
-  void testFilterIirExpectIllegalArgumentException() {
-    IllegalArgumentException actualException = assertThrows(IllegalArgumentException.class,
-        () -> Filter.filter(dummyWaveform, iirFilterDefinition));
+  void testFilterIir() {
+    final double[] samples = new Random(4).doubles(500).toArray();
+    final Waveform inputWaveform = Waveform.withValues(Instant.EPOCH, 20.0, samples);
+    final double[][] sections = Iir.butterworth(FilterPassBandType.BAND_PASS, 1.0, 3.0, 4, 20.0);
 
-    assertEquals("Only FIR filtering implemented", actualException.getMessage());
+    Waveform outputWaveform = Filter.filter(inputWaveform, iirFilterDefinition);
+    assertEquals(inputWaveform.getStartTime(), outputWaveform.getStartTime());
+    assertEquals(inputWaveform.getSampleCount(), outputWaveform.getSampleCount());
+    assertArrayEquals(Iir.filter(samples, sections), outputWaveform.getValues());
+
+    Waveform zeroPhaseWaveform = Filter.filter(inputWaveform,
+        iirFilterDefinition.toBuilder()
+            .setFilterCausality(FilterCausality.NON_CAUSAL)
+            .setZeroPhase(true)
+            .build());
+    assertArrayEquals(Iir.filterZeroPhase(samples, sections), zeroPhaseWaveform.getValues());
   }
 
   @Test
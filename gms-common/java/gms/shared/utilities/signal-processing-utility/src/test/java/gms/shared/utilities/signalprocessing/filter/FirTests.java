@@ -4,6 +4,8 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
 import java.util.function.DoublePredicate;
 import java.util.stream.IntStream;
 import org.junit.Rule;
@@ -79,6 +81,62 @@ public class FirTests {
         .allMatch(withinRange));
   }
 
+  /**
+   * Assert FFT (overlap-save) filtering matches direct convolution on the seismic waveform, for
+   * the Matlab filter and for a long filter
+   */
+  @Test
+  public void testOverlapSaveMatchesDirect() throws Exception {
+    final double[] longCoefficients = new Random(1).doubles(1001).map(d -> d - 0.5).toArray();
+
+    for (double[] bCoefficients : List.of(FirTestData.bCoeffs, longCoefficients)) {
+      final double[] direct = Fir.filterDirect(FirTestData.inputWaveform, bCoefficients);
+      final double[] overlapSave = Fir
+          .filterOverlapSave(FirTestData.inputWaveform, bCoefficients);
+
+      assertEquals(direct.length, overlapSave.length);
+      for (int i = 0; i < direct.length; ++i) {
+        assertEquals(direct[i], overlapSave[i], 1E-9);
+      }
+    }
+  }
+
+  /**
+   * Assert FFT filtering is correct when the input ends anywhere within an FFT block
+   */
+  @Test
+  public void testOverlapSaveInputLengths() throws Exception {
+    final double[] bCoefficients = new Random(2).doubles(Fir.OVERLAP_SAVE_MIN_COEFFICIENTS)
+        .toArray();
+
+    for (int length : new int[]{1, 63, 64, 65, 193, 194, 195, 256, 257, 1000}) {
+      final double[] input = new Random(length).doubles(length).toArray();
+      final double[] direct = Fir.filterDirect(input, bCoefficients);
+      final double[] overlapSave = Fir.filterOverlapSave(input, bCoefficients);
+
+      assertEquals(direct.length, overlapSave.length);
+      for (int i = 0; i < direct.length; ++i) {
+        assertEquals(direct[i], overlapSave[i], 1E-12);
+      }
+    }
+  }
+
+  /**
+   * Assert filtering an impulse with a filter long enough to use the FFT returns the coefficients
+   */
+  @Test
+  public void testFilterImpulseLongFilter() throws Exception {
+    final double[] bCoefficients = new Random(3).doubles(4 * Fir.OVERLAP_SAVE_MIN_COEFFICIENTS)
+        .toArray();
+    final double[] impulse = new double[3 * bCoefficients.length];
+    impulse[0] = 1.0;
+
+    final double[] output = Fir.filter(impulse, bCoefficients);
+    for (int i = 0; i < output.length; ++i) {
+      assertEquals(i < bCoefficients.length ? bCoefficients[i] : 0.0, output[i], 1E-12);
+    }
+  }
+
   @Test
   public void testFilterEmptyInputs() throws Exception {
     double[] bCoefficients = new double[]{1.23, 9.87, 2.34, 8.76, 3.45, 7.65, 4.56, 6.54};
@@ -0,0 +1,225 @@
+package gms.shared.utilities.signalprocessing.filter;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import gms.shared.mechanisms.objectstoragedistribution.coi.signaldetection.commonobjects.FilterPassBandType;
+import java.util.Arrays;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class IirTests {
+
+  @Rule
+  public final ExpectedException exception = ExpectedException.none();
+
+  private static final double SAMPLE_RATE = 20.0;
+  private static final double HALF_POWER = 1.0 / Math.sqrt(2.0);
+
+  /**
+   * Assert a second order low pass matches the textbook bilinear Butterworth design (e.g. Matlab
+   * or scipy butter(2, 0.2))
+   */
+  @Test
+  public void testButterworthLowPassCoefficients() {
+    final double[][] sections = Iir
+        .butterworth(FilterPassBandType.LOW_PASS, 0.0, 2.0, 2, SAMPLE_RATE);
+
+    assertEquals(1, sections.length);
+    assertArrayEquals(new double[]{0.0674552738890719, 0.1349105477781438, 0.0674552738890719,
+        -1.1429805025399011, 0.4128015980961886}, sections[0], 1e-12);
+  }
+
+  @Test
+  public void testButterworthLowPassResponse() {
+    for (int order = 1; order <= 7; ++order) {
+      final double[][] sections = Iir
+          .butterworth(FilterPassBandType.LOW_PASS, 0.0, 3.0, order, SAMPLE_RATE);
+
+      assertEquals((order + 1) / 2, sections.length);
+      assertStable(sections);
+      assertEquals(1.0, response(sections, 0.0), 1e-12);
+      assertEquals(HALF_POWER, response(sections, 3.0), 1e-12);
+      assertEquals(0.0, response(sections, SAMPLE_RATE / 2.0), 1e-12);
+    }
+  }
+
+  @Test
+  public void testButterworthHighPassResponse() {
+    for (int order = 1; order <= 7; ++order) {
+      final double[][] sections = Iir
+          .butterworth(FilterPassBandType.HIGH_PASS, 0.5, 0.0, order, SAMPLE_RATE);
+
+      assertStable(sections);
+      assertEquals(0.0, response(sections, 0.0), 1e-12);
+      assertEquals(HALF_POWER, response(sections, 0.5), 1e-12);
+      assertEquals(1.0, response(sections, SAMPLE_RATE / 2.0), 1e-12);
+    }
+  }
+
+  @Test
+  public void testButterworthBandPassResponse() {
+    // Includes a band wide enough that the real prototype pole maps to two real poles
+    final double[][] bands = {{1.0, 3.0}, {0.8, 4.5}, {0.05, 9.5}};
+    for (double[] band : bands) {
+      for (int order = 1; order <= 5; ++order) {
+        final double[][] sections = Iir
+            .butterworth(FilterPassBandType.BAND_PASS, band[0], band[1], order, SAMPLE_RATE);
+
+        assertEquals(order, sections.length);
+        assertStable(sections);
+        assertEquals(0.0, response(sections, 0.0), 1e-12);
+        assertEquals(HALF_POWER, response(sections, band[0]), 1e-9);
+        assertEquals(HALF_POWER, response(sections, band[1]), 1e-9);
+        assertEquals(0.0, response(sections, SAMPLE_RATE / 2.0), 1e-12);
+      }
+    }
+  }
+
+  @Test
+  public void testButterworthBandStopResponse() {
+    for (int order = 1; order <= 5; ++order) {
+      final double[][] sections = Iir
+          .butterworth(FilterPassBandType.BAND_STOP, 2.0, 4.0, order, SAMPLE_RATE);
+
+      assertStable(sections);
+      assertEquals(1.0, response(sections, 0.0), 1e-12);
+      assertEquals(HALF_POWER, response(sections, 2.0), 1e-9);
+      assertEquals(HALF_POWER, response(sections, 4.0), 1e-9);
+      assertEquals(1.0, response(sections, SAMPLE_RATE / 2.0), 1e-9);
+      assertEquals(0.0, response(sections,
+          SAMPLE_RATE / Math.PI * Math.atan(Math.sqrt(Math.tan(Math.PI * 2.0 / SAMPLE_RATE)
+              * Math.tan(Math.PI * 4.0 / SAMPLE_RATE)))), 1e-9);
+    }
+  }
+
+  /**
+   * Assert the causal filter's impulse response matches the difference equations evaluated
+   * directly, section by section
+   */
+  @Test
+  public void testFilterImpulse() {
+    final double[][] sections = Iir
+        .butterworth(FilterPassBandType.BAND_PASS, 1.0, 3.0, 3, SAMPLE_RATE);
+    final double[] impulse = new double[200];
+    impulse[0] = 1.0;
+
+    double[] expected = impulse;
+    for (double[] s : sections) {
+      final double[] x = expected;
+      final double[] y = new double[x.length];
+      for (int n = 0; n < x.length; ++n) {
+        y[n] = s[0] * x[n]
+            + (n > 0 ? s[1] * x[n - 1] - s[3] * y[n - 1] : 0.0)
+            + (n > 1 ? s[2] * x[n - 2] - s[4] * y[n - 2] : 0.0);
+      }
+      expected = y;
+    }
+
+    assertArrayEquals(expected, Iir.filter(impulse, sections), 1e-15);
+  }
+
+  /**
+   * Assert a zero phase filter passes an in-band sinusoid without shifting it, and applies the
+   * squared magnitude response
+   */
+  @Test
+  public void testFilterZeroPhase() {
+    final double[][] sections = Iir
+        .butterworth(FilterPassBandType.BAND_PASS, 1.0, 3.0, 2, SAMPLE_RATE);
+
+    final double frequency = 2.5;
+    final double[] sinusoid = new double[4000];
+    for (int n = 0; n < sinusoid.length; ++n) {
+      sinusoid[n] = Math.sin(2.0 * Math.PI * frequency * n / SAMPLE_RATE);
+    }
+
+    final double gain = Math.pow(response(sections, frequency), 2.0);
+    final double[] output = Iir.filterZeroPhase(sinusoid, sections);
+
+    // Compare away from the ends, where the filter transients have decayed
+    for (int n = 1000; n < 3000; ++n) {
+      assertEquals(gain * sinusoid[n], output[n], 1e-6);
+    }
+
+    // The causal filter shifts the same sinusoid
+    final double[] causal = Iir.filter(sinusoid, sections);
+    assertTrue(Math.abs(causal[2000] - response(sections, frequency) * sinusoid[2000]) > 1e-2);
+  }
+
+  @Test
+  public void testFilterDoesNotModifyInput() {
+    final double[][] sections = Iir
+        .butterworth(FilterPassBandType.LOW_PASS, 0.0, 2.0, 4, SAMPLE_RATE);
+    final double[] input = {1.0, -2.0, 3.0, -4.0, 5.0};
+    final double[] copy = input.clone();
+
+    Iir.filter(input, sections);
+    Iir.filterZeroPhase(input, sections);
+    assertArrayEquals(copy, input, 0.0);
+  }
+
+  @Test
+  public void testFilterEmptyInputs() {
+    final double[][] sections = Iir
+        .butterworth(FilterPassBandType.LOW_PASS, 0.0, 2.0, 4, SAMPLE_RATE);
+    assertEquals(0, Iir.filter(new double[0], sections).length);
+    assertEquals(0, Iir.filterZeroPhase(new double[0], sections).length);
+  }
+
+  @Test
+  public void testFilterEmptySectionsExpectIllegalArgumentException() {
+    exception.expect(IllegalArgumentException.class);
+    exception.expectMessage("IIR filtering requires non-empty sections");
+    Iir.filter(new double[]{1.0, 2.0}, new double[][]{});
+  }
+
+  @Test
+  public void testFilterNullInputExpectNullPointerException() {
+    exception.expect(NullPointerException.class);
+    exception.expectMessage("IIR filtering requires non-null input signal");
+    Iir.filter(null, new double[][]{{1.0, 0.0, 0.0, 0.0, 0.0}});
+  }
+
+  @Test
+  public void testButterworthCornerAboveNyquistExpectIllegalArgumentException() {
+    exception.expect(IllegalArgumentException.class);
+    exception.expectMessage("Butterworth design requires corner frequencies in (0, 10.0)");
+    Iir.butterworth(FilterPassBandType.BAND_PASS, 1.0, 10.0, 4, SAMPLE_RATE);
+  }
+
+  @Test
+  public void testButterworthNonPositiveOrderExpectIllegalArgumentException() {
+    exception.expect(IllegalArgumentException.class);
+    exception.expectMessage("Butterworth design requires order > 0");
+    Iir.butterworth(FilterPassBandType.LOW_PASS, 0.0, 2.0, 0, SAMPLE_RATE);
+  }
+
+  /**
+   * Assert every section's poles are inside the unit circle
+   */
+  private static void assertStable(double[][] sections) {
+    Arrays.stream(sections).forEach(s -> {
+      assertTrue(Arrays.toString(s), Math.abs(s[4]) < 1.0);
+      assertTrue(Arrays.toString(s), Math.abs(s[3]) < 1.0 + s[4]);
+    });
+  }
+
+  /**
+   * Computes the magnitude response of the cascade at frequencyHz
+   */
+  private static double response(double[][] sections, double frequencyHz) {
+    final double w = 2.0 * Math.PI * frequencyHz / SAMPLE_RATE;
+    double magnitude = 1.0;
+    for (double[] s : sections) {
+      final double bRe = s[0] + s[1] * Math.cos(w) + s[2] * Math.cos(2 * w);
+      final double bIm = -s[1] * Math.sin(w) - s[2] * Math.sin(2 * w);
+      final double aRe = 1.0 + s[3] * Math.cos(w) + s[4] * Math.cos(2 * w);
+      final double aIm = -s[3] * Math.sin(w) - s[4] * Math.sin(2 * w);
+      magnitude *= Math.hypot(bRe, bIm) / Math.hypot(aRe, aIm);
+    }
+    return magnitude;
+  }
+}